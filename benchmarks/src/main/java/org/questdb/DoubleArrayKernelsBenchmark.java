@@ -0,0 +1,157 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.questdb;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.arr.DirectArray;
+import io.questdb.cairo.arr.DoubleArrayKernels;
+import io.questdb.cairo.vm.api.MemoryA;
+import io.questdb.std.Numbers;
+import io.questdb.std.Rnd;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link DoubleArrayKernels} with the per-element {@code getDouble()} loops
+ * that array functions use for non-contiguous arrays. Arrays are square matrices of
+ * {@code size x size} elements; dot product and addition treat them as flat vectors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DoubleArrayKernelsBenchmark {
+    @Param({"4", "16", "64", "256"})
+    public int size;
+
+    private DirectArray left;
+    private DirectArray out;
+    private DirectArray right;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(DoubleArrayKernelsBenchmark.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(3)
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Benchmark
+    public void addKernel(Blackhole bh) {
+        DoubleArrayKernels.add(left.ptr(), right.ptr(), out.ptr(), size * size);
+        bh.consume(out.ptr());
+    }
+
+    @Benchmark
+    public void addLoop(Blackhole bh) {
+        for (int i = 0, n = size * size; i < n; i++) {
+            out.putDouble(i, left.getDouble(i) + right.getDouble(i));
+        }
+        bh.consume(out.ptr());
+    }
+
+    @Benchmark
+    public void dotProductKernel(Blackhole bh) {
+        bh.consume(DoubleArrayKernels.dotProduct(left.ptr(), right.ptr(), size * size));
+    }
+
+    @Benchmark
+    public void dotProductLoop(Blackhole bh) {
+        double value = 0d;
+        for (int i = 0, n = size * size; i < n; i++) {
+            final double l = left.getDouble(i);
+            final double r = right.getDouble(i);
+            if (Numbers.isFinite(l) && Numbers.isFinite(r)) {
+                value += l * r;
+            }
+        }
+        bh.consume(value);
+    }
+
+    @Benchmark
+    public void matmulKernel(Blackhole bh) {
+        DoubleArrayKernels.matmul(left.ptr(), right.ptr(), out.ptr(), size, size, size);
+        bh.consume(out.ptr());
+    }
+
+    @Benchmark
+    public void matmulLoop(Blackhole bh) {
+        final MemoryA mem = out.startMemoryA();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                double sum = 0;
+                for (int k = 0; k < size; k++) {
+                    sum += left.getDouble(row * size + k) * right.getDouble(k * size + col);
+                }
+                mem.putDouble(sum);
+            }
+        }
+        bh.consume(out.ptr());
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Rnd rnd = new Rnd();
+        left = newMatrix(rnd);
+        right = newMatrix(rnd);
+        out = newMatrix(rnd);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        left.close();
+        right.close();
+        out.close();
+    }
+
+    private DirectArray newMatrix(Rnd rnd) {
+        final DirectArray array = new DirectArray();
+        array.setType(ColumnType.encodeArrayType(ColumnType.DOUBLE, 2));
+        array.setDimLen(0, size);
+        array.setDimLen(1, size);
+        array.applyShape();
+        final MemoryA mem = array.startMemoryA();
+        for (int i = 0, n = size * size; i < n; i++) {
+            mem.putDouble(rnd.nextDouble());
+        }
+        return array;
+    }
+}
@@ -30,7 +30,10 @@ import io.questdb.cairo.map.MapKey;
 import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.map.OrderedMap;
 import io.questdb.std.Misc;
+import io.questdb.std.IntList;
+import io.questdb.std.MemoryTag;
 import io.questdb.std.Rnd;
+import io.questdb.std.Unsafe;
 import io.questdb.std.str.StringSink;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.runner.Runner;
@@ -46,15 +49,24 @@ import java.util.concurrent.TimeUnit;
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
 public class MapReadBenchmark {
 
+    private static final IntList HUGE_PAGE_TAGS = new IntList();
     private static final double loadFactor = 0.7;
     private static final Rnd rnd = new Rnd();
     private static final StringSink sink = new StringSink();
+    // transparent huge pages for the map's native memory, see ram.huge.pages.memory.tags
+    @Param({"false", "true"})
+    public boolean hugePages;
     // aim for L1, L2, L3, RAM
     @Param({"1000", "10000", "100000", "1000000"})
     public int size;
     private HashMap<String, Long> hmap;
     private OrderedMap orderedMap;
 
+    static {
+        HUGE_PAGE_TAGS.add(MemoryTag.NATIVE_FAST_MAP);
+        HUGE_PAGE_TAGS.add(MemoryTag.NATIVE_FAST_MAP_INT_LIST);
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
                 .include(MapReadBenchmark.class.getSimpleName())
@@ -69,6 +81,7 @@ public class MapReadBenchmark {
     @Setup
     public void setup() {
         rnd.reset();
+        Unsafe.setHugePages(hugePages ? HUGE_PAGE_TAGS : new IntList(), 2 * 1024 * 1024);
 
         Misc.free(orderedMap);
 
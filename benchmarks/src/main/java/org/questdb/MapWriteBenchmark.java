@@ -29,7 +29,10 @@ import io.questdb.cairo.SingleColumnType;
 import io.questdb.cairo.map.MapKey;
 import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.map.OrderedMap;
+import io.questdb.std.IntList;
+import io.questdb.std.MemoryTag;
 import io.questdb.std.Rnd;
+import io.questdb.std.Unsafe;
 import io.questdb.std.str.StringSink;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.runner.Runner;
@@ -45,15 +48,24 @@ import java.util.concurrent.TimeUnit;
 @OutputTimeUnit(TimeUnit.MICROSECONDS)
 public class MapWriteBenchmark {
 
+    private static final IntList HUGE_PAGE_TAGS = new IntList();
     private static final double loadFactor = 0.7;
     private static final HashMap<String, Long> hmap = new HashMap<>(64, (float) loadFactor);
     private static final OrderedMap orderedMap = new OrderedMap(1024 * 1024, new SingleColumnType(ColumnType.STRING), new SingleColumnType(ColumnType.LONG), 64, loadFactor, Integer.MAX_VALUE);
     private static final StringSink sink = new StringSink();
     private final Rnd rnd = new Rnd();
+    // transparent huge pages for the map's native memory, see ram.huge.pages.memory.tags
+    @Param({"false", "true"})
+    public boolean hugePages;
     // aim for L1, L2, L3, RAM
     @Param({"5000", "50000", "500000", "5000000"})
     public int size;
 
+    static {
+        HUGE_PAGE_TAGS.add(MemoryTag.NATIVE_FAST_MAP);
+        HUGE_PAGE_TAGS.add(MemoryTag.NATIVE_FAST_MAP_INT_LIST);
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
                 .include(MapWriteBenchmark.class.getSimpleName())
@@ -65,6 +77,11 @@ public class MapWriteBenchmark {
         new Runner(opt).run();
     }
 
+    @Setup(Level.Trial)
+    public void setup() {
+        Unsafe.setHugePages(hugePages ? HUGE_PAGE_TAGS : new IntList(), 2 * 1024 * 1024);
+    }
+
     @Setup(Level.Iteration)
     public void reset() {
         rnd.reset();
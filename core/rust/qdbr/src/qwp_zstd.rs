@@ -1,12 +1,21 @@
-//! JNI bindings for zstd compression used by the QWP egress protocol.
+//! JNI bindings for zstd compression used by the QWP egress protocol and by
+//! the HTTP server's `zstd` content encoding.
 //!
 //! Exposes a thin wrapper over zstd's context-based API:
-//!   * ZSTD_CCtx per server-side egress connection, level fixed at create time.
-//!   * ZSTD_DCtx per client IoThread.
+//!   * ZSTD_CCtx per server-side egress or HTTP connection, level fixed at
+//!     create time.
+//!   * ZSTD_DCtx per client IoThread and per ILP/HTTP connection.
+//!
+//! The one-shot entry points (`compress`, `decompress`) handle whole QWP
+//! frames. The streaming ones (`compressStream`, `decompressStream`) handle
+//! HTTP bodies that arrive or leave in chunks; they report how much input they
+//! consumed and how much output they produced through a 16-byte progress block
+//! at `progress_addr` (two native-endian u64s, in that order).
 //!
 //! All entry points operate on raw native pointers so Java callers can pass
 //! direct-buffer addresses with zero copies. Return values:
-//!   * non-negative  -- compressed / decompressed byte count
+//!   * non-negative  -- compressed / decompressed byte count, or the streaming
+//!                      hint returned by zstd
 //!   * negative      -- zstd error code, negated for transport across JNI
 //!
 //! Every extern is wrapped in [`catch_unwind`] before returning to the JVM.
@@ -21,7 +30,13 @@ use jni::sys::{jint, jlong};
 use jni::JNIEnv;
 use std::panic::{catch_unwind, AssertUnwindSafe};
 use zstd::zstd_safe;
-use zstd::zstd_safe::{CCtx, CParameter, DCtx};
+use zstd::zstd_safe::zstd_sys::ZSTD_EndDirective;
+use zstd::zstd_safe::{CCtx, CParameter, DCtx, InBuffer, OutBuffer, ResetDirective};
+
+// Must match Zstd.END_CONTINUE, Zstd.END_FLUSH and Zstd.END_FRAME on the Java side.
+const END_CONTINUE: jint = 0;
+const END_FLUSH: jint = 1;
+const END_FRAME: jint = 2;
 
 #[no_mangle]
 pub extern "system" fn Java_io_questdb_std_Zstd_createCCtx(
@@ -142,6 +157,120 @@ pub extern "system" fn Java_io_questdb_std_Zstd_decompress(
     })
 }
 
+#[no_mangle]
+pub extern "system" fn Java_io_questdb_std_Zstd_compressStream(
+    _env: JNIEnv,
+    _class: JClass,
+    ctx: jlong,
+    src_addr: jlong,
+    src_len: jlong,
+    dst_addr: jlong,
+    dst_cap: jlong,
+    end_op: jint,
+    progress_addr: jlong,
+) -> jlong {
+    ffi_guard_jlong("compressStream", -1, || {
+        if ctx == 0
+            || progress_addr == 0
+            || !valid_slice_args(src_addr, src_len)
+            || !valid_slice_args(dst_addr, dst_cap)
+        {
+            return -1;
+        }
+        let directive = match end_op {
+            END_CONTINUE => ZSTD_EndDirective::ZSTD_e_continue,
+            END_FLUSH => ZSTD_EndDirective::ZSTD_e_flush,
+            END_FRAME => ZSTD_EndDirective::ZSTD_e_end,
+            _ => return -1,
+        };
+        let cctx = unsafe { &mut *(ctx as *mut CCtx<'static>) };
+        let src = unsafe { make_slice(src_addr, src_len) };
+        let dst = unsafe { make_slice_mut(dst_addr, dst_cap) };
+        let mut input = InBuffer::around(src);
+        let mut output = OutBuffer::around(dst);
+        let result = cctx.compress_stream2(&mut output, &mut input, directive);
+        unsafe { write_progress(progress_addr, input.pos(), output.pos()) };
+        match result {
+            // Bytes still buffered in the context; 0 once a flush or frame end completes.
+            Ok(n) => n as jlong,
+            // See `Java_io_questdb_std_Zstd_compress` for the error-code encoding.
+            Err(code) => code as jlong,
+        }
+    })
+}
+
+#[no_mangle]
+pub extern "system" fn Java_io_questdb_std_Zstd_decompressStream(
+    _env: JNIEnv,
+    _class: JClass,
+    ctx: jlong,
+    src_addr: jlong,
+    src_len: jlong,
+    dst_addr: jlong,
+    dst_cap: jlong,
+    progress_addr: jlong,
+) -> jlong {
+    ffi_guard_jlong("decompressStream", -1, || {
+        if ctx == 0
+            || progress_addr == 0
+            || !valid_slice_args(src_addr, src_len)
+            || !valid_slice_args(dst_addr, dst_cap)
+        {
+            return -1;
+        }
+        let dctx = unsafe { &mut *(ctx as *mut DCtx<'static>) };
+        let src = unsafe { make_slice(src_addr, src_len) };
+        let dst = unsafe { make_slice_mut(dst_addr, dst_cap) };
+        let mut input = InBuffer::around(src);
+        let mut output = OutBuffer::around(dst);
+        let result = dctx.decompress_stream(&mut output, &mut input);
+        unsafe { write_progress(progress_addr, input.pos(), output.pos()) };
+        match result {
+            // 0 once a frame is fully decoded and flushed, otherwise a hint
+            // for the size of the next input chunk.
+            Ok(n) => n as jlong,
+            Err(code) => code as jlong,
+        }
+    })
+}
+
+#[no_mangle]
+pub extern "system" fn Java_io_questdb_std_Zstd_resetCCtx(
+    _env: JNIEnv,
+    _class: JClass,
+    ctx: jlong,
+) -> jlong {
+    ffi_guard_jlong("resetCCtx", -1, || {
+        if ctx == 0 {
+            return -1;
+        }
+        let cctx = unsafe { &mut *(ctx as *mut CCtx<'static>) };
+        // Session only: the compression level set at create time is kept.
+        match cctx.reset(ResetDirective::SessionOnly) {
+            Ok(_) => 0,
+            Err(code) => code as jlong,
+        }
+    })
+}
+
+#[no_mangle]
+pub extern "system" fn Java_io_questdb_std_Zstd_resetDCtx(
+    _env: JNIEnv,
+    _class: JClass,
+    ctx: jlong,
+) -> jlong {
+    ffi_guard_jlong("resetDCtx", -1, || {
+        if ctx == 0 {
+            return -1;
+        }
+        let dctx = unsafe { &mut *(ctx as *mut DCtx<'static>) };
+        match dctx.reset(ResetDirective::SessionOnly) {
+            Ok(_) => 0,
+            Err(code) => code as jlong,
+        }
+    })
+}
+
 /// Catches any panic escaping `f` and converts it into `sentinel`. The panic
 /// payload is logged to stderr (the JVM forwards stderr to the QuestDB log)
 /// so an operator gets a tagged record of the FFI failure even though the
@@ -214,6 +343,14 @@ unsafe fn make_slice<'a>(addr: jlong, len: jlong) -> &'a [u8] {
     std::slice::from_raw_parts(addr as *const u8, len as usize)
 }
 
+/// # Safety
+/// `progress_addr` must point to 16 writable bytes.
+unsafe fn write_progress(progress_addr: jlong, consumed: usize, produced: usize) {
+    let p = progress_addr as *mut u64;
+    p.write_unaligned(consumed as u64);
+    p.add(1).write_unaligned(produced as u64);
+}
+
 /// # Safety
 /// Caller must have checked `valid_slice_args(addr, len)` beforehand and must
 /// guarantee the memory region is valid for writes for the slice's lifetime.
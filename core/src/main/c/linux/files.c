@@ -133,6 +133,11 @@ JNIEXPORT jint JNICALL Java_io_questdb_std_Files_fadvise0
     return posix_fadvise((int) fd, (off_t) offset, (off_t) len, advise);
 }
 
+JNIEXPORT jint JNICALL Java_io_questdb_std_Files_syncfs0
+        (JNIEnv *e, jclass cls, jint fd) {
+    return syncfs((int) fd);
+}
+
 JNIEXPORT jint JNICALL Java_io_questdb_std_Files_getPosixFadvRandom(JNIEnv *e, jclass cls) {
     return POSIX_FADV_RANDOM;
 }
@@ -229,7 +229,9 @@ public class Bootstrap {
         if (!config.getMetricsConfiguration().isEnabled()) {
             log.advisoryW().$("Metrics are disabled, health check endpoint will not consider unhandled errors").$();
         }
-        Unsafe.setRssMemLimit(config.getMemoryConfiguration().getResolvedRamUsageLimitBytes());
+        final MemoryConfiguration memoryConfiguration = config.getMemoryConfiguration();
+        Unsafe.setRssMemLimit(memoryConfiguration.getResolvedRamUsageLimitBytes());
+        Unsafe.setHugePages(memoryConfiguration.getHugePagesMemoryTags(), memoryConfiguration.getHugePagesMinSize());
     }
 
     public static String[] getServerMainArgs(CharSequence root) {
@@ -24,7 +24,21 @@
 
 package io.questdb;
 
+import io.questdb.std.IntList;
+
 public class DefaultMemoryConfiguration implements MemoryConfiguration {
+    private static final IntList NO_TAGS = new IntList(0);
+
+    @Override
+    public IntList getHugePagesMemoryTags() {
+        return NO_TAGS;
+    }
+
+    @Override
+    public long getHugePagesMinSize() {
+        return 2 * 1024 * 1024;
+    }
+
     @Override
     public long getMemoryUsageLogInterval() {
         return 60_000;
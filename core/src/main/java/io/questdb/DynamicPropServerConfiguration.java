@@ -107,6 +107,9 @@ public class DynamicPropServerConfiguration implements ServerConfiguration, Conf
             PropertyKey.CAIRO_MAT_VIEW_REFRESH_MEMORY_LIMIT_BYTES,
             PropertyKey.CAIRO_WAL_APPLY_MEMORY_LIMIT_BYTES,
             PropertyKey.CAIRO_LIVE_VIEW_REFRESH_MEMORY_LIMIT_BYTES,
+            PropertyKey.CAIRO_SQL_WORKLOAD_HIGH_MEMORY_LIMIT_BYTES,
+            PropertyKey.CAIRO_SQL_WORKLOAD_NORMAL_MEMORY_LIMIT_BYTES,
+            PropertyKey.CAIRO_SQL_WORKLOAD_LOW_MEMORY_LIMIT_BYTES,
             PropertyKey.MEMORY_USAGE_LOG_ENABLED,
             PropertyKey.MEMORY_USAGE_LOG_INTERVAL,
             PropertyKey.QWP_EGRESS_COMPRESSION_FORCE_LEVEL
@@ -24,8 +24,22 @@
 
 package io.questdb;
 
+import io.questdb.std.IntList;
+
 public interface MemoryConfiguration {
 
+    /**
+     * Returns the native memory tags whose large allocations are advised to be backed by
+     * transparent huge pages, as set by ram.huge.pages.memory.tags.
+     */
+    IntList getHugePagesMemoryTags();
+
+    /**
+     * Returns the minimum size, in bytes, of a block advised to be backed by transparent
+     * huge pages, as set by ram.huge.pages.min.size.
+     */
+    long getHugePagesMinSize();
+
     /**
      * Returns the interval in milliseconds between periodic memory usage log entries.
      */
@@ -24,11 +24,14 @@
 
 package io.questdb;
 
+import io.questdb.std.IntList;
 import io.questdb.std.Os;
 
 public class MemoryConfigurationImpl implements MemoryConfiguration {
     private final long configuredLimitBytes;
     private final long configuredLimitPercent;
+    private final IntList hugePagesMemoryTags;
+    private final long hugePagesMinSize;
     private final boolean memoryUsageLogEnabled;
     private final long memoryUsageLogInterval;
     private final long ramUsageLimit;
@@ -38,10 +41,14 @@ public class MemoryConfigurationImpl implements MemoryConfiguration {
             long configuredLimitBytes,
             long configuredLimitPercent,
             boolean memoryUsageLogEnabled,
-            long memoryUsageLogInterval
+            long memoryUsageLogInterval,
+            IntList hugePagesMemoryTags,
+            long hugePagesMinSize
     ) {
         this.configuredLimitBytes = configuredLimitBytes;
         this.configuredLimitPercent = configuredLimitPercent;
+        this.hugePagesMemoryTags = hugePagesMemoryTags;
+        this.hugePagesMinSize = hugePagesMinSize;
         this.memoryUsageLogEnabled = memoryUsageLogEnabled;
         this.memoryUsageLogInterval = memoryUsageLogInterval;
         this.totalSystemMemory = Os.getMemorySizeFromMXBean();
@@ -58,6 +65,16 @@ public class MemoryConfigurationImpl implements MemoryConfiguration {
                   : Math.min(configuredLimitBytes, limitByPercent);
     }
 
+    @Override
+    public IntList getHugePagesMemoryTags() {
+        return hugePagesMemoryTags;
+    }
+
+    @Override
+    public long getHugePagesMinSize() {
+        return hugePagesMinSize;
+    }
+
     @Override
     public long getMemoryUsageLogInterval() {
         return memoryUsageLogInterval;
@@ -24,6 +24,8 @@
 
 package io.questdb;
 
+import io.questdb.std.IntList;
+
 import java.util.concurrent.atomic.AtomicReference;
 
 public class MemoryConfigurationWrapper implements MemoryConfiguration {
@@ -33,6 +35,16 @@ public class MemoryConfigurationWrapper implements MemoryConfiguration {
         delegate.set(null);
     }
 
+    @Override
+    public IntList getHugePagesMemoryTags() {
+        return getDelegate().getHugePagesMemoryTags();
+    }
+
+    @Override
+    public long getHugePagesMinSize() {
+        return getDelegate().getHugePagesMinSize();
+    }
+
     @Override
     public long getMemoryUsageLogInterval() {
         return getDelegate().getMemoryUsageLogInterval();
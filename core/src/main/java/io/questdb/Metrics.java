@@ -24,10 +24,13 @@
 
 package io.questdb;
 
+import io.questdb.cairo.PartitionTieringMetrics;
 import io.questdb.cairo.TableWriterMetrics;
+import io.questdb.cairo.sql.async.QueryAdmissionMetrics;
 import io.questdb.cairo.wal.WalMetrics;
 import io.questdb.cutlass.http.processors.HttpMetrics;
 import io.questdb.cutlass.http.processors.JsonQueryMetrics;
+import io.questdb.griffin.engine.table.parquet.ParquetRowGroupCacheMetrics;
 import io.questdb.cutlass.line.LineMetrics;
 import io.questdb.cutlass.pgwire.PGMetrics;
 import io.questdb.cutlass.qwp.server.egress.QwpEgressMetrics;
@@ -55,7 +58,10 @@ public class Metrics implements Target, Mutable {
     private final JsonQueryMetrics jsonQueryMetrics;
     private final LineMetrics lineMetrics;
     private final MetricsRegistry metricsRegistry;
+    private final ParquetRowGroupCacheMetrics parquetRowGroupCacheMetrics;
+    private final PartitionTieringMetrics partitionTieringMetrics;
     private final PGMetrics pgMetrics;
+    private final QueryAdmissionMetrics queryAdmissionMetrics;
     private final QwpEgressMetrics qwpEgressMetrics;
     private final Runtime runtime = Runtime.getRuntime();
     private final VirtualLongGauge.StatProvider jvmFreeMemRef = runtime::freeMemory;
@@ -72,6 +78,9 @@ public class Metrics implements Target, Mutable {
         this.jsonQueryMetrics = new JsonQueryMetrics(metricsRegistry);
         this.httpMetrics = new HttpMetrics(metricsRegistry);
         this.pgMetrics = new PGMetrics(metricsRegistry);
+        this.parquetRowGroupCacheMetrics = new ParquetRowGroupCacheMetrics(metricsRegistry);
+        this.partitionTieringMetrics = new PartitionTieringMetrics(metricsRegistry);
+        this.queryAdmissionMetrics = new QueryAdmissionMetrics(metricsRegistry);
         this.qwpEgressMetrics = new QwpEgressMetrics(metricsRegistry);
         this.lineMetrics = new LineMetrics(metricsRegistry);
         this.healthCheck = new HealthMetricsImpl(metricsRegistry);
@@ -87,6 +96,9 @@ public class Metrics implements Target, Mutable {
         gcMetrics.clear();
         jsonQueryMetrics.clear();
         pgMetrics.clear();
+        parquetRowGroupCacheMetrics.clear();
+        partitionTieringMetrics.clear();
+        queryAdmissionMetrics.clear();
         qwpEgressMetrics.clear();
         lineMetrics.clear();
         healthCheck.clear();
@@ -125,10 +137,22 @@ public class Metrics implements Target, Mutable {
         return lineMetrics;
     }
 
+    public ParquetRowGroupCacheMetrics parquetRowGroupCacheMetrics() {
+        return parquetRowGroupCacheMetrics;
+    }
+
+    public PartitionTieringMetrics partitionTieringMetrics() {
+        return partitionTieringMetrics;
+    }
+
     public PGMetrics pgWireMetrics() {
         return pgMetrics;
     }
 
+    public QueryAdmissionMetrics queryAdmissionMetrics() {
+        return queryAdmissionMetrics;
+    }
+
     public QwpEgressMetrics qwpEgressMetrics() {
         return qwpEgressMetrics;
     }
@@ -40,6 +40,7 @@ class PropHttpContextConfiguration implements HttpContextConfiguration {
     private final int connectionStringPoolCapacity;
     private final int exportConnectionLimit;
     private final boolean httpAllowDeflateBeforeSend;
+    private final boolean httpAllowZstdBeforeSend;
     private final int httpForceRecvFragmentationChunkSize;
     private final int httpForceSendFragmentationChunkSize;
     private final boolean httpFrozenClock;
@@ -50,6 +51,7 @@ class PropHttpContextConfiguration implements HttpContextConfiguration {
     private final boolean httpServerKeepAlive;
     private final long httpSessionTimeout;
     private final String httpVersion;
+    private final int httpZstdCompressionLevel;
     private final boolean isReadOnlyInstance;
     private final int multipartHeaderBufferSize;
     private final long multipartIdleSpinCount;
@@ -93,7 +95,9 @@ class PropHttpContextConfiguration implements HttpContextConfiguration {
                 requestHeaderBufferSize,
                 -1,
                 -1,
-                -1
+                -1,
+                false,
+                1
         );
     }
 
@@ -116,7 +120,9 @@ class PropHttpContextConfiguration implements HttpContextConfiguration {
             int requestHeaderBufferSize,
             int httpJsonQueryConnectionLimit,
             int httpIlpConnectionLimit,
-            int exportConnectionLimit
+            int exportConnectionLimit,
+            boolean httpAllowZstdBeforeSend,
+            int httpZstdCompressionLevel
     ) {
         this.connectionPoolInitialCapacity = connectionPoolInitialCapacity;
         this.connectionStringPoolCapacity = connectionStringPoolCapacity;
@@ -137,6 +143,8 @@ class PropHttpContextConfiguration implements HttpContextConfiguration {
         this.httpJsonQueryConnectionLimit = httpJsonQueryConnectionLimit;
         this.httpIlpConnectionLimit = httpIlpConnectionLimit;
         this.exportConnectionLimit = exportConnectionLimit;
+        this.httpAllowZstdBeforeSend = httpAllowZstdBeforeSend;
+        this.httpZstdCompressionLevel = httpZstdCompressionLevel;
     }
 
     @Override
@@ -144,6 +152,11 @@ class PropHttpContextConfiguration implements HttpContextConfiguration {
         return httpAllowDeflateBeforeSend;
     }
 
+    @Override
+    public boolean allowZstdBeforeSend() {
+        return httpAllowZstdBeforeSend;
+    }
+
     @Override
     public boolean areCookiesEnabled() {
         return httpServerCookiesEnabled;
@@ -244,6 +257,11 @@ class PropHttpContextConfiguration implements HttpContextConfiguration {
         return httpSessionTimeout;
     }
 
+    @Override
+    public int getZstdCompressionLevel() {
+        return httpZstdCompressionLevel;
+    }
+
     @Override
     public boolean readOnlySecurityContext() {
         return httpReadOnlySecurityContext || isReadOnlyInstance;
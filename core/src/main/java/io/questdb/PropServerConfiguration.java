@@ -38,6 +38,7 @@ import io.questdb.cairo.SqlJitMode;
 import io.questdb.cairo.TableUtils;
 import io.questdb.cairo.idx.PostingIndexUtils;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreakerConfiguration;
+import io.questdb.cairo.sql.async.QueryWorkloadClass;
 import io.questdb.cutlass.auth.AuthUtils;
 import io.questdb.cutlass.http.HttpContextConfiguration;
 import io.questdb.cutlass.http.HttpFullFatServerConfiguration;
@@ -78,11 +79,13 @@ import io.questdb.network.NetworkFacade;
 import io.questdb.network.NetworkFacadeImpl;
 import io.questdb.network.SelectFacade;
 import io.questdb.network.SelectFacadeImpl;
+import io.questdb.std.CharSequenceHashSet;
 import io.questdb.std.Chars;
 import io.questdb.std.ConcurrentCacheConfiguration;
 import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.FilesFacadeImpl;
+import io.questdb.std.IntList;
 import io.questdb.std.LowerCaseCharSequenceHashSet;
 import io.questdb.std.LowerCaseCharSequenceIntHashMap;
 import io.questdb.std.MemoryTag;
@@ -200,6 +203,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int cairoPageFrameReduceColumnListCapacity;
     private final int cairoPageFrameReduceQueueCapacity;
     private final int cairoPageFrameReduceRowIdListCapacity;
+    private final boolean cairoPageFrameReduceShardAffinityEnabled;
     private final int cairoPageFrameReduceShardCount;
     private final boolean cairoResourcePoolTracingEnabled;
     private final int cairoSQLCopyIdSupplier;
@@ -317,6 +321,9 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final boolean isReadOnlyInstance;
     private final int jsonCacheLimit;
     private final int jsonCacheSize;
+    private final long jsonShredMemorySize;
+    private final int jsonShredMinQueries;
+    private final String jsonShredPaths;
     private final int jsonUnnestMaxValueSize;
     private final String keepAliveHeader;
     private final int latestByQueueCapacity;
@@ -381,11 +388,13 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int matViewMaxRefreshRetries;
     private final long matViewMaxRefreshStepUs;
     private final boolean matViewParallelExecutionEnabled;
+    private final boolean matViewQueryRewriteEnabled;
     private final LowerCaseCharSequenceHashSet matViewRefreshBlockList = new LowerCaseCharSequenceHashSet();
     private final long matViewRefreshBusyRetryTimeout;
     private final long matViewRefreshIntervalsUpdatePeriod;
     private final int matViewRefreshBusyRetryLimit;
     private final int matViewRefreshMaxClusters;
+    private final int matViewRefreshParallelism;
     private final long matViewRefreshMemoryLimitBytes;
     private final boolean matViewRefreshMissingWalFilesFatal;
     private final WorkerPoolConfiguration matViewRefreshPoolConfiguration = new PropMatViewsRefreshPoolConfiguration();
@@ -450,6 +459,10 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int partitionEncoderParquetRowGroupSize;
     private final boolean partitionEncoderParquetStatisticsEnabled;
     private final int partitionEncoderParquetVersion;
+    private final long partitionTieringAge;
+    private final long partitionTieringInterval;
+    private final boolean partitionTieringParquetEnabled;
+    private final String partitionTieringRoot;
     private final PGConfiguration pgConfiguration = new PropPGConfiguration();
     private final boolean pgEnabled;
     private final PropPGWireConcurrentCacheConfiguration pgWireConcurrentCacheConfiguration = new PropPGWireConcurrentCacheConfiguration();
@@ -558,8 +571,11 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int sqlMaxSymbolNotEqualsCount;
     private final int sqlModelPoolCapacity;
     private final boolean sqlOrderBySortEnabled;
+    private final boolean sqlPageFrameAdaptiveEnabled;
+    private final long sqlPageFrameAdaptiveTaskTime;
     private final int sqlPageFrameMaxRows;
     private final int sqlPageFrameMinRows;
+    private final boolean sqlParallelAsOfJoinEnabled;
     private final int sqlParallelFilterDispatchLimit;
     private final boolean sqlParallelFilterEnabled;
     private final double sqlParallelFilterPreTouchThreshold;
@@ -567,11 +583,17 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final boolean sqlParallelHorizonJoinEnabled;
     private final boolean sqlParallelReadParquetEnabled;
     private final boolean sqlParallelTopKEnabled;
+    private final boolean sqlParallelUnionAllGroupByEnabled;
     private final boolean sqlParallelWindowJoinEnabled;
     private final long sqlParallelWorkStealingSpinTimeout;
     private final int sqlParallelWorkStealingThreshold;
     private final long sqlParquetCacheMemorySize;
+    private final long sqlParquetSharedCacheMemorySize;
     private final boolean sqlParquetRowGroupPruningEnabled;
+    private final boolean sqlTrigramIndexEnabled;
+    private final long sqlTrigramIndexMemoryLimit;
+    private final boolean sqlValueIndexEnabled;
+    private final long sqlValueIndexMemoryLimit;
     private final int sqlPivotForColumnPoolCapacity;
     private final int sqlPivotMaxProducedColumns;
     private final int sqlQueryRegistryPoolSize;
@@ -612,7 +634,16 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final long sqlWindowTreeKeyMaxBytes;
     private final int sqlWindowTreeKeyPageSize;
     private final int sqlWithClauseModelPoolCapacity;
+    private final long sqlWorkloadAdmissionBlockingTimeout;
+    private final long sqlWorkloadAdmissionTimeout;
+    private final boolean sqlWorkloadFairSchedulingEnabled;
+    private final long sqlWorkloadFairSlice;
+    private final int[] sqlWorkloadMaxConcurrent = new int[QueryWorkloadClass.COUNT];
+    private final long[] sqlWorkloadMemoryLimitBytes = new long[QueryWorkloadClass.COUNT];
+    private final CharSequenceHashSet[] sqlWorkloadUsers = new CharSequenceHashSet[QueryWorkloadClass.COUNT];
+    private final int[] sqlWorkloadWeights = new int[QueryWorkloadClass.COUNT];
     private final long symbolTableMaxAllocationPageSize;
+    private final long symbolSharedCacheMemorySize;
     private final long symbolTableMinAllocationPageSize;
     private final int systemO3ColumnMemorySize;
     private final String systemTableNamePrefix;
@@ -658,6 +689,9 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final long walApplyWorkerSleepThreshold;
     private final long walApplyWorkerYieldThreshold;
     private final boolean walEnabledDefault;
+    private final boolean walGroupCommitEnabled;
+    private final long walGroupCommitInterval;
+    private final int walGroupCommitMaxPendingTxns;
     private final long walMaxLagSize;
     private final int walMaxLagTxnCount;
     private final int walMaxSegmentFileDescriptorsCache;
@@ -666,6 +700,9 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int walPurgeWaitBeforeDelete;
     private final int walRecreateDistressedSequencerAttempts;
     private final long walSegmentRolloverRowCount;
+    private final long walShippingInterval;
+    private final boolean walShippingReplica;
+    private final String walShippingRoot;
     private final double walSquashUncommittedRowsMultiplier;
     private final boolean walSupported;
     private final int walTxnNotificationQueueCapacity;
@@ -933,7 +970,9 @@ public class PropServerConfiguration implements ServerConfiguration {
                 getLongSize(properties, env, PropertyKey.RAM_USAGE_LIMIT_BYTES, 0),
                 getIntPercentage(properties, env, PropertyKey.RAM_USAGE_LIMIT_PERCENT, 90),
                 memoryUsageLogEnabled,
-                memoryUsageLogInterval
+                memoryUsageLogInterval,
+                getHugePagesMemoryTags(properties, env),
+                getLongSize(properties, env, PropertyKey.RAM_HUGE_PAGES_MIN_SIZE, 2 * 1024 * 1024)
         );
         this.isReadOnlyInstance = getBoolean(properties, env, PropertyKey.READ_ONLY_INSTANCE, false);
         this.isQueryTracingEnabled = getBoolean(properties, env, PropertyKey.QUERY_TRACING_ENABLED, false);
@@ -949,6 +988,9 @@ public class PropServerConfiguration implements ServerConfiguration {
         // instead cairo.wal.enabled.default=true is added to the config, so only new QuestDB installations have WAL enabled by default
         this.walEnabledDefault = getBoolean(properties, env, PropertyKey.CAIRO_WAL_ENABLED_DEFAULT, true);
         this.walPurgeInterval = getMillis(properties, env, PropertyKey.CAIRO_WAL_PURGE_INTERVAL, 30_000);
+        this.walGroupCommitEnabled = getBoolean(properties, env, PropertyKey.CAIRO_WAL_GROUP_COMMIT_ENABLED, false);
+        this.walGroupCommitInterval = getMillis(properties, env, PropertyKey.CAIRO_WAL_GROUP_COMMIT_INTERVAL, 5);
+        this.walGroupCommitMaxPendingTxns = getInt(properties, env, PropertyKey.CAIRO_WAL_GROUP_COMMIT_MAX_PENDING_TXNS, 1024);
         this.matViewRefreshIntervalsUpdatePeriod = getMillis(properties, env, PropertyKey.CAIRO_MAT_VIEW_REFRESH_INTERVALS_UPDATE_PERIOD, walPurgeInterval / 2);
         this.matViewMaxRefreshStepUs = getMicros(properties, env, PropertyKey.CAIRO_MAT_VIEW_MAX_REFRESH_STEP, Micros.YEAR_MICROS_NONLEAP);
         this.matViewRefreshMissingWalFilesFatal = getBoolean(properties, env, PropertyKey.DEBUG_MAT_VIEW_REFRESH_MISSING_WAL_FILES_FATAL, false);
@@ -962,6 +1004,10 @@ public class PropServerConfiguration implements ServerConfiguration {
         if ((this.walSegmentRolloverSize != 0) && (this.walSegmentRolloverSize < 1024)) {  // 1KiB segments minimum
             throw CairoException.critical(0).put("cairo.wal.segment.rollover.size must be 0 (disabled) or >= 1024 (1KiB)");
         }
+        final String walShippingRoot = getString(properties, env, PropertyKey.CAIRO_WAL_SHIPPING_ROOT, "");
+        this.walShippingRoot = Chars.empty(walShippingRoot) ? null : walShippingRoot;
+        this.walShippingInterval = getMillis(properties, env, PropertyKey.CAIRO_WAL_SHIPPING_INTERVAL, 1_000);
+        this.walShippingReplica = getBoolean(properties, env, PropertyKey.CAIRO_WAL_SHIPPING_REPLICA, false);
         this.walWriterDataAppendPageSize = Files.ceilPageSize(getLongSize(properties, env, PropertyKey.CAIRO_WAL_WRITER_DATA_APPEND_PAGE_SIZE, Numbers.SIZE_1MB));
         this.walWriterEventAppendPageSize = Files.ceilPageSize(getLongSize(properties, env, PropertyKey.CAIRO_WAL_WRITER_EVENT_APPEND_PAGE_SIZE, 128 * 1024));
         this.systemWalWriterDataAppendPageSize = Files.ceilPageSize(getLongSize(properties, env, PropertyKey.CAIRO_SYSTEM_WAL_WRITER_DATA_APPEND_PAGE_SIZE, 256 * 1024));
@@ -1294,6 +1340,8 @@ public class PropServerConfiguration implements ServerConfiguration {
             int multipartHeaderBufferSize = getIntSize(properties, env, PropertyKey.HTTP_MULTIPART_HEADER_BUFFER_SIZE, 512);
             long multipartIdleSpinCount = getLong(properties, env, PropertyKey.HTTP_MULTIPART_IDLE_SPIN_COUNT, 10_000);
             boolean httpAllowDeflateBeforeSend = getBoolean(properties, env, PropertyKey.HTTP_ALLOW_DEFLATE_BEFORE_SEND, false);
+            boolean httpAllowZstdBeforeSend = getBoolean(properties, env, PropertyKey.HTTP_ALLOW_ZSTD_BEFORE_SEND, false);
+            int httpZstdCompressionLevel = getInt(properties, env, PropertyKey.HTTP_ZSTD_COMPRESSION_LEVEL, 1);
             boolean httpServerKeepAlive = getBoolean(properties, env, PropertyKey.HTTP_SERVER_KEEP_ALIVE, true);
             boolean httpServerCookiesEnabled = getBoolean(properties, env, PropertyKey.HTTP_SERVER_COOKIES_ENABLED, true);
             long httpSessionTimeout = getMicros(properties, env, PropertyKey.HTTP_SESSION_TIMEOUT, 1_800_000_000L);
@@ -1341,7 +1389,9 @@ public class PropServerConfiguration implements ServerConfiguration {
                     requestHeaderBufferSize,
                     httpJsonQueryConnectionLimit,
                     httpIlpConnectionLimit,
-                    httpExportConnectionLimit
+                    httpExportConnectionLimit,
+                    httpAllowZstdBeforeSend,
+                    httpZstdCompressionLevel
             );
 
             // Use a separate configuration for min server. It does not make sense for the min server to grow the buffer sizes together with the main http server
@@ -1633,6 +1683,9 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.inactiveViewWalWriterTTL = getMillis(properties, env, PropertyKey.CAIRO_VIEW_WAL_INACTIVE_WRITER_TTL, 60_000);
             this.ttlUseWallClock = getBoolean(properties, env, PropertyKey.CAIRO_TTL_USE_WALL_CLOCK, true);
             this.indexValueBlockSize = Numbers.ceilPow2(getIntSize(properties, env, PropertyKey.CAIRO_INDEX_VALUE_BLOCK_SIZE, 256));
+            this.jsonShredMemorySize = Math.max(getLongSize(properties, env, PropertyKey.CAIRO_JSON_SHRED_MEMORY_SIZE, 0L), 0L);
+            this.jsonShredMinQueries = Math.max(getInt(properties, env, PropertyKey.CAIRO_JSON_SHRED_MIN_QUERIES, 3), 1);
+            this.jsonShredPaths = getString(properties, env, PropertyKey.CAIRO_JSON_SHRED_PATHS, "");
             int jsonUnnestMaxValueSizeRaw = getInt(properties, env, PropertyKey.CAIRO_JSON_UNNEST_MAX_VALUE_SIZE, 4096);
             if (jsonUnnestMaxValueSizeRaw < 1) {
                 log.info().$("invalid ").$(PropertyKey.CAIRO_JSON_UNNEST_MAX_VALUE_SIZE.getPropertyPath())
@@ -1738,10 +1791,26 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.matViewRowsPerQueryEstimate = getLong(properties, env, PropertyKey.CAIRO_MAT_VIEW_ROWS_PER_QUERY_ESTIMATE, 1_000_000L);
             this.matViewMaxRefreshIntervals = getInt(properties, env, PropertyKey.CAIRO_MAT_VIEW_MAX_REFRESH_INTERVALS, 100);
             this.matViewRefreshMaxClusters = getInt(properties, env, PropertyKey.CAIRO_MAT_VIEW_REFRESH_MAX_CLUSTERS, 32);
+            this.matViewRefreshParallelism = Math.max(1, getInt(properties, env, PropertyKey.CAIRO_MAT_VIEW_REFRESH_PARALLELISM, 1));
             this.queryMemoryLimitBytes = getLongSize(properties, env, PropertyKey.CAIRO_QUERY_MEMORY_LIMIT_BYTES, 0);
             this.matViewRefreshMemoryLimitBytes = getLongSize(properties, env, PropertyKey.CAIRO_MAT_VIEW_REFRESH_MEMORY_LIMIT_BYTES, 0);
             this.walApplyMemoryLimitBytes = getLongSize(properties, env, PropertyKey.CAIRO_WAL_APPLY_MEMORY_LIMIT_BYTES, 0);
             this.liveViewRefreshMemoryLimitBytes = getLongSize(properties, env, PropertyKey.CAIRO_LIVE_VIEW_REFRESH_MEMORY_LIMIT_BYTES, 0);
+            this.sqlWorkloadAdmissionBlockingTimeout = getMillis(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_ADMISSION_BLOCKING_TIMEOUT, 100);
+            this.sqlWorkloadAdmissionTimeout = getMillis(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_ADMISSION_TIMEOUT, 10_000);
+            this.sqlWorkloadFairSchedulingEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_FAIR_ENABLED, false);
+            this.sqlWorkloadFairSlice = getMicros(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_FAIR_SLICE, 10_000);
+            this.sqlWorkloadMaxConcurrent[QueryWorkloadClass.HIGH] = getInt(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_HIGH_MAX_CONCURRENT, 0);
+            this.sqlWorkloadMaxConcurrent[QueryWorkloadClass.NORMAL] = getInt(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_NORMAL_MAX_CONCURRENT, 0);
+            this.sqlWorkloadMaxConcurrent[QueryWorkloadClass.LOW] = getInt(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_LOW_MAX_CONCURRENT, 0);
+            this.sqlWorkloadMemoryLimitBytes[QueryWorkloadClass.HIGH] = getLongSize(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_HIGH_MEMORY_LIMIT_BYTES, 0);
+            this.sqlWorkloadMemoryLimitBytes[QueryWorkloadClass.NORMAL] = getLongSize(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_NORMAL_MEMORY_LIMIT_BYTES, 0);
+            this.sqlWorkloadMemoryLimitBytes[QueryWorkloadClass.LOW] = getLongSize(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_LOW_MEMORY_LIMIT_BYTES, 0);
+            this.sqlWorkloadUsers[QueryWorkloadClass.HIGH] = getWorkloadUsers(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_HIGH_USERS);
+            this.sqlWorkloadUsers[QueryWorkloadClass.LOW] = getWorkloadUsers(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_LOW_USERS);
+            this.sqlWorkloadWeights[QueryWorkloadClass.HIGH] = getInt(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_HIGH_WEIGHT, QueryWorkloadClass.defaultWeight(QueryWorkloadClass.HIGH));
+            this.sqlWorkloadWeights[QueryWorkloadClass.NORMAL] = getInt(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_NORMAL_WEIGHT, QueryWorkloadClass.defaultWeight(QueryWorkloadClass.NORMAL));
+            this.sqlWorkloadWeights[QueryWorkloadClass.LOW] = getInt(properties, env, PropertyKey.CAIRO_SQL_WORKLOAD_LOW_WEIGHT, QueryWorkloadClass.defaultWeight(QueryWorkloadClass.LOW));
             this.sqlCompileViewModelPoolCapacity = getInt(properties, env, PropertyKey.CAIRO_SQL_COMPILE_VIEW_MODEL_POOL_CAPACITY, 8);
             this.sqlCopyBufferSize = getIntSize(properties, env, PropertyKey.CAIRO_SQL_COPY_BUFFER_SIZE, 2 * Numbers.SIZE_1MB);
             this.columnPurgeQueueCapacity = getQueueCapacity(properties, env, PropertyKey.CAIRO_SQL_COLUMN_PURGE_QUEUE_CAPACITY, 128);
@@ -1777,6 +1846,7 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.writerDataAppendPageSize = Files.ceilPageSize(getLongSize(properties, env, PropertyKey.CAIRO_WRITER_DATA_APPEND_PAGE_SIZE, 16 * Numbers.SIZE_1MB));
             this.systemWriterDataAppendPageSize = Files.ceilPageSize(getLongSize(properties, env, PropertyKey.CAIRO_SYSTEM_WRITER_DATA_APPEND_PAGE_SIZE, 256 * 1024));
             this.writerMiscAppendPageSize = Files.ceilPageSize(getLongSize(properties, env, PropertyKey.CAIRO_WRITER_MISC_APPEND_PAGE_SIZE, Files.PAGE_SIZE));
+            this.symbolSharedCacheMemorySize = Math.max(getLongSize(properties, env, PropertyKey.CAIRO_SYMBOL_SHARED_CACHE_MEMORY_SIZE, 0L), 0L);
             this.symbolTableMinAllocationPageSize = Files.ceilPageSize(getLongSize(properties, env, PropertyKey.CAIRO_SYMBOL_TABLE_MIN_ALLOCATION_PAGE_SIZE, Files.PAGE_SIZE));
             this.symbolTableMaxAllocationPageSize = Files.ceilPageSize(getLongSize(properties, env, PropertyKey.CAIRO_SYMBOL_TABLE_MAX_ALLOCATION_PAGE_SIZE, 8 * 1024 * 1024));
 
@@ -1810,6 +1880,8 @@ public class PropServerConfiguration implements ServerConfiguration {
             validatePageFrameRows(PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, this.sqlPageFrameMaxRows);
             validatePageFrameRows(PropertyKey.CAIRO_SMALL_SQL_PAGE_FRAME_MIN_ROWS, this.sqlSmallPageFrameMinRows);
             validatePageFrameRows(PropertyKey.CAIRO_SMALL_SQL_PAGE_FRAME_MAX_ROWS, this.sqlSmallPageFrameMaxRows);
+            this.sqlPageFrameAdaptiveEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PAGE_FRAME_ADAPTIVE_ENABLED, false);
+            this.sqlPageFrameAdaptiveTaskTime = getMicros(properties, env, PropertyKey.CAIRO_SQL_PAGE_FRAME_ADAPTIVE_TASK_TIME, 2_000);
 
             this.sqlJitMode = getSqlJitMode(properties, env);
             this.sqlJitIRMemoryPageSize = getIntSize(properties, env, PropertyKey.CAIRO_SQL_JIT_IR_MEMORY_PAGE_SIZE, 8 * 1024);
@@ -2298,6 +2370,7 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.cairoPageFrameReduceColumnListCapacity = Numbers.ceilPow2(getInt(properties, env, PropertyKey.CAIRO_PAGE_FRAME_COLUMN_LIST_CAPACITY, 16));
             final int defaultReduceShardCount = queryWorkers > 0 ? Math.min(queryWorkers, 4) : 0;
             this.cairoPageFrameReduceShardCount = getInt(properties, env, PropertyKey.CAIRO_PAGE_FRAME_SHARD_COUNT, defaultReduceShardCount);
+            this.cairoPageFrameReduceShardAffinityEnabled = getBoolean(properties, env, PropertyKey.CAIRO_PAGE_FRAME_SHARD_AFFINITY_ENABLED, false);
             this.cairoUnorderedPageFrameReduceQueueCapacity = Numbers.ceilPow2(getInt(properties, env, PropertyKey.CAIRO_UNORDERED_PAGE_FRAME_REDUCE_QUEUE_CAPACITY, 4096));
             this.sqlParallelFilterPreTouchThreshold = getDouble(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_FILTER_PRETOUCH_THRESHOLD, "0.05");
             this.sqlParallelFilterDispatchLimit = getInt(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_FILTER_DISPATCH_LIMIT, Math.min(queryWorkers, 32));
@@ -2314,6 +2387,8 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.sqlParallelWindowJoinEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_WINDOW_JOIN_ENABLED, defaultParallelSqlEnabled);
             this.sqlParallelGroupByEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_GROUPBY_ENABLED, defaultParallelSqlEnabled);
             this.sqlParallelReadParquetEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_READ_PARQUET_ENABLED, defaultParallelSqlEnabled);
+            this.sqlParallelUnionAllGroupByEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_UNION_ALL_GROUPBY_ENABLED, false);
+            this.sqlParallelAsOfJoinEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_ASOF_JOIN_ENABLED, false);
             if (!sqlParallelFilterEnabled && !sqlParallelGroupByEnabled && !sqlParallelHorizonJoinEnabled
                     && !sqlParallelReadParquetEnabled && !sqlParallelTopKEnabled && !sqlParallelWindowJoinEnabled) {
                 // All type of parallel queries are disabled. Don't start the query thread pool
@@ -2323,10 +2398,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.walParallelExecutionEnabled = getBoolean(properties, env, PropertyKey.CAIRO_WAL_APPLY_PARALLEL_SQL_ENABLED, true);
             this.matViewParallelExecutionEnabled = getBoolean(properties, env, PropertyKey.CAIRO_MAT_VIEW_PARALLEL_SQL_ENABLED, cpuAvailable >= 4);
             this.matViewCoveringIndexEnabled = getBoolean(properties, env, PropertyKey.CAIRO_MAT_VIEW_COVERING_INDEX_ENABLED, false);
+            this.matViewQueryRewriteEnabled = getBoolean(properties, env, PropertyKey.CAIRO_MAT_VIEW_QUERY_REWRITE_ENABLED, false);
             this.sqlParallelWorkStealingThreshold = getInt(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_WORK_STEALING_THRESHOLD, 16);
             this.sqlParallelWorkStealingSpinTimeout = getNanos(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_WORK_STEALING_SPIN_TIMEOUT, 50_000);
             this.sqlParquetCacheMemorySize = Math.max(getLongSize(properties, env, PropertyKey.CAIRO_SQL_PARQUET_CACHE_MEMORY_SIZE, 256L * Numbers.SIZE_1MB), 0L);
             this.sqlParquetRowGroupPruningEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARQUET_ROW_GROUP_PRUNING_ENABLED, true);
+            this.sqlParquetSharedCacheMemorySize = Math.max(getLongSize(properties, env, PropertyKey.CAIRO_SQL_PARQUET_SHARED_CACHE_MEMORY_SIZE, 0L), 0L);
+            this.sqlTrigramIndexEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_TRIGRAM_INDEX_ENABLED, true);
+            this.sqlTrigramIndexMemoryLimit = Math.max(getLongSize(properties, env, PropertyKey.CAIRO_SQL_TRIGRAM_INDEX_MEMORY_LIMIT, 256L * Numbers.SIZE_1MB), 0L);
+            this.sqlValueIndexEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_VALUE_INDEX_ENABLED, true);
+            this.sqlValueIndexMemoryLimit = Math.max(getLongSize(properties, env, PropertyKey.CAIRO_SQL_VALUE_INDEX_MEMORY_LIMIT, 256L * Numbers.SIZE_1MB), 0L);
             this.sqlOrderBySortEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_ORDER_BY_SORT_ENABLED, true);
             this.copierChunkedEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_COPIER_CHUNKED, true);
             this.copierType = getInt(properties, env, PropertyKey.DEBUG_CAIRO_COPIER_TYPE, 0);
@@ -2354,6 +2435,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             throw ServerConfigurationException.forInvalidKey(PropertyKey.CAIRO_PARTITION_ENCODER_PARQUET_BLOOM_FILTER_FPP.getPropertyPath(), "fpp must be between 0 and 1 (exclusive)");
         }
         this.partitionEncoderParquetStatisticsEnabled = getBoolean(properties, env, PropertyKey.CAIRO_PARTITION_ENCODER_PARQUET_STATISTICS_ENABLED, true);
+        final String partitionTieringRoot = getString(properties, env, PropertyKey.CAIRO_PARTITION_TIERING_ROOT, "");
+        this.partitionTieringRoot = Chars.empty(partitionTieringRoot) ? null : partitionTieringRoot;
+        this.partitionTieringAge = getMillis(properties, env, PropertyKey.CAIRO_PARTITION_TIERING_AGE, 30L * Dates.DAY_MILLIS);
+        this.partitionTieringInterval = getMillis(properties, env, PropertyKey.CAIRO_PARTITION_TIERING_INTERVAL, 60_000);
+        this.partitionTieringParquetEnabled = getBoolean(properties, env, PropertyKey.CAIRO_PARTITION_TIERING_PARQUET_ENABLED, false);
         this.partitionEncoderParquetCompressionCodec = ParquetCompression.getCompressionCodec(getString(properties, env, PropertyKey.CAIRO_PARTITION_ENCODER_PARQUET_COMPRESSION_CODEC, "LZ4_RAW"));
         // Use raw array encoding in partition-to-parquet conversion for better performance.
         // Raw encoding writes arrays in QuestDB's native binary layout, avoiding the overhead
@@ -2755,6 +2841,23 @@ public class PropServerConfiguration implements ServerConfiguration {
         return SqlJitMode.JIT_MODE_ENABLED;
     }
 
+    private IntList getHugePagesMemoryTags(Properties properties, @Nullable Map<String, String> env) throws ServerConfigurationException {
+        final String value = getString(properties, env, PropertyKey.RAM_HUGE_PAGES_MEMORY_TAGS, "");
+        final IntList tags = new IntList();
+        for (String entry : value.split(",")) {
+            final String name = entry.trim();
+            if (!name.isEmpty()) {
+                final int tag = MemoryTag.tagOf(name);
+                // file-backed mappings gain next to nothing from MADV_HUGEPAGE, only anonymous memory is advised
+                if (tag < MemoryTag.NATIVE_PATH) {
+                    throw ServerConfigurationException.forInvalidKey(PropertyKey.RAM_HUGE_PAGES_MEMORY_TAGS.getPropertyPath(), value);
+                }
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
     private int getWalWriterMadviseMode(Properties properties, @Nullable Map<String, String> env, ConfigPropertyKey key) throws ServerConfigurationException {
         final String mode = getString(properties, env, key, "none");
 
@@ -2780,6 +2883,21 @@ public class PropServerConfiguration implements ServerConfiguration {
         throw ServerConfigurationException.forInvalidKey(key.getPropertyPath(), mode);
     }
 
+    private @Nullable CharSequenceHashSet getWorkloadUsers(Properties properties, @Nullable Map<String, String> env, ConfigPropertyKey key) {
+        final String value = getString(properties, env, key, null);
+        if (value == null) {
+            return null;
+        }
+        final CharSequenceHashSet users = new CharSequenceHashSet();
+        for (String entry : value.split(",")) {
+            final String user = entry.trim();
+            if (!user.isEmpty()) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
     // The enterprise version needs to add tcps and https
     private String initIlpTransport() {
         StringSink sink = Misc.getThreadLocalSink();
@@ -4214,6 +4332,21 @@ public class PropServerConfiguration implements ServerConfiguration {
             return installRoot;
         }
 
+        @Override
+        public long getJsonShredMemorySize() {
+            return jsonShredMemorySize;
+        }
+
+        @Override
+        public int getJsonShredMinQueries() {
+            return jsonShredMinQueries;
+        }
+
+        @Override
+        public @NotNull String getJsonShredPaths() {
+            return jsonShredPaths;
+        }
+
         @Override
         public int getJsonUnnestMaxValueSize() {
             return jsonUnnestMaxValueSize;
@@ -4384,6 +4517,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return matViewRefreshMaxClusters;
         }
 
+        @Override
+        public int getMatViewRefreshParallelism() {
+            return matViewRefreshParallelism;
+        }
+
         @Override
         public long getMatViewRefreshMemoryLimitBytes() {
             return matViewRefreshMemoryLimitBytes;
@@ -4634,6 +4772,21 @@ public class PropServerConfiguration implements ServerConfiguration {
             return o3PartitionPurgeListCapacity;
         }
 
+        @Override
+        public long getPartitionTieringAge() {
+            return partitionTieringAge;
+        }
+
+        @Override
+        public long getPartitionTieringInterval() {
+            return partitionTieringInterval;
+        }
+
+        @Override
+        public @Nullable CharSequence getPartitionTieringRoot() {
+            return partitionTieringRoot;
+        }
+
         @Override
         public int getPivotColumnPoolCapacity() {
             return sqlPivotForColumnPoolCapacity;
@@ -4989,6 +5142,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlModelPoolCapacity;
         }
 
+        @Override
+        public long getSqlPageFrameAdaptiveTaskTime() {
+            return sqlPageFrameAdaptiveTaskTime;
+        }
+
         @Override
         public int getSqlPageFrameMaxRows() {
             return sqlPageFrameMaxRows;
@@ -5024,6 +5182,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlParquetCacheMemorySize;
         }
 
+        @Override
+        public long getSqlParquetSharedCacheMemorySize() {
+            return sqlParquetSharedCacheMemorySize;
+        }
+
         @Override
         public int getSqlPivotMaxProducedColumns() {
             return sqlPivotMaxProducedColumns;
@@ -5089,11 +5252,21 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlSortValuePageSize;
         }
 
+        @Override
+        public long getSqlTrigramIndexMemoryLimit() {
+            return sqlTrigramIndexMemoryLimit;
+        }
+
         @Override
         public int getSqlUnorderedMapMaxEntrySize() {
             return sqlUnorderedMapMaxEntrySize;
         }
 
+        @Override
+        public long getSqlValueIndexMemoryLimit() {
+            return sqlValueIndexMemoryLimit;
+        }
+
         @Override
         public long getSqlWindowCacheMaxBytes() {
             return sqlWindowCacheMaxBytes;
@@ -5149,11 +5322,51 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlWindowTreeKeyPageSize;
         }
 
+        @Override
+        public long getSqlWorkloadAdmissionBlockingTimeout() {
+            return sqlWorkloadAdmissionBlockingTimeout;
+        }
+
+        @Override
+        public long getSqlWorkloadAdmissionTimeout() {
+            return sqlWorkloadAdmissionTimeout;
+        }
+
+        @Override
+        public long getSqlWorkloadFairSlice() {
+            return sqlWorkloadFairSlice;
+        }
+
+        @Override
+        public int getSqlWorkloadMaxConcurrent(byte workloadClass) {
+            return sqlWorkloadMaxConcurrent[workloadClass];
+        }
+
+        @Override
+        public long getSqlWorkloadMemoryLimitBytes(byte workloadClass) {
+            return sqlWorkloadMemoryLimitBytes[workloadClass];
+        }
+
+        @Override
+        public @Nullable CharSequenceHashSet getSqlWorkloadUsers(byte workloadClass) {
+            return sqlWorkloadUsers[workloadClass];
+        }
+
+        @Override
+        public int getSqlWorkloadWeight(byte workloadClass) {
+            return sqlWorkloadWeights[workloadClass];
+        }
+
         @Override
         public int getStrFunctionMaxBufferLength() {
             return sqlStrFunctionBufferMaxSize;
         }
 
+        @Override
+        public long getSymbolSharedCacheMemorySize() {
+            return symbolSharedCacheMemorySize;
+        }
+
         @Override
         public long getSymbolTableMaxAllocationPageSize() {
             return symbolTableMaxAllocationPageSize;
@@ -5294,6 +5507,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walSquashUncommittedRowsMultiplier;
         }
 
+        @Override
+        public long getWalGroupCommitInterval() {
+            return walGroupCommitInterval;
+        }
+
+        @Override
+        public int getWalGroupCommitMaxPendingTxns() {
+            return walGroupCommitMaxPendingTxns;
+        }
+
         @Override
         public long getWalMaxLagSize() {
             return walMaxLagSize;
@@ -5334,6 +5557,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walSegmentRolloverSize;
         }
 
+        @Override
+        public long getWalShippingInterval() {
+            return walShippingInterval;
+        }
+
+        @Override
+        public @Nullable CharSequence getWalShippingRoot() {
+            return walShippingRoot;
+        }
+
         @Override
         public int getWalTxnNotificationQueueCapacity() {
             return walTxnNotificationQueueCapacity;
@@ -5459,6 +5692,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return matViewParallelExecutionEnabled;
         }
 
+        @Override
+        public boolean isMatViewQueryRewriteEnabled() {
+            return matViewQueryRewriteEnabled;
+        }
+
         @Override
         public boolean isMatViewRefreshBlocked(CharSequence viewName) {
             return matViewRefreshBlockList.size() > 0 && matViewRefreshBlockList.contains(viewName);
@@ -5479,6 +5717,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return o3QuickSortEnabled;
         }
 
+        @Override
+        public boolean isPageFrameReduceShardAffinityEnabled() {
+            return cairoPageFrameReduceShardAffinityEnabled;
+        }
+
         @Override
         public boolean isParallelIndexingEnabled() {
             return parallelIndexingEnabled;
@@ -5509,6 +5752,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return o3PartitionOverwriteControlEnabled;
         }
 
+        @Override
+        public boolean isPartitionTieringParquetEnabled() {
+            return partitionTieringParquetEnabled;
+        }
+
         @Override
         public boolean isPostingIndexAutoIncludeTimestamp() {
             return postingIndexAutoIncludeTimestamp;
@@ -5542,6 +5790,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlOrderBySortEnabled;
         }
 
+        @Override
+        public boolean isSqlPageFrameAdaptiveEnabled() {
+            return sqlPageFrameAdaptiveEnabled;
+        }
+
+        @Override
+        public boolean isSqlParallelAsOfJoinEnabled() {
+            return sqlParallelAsOfJoinEnabled;
+        }
+
         @Override
         public boolean isSqlParallelFilterEnabled() {
             return sqlParallelFilterEnabled;
@@ -5567,6 +5825,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlParallelTopKEnabled;
         }
 
+        @Override
+        public boolean isSqlParallelUnionAllGroupByEnabled() {
+            return sqlParallelUnionAllGroupByEnabled;
+        }
+
         @Override
         public boolean isSqlParallelWindowJoinEnabled() {
             return sqlParallelWindowJoinEnabled;
@@ -5577,6 +5840,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlParquetRowGroupPruningEnabled;
         }
 
+        @Override
+        public boolean isSqlTrigramIndexEnabled() {
+            return sqlTrigramIndexEnabled;
+        }
+
+        @Override
+        public boolean isSqlValueIndexEnabled() {
+            return sqlValueIndexEnabled;
+        }
+
         @Override
         public boolean isSqlWindowCachedLightEnabled() {
             return sqlWindowCachedLightEnabled;
@@ -5587,6 +5860,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlWindowMapFusionEnabled;
         }
 
+        @Override
+        public boolean isSqlWorkloadFairSchedulingEnabled() {
+            return sqlWorkloadFairSchedulingEnabled;
+        }
+
         @Override
         public boolean isTableTypeConversionEnabled() {
             return tableTypeConversionEnabled;
@@ -5607,11 +5885,21 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walApplyEnabled;
         }
 
+        @Override
+        public boolean isWalGroupCommitEnabled() {
+            return walGroupCommitEnabled;
+        }
+
         @Override
         public boolean isWalApplyParallelSqlEnabled() {
             return walParallelExecutionEnabled;
         }
 
+        @Override
+        public boolean isWalShippingReplica() {
+            return walShippingReplica;
+        }
+
         @Override
         public boolean isWalSupported() {
             return walSupported;
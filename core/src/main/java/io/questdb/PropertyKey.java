@@ -59,6 +59,9 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_RECENT_WRITE_TRACKER_CAPACITY("cairo.recent.write.tracker.capacity"),
     CAIRO_DEFAULT_SYMBOL_INDEX_TYPE("cairo.default.symbol.index.type"),
     CAIRO_INDEX_VALUE_BLOCK_SIZE("cairo.index.value.block.size"),
+    CAIRO_JSON_SHRED_MEMORY_SIZE("cairo.json.shred.memory.size"),
+    CAIRO_JSON_SHRED_MIN_QUERIES("cairo.json.shred.min.queries"),
+    CAIRO_JSON_SHRED_PATHS("cairo.json.shred.paths"),
     CAIRO_JSON_UNNEST_MAX_VALUE_SIZE("cairo.json.unnest.max.value.size"),
     CAIRO_MAX_SWAP_FILE_COUNT("cairo.max.swap.file.count"),
     CAIRO_PARALLEL_INDEX_THRESHOLD("cairo.parallel.index.threshold"),
@@ -117,6 +120,7 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_SQL_PARALLEL_TOP_K_ENABLED("cairo.sql.parallel.topk.enabled"),
     CAIRO_SQL_PARALLEL_HORIZON_JOIN_ENABLED("cairo.sql.parallel.horizon.join.enabled"),
     CAIRO_SQL_PARALLEL_WINDOW_JOIN_ENABLED("cairo.sql.parallel.window.join.enabled"),
+    CAIRO_SQL_PARALLEL_ASOF_JOIN_ENABLED("cairo.sql.parallel.asof.join.enabled"),
     CAIRO_SQL_HORIZON_JOIN_BWD_SCAN_ABSOLUTE_THRESHOLD("cairo.sql.horizon.join.bwd.scan.absolute.threshold"),
     CAIRO_SQL_HORIZON_JOIN_BWD_SCAN_MIN_GAP("cairo.sql.horizon.join.bwd.scan.min.gap"),
     CAIRO_SQL_HORIZON_JOIN_BWD_SCAN_SWITCH_FACTOR("cairo.sql.horizon.join.bwd.scan.switch.factor"),
@@ -133,10 +137,17 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_SQL_PARALLEL_WORK_STEALING_THRESHOLD("cairo.sql.parallel.work.stealing.threshold"),
     CAIRO_SQL_PARALLEL_WORK_STEALING_SPIN_TIMEOUT("cairo.sql.parallel.work.stealing.spin.timeout"),
     CAIRO_SQL_PARALLEL_READ_PARQUET_ENABLED("cairo.sql.parallel.read.parquet.enabled"),
+    CAIRO_SQL_PARALLEL_UNION_ALL_GROUPBY_ENABLED("cairo.sql.parallel.union.all.groupby.enabled"),
     CAIRO_SQL_PARQUET_CACHE_MEMORY_SIZE("cairo.sql.parquet.cache.memory.size"),
     CAIRO_SQL_PARQUET_FRAME_CACHE_CAPACITY("cairo.sql.parquet.frame.cache.capacity"), // deprecated, use CAIRO_SQL_PARQUET_CACHE_MEMORY_SIZE
     CAIRO_SQL_PARQUET_ROW_GROUP_PRUNING_ENABLED("cairo.sql.parquet.row.group.pruning.enabled"),
+    CAIRO_SQL_PARQUET_SHARED_CACHE_MEMORY_SIZE("cairo.sql.parquet.shared.cache.memory.size"),
+    CAIRO_SQL_TRIGRAM_INDEX_ENABLED("cairo.sql.trigram.index.enabled"),
+    CAIRO_SQL_TRIGRAM_INDEX_MEMORY_LIMIT("cairo.sql.trigram.index.memory.limit"),
+    CAIRO_SQL_VALUE_INDEX_ENABLED("cairo.sql.value.index.enabled"),
+    CAIRO_SQL_VALUE_INDEX_MEMORY_LIMIT("cairo.sql.value.index.memory.limit"),
     CAIRO_PAGE_FRAME_SHARD_COUNT("cairo.page.frame.shard.count"),
+    CAIRO_PAGE_FRAME_SHARD_AFFINITY_ENABLED("cairo.page.frame.shard.affinity.enabled"),
     CAIRO_PAGE_FRAME_TASK_POOL_CAPACITY("cairo.page.frame.task.pool.capacity"),
     CAIRO_UNORDERED_PAGE_FRAME_REDUCE_QUEUE_CAPACITY("cairo.unordered.page.frame.reduce.queue.capacity"),
     CAIRO_SQL_JOIN_METADATA_PAGE_SIZE("cairo.sql.join.metadata.page.size"),
@@ -164,6 +175,7 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_WRITER_DATA_APPEND_PAGE_SIZE("cairo.writer.data.append.page.size"),
     CAIRO_SYSTEM_WRITER_DATA_APPEND_PAGE_SIZE("cairo.system.writer.data.append.page.size"),
     CAIRO_WRITER_MISC_APPEND_PAGE_SIZE("cairo.writer.misc.append.page.size"),
+    CAIRO_SYMBOL_SHARED_CACHE_MEMORY_SIZE("cairo.symbol.shared.cache.memory.size"),
     CAIRO_SYMBOL_TABLE_APPEND_PAGE_SIZE("cairo.symbol.table.append.page.size"),
     CAIRO_SYMBOL_TABLE_MIN_ALLOCATION_PAGE_SIZE("cairo.symbol.table.min.allocation.page.size"),
     CAIRO_SYMBOL_TABLE_MAX_ALLOCATION_PAGE_SIZE("cairo.symbol.table.max.allocation.page.size"),
@@ -188,6 +200,8 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_SQL_DISTINCT_TIMESTAMP_LOAD_FACTOR("cairo.sql.distinct.timestamp.load.factor"),
     CAIRO_SQL_PAGE_FRAME_MIN_ROWS("cairo.sql.page.frame.min.rows"),
     CAIRO_SQL_PAGE_FRAME_MAX_ROWS("cairo.sql.page.frame.max.rows"),
+    CAIRO_SQL_PAGE_FRAME_ADAPTIVE_ENABLED("cairo.sql.page.frame.adaptive.enabled"),
+    CAIRO_SQL_PAGE_FRAME_ADAPTIVE_TASK_TIME("cairo.sql.page.frame.adaptive.task.time"),
     CAIRO_SMALL_SQL_PAGE_FRAME_MIN_ROWS("cairo.sql.small.page.frame.min.rows"),
     CAIRO_SMALL_SQL_PAGE_FRAME_MAX_ROWS("cairo.sql.small.page.frame.max.rows"),
     CAIRO_SQL_JIT_IR_MEMORY_PAGE_SIZE("cairo.sql.jit.ir.memory.page.size"),
@@ -229,6 +243,7 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_MAT_VIEW_COVERING_INDEX_ENABLED("cairo.mat.view.covering.index.enabled"),
     CAIRO_MAT_VIEW_MAX_REFRESH_INTERVALS("cairo.mat.view.max.refresh.intervals"),
     CAIRO_MAT_VIEW_REFRESH_MAX_CLUSTERS("cairo.mat.view.refresh.max.clusters"),
+    CAIRO_MAT_VIEW_REFRESH_PARALLELISM("cairo.mat.view.refresh.parallelism"),
     CAIRO_MAT_VIEW_MAX_REFRESH_STEP("cairo.mat.view.max.refresh.step"),
     CAIRO_MAT_VIEW_REFRESH_INTERVALS_UPDATE_PERIOD("cairo.mat.view.refresh.intervals.update.period"),
     CAIRO_LIVE_VIEW_CHECKPOINT_COMPACTION_INTERVAL("cairo.live.view.checkpoint.compaction.interval"),
@@ -341,6 +356,8 @@ public enum PropertyKey implements ConfigPropertyKey {
     HTTP_STATIC_INDEX_FILE_NAME("http.static.index.file.name"),
     HTTP_FROZEN_CLOCK("http.frozen.clock"),
     HTTP_ALLOW_DEFLATE_BEFORE_SEND("http.allow.deflate.before.send"),
+    HTTP_ALLOW_ZSTD_BEFORE_SEND("http.allow.zstd.before.send"),
+    HTTP_ZSTD_COMPRESSION_LEVEL("http.zstd.compression.level"),
     HTTP_SERVER_KEEP_ALIVE("http.server.keep.alive"),
     HTTP_SERVER_COOKIES_ENABLED("http.server.cookies.enabled"),
     HTTP_SESSION_TIMEOUT("http.session.timeout"),
@@ -577,6 +594,12 @@ public enum PropertyKey implements ConfigPropertyKey {
     DEV_MODE_ENABLED("dev.mode.enabled"),
     CAIRO_WAL_ENABLED_DEFAULT("cairo.wal.enabled.default"),
     CAIRO_WAL_PURGE_INTERVAL("cairo.wal.purge.interval"),
+    CAIRO_WAL_GROUP_COMMIT_ENABLED("cairo.wal.group.commit.enabled"),
+    CAIRO_WAL_GROUP_COMMIT_INTERVAL("cairo.wal.group.commit.interval"),
+    CAIRO_WAL_GROUP_COMMIT_MAX_PENDING_TXNS("cairo.wal.group.commit.max.pending.txns"),
+    CAIRO_WAL_SHIPPING_INTERVAL("cairo.wal.shipping.interval"),
+    CAIRO_WAL_SHIPPING_REPLICA("cairo.wal.shipping.replica"),
+    CAIRO_WAL_SHIPPING_ROOT("cairo.wal.shipping.root"),
     CAIRO_WAL_SEGMENT_ROLLOVER_ROW_COUNT("cairo.wal.segment.rollover.row.count"),
     CAIRO_WAL_SEGMENT_ROLLOVER_SIZE("cairo.wal.segment.rollover.size"),
     CAIRO_WAL_WRITER_DATA_APPEND_PAGE_SIZE("cairo.wal.writer.data.append.page.size"),
@@ -625,6 +648,8 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_O3_PARTITION_OVERWRITE_CONTROL_ENABLED("cairo.o3.partition.overwrite.control.enabled"),
     CAIRO_WRITE_BACK_OFF_TIMEOUT_ON_MEM_PRESSURE("cairo.write.back.off.timeout.on.mem.pressure"),
     DEBUG_WAL_PURGE_WAIT_BEFORE_DELETE("debug.wal.purge.wait.before.delete", false, true),
+    RAM_HUGE_PAGES_MEMORY_TAGS("ram.huge.pages.memory.tags"),
+    RAM_HUGE_PAGES_MIN_SIZE("ram.huge.pages.min.size"),
     RAM_USAGE_LIMIT_BYTES("ram.usage.limit.bytes"),
     RAM_USAGE_LIMIT_PERCENT("ram.usage.limit.percent"),
     DEBUG_ALLOW_TABLE_REGISTRY_SHARED_WRITE("debug.allow.table.registry.shared.write", false, true),
@@ -667,6 +692,10 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_PARTITION_ENCODER_PARQUET_DATA_PAGE_SIZE("cairo.partition.encoder.parquet.data.page.size"),
     CAIRO_PARTITION_ENCODER_PARQUET_O3_REWRITE_UNUSED_MAX_BYTES("cairo.partition.encoder.parquet.o3.rewrite.unused.max.bytes"),
     CAIRO_PARTITION_ENCODER_PARQUET_O3_REWRITE_UNUSED_RATIO("cairo.partition.encoder.parquet.o3.rewrite.unused.ratio"),
+    CAIRO_PARTITION_TIERING_AGE("cairo.partition.tiering.age"),
+    CAIRO_PARTITION_TIERING_INTERVAL("cairo.partition.tiering.interval"),
+    CAIRO_PARTITION_TIERING_PARQUET_ENABLED("cairo.partition.tiering.parquet.enabled"),
+    CAIRO_PARTITION_TIERING_ROOT("cairo.partition.tiering.root"),
     HTTP_MIN_SEND_BUFFER_SIZE("http.min.send.buffer.size"),
     HTTP_MIN_RECV_BUFFER_SIZE("http.min.recv.buffer.size"),
     HTTP_MIN_RECEIVE_BUFFER_SIZE("http.min.receive.buffer.size"), // deprecated
@@ -730,7 +759,23 @@ public enum PropertyKey implements ConfigPropertyKey {
     DEBUG_MAT_VIEW_REFRESH_MISSING_WAL_FILES_FATAL("debug.mat.view.refresh.missing.wal.files.fatal", false, true),
     CAIRO_QUERY_MEMORY_LIMIT_BYTES("cairo.query.memory.limit.bytes"),
     CAIRO_MAT_VIEW_REFRESH_MEMORY_LIMIT_BYTES("cairo.mat.view.refresh.memory.limit.bytes"),
-    CAIRO_WAL_APPLY_MEMORY_LIMIT_BYTES("cairo.wal.apply.memory.limit.bytes");
+    CAIRO_WAL_APPLY_MEMORY_LIMIT_BYTES("cairo.wal.apply.memory.limit.bytes"),
+    CAIRO_SQL_WORKLOAD_ADMISSION_BLOCKING_TIMEOUT("cairo.sql.workload.admission.blocking.timeout"),
+    CAIRO_SQL_WORKLOAD_ADMISSION_TIMEOUT("cairo.sql.workload.admission.timeout"),
+    CAIRO_SQL_WORKLOAD_FAIR_ENABLED("cairo.sql.workload.fair.enabled"),
+    CAIRO_SQL_WORKLOAD_FAIR_SLICE("cairo.sql.workload.fair.slice"),
+    CAIRO_SQL_WORKLOAD_HIGH_USERS("cairo.sql.workload.high.users"),
+    CAIRO_SQL_WORKLOAD_LOW_USERS("cairo.sql.workload.low.users"),
+    CAIRO_SQL_WORKLOAD_HIGH_MAX_CONCURRENT("cairo.sql.workload.high.max.concurrent"),
+    CAIRO_SQL_WORKLOAD_NORMAL_MAX_CONCURRENT("cairo.sql.workload.normal.max.concurrent"),
+    CAIRO_SQL_WORKLOAD_LOW_MAX_CONCURRENT("cairo.sql.workload.low.max.concurrent"),
+    CAIRO_SQL_WORKLOAD_HIGH_WEIGHT("cairo.sql.workload.high.weight"),
+    CAIRO_SQL_WORKLOAD_NORMAL_WEIGHT("cairo.sql.workload.normal.weight"),
+    CAIRO_SQL_WORKLOAD_LOW_WEIGHT("cairo.sql.workload.low.weight"),
+    CAIRO_SQL_WORKLOAD_HIGH_MEMORY_LIMIT_BYTES("cairo.sql.workload.high.memory.limit.bytes"),
+    CAIRO_SQL_WORKLOAD_NORMAL_MEMORY_LIMIT_BYTES("cairo.sql.workload.normal.memory.limit.bytes"),
+    CAIRO_SQL_WORKLOAD_LOW_MEMORY_LIMIT_BYTES("cairo.sql.workload.low.memory.limit.bytes"),
+    CAIRO_MAT_VIEW_QUERY_REWRITE_ENABLED("cairo.mat.view.query.rewrite.enabled");
 
     private static final Map<String, PropertyKey> nameMapping;
     private final boolean debug;
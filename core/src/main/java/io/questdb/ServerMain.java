@@ -29,13 +29,18 @@ import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.CairoException;
 import io.questdb.cairo.DataID;
 import io.questdb.cairo.FlushQueryCacheJob;
+import io.questdb.cairo.PartitionTieringJob;
 import io.questdb.cairo.TableToken;
 import io.questdb.cairo.lv.LiveViewRefreshJob;
 import io.questdb.cairo.mv.MatViewRefreshJob;
 import io.questdb.cairo.mv.MatViewTimerJob;
 import io.questdb.cairo.view.ViewCompilerJob;
 import io.questdb.cairo.wal.ApplyWal2TableJob;
+import io.questdb.cairo.wal.WalGroupCommitJob;
 import io.questdb.cairo.wal.WalPurgeJob;
+import io.questdb.cairo.wal.ship.FilesWalObjectStore;
+import io.questdb.cairo.wal.ship.WalReplicaJob;
+import io.questdb.cairo.wal.ship.WalShippingJob;
 import io.questdb.cutlass.Services;
 import io.questdb.cutlass.http.HttpRequestHandler;
 import io.questdb.cutlass.http.HttpRequestHandlerFactory;
@@ -558,6 +563,11 @@ public class ServerMain implements Closeable {
                     if (!isReadOnly) {
                         WorkerPoolUtils.setupWriterJobs(sharedPoolWrite, engine);
 
+                        final CharSequence partitionTieringRoot = cairoConfig.getPartitionTieringRoot();
+                        if (partitionTieringRoot != null) {
+                            sharedPoolWrite.assign(new PartitionTieringJob(engine, partitionTieringRoot));
+                        }
+
                         if (walSupported) {
                             sharedPoolWrite.assign(config.getFactoryProvider().getWalJobFactory().createCheckWalTransactionsJob(engine));
                             final WalPurgeJob walPurgeJob = config.getFactoryProvider().getWalJobFactory().createWalPurgeJob(engine);
@@ -565,6 +575,27 @@ public class ServerMain implements Closeable {
                             sharedPoolWrite.assign(walPurgeJob);
                             sharedPoolWrite.freeOnExit(walPurgeJob);
 
+                            final WalGroupCommitJob walGroupCommitJob = engine.getWalGroupCommitJob();
+                            if (walGroupCommitJob != null) {
+                                sharedPoolWrite.assign(walGroupCommitJob);
+                            }
+
+                            final WalShippingJob walShippingJob = engine.getWalShippingJob();
+                            if (walShippingJob != null) {
+                                sharedPoolWrite.assign(walShippingJob);
+                            }
+
+                            // a replica replays the shipped WAL instead of shipping its own
+                            final CharSequence walShippingRoot = cairoConfig.getWalShippingRoot();
+                            if (walShippingRoot != null && cairoConfig.isWalShippingReplica()) {
+                                final WalReplicaJob walReplicaJob = new WalReplicaJob(
+                                        engine,
+                                        new FilesWalObjectStore(cairoConfig.getFilesFacade(), walShippingRoot, cairoConfig.getMkDirMode())
+                                );
+                                sharedPoolWrite.assign(walReplicaJob);
+                                sharedPoolWrite.freeOnExit(walReplicaJob);
+                            }
+
                             // wal apply job in the shared pool when there is no dedicated pool
                             if (walApplyEnabled && !config.getWalApplyPoolConfiguration().isEnabled()) {
                                 setupWalApplyJob(sharedPoolWrite, engine, sharedPoolQuery.getWorkerCount());
@@ -33,12 +33,14 @@ import io.questdb.TelemetryConfiguration;
 import io.questdb.VolumeDefinitions;
 import io.questdb.cairo.idx.PostingIndexUtils;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreakerConfiguration;
+import io.questdb.cairo.sql.async.QueryWorkloadClass;
 import io.questdb.cutlass.qwp.codec.DefaultQwpServerInfoProvider;
 import io.questdb.cutlass.qwp.codec.QwpServerInfoProvider;
 import io.questdb.cutlass.text.TextConfiguration;
 import io.questdb.griffin.engine.table.parquet.ParquetPartitionDecoder;
 import io.questdb.mp.continuation.DelayedFireable;
 import io.questdb.mp.continuation.TimerShards;
+import io.questdb.std.CharSequenceHashSet;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.IOURingFacade;
 import io.questdb.std.IOURingFacadeImpl;
@@ -336,6 +338,26 @@ public interface CairoConfiguration {
     @NotNull
     String getInstallRoot();
 
+    /**
+     * Returns the memory budget of the engine-wide cache of shredded JSON paths. Typed
+     * {@code json_extract()} calls over table columns read values from this cache instead
+     * of parsing documents. Zero disables shredding.
+     */
+    long getJsonShredMemorySize();
+
+    /**
+     * Returns the number of queries that must extract the same JSON path from the same
+     * column before the path is shredded.
+     */
+    int getJsonShredMinQueries();
+
+    /**
+     * Returns a comma-separated list of JSON paths, e.g. {@code $.a.b}, that are shredded
+     * on their first query.
+     */
+    @NotNull
+    String getJsonShredPaths();
+
     int getJsonUnnestMaxValueSize();
 
     int getLatestByQueueCapacity();
@@ -533,6 +555,12 @@ public interface CairoConfiguration {
 
     int getMatViewRefreshMaxClusters();
 
+    /**
+     * @return the maximum number of refresh workers that may run time slices of a single
+     * materialized view refresh concurrently. {@code 1} disables sliced refresh.
+     */
+    int getMatViewRefreshParallelism();
+
     /**
      * @return the per-event byte limit applied to one materialized view refresh
      * attempt. {@code 0} means unlimited; only the global RSS limit applies.
@@ -669,6 +697,26 @@ public interface CairoConfiguration {
 
     int getPartitionPurgeListCapacity();
 
+    /**
+     * Returns the age, in milliseconds, past which a partition is moved to the cold volume
+     * under {@link #getPartitionTieringRoot()}. A partition's age is measured from its upper
+     * bound, so a partition becomes eligible once its newest possible row is older than this.
+     */
+    long getPartitionTieringAge();
+
+    /**
+     * Returns how often, in milliseconds, the partition tiering job looks for partitions to
+     * move to the cold volume.
+     */
+    long getPartitionTieringInterval();
+
+    /**
+     * Returns the root directory of the cold volume that old partitions of non-WAL tables are
+     * moved to, or {@code null} when partition tiering is disabled.
+     */
+    @Nullable
+    CharSequence getPartitionTieringRoot();
+
     int getPivotColumnPoolCapacity();
 
     int getPoolSegmentSize();
@@ -945,6 +993,12 @@ public interface CairoConfiguration {
 
     int getSqlModelPoolCapacity();
 
+    /**
+     * Returns the time, in microseconds, that a page frame reduce task should take when
+     * {@link #isSqlPageFrameAdaptiveEnabled()} is on.
+     */
+    long getSqlPageFrameAdaptiveTaskTime();
+
     int getSqlPageFrameMaxRows();
 
     int getSqlPageFrameMinRows();
@@ -959,6 +1013,12 @@ public interface CairoConfiguration {
 
     long getSqlParquetCacheMemorySize();
 
+    /**
+     * Byte budget of the engine-wide cache of decoded Parquet row groups shared
+     * between queries. Zero disables the cache.
+     */
+    long getSqlParquetSharedCacheMemorySize();
+
     int getSqlPivotMaxProducedColumns();
 
     int getSqlSmallMapKeyCapacity();
@@ -985,8 +1045,20 @@ public interface CairoConfiguration {
 
     int getSqlSortValuePageSize();
 
+    /**
+     * Engine-wide memory budget, in bytes, for the trigram indexes kept by all compiled
+     * queries. Partitions that do not fit into the budget are scanned.
+     */
+    long getSqlTrigramIndexMemoryLimit();
+
     int getSqlUnorderedMapMaxEntrySize();
 
+    /**
+     * Engine-wide memory budget, in bytes, for the sorted value indexes kept by all compiled
+     * queries. Partitions that do not fit into the budget are scanned.
+     */
+    long getSqlValueIndexMemoryLimit();
+
     long getSqlWindowCacheMaxBytes();
 
     /**
@@ -1020,8 +1092,75 @@ public interface CairoConfiguration {
 
     int getSqlWindowTreeKeyPageSize();
 
+    /**
+     * @return how long, in milliseconds, a query that can't be parked may block the calling thread
+     * while it waits for a free concurrency slot of its workload class before it's rejected; {@code 0}
+     * rejects such queries right away, see {@link io.questdb.griffin.SqlExecutionContext#isAdmissionParkable()}.
+     */
+    default long getSqlWorkloadAdmissionBlockingTimeout() {
+        return 100;
+    }
+
+    /**
+     * @return how long, in milliseconds, a parked query may wait for a free concurrency slot of
+     * its workload class before it's rejected, see
+     * {@link io.questdb.griffin.SqlExecutionContext#isAdmissionParkable()}.
+     */
+    default long getSqlWorkloadAdmissionTimeout() {
+        return 10_000;
+    }
+
+    /**
+     * @return how far, in microseconds of reduce time, a page frame sequence may run ahead of
+     * its fair share before its dispatch is throttled; see {@link #isSqlWorkloadFairSchedulingEnabled()}.
+     */
+    default long getSqlWorkloadFairSlice() {
+        return 10_000;
+    }
+
+    /**
+     * @param workloadClass one of the {@link QueryWorkloadClass} constants
+     * @return the number of queries of the class that may run concurrently; {@code 0} means unlimited.
+     */
+    default int getSqlWorkloadMaxConcurrent(byte workloadClass) {
+        return 0;
+    }
+
+    /**
+     * @param workloadClass one of the {@link QueryWorkloadClass} constants
+     * @return the per-query memory limit applied to the principals of the class; {@code 0} means
+     * that {@link #getQueryMemoryLimitBytes()} applies.
+     */
+    default long getSqlWorkloadMemoryLimitBytes(byte workloadClass) {
+        return 0;
+    }
+
+    /**
+     * @param workloadClass one of the {@link QueryWorkloadClass} constants
+     * @return the principals assigned to the class, or null when none are configured.
+     */
+    @Nullable
+    default CharSequenceHashSet getSqlWorkloadUsers(byte workloadClass) {
+        return null;
+    }
+
+    /**
+     * @param workloadClass one of the {@link QueryWorkloadClass} constants
+     * @return the relative share of the reduce queue given to the class when sequences of
+     * several classes compete for the shared query workers.
+     */
+    default int getSqlWorkloadWeight(byte workloadClass) {
+        return QueryWorkloadClass.defaultWeight(workloadClass);
+    }
+
     int getStrFunctionMaxBufferLength();
 
+    /**
+     * Byte budget of the engine-wide symbol value to key cache shared by all WAL writers.
+     * Zero disables the cache.
+     */
+    long getSymbolSharedCacheMemorySize();
+
     long getSymbolTableMaxAllocationPageSize();
 
     long getSymbolTableMinAllocationPageSize();
@@ -1112,6 +1251,18 @@ public interface CairoConfiguration {
 
     long getWalEventAppendPageSize();
 
+    /**
+     * Returns the maximum time, in milliseconds, a WAL commit waits for the group commit
+     * fsync when {@link #isWalGroupCommitEnabled()} is on.
+     */
+    long getWalGroupCommitInterval();
+
+    /**
+     * Returns the number of WAL commits awaiting the group commit fsync that triggers
+     * the fsync before {@link #getWalGroupCommitInterval()} elapses.
+     */
+    int getWalGroupCommitMaxPendingTxns();
+
     double getWalLagRowsMultiplier();
 
     long getWalMaxLagSize();
@@ -1144,6 +1295,19 @@ public interface CairoConfiguration {
      */
     long getWalSegmentRolloverSize();
 
+    /**
+     * Returns how often, in milliseconds, the WAL shipping job (or, on a replica, the WAL
+     * replica job) polls the object store under {@link #getWalShippingRoot()}.
+     */
+    long getWalShippingInterval();
+
+    /**
+     * Returns the root directory of the filesystem object store that sealed WAL segments and
+     * transaction log parts are shipped to, or {@code null} when WAL shipping is disabled.
+     */
+    @Nullable
+    CharSequence getWalShippingRoot();
+
     int getWalTxnNotificationQueueCapacity();
 
     int getWalWriterMadviseMode();
@@ -1235,6 +1399,14 @@ public interface CairoConfiguration {
 
     boolean isMatViewParallelSqlEnabled();
 
+    /**
+     * Returns true if SAMPLE BY queries over a base table may be transparently rewritten to read
+     * from a compatible materialized view, see {@code cairo.mat.view.query.rewrite.enabled}.
+     */
+    default boolean isMatViewQueryRewriteEnabled() {
+        return false;
+    }
+
     /**
      * Returns true if the materialized view with the given name is in the configured refresh block
      * list ({@code cairo.mat.view.refresh.block.list}). Blocked views are skipped by every refresh
@@ -1259,6 +1431,15 @@ public interface CairoConfiguration {
 
     boolean isO3QuickSortEnabled();
 
+    /**
+     * @return true when the page frame reduce shards are bound to groups of shared query workers,
+     * e.g. the workers pinned to the cores of one NUMA node. Each worker then drains its own
+     * group's shard and only steals from the other shards when its own is empty, while the
+     * frames of a table are always dispatched to the same shard, so that its pages stay in
+     * the memory and caches of the node that reads them.
+     */
+    boolean isPageFrameReduceShardAffinityEnabled();
+
     boolean isParallelIndexingEnabled();
 
     boolean isParquetExportRawArrayEncoding();
@@ -1271,6 +1452,12 @@ public interface CairoConfiguration {
 
     boolean isPartitionO3OverwriteControlEnabled();
 
+    /**
+     * When enabled, the partition tiering job converts native partitions to Parquet before
+     * moving them to the cold volume.
+     */
+    boolean isPartitionTieringParquetEnabled();
+
     boolean isPostingIndexAutoIncludeTimestamp();
 
     boolean isQueryTracingEnabled();
@@ -1287,6 +1474,21 @@ public interface CairoConfiguration {
 
     boolean isSqlOrderBySortEnabled();
 
+    /**
+     * Enables adaptive page frame sizing for parallel filters, top K and parallel joins: the
+     * page frames of a query are sized, within the page frame row bounds, to the time per row
+     * measured on its previous executions, so that a reduce task takes
+     * {@link #getSqlPageFrameAdaptiveTaskTime()}.
+     */
+    boolean isSqlPageFrameAdaptiveEnabled();
+
+    /**
+     * Enables multi-threaded keyed ASOF and LT JOIN on a single SYMBOL column. Master
+     * page frames are joined by worker threads against a shared slave time frame index,
+     * and the joined rows are emitted in the master frame order.
+     */
+    boolean isSqlParallelAsOfJoinEnabled();
+
     boolean isSqlParallelFilterEnabled();
 
     boolean isSqlParallelGroupByEnabled();
@@ -1297,10 +1499,32 @@ public interface CairoConfiguration {
 
     boolean isSqlParallelTopKEnabled();
 
+    /**
+     * Enables pushing GROUP BY over UNION ALL into the union branches. Each branch is
+     * pre-aggregated by its own, possibly parallel, GROUP BY and the partial results
+     * are re-aggregated on top of the union.
+     */
+    boolean isSqlParallelUnionAllGroupByEnabled();
+
     boolean isSqlParallelWindowJoinEnabled();
 
     boolean isSqlParquetRowGroupPruningEnabled();
 
+    /**
+     * Allows queries with the {@code trigram_index} hint to use trigram indexes for LIKE, ILIKE
+     * and regex match filters on VARCHAR and STRING columns. The indexes are built by the query
+     * per partition on first use and are kept by the compiled query, see
+     * {@link #getSqlTrigramIndexMemoryLimit()}.
+     */
+    boolean isSqlTrigramIndexEnabled();
+
+    /**
+     * Allows queries with the {@code value_index} hint to use sorted value indexes for filters
+     * on INT and LONG columns. The indexes are built by the query per partition on first use
+     * and are kept by the compiled query, see {@link #getSqlValueIndexMemoryLimit()}.
+     */
+    boolean isSqlValueIndexEnabled();
+
     boolean isSqlWindowCachedLightEnabled();
 
     /**
@@ -1316,6 +1540,15 @@ public interface CairoConfiguration {
      */
     boolean isSqlWindowMapFusionEnabled();
 
+    /**
+     * @return true when the reduce time of competing page frame sequences is accounted on a
+     * virtual clock and sequences that ran ahead of their weighted share are throttled to a
+     * single in-flight task until the others catch up.
+     */
+    default boolean isSqlWorkloadFairSchedulingEnabled() {
+        return false;
+    }
+
     boolean isTableTypeConversionEnabled();
 
     /**
@@ -1360,6 +1593,24 @@ public interface CairoConfiguration {
 
     boolean isWalApplyParallelSqlEnabled();
 
+    /**
+     * Enables WAL group commit. WAL writers and sequencers stop syncing on each commit;
+     * instead a single job syncs all of them in one go and publishes the highest durable
+     * seqTxn per table through the engine's {@link io.questdb.cairo.wal.DurableAckRegistry}.
+     * The job relies on syncfs(2); where it's not available, i.e. on anything but Linux, the flag
+     * is ignored and every commit is synced as before.
+     */
+    boolean isWalGroupCommitEnabled();
+
+    /**
+     * When {@link #getWalShippingRoot()} is set, turns this instance into a read-only replica:
+     * instead of shipping its own WAL, it downloads the WAL shipped by the primary, registers
+     * it with the local sequencers and lets the apply job replay it. Only the tables seeded
+     * from a checkpoint of the primary are replicated, tables created on the primary later on
+     * need a reseed. SQL and ingestion writes are refused while the instance is a replica.
+     */
+    boolean isWalShippingReplica();
+
     boolean isWalSupported();
 
     boolean isWriterMixedIOEnabled();
@@ -35,6 +35,7 @@ import io.questdb.cairo.sql.SqlExecutionCircuitBreakerConfiguration;
 import io.questdb.cutlass.qwp.codec.QwpServerInfoProvider;
 import io.questdb.cutlass.text.TextConfiguration;
 import io.questdb.griffin.engine.table.parquet.ParquetPartitionDecoder;
+import io.questdb.std.CharSequenceHashSet;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.ObjHashSet;
 import io.questdb.std.ObjObjHashMap;
@@ -469,6 +470,21 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getInstallRoot();
     }
 
+    @Override
+    public long getJsonShredMemorySize() {
+        return getDelegate().getJsonShredMemorySize();
+    }
+
+    @Override
+    public int getJsonShredMinQueries() {
+        return getDelegate().getJsonShredMinQueries();
+    }
+
+    @Override
+    public @NotNull String getJsonShredPaths() {
+        return getDelegate().getJsonShredPaths();
+    }
+
     @Override
     public int getJsonUnnestMaxValueSize() {
         return getDelegate().getJsonUnnestMaxValueSize();
@@ -639,6 +655,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getMatViewRefreshMaxClusters();
     }
 
+    @Override
+    public int getMatViewRefreshParallelism() {
+        return getDelegate().getMatViewRefreshParallelism();
+    }
+
     @Override
     public long getMatViewRefreshMemoryLimitBytes() {
         return getDelegate().getMatViewRefreshMemoryLimitBytes();
@@ -894,6 +915,21 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getPartitionPurgeListCapacity();
     }
 
+    @Override
+    public long getPartitionTieringAge() {
+        return getDelegate().getPartitionTieringAge();
+    }
+
+    @Override
+    public long getPartitionTieringInterval() {
+        return getDelegate().getPartitionTieringInterval();
+    }
+
+    @Override
+    public @Nullable CharSequence getPartitionTieringRoot() {
+        return getDelegate().getPartitionTieringRoot();
+    }
+
     @Override
     public int getPivotColumnPoolCapacity() {
         return getDelegate().getPivotColumnPoolCapacity();
@@ -1249,6 +1285,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getSqlModelPoolCapacity();
     }
 
+    @Override
+    public long getSqlPageFrameAdaptiveTaskTime() {
+        return getDelegate().getSqlPageFrameAdaptiveTaskTime();
+    }
+
     @Override
     public int getSqlPageFrameMaxRows() {
         return getDelegate().getSqlPageFrameMaxRows();
@@ -1284,6 +1325,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getSqlParquetCacheMemorySize();
     }
 
+    @Override
+    public long getSqlParquetSharedCacheMemorySize() {
+        return getDelegate().getSqlParquetSharedCacheMemorySize();
+    }
+
     @Override
     public int getSqlPivotMaxProducedColumns() {
         return getDelegate().getSqlPivotMaxProducedColumns();
@@ -1349,11 +1395,21 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getSqlSortValuePageSize();
     }
 
+    @Override
+    public long getSqlTrigramIndexMemoryLimit() {
+        return getDelegate().getSqlTrigramIndexMemoryLimit();
+    }
+
     @Override
     public int getSqlUnorderedMapMaxEntrySize() {
         return getDelegate().getSqlUnorderedMapMaxEntrySize();
     }
 
+    @Override
+    public long getSqlValueIndexMemoryLimit() {
+        return getDelegate().getSqlValueIndexMemoryLimit();
+    }
+
     @Override
     public long getSqlWindowCacheMaxBytes() {
         return getDelegate().getSqlWindowCacheMaxBytes();
@@ -1409,11 +1465,51 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getSqlWindowTreeKeyPageSize();
     }
 
+    @Override
+    public long getSqlWorkloadAdmissionBlockingTimeout() {
+        return getDelegate().getSqlWorkloadAdmissionBlockingTimeout();
+    }
+
+    @Override
+    public long getSqlWorkloadAdmissionTimeout() {
+        return getDelegate().getSqlWorkloadAdmissionTimeout();
+    }
+
+    @Override
+    public long getSqlWorkloadFairSlice() {
+        return getDelegate().getSqlWorkloadFairSlice();
+    }
+
+    @Override
+    public int getSqlWorkloadMaxConcurrent(byte workloadClass) {
+        return getDelegate().getSqlWorkloadMaxConcurrent(workloadClass);
+    }
+
+    @Override
+    public long getSqlWorkloadMemoryLimitBytes(byte workloadClass) {
+        return getDelegate().getSqlWorkloadMemoryLimitBytes(workloadClass);
+    }
+
+    @Override
+    public @Nullable CharSequenceHashSet getSqlWorkloadUsers(byte workloadClass) {
+        return getDelegate().getSqlWorkloadUsers(workloadClass);
+    }
+
+    @Override
+    public int getSqlWorkloadWeight(byte workloadClass) {
+        return getDelegate().getSqlWorkloadWeight(workloadClass);
+    }
+
     @Override
     public int getStrFunctionMaxBufferLength() {
         return getDelegate().getStrFunctionMaxBufferLength();
     }
 
+    @Override
+    public long getSymbolSharedCacheMemorySize() {
+        return getDelegate().getSymbolSharedCacheMemorySize();
+    }
+
     @Override
     public long getSymbolTableMaxAllocationPageSize() {
         return getDelegate().getSymbolTableMaxAllocationPageSize();
@@ -1554,6 +1650,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getWalLagRowsMultiplier();
     }
 
+    @Override
+    public long getWalGroupCommitInterval() {
+        return getDelegate().getWalGroupCommitInterval();
+    }
+
+    @Override
+    public int getWalGroupCommitMaxPendingTxns() {
+        return getDelegate().getWalGroupCommitMaxPendingTxns();
+    }
+
     @Override
     public long getWalMaxLagSize() {
         return getDelegate().getWalMaxLagSize();
@@ -1594,6 +1700,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getWalSegmentRolloverSize();
     }
 
+    @Override
+    public long getWalShippingInterval() {
+        return getDelegate().getWalShippingInterval();
+    }
+
+    @Override
+    public @Nullable CharSequence getWalShippingRoot() {
+        return getDelegate().getWalShippingRoot();
+    }
+
     @Override
     public int getWalTxnNotificationQueueCapacity() {
         return getDelegate().getWalTxnNotificationQueueCapacity();
@@ -1719,6 +1835,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isMatViewParallelSqlEnabled();
     }
 
+    @Override
+    public boolean isMatViewQueryRewriteEnabled() {
+        return getDelegate().isMatViewQueryRewriteEnabled();
+    }
+
     @Override
     public boolean isMatViewRefreshBlocked(CharSequence viewName) {
         return getDelegate().isMatViewRefreshBlocked(viewName);
@@ -1739,6 +1860,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isO3QuickSortEnabled();
     }
 
+    @Override
+    public boolean isPageFrameReduceShardAffinityEnabled() {
+        return getDelegate().isPageFrameReduceShardAffinityEnabled();
+    }
+
     @Override
     public boolean isParallelIndexingEnabled() {
         return getDelegate().isParallelIndexingEnabled();
@@ -1769,6 +1895,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isPartitionO3OverwriteControlEnabled();
     }
 
+    @Override
+    public boolean isPartitionTieringParquetEnabled() {
+        return getDelegate().isPartitionTieringParquetEnabled();
+    }
+
     @Override
     public boolean isPostingIndexAutoIncludeTimestamp() {
         return getDelegate().isPostingIndexAutoIncludeTimestamp();
@@ -1799,6 +1930,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isSqlOrderBySortEnabled();
     }
 
+    @Override
+    public boolean isSqlPageFrameAdaptiveEnabled() {
+        return getDelegate().isSqlPageFrameAdaptiveEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelAsOfJoinEnabled() {
+        return getDelegate().isSqlParallelAsOfJoinEnabled();
+    }
+
     @Override
     public boolean isSqlParallelFilterEnabled() {
         return getDelegate().isSqlParallelFilterEnabled();
@@ -1824,6 +1965,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isSqlParallelTopKEnabled();
     }
 
+    @Override
+    public boolean isSqlParallelUnionAllGroupByEnabled() {
+        return getDelegate().isSqlParallelUnionAllGroupByEnabled();
+    }
+
     @Override
     public boolean isSqlParallelWindowJoinEnabled() {
         return getDelegate().isSqlParallelWindowJoinEnabled();
@@ -1834,6 +1980,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isSqlParquetRowGroupPruningEnabled();
     }
 
+    @Override
+    public boolean isSqlTrigramIndexEnabled() {
+        return getDelegate().isSqlTrigramIndexEnabled();
+    }
+
+    @Override
+    public boolean isSqlValueIndexEnabled() {
+        return getDelegate().isSqlValueIndexEnabled();
+    }
+
     @Override
     public boolean isSqlWindowCachedLightEnabled() {
         return getDelegate().isSqlWindowCachedLightEnabled();
@@ -1844,6 +2000,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isSqlWindowMapFusionEnabled();
     }
 
+    @Override
+    public boolean isSqlWorkloadFairSchedulingEnabled() {
+        return getDelegate().isSqlWorkloadFairSchedulingEnabled();
+    }
+
     @Override
     public boolean isTableTypeConversionEnabled() {
         return getDelegate().isTableTypeConversionEnabled();
@@ -1859,11 +2020,21 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isWalApplyEnabled();
     }
 
+    @Override
+    public boolean isWalGroupCommitEnabled() {
+        return getDelegate().isWalGroupCommitEnabled();
+    }
+
     @Override
     public boolean isWalApplyParallelSqlEnabled() {
         return getDelegate().isWalApplyParallelSqlEnabled();
     }
 
+    @Override
+    public boolean isWalShippingReplica() {
+        return getDelegate().isWalShippingReplica();
+    }
+
     public boolean isWalSupported() {
         return getDelegate().isWalSupported();
     }
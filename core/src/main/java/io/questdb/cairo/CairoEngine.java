@@ -32,6 +32,7 @@ import io.questdb.Telemetry;
 import io.questdb.cairo.file.BlockFileReader;
 import io.questdb.cairo.file.BlockFileWriter;
 import io.questdb.cairo.frm.file.FrameFactory;
+import io.questdb.cairo.idx.QueryIndexMemoryBudget;
 import io.questdb.cairo.lv.LiveViewCheckpointLayout;
 import io.questdb.cairo.lv.LiveViewCheckpointLifecycle;
 import io.questdb.cairo.lv.LiveViewCompiledPlan;
@@ -43,6 +44,7 @@ import io.questdb.cairo.lv.LiveViewState;
 import io.questdb.cairo.lv.LiveViewStateReader;
 import io.questdb.cairo.lv.LiveViewStateStore;
 import io.questdb.cairo.lv.LiveViewStateStoreImpl;
+import io.questdb.cairo.lv.LiveViewSubscriberRegistry;
 import io.questdb.cairo.lv.LiveViewTableStructure;
 import io.questdb.cairo.lv.NoOpLiveViewStateStore;
 import io.questdb.cairo.mig.EngineMigration;
@@ -82,6 +84,7 @@ import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
 import io.questdb.cairo.sql.TableMetadata;
 import io.questdb.cairo.sql.TableRecordMetadata;
 import io.questdb.cairo.sql.TableReferenceOutOfDateException;
+import io.questdb.cairo.sql.async.QueryAdmissionController;
 import io.questdb.cairo.view.NoOpViewStateStore;
 import io.questdb.cairo.view.ViewCompilerExecutionContext;
 import io.questdb.cairo.view.ViewDefinition;
@@ -93,6 +96,7 @@ import io.questdb.cairo.view.ViewStateStoreImpl;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryCMR;
 import io.questdb.cairo.vm.api.MemoryMARW;
+import io.questdb.cairo.wal.CompositeDurableAckRegistry;
 import io.questdb.cairo.wal.DefaultDurableAckRegistry;
 import io.questdb.cairo.wal.DefaultWalDirectoryPolicy;
 import io.questdb.cairo.wal.DefaultWalListener;
@@ -102,6 +106,7 @@ import io.questdb.cairo.wal.UnsupportedWalTxnTypeHandler;
 import io.questdb.cairo.wal.ViewWalWriter;
 import io.questdb.cairo.wal.WalDirectoryPolicy;
 import io.questdb.cairo.wal.WalEventReader;
+import io.questdb.cairo.wal.WalGroupCommitJob;
 import io.questdb.cairo.wal.WalListener;
 import io.questdb.cairo.wal.WalLocker;
 import io.questdb.cairo.wal.WalReader;
@@ -111,6 +116,9 @@ import io.questdb.cairo.wal.WalWriter;
 import io.questdb.cairo.wal.seq.SeqTxnTracker;
 import io.questdb.cairo.wal.seq.SequencerMetadata;
 import io.questdb.cairo.wal.seq.TableSequencerAPI;
+import io.questdb.cairo.wal.ship.FilesWalObjectStore;
+import io.questdb.cairo.wal.ship.ShippingWalDirectoryPolicy;
+import io.questdb.cairo.wal.ship.WalShippingJob;
 import io.questdb.cutlass.qwp.codec.QwpServerInfoProvider;
 import io.questdb.cutlass.text.CopyExportContext;
 import io.questdb.cutlass.text.CopyImportContext;
@@ -132,12 +140,14 @@ import io.questdb.griffin.engine.functions.GroupByFunction;
 import io.questdb.griffin.engine.functions.MultiArgFunction;
 import io.questdb.griffin.engine.functions.TernaryFunction;
 import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.griffin.engine.functions.json.JsonShredCache;
 import io.questdb.griffin.engine.ops.CreateLiveViewOperation;
 import io.questdb.griffin.engine.ops.CreateMatViewOperation;
 import io.questdb.griffin.engine.ops.CreateViewOperation;
 import io.questdb.griffin.engine.ops.Operation;
 import io.questdb.griffin.engine.ops.UpdateOperation;
 import io.questdb.griffin.engine.table.PageFrameRecordCursorFactory;
+import io.questdb.griffin.engine.table.parquet.ParquetRowGroupCache;
 import io.questdb.griffin.engine.window.WindowFunction;
 import io.questdb.griffin.model.ExpressionNode;
 import io.questdb.log.Log;
@@ -217,14 +227,18 @@ public class CairoEngine implements Closeable, WriterSource {
     private final DataID dataID;
     private final DependentViewGraph dependentViewGraph;
     private final FunctionFactoryCache ffCache;
+    private final JsonShredCache jsonShredCache;
     private final LiveViewRegistry liveViewRegistry = new LiveViewRegistry();
+    private final LiveViewSubscriberRegistry liveViewSubscriberRegistry = new LiveViewSubscriberRegistry();
     private final Queue<MatViewTimerTask> matViewTimerQueue;
     private final MessageBusImpl messageBus;
     // volatile: assigned by completeInit() on the orchestrator thread, read by worker threads
     // and hydration threads; volatile ensures safe cross-thread publication after completeInit.
     private volatile MetadataCache metadataCache;
     private final Metrics metrics;
+    private final ParquetRowGroupCache parquetRowGroupCache;
     private final PartitionOverwriteControl partitionOverwriteControl = new PartitionOverwriteControl();
+    private final QueryAdmissionController queryAdmissionController;
     private final QueryRegistry queryRegistry;
     private final ReaderPool readerPool;
     private final RecentWriteTracker recentWriteTracker;
@@ -261,6 +275,7 @@ public class CairoEngine implements Closeable, WriterSource {
     private final SequencerMetadataPool sequencerMetadataPool;
     // volatile: see metadataCache comment above.
     private volatile SettingsStore settingsStore;
+    private final SharedSymbolCache sharedSymbolCache;
     // volatile: see metadataCache comment above.
     private volatile SqlCompilerPool sqlCompilerPool;
     private final TableFlagResolver tableFlagResolver;
@@ -274,8 +289,10 @@ public class CairoEngine implements Closeable, WriterSource {
     private final Telemetry<TelemetryMatViewTask> telemetryMatView;
     private final Telemetry<TelemetryWalTask> telemetryWal;
     private final TimerShards timerShards;
+    private final QueryIndexMemoryBudget trigramIndexMemoryBudget;
     // initial value of unpublishedWalTxnCount is 1 because we want to scan for non-applied WAL transactions on startup
     private final AtomicLong unpublishedWalTxnCount = new AtomicLong(1);
+    private final QueryIndexMemoryBudget valueIndexMemoryBudget;
     private final ViewGraph viewGraph;
     private final ViewWalWriterPool viewWalWriterPool;
     private final SimpleWaitingLock walPurgeJobLock = new SimpleWaitingLock();
@@ -320,8 +337,12 @@ public class CairoEngine implements Closeable, WriterSource {
     // volatile: walListener is reassigned by PrimaryRoleState.openLoops on the lifecycle thread
     // and read by TableSequencerImpl and TableSequencerAPI on sequencer/apply threads; no
     // implicit fence between writer and readers.
+    // null unless WAL group commit is enabled and syncfs() is available
+    private @Nullable WalGroupCommitJob walGroupCommitJob;
     private volatile @NotNull WalListener walListener = DefaultWalListener.INSTANCE;
     private @NotNull WalLocker walLocker;
+    // null unless WAL shipping is enabled on a primary
+    private @Nullable WalShippingJob walShippingJob;
 
     public CairoEngine(CairoConfiguration configuration) {
         this(configuration, new QdbrWalLocker());
@@ -356,6 +377,27 @@ public class CairoEngine implements Closeable, WriterSource {
             this.copyImportContext = new CopyImportContext(this, configuration);
             this.copyExportContext = new CopyExportContext(this);
             this.tableSequencerAPI = new TableSequencerAPI(this, configuration);
+            if (WalGroupCommitJob.isSyncDeferred(configuration)) {
+                // the group commit job also reports which commits are durable
+                this.walGroupCommitJob = new WalGroupCommitJob(configuration);
+                this.durableAckRegistry = walGroupCommitJob;
+            } else if (configuration.isWalGroupCommitEnabled()) {
+                LOG.advisory().$("WAL group commit is disabled, syncfs() is not available; WAL writers sync each commit [key=cairo.wal.group.commit.enabled]").$();
+            }
+            final CharSequence walShippingRoot = configuration.getWalShippingRoot();
+            if (walShippingRoot != null && !configuration.isWalShippingReplica()) {
+                // Shipping pins new segments until they are uploaded and reports shipped
+                // commits as durable. With group commit on as well, a commit is durable
+                // once it is both synced locally and shipped.
+                this.walShippingJob = new WalShippingJob(
+                        this,
+                        new FilesWalObjectStore(configuration.getFilesFacade(), walShippingRoot, configuration.getMkDirMode())
+                );
+                this.walDirectoryPolicy = new ShippingWalDirectoryPolicy(configuration.getFilesFacade());
+                this.durableAckRegistry = walGroupCommitJob != null
+                        ? new CompositeDurableAckRegistry(walGroupCommitJob, walShippingJob)
+                        : walShippingJob;
+            }
             // Per-deadline blocking timer threads. Each parked TxnWaiter (or other
             // DelayedFireable) sits in a shard and is woken at its precise deadline,
             // bounding resource retention when a wait_wal_table call parks and the
@@ -374,9 +416,17 @@ public class CairoEngine implements Closeable, WriterSource {
             this.recentWriteTracker = new RecentWriteTracker(configuration.getRecentWriteTrackerCapacity());
             this.writerPool = new WriterPool(configuration, this, recentWriteTracker);
             this.scoreboardPool = new TxnScoreboardPoolV2(configuration);
+            this.parquetRowGroupCache = new ParquetRowGroupCache(configuration.getSqlParquetSharedCacheMemorySize(), metrics.parquetRowGroupCacheMetrics());
             this.readerPool = new ReaderPool(configuration, scoreboardPool, messageBus, partitionOverwriteControl);
+            this.readerPool.setParquetRowGroupCache(parquetRowGroupCache);
             this.sequencerMetadataPool = new SequencerMetadataPool(configuration, this);
             this.tableMetadataPool = new TableMetadataPool(configuration);
+            this.sharedSymbolCache = new SharedSymbolCache(configuration.getSymbolSharedCacheMemorySize());
+            this.jsonShredCache = new JsonShredCache(
+                    configuration.getJsonShredMemorySize(),
+                    configuration.getJsonShredMinQueries(),
+                    configuration.getJsonShredPaths()
+            );
             this.walWriterPool = new WalWriterPool(configuration, this);
             this.viewWalWriterPool = new ViewWalWriterPool(configuration, this);
             this.telemetry = createTelemetry(TelemetryTask.TELEMETRY, configuration);
@@ -390,6 +440,9 @@ public class CairoEngine implements Closeable, WriterSource {
             this.tableIdGenerator = IDGeneratorFactory.newIDGenerator(configuration, TableUtils.TAB_INDEX_FILE_NAME, 1);
             this.checkpointAgent = new DatabaseCheckpointAgent(this);
             this.queryRegistry = new QueryRegistry(configuration);
+            this.queryAdmissionController = new QueryAdmissionController(configuration, metrics.queryAdmissionMetrics());
+            this.trigramIndexMemoryBudget = new QueryIndexMemoryBudget(configuration.getSqlTrigramIndexMemoryLimit());
+            this.valueIndexMemoryBudget = new QueryIndexMemoryBudget(configuration.getSqlValueIndexMemoryLimit());
             this.rootExecutionContext = createRootExecutionContext();
             this.matViewTimerQueue = createMatViewTimerQueue();
             this.dependentViewGraph = createDependentViewGraph();
@@ -1310,6 +1363,8 @@ public class CairoEngine implements Closeable, WriterSource {
         Misc.free(sqlCompilerPool);
         Misc.free(writerPool);
         Misc.free(readerPool);
+        Misc.free(parquetRowGroupCache);
+        Misc.free(jsonShredCache);
         Misc.free(sequencerMetadataPool);
         Misc.free(tableMetadataPool);
         Misc.free(walWriterPool);
@@ -1317,6 +1372,8 @@ public class CairoEngine implements Closeable, WriterSource {
         Misc.free(tableIdGenerator);
         Misc.free(messageBus);
         Misc.free(tableSequencerAPI);
+        Misc.free(walShippingJob);
+        Misc.free(walGroupCommitJob);
         Misc.freeObjList(telemetries);
         Misc.free(tableNameRegistry);
         Misc.free(checkpointAgent);
@@ -2072,6 +2129,7 @@ public class CairoEngine implements Closeable, WriterSource {
                         throw CairoException.critical(configuration.getFilesFacade().errno())
                                 .put("could not remove table [table=").put(tableToken).put(", thread=").put(Thread.currentThread().threadId()).put(']');
                     }
+                    TableUtils.removeTieredTableDir(configuration.getFilesFacade(), configuration.getPartitionTieringRoot(), tableToken, LOG);
 
                     tableNameRegistry.dropTable(tableToken);
                     // Remove the scoreboard after dropping the table from the registry
@@ -2136,6 +2194,10 @@ public class CairoEngine implements Closeable, WriterSource {
         }
     }
 
+    public JsonShredCache getJsonShredCache() {
+        return jsonShredCache;
+    }
+
     /**
      * Fires the role-switch mint hook when a test installed one. A strict no-op (single static volatile
      * read) in production where the field is null. Called both inside the parse-time DDL / replicated-write
@@ -2248,6 +2310,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return liveViewStateStore;
     }
 
+    public LiveViewSubscriberRegistry getLiveViewSubscriberRegistry() {
+        return liveViewSubscriberRegistry;
+    }
+
     public @NotNull MatViewStateStore getMatViewStateStore() {
         return matViewStateStore;
     }
@@ -2286,6 +2352,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return (int) tableIdGenerator.getNextId();
     }
 
+    public ParquetRowGroupCache getParquetRowGroupCache() {
+        return parquetRowGroupCache;
+    }
+
     public PartitionOverwriteControl getPartitionOverwriteControl() {
         return partitionOverwriteControl;
     }
@@ -2295,6 +2365,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return this.writerPool.getPoolListener();
     }
 
+    public QueryAdmissionController getQueryAdmissionController() {
+        return queryAdmissionController;
+    }
+
     public QueryRegistry getQueryRegistry() {
         return queryRegistry;
     }
@@ -2418,6 +2492,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return settingsStore;
     }
 
+    public SharedSymbolCache getSharedSymbolCache() {
+        return sharedSymbolCache;
+    }
+
     public SqlCompiler getSqlCompiler() {
         return sqlCompilerPool.get();
     }
@@ -2597,6 +2675,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return timerShards;
     }
 
+    public QueryIndexMemoryBudget getTrigramIndexMemoryBudget() {
+        return trigramIndexMemoryBudget;
+    }
+
     public TxnScoreboard getTxnScoreboard(@NotNull TableToken tableToken) {
         return scoreboardPool.getTxnScoreboard(tableToken);
     }
@@ -2613,6 +2695,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return tableNameRegistry.getTokenByDirName(tableToken.getDirName());
     }
 
+    public QueryIndexMemoryBudget getValueIndexMemoryBudget() {
+        return valueIndexMemoryBudget;
+    }
+
     public @NotNull ViewGraph getViewGraph() {
         return viewGraph;
     }
@@ -2643,6 +2729,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return walDirectoryPolicy;
     }
 
+    public @Nullable WalGroupCommitJob getWalGroupCommitJob() {
+        return walGroupCommitJob;
+    }
+
     public @NotNull WalListener getWalListener() {
         return walListener;
     }
@@ -2651,6 +2741,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return walLocker;
     }
 
+    public @Nullable WalShippingJob getWalShippingJob() {
+        return walShippingJob;
+    }
+
     // For testing only
     @TestOnly
     public WalReader getWalReader(
@@ -3004,12 +3098,14 @@ public class CairoEngine implements Closeable, WriterSource {
      * Reports whether this engine currently refuses writes. Reads the LIVE state on every
      * call so callers can re-check it per write batch rather than trusting a value captured
      * earlier (for example, a SecurityContext cached at connection time). The base engine
-     * answers from the static isReadOnlyInstance() flag; enterprise subclasses override this
+     * answers from the static isReadOnlyInstance() flag and the WAL shipping replica flag,
+     * which replays the primary's WAL but accepts no writes; enterprise subclasses override this
      * to also report true while the node is acting as a read-only replica, a state an
      * in-place role switch can toggle dynamically.
      */
     public boolean isReadOnlyMode() {
-        return configuration.isReadOnlyInstance();
+        return configuration.isReadOnlyInstance()
+                || (configuration.isWalShippingReplica() && configuration.getWalShippingRoot() != null);
     }
 
     public boolean isTableDropped(TableToken tableToken) {
@@ -53,6 +53,7 @@ import io.questdb.std.datetime.DateLocale;
 import io.questdb.std.datetime.TimeZoneRules;
 import io.questdb.std.datetime.microtime.Micros;
 import io.questdb.std.datetime.microtime.MicrosecondClockImpl;
+import io.questdb.std.datetime.millitime.Dates;
 import io.questdb.std.datetime.nanotime.NanosecondClockImpl;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -491,6 +492,21 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return installRoot;
     }
 
+    @Override
+    public long getJsonShredMemorySize() {
+        return 0;
+    }
+
+    @Override
+    public int getJsonShredMinQueries() {
+        return 3;
+    }
+
+    @Override
+    public @NotNull String getJsonShredPaths() {
+        return "";
+    }
+
     @Override
     public int getJsonUnnestMaxValueSize() {
         return 4096;
@@ -664,6 +680,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 32;
     }
 
+    @Override
+    public int getMatViewRefreshParallelism() {
+        return 1;
+    }
+
     @Override
     public long getMatViewRefreshMemoryLimitBytes() {
         return 0;
@@ -913,6 +934,21 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 64;
     }
 
+    @Override
+    public long getPartitionTieringAge() {
+        return 30L * Dates.DAY_MILLIS;
+    }
+
+    @Override
+    public long getPartitionTieringInterval() {
+        return 60_000;
+    }
+
+    @Override
+    public @Nullable CharSequence getPartitionTieringRoot() {
+        return null;
+    }
+
     @Override
     public int getPivotColumnPoolCapacity() {
         return 8;
@@ -1245,6 +1281,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 1024;
     }
 
+    @Override
+    public long getSqlPageFrameAdaptiveTaskTime() {
+        return 2_000;
+    }
+
     @Override
     public int getSqlPageFrameMaxRows() {
         return 1_000_000;
@@ -1280,6 +1321,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 256L * Numbers.SIZE_1MB;
     }
 
+    @Override
+    public long getSqlParquetSharedCacheMemorySize() {
+        return 0;
+    }
+
     @Override
     public int getSqlPivotMaxProducedColumns() {
         return 5_000;
@@ -1345,11 +1391,21 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return Numbers.SIZE_1MB * 16;
     }
 
+    @Override
+    public long getSqlTrigramIndexMemoryLimit() {
+        return 256 * Numbers.SIZE_1MB;
+    }
+
     @Override
     public int getSqlUnorderedMapMaxEntrySize() {
         return 16;
     }
 
+    @Override
+    public long getSqlValueIndexMemoryLimit() {
+        return 256 * Numbers.SIZE_1MB;
+    }
+
     @Override
     public long getSqlWindowCacheMaxBytes() {
         return Long.MAX_VALUE;
@@ -1411,6 +1467,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 1024 * 1024;
     }
 
+    @Override
+    public long getSymbolSharedCacheMemorySize() {
+        return 0;
+    }
+
     @Override
     public long getSymbolTableMaxAllocationPageSize() {
         return 8 * 1024 * 1024;
@@ -1541,6 +1602,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 20;
     }
 
+    @Override
+    public long getWalGroupCommitInterval() {
+        return 5;
+    }
+
+    @Override
+    public int getWalGroupCommitMaxPendingTxns() {
+        return 1024;
+    }
+
     @Override
     public long getWalMaxLagSize() {
         return 75 * Numbers.SIZE_1MB;
@@ -1576,6 +1647,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 0;  // watermark level disabled.
     }
 
+    @Override
+    public long getWalShippingInterval() {
+        return 1_000;
+    }
+
+    @Override
+    public @Nullable CharSequence getWalShippingRoot() {
+        return null;
+    }
+
     @Override
     public int getWalTxnNotificationQueueCapacity() {
         return 4096;
@@ -1715,6 +1796,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return false;
     }
 
+    @Override
+    public boolean isPageFrameReduceShardAffinityEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isParallelIndexingEnabled() {
         return true;
@@ -1745,6 +1831,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return false;
     }
 
+    @Override
+    public boolean isPartitionTieringParquetEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isPostingIndexAutoIncludeTimestamp() {
         return true;
@@ -1775,6 +1866,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isSqlPageFrameAdaptiveEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isSqlParallelAsOfJoinEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isSqlParallelFilterEnabled() {
         return true;
@@ -1800,6 +1901,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isSqlParallelUnionAllGroupByEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isSqlParallelWindowJoinEnabled() {
         return true;
@@ -1810,6 +1916,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isSqlTrigramIndexEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isSqlValueIndexEnabled() {
+        return true;
+    }
+
     @Override
     public boolean isSqlWindowCachedLightEnabled() {
         return true;
@@ -1830,11 +1946,21 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isWalGroupCommitEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isWalApplyParallelSqlEnabled() {
         return true;
     }
 
+    @Override
+    public boolean isWalShippingReplica() {
+        return false;
+    }
+
     @Override
     public boolean isWalSupported() {
         return true;
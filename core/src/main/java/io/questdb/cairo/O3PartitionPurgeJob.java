@@ -40,6 +40,7 @@ import io.questdb.std.NumericException;
 import io.questdb.std.Vect;
 import io.questdb.std.datetime.DateFormat;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.Utf8String;
 import io.questdb.std.str.Utf8StringSink;
 import io.questdb.std.str.Utf8s;
 import io.questdb.tasks.O3PartitionPurgeTask;
@@ -58,6 +59,7 @@ public class O3PartitionPurgeJob extends AbstractQueueConsumerJob<O3PartitionPur
     private final Utf8StringSink fileNameSink;
     private final AtomicBoolean halted = new AtomicBoolean(false);
     private final DirectLongList partitionList;
+    private final Utf8String tieringRoot;
     private final TxReader txnReader;
 
     public O3PartitionPurgeJob(CairoEngine engine) {
@@ -75,6 +77,8 @@ public class O3PartitionPurgeJob extends AbstractQueueConsumerJob<O3PartitionPur
                     MemoryTag.NATIVE_O3
             );
             this.txnReader = new TxReader(configuration.getFilesFacade());
+            final CharSequence tieringRoot = configuration.getPartitionTieringRoot();
+            this.tieringRoot = tieringRoot != null ? new Utf8String(tieringRoot) : null;
         } catch (Throwable th) {
             close();
             throw th;
@@ -456,7 +460,7 @@ public class O3PartitionPurgeJob extends AbstractQueueConsumerJob<O3PartitionPur
                 TableToken lastToken = engine.getUpdatedTableToken(tableToken);
                 if (lastToken == tableToken) {
                     LOG.info().$(message).$substr(pathFrom, path).I$();
-                    ff.unlinkOrRemove(path, LOG);
+                    TableUtils.removePartitionDir(ff, path, tieringRoot, LOG);
                 } else {
                     // the table is dropped and recreated since we started processing it.
                     // abort the table processing
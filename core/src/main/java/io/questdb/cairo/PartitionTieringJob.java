@@ -0,0 +1,180 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.TableReferenceOutOfDateException;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.LongList;
+import io.questdb.std.ObjHashSet;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import io.questdb.std.str.Path;
+
+/**
+ * Moves partitions older than {@link CairoConfiguration#getPartitionTieringAge()} to the cold
+ * volume under {@link CairoConfiguration#getPartitionTieringRoot()}, see
+ * {@link TableWriter#movePartitionToColdVolume(long, CharSequence)}. Every
+ * {@link CairoConfiguration#getPartitionTieringInterval()} the job scans the partition table of
+ * each table through a reader and takes the writer only when there is something to move. A
+ * table whose writer is busy is retried on the next run.
+ * <p>
+ * Moved partitions stay writable. One that an O3 merge brought back to the hot volume is
+ * moved again on a later run.
+ * <p>
+ * WAL tables, materialized views included, are skipped. Their partitions may only change
+ * through the sequencer, which the move bypasses.
+ * <p>
+ * With {@link CairoConfiguration#isPartitionTieringParquetEnabled()}, native partitions are
+ * converted to Parquet before they are moved.
+ */
+public class PartitionTieringJob extends SynchronizedJob {
+    private static final Log LOG = LogFactory.getLog(PartitionTieringJob.class);
+    private static final String LOCK_REASON = "partitionTiering";
+    private final long age;
+    private final MillisecondClock clock;
+    private final CharSequence coldRoot;
+    private final CairoEngine engine;
+    private final FilesFacade ff;
+    private final long interval;
+    private final PartitionTieringMetrics metrics;
+    private final boolean parquetEnabled;
+    private final LongList partitionTimestamps = new LongList();
+    private final ObjHashSet<TableToken> tableTokenBucket = new ObjHashSet<>();
+    private long lastRunMs;
+
+    public PartitionTieringJob(CairoEngine engine, CharSequence coldRoot) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.coldRoot = coldRoot;
+        this.ff = configuration.getFilesFacade();
+        this.clock = configuration.getMillisecondClock();
+        this.age = configuration.getPartitionTieringAge();
+        this.interval = configuration.getPartitionTieringInterval();
+        this.parquetEnabled = configuration.isPartitionTieringParquetEnabled();
+        this.metrics = configuration.getMetrics().partitionTieringMetrics();
+    }
+
+    /**
+     * Collects the partitions of the table that are due for the cold volume, returns false
+     * when there are none. The active partition is never due, nor are partitions that are
+     * already soft links.
+     */
+    private boolean collectDuePartitions(TableToken tableToken, long nowMs) {
+        partitionTimestamps.clear();
+        try (TableReader reader = engine.getReader(tableToken)) {
+            if (!PartitionBy.isPartitioned(reader.getPartitionedBy())) {
+                return false;
+            }
+            final TxReader txFile = reader.getTxFile();
+            final int timestampType = reader.getMetadata().getTimestampType();
+            final long cutoff = ColumnType.getTimestampDriver(timestampType).fromMillis(nowMs - age);
+            final Path path = Path.PATH2.get().of(engine.getConfiguration().getDbRoot()).concat(tableToken);
+            final int tableDirLen = path.size();
+            for (int i = 0, n = reader.getPartitionCount() - 1; i < n; i++) {
+                final long rawPartitionTimestamp = reader.getPartitionTimestampByIndex(i);
+                final long partitionTimestamp = txFile.getLogicalPartitionTimestamp(rawPartitionTimestamp);
+                if (txFile.getNextLogicalPartitionTimestamp(partitionTimestamp) > cutoff) {
+                    // partitions are in timestamp order, the rest is younger
+                    break;
+                }
+                if (txFile.isPartitionReadOnly(i)) {
+                    continue;
+                }
+                TableUtils.setPathForNativePartition(path.trimTo(tableDirLen), timestampType, reader.getPartitionedBy(), rawPartitionTimestamp, txFile.getPartitionNameTxn(i));
+                if (ff.isSoftLink(path.$())) {
+                    continue;
+                }
+                // split partitions share the logical timestamp
+                if (partitionTimestamps.size() == 0 || partitionTimestamps.getLast() != partitionTimestamp) {
+                    partitionTimestamps.add(partitionTimestamp);
+                }
+            }
+        }
+        return partitionTimestamps.size() > 0;
+    }
+
+    private boolean tierTable(TableToken tableToken, long nowMs) {
+        if (!collectDuePartitions(tableToken, nowMs)) {
+            return false;
+        }
+
+        boolean useful = false;
+        try (TableWriter writer = engine.getWriter(tableToken, LOCK_REASON)) {
+            for (int i = 0, n = partitionTimestamps.size(); i < n; i++) {
+                final long partitionTimestamp = partitionTimestamps.getQuick(i);
+                if (parquetEnabled) {
+                    final int partitionIndex = writer.getTxWriter().getPartitionIndex(partitionTimestamp);
+                    if (partitionIndex > -1 && !writer.getTxWriter().isPartitionParquet(partitionIndex)) {
+                        try {
+                            writer.convertPartitionNativeToParquet(partitionTimestamp, null, Double.NaN);
+                        } catch (CairoException e) {
+                            // the partition is still worth moving in the native format
+                            LOG.error().$("could not convert partition to parquet before tiering [table=").$(tableToken)
+                                    .$(", partition=").$ts(ColumnType.getTimestampDriver(writer.getMetadata().getTimestampType()), partitionTimestamp)
+                                    .$(", error=").$safe(e.getFlyweightMessage())
+                                    .I$();
+                        }
+                    }
+                }
+                final long movedBytes = writer.movePartitionToColdVolume(partitionTimestamp, coldRoot);
+                if (movedBytes > -1) {
+                    metrics.onPartitionMoved(movedBytes);
+                    useful = true;
+                }
+            }
+        } catch (EntryUnavailableException e) {
+            // the writer is busy, retry on the next run
+            LOG.debug().$("table writer is busy, partition tiering postponed [table=").$(tableToken).I$();
+        }
+        return useful;
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long now = clock.getTicks();
+        if (now - lastRunMs < interval) {
+            return false;
+        }
+        lastRunMs = now;
+        engine.getTableTokens(tableTokenBucket, false);
+        boolean useful = false;
+        for (int i = 0, n = tableTokenBucket.size(); i < n; i++) {
+            final TableToken tableToken = tableTokenBucket.get(i);
+            if (tableToken.isSystem() || tableToken.isLiveView() || tableToken.isWal()) {
+                continue;
+            }
+            try {
+                useful |= tierTable(tableToken, now);
+            } catch (CairoException | TableReferenceOutOfDateException e) {
+                LOG.error().$("could not move partitions to cold volume [table=").$(tableToken)
+                        .$(", error=").$safe(e.getFlyweightMessage())
+                        .I$();
+            }
+        }
+        return useful;
+    }
+}
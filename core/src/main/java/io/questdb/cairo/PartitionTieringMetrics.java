@@ -0,0 +1,91 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.LongGauge;
+import io.questdb.metrics.MetricsRegistry;
+import io.questdb.std.Mutable;
+
+public class PartitionTieringMetrics implements Mutable {
+    private final Counter coldOpenCounter;
+    private final Counter coldOpenTimeCounter;
+    private final Counter coldHitCounter;
+    private final LongGauge lastColdOpenTimeGauge;
+    private final Counter movedBytesCounter;
+    private final Counter movedPartitionsCounter;
+
+    public PartitionTieringMetrics(MetricsRegistry metricsRegistry) {
+        this.movedPartitionsCounter = metricsRegistry.newCounter("partition_tiering_moved_partitions");
+        this.movedBytesCounter = metricsRegistry.newCounter("partition_tiering_moved_bytes");
+        this.coldOpenCounter = metricsRegistry.newCounter("partition_tiering_cold_opens");
+        this.coldHitCounter = metricsRegistry.newCounter("partition_tiering_cold_hits");
+        this.coldOpenTimeCounter = metricsRegistry.newCounter("partition_tiering_cold_open_micros");
+        this.lastColdOpenTimeGauge = metricsRegistry.newLongGauge("partition_tiering_last_cold_open_micros");
+    }
+
+    @Override
+    public void clear() {
+        coldOpenCounter.reset();
+        coldOpenTimeCounter.reset();
+        coldHitCounter.reset();
+        lastColdOpenTimeGauge.setValue(0);
+        movedBytesCounter.reset();
+        movedPartitionsCounter.reset();
+    }
+
+    public long getColdHitCount() {
+        return coldHitCounter.getValue();
+    }
+
+    public long getColdOpenCount() {
+        return coldOpenCounter.getValue();
+    }
+
+    public long getMovedPartitionCount() {
+        return movedPartitionsCounter.getValue();
+    }
+
+    /**
+     * Records an access to a cold partition that the table reader already has open.
+     */
+    public void onColdHit() {
+        coldHitCounter.inc();
+    }
+
+    /**
+     * Records the opening of a cold partition, i.e. mapping its files from the cold volume.
+     */
+    public void onColdOpen(long timeMicros) {
+        coldOpenCounter.inc();
+        coldOpenTimeCounter.add(timeMicros);
+        lastColdOpenTimeGauge.setValue(timeMicros);
+    }
+
+    public void onPartitionMoved(long bytes) {
+        movedPartitionsCounter.inc();
+        movedBytesCounter.add(bytes);
+    }
+}
@@ -0,0 +1,330 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.std.Hash;
+import io.questdb.std.Mutable;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8s;
+import org.jetbrains.annotations.TestOnly;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Engine-wide, read-mostly cache of committed symbol values to their keys, shared by all
+ * WAL writers of the process. It sits behind the per-writer and per-connection caches and
+ * saves the UTF-8 to UTF-16 conversion and the symbol map file lookup when many ingestion
+ * connections write the same high-cardinality symbol columns.
+ * <p>
+ * Entries are scoped by table id, column writer index, symbol table name txn and table
+ * truncate version. Within that scope a committed symbol never changes its key, so the
+ * only staleness a caller has to deal with is a key that its own symbol map snapshot
+ * cannot see yet; callers must reject keys at or above their symbol count watermark.
+ * <p>
+ * The cache is split into segments, each guarded by a {@link StampedLock}. Lookups are
+ * optimistic and only fall back to the read lock when a concurrent insert invalidates
+ * the stamp. Segment arrays are allocated once and never resized, so optimistic reads
+ * can't step outside the arrays. Memory is bounded: when a segment runs out of slots or
+ * value bytes, it evicts in the manner of the CLOCK algorithm. Entries hit since the previous
+ * eviction get a second chance and are compacted into the segment's spare arrays, up to half
+ * of the segment's capacity, while the rest is dropped and re-populated by subsequent misses.
+ */
+public class SharedSymbolCache implements Mutable {
+    private static final int ENTRY_HASH = 5;
+    private static final int ENTRY_KEY = 3;
+    private static final int ENTRY_NAME_TXN = 1;
+    private static final int ENTRY_STRIDE = 6;
+    private static final int ENTRY_TABLE_ID = 0;
+    private static final int ENTRY_TRUNCATE_VERSION = 2;
+    private static final int ENTRY_VALUE = 4;
+    private static final int MIN_SLOTS = 16;
+    private static final int SEGMENT_COUNT = 16;
+    private static final int SEGMENT_MASK = SEGMENT_COUNT - 1;
+    private final Segment[] segments;
+
+    public SharedSymbolCache(long memorySize) {
+        final long segmentBudget = memorySize / SEGMENT_COUNT;
+        // half of the budget goes to the slot tables, the other half to value bytes;
+        // each segment keeps a spare copy of both to compact the survivors of an eviction
+        final long slots = Long.highestOneBit(Math.min(segmentBudget / 4 / (ENTRY_STRIDE * Long.BYTES), 1 << 24));
+        if (slots < MIN_SLOTS) {
+            segments = null;
+        } else {
+            final int valueBytes = (int) Math.min(segmentBudget / 4, Integer.MAX_VALUE - 8);
+            segments = new Segment[SEGMENT_COUNT];
+            for (int i = 0; i < SEGMENT_COUNT; i++) {
+                segments[i] = new Segment((int) slots, valueBytes);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (segments != null) {
+            for (int i = 0; i < SEGMENT_COUNT; i++) {
+                final Segment segment = segments[i];
+                final long stamp = segment.lock.writeLock();
+                try {
+                    segment.reset();
+                } finally {
+                    segment.lock.unlockWrite(stamp);
+                }
+            }
+        }
+    }
+
+    @TestOnly
+    public int getEntryCount() {
+        int count = 0;
+        if (segments != null) {
+            for (int i = 0; i < SEGMENT_COUNT; i++) {
+                final Segment segment = segments[i];
+                final long stamp = segment.lock.readLock();
+                try {
+                    count += segment.entryCount;
+                } finally {
+                    segment.lock.unlockRead(stamp);
+                }
+            }
+        }
+        return count;
+    }
+
+    public boolean isEnabled() {
+        return segments != null;
+    }
+
+    /**
+     * Returns the cached key of the symbol value or {@link SymbolTable#VALUE_NOT_FOUND}.
+     */
+    public int keyOf(long tableId, int columnIndex, long symbolTableNameTxn, long truncateVersion, Utf8Sequence value) {
+        final long hash = hash(tableId, columnIndex, value);
+        final Segment segment = segments[segmentIndex(hash)];
+        final StampedLock lock = segment.lock;
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            final int key = segment.find(hash, tableId, columnIndex, symbolTableNameTxn, truncateVersion, value);
+            if (lock.validate(stamp)) {
+                return key;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return segment.find(hash, tableId, columnIndex, symbolTableNameTxn, truncateVersion, value);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Caches the key of a committed symbol value. Keys of symbols that are not committed
+     * to the table yet must never be put here.
+     */
+    public void put(long tableId, int columnIndex, long symbolTableNameTxn, long truncateVersion, Utf8Sequence value, int key) {
+        final long hash = hash(tableId, columnIndex, value);
+        final Segment segment = segments[segmentIndex(hash)];
+        final long stamp = segment.lock.writeLock();
+        try {
+            segment.put(hash, tableId, columnIndex, symbolTableNameTxn, truncateVersion, value, key);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    private static long hash(long tableId, int columnIndex, Utf8Sequence value) {
+        return Hash.hashLong128_64((tableId << 16) ^ columnIndex, Utf8s.hashCode(value));
+    }
+
+    private static int segmentIndex(long hash) {
+        return (int) (hash >>> 60) & SEGMENT_MASK;
+    }
+
+    private static class Segment {
+        private final StampedLock lock = new StampedLock();
+        private final int mask;
+        private final int maxEntries;
+        // CLOCK reference bits, set by lookups under an optimistic stamp; a lost
+        // update only costs an entry its second chance
+        private final byte[] referenced;
+        // slot layout: table id, symbol table name txn, truncate version, column index
+        // and key, value length and value offset + 1 (0 marks an empty slot), hash
+        private long[] entries;
+        private int entryCount;
+        private long[] spareEntries;
+        private byte[] spareValues;
+        private byte[] values;
+        private int valuesPos;
+
+        private Segment(int slots, int valueBytes) {
+            this.entries = new long[slots * ENTRY_STRIDE];
+            this.spareEntries = new long[slots * ENTRY_STRIDE];
+            this.values = new byte[valueBytes];
+            this.spareValues = new byte[valueBytes];
+            this.referenced = new byte[slots];
+            this.mask = slots - 1;
+            this.maxEntries = slots / 2;
+        }
+
+        private static long columnAndKey(int columnIndex, int key) {
+            return ((long) columnIndex << 32) | (key & 0xffffffffL);
+        }
+
+        private static void insert(long[] entries, int mask, long hash, int srcPos, long[] src, long valueRef) {
+            for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+                final int p = slot * ENTRY_STRIDE;
+                if (entries[p + ENTRY_VALUE] == 0) {
+                    System.arraycopy(src, srcPos, entries, p, ENTRY_STRIDE);
+                    entries[p + ENTRY_VALUE] = valueRef;
+                    return;
+                }
+            }
+        }
+
+        private static boolean valueEquals(byte[] values, int offset, Utf8Sequence value, int len) {
+            if (offset < 0 || offset > values.length - len) {
+                return false;
+            }
+            for (int i = 0; i < len; i++) {
+                if (values[offset + i] != value.byteAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Keeps the entries hit since the previous eviction, up to half of the slots and value
+        // bytes, compacted into the spare arrays which then become the live ones. Reference bits
+        // are cleared, so an entry has to be hit again to survive the next eviction.
+        private void evict() {
+            final long[] newEntries = spareEntries;
+            final byte[] newValues = spareValues;
+            Arrays.fill(newEntries, 0);
+            int count = 0;
+            int pos = 0;
+            for (int slot = 0; slot <= mask; slot++) {
+                final int p = slot * ENTRY_STRIDE;
+                final long valueRef = entries[p + ENTRY_VALUE];
+                if (valueRef == 0 || referenced[slot] == 0) {
+                    continue;
+                }
+                final int len = (int) (valueRef >>> 32);
+                if (count >= maxEntries / 2 || pos + len > newValues.length / 2) {
+                    break;
+                }
+                System.arraycopy(values, (int) valueRef - 1, newValues, pos, len);
+                insert(newEntries, mask, entries[p + ENTRY_HASH], p, entries, ((long) len << 32) | (pos + 1));
+                pos += len;
+                count++;
+            }
+            spareEntries = entries;
+            spareValues = values;
+            entries = newEntries;
+            values = newValues;
+            Arrays.fill(referenced, (byte) 0);
+            entryCount = count;
+            valuesPos = pos;
+        }
+
+        // may run concurrently with put() under an optimistic stamp, so every
+        // value read from the arrays is bounds checked before it is used
+        private int find(long hash, long tableId, int columnIndex, long nameTxn, long truncateVersion, Utf8Sequence value) {
+            final long[] entries = this.entries;
+            final byte[] values = this.values;
+            final int len = value.size();
+            for (int i = 0, slot = (int) hash & mask; i <= mask; i++, slot = (slot + 1) & mask) {
+                final int p = slot * ENTRY_STRIDE;
+                final long valueRef = entries[p + ENTRY_VALUE];
+                if (valueRef == 0) {
+                    return SymbolTable.VALUE_NOT_FOUND;
+                }
+                final long columnAndKey = entries[p + ENTRY_KEY];
+                if (
+                        (int) (valueRef >>> 32) == len
+                                && (int) (columnAndKey >>> 32) == columnIndex
+                                && entries[p + ENTRY_TABLE_ID] == tableId
+                                && entries[p + ENTRY_NAME_TXN] == nameTxn
+                                && entries[p + ENTRY_TRUNCATE_VERSION] == truncateVersion
+                                && valueEquals(values, (int) valueRef - 1, value, len)
+                ) {
+                    referenced[slot] = 1;
+                    return (int) columnAndKey;
+                }
+            }
+            return SymbolTable.VALUE_NOT_FOUND;
+        }
+
+        private void put(long hash, long tableId, int columnIndex, long nameTxn, long truncateVersion, Utf8Sequence value, int key) {
+            final int len = value.size();
+            if (len > values.length) {
+                return;
+            }
+            if (entryCount >= maxEntries || valuesPos + len > values.length) {
+                evict();
+                if (valuesPos + len > values.length) {
+                    // a large value doesn't fit next to the survivors
+                    reset();
+                }
+            }
+            for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+                final int p = slot * ENTRY_STRIDE;
+                final long valueRef = entries[p + ENTRY_VALUE];
+                if (valueRef == 0) {
+                    for (int i = 0; i < len; i++) {
+                        values[valuesPos + i] = value.byteAt(i);
+                    }
+                    entries[p + ENTRY_TABLE_ID] = tableId;
+                    entries[p + ENTRY_NAME_TXN] = nameTxn;
+                    entries[p + ENTRY_TRUNCATE_VERSION] = truncateVersion;
+                    entries[p + ENTRY_KEY] = columnAndKey(columnIndex, key);
+                    entries[p + ENTRY_VALUE] = ((long) len << 32) | (valuesPos + 1);
+                    entries[p + ENTRY_HASH] = hash;
+                    valuesPos += len;
+                    entryCount++;
+                    return;
+                }
+                if (
+                        (int) (valueRef >>> 32) == len
+                                && (int) (entries[p + ENTRY_KEY] >>> 32) == columnIndex
+                                && entries[p + ENTRY_TABLE_ID] == tableId
+                                && entries[p + ENTRY_NAME_TXN] == nameTxn
+                                && entries[p + ENTRY_TRUNCATE_VERSION] == truncateVersion
+                                && valueEquals(values, (int) valueRef - 1, value, len)
+                ) {
+                    // another writer got here first
+                    return;
+                }
+            }
+        }
+
+        private void reset() {
+            Arrays.fill(entries, 0);
+            Arrays.fill(referenced, (byte) 0);
+            entryCount = 0;
+            valuesPos = 0;
+        }
+    }
+}
@@ -39,6 +39,7 @@ import io.questdb.cairo.vm.api.MemoryCR;
 import io.questdb.cairo.vm.api.MemoryMR;
 import io.questdb.cairo.vm.api.MemoryR;
 import io.questdb.griffin.engine.table.parquet.ParquetPartitionDecoder;
+import io.questdb.griffin.engine.table.parquet.ParquetRowGroupCache;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.BitSet;
@@ -56,6 +57,7 @@ import io.questdb.std.Vect;
 import io.questdb.std.datetime.millitime.MillisecondClock;
 import io.questdb.std.str.Path;
 import io.questdb.std.str.Utf16Sink;
+import io.questdb.std.str.Utf8String;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
@@ -71,6 +73,7 @@ public class TableReader implements Closeable, SymbolTableSource {
     private static final int PARTITIONS_SLOT_OFFSET_COLUMN_VERSION = PARTITIONS_SLOT_OFFSET_NAME_TXN + 1;
     private static final int PARTITIONS_SLOT_OFFSET_FORMAT = PARTITIONS_SLOT_OFFSET_COLUMN_VERSION + 1;
     private static final int PARTITIONS_SLOT_OFFSET_ACTIVE_COLUMNS_OPEN = PARTITIONS_SLOT_OFFSET_FORMAT + 1;
+    private static final int PARTITIONS_SLOT_OFFSET_TIERED = PARTITIONS_SLOT_OFFSET_ACTIVE_COLUMNS_OPEN + 1;
     private static final int PARTITIONS_SLOT_SIZE = 8; // must be power of 2
     private static final int PARTITIONS_SLOT_SIZE_MSB = Numbers.msb(PARTITIONS_SLOT_SIZE);
     private final BitSet activeColumns = new BitSet();
@@ -89,6 +92,8 @@ public class TableReader implements Closeable, SymbolTableSource {
     private final Path path;
     private final int rootLen;
     private final ObjList<SymbolMapReader> symbolMapReaders = new ObjList<>();
+    private final PartitionTieringMetrics tieringMetrics;
+    private final Utf8String tieringRoot;
     private final int timestampType;
     private final TxReader txFile;
     private final TxnScoreboard txnScoreboard;
@@ -101,6 +106,7 @@ public class TableReader implements Closeable, SymbolTableSource {
     private int openPartitionCount;
     private LongList openPartitionInfo;
     private ObjList<ParquetPartitionDecoder> parquetMetaDecoders;
+    private @Nullable ParquetRowGroupCache parquetRowGroupCache;
     private ObjList<MemoryCMR> parquetMetadataPartitions;
     private ObjList<MemoryCMR> parquetPartitions;
     private int partitionCount;
@@ -137,6 +143,9 @@ public class TableReader implements Closeable, SymbolTableSource {
         this.id = id;
         this.configuration = configuration;
         this.clock = configuration.getMillisecondClock();
+        this.tieringMetrics = configuration.getMetrics().partitionTieringMetrics();
+        final CharSequence tieringRoot = configuration.getPartitionTieringRoot();
+        this.tieringRoot = tieringRoot != null ? new Utf8String(tieringRoot) : null;
         this.maxOpenPartitions = configuration.getInactiveReaderMaxOpenPartitions();
         this.ff = configuration.getFilesFacade();
         this.tableToken = tableToken;
@@ -189,6 +198,8 @@ public class TableReader implements Closeable, SymbolTableSource {
         this.id = id;
         this.configuration = configuration;
         this.clock = configuration.getMillisecondClock();
+        this.tieringMetrics = configuration.getMetrics().partitionTieringMetrics();
+        this.tieringRoot = srcReader.tieringRoot;
         this.maxOpenPartitions = configuration.getInactiveReaderMaxOpenPartitions();
         this.ff = configuration.getFilesFacade();
         this.tableToken = srcReader.getTableToken();
@@ -339,6 +350,7 @@ public class TableReader implements Closeable, SymbolTableSource {
             decoder.of(parquetMetaAddr, parquetMetaSize, parquetAddr, parquetSize,
                     tableToken, partitionBy, timestampType, timestamp,
                     MemoryTag.NATIVE_PARQUET_PARTITION_DECODER);
+            decoder.setRowGroupCache(parquetRowGroupCache, tableToken.getTableId(), timestamp, getPartitionNameTxn(partitionIndex));
         }
         return decoder;
     }
@@ -725,8 +737,19 @@ public class TableReader implements Closeable, SymbolTableSource {
             if (openPartitionInfo.getQuick(offset + PARTITIONS_SLOT_OFFSET_ACTIVE_COLUMNS_OPEN) == 0) {
                 openMissingColumnsInPartition(partitionIndex, offset, size);
             }
+            if (openPartitionInfo.getQuick(offset + PARTITIONS_SLOT_OFFSET_TIERED) != 0) {
+                tieringMetrics.onColdHit();
+            }
             return size;
         }
+        if (tieringRoot != null) {
+            final long start = configuration.getMicrosecondClock().getTicks();
+            final long rowCount = openPartition0(partitionIndex);
+            if (rowCount > -1 && openPartitionInfo.getQuick(partitionIndex * PARTITIONS_SLOT_SIZE + PARTITIONS_SLOT_OFFSET_TIERED) != 0) {
+                tieringMetrics.onColdOpen(configuration.getMicrosecondClock().getTicks() - start);
+            }
+            return rowCount;
+        }
         return openPartition0(partitionIndex);
     }
 
@@ -774,6 +797,14 @@ public class TableReader implements Closeable, SymbolTableSource {
         hasActiveColumns = distinctCount < columnCount;
     }
 
+    /**
+     * Sets the engine-wide cache the reader's Parquet partition decoders share decoded
+     * row groups through. Pooled readers get it from the reader pool.
+     */
+    public void setParquetRowGroupCache(@Nullable ParquetRowGroupCache parquetRowGroupCache) {
+        this.parquetRowGroupCache = parquetRowGroupCache;
+    }
+
     /**
      * Sets the scan profile for the current checkout. See {@link ReaderScanProfile}
      * for the meaning of each value. Reset to {@link ReaderScanProfile#DEFAULT}
@@ -1268,6 +1299,7 @@ public class TableReader implements Closeable, SymbolTableSource {
             openPartitionInfo.setQuick(baseOffset + PARTITIONS_SLOT_OFFSET_COLUMN_VERSION, columnVersionReader.getMaxPartitionVersion(partitionTimestamp));
             openPartitionInfo.setQuick(baseOffset + PARTITIONS_SLOT_OFFSET_FORMAT, isParquet ? PartitionFormat.PARQUET : PartitionFormat.NATIVE);
             openPartitionInfo.setQuick(baseOffset + PARTITIONS_SLOT_OFFSET_ACTIVE_COLUMNS_OPEN, 0);
+            openPartitionInfo.setQuick(baseOffset + PARTITIONS_SLOT_OFFSET_TIERED, 0);
         }
         return openPartitionInfo;
     }
@@ -1296,11 +1328,18 @@ public class TableReader implements Closeable, SymbolTableSource {
         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_COLUMN_VERSION, -1);
         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_FORMAT, -1);
         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_ACTIVE_COLUMNS_OPEN, 0);
+        openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_TIERED, 0);
         partitionCount++;
         LOG.debug().$("inserted partition [index=").$(partitionIndex).$(", table=").$(tableToken)
                 .$(", timestamp=").$ts(ColumnType.getTimestampDriver(timestampType), timestamp).I$();
     }
 
+    // Tiered partitions are soft links into the partition tiering root. Partitions attached
+    // from a soft link elsewhere are not.
+    private boolean isTieredPartition(Path partitionPath) {
+        return tieringRoot != null && TableUtils.readTieredPartitionLink(ff, partitionPath, tieringRoot, Path.PATH2.get());
+    }
+
     // this method is not thread safe
     @NotNull
     private SymbolMapReaderImpl newSymbolMapReader(int symbolColumnIndex, int columnIndex) {
@@ -1494,6 +1533,7 @@ public class TableReader implements Closeable, SymbolTableSource {
                         // readers from the .k/.v files in the native partition directory.
                         path.trimTo(rootLen);
                         Path nativePath = pathGenNativePartition(partitionIndex, partitionNameTxn);
+                        openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_TIERED, isTieredPartition(nativePath) ? 1 : 0);
                         openPartitionColumns(partitionIndex, nativePath, getColumnBase(partitionIndex), partitionSize);
                         // Assign SIZE last, matching the native branch below. If any of the
                         // steps above (openParquetMetadata, parquetMem.of, openPartitionColumns)
@@ -1530,6 +1570,7 @@ public class TableReader implements Closeable, SymbolTableSource {
                         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_NAME_TXN, partitionNameTxn);
                         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_COLUMN_VERSION, columnVersionReader.getMaxPartitionVersion(partitionTimestamp));
                         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_FORMAT, PartitionFormat.NATIVE);
+                        openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_TIERED, isTieredPartition(path) ? 1 : 0);
                         openPartitionColumns(partitionIndex, path, getColumnBase(partitionIndex), partitionSize);
                         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_SIZE, partitionSize);
                         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_ACTIVE_COLUMNS_OPEN, 1);
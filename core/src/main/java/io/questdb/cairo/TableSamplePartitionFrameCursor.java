@@ -0,0 +1,210 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.PartitionFrame;
+import io.questdb.cairo.sql.PartitionFrameCursor;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.griffin.engine.table.parquet.ParquetPartitionDecoder;
+import io.questdb.std.Misc;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Partition frame cursor behind {@code TABLESAMPLE SYSTEM}. Every partition is cut into
+ * fixed-size blocks of rows and a block is kept when the hash of the seed, the partition
+ * timestamp and the block number falls under the sampling threshold. Adjacent kept blocks
+ * are merged, so the cursor emits frames that are narrowed sub-ranges of the base frames.
+ * <p>
+ * Block boundaries are aligned to the partition, not to the base frame, so the same seed
+ * keeps the same rows regardless of the interval filter applied by the base cursor.
+ */
+public class TableSamplePartitionFrameCursor implements PartitionFrameCursor {
+    private final long blockRows;
+    private final SampleFrame frame = new SampleFrame();
+    private final long threshold;
+    private PartitionFrameCursor base;
+    private PartitionFrame baseFrame;
+    private boolean forward;
+    private long partitionSeed;
+    private long rowHi;
+    private long rowLo;
+    private long seed;
+
+    public TableSamplePartitionFrameCursor(long blockRows, long threshold) {
+        this.blockRows = blockRows;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void close() {
+        base = Misc.free(base);
+        baseFrame = null;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        return base.getSymbolTable(columnIndex);
+    }
+
+    @Override
+    public TableReader getTableReader() {
+        return base.getTableReader();
+    }
+
+    // Sampled frames are not the full set of rows in any interval, so
+    // callers must not rely on interval bounds to reproduce the scan.
+    @Override
+    public boolean hasIntervalFilter() {
+        return true;
+    }
+
+    @Override
+    public SymbolTable newSymbolTable(int columnIndex) {
+        return base.newSymbolTable(columnIndex);
+    }
+
+    @Override
+    public @Nullable PartitionFrame next(long skipTarget) {
+        while (true) {
+            if (baseFrame == null || rowLo >= rowHi) {
+                // skeleton frames would hide the row ranges we sample from
+                baseFrame = base.next(0);
+                if (baseFrame == null) {
+                    return null;
+                }
+                rowLo = baseFrame.getRowLo();
+                rowHi = baseFrame.getRowHi();
+                partitionSeed = TableSamplePartitionFrameCursorFactory.hash(
+                        seed,
+                        base.getTableReader().getPartitionTimestampByIndex(baseFrame.getPartitionIndex())
+                );
+            }
+
+            if (forward) {
+                while (rowLo < rowHi) {
+                    final long lo = rowLo;
+                    rowLo = Math.min(rowHi, (rowLo / blockRows + 1) * blockRows);
+                    if (isBlockSampled(lo / blockRows)) {
+                        while (rowLo < rowHi && isBlockSampled(rowLo / blockRows)) {
+                            rowLo = Math.min(rowHi, rowLo + blockRows);
+                        }
+                        return frame.of(baseFrame, lo, rowLo);
+                    }
+                }
+            } else {
+                while (rowLo < rowHi) {
+                    final long hi = rowHi;
+                    rowHi = Math.max(rowLo, (rowHi - 1) / blockRows * blockRows);
+                    if (isBlockSampled((hi - 1) / blockRows)) {
+                        while (rowLo < rowHi && isBlockSampled((rowHi - 1) / blockRows)) {
+                            rowHi = Math.max(rowLo, rowHi - blockRows);
+                        }
+                        return frame.of(baseFrame, rowHi, hi);
+                    }
+                }
+            }
+        }
+    }
+
+    public TableSamplePartitionFrameCursor of(PartitionFrameCursor base, boolean forward, long seed) {
+        this.base = base;
+        this.forward = forward;
+        this.seed = seed;
+        this.baseFrame = null;
+        return this;
+    }
+
+    @TestOnly
+    @Override
+    public boolean reload() {
+        baseFrame = null;
+        return base.reload();
+    }
+
+    @Override
+    public long size() {
+        // the number of sampled rows is only known after the scan
+        return -1;
+    }
+
+    @Override
+    public void toPartition(int partitionIndex) {
+        base.toPartition(partitionIndex);
+        baseFrame = null;
+    }
+
+    @Override
+    public void toTop() {
+        base.toTop();
+        baseFrame = null;
+    }
+
+    private boolean isBlockSampled(long block) {
+        return TableSamplePartitionFrameCursorFactory.isSampled(partitionSeed, block, threshold);
+    }
+
+    private static class SampleFrame implements PartitionFrame {
+        private byte format;
+        private ParquetPartitionDecoder parquetMetaDecoder;
+        private int partitionIndex;
+        private long rowHi;
+        private long rowLo;
+
+        @Override
+        public ParquetPartitionDecoder getParquetMetaDecoder() {
+            return parquetMetaDecoder;
+        }
+
+        @Override
+        public byte getPartitionFormat() {
+            return format;
+        }
+
+        @Override
+        public int getPartitionIndex() {
+            return partitionIndex;
+        }
+
+        @Override
+        public long getRowHi() {
+            return rowHi;
+        }
+
+        @Override
+        public long getRowLo() {
+            return rowLo;
+        }
+
+        private SampleFrame of(PartitionFrame baseFrame, long rowLo, long rowHi) {
+            this.format = baseFrame.getPartitionFormat();
+            this.parquetMetaDecoder = baseFrame.getParquetMetaDecoder();
+            this.partitionIndex = baseFrame.getPartitionIndex();
+            this.rowLo = rowLo;
+            this.rowHi = rowHi;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.PartitionFrameCursor;
+import io.questdb.cairo.sql.PartitionFrameCursorFactory;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.table.PushdownFilterExtractor;
+import io.questdb.std.Hash;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.CharSink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Wraps a partition frame cursor factory to implement {@code TABLESAMPLE SYSTEM (percent)}.
+ * Sampling is done on blocks of {@code blockRows} rows, see {@link TableSamplePartitionFrameCursor}.
+ * Without {@code REPEATABLE (seed)} every cursor open draws a fresh seed.
+ */
+public class TableSamplePartitionFrameCursorFactory implements PartitionFrameCursorFactory {
+    private final PartitionFrameCursorFactory base;
+    private final long blockRows;
+    private final double percent;
+    private final boolean repeatable;
+    private final long seed;
+    private final long threshold;
+    private TableSamplePartitionFrameCursor cursor;
+
+    public TableSamplePartitionFrameCursorFactory(
+            PartitionFrameCursorFactory base,
+            double percent,
+            boolean repeatable,
+            long seed,
+            long blockRows
+    ) {
+        this.base = base;
+        this.percent = percent;
+        this.repeatable = repeatable;
+        this.seed = seed;
+        this.blockRows = blockRows;
+        this.threshold = threshold(percent);
+    }
+
+    /**
+     * Validates a sampling percentage, which must be in the (0, 100] range.
+     */
+    public static double checkPercent(double percent, int position) throws SqlException {
+        if (!(percent > 0 && percent <= 100)) {
+            throw SqlException.$(position, "sample percentage must be greater than 0 and not greater than 100");
+        }
+        return percent;
+    }
+
+    public static long hash(long seed, long key) {
+        return Hash.hashLong128_64(seed, key);
+    }
+
+    /**
+     * Returns true when the key falls into the sample. The top 53 bits of the hash are
+     * compared against the threshold produced by {@link #threshold(double)}.
+     */
+    public static boolean isSampled(long seed, long key, long threshold) {
+        return (hash(seed, key) >>> 11) < threshold;
+    }
+
+    /**
+     * Converts a sampling percentage in the (0, 100] range into a threshold for
+     * {@link #isSampled(long, long, long)}.
+     */
+    public static long threshold(double percent) {
+        return (long) (percent / 100.0 * (1L << 53));
+    }
+
+    @Override
+    public void close() {
+        Misc.free(base);
+        cursor = Misc.free(cursor);
+    }
+
+    @Override
+    public PartitionFrameCursor getCursor(SqlExecutionContext executionContext, IntList columnIndexes, int order) throws SqlException {
+        final PartitionFrameCursor baseCursor = base.getCursor(executionContext, columnIndexes, order);
+        if (cursor == null) {
+            cursor = new TableSamplePartitionFrameCursor(blockRows, threshold);
+        }
+        final boolean forward = order == ORDER_ASC || ((order == ORDER_ANY || order < 0) && base.getOrder() != ORDER_DESC);
+        return cursor.of(baseCursor, forward, repeatable ? seed : executionContext.getRandom().nextLong());
+    }
+
+    @Override
+    public RecordMetadata getMetadata() {
+        return base.getMetadata();
+    }
+
+    @Override
+    public int getOrder() {
+        return base.getOrder();
+    }
+
+    @Override
+    public @Nullable ObjList<PushdownFilterExtractor.PushdownFilterCondition> getPushdownFilterConditions() {
+        return base.getPushdownFilterConditions();
+    }
+
+    @Override
+    public TableToken getTableToken() {
+        return base.getTableToken();
+    }
+
+    @Override
+    public boolean hasParquetFormatPartitions(SqlExecutionContext executionContext) {
+        return base.hasParquetFormatPartitions(executionContext);
+    }
+
+    @Override
+    public boolean isIntervalScan() {
+        return base.isIntervalScan();
+    }
+
+    @Override
+    public boolean isNonDeterministic() {
+        return !repeatable || base.isNonDeterministic();
+    }
+
+    @Override
+    public void setPushdownFilterCondition(ObjList<PushdownFilterExtractor.PushdownFilterCondition> pushdownFilterConditions) {
+        base.setPushdownFilterCondition(pushdownFilterConditions);
+    }
+
+    @Override
+    public boolean supportsTableRowId(TableToken tableToken) {
+        return base.supportsTableRowId(tableToken);
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        base.toPlan(sink);
+        sink.attr("sample").val("system(").val(percent).val(')');
+        if (repeatable) {
+            sink.val(" repeatable(").val(seed).val(')');
+        }
+    }
+
+    @Override
+    public void toSink(@NotNull CharSink<?> sink) {
+        base.toSink(sink);
+    }
+}
@@ -2420,6 +2420,18 @@ public final class TableUtils {
         return null;
     }
 
+    /**
+     * Reads the target of a partition directory that {@link PartitionTieringJob} moved to the cold
+     * volume, i.e. a soft link into the tiering root.
+     *
+     * @return true when the partition is tiered, in which case readTo holds the link target
+     */
+    public static boolean readTieredPartitionLink(FilesFacade ff, Path partitionPath, @NotNull Utf8Sequence tieringRoot, Path readTo) {
+        return ff.isSoftLink(partitionPath.$())
+                && ff.readLink(partitionPath, readTo.trimTo(0))
+                && Utf8s.startsWith(readTo, tieringRoot);
+    }
+
     public static void removeColumnFromMetadata(
             CharSequence columnName,
             LowerCaseCharSequenceIntHashMap columnNameIndexMap,
@@ -2435,6 +2447,42 @@ public final class TableUtils {
         deletedMeta.markDeleted();
     }
 
+    /**
+     * Removes a partition directory. A tiered partition loses its cold copy along with the link,
+     * while any other soft link, e.g. of a partition attached from a link, only loses the link.
+     *
+     * @return false when the partition directory could not be removed
+     */
+    public static boolean removePartitionDir(FilesFacade ff, Path partitionPath, @Nullable Utf8Sequence tieringRoot, Log log) {
+        if (tieringRoot != null) {
+            final Path target = Path.PATH2.get();
+            if (readTieredPartitionLink(ff, partitionPath, tieringRoot, target)) {
+                // the link goes first, a failure below leaves an orphaned copy rather than a dangling link
+                if (ff.unlink(partitionPath.$()) != 0) {
+                    return false;
+                }
+                if (!ff.rmdir(target.slash())) {
+                    log.error().$("could not remove cold partition copy [path=").$(target).$(", errno=").$(ff.errno()).I$();
+                }
+                return true;
+            }
+        }
+        return ff.unlinkOrRemove(partitionPath, log);
+    }
+
+    /**
+     * Removes the cold copies of a dropped table's partitions, which {@link PartitionTieringJob}
+     * keeps under {@code <tiering root>/<table dir>}. The table directory itself only holds the links.
+     */
+    public static void removeTieredTableDir(FilesFacade ff, @Nullable CharSequence tieringRoot, TableToken tableToken, Log log) {
+        if (tieringRoot != null) {
+            final Path path = Path.PATH2.get().of(tieringRoot).concat(tableToken.getDirName());
+            if (ff.exists(path.$()) && !ff.rmdir(path.slash())) {
+                log.error().$("could not remove cold partition copies of dropped table [path=").$(path).$(", errno=").$(ff.errno()).I$();
+            }
+        }
+    }
+
     public static void renameColumnInMetadata(
             CharSequence columnName,
             CharSequence newName,
@@ -311,6 +311,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final ObjList<MapWriter> symbolMapWriters;
     private final IntList symbolRewriteMap = new IntList();
     private final SymbolTableProviderFromWriter symbolTableProvider = new SymbolTableProviderFromWriter();
+    private final Utf8String tieringRoot;
     private final TimestampDriver timestampDriver;
     private final int timestampType;
     private final DirectUtf8StringZ tmpDirectUtf8StringZ = new DirectUtf8StringZ();
@@ -472,6 +473,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         this.lifecycleManager = lifecycleManager;
         this.parallelIndexerEnabled = configuration.isParallelIndexingEnabled();
         this.ff = configuration.getFilesFacade();
+        final CharSequence tieringRoot = configuration.getPartitionTieringRoot();
+        this.tieringRoot = tieringRoot != null ? new Utf8String(tieringRoot) : null;
         this.mkDirMode = configuration.getMkDirMode();
         this.detachedMkDirMode = configuration.getDetachedMkDirMode();
         this.fileOperationRetryCount = configuration.getFileOperationRetryCount();
@@ -2953,6 +2956,128 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         commitTxWriter();
     }
 
+    /**
+     * Moves a partition to the cold volume rooted at {@code coldRoot}. The partition directory
+     * is copied to {@code <coldRoot>/<table dir>/<partition>.<txn>} and replaced, under the new
+     * name txn, by a soft link to the copy, which table readers follow transparently. The copy
+     * is synced before the link is committed and the hot directory is purged.
+     * <p>
+     * The moved partition stays writable. Appends, updates and column changes write through the
+     * link to the cold copy, while an O3 merge that rewrites the partition writes its next
+     * version to the hot volume, which brings the partition back until it is due again.
+     * <p>
+     * The active partition, read-only, remotely served and already moved partitions are not
+     * moved, nor is anything moved while the writer holds uncommitted rows.
+     *
+     * @param partitionTimestamp timestamp of the partition to move
+     * @param coldRoot           root directory of the cold volume
+     * @return number of bytes moved, or -1 when the partition was not moved
+     */
+    public long movePartitionToColdVolume(long partitionTimestamp, CharSequence coldRoot) {
+        assert metadata.getTimestampIndex() > -1;
+        assert PartitionBy.isPartitioned(partitionBy);
+
+        if (inTransaction()) {
+            LOG.info().$("skipping cold volume move, writer has uncommitted rows [table=").$(tableToken)
+                    .$(", partition=").$ts(timestampDriver, partitionTimestamp)
+                    .I$();
+            return -1;
+        }
+
+        partitionTimestamp = txWriter.getLogicalPartitionTimestamp(partitionTimestamp);
+        if (partitionTimestamp == txWriter.getLogicalPartitionTimestamp(txWriter.getMaxTimestamp())) {
+            // the active partition stays on the hot volume
+            return -1;
+        }
+
+        final int partitionIndex = txWriter.getPartitionIndex(partitionTimestamp);
+        if (partitionIndex < 0) {
+            formatPartitionForTimestamp(partitionTimestamp, -1);
+            throw CairoException.nonCritical().put("cannot move partition to cold volume, partition does not exist [table=").put(tableToken.getTableName())
+                    .put(", partition=").put(utf8Sink).put(']');
+        }
+
+        if (txWriter.isPartitionReadOnly(partitionIndex) || txWriter.isPartitionRemotelyServed(partitionIndex)) {
+            return -1;
+        }
+
+        squashPartitionForce(partitionIndex);
+        final long partitionNameTxn = txWriter.getPartitionNameTxn(partitionIndex);
+        final Path coldPath = Path.PATH.get();
+        int coldPartitionDirLen = 0;
+        boolean linked = false;
+        final long movedBytes;
+        try {
+            setPathForNativePartition(path.trimTo(pathSize), timestampType, partitionBy, partitionTimestamp, partitionNameTxn);
+            if (!ff.exists(path.$())) {
+                throw CairoException.nonCritical().put("partition directory does not exist [path=").put(path).put(']');
+            }
+            if (ff.isSoftLink(path.$())) {
+                // already on the cold volume, or attached from a soft link
+                return -1;
+            }
+
+            coldPath.of(coldRoot).concat(tableToken.getDirName());
+            final int coldTableDirLen = coldPath.size();
+            if (ff.mkdirs(coldPath.slash(), configuration.getMkDirMode()) != 0) {
+                throw CairoException.critical(ff.errno()).put("could not create cold volume directory [path=").put(coldPath).put(']');
+            }
+
+            setPathForNativePartition(coldPath.trimTo(coldTableDirLen), timestampType, partitionBy, partitionTimestamp, getTxn());
+            final int coldDirLen = coldPath.size();
+            // a leftover of a move that failed before its commit
+            if (ff.exists(coldPath.$()) && !ff.rmdir(coldPath.slash())) {
+                throw CairoException.critical(ff.errno()).put("could not remove stale cold partition directory [path=").put(coldPath).put(']');
+            }
+            coldPartitionDirLen = coldDirLen;
+
+            LOG.info().$("moving partition to cold volume [path=").$substr(pathRootSize, path)
+                    .$(", to=").$(coldPath.trimTo(coldPartitionDirLen))
+                    .I$();
+            if (ff.copyRecursive(path, coldPath, configuration.getMkDirMode()) != 0) {
+                throw CairoException.critical(ff.errno()).put("could not copy partition to cold volume [from=").put(path)
+                        .put(", to=").put(coldPath).put(']');
+            }
+            movedBytes = ff.getDirSize(coldPath);
+            syncColdPartition(coldPath, coldTableDirLen);
+
+            // the soft link takes the place of the partition directory under the new name txn
+            setPathForNativePartition(other.trimTo(pathSize), timestampType, partitionBy, partitionTimestamp, getTxn());
+            if (ff.softLink(coldPath.$(), other.$()) != 0) {
+                throw CairoException.critical(ff.errno()).put("could not link cold partition [from=").put(other)
+                        .put(", to=").put(coldPath).put(']');
+            }
+            linked = true;
+            if (!Os.isWindows() && configuration.getCommitMode() != CommitMode.NOSYNC) {
+                ff.fsyncAndClose(openRO(ff, path.trimTo(pathSize).$(), LOG));
+            }
+
+            txWriter.updatePartitionSizeAndTxnByRawIndex(partitionIndex * LONGS_PER_TX_ATTACHED_PARTITION, getPartitionSize(partitionIndex));
+            txWriter.bumpPartitionTableVersion();
+            commitTxWriter();
+        } catch (Throwable th) {
+            if (linked && ff.unlink(other.$()) != 0) {
+                LOG.error().$("could not remove cold partition link on rollback [path=").$(other).I$();
+            }
+            if (coldPartitionDirLen > 0 && !ff.rmdir(coldPath.trimTo(coldPartitionDirLen).slash())) {
+                LOG.error().$("could not remove cold partition dir on rollback [path=").$(coldPath).I$();
+            }
+            throw th;
+        } finally {
+            path.trimTo(pathSize);
+            other.trimTo(pathSize);
+        }
+
+        // Post-commit: readers of the previous version keep the hot directory
+        // until they release it, the purge runs once they do.
+        try {
+            safeDeletePartitionDir(partitionTimestamp, partitionNameTxn);
+        } catch (Throwable e) {
+            handleHousekeepingException(e);
+        }
+        return movedBytes;
+    }
+
     @Override
     public Row newRow() {
         return newRow(0L);
@@ -10518,7 +10643,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     );
                     other.$();
                     engine.getPartitionOverwriteControl().notifyPartitionMutates(tableToken, timestampType, timestamp, txn, 0);
-                    if (!ff.unlinkOrRemove(other, LOG)) {
+                    if (!removePartitionDir(ff, other, tieringRoot, LOG)) {
                         LOG.info()
                                 .$("could not purge partition version, async purge will be scheduled [path=").$substr(pathRootSize, other)
                                 .$(", errno=").$(ff.errno())
@@ -14830,6 +14955,30 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         setAppendPosition(0, false);
     }
 
+    // The cold copy has to be durable before the hot directory goes away.
+    private void syncColdPartition(Path coldPath, int coldTableDirLen) {
+        if (configuration.getCommitMode() == CommitMode.NOSYNC) {
+            return;
+        }
+        final int coldPartitionDirLen = coldPath.size();
+        try {
+            ff.walk(coldPath, (pUtf8NameZ, type) -> {
+                final int dirLen = coldPath.size();
+                try {
+                    ff.fsyncAndClose(openRO(ff, coldPath.concat(pUtf8NameZ).$(), LOG));
+                } finally {
+                    coldPath.trimTo(dirLen);
+                }
+            });
+            if (!Os.isWindows()) {
+                ff.fsyncAndClose(openRO(ff, coldPath.trimTo(coldPartitionDirLen).$(), LOG));
+                ff.fsyncAndClose(openRO(ff, coldPath.trimTo(coldTableDirLen).$(), LOG));
+            }
+        } finally {
+            coldPath.trimTo(coldPartitionDirLen);
+        }
+    }
+
     private void syncColumns() {
         final int commitMode = configuration.getCommitMode();
         // Always commit indexers: PostingIndexWriter buffers add() calls in native
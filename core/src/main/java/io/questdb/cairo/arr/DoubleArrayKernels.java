@@ -0,0 +1,209 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.arr;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+
+/**
+ * Kernels over contiguous native DOUBLE arrays. Array functions use them when both
+ * operands are vanilla arrays backed by native memory, see {@link #addressOf(ArrayView)},
+ * instead of reading elements one {@link ArrayView#getDouble(int)} call at a time.
+ * <p>
+ * Loops are unrolled four ways, so the JIT can keep several loads and multiplications
+ * in flight and use vector registers. Reductions still accumulate in element order: the
+ * dot product adds the products one by one, and matrix multiplication is cache-blocked,
+ * yet accumulates each output element in the same order as the naive triple loop. Their
+ * results are bit-identical to the element-by-element paths used for strided or
+ * broadcast operands, so they don't depend on the memory layout of the arrays.
+ */
+public final class DoubleArrayKernels {
+    // column block of the right matrix, 2 KB of a row fits L1 alongside the output row
+    private static final int MATMUL_COL_BLOCK = 256;
+    // rows of the right matrix visited per block, 64 x 256 doubles stay in L2
+    private static final int MATMUL_COMMON_BLOCK = 64;
+
+    private DoubleArrayKernels() {
+    }
+
+    public static void add(long leftAddr, long rightAddr, long outAddr, int count) {
+        final long limit = (long) count * Double.BYTES;
+        long i = 0;
+        for (long n = limit - 3 * Double.BYTES; i < n; i += 4 * Double.BYTES) {
+            final double v0 = Unsafe.getDouble(leftAddr + i) + Unsafe.getDouble(rightAddr + i);
+            final double v1 = Unsafe.getDouble(leftAddr + i + 8) + Unsafe.getDouble(rightAddr + i + 8);
+            final double v2 = Unsafe.getDouble(leftAddr + i + 16) + Unsafe.getDouble(rightAddr + i + 16);
+            final double v3 = Unsafe.getDouble(leftAddr + i + 24) + Unsafe.getDouble(rightAddr + i + 24);
+            Unsafe.putDouble(outAddr + i, v0);
+            Unsafe.putDouble(outAddr + i + 8, v1);
+            Unsafe.putDouble(outAddr + i + 16, v2);
+            Unsafe.putDouble(outAddr + i + 24, v3);
+        }
+        for (; i < limit; i += Double.BYTES) {
+            Unsafe.putDouble(outAddr + i, Unsafe.getDouble(leftAddr + i) + Unsafe.getDouble(rightAddr + i));
+        }
+    }
+
+    /**
+     * Returns the address of the first element of a vanilla DOUBLE array backed by native
+     * memory, or 0 when the array must be accessed element by element.
+     */
+    public static long addressOf(ArrayView view) {
+        if (view.isVanilla()
+                && view.getElemType() == ColumnType.DOUBLE
+                && view.flatView() instanceof BorrowedFlatArrayView borrowed
+                && borrowed.ptr() != 0) {
+            return borrowed.ptr() + (long) view.getFlatViewOffset() * Double.BYTES;
+        }
+        return 0;
+    }
+
+    public static void divide(long leftAddr, long rightAddr, long outAddr, int count) {
+        final long limit = (long) count * Double.BYTES;
+        long i = 0;
+        for (long n = limit - 3 * Double.BYTES; i < n; i += 4 * Double.BYTES) {
+            final double v0 = Unsafe.getDouble(leftAddr + i) / Unsafe.getDouble(rightAddr + i);
+            final double v1 = Unsafe.getDouble(leftAddr + i + 8) / Unsafe.getDouble(rightAddr + i + 8);
+            final double v2 = Unsafe.getDouble(leftAddr + i + 16) / Unsafe.getDouble(rightAddr + i + 16);
+            final double v3 = Unsafe.getDouble(leftAddr + i + 24) / Unsafe.getDouble(rightAddr + i + 24);
+            Unsafe.putDouble(outAddr + i, v0);
+            Unsafe.putDouble(outAddr + i + 8, v1);
+            Unsafe.putDouble(outAddr + i + 16, v2);
+            Unsafe.putDouble(outAddr + i + 24, v3);
+        }
+        for (; i < limit; i += Double.BYTES) {
+            Unsafe.putDouble(outAddr + i, Unsafe.getDouble(leftAddr + i) / Unsafe.getDouble(rightAddr + i));
+        }
+    }
+
+    /**
+     * Returns the sum of the pairwise products, skipping pairs with a non-finite element.
+     */
+    public static double dotProduct(long leftAddr, long rightAddr, int count) {
+        final long limit = (long) count * Double.BYTES;
+        double sum = 0d;
+        long i = 0;
+        for (long n = limit - 3 * Double.BYTES; i < n; i += 4 * Double.BYTES) {
+            final double p0 = product(Unsafe.getDouble(leftAddr + i), Unsafe.getDouble(rightAddr + i));
+            final double p1 = product(Unsafe.getDouble(leftAddr + i + 8), Unsafe.getDouble(rightAddr + i + 8));
+            final double p2 = product(Unsafe.getDouble(leftAddr + i + 16), Unsafe.getDouble(rightAddr + i + 16));
+            final double p3 = product(Unsafe.getDouble(leftAddr + i + 24), Unsafe.getDouble(rightAddr + i + 24));
+            // a single accumulator keeps the summation order of the element-by-element paths
+            sum += p0;
+            sum += p1;
+            sum += p2;
+            sum += p3;
+        }
+        for (; i < limit; i += Double.BYTES) {
+            sum += product(Unsafe.getDouble(leftAddr + i), Unsafe.getDouble(rightAddr + i));
+        }
+        return sum;
+    }
+
+    /**
+     * Multiplies a row-major {@code rowCount x commonLen} matrix by a row-major
+     * {@code commonLen x colCount} matrix into a row-major {@code rowCount x colCount}
+     * output.
+     */
+    public static void matmul(
+            long leftAddr,
+            long rightAddr,
+            long outAddr,
+            int rowCount,
+            int commonLen,
+            int colCount
+    ) {
+        Vect.memset(outAddr, (long) rowCount * colCount * Double.BYTES, 0);
+        final long rightRowSize = (long) colCount * Double.BYTES;
+        for (int kLo = 0; kLo < commonLen; kLo += MATMUL_COMMON_BLOCK) {
+            final int kHi = Math.min(kLo + MATMUL_COMMON_BLOCK, commonLen);
+            for (int jLo = 0; jLo < colCount; jLo += MATMUL_COL_BLOCK) {
+                final int jHi = Math.min(jLo + MATMUL_COL_BLOCK, colCount);
+                for (int i = 0; i < rowCount; i++) {
+                    final long outRow = outAddr + (long) i * rightRowSize;
+                    final long leftRow = leftAddr + (long) i * commonLen * Double.BYTES;
+                    for (int k = kLo; k < kHi; k++) {
+                        final double a = Unsafe.getDouble(leftRow + (long) k * Double.BYTES);
+                        final long rightRow = rightAddr + k * rightRowSize;
+                        int j = jLo;
+                        for (; j < jHi - 3; j += 4) {
+                            final long o = (long) j * Double.BYTES;
+                            Unsafe.putDouble(outRow + o, Unsafe.getDouble(outRow + o) + a * Unsafe.getDouble(rightRow + o));
+                            Unsafe.putDouble(outRow + o + 8, Unsafe.getDouble(outRow + o + 8) + a * Unsafe.getDouble(rightRow + o + 8));
+                            Unsafe.putDouble(outRow + o + 16, Unsafe.getDouble(outRow + o + 16) + a * Unsafe.getDouble(rightRow + o + 16));
+                            Unsafe.putDouble(outRow + o + 24, Unsafe.getDouble(outRow + o + 24) + a * Unsafe.getDouble(rightRow + o + 24));
+                        }
+                        for (; j < jHi; j++) {
+                            final long o = (long) j * Double.BYTES;
+                            Unsafe.putDouble(outRow + o, Unsafe.getDouble(outRow + o) + a * Unsafe.getDouble(rightRow + o));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public static void multiply(long leftAddr, long rightAddr, long outAddr, int count) {
+        final long limit = (long) count * Double.BYTES;
+        long i = 0;
+        for (long n = limit - 3 * Double.BYTES; i < n; i += 4 * Double.BYTES) {
+            final double v0 = Unsafe.getDouble(leftAddr + i) * Unsafe.getDouble(rightAddr + i);
+            final double v1 = Unsafe.getDouble(leftAddr + i + 8) * Unsafe.getDouble(rightAddr + i + 8);
+            final double v2 = Unsafe.getDouble(leftAddr + i + 16) * Unsafe.getDouble(rightAddr + i + 16);
+            final double v3 = Unsafe.getDouble(leftAddr + i + 24) * Unsafe.getDouble(rightAddr + i + 24);
+            Unsafe.putDouble(outAddr + i, v0);
+            Unsafe.putDouble(outAddr + i + 8, v1);
+            Unsafe.putDouble(outAddr + i + 16, v2);
+            Unsafe.putDouble(outAddr + i + 24, v3);
+        }
+        for (; i < limit; i += Double.BYTES) {
+            Unsafe.putDouble(outAddr + i, Unsafe.getDouble(leftAddr + i) * Unsafe.getDouble(rightAddr + i));
+        }
+    }
+
+    public static void subtract(long leftAddr, long rightAddr, long outAddr, int count) {
+        final long limit = (long) count * Double.BYTES;
+        long i = 0;
+        for (long n = limit - 3 * Double.BYTES; i < n; i += 4 * Double.BYTES) {
+            final double v0 = Unsafe.getDouble(leftAddr + i) - Unsafe.getDouble(rightAddr + i);
+            final double v1 = Unsafe.getDouble(leftAddr + i + 8) - Unsafe.getDouble(rightAddr + i + 8);
+            final double v2 = Unsafe.getDouble(leftAddr + i + 16) - Unsafe.getDouble(rightAddr + i + 16);
+            final double v3 = Unsafe.getDouble(leftAddr + i + 24) - Unsafe.getDouble(rightAddr + i + 24);
+            Unsafe.putDouble(outAddr + i, v0);
+            Unsafe.putDouble(outAddr + i + 8, v1);
+            Unsafe.putDouble(outAddr + i + 16, v2);
+            Unsafe.putDouble(outAddr + i + 24, v3);
+        }
+        for (; i < limit; i += Double.BYTES) {
+            Unsafe.putDouble(outAddr + i, Unsafe.getDouble(leftAddr + i) - Unsafe.getDouble(rightAddr + i));
+        }
+    }
+
+    private static double product(double left, double right) {
+        return Numbers.isFinite(left) && Numbers.isFinite(right) ? left * right : 0d;
+    }
+}
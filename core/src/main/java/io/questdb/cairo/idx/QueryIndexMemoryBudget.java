@@ -0,0 +1,72 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.idx;
+
+import org.jetbrains.annotations.TestOnly;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Engine-wide memory budget for the indexes that queries build on the fly, such as
+ * {@link SortedValueIndex}. The indexes are kept by the compiled factories, and many of
+ * them may sit in the query caches at once, so the limit applies to all the factories
+ * together rather than to each of them. A factory that can't reserve memory for an index
+ * scans the partition instead.
+ */
+public class QueryIndexMemoryBudget {
+    private final long limit;
+    private final AtomicLong used = new AtomicLong();
+
+    public QueryIndexMemoryBudget(long limit) {
+        this.limit = limit;
+    }
+
+    @TestOnly
+    public long getUsed() {
+        return used.get();
+    }
+
+    public void release(long bytes) {
+        final long remaining = used.addAndGet(-bytes);
+        assert remaining >= 0 : "released more than reserved [remaining=" + remaining + ']';
+    }
+
+    /**
+     * Reserves the given number of bytes.
+     *
+     * @return false when the reservation would exceed the limit, nothing is reserved then
+     */
+    public boolean tryReserve(long bytes) {
+        while (true) {
+            final long current = used.get();
+            if (current + bytes > limit) {
+                return false;
+            }
+            if (used.compareAndSet(current, current + bytes)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.idx;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.vm.api.MemoryR;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Numbers;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+
+/**
+ * Secondary index over a fixed-width integer column (INT or LONG) of a single partition.
+ * <p>
+ * The index is an array of 16-byte (key, row) entries sorted by key. The key is the column
+ * value with its sign bit flipped, so that the unsigned sort used for O3 timestamp indexes
+ * orders the entries by signed value. NULLs and column top rows are indexed under
+ * {@link Numbers#LONG_NULL}, the smallest value, so a lookup of any range that starts at the
+ * bottom of the value domain returns them too; callers are expected to re-check the rows
+ * with the original filter.
+ * <p>
+ * The index covers the first {@link #getRowCount()} rows of the partition and remembers the
+ * partition, column and truncate versions it was built from. O3 merges, UPDATEs and TRUNCATE
+ * all change one of these versions, which makes {@link #isBuiltFor} reject the index. Plain
+ * appends leave the versions as they are, so rows past the indexed count have to be scanned.
+ */
+public class SortedValueIndex implements QuietCloseable {
+    private static final int ENTRY_SIZE_SHIFT = 4;
+    private long address;
+    private long columnNameTxn;
+    private long columnTop;
+    private long partitionNameTxn;
+    private long rowCount;
+    private long size;
+    private long truncateVersion;
+
+    public static boolean isSupportedColumnType(int columnType) {
+        final short tag = ColumnType.tagOf(columnType);
+        return tag == ColumnType.INT || tag == ColumnType.LONG;
+    }
+
+    /**
+     * Returns the number of bytes the index would take for the given number of rows.
+     */
+    public static long sizeOf(long rowCount) {
+        return rowCount << ENTRY_SIZE_SHIFT;
+    }
+
+    @Override
+    public void close() {
+        address = Unsafe.free(address, size, MemoryTag.NATIVE_INDEX_READER);
+        size = 0;
+        rowCount = 0;
+    }
+
+    /**
+     * Returns position of the first entry with value greater than the given one.
+     */
+    public long findHi(long value) {
+        final long key = toKey(value);
+        long lo = 0;
+        long hi = rowCount;
+        while (lo < hi) {
+            final long mid = (lo + hi) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns position of the first entry with value greater than or equal to the given one.
+     */
+    public long findLo(long value) {
+        final long key = toKey(value);
+        long lo = 0;
+        long hi = rowCount;
+        while (lo < hi) {
+            final long mid = (lo + hi) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getRowId(long position) {
+        return Unsafe.getUnsafe().getLong(address + (position << ENTRY_SIZE_SHIFT) + Long.BYTES);
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public boolean isBuiltFor(long partitionNameTxn, long columnNameTxn, long columnTop, long truncateVersion) {
+        return address != 0
+                && this.partitionNameTxn == partitionNameTxn
+                && this.columnNameTxn == columnNameTxn
+                && this.columnTop == columnTop
+                && this.truncateVersion == truncateVersion;
+    }
+
+    /**
+     * Builds the index over the first {@code rowCount} rows of the partition column.
+     *
+     * @param column     column memory, its first value belongs to the row at {@code columnTop}
+     * @param columnType column type, either INT or LONG
+     * @param columnTop  number of leading rows the column has no data for
+     * @param rowCount   number of partition rows to index
+     */
+    public void of(
+            MemoryR column,
+            int columnType,
+            long columnTop,
+            long rowCount,
+            long partitionNameTxn,
+            long columnNameTxn,
+            long truncateVersion
+    ) {
+        assert isSupportedColumnType(columnType);
+        assert rowCount > 0;
+        final long requiredSize = sizeOf(rowCount);
+        if (requiredSize != size) {
+            address = Unsafe.realloc(address, size, requiredSize, MemoryTag.NATIVE_INDEX_READER);
+            size = requiredSize;
+        }
+        this.partitionNameTxn = partitionNameTxn;
+        this.columnNameTxn = columnNameTxn;
+        this.columnTop = columnTop;
+        this.truncateVersion = truncateVersion;
+        this.rowCount = 0;
+
+        final long nullKey = toKey(Numbers.LONG_NULL);
+        final long topHi = Math.min(columnTop, rowCount);
+        long p = address;
+        for (long row = 0; row < topHi; row++, p += 2 * Long.BYTES) {
+            Unsafe.getUnsafe().putLong(p, nullKey);
+            Unsafe.getUnsafe().putLong(p + Long.BYTES, row);
+        }
+        if (ColumnType.tagOf(columnType) == ColumnType.INT) {
+            for (long row = topHi; row < rowCount; row++, p += 2 * Long.BYTES) {
+                Unsafe.getUnsafe().putLong(p, toKey(Numbers.intToLong(column.getInt((row - columnTop) << 2))));
+                Unsafe.getUnsafe().putLong(p + Long.BYTES, row);
+            }
+        } else {
+            for (long row = topHi; row < rowCount; row++, p += 2 * Long.BYTES) {
+                Unsafe.getUnsafe().putLong(p, toKey(column.getLong((row - columnTop) << 3)));
+                Unsafe.getUnsafe().putLong(p + Long.BYTES, row);
+            }
+        }
+        if (rowCount > 1) {
+            Vect.sortLongIndexAscInPlace(address, rowCount);
+        }
+        this.rowCount = rowCount;
+    }
+
+    private static long toKey(long value) {
+        return value ^ Long.MIN_VALUE;
+    }
+
+    private long keyAt(long position) {
+        return Unsafe.getUnsafe().getLong(address + (position << ENTRY_SIZE_SHIFT));
+    }
+}
@@ -0,0 +1,353 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.idx;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.VarcharTypeDriver;
+import io.questdb.cairo.vm.api.MemoryCR;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8StringSink;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Trigram inverted index over a VARCHAR or STRING column of a single partition.
+ * <p>
+ * Every distinct 3-byte sequence of a value's UTF-8 bytes is first written as a single long
+ * entry, with the trigram in the top 24 bits and the partition row id in the remaining 40 bits.
+ * Entries are sorted as unsigned longs, so each trigram owns a contiguous run of ascending row
+ * ids, i.e. its posting list. The sorted entries are then compacted into 4-byte row ids and a
+ * directory of the distinct trigrams with the offsets of their posting lists. ASCII letters are
+ * folded to lower case before the trigrams are taken, which lets the same index serve both
+ * case-sensitive and ASCII case-insensitive lookups. Lookups return a superset of the matching
+ * rows, callers are expected to re-check them with the original filter.
+ * <p>
+ * The index is built in two steps: {@link #of} sorts the entries in a scratch buffer of
+ * {@link #sortSizeOf(long)} bytes, and {@link #compact()} adds the directory of
+ * {@link #getDirectorySize()} bytes and shrinks the buffer to the row ids, so that callers can
+ * account for the memory of each step.
+ * <p>
+ * The index covers the first {@link #getRowCount()} rows of the partition and remembers the
+ * partition, column and truncate versions it was built from, same as {@link SortedValueIndex}.
+ */
+public class TrigramIndex implements QuietCloseable {
+    // row ids are stored as ints
+    public static final long MAX_ROW_COUNT = 1L << 31;
+    public static final int MAX_TRIGRAM = (1 << 24) - 1;
+    private static final int ROW_BITS = 40;
+    private static final long ROW_MASK = (1L << ROW_BITS) - 1;
+    private final Utf8StringSink utf8Sink = new Utf8StringSink();
+    // row ids once compacted, sort entries before that
+    private long address;
+    private long columnNameTxn;
+    private long columnTop;
+    // posting list offsets, trigramCount + 1 longs, followed by the trigrams, trigramCount ints
+    private long dirAddress;
+    private long dirSize;
+    private long entryCount;
+    private long partitionNameTxn;
+    private long rowCount;
+    private long size;
+    private int trigramCount;
+    private long truncateVersion;
+
+    public static long directorySizeOf(int trigramCount) {
+        return ((trigramCount + 1L) << 3) + ((long) trigramCount << 2);
+    }
+
+    public static int foldAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? b | 32 : b & 0xff;
+    }
+
+    public static boolean isSupportedColumnType(int columnType) {
+        final short tag = ColumnType.tagOf(columnType);
+        return tag == ColumnType.VARCHAR || tag == ColumnType.STRING;
+    }
+
+    /**
+     * Returns the number of bytes {@link #of} sorts the given number of entries in.
+     */
+    public static long sortSizeOf(long entryCount) {
+        // keep the allocation non-empty, so that the index counts as built
+        return Math.max(entryCount, 1) << 3;
+    }
+
+    /**
+     * Returns the trigram of three (already folded) bytes.
+     */
+    public static int trigram(int b0, int b1, int b2) {
+        return (b0 << 16) | (b1 << 8) | b2;
+    }
+
+    @Override
+    public void close() {
+        address = Unsafe.free(address, size, MemoryTag.NATIVE_INDEX_READER);
+        size = 0;
+        dirAddress = Unsafe.free(dirAddress, dirSize, MemoryTag.NATIVE_INDEX_READER);
+        dirSize = 0;
+        entryCount = 0;
+        rowCount = 0;
+        trigramCount = 0;
+    }
+
+    /**
+     * Builds the trigram directory and compacts the sorted entries into row ids. Must be
+     * called after {@link #of}, the index can be looked up only after that.
+     */
+    public void compact() {
+        assert address != 0 && dirAddress == 0;
+        dirSize = directorySizeOf(trigramCount);
+        dirAddress = Unsafe.malloc(dirSize, MemoryTag.NATIVE_INDEX_READER);
+        final long trigramsAddress = dirAddress + ((trigramCount + 1L) << 3);
+        int last = -1;
+        int k = 0;
+        for (long i = 0; i < entryCount; i++) {
+            final long key = Unsafe.getUnsafe().getLong(address + (i << 3));
+            final int trigram = (int) (key >>> ROW_BITS);
+            if (trigram != last) {
+                Unsafe.getUnsafe().putLong(dirAddress + ((long) k << 3), i);
+                Unsafe.getUnsafe().putInt(trigramsAddress + ((long) k << 2), trigram);
+                last = trigram;
+                k++;
+            }
+            // the row id lands on bytes of the entries that are already read
+            Unsafe.getUnsafe().putInt(address + (i << 2), (int) (key & ROW_MASK));
+        }
+        assert k == trigramCount;
+        Unsafe.getUnsafe().putLong(dirAddress + ((long) trigramCount << 3), entryCount);
+        final long rowsSize = Math.max(entryCount, 1) << 2;
+        address = Unsafe.realloc(address, size, rowsSize, MemoryTag.NATIVE_INDEX_READER);
+        size = rowsSize;
+    }
+
+    /**
+     * Returns true when the posting list between the given positions contains the row.
+     */
+    public boolean contains(long lo, long hi, long row) {
+        while (lo < hi) {
+            final long mid = (lo + hi) >>> 1;
+            final long midRow = getRowId(mid);
+            if (midRow == row) {
+                return true;
+            }
+            if (midRow < row) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of entries the index would hold for the given partition rows, before
+     * duplicate trigrams of the same value are removed.
+     */
+    public long countEntries(int columnType, MemoryCR auxMem, MemoryCR dataMem, long columnTop, long rowCount) {
+        long count = 0;
+        if (ColumnType.tagOf(columnType) == ColumnType.VARCHAR) {
+            for (long row = columnTop; row < rowCount; row++) {
+                count += Math.max(VarcharTypeDriver.getValueSize(auxMem, row - columnTop) - 2, 0);
+            }
+        } else {
+            for (long row = columnTop; row < rowCount; row++) {
+                final Utf8Sequence value = getValue(columnType, auxMem, dataMem, row - columnTop);
+                count += value != null ? Math.max(value.size() - 2, 0) : 0;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns position past the last entry of the trigram's posting list.
+     */
+    public long findHi(int trigram) {
+        final int k = findTrigram(trigram);
+        return k < trigramCount && trigramAt(k) == trigram ? offsetAt(k + 1) : offsetAt(k);
+    }
+
+    /**
+     * Returns position of the first entry of the trigram's posting list. When there is no
+     * posting list for the trigram, the position is the same as {@link #findHi(int)}.
+     */
+    public long findLo(int trigram) {
+        return offsetAt(findTrigram(trigram));
+    }
+
+    public long getDirectorySize() {
+        return directorySizeOf(trigramCount);
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getRowId(long position) {
+        return Unsafe.getUnsafe().getInt(address + (position << 2));
+    }
+
+    public long getSize() {
+        return size + dirSize;
+    }
+
+    public boolean isBuiltFor(long partitionNameTxn, long columnNameTxn, long columnTop, long truncateVersion) {
+        return dirAddress != 0
+                && this.partitionNameTxn == partitionNameTxn
+                && this.columnNameTxn == columnNameTxn
+                && this.columnTop == columnTop
+                && this.truncateVersion == truncateVersion;
+    }
+
+    /**
+     * Sorts the entries of the first {@code rowCount} rows of the partition column. The index
+     * is ready for lookups once {@link #compact()} is called.
+     *
+     * @param columnType VARCHAR or STRING column type
+     * @param auxMem     aux column memory, its first entry belongs to the row at {@code columnTop}
+     * @param dataMem    data column memory
+     * @param columnTop  number of leading rows the column has no data for
+     * @param rowCount   number of partition rows to index
+     * @param entryCount number of entries as returned by {@link #countEntries}
+     */
+    public void of(
+            int columnType,
+            MemoryCR auxMem,
+            MemoryCR dataMem,
+            long columnTop,
+            long rowCount,
+            long entryCount,
+            long partitionNameTxn,
+            long columnNameTxn,
+            long truncateVersion
+    ) {
+        assert rowCount > 0 && rowCount <= MAX_ROW_COUNT;
+        dirAddress = Unsafe.free(dirAddress, dirSize, MemoryTag.NATIVE_INDEX_READER);
+        dirSize = 0;
+        final long requiredSize = sortSizeOf(entryCount);
+        if (requiredSize != size) {
+            address = Unsafe.realloc(address, size, requiredSize, MemoryTag.NATIVE_INDEX_READER);
+            size = requiredSize;
+        }
+        this.partitionNameTxn = partitionNameTxn;
+        this.columnNameTxn = columnNameTxn;
+        this.columnTop = columnTop;
+        this.truncateVersion = truncateVersion;
+        this.rowCount = 0;
+        this.entryCount = 0;
+        this.trigramCount = 0;
+
+        long p = address;
+        for (long row = columnTop; row < rowCount; row++) {
+            final Utf8Sequence value = getValue(columnType, auxMem, dataMem, row - columnTop);
+            if (value == null) {
+                continue;
+            }
+            final int valueSize = value.size();
+            if (valueSize < 3) {
+                continue;
+            }
+            int b0 = foldAscii(value.byteAt(0));
+            int b1 = foldAscii(value.byteAt(1));
+            for (int i = 2; i < valueSize; i++) {
+                final int b2 = foldAscii(value.byteAt(i));
+                Unsafe.getUnsafe().putLong(p, toKey(trigram(b0, b1, b2), row));
+                p += Long.BYTES;
+                b0 = b1;
+                b1 = b2;
+            }
+        }
+        long count = (p - address) >>> 3;
+        assert count <= entryCount;
+        if (count > 0) {
+            Vect.sortULongAscInPlace(address, count);
+            // drop trigrams repeated within the same value
+            long last = keyAt(0);
+            long n = 1;
+            int trigrams = 1;
+            for (long i = 1; i < count; i++) {
+                final long key = keyAt(i);
+                if (key != last) {
+                    if ((key >>> ROW_BITS) != (last >>> ROW_BITS)) {
+                        trigrams++;
+                    }
+                    Unsafe.getUnsafe().putLong(address + (n << 3), key);
+                    last = key;
+                    n++;
+                }
+            }
+            count = n;
+            trigramCount = trigrams;
+        }
+        this.entryCount = count;
+        this.rowCount = rowCount;
+    }
+
+    private static long toKey(int trigram, long row) {
+        return ((long) trigram << ROW_BITS) | row;
+    }
+
+    // position of the first directory entry with a trigram that is greater than or equal to the given one
+    private int findTrigram(int trigram) {
+        int lo = 0;
+        int hi = trigramCount;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (trigramAt(mid) < trigram) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private @Nullable Utf8Sequence getValue(int columnType, MemoryCR auxMem, MemoryCR dataMem, long columnRow) {
+        if (ColumnType.tagOf(columnType) == ColumnType.VARCHAR) {
+            return VarcharTypeDriver.getSplitValue(auxMem, dataMem, columnRow, 1);
+        }
+        final CharSequence value = dataMem.getStrA(auxMem.getLong(columnRow << 3));
+        if (value == null) {
+            return null;
+        }
+        utf8Sink.clear();
+        utf8Sink.put(value);
+        return utf8Sink;
+    }
+
+    private long keyAt(long position) {
+        return Unsafe.getUnsafe().getLong(address + (position << 3));
+    }
+
+    private long offsetAt(int k) {
+        return Unsafe.getUnsafe().getLong(dirAddress + ((long) k << 3));
+    }
+
+    private int trigramAt(int k) {
+        return Unsafe.getUnsafe().getInt(dirAddress + ((trigramCount + 1L) << 3) + ((long) k << 2));
+    }
+}
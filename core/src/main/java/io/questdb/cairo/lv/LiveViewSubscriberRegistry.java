@@ -0,0 +1,75 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.lv;
+
+import io.questdb.cairo.TableToken;
+import io.questdb.std.Chars;
+import io.questdb.std.ObjList;
+
+/**
+ * Thread-safe list of {@link LiveViewSubscriber}s. There is one entry per subscribed
+ * connection, so a plain list scanned on every live view commit is cheap enough, and
+ * the commit path skips the lock entirely while nobody is subscribed.
+ */
+public class LiveViewSubscriberRegistry {
+    private final ObjList<LiveViewSubscriber> subscribers = new ObjList<>();
+    private volatile int subscriberCount;
+
+    public synchronized void add(LiveViewSubscriber subscriber) {
+        subscribers.add(subscriber);
+        subscriberCount = subscribers.size();
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount;
+    }
+
+    /**
+     * Notifies the subscribers of the given live view that new transactions were applied
+     * to its table.
+     */
+    public void notifyCommitted(TableToken viewToken) {
+        if (subscriberCount == 0) {
+            return;
+        }
+        final String viewName = viewToken.getTableName();
+        synchronized (this) {
+            for (int i = 0, n = subscribers.size(); i < n; i++) {
+                final LiveViewSubscriber subscriber = subscribers.getQuick(i);
+                if (Chars.equalsIgnoreCase(subscriber.getViewName(), viewName)) {
+                    subscriber.onViewCommitted();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the subscriber. Once this returns, the subscriber is not called anymore.
+     */
+    public synchronized void remove(LiveViewSubscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriberCount = subscribers.size();
+    }
+}
@@ -95,6 +95,11 @@ public class ForwardingMatViewStateStore implements MatViewStateStore {
         delegate.enqueueRangeRefresh(matViewToken, rangeFrom, rangeTo);
     }
 
+    @Override
+    public void enqueueRefreshSliceTask(MatViewRefreshSliceTask task) {
+        delegate.enqueueRefreshSliceTask(task);
+    }
+
     @Override
     public void enqueueUpdateRefreshIntervals(TableToken matViewToken) {
         delegate.enqueueUpdateRefreshIntervals(matViewToken);
@@ -153,6 +158,11 @@ public class ForwardingMatViewStateStore implements MatViewStateStore {
         return previous;
     }
 
+    @Override
+    public boolean tryDequeueRefreshSliceTask(MatViewRefreshSliceTask task) {
+        return delegate.tryDequeueRefreshSliceTask(task);
+    }
+
     @Override
     public boolean tryDequeueRefreshTask(MatViewRefreshTask task) {
         return delegate.tryDequeueRefreshTask(task);
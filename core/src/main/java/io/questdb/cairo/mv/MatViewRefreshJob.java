@@ -94,8 +94,11 @@ public class MatViewRefreshJob implements Job, QuietCloseable {
     private final int maxRefreshRetryAttempts;
     private final MicrosecondClock microsecondClock;
     private final RefreshContext refreshContext = new RefreshContext();
+    private final MatViewRefreshSlices refreshSlices = new MatViewRefreshSlices();
     private final MatViewRefreshSqlExecutionContext refreshSqlExecutionContext;
     private final MatViewRefreshTask refreshTask = new MatViewRefreshTask();
+    private final MatViewRefreshSliceTask sliceTask = new MatViewRefreshSliceTask();
+    private final MatViewRefreshSliceTask sliceTaskToPublish = new MatViewRefreshSliceTask();
     private final int sharedQueryWorkerCount;
     private final MatViewStateStore stateStore;
     private final TimeZoneIntervalIterator timeZoneIterator = new TimeZoneIntervalIterator();
@@ -439,6 +442,62 @@ public class MatViewRefreshJob implements Job, QuietCloseable {
         }
     }
 
+    // Commits the view state once all slices of a sliced refresh are committed, see commitMatView().
+    private void commitMatViewState(
+            @NotNull MatViewState viewState,
+            @NotNull WalWriter walWriter,
+            @NotNull RefreshContext refreshContext,
+            @NotNull RecordCursorFactory factory,
+            @NotNull RecordToRowCopier copier,
+            long refreshTriggerTimestampUs
+    ) {
+        final long recordRowCopierMetadataVersion = walWriter.getMetadata().getMetadataVersion();
+        final long refreshFinishTimestampUs = microsecondClock.getTicks();
+        final long commitPeriodHi = refreshContext.periodHi != Numbers.LONG_NULL ? refreshContext.periodHi : viewState.getLastPeriodHi();
+        if (refreshContext.toBaseTxn == -1) {
+            // Range refresh keeps the base txn and the cached txn intervals.
+            if (refreshContext.periodHi != Numbers.LONG_NULL) {
+                fencedMatViewCommit(() -> walWriter.resetMatViewState(
+                        viewState.getLastRefreshBaseTxn(),
+                        refreshFinishTimestampUs,
+                        false,
+                        null,
+                        commitPeriodHi,
+                        viewState.getRefreshIntervals(),
+                        viewState.getRefreshIntervalsBaseTxn()
+                ));
+            }
+            viewState.rangeRefreshSuccess(
+                    factory,
+                    copier,
+                    recordRowCopierMetadataVersion,
+                    refreshFinishTimestampUs,
+                    refreshTriggerTimestampUs,
+                    commitPeriodHi
+            );
+        } else {
+            // Incremental/full refresh evicts the cached txn intervals, same as a mat view data commit.
+            fencedMatViewCommit(() -> walWriter.resetMatViewState(
+                    refreshContext.toBaseTxn,
+                    refreshFinishTimestampUs,
+                    false,
+                    null,
+                    commitPeriodHi,
+                    null,
+                    -1
+            ));
+            viewState.refreshSuccess(
+                    factory,
+                    copier,
+                    recordRowCopierMetadataVersion,
+                    refreshFinishTimestampUs,
+                    refreshTriggerTimestampUs,
+                    refreshContext.toBaseTxn,
+                    commitPeriodHi
+            );
+        }
+    }
+
     // The automatic refresh job runs on a worker pool an in-place primary-to-replica demote never halts:
     // it acquires the view WalWriter while PRIMARY, runs a long SELECT pump, then externalizes a replicated
     // seqTxn with no read-only re-check, and the demote drain rendezvouses only with the refresh task queue,
@@ -523,6 +582,7 @@ public class MatViewRefreshJob implements Job, QuietCloseable {
         final TableToken baseTableToken = baseTableReader.getTableToken();
         final TableToken viewToken = viewDefinition.getMatViewToken();
         final TimestampDriver driver = viewDefinition.getBaseTableTimestampDriver();
+        refreshContext.baseTableToken = baseTableToken;
 
         final long now = driver.getTicks();
         final boolean rangeRefresh = rangeTo != Numbers.LONG_NULL;
@@ -1057,6 +1117,9 @@ public class MatViewRefreshJob implements Job, QuietCloseable {
             return false;
         }
 
+        viewState.setRefreshSlices(0, 0);
+        // a failed sliced refresh falls back to a single worker refresh of the same intervals
+        boolean sliced = configuration.getMatViewRefreshParallelism() > 1;
         try {
             factory = viewState.acquireRecordFactory();
             copier = viewState.getRecordToRowCopier();
@@ -1109,6 +1172,14 @@ public class MatViewRefreshJob implements Job, QuietCloseable {
                     final int cursorTimestampIndex = factory.getMetadata().getColumnIndex(timestampName);
                     assert cursorTimestampIndex > -1;
 
+                    if (sliced) {
+                        sliced = false;
+                        if (refreshSlices(viewDefinition, viewState, walWriter, refreshContext, factory, copier, cursorTimestampIndex)) {
+                            commitMatViewState(viewState, walWriter, refreshContext, factory, copier, refreshTriggerTimestamp);
+                            break;
+                        }
+                    }
+
                     long commitTarget = batchSize;
                     long rowCount = 0;
                     // Pending scan metrics accumulate across iterations and fold
@@ -1577,6 +1648,10 @@ public class MatViewRefreshJob implements Job, QuietCloseable {
             // queued and run after the gate clears (writes open).
             return false;
         }
+        // help other workers with their sliced refreshes first, they hold the view locks meanwhile
+        while (stateStore.tryDequeueRefreshSliceTask(sliceTask)) {
+            refreshed |= refreshSlicesOf(sliceTask);
+        }
         while (stateStore.tryDequeueRefreshTask(refreshTask)) {
             // Re-read the suspend gate AFTER the dequeue. A promote can set the gate, swap in the real
             // store, and enqueue the hydrate kickstart between this pass's top-of-method gate read and
@@ -2110,6 +2185,119 @@ public class MatViewRefreshJob implements Job, QuietCloseable {
         }
     }
 
+    /**
+     * Splits the refresh intervals into slices, one per interval iterator step, and runs them
+     * together with the idle refresh workers that accept the published invitations.
+     *
+     * @return true when all slices were committed; false when there are too few slices to split
+     * or a slice failed, in both cases the caller refreshes the intervals on its own
+     */
+    private boolean refreshSlices(
+            @NotNull MatViewDefinition viewDefinition,
+            @NotNull MatViewState viewState,
+            @NotNull WalWriter walWriter,
+            @NotNull RefreshContext refreshContext,
+            @NotNull RecordCursorFactory factory,
+            @NotNull RecordToRowCopier copier,
+            int cursorTimestampIndex
+    ) {
+        final SampleByIntervalIterator intervalIterator = refreshContext.intervalIterator;
+        if (refreshContext.stepPerInterval.size() > 0) {
+            intervalIterator.toTop(refreshContext.stepPerInterval);
+        } else {
+            intervalIterator.toTop(refreshContext.naturalStep);
+        }
+        refreshSlices.of(viewDefinition, viewState);
+        while (intervalIterator.next()) {
+            refreshSlices.addSlice(intervalIterator.getTimestampLo(), intervalIterator.getTimestampHi());
+        }
+        final int sliceCount = refreshSlices.getSliceCount();
+        if (sliceCount < 2) {
+            refreshSlices.clear();
+            return false;
+        }
+
+        final long generation = refreshSlices.open();
+        final int helperCount = Math.min(configuration.getMatViewRefreshParallelism(), sliceCount) - 1;
+        LOG.info().$("refreshing materialized view in slices [view=").$(viewDefinition.getMatViewToken())
+                .$(", slices=").$(sliceCount)
+                .$(", helpers=").$(helperCount)
+                .I$();
+        for (int i = 0; i < helperCount; i++) {
+            stateStore.enqueueRefreshSliceTask(sliceTaskToPublish.of(refreshSlices, generation, refreshContext.baseTableToken));
+        }
+        try {
+            runSlices(refreshSlices, walWriter, factory, copier, cursorTimestampIndex);
+        } finally {
+            refreshSlices.close();
+        }
+        final boolean committed = !refreshSlices.isFailed() && refreshSlices.getCommittedSlices() == sliceCount;
+        if (!committed) {
+            LOG.info().$("sliced refresh failed, refreshing on a single worker [view=").$(viewDefinition.getMatViewToken())
+                    .$(", committedSlices=").$(refreshSlices.getCommittedSlices())
+                    .$(", slices=").$(sliceCount)
+                    .I$();
+        }
+        refreshSlices.clear();
+        return committed;
+    }
+
+    /**
+     * Helps another worker with its sliced refresh. The view query runs over a base table reader
+     * that may be ahead of the owner's one; that's fine as the slices replace whole time ranges and
+     * the newer base table transactions are refreshed again by the next incremental refresh.
+     */
+    private boolean refreshSlicesOf(MatViewRefreshSliceTask task) {
+        final MatViewRefreshSlices slices = task.slices;
+        if (slices == null || !slices.tryJoin(task.generation)) {
+            // the refresh is over already
+            return false;
+        }
+        final TableToken viewToken = slices.getViewDefinition().getMatViewToken();
+        try (
+                WalWriter walWriter = engine.getWalWriter(viewToken);
+                TableReader baseTableReader = engine.getReader(task.baseTableToken)
+        ) {
+            engine.detachReader(baseTableReader);
+            refreshSqlExecutionContext.of(baseTableReader);
+            final MemoryTracker memoryTracker = engine.getMemoryTrackerProvider().acquire(
+                    refreshSqlExecutionContext.getSecurityContext(),
+                    viewToken.getTableId(),
+                    MemoryTrackerWorkload.MAT_VIEW_REFRESH
+            );
+            refreshSqlExecutionContext.setMemoryTracker(memoryTracker);
+            RecordCursorFactory factory = null;
+            try {
+                final RecordToRowCopier copier;
+                try (SqlCompiler compiler = engine.getSqlCompiler()) {
+                    factory = compiler.compile(slices.getViewDefinition().getMatViewSql(), refreshSqlExecutionContext).getRecordCursorFactory();
+                    copier = getRecordToRowCopier(walWriter, factory, compiler);
+                }
+                if (factory.getMetadata().getTimestampType() != walWriter.getMetadata().getTimestampType()) {
+                    // the owner reports the mismatch
+                    return false;
+                }
+                final CharSequence timestampName = walWriter.getMetadata().getColumnName(walWriter.getMetadata().getTimestampIndex());
+                runSlices(slices, walWriter, factory, copier, factory.getMetadata().getColumnIndex(timestampName));
+            } finally {
+                Misc.free(factory);
+                refreshSqlExecutionContext.setMemoryTracker(null);
+                memoryTracker.close();
+                refreshSqlExecutionContext.clearReader();
+                engine.attachReader(baseTableReader);
+            }
+            return true;
+        } catch (Throwable th) {
+            // the owner and the other helpers run the remaining slices
+            LOG.error().$("could not help with sliced materialized view refresh [view=").$(viewToken)
+                    .$(", ex=").$(th)
+                    .I$();
+            return false;
+        } finally {
+            slices.leave();
+        }
+    }
+
     private void refreshSuccessNoRows(
             MatViewState viewState,
             @Nullable WalWriter walWriter,
@@ -2171,6 +2359,58 @@ public class MatViewRefreshJob implements Job, QuietCloseable {
         }
     }
 
+    // Claims and runs slices until there are none left. A failed slice abandons the remaining ones.
+    private void runSlices(
+            MatViewRefreshSlices slices,
+            WalWriter walWriter,
+            RecordCursorFactory factory,
+            RecordToRowCopier copier,
+            int cursorTimestampIndex
+    ) {
+        final MatViewDefinition viewDefinition = slices.getViewDefinition();
+        final TimestampDriver driver = viewDefinition.getBaseTableTimestampDriver();
+        int slice;
+        while ((slice = slices.claimSlice()) > -1) {
+            final long lo = slices.getSliceLo(slice);
+            final long hi = slices.getSliceHi(slice);
+            try {
+                refreshSqlExecutionContext.setRange(lo, hi, driver.getTimestampType());
+                try (RecordCursor cursor = factory.getCursor(refreshSqlExecutionContext)) {
+                    final Record record = cursor.getRecord();
+                    while (cursor.hasNext()) {
+                        final long timestamp = record.getTimestamp(cursorTimestampIndex);
+                        // slice high and replace range high are both exclusive
+                        if (timestamp < lo || timestamp > hi) {
+                            throw CairoException.nonCritical()
+                                    .put("timestamp out of replace range [expected=").ts(driver, lo)
+                                    .put(", ").ts(driver, hi)
+                                    .put(", actual=").ts(driver, timestamp)
+                                    .put(']');
+                        }
+                        final TableWriter.Row row = walWriter.newRow(timestamp);
+                        copier.copy(refreshSqlExecutionContext, record, row);
+                        row.append();
+                    }
+                }
+                if (!slices.awaitCommitTurn(slice)) {
+                    walWriter.rollback();
+                    return;
+                }
+                fencedMatViewCommit(() -> walWriter.commitWithParams(lo, hi, WAL_DEDUP_MODE_REPLACE_RANGE));
+                slices.sliceCommitted();
+            } catch (Throwable th) {
+                slices.fail();
+                LOG.error().$("could not refresh materialized view slice [view=").$(viewDefinition.getMatViewToken())
+                        .$(", lo=").$ts(driver, lo)
+                        .$(", hi=").$ts(driver, hi)
+                        .$(", ex=").$(th)
+                        .I$();
+                walWriter.rollback();
+                return;
+            }
+        }
+    }
+
     private void setInvalidState(MatViewState viewState, WalWriter walWriter, CharSequence invalidationReason, long invalidationTimestamp) {
         viewState.markAsInvalid(invalidationReason);
         viewState.setLastRefreshTimestampUs(invalidationTimestamp);
@@ -2405,6 +2645,7 @@ public class MatViewRefreshJob implements Job, QuietCloseable {
     private static class RefreshContext implements Mutable {
         public final LongList stepPerInterval = new LongList();
         public long approxBucketSize;
+        public TableToken baseTableToken;
         public boolean hasTruncateBarrier;
         public SampleByIntervalIterator intervalIterator;
         public long naturalStep;
@@ -2419,6 +2660,7 @@ public class MatViewRefreshJob implements Job, QuietCloseable {
         @Override
         public void clear() {
             approxBucketSize = 0;
+            baseTableToken = null;
             hasTruncateBarrier = false;
             intervalIterator = null;
             naturalStep = 0;
@@ -0,0 +1,59 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.mv;
+
+import io.questdb.cairo.TableToken;
+import io.questdb.mp.ValueHolder;
+
+/**
+ * Invites an idle refresh worker to help with a sliced refresh, see {@link MatViewRefreshSlices}.
+ * The generation guards against tickets that outlive the refresh they were published for.
+ */
+public class MatViewRefreshSliceTask implements ValueHolder<MatViewRefreshSliceTask> {
+    public TableToken baseTableToken;
+    public long generation = -1;
+    public MatViewRefreshSlices slices;
+
+    @Override
+    public void clear() {
+        baseTableToken = null;
+        generation = -1;
+        slices = null;
+    }
+
+    @Override
+    public void copyTo(MatViewRefreshSliceTask anotherHolder) {
+        anotherHolder.baseTableToken = baseTableToken;
+        anotherHolder.generation = generation;
+        anotherHolder.slices = slices;
+    }
+
+    public MatViewRefreshSliceTask of(MatViewRefreshSlices slices, long generation, TableToken baseTableToken) {
+        this.slices = slices;
+        this.generation = generation;
+        this.baseTableToken = baseTableToken;
+        return this;
+    }
+}
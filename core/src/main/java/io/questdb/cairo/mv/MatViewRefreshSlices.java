@@ -0,0 +1,187 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.mv;
+
+import io.questdb.std.LongList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Time slices of a single materialized view refresh that may be run by several refresh workers.
+ * <p>
+ * The refresh job holding the view lock splits the refresh intervals into slices, one per interval
+ * iterator step, and publishes {@link MatViewRefreshSliceTask} tickets for idle workers. Workers,
+ * including the owner, claim slices in timestamp order, run the view query over the slice and write
+ * the result to their own WAL writer. Each slice is committed as a separate REPLACE_RANGE transaction,
+ * in slice order, so the view never shows a later slice without the earlier ones.
+ * <p>
+ * Once a slice fails, the remaining slices are abandoned; their replace ranges are idempotent, so the
+ * owner simply refreshes the intervals again. The instance is owned by a single refresh job and reused
+ * across refreshes; {@link #close()} waits for the helpers to leave before it can be reused.
+ * <p>
+ * Workers waiting for their commit turn, or for the helpers to leave, block on the instance's monitor
+ * and are woken up by the commit, failure or leave that they wait for, rather than spinning.
+ */
+public class MatViewRefreshSlices {
+    private final LongList bounds = new LongList();
+    private final AtomicInteger nextSlice = new AtomicInteger();
+    private int activeWorkers;
+    private volatile int committedSlices;
+    private volatile boolean failed;
+    private long generation;
+    private boolean open;
+    private MatViewDefinition viewDefinition;
+    private MatViewState viewState;
+
+    public void addSlice(long lo, long hi) {
+        assert !open;
+        bounds.add(lo, hi);
+    }
+
+    /**
+     * Blocks until it's the slice's turn to commit. An interrupted wait abandons the refresh.
+     *
+     * @return false when the refresh is abandoned and the slice must be rolled back
+     */
+    public synchronized boolean awaitCommitTurn(int slice) {
+        while (committedSlices != slice && !failed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail();
+            }
+        }
+        return !failed;
+    }
+
+    /**
+     * Returns the next slice to run, or -1 when there is none left.
+     */
+    public int claimSlice() {
+        if (failed) {
+            return -1;
+        }
+        final int slice = nextSlice.getAndIncrement();
+        return slice < getSliceCount() ? slice : -1;
+    }
+
+    public void clear() {
+        bounds.clear();
+        nextSlice.set(0);
+        committedSlices = 0;
+        failed = false;
+        viewDefinition = null;
+        viewState = null;
+    }
+
+    /**
+     * Stops helpers from joining and waits for the ones that joined to leave.
+     */
+    public synchronized void close() {
+        open = false;
+        boolean interrupted = false;
+        while (activeWorkers > 0) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                // the helpers use this instance until they leave, so keep waiting
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized void fail() {
+        failed = true;
+        notifyAll();
+    }
+
+    public int getCommittedSlices() {
+        return committedSlices;
+    }
+
+    public int getSliceCount() {
+        return bounds.size() / 2;
+    }
+
+    public long getSliceHi(int slice) {
+        return bounds.getQuick(2 * slice + 1);
+    }
+
+    public long getSliceLo(int slice) {
+        return bounds.getQuick(2 * slice);
+    }
+
+    public MatViewDefinition getViewDefinition() {
+        return viewDefinition;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public synchronized void leave() {
+        if (--activeWorkers == 0) {
+            notifyAll();
+        }
+    }
+
+    public void of(@NotNull MatViewDefinition viewDefinition, @NotNull MatViewState viewState) {
+        clear();
+        this.viewDefinition = viewDefinition;
+        this.viewState = viewState;
+    }
+
+    /**
+     * Opens the slices for helpers.
+     *
+     * @return the generation to publish in {@link MatViewRefreshSliceTask}
+     */
+    public synchronized long open() {
+        assert activeWorkers == 0;
+        open = true;
+        viewState.setRefreshSlices(0, getSliceCount());
+        return ++generation;
+    }
+
+    public synchronized void sliceCommitted() {
+        final int committed = committedSlices + 1;
+        committedSlices = committed;
+        viewState.setRefreshSlices(committed, getSliceCount());
+        notifyAll();
+    }
+
+    public synchronized boolean tryJoin(long generation) {
+        if (!open || generation != this.generation) {
+            return false;
+        }
+        activeWorkers++;
+        return true;
+    }
+}
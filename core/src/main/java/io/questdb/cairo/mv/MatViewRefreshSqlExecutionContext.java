@@ -56,6 +56,7 @@ public class MatViewRefreshSqlExecutionContext extends SqlExecutionContextImpl {
             setParallelGroupByEnabled(false);
             setParallelTopKEnabled(false);
             setParallelWindowJoinEnabled(false);
+            setParallelAsOfJoinEnabled(false);
             setParallelReadParquetEnabled(false);
         }
         this.coveringIndexEnabled = engine.getConfiguration().isMatViewCoveringIndexEnabled();
@@ -77,6 +78,11 @@ public class MatViewRefreshSqlExecutionContext extends SqlExecutionContextImpl {
         this.bindVariableService = new BindVariableServiceImpl(engine.getConfiguration());
     }
 
+    @Override
+    public boolean allowMatViewQueryRewrite() {
+        return false;
+    }
+
     @Override
     public boolean allowNonDeterministicFunctions() {
         return false;
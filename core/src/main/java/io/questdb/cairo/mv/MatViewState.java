@@ -148,6 +148,10 @@ public class MatViewState implements QuietCloseable {
     // success. MatViewRefreshJob invalidates the view once this exceeds the configured limit, which
     // releases base-table WAL retention. Mutated only under this.latch, so a plain increment is safe.
     private volatile int refreshRetryCount = 0;
+    // Progress of the last sliced refresh, see MatViewRefreshSlices. Both are 0 when the last
+    // refresh ran on a single worker. Written by the refresh workers, read for display only.
+    private volatile int refreshSliceCount;
+    private volatile int refreshSlicesCommitted;
     private volatile MatViewDefinition viewDefinition;
 
     public MatViewState(
@@ -465,6 +469,14 @@ public class MatViewState implements QuietCloseable {
         return refreshRetryCount;
     }
 
+    public int getRefreshSliceCount() {
+        return refreshSliceCount;
+    }
+
+    public int getRefreshSlicesCommitted() {
+        return refreshSlicesCommitted;
+    }
+
     public long getRefreshSeq() {
         return refreshSeq.get();
     }
@@ -761,6 +773,11 @@ public class MatViewState implements QuietCloseable {
         this.lastRefreshFinishTimestampUs = timestampUs;
     }
 
+    public void setRefreshSlices(int committed, int count) {
+        this.refreshSliceCount = count;
+        this.refreshSlicesCommitted = committed;
+    }
+
     public void setRefreshIntervals(LongList refreshIntervals) {
         this.refreshIntervals.clear();
         this.refreshIntervals.addAll(refreshIntervals);
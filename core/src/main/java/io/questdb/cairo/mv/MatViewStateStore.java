@@ -61,6 +61,9 @@ public interface MatViewStateStore extends QuietCloseable, Mutable {
 
     void enqueueRangeRefresh(TableToken matViewToken, long rangeFrom, long rangeTo);
 
+    // Called by refresh job to invite idle refresh workers to help with a sliced refresh.
+    void enqueueRefreshSliceTask(MatViewRefreshSliceTask task);
+
     // Used to cache WAL txn intervals for manual and timer mat views.
     // That's to let WalPurgeJob make progress.
     void enqueueUpdateRefreshIntervals(TableToken matViewToken);
@@ -89,6 +92,8 @@ public interface MatViewStateStore extends QuietCloseable, Mutable {
 
     void removeViewState(TableToken matViewToken);
 
+    boolean tryDequeueRefreshSliceTask(MatViewRefreshSliceTask task);
+
     boolean tryDequeueRefreshTask(MatViewRefreshTask task);
 
     void updateViewDefinition(@NotNull TableToken matViewToken, @NotNull MatViewDefinition newDefinition);
@@ -57,6 +57,7 @@ public class MatViewStateStoreImpl implements MatViewStateStore {
     private final MicrosecondClock microsecondClock;
     private final ConcurrentHashMap<MatViewState> stateByTableDirName = new ConcurrentHashMap<>();
     private final CarrierLocal<MatViewRefreshTask> taskHolder = new CarrierLocal<>(MatViewRefreshTask::new);
+    private final Queue<MatViewRefreshSliceTask> sliceTaskQueue = ConcurrentQueue.createConcurrentQueue(MatViewRefreshSliceTask::new);
     private final Queue<MatViewRefreshTask> taskQueue = ConcurrentQueue.createConcurrentQueue(MatViewRefreshTask::new);
     private final Telemetry<TelemetryMatViewTask> telemetry;
     private final MatViewTelemetryFacade telemetryFacade;
@@ -122,6 +123,7 @@ public class MatViewStateStoreImpl implements MatViewStateStore {
     public void clear() {
         close();
         taskQueue.clear();
+        sliceTaskQueue.clear();
         lastNotifiedTxnByTableName.clear();
     }
 
@@ -174,6 +176,11 @@ public class MatViewStateStoreImpl implements MatViewStateStore {
         enqueueTaskIfStateExists(matViewToken, MatViewRefreshTask.RANGE_REFRESH, null, rangeFrom, rangeTo);
     }
 
+    @Override
+    public void enqueueRefreshSliceTask(MatViewRefreshSliceTask task) {
+        sliceTaskQueue.enqueue(task);
+    }
+
     public void enqueueTaskIfStateExists(
             TableToken matViewToken,
             int operation,
@@ -275,6 +282,11 @@ public class MatViewStateStoreImpl implements MatViewStateStore {
         }
     }
 
+    @Override
+    public boolean tryDequeueRefreshSliceTask(MatViewRefreshSliceTask task) {
+        return sliceTaskQueue.tryDequeue(task);
+    }
+
     @Override
     public boolean tryDequeueRefreshTask(MatViewRefreshTask task) {
         return taskQueue.tryDequeue(task);
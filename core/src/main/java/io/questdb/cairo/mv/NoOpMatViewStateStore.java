@@ -69,6 +69,10 @@ public class NoOpMatViewStateStore implements MatViewStateStore {
     public void enqueueRangeRefresh(TableToken matViewToken, long rangeFrom, long rangeTo) {
     }
 
+    @Override
+    public void enqueueRefreshSliceTask(MatViewRefreshSliceTask task) {
+    }
+
     @Override
     public void enqueueUpdateRefreshIntervals(TableToken matViewToken) {
     }
@@ -103,6 +107,11 @@ public class NoOpMatViewStateStore implements MatViewStateStore {
     public void removeViewState(TableToken matViewToken) {
     }
 
+    @Override
+    public boolean tryDequeueRefreshSliceTask(MatViewRefreshSliceTask task) {
+        return false;
+    }
+
     @Override
     public boolean tryDequeueRefreshTask(MatViewRefreshTask task) {
         return false;
@@ -31,6 +31,7 @@ import io.questdb.cairo.PartitionOverwriteControl;
 import io.questdb.cairo.TableReader;
 import io.questdb.cairo.TableToken;
 import io.questdb.cairo.TxnScoreboardPool;
+import io.questdb.griffin.engine.table.parquet.ParquetRowGroupCache;
 import io.questdb.std.str.CharSink;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -41,6 +42,7 @@ public class ReaderPool extends AbstractMultiTenantPool<ReaderPool.R> {
     private final MessageBus messageBus;
     private final PartitionOverwriteControl partitionOverwriteControl;
     private final TxnScoreboardPool txnScoreboardPool;
+    private ParquetRowGroupCache parquetRowGroupCache;
     private ReaderListener readerListener;
 
     public ReaderPool(CairoConfiguration configuration, TxnScoreboardPool scoreboardPool, MessageBus messageBus, PartitionOverwriteControl partitionOverwriteControl) {
@@ -99,6 +101,10 @@ public class ReaderPool extends AbstractMultiTenantPool<ReaderPool.R> {
         return ((ReaderPool.R) reader).isDetached();
     }
 
+    public void setParquetRowGroupCache(ParquetRowGroupCache parquetRowGroupCache) {
+        this.parquetRowGroupCache = parquetRowGroupCache;
+    }
+
     @TestOnly
     public void setTableReaderListener(ReaderListener readerListener) {
         this.readerListener = readerListener;
@@ -127,12 +133,16 @@ public class ReaderPool extends AbstractMultiTenantPool<ReaderPool.R> {
 
     @Override
     protected R newCopyOfTenant(R srcReader, Entry<R> rootEntry, Entry<R> entry, int index, ResourcePoolSupervisor<R> supervisor) {
-        return new R(this, rootEntry, entry, index, srcReader, txnScoreboardPool, messageBus, readerListener, partitionOverwriteControl, supervisor);
+        final R reader = new R(this, rootEntry, entry, index, srcReader, txnScoreboardPool, messageBus, readerListener, partitionOverwriteControl, supervisor);
+        reader.setParquetRowGroupCache(parquetRowGroupCache);
+        return reader;
     }
 
     @Override
     protected R newTenant(TableToken tableToken, Entry<R> rootEntry, Entry<R> entry, int index, ResourcePoolSupervisor<R> supervisor) {
-        return new R(this, rootEntry, entry, index, tableToken, txnScoreboardPool, messageBus, readerListener, partitionOverwriteControl, supervisor);
+        final R reader = new R(this, rootEntry, entry, index, tableToken, txnScoreboardPool, messageBus, readerListener, partitionOverwriteControl, supervisor);
+        reader.setParquetRowGroupCache(parquetRowGroupCache);
+        return reader;
     }
 
     @TestOnly
@@ -60,7 +60,7 @@ public class WalWriterPool extends AbstractMultiTenantPool<WalWriterPool.WalWrit
             int index,
             @Nullable ResourcePoolSupervisor<WalWriterTenant> supervisor
     ) {
-        return new WalWriterTenant(
+        final WalWriterTenant tenant = new WalWriterTenant(
                 this,
                 rootEntry,
                 entry,
@@ -73,6 +73,8 @@ public class WalWriterPool extends AbstractMultiTenantPool<WalWriterPool.WalWrit
                 engine.getRecentWriteTracker(),
                 engine.getTelemetryWal()
         );
+        tenant.setSharedSymbolCache(engine.getSharedSymbolCache());
+        return tenant;
     }
 
     public static class WalWriterTenant extends WalWriter implements PoolTenant<WalWriterTenant> {
@@ -35,6 +35,7 @@ import io.questdb.cairo.idx.IndexReader;
 import io.questdb.griffin.engine.table.parquet.ParquetDecoder;
 import io.questdb.griffin.engine.table.parquet.ParquetFileDecoder;
 import io.questdb.griffin.engine.table.parquet.ParquetPartitionDecoder;
+import io.questdb.griffin.engine.table.parquet.ParquetRowGroupCache;
 import io.questdb.griffin.engine.table.parquet.RowGroupBuffers;
 import io.questdb.std.DirectIntList;
 import io.questdb.std.DirectLongList;
@@ -1038,6 +1039,10 @@ public class PageFrameMemoryPool implements RecordRandomAccess, QuietCloseable,
             if (parquetMetaDecoder.getParquetMetaAddr() != parquetMetaFrame.getParquetMetaAddr() || parquetMetaDecoder.getParquetMetaSize() != parquetMetaFrame.getParquetMetaSize()) {
                 parquetMetaDecoder.of(parquetMetaFrame);
                 buildColumnIdMap(parquetMetaDecoder);
+            } else {
+                // The shared row group cache keys on the file version, so keep it current
+                // even when the mapping is reused.
+                parquetMetaDecoder.ofRowGroupCache(parquetMetaFrame);
             }
             if (activeDecoder != parquetMetaDecoder) {
                 hasFullProjectionMap = false;
@@ -2097,6 +2102,9 @@ public class PageFrameMemoryPool implements RecordRandomAccess, QuietCloseable,
     private class ParquetBuffers implements QuietCloseable {
         private final DirectLongList auxPageAddresses;
         private final DirectLongList auxPageSizes;
+        // Chunks served by the engine-wide row group cache, one per decode slot, pinned
+        // until the next decode or close. Empty when the slots live in rowGroupBuffers.
+        private final ObjList<ParquetRowGroupCache.Entry> cachedChunks = new ObjList<>();
         // Per-query-column leading column-top count, parallel to pageAddresses. Lets a lazy
         // fixed->var conversion surface NULL for column-top rows (decoded as an in-band 0).
         private final DirectLongList columnTops;
@@ -2104,6 +2112,7 @@ public class PageFrameMemoryPool implements RecordRandomAccess, QuietCloseable,
         private final DirectLongList pageAddresses;
         private final DirectLongList pageSizes;
         private final RowGroupBuffers rowGroupBuffers;
+        private ParquetRowGroupCache chunkCache;
         private long decodedBytes;
         // decoded window bounds (row group coordinates); a cached buffer serves a
         // request only when its window covers the requested [lo, hi)
@@ -2193,10 +2202,21 @@ public class PageFrameMemoryPool implements RecordRandomAccess, QuietCloseable,
             releaseDecodeResources();
             clearAddresses();
             if (parquetColumns.size() > 0) {
-                decoder.decodeRowGroup(rowGroupBuffers, parquetColumns, rowGroup, rowLo, rowHi);
-                retainDecodeResource(decoder);
-                slotCount = (int) (parquetColumns.size() / 2);
-                decodedBytes = isAccountingEnabled() ? rowGroupBuffers.sumChunkBytes(0, slotCount) : 0;
+                final ParquetRowGroupCache cache = decoder instanceof ParquetPartitionDecoder partitionDecoder ? partitionDecoder.getRowGroupCache() : null;
+                if (cache != null && cache.acquire((ParquetPartitionDecoder) decoder, parquetColumns, rowGroup, rowLo, rowHi, cachedChunks)) {
+                    // The shared cache owns and accounts the chunk memory.
+                    chunkCache = cache;
+                    slotCount = (int) (parquetColumns.size() / 2);
+                    decodedBytes = 0;
+                } else {
+                    decoder.decodeRowGroup(rowGroupBuffers, parquetColumns, rowGroup, rowLo, rowHi);
+                    retainDecodeResource(decoder);
+                    slotCount = (int) (parquetColumns.size() / 2);
+                    decodedBytes = isAccountingEnabled() ? rowGroupBuffers.sumChunkBytes(0, slotCount) : 0;
+                    if (cache != null) {
+                        cache.put((ParquetPartitionDecoder) decoder, parquetColumns, rowGroup, rowLo, rowHi, rowGroupBuffers);
+                    }
+                }
             } else {
                 slotCount = 0;
                 decodedBytes = 0;
@@ -2267,20 +2287,25 @@ public class PageFrameMemoryPool implements RecordRandomAccess, QuietCloseable,
             remapColumns(0);
         }
 
+        // Cached chunks are fixed-size only, so they have no aux vectors.
         public long getSlotAuxPtr(int slot) {
-            return rowGroupBuffers.getChunkAuxPtr(slot);
+            return cachedChunks.size() > 0 ? 0 : rowGroupBuffers.getChunkAuxPtr(slot);
         }
 
         public long getSlotAuxSize(int slot) {
-            return rowGroupBuffers.getChunkAuxSize(slot);
+            return cachedChunks.size() > 0 ? 0 : rowGroupBuffers.getChunkAuxSize(slot);
+        }
+
+        public long getSlotColumnTop(int slot) {
+            return cachedChunks.size() > 0 ? cachedChunks.getQuick(slot).getColumnTop() : rowGroupBuffers.getChunkColumnTop(slot);
         }
 
         public long getSlotDataPtr(int slot) {
-            return rowGroupBuffers.getChunkDataPtr(slot);
+            return cachedChunks.size() > 0 ? cachedChunks.getQuick(slot).getAddress() : rowGroupBuffers.getChunkDataPtr(slot);
         }
 
         public long getSlotDataSize(int slot) {
-            return rowGroupBuffers.getChunkDataSize(slot);
+            return cachedChunks.size() > 0 ? cachedChunks.getQuick(slot).getSize() : rowGroupBuffers.getChunkDataSize(slot);
         }
 
         public void reopen() {
@@ -2311,12 +2336,17 @@ public class PageFrameMemoryPool implements RecordRandomAccess, QuietCloseable,
         }
 
         // Releases the chunk leases this buffer holds via the remote-aware decoder
-        // (a no-op for the legacy/OSS decoders, which hold no per-decode resource).
+        // (a no-op for the legacy/OSS decoders, which hold no per-decode resource)
+        // and unpins the chunks borrowed from the shared row group cache.
         private void releaseDecodeResources() {
             for (long i = 0, n = decodeResources.size(); i < n; i++) {
                 parquetMetaDecoder.releaseDecodeResource(decodeResources.get(i));
             }
             decodeResources.clear();
+            if (chunkCache != null) {
+                chunkCache.release(cachedChunks);
+                chunkCache = null;
+            }
         }
 
         // Fan the decoded buffers out to query columns. parquetColumns is
@@ -2373,7 +2403,7 @@ public class PageFrameMemoryPool implements RecordRandomAccess, QuietCloseable,
                 final int decodeType = parquetColumns.get(2L * slot + 1);
                 long dataAddr = getSlotDataPtr(slot);
                 long dataSize = getSlotDataSize(slot);
-                columnTops.set(q, rowGroupBuffers.getChunkColumnTop(slot));
+                columnTops.set(q, getSlotColumnTop(slot));
                 if (ColumnType.isVarSize(decodeType)) {
                     long auxAddr = getSlotAuxPtr(slot);
                     long auxSize = getSlotAuxSize(slot);
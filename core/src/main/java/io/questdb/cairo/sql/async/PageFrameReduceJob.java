@@ -49,6 +49,8 @@ public class PageFrameReduceJob implements Job, QuietCloseable {
     private final MessageBus messageBus;
     private final int shardCount;
     private final int[] shards;
+    // size of the worker pool when shards are bound to worker groups, 0 otherwise
+    private final int workerCount;
     private SqlExecutionCircuitBreakerWrapper circuitBreaker;
     private PageFrameMemoryRecord record;
 
@@ -61,9 +63,24 @@ public class PageFrameReduceJob implements Job, QuietCloseable {
             CairoEngine engine,
             MessageBus bus,
             Rnd rnd
+    ) {
+        this(engine, bus, rnd, 0);
+    }
+
+    /**
+     * @param workerCount size of the worker pool; when positive, the pool's workers are split
+     *                    into contiguous groups, one per shard, and each worker drains its group's
+     *                    shard before helping with the others
+     */
+    public PageFrameReduceJob(
+            CairoEngine engine,
+            MessageBus bus,
+            Rnd rnd,
+            int workerCount
     ) {
         this.engine = engine;
         this.messageBus = bus;
+        this.workerCount = workerCount;
         this.shardCount = messageBus.getPageFrameReduceShardCount();
         this.shards = new int[shardCount];
         // fill shards[] with shard indexes
@@ -118,6 +135,17 @@ public class PageFrameReduceJob implements Job, QuietCloseable {
         );
     }
 
+    /**
+     * Returns the shard bound to the worker's group. Workers are grouped contiguously, which
+     * matches the layout of worker affinity pinned to consecutive cores of each NUMA node.
+     */
+    public static int getWorkerShard(int workerId, int workerCount, int shardCount) {
+        if (workerId >= workerCount) {
+            return workerId % shardCount;
+        }
+        return (int) ((long) workerId * shardCount / workerCount);
+    }
+
     public static void reduce(
             PageFrameMemoryRecord record,
             SqlExecutionCircuitBreakerWrapper circuitBreaker,
@@ -143,7 +171,8 @@ public class PageFrameReduceJob implements Job, QuietCloseable {
                 new Rnd(
                         engine.getConfiguration().getMicrosecondClock().getTicks(),
                         engine.getConfiguration().getNanosecondClock().getTicks()
-                )
+                ),
+                workerCount
         );
     }
 
@@ -178,9 +207,27 @@ public class PageFrameReduceJob implements Job, QuietCloseable {
     @Override
     public boolean run(@NotNull WorkerContext workerContext) {
         final int carrierId = workerContext.carrierId();
+        int homeShard = -1;
+        if (workerCount > 0 && carrierId > -1) {
+            homeShard = getWorkerShard(carrierId, workerCount, shardCount);
+            if (!consumeQueue(
+                    carrierId,
+                    messageBus.getPageFrameReduceQueue(homeShard),
+                    messageBus.getPageFrameReduceSubSeq(homeShard),
+                    record,
+                    circuitBreaker,
+                    null
+            )) {
+                // the group's own shard has work, other shards are helped only when it's empty
+                return true;
+            }
+        }
         boolean useful = false;
         for (int i = 0; i < shardCount; i++) {
             final int shard = shards[i];
+            if (shard == homeShard) {
+                continue;
+            }
             useful = !consumeQueue(
                     carrierId,
                     messageBus.getPageFrameReduceQueue(shard),
@@ -271,7 +318,21 @@ public class PageFrameReduceJob implements Job, QuietCloseable {
             record.of(frameSequence.getSymbolTableSource());
             assert !frameSequence.done;
             frameSequence.getReduceStartedCounter().incrementAndGet();
-            frameSequence.getReducer().reduce(workerId, record, task, circuitBreaker, stealingFrameSequence);
+            final PageFrameSizeAdvisor frameSizeAdvisor = frameSequence.getFrameSizeAdvisor();
+            final QueryFairShare fairShare = frameSequence.getFairShare();
+            if (frameSizeAdvisor.isEnabled() || fairShare.isActive()) {
+                final long start = Os.currentTimeNanos();
+                frameSequence.getReducer().reduce(workerId, record, task, circuitBreaker, stealingFrameSequence);
+                final long reduceNanos = Os.currentTimeNanos() - start;
+                if (frameSizeAdvisor.isEnabled()) {
+                    frameSizeAdvisor.onFrameReduced(task.getFrameRowCount(), task.getFilteredRowCount(), reduceNanos);
+                }
+                if (fairShare.isActive()) {
+                    fairShare.onFrameReduced(reduceNanos);
+                }
+            } else {
+                frameSequence.getReducer().reduce(workerId, record, task, circuitBreaker, stealingFrameSequence);
+            }
         } else {
             frameSequence.cancel(cbState);
         }
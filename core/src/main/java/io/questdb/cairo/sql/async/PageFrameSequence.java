@@ -28,6 +28,7 @@ import io.questdb.MessageBus;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableToken;
 import io.questdb.cairo.sql.PageFrame;
 import io.questdb.cairo.sql.PageFrameAddressCache;
 import io.questdb.cairo.sql.PageFrameCursor;
@@ -62,14 +63,18 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
     private static final AtomicLong ID_SEQ = new AtomicLong();
     private static final long LOCAL_TASK_CURSOR = Long.MAX_VALUE;
     private static final Log LOG = LogFactory.getLog(PageFrameSequence.class);
+    private final QueryAdmissionController admissionController;
     private final AtomicInteger cancelReason = new AtomicInteger(SqlExecutionCircuitBreaker.STATE_OK);
     private final MillisecondClock clock;
+    private final QueryFairShare fairShare;
     private final LongList frameRowCounts = new LongList();
+    private final PageFrameSizeAdvisor frameSizeAdvisor;
     private final PageFrameReduceTaskFactory localTaskFactory;
     private final MessageBus messageBus;
     private final AtomicInteger reduceFinishedCounter = new AtomicInteger(0);
     private final AtomicInteger reduceStartedCounter = new AtomicInteger(0);
     private final PageFrameReducer reducer;
+    private final boolean shardAffinityEnabled;
     private final byte taskType; // PageFrameReduceTask.TYPE_*
     private final AtomicBoolean valid = new AtomicBoolean(true);
     private final WorkStealingStrategy workStealingStrategy;
@@ -99,6 +104,8 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
     private boolean uninterruptible;
     // Must be initialized from the original SQL context's circuit breaker before use.
     private SqlExecutionCircuitBreakerWrapper workStealCircuitBreaker;
+    // Class the sequence is registered with in the admission controller, or QueryWorkloadClass.NONE.
+    private byte workloadClass = QueryWorkloadClass.NONE;
 
     /**
      * Constructs a page frame sequence instance. The returned instance takes ownership of the input atom.
@@ -114,15 +121,19 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
             byte taskType
     ) {
         try {
+            this.frameSizeAdvisor = new PageFrameSizeAdvisor(configuration, taskType);
             this.atom = atom;
             this.frameAddressCache = new PageFrameAddressCache();
             this.messageBus = messageBus;
+            this.admissionController = engine.getQueryAdmissionController();
+            this.fairShare = new QueryFairShare(admissionController);
             this.reducer = reducer;
             this.clock = configuration.getMillisecondClock();
             this.localTaskFactory = localTaskFactory;
             this.workStealingStrategy = configuration.getFactoryProvider()
                     .getWorkStealingStrategy(configuration, sharedQueryWorkerCount, atom);
             this.taskType = taskType;
+            this.shardAffinityEnabled = configuration.isPageFrameReduceShardAffinityEnabled();
             this.workStealCircuitBreaker = new SqlExecutionCircuitBreakerWrapper(engine, configuration.getCircuitBreakerConfiguration());
         } catch (Throwable th) {
             Misc.free(this, th);
@@ -255,6 +266,10 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         return sqlExecutionContext.getCircuitBreaker();
     }
 
+    public QueryFairShare getFairShare() {
+        return fairShare;
+    }
+
     public int getFrameCount() {
         return frameCount;
     }
@@ -263,6 +278,10 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         return frameRowCounts.getQuick(frameIndex);
     }
 
+    public PageFrameSizeAdvisor getFrameSizeAdvisor() {
+        return frameSizeAdvisor;
+    }
+
     public long getId() {
         return id;
     }
@@ -402,7 +421,9 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         final Rnd rnd = executionContext.getAsyncRandom();
         try {
             assert frameCursor == null;
-            frameCursor = base.getPageFrameCursor(executionContext, order);
+            frameCursor = frameSizeAdvisor.isEnabled()
+                    ? getAdvisedPageFrameCursor(base, executionContext, order)
+                    : base.getPageFrameCursor(executionContext, order);
 
             // pass one to cache page addresses
             // this has to be separate pass to ensure there no cache reads
@@ -417,12 +438,18 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
             reduceFinishedCounter.set(0);
             reduceStartedCounter.set(0);
             workStealingStrategy.of(reduceStartedCounter);
-            shard = rnd.nextInt(messageBus.getPageFrameReduceShardCount());
+            shard = shardAffinityEnabled
+                    ? getTableShard(base, rnd)
+                    : rnd.nextInt(messageBus.getPageFrameReduceShardCount());
             reduceQueue = messageBus.getPageFrameReduceQueue(shard);
 
             // It is essential to init the atom after we prepared sequence for dispatch.
             // If atom is to fail, we will be releasing whatever we prepared.
             atom.init(frameCursor, executionContext);
+
+            workloadClass = executionContext.getWorkloadClass();
+            admissionController.onSequenceStarted(workloadClass);
+            fairShare.of(workloadClass);
         } catch (TableReferenceOutOfDateException e) {
             frameCursor = Misc.freeIfCloseable(frameCursor);
             throw e;
@@ -450,6 +477,16 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         // reset() must be called only if there are no tasks in progress for this page frame sequence
         assert frameCount == 0 || reduceFinishedCounter.get() == dispatchStartFrameIndex;
 
+        if (workloadClass != QueryWorkloadClass.NONE) {
+            admissionController.onSequenceFinished(workloadClass);
+            fairShare.clear();
+            workloadClass = QueryWorkloadClass.NONE;
+        }
+
+        if (frameSizeAdvisor.isEnabled()) {
+            frameSizeAdvisor.onSequenceFinished();
+        }
+
         // prepare different frame sequence using the same object instance
         frameCount = 0;
         dispatchStartFrameIndex = 0;
@@ -603,6 +640,12 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         final MPSequence reducePubSeq = messageBus.getPageFrameReducePubSeq(shard);
 
         final int collectedFrameCount = collectedFrameIndex + 1;
+        // When queries of different priority classes compete for the workers, cap the
+        // in-flight tasks to this sequence's weighted share of the queue.
+        dispatchLimit = admissionController.getDispatchLimit(workloadClass, dispatchLimit, reduceQueue.getCycle());
+        // With fair scheduling, a sequence that ran ahead of its share of the reduce time
+        // keeps a single task in flight until the competing sequences catch up.
+        dispatchLimit = fairShare.getDispatchLimit(dispatchLimit);
 
         long cursor;
         int i = dispatchStartFrameIndex;
@@ -677,6 +720,36 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         return dispatched;
     }
 
+    private PageFrameCursor getAdvisedPageFrameCursor(
+            RecordCursorFactory base,
+            SqlExecutionContext executionContext,
+            int order
+    ) throws SqlException {
+        final int minRows = executionContext.getPageFrameMinRows();
+        final int maxRows = executionContext.getPageFrameMaxRows();
+        frameSizeAdvisor.advise(base.getMetadata(), minRows, maxRows);
+        executionContext.changePageFrameSizes(frameSizeAdvisor.getAdvisedMinRows(), frameSizeAdvisor.getAdvisedMaxRows());
+        try {
+            // the page frame cursor reads the frame sizes from the context
+            return base.getPageFrameCursor(executionContext, order);
+        } finally {
+            executionContext.changePageFrameSizes(minRows, maxRows);
+        }
+    }
+
+    /**
+     * With shard affinity, frames of a table always go to the same shard, so that they're
+     * reduced by the same group of workers and their pages stay local to that group's node.
+     * Workers of the other groups steal the tasks when their own shards run empty.
+     */
+    private int getTableShard(RecordCursorFactory base, Rnd rnd) {
+        final int shardCount = messageBus.getPageFrameReduceShardCount();
+        final TableToken tableToken = base.getTableToken();
+        return tableToken != null
+                ? (tableToken.getTableId() & Integer.MAX_VALUE) % shardCount
+                : rnd.nextInt(shardCount);
+    }
+
     private void reduceLocally(boolean countOnly) {
         assert dispatchStartFrameIndex < frameCount;
 
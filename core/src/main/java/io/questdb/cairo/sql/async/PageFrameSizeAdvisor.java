@@ -0,0 +1,181 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.sql.async;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.Plannable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sizes the page frames of a {@link PageFrameSequence} so that a reduce task takes roughly
+ * {@link CairoConfiguration#getSqlPageFrameAdaptiveTaskTime()}. Enabled by
+ * {@link CairoConfiguration#isSqlPageFrameAdaptiveEnabled()}.
+ * <p>
+ * Reduce jobs report the row count, the filtered row count and the execution time of every
+ * frame they reduce. When the sequence is reset, the totals are folded into exponential moving
+ * averages of the time per row and of the filter selectivity, so the next execution of the same
+ * factory frames the table to the time budget: cheap rows (a selective filter over narrow
+ * columns) coalesce into fewer, larger frames, expensive rows split into more, smaller frames.
+ * The time per row is measured end to end, so it already accounts for the filter selectivity
+ * and the row width. Frame sizes stay within the page frame bounds of the execution context.
+ * <p>
+ * Before the first measurement, only the row width is known. Wide rows then cap the frame at
+ * the byte size of a maximum frame of a single 8-byte column, which yields more tasks to
+ * balance across the workers.
+ */
+public class PageFrameSizeAdvisor implements Plannable {
+    // EMA smoothing factor (0.3 favors recent executions)
+    private static final double ALPHA = 0.3;
+    // var-size columns count their aux entry and a nominal data word
+    private static final int VAR_SIZE_COLUMN_BYTES = 2 * Long.BYTES;
+    private final boolean enabled;
+    private final AtomicLong filteredRows = new AtomicLong();
+    private final AtomicLong reduceNanos = new AtomicLong();
+    private final AtomicLong reducedFrames = new AtomicLong();
+    private final AtomicLong reducedRows = new AtomicLong();
+    private final boolean reportsSelectivity;
+    private final long targetTaskNanos;
+    private int advisedMaxRows = -1;
+    private int advisedMinRows = -1;
+    private double avgNanosPerRow = Double.NaN;
+    private double avgSelectivity = Double.NaN;
+    private int bytesPerRow;
+    private long lastFrameCount;
+
+    public PageFrameSizeAdvisor(CairoConfiguration configuration, byte taskType) {
+        this.enabled = configuration.isSqlPageFrameAdaptiveEnabled();
+        this.targetTaskNanos = configuration.getSqlPageFrameAdaptiveTaskTime() * 1000;
+        // filter tasks report the filtered row count
+        this.reportsSelectivity = taskType == PageFrameReduceTask.TYPE_FILTER;
+    }
+
+    /**
+     * Chooses the frame size of the next execution within the given bounds, see
+     * {@link #getAdvisedMinRows()} and {@link #getAdvisedMaxRows()}.
+     */
+    public void advise(RecordMetadata metadata, int minRows, int maxRows) {
+        bytesPerRow = computeBytesPerRow(metadata);
+        if (avgNanosPerRow > 0) {
+            // both bounds are set to honour the budget even when a partition
+            // would otherwise be split across all workers
+            final double rows = targetTaskNanos / avgNanosPerRow;
+            advisedMaxRows = (int) Math.max(minRows, Math.min(maxRows, rows));
+            advisedMinRows = advisedMaxRows;
+        } else {
+            final long rows = (long) maxRows * Long.BYTES / Math.max(bytesPerRow, 1);
+            advisedMaxRows = (int) Math.max(minRows, Math.min(maxRows, rows));
+            advisedMinRows = minRows;
+        }
+    }
+
+    public int getAdvisedMaxRows() {
+        return advisedMaxRows;
+    }
+
+    public int getAdvisedMinRows() {
+        return advisedMinRows;
+    }
+
+    public double getAvgNanosPerRow() {
+        return avgNanosPerRow;
+    }
+
+    public double getAvgSelectivity() {
+        return avgSelectivity;
+    }
+
+    public int getBytesPerRow() {
+        return bytesPerRow;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Called by reduce jobs, concurrently, once per reduced frame.
+     */
+    public void onFrameReduced(long rowCount, long filteredRowCount, long nanos) {
+        reducedFrames.incrementAndGet();
+        reducedRows.addAndGet(rowCount);
+        filteredRows.addAndGet(filteredRowCount);
+        reduceNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Folds the measurements of the finished execution into the averages. Must be called by
+     * the query owner once no reduce task of the sequence is in flight.
+     */
+    public void onSequenceFinished() {
+        final long frames = reducedFrames.getAndSet(0);
+        final long rows = reducedRows.getAndSet(0);
+        final long filtered = filteredRows.getAndSet(0);
+        final long nanos = reduceNanos.getAndSet(0);
+        if (rows == 0) {
+            return;
+        }
+        lastFrameCount = frames;
+        final double nanosPerRow = (double) nanos / rows;
+        avgNanosPerRow = Double.isNaN(avgNanosPerRow) ? nanosPerRow : ALPHA * nanosPerRow + (1 - ALPHA) * avgNanosPerRow;
+        if (reportsSelectivity) {
+            final double selectivity = (double) filtered / rows;
+            avgSelectivity = Double.isNaN(avgSelectivity) ? selectivity : ALPHA * selectivity + (1 - ALPHA) * avgSelectivity;
+        }
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        if (advisedMaxRows == -1) {
+            sink.val("pending");
+            return;
+        }
+        sink.val("[rows=").val(advisedMinRows);
+        if (advisedMaxRows != advisedMinRows) {
+            sink.val("..").val(advisedMaxRows);
+        }
+        sink.val(", bytesPerRow=").val(bytesPerRow);
+        if (!Double.isNaN(avgNanosPerRow)) {
+            sink.val(", nsPerRow=").val(avgNanosPerRow);
+            sink.val(", frames=").val(lastFrameCount);
+        }
+        if (!Double.isNaN(avgSelectivity)) {
+            sink.val(", selectivity=").val(avgSelectivity);
+        }
+        sink.val(']');
+    }
+
+    private static int computeBytesPerRow(RecordMetadata metadata) {
+        int bytes = 0;
+        for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+            final int columnType = metadata.getColumnType(i);
+            bytes += ColumnType.isVarSize(columnType) ? VAR_SIZE_COLUMN_BYTES : Math.max(ColumnType.sizeOf(columnType), 0);
+        }
+        return bytes;
+    }
+}
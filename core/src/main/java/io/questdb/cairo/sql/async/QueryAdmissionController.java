@@ -0,0 +1,325 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.sql.async;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.EntryUnavailableException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Numbers;
+import io.questdb.std.Os;
+import io.questdb.std.datetime.Clock;
+import org.jetbrains.annotations.TestOnly;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Engine-wide admission control and priority scheduling for the shared query worker pool.
+ * <p>
+ * Each {@link QueryWorkloadClass} has a number of concurrency slots. A query takes a slot of
+ * its class when its cursor opens and gives it back when the cursor closes. When all slots
+ * are taken, a query whose caller can re-run it, see {@link SqlExecutionContext#isAdmissionParkable()},
+ * is parked with {@link EntryUnavailableException} and retried through the dispatcher up to the
+ * admission timeout, then it's rejected. Other queries, e.g. PGWire ones, block the calling thread
+ * for at most the admission blocking timeout and are rejected once it runs out. The thread is
+ * usually a network I/O thread, so that timeout is kept short.
+ * <p>
+ * Page frame sequences register their class for the duration of their run. When sequences of
+ * more than one class are active, {@link #getDispatchLimit(byte, int, int)} caps how many reduce
+ * tasks a sequence may keep in flight to its weighted share of the reduce queue, so that the
+ * workers serve the classes in proportion to their weights rather than in FIFO order.
+ * <p>
+ * With fair scheduling enabled, sequences also account the time spent reducing their frames
+ * on a virtual clock, in the manner of a CFS run queue. Each {@link QueryFairShare} advances
+ * by the reduce time divided by its class weight, while the engine-wide virtual time advances
+ * by the reduce time divided by the total weight of the active sequences. A sequence that got
+ * ahead of the virtual time by more than the configured slice is throttled to a single task in
+ * flight, so that the workers go to the sequences that fell behind, e.g. a short point query
+ * started next to a long scan, instead of serving the queue in FIFO order.
+ */
+public class QueryAdmissionController {
+    private static final Log LOG = LogFactory.getLog(QueryAdmissionController.class);
+    // fixed-point scale of virtual runtimes, keeps the precision of the division by weight
+    private static final long VRUNTIME_SCALE = 1024;
+    private final AtomicInteger[] activeQueries = new AtomicInteger[QueryWorkloadClass.COUNT];
+    private final AtomicInteger[] activeSequences = new AtomicInteger[QueryWorkloadClass.COUNT];
+    private final Clock clock;
+    private final CairoConfiguration configuration;
+    private final AtomicInteger fairActiveSequences = new AtomicInteger();
+    private final AtomicLong fairActiveWeight = new AtomicLong();
+    private final QueryAdmissionMetrics metrics;
+    private final AtomicLong virtualTime = new AtomicLong();
+
+    public QueryAdmissionController(CairoConfiguration configuration, QueryAdmissionMetrics metrics) {
+        this.configuration = configuration;
+        this.clock = configuration.getMicrosecondClock();
+        this.metrics = metrics;
+        for (int i = 0; i < QueryWorkloadClass.COUNT; i++) {
+            activeQueries[i] = new AtomicInteger();
+            activeSequences[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Takes a concurrency slot for the query. The caller must {@link #release(byte)} the
+     * returned class once the query is done.
+     * <p>
+     * When no slot is free, a parkable query is parked: it fails with
+     * {@link EntryUnavailableException} and the caller re-runs it later. The time the query was
+     * first parked is kept on the execution context, so that the admission timeout bounds the
+     * total wait across the attempts. Any other query polls for a slot every millisecond, up to
+     * the admission blocking timeout.
+     *
+     * @param executionContext context of the query, used to resolve the principal, to track
+     *                         the wait and to check the circuit breaker of a parked query
+     * @param hintClass        class requested with the {@code workload_class} hint, or
+     *                         {@link QueryWorkloadClass#NONE}
+     * @return the class the query was admitted to
+     * @throws EntryUnavailableException when the query is parked
+     * @throws CairoException            when no slot became free within the admission timeout or
+     *                                   the admission blocking timeout, or when the query was
+     *                                   cancelled while waiting
+     */
+    public byte acquire(SqlExecutionContext executionContext, byte hintClass) {
+        final byte workloadClass = QueryWorkloadClass.withHint(
+                QueryWorkloadClass.ofPrincipal(configuration, executionContext.getSecurityContext().getPrincipal()),
+                hintClass
+        );
+        final int maxConcurrent = configuration.getSqlWorkloadMaxConcurrent(workloadClass);
+        long waitStart = executionContext.getAdmissionWaitStart();
+        if (tryAcquire(activeQueries[workloadClass], maxConcurrent)) {
+            executionContext.setAdmissionWaitStart(Numbers.LONG_NULL);
+            metrics.onAdmitted(workloadClass, waitStart != Numbers.LONG_NULL ? clock.getTicks() - waitStart : 0);
+            return workloadClass;
+        }
+
+        final boolean parkable = executionContext.isAdmissionParkable();
+        final long now = clock.getTicks();
+        if (waitStart == Numbers.LONG_NULL) {
+            if (parkable) {
+                metrics.onQueued(workloadClass);
+            }
+            waitStart = now;
+        }
+        long waitMicros = now - waitStart;
+        try {
+            if (!parkable) {
+                for (long i = 0, n = configuration.getSqlWorkloadAdmissionBlockingTimeout(); i < n; i++) {
+                    if (!executionContext.isUninterruptible()) {
+                        executionContext.getCircuitBreaker().statefulThrowExceptionIfTripped();
+                    }
+                    Os.sleep(1);
+                    if (tryAcquire(activeQueries[workloadClass], maxConcurrent)) {
+                        metrics.onAdmitted(workloadClass, clock.getTicks() - waitStart);
+                        return workloadClass;
+                    }
+                }
+                waitMicros = clock.getTicks() - waitStart;
+                throw CairoException.nonCritical()
+                        .put("query admission rejected, no free slot [class=").put(QueryWorkloadClass.nameOf(workloadClass))
+                        .put(", maxConcurrent=").put(maxConcurrent)
+                        .put(']');
+            }
+            if (waitMicros >= configuration.getSqlWorkloadAdmissionTimeout() * 1000) {
+                throw CairoException.nonCritical()
+                        .put("query admission timed out [class=").put(QueryWorkloadClass.nameOf(workloadClass))
+                        .put(", maxConcurrent=").put(maxConcurrent)
+                        .put(", waitMicros=").put(waitMicros)
+                        .put(']');
+            }
+            if (!executionContext.isUninterruptible()) {
+                executionContext.getCircuitBreaker().statefulThrowExceptionIfTripped();
+            }
+        } catch (Throwable th) {
+            executionContext.setAdmissionWaitStart(Numbers.LONG_NULL);
+            metrics.onRejected(workloadClass, waitMicros);
+            LOG.info().$("query rejected by admission control [class=").$(QueryWorkloadClass.nameOf(workloadClass))
+                    .$(", waitMicros=").$(waitMicros)
+                    .I$();
+            throw th;
+        }
+        executionContext.setAdmissionWaitStart(waitStart);
+        throw EntryUnavailableException.instance("query admission");
+    }
+
+    /**
+     * Leaves fair scheduling, see {@link QueryFairShare#clear()}.
+     */
+    public void finishFairShare(QueryFairShare share) {
+        fairActiveWeight.addAndGet(-share.weight);
+        fairActiveSequences.decrementAndGet();
+        metrics.onSequenceFinished(share.workloadClass, clock.getTicks() - share.startMicros);
+    }
+
+    @TestOnly
+    public int getActiveQueryCount(byte workloadClass) {
+        return activeQueries[workloadClass].get();
+    }
+
+    @TestOnly
+    public int getActiveSequenceCount(byte workloadClass) {
+        return activeSequences[workloadClass].get();
+    }
+
+    /**
+     * Returns the number of reduce tasks a page frame sequence of the given class may keep
+     * in flight. When only one class has active sequences, the requested limit is returned
+     * as is, so a single-class workload is scheduled exactly as without priorities.
+     * Otherwise, each sequence gets the share of the queue proportional to its class weight.
+     *
+     * @param workloadClass class of the sequence
+     * @param dispatchLimit limit requested by the caller
+     * @param queueCapacity capacity of the reduce queue the sequence dispatches to
+     */
+    public int getDispatchLimit(byte workloadClass, int dispatchLimit, int queueCapacity) {
+        if (workloadClass == QueryWorkloadClass.NONE) {
+            return dispatchLimit;
+        }
+        long weightedTotal = 0;
+        boolean mixed = false;
+        for (byte i = 0; i < QueryWorkloadClass.COUNT; i++) {
+            final int n = activeSequences[i].get();
+            if (n > 0) {
+                weightedTotal += (long) getWeight(i) * n;
+                mixed |= i != workloadClass;
+            }
+        }
+        if (!mixed) {
+            return dispatchLimit;
+        }
+        final long share = Math.max(1, (long) queueCapacity * getWeight(workloadClass) / weightedTotal);
+        return (int) Math.min(dispatchLimit, share);
+    }
+
+    /**
+     * Returns the number of reduce tasks a fairly scheduled sequence may keep in flight.
+     * The requested limit is returned as is unless other sequences compete for the workers
+     * and this one got ahead of the virtual time by more than the slice, in which case the
+     * sequence may keep a single task in flight until the others catch up.
+     * <p>
+     * Competing sequences may be idle, e.g. while their client is slow to fetch the rows,
+     * and then they never catch up. When the lead hasn't shrunk within a slice of throttling,
+     * it is forgiven, like CFS doesn't charge a task for the time its competitors slept.
+     *
+     * @param share         fair share of the sequence
+     * @param dispatchLimit limit requested by the caller
+     */
+    public int getFairDispatchLimit(QueryFairShare share, int dispatchLimit) {
+        if (fairActiveSequences.get() < 2) {
+            return dispatchLimit;
+        }
+        final long sliceMicros = configuration.getSqlWorkloadFairSlice();
+        final long lag = share.vruntime.get() - virtualTime.get();
+        if (lag <= sliceMicros * 1000 * VRUNTIME_SCALE / share.weight) {
+            share.throttleMicros = -1;
+            return dispatchLimit;
+        }
+        final long now = clock.getTicks();
+        if (share.throttleMicros == -1) {
+            share.throttleMicros = now;
+            share.throttleLag = lag;
+        } else if (now - share.throttleMicros > sliceMicros) {
+            if (lag >= share.throttleLag) {
+                share.vruntime.addAndGet(-lag);
+                share.throttleMicros = -1;
+                return dispatchLimit;
+            }
+            share.throttleMicros = now;
+            share.throttleLag = lag;
+        }
+        metrics.onFairThrottled(share.workloadClass);
+        return 1;
+    }
+
+    @TestOnly
+    public long getVirtualTime() {
+        return virtualTime.get();
+    }
+
+    /**
+     * Accounts the time a worker spent reducing a frame of the sequence.
+     *
+     * @param share       fair share of the sequence
+     * @param reduceNanos reduce time in nanoseconds
+     */
+    public void onFrameReduced(QueryFairShare share, long reduceNanos) {
+        final long scaled = reduceNanos * VRUNTIME_SCALE;
+        share.vruntime.addAndGet(scaled / share.weight);
+        virtualTime.addAndGet(scaled / Math.max(1, fairActiveWeight.get()));
+    }
+
+    public void onSequenceFinished(byte workloadClass) {
+        activeSequences[workloadClass].decrementAndGet();
+    }
+
+    public void onSequenceStarted(byte workloadClass) {
+        activeSequences[workloadClass].incrementAndGet();
+    }
+
+    public void release(byte workloadClass) {
+        activeQueries[workloadClass].decrementAndGet();
+    }
+
+    /**
+     * Joins fair scheduling, see {@link QueryFairShare#of(byte)}. The sequence starts at the
+     * current virtual time, so it neither pays for the time it wasn't running nor gets
+     * credited for it.
+     */
+    public void startFairShare(QueryFairShare share, byte workloadClass) {
+        if (workloadClass == QueryWorkloadClass.NONE || !configuration.isSqlWorkloadFairSchedulingEnabled()) {
+            return;
+        }
+        share.workloadClass = workloadClass;
+        share.weight = getWeight(workloadClass);
+        share.startMicros = clock.getTicks();
+        share.throttleMicros = -1;
+        share.vruntime.set(virtualTime.get());
+        fairActiveWeight.addAndGet(share.weight);
+        fairActiveSequences.incrementAndGet();
+    }
+
+    private static boolean tryAcquire(AtomicInteger active, int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            active.incrementAndGet();
+            return true;
+        }
+        while (true) {
+            final int n = active.get();
+            if (n >= maxConcurrent) {
+                return false;
+            }
+            if (active.compareAndSet(n, n + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private int getWeight(byte workloadClass) {
+        return Math.max(1, configuration.getSqlWorkloadWeight(workloadClass));
+    }
+}
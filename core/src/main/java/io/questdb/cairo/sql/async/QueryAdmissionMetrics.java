@@ -0,0 +1,104 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.sql.async;
+
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.CounterWithOneLabel;
+import io.questdb.metrics.CounterWithTwoLabels;
+import io.questdb.metrics.MetricsRegistry;
+import io.questdb.std.Mutable;
+
+public class QueryAdmissionMetrics implements Mutable {
+    private static final String LABEL_CLASS = "class";
+    private static final String LABEL_LATENCY = "latency";
+    // upper bounds of the sequence latency buckets, the last bucket is unbounded
+    private static final long[] LATENCY_BUCKET_MICROS = {1_000, 10_000, 100_000, 1_000_000, 10_000_000};
+    private static final CharSequence[] LATENCY_BUCKET_NAMES = {"1ms", "10ms", "100ms", "1s", "10s", "inf"};
+    private final CounterWithOneLabel admittedCounter;
+    private final CounterWithOneLabel fairThrottledCounter;
+    private final CounterWithOneLabel queuedCounter;
+    private final CounterWithOneLabel rejectedCounter;
+    private final CounterWithTwoLabels sequenceLatencyCounter;
+    private final Counter waitMicrosCounter;
+
+    public QueryAdmissionMetrics(MetricsRegistry metricsRegistry) {
+        this.admittedCounter = metricsRegistry.newCounter("query_admission_admitted", LABEL_CLASS, QueryWorkloadClass.names());
+        this.fairThrottledCounter = metricsRegistry.newCounter("query_fair_throttled", LABEL_CLASS, QueryWorkloadClass.names());
+        this.queuedCounter = metricsRegistry.newCounter("query_admission_queued", LABEL_CLASS, QueryWorkloadClass.names());
+        this.rejectedCounter = metricsRegistry.newCounter("query_admission_rejected", LABEL_CLASS, QueryWorkloadClass.names());
+        this.sequenceLatencyCounter = metricsRegistry.newCounter(
+                "query_fair_sequence_latency",
+                LABEL_CLASS,
+                QueryWorkloadClass.names(),
+                LABEL_LATENCY,
+                LATENCY_BUCKET_NAMES
+        );
+        this.waitMicrosCounter = metricsRegistry.newCounter("query_admission_wait_micros");
+    }
+
+    @Override
+    public void clear() {
+        waitMicrosCounter.reset();
+    }
+
+    public long getWaitMicros() {
+        return waitMicrosCounter.getValue();
+    }
+
+    public void onAdmitted(byte workloadClass, long waitMicros) {
+        admittedCounter.inc(workloadClass);
+        if (waitMicros > 0) {
+            waitMicrosCounter.add(waitMicros);
+        }
+    }
+
+    /**
+     * Counts a dispatch attempt of a page frame sequence that ran ahead of its fair share.
+     */
+    public void onFairThrottled(byte workloadClass) {
+        fairThrottledCounter.inc(workloadClass);
+    }
+
+    public void onQueued(byte workloadClass) {
+        queuedCounter.inc(workloadClass);
+    }
+
+    public void onRejected(byte workloadClass, long waitMicros) {
+        rejectedCounter.inc(workloadClass);
+        waitMicrosCounter.add(waitMicros);
+    }
+
+    /**
+     * Records how long a fairly scheduled page frame sequence ran, from its start to its
+     * reset, in the latency bucket of its class.
+     */
+    public void onSequenceFinished(byte workloadClass, long latencyMicros) {
+        short bucket = 0;
+        while (bucket < LATENCY_BUCKET_MICROS.length && latencyMicros > LATENCY_BUCKET_MICROS[bucket]) {
+            bucket++;
+        }
+        sequenceLatencyCounter.inc(workloadClass, bucket);
+    }
+}
@@ -0,0 +1,90 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.sql.async;
+
+import io.questdb.std.Mutable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Share of the shared query workers held by a page frame sequence under fair scheduling.
+ * <p>
+ * The share tracks the sequence's virtual runtime: the reduce time spent on its frames,
+ * divided by the weight of its workload class. Workers add to it concurrently as they finish
+ * frames; {@link QueryAdmissionController} compares it against the engine-wide virtual clock
+ * to decide how many tasks the sequence may keep in flight.
+ */
+public class QueryFairShare implements Mutable {
+    final AtomicLong vruntime = new AtomicLong();
+    private final QueryAdmissionController admissionController;
+    long startMicros;
+    // lag and time at which the current throttling started, only accessed by the owner thread
+    long throttleLag;
+    long throttleMicros = -1;
+    int weight;
+    byte workloadClass = QueryWorkloadClass.NONE;
+
+    public QueryFairShare(QueryAdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    @Override
+    public void clear() {
+        if (workloadClass != QueryWorkloadClass.NONE) {
+            admissionController.finishFairShare(this);
+            workloadClass = QueryWorkloadClass.NONE;
+        }
+    }
+
+    /**
+     * Returns the number of reduce tasks the sequence may keep in flight, see
+     * {@link QueryAdmissionController#getFairDispatchLimit(QueryFairShare, int)}.
+     */
+    public int getDispatchLimit(int dispatchLimit) {
+        return workloadClass != QueryWorkloadClass.NONE
+                ? admissionController.getFairDispatchLimit(this, dispatchLimit)
+                : dispatchLimit;
+    }
+
+    public long getVruntime() {
+        return vruntime.get();
+    }
+
+    public boolean isActive() {
+        return workloadClass != QueryWorkloadClass.NONE;
+    }
+
+    /**
+     * Joins fair scheduling with the given class. Does nothing when fair scheduling is
+     * disabled or the sequence has no class, in which case {@link #isActive()} stays false.
+     */
+    public void of(byte workloadClass) {
+        admissionController.startFairShare(this, workloadClass);
+    }
+
+    public void onFrameReduced(long reduceNanos) {
+        admissionController.onFrameReduced(this, reduceNanos);
+    }
+}
@@ -0,0 +1,105 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.sql.async;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.std.CharSequenceHashSet;
+import io.questdb.std.Chars;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Priority classes of the shared query worker pool. A lower value means a higher
+ * priority. The class of a query is selected by its principal (see
+ * {@link CairoConfiguration#getSqlWorkloadUsers(byte)}) and may be lowered, but
+ * never raised, with the {@code workload_class} SQL hint.
+ */
+public final class QueryWorkloadClass {
+    public static final byte HIGH = 0;
+    public static final byte NORMAL = 1;
+    public static final byte LOW = 2;
+    public static final byte COUNT = LOW + 1;
+    // Used for "not set": no hint given, or no admission slot held.
+    public static final byte NONE = -1;
+    private static final String[] NAMES = {"high", "normal", "low"};
+
+    private QueryWorkloadClass() {
+    }
+
+    public static int defaultWeight(byte workloadClass) {
+        return switch (workloadClass) {
+            case HIGH -> 8;
+            case LOW -> 1;
+            default -> 4;
+        };
+    }
+
+    public static String nameOf(byte workloadClass) {
+        return NAMES[workloadClass];
+    }
+
+    public static String[] names() {
+        return NAMES;
+    }
+
+    /**
+     * Parses a class name, case-insensitive.
+     *
+     * @return the class, or {@link #NONE} when the name is null or unknown
+     */
+    public static byte of(@Nullable CharSequence name) {
+        if (name != null) {
+            for (byte i = 0; i < COUNT; i++) {
+                if (Chars.equalsIgnoreCase(NAMES[i], name)) {
+                    return i;
+                }
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns the class configured for the given principal. Principals that are not
+     * listed for any class belong to {@link #NORMAL}.
+     */
+    public static byte ofPrincipal(CairoConfiguration configuration, @Nullable CharSequence principal) {
+        if (principal != null) {
+            for (byte i = 0; i < COUNT; i++) {
+                final CharSequenceHashSet users = configuration.getSqlWorkloadUsers(i);
+                if (users != null && users.contains(principal)) {
+                    return i;
+                }
+            }
+        }
+        return NORMAL;
+    }
+
+    /**
+     * Applies a SQL hint on top of the principal's class. The hint can only demote
+     * the query, so a user can't jump the queue by annotating their SQL.
+     */
+    public static byte withHint(byte principalClass, byte hintClass) {
+        return hintClass > principalClass ? hintClass : principalClass;
+    }
+}
@@ -150,6 +150,8 @@ public class UnorderedPageFrameReduceJob implements Job, QuietCloseable {
                             if (cbState == SqlExecutionCircuitBreaker.STATE_OK) {
                                 record.of(frameSequence.getSymbolTableSource());
                                 frameSequence.getReduceStartedCounter().incrementAndGet();
+                                final QueryFairShare fairShare = frameSequence.getFairShare();
+                                final long start = fairShare.isActive() ? Os.currentTimeNanos() : 0;
                                 frameSequence.getReducer().reduce(
                                         workerId,
                                         record,
@@ -158,6 +160,9 @@ public class UnorderedPageFrameReduceJob implements Job, QuietCloseable {
                                         frameSequence,
                                         stealingFrameSequence
                                 );
+                                if (fairShare.isActive()) {
+                                    fairShare.onFrameReduced(Os.currentTimeNanos() - start);
+                                }
                             } else {
                                 frameSequence.cancel(cbState);
                             }
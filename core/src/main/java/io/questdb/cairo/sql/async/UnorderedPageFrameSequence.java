@@ -70,11 +70,13 @@ import java.util.concurrent.atomic.AtomicLong;
 public class UnorderedPageFrameSequence<T extends StatefulAtom> implements Closeable {
     private static final AtomicLong ID_SEQ = new AtomicLong();
     private static final Log LOG = LogFactory.getLog(UnorderedPageFrameSequence.class);
+    private final QueryAdmissionController admissionController;
     private T atom;
     private final AtomicInteger cancelReason = new AtomicInteger(SqlExecutionCircuitBreaker.STATE_OK);
     private final MillisecondClock clock;
     private final SOUnboundedCountDownLatch doneLatch = new SOUnboundedCountDownLatch();
     private final StringSink errorMsg = new StringSink();
+    private final QueryFairShare fairShare;
     private PageFrameAddressCache frameAddressCache;
     private final LongList frameRowCounts = new LongList();
     private final AtomicBoolean isValid = new AtomicBoolean(true);
@@ -106,6 +108,8 @@ public class UnorderedPageFrameSequence<T extends StatefulAtom> implements Close
     private SqlExecutionContext sqlExecutionContext;
     private long startTime;
     private SqlExecutionCircuitBreakerWrapper workStealCircuitBreaker;
+    // Class the sequence is registered with in the admission controller, or QueryWorkloadClass.NONE.
+    private byte workloadClass = QueryWorkloadClass.NONE;
 
     public UnorderedPageFrameSequence(
             CairoEngine engine,
@@ -119,6 +123,8 @@ public class UnorderedPageFrameSequence<T extends StatefulAtom> implements Close
             this.atom = atom;
             this.frameAddressCache = new PageFrameAddressCache();
             this.reducer = reducer;
+            this.admissionController = engine.getQueryAdmissionController();
+            this.fairShare = new QueryFairShare(admissionController);
             this.clock = configuration.getMillisecondClock();
             this.workStealingStrategy = configuration.getFactoryProvider()
                     .getWorkStealingStrategy(configuration, sharedQueryWorkerCount, atom);
@@ -210,6 +216,9 @@ public class UnorderedPageFrameSequence<T extends StatefulAtom> implements Close
 
         int queued = 0;
         int localCount = 0;
+        // When queries of different priority classes compete for the workers, cap the
+        // in-flight tasks to this sequence's weighted share of the queue.
+        final int dispatchLimit = admissionController.getDispatchLimit(workloadClass, Integer.MAX_VALUE, reduceQueue.getCycle());
 
         // Phase 1: Dispatch all frames.
         // The try/finally ensures queuedCount is set even if reduceLocally() throws,
@@ -217,7 +226,11 @@ public class UnorderedPageFrameSequence<T extends StatefulAtom> implements Close
         try {
             for (int i = 0; i < frameCount; i++) {
                 while (true) {
-                    long cursor = reducePubSeq.next();
+                    // The latch count goes down from zero as the workers finish, so the sum
+                    // is the number of tasks still in flight. Treat the dispatch limit as
+                    // a full queue. With fair scheduling, the limit drops to a single task
+                    // while the sequence is ahead of its share of the reduce time.
+                    long cursor = queued + doneLatch.getCount() < fairShare.getDispatchLimit(dispatchLimit) ? reducePubSeq.next() : -1;
                     if (cursor > -1) {
                         reduceQueue.get(cursor).of(this, i);
                         reducePubSeq.done(cursor);
@@ -304,6 +317,10 @@ public class UnorderedPageFrameSequence<T extends StatefulAtom> implements Close
         return doneLatch;
     }
 
+    public QueryFairShare getFairShare() {
+        return fairShare;
+    }
+
     public int getFrameCount() {
         return frameCount;
     }
@@ -397,6 +414,10 @@ public class UnorderedPageFrameSequence<T extends StatefulAtom> implements Close
             isOutOfMemory = false;
 
             atom.init(frameCursor, executionContext);
+
+            workloadClass = executionContext.getWorkloadClass();
+            admissionController.onSequenceStarted(workloadClass);
+            fairShare.of(workloadClass);
         } catch (TableReferenceOutOfDateException e) {
             frameCursor = Misc.freeIfCloseable(frameCursor);
             throw e;
@@ -419,6 +440,12 @@ public class UnorderedPageFrameSequence<T extends StatefulAtom> implements Close
         // reset() must be called only if there are no tasks in progress for this page frame sequence
         assert queuedCount == 0 || doneLatch.done(queuedCount);
 
+        if (workloadClass != QueryWorkloadClass.NONE) {
+            admissionController.onSequenceFinished(workloadClass);
+            fairShare.clear();
+            workloadClass = QueryWorkloadClass.NONE;
+        }
+
         frameCount = 0;
         queuedCount = 0;
         isReadyToDispatch = false;
@@ -521,7 +548,13 @@ public class UnorderedPageFrameSequence<T extends StatefulAtom> implements Close
             if (isActive()) {
                 localRecord.of(getSymbolTableSource());
                 reduceStartedCounter.incrementAndGet();
-                reducer.reduce(-1, localRecord, frameIndex, workStealCircuitBreaker, this, this);
+                if (fairShare.isActive()) {
+                    final long start = Os.currentTimeNanos();
+                    reducer.reduce(-1, localRecord, frameIndex, workStealCircuitBreaker, this, this);
+                    fairShare.onFrameReduced(Os.currentTimeNanos() - start);
+                } else {
+                    reducer.reduce(-1, localRecord, frameIndex, workStealCircuitBreaker, this, this);
+                }
             }
         } catch (Throwable th) {
             LOG.error()
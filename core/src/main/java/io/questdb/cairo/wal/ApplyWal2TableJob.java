@@ -651,6 +651,10 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
 
                 if (initialSeqTxn < writer.getSeqTxn()) {
                     engine.notifyMatViewBaseTableCommit(mvRefreshTask, writer.getSeqTxn());
+                    if (tableToken.isLiveView()) {
+                        // wakes the connections that push this view's changes to their clients
+                        engine.getLiveViewSubscriberRegistry().notifyCommitted(tableToken);
+                    }
                 }
             } catch (Throwable th) {
                 // We could have been applying multiple txns, and we failed somewhere in the middle. The writer will
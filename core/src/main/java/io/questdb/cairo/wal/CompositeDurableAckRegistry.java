@@ -0,0 +1,58 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.wal;
+
+import io.questdb.cairo.TableToken;
+
+/**
+ * Combines two enabled {@link DurableAckRegistry} instances, e.g. WAL group commit and WAL
+ * shipping. A transaction is reported durable once both of them report it, so turning on a
+ * second durability mechanism never weakens the guarantee of the first one.
+ */
+public final class CompositeDurableAckRegistry implements DurableAckRegistry {
+    private final DurableAckRegistry first;
+    private final DurableAckRegistry second;
+
+    public CompositeDurableAckRegistry(DurableAckRegistry first, DurableAckRegistry second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public long getDurablyUploadedSeqTxn(CharSequence tableDirName) {
+        return Math.min(first.getDurablyUploadedSeqTxn(tableDirName), second.getDurablyUploadedSeqTxn(tableDirName));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void onTableDropped(TableToken tableToken) {
+        first.onTableDropped(tableToken);
+        second.onTableDropped(tableToken);
+    }
+}
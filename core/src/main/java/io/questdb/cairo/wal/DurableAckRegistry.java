@@ -34,7 +34,8 @@ import io.questdb.cairo.TableToken;
  * The OSS server ships a no-op implementation ({@link DefaultDurableAckRegistry})
  * that reports nothing as durable; enterprise installations with primary
  * replication enabled install a real implementation backed by the upload
- * pipeline.
+ * pipeline. With WAL group commit enabled, {@link WalGroupCommitJob} serves as
+ * the registry and reports a txn as durable once it is synced to local disk.
  */
 public interface DurableAckRegistry {
 
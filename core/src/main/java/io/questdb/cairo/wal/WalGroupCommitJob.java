@@ -0,0 +1,213 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.wal;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableToken;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.ConcurrentHashMap;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.LongList;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import io.questdb.std.str.Path;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Local group commit for WAL tables, enabled by {@link CairoConfiguration#isWalGroupCommitEnabled()}.
+ * <p>
+ * WAL writers and table sequencers skip their per-commit sync and report every committed
+ * seqTxn to {@link #onTxnCommitted(TableToken, long)}. The job then syncs the file systems
+ * holding the db root and the configured volumes with syncfs(2) once per
+ * {@link CairoConfiguration#getWalGroupCommitInterval()}, or sooner when
+ * {@link CairoConfiguration#getWalGroupCommitMaxPendingTxns()} commits are waiting, so a
+ * single sync covers the commits of all tables made in the meantime. Once every sync
+ * succeeds, the seqTxns committed before it are published as durable.
+ * <p>
+ * syncfs(2) is Linux only. Where it's not available, the engine does not start the job and
+ * WAL writers and sequencers keep syncing each commit, see {@link #isSyncDeferred(CairoConfiguration)}.
+ * <p>
+ * The job doubles as the engine's {@link DurableAckRegistry}, which lets QWP send durable
+ * acks on a single instance, with no object store involved.
+ */
+public final class WalGroupCommitJob extends SynchronizedJob implements DurableAckRegistry, QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(WalGroupCommitJob.class);
+    private static final Function<CharSequence, TableTxns> NEW_TABLE_TXNS = dirName -> new TableTxns();
+    private final MillisecondClock clock;
+    private final FilesFacade ff;
+    private final long interval;
+    private final int maxPendingTxns;
+    private final AtomicLong pendingTxns = new AtomicLong();
+    // directory fds of the db root and the volumes, one per syncfs() call
+    private final LongList syncFds = new LongList();
+    private final ObjList<TableTxns> syncTables = new ObjList<>();
+    private final LongList syncTxns = new LongList();
+    // keyed by table dir name
+    private final ConcurrentHashMap<TableTxns> tables = new ConcurrentHashMap<>();
+    private long lastSyncMs;
+
+    public WalGroupCommitJob(CairoConfiguration configuration) {
+        this.clock = configuration.getMillisecondClock();
+        this.ff = configuration.getFilesFacade();
+        if (!ff.isSyncFsSupported()) {
+            // sync(2) would flush every file system on the host, so it's no substitute
+            throw CairoException.nonCritical().put("WAL group commit requires syncfs(), which is not available [key=cairo.wal.group.commit.enabled]");
+        }
+        this.interval = configuration.getWalGroupCommitInterval();
+        this.maxPendingTxns = configuration.getWalGroupCommitMaxPendingTxns();
+        this.lastSyncMs = clock.getTicks();
+        try (Path path = new Path()) {
+            openSyncFd(path.of(configuration.getDbRoot()));
+            configuration.getVolumeDefinitions().forEach((alias, volumeRoot) -> openSyncFd(path.of(volumeRoot)));
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    /**
+     * Returns true when WAL writers and sequencers leave syncing their files to the group
+     * commit job, i.e. when group commit is enabled and syncfs() is available. Otherwise,
+     * they sync each commit themselves.
+     */
+    public static boolean isSyncDeferred(CairoConfiguration configuration) {
+        return configuration.isWalGroupCommitEnabled() && configuration.getFilesFacade().isSyncFsSupported();
+    }
+
+    @Override
+    public void close() {
+        for (int i = 0, n = syncFds.size(); i < n; i++) {
+            ff.close(syncFds.getQuick(i));
+        }
+        syncFds.clear();
+    }
+
+    @Override
+    public long getDurablyUploadedSeqTxn(CharSequence tableDirName) {
+        final TableTxns txns = tables.get(tableDirName);
+        return txns != null ? txns.durableTxn : -1;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void onTableDropped(TableToken tableToken) {
+        tables.remove(tableToken.getDirName());
+    }
+
+    /**
+     * Records a seqTxn committed to the table's WAL. Must be called after the transaction's
+     * files are written, so that the next sync covers them.
+     */
+    public void onTxnCommitted(TableToken tableToken, long seqTxn) {
+        TableTxns txns = tables.get(tableToken.getDirName());
+        if (txns == null) {
+            txns = tables.computeIfAbsent(tableToken.getDirName(), NEW_TABLE_TXNS);
+        }
+        txns.committedTxn.accumulateAndGet(seqTxn, Math::max);
+        pendingTxns.incrementAndGet();
+    }
+
+    /**
+     * Syncs the file system if there are commits waiting, regardless of the interval,
+     * and publishes them as durable.
+     *
+     * @return true if there was anything to sync
+     */
+    public boolean sync() {
+        final long pending = pendingTxns.getAndSet(0);
+        if (pending == 0) {
+            return false;
+        }
+        // Commits recorded from here on bump the pending count again, so they're picked up
+        // by the next run even when this snapshot already includes their seqTxn.
+        syncTables.clear();
+        syncTxns.clear();
+        for (TableTxns txns : tables.values()) {
+            final long committedTxn = txns.committedTxn.get();
+            if (committedTxn > txns.durableTxn) {
+                syncTables.add(txns);
+                syncTxns.add(committedTxn);
+            }
+        }
+        if (syncTables.size() == 0) {
+            return false;
+        }
+
+        for (int i = 0, n = syncFds.size(); i < n; i++) {
+            final long fd = syncFds.getQuick(i);
+            if (ff.syncfs(fd) != 0) {
+                // keep the commits pending, the next run retries
+                pendingTxns.addAndGet(pending);
+                syncTables.clear();
+                LOG.error().$("could not sync WAL group commit [errno=").$(ff.errno()).$(", fd=").$(fd).$(", tables=").$(syncTxns.size()).I$();
+                return false;
+            }
+        }
+        for (int i = 0, n = syncTables.size(); i < n; i++) {
+            syncTables.getQuick(i).durableTxn = syncTxns.getQuick(i);
+        }
+        syncTables.clear();
+        LOG.debug().$("synced WAL group commit [tables=").$(syncTxns.size()).$(", txns=").$(pending).I$();
+        return true;
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long pending = pendingTxns.get();
+        if (pending == 0) {
+            return false;
+        }
+        final long now = clock.getTicks();
+        if (pending >= maxPendingTxns || now - lastSyncMs >= interval) {
+            lastSyncMs = now;
+            return sync();
+        }
+        return false;
+    }
+
+    private void openSyncFd(Path path) {
+        final long fd = ff.openRO(path.$());
+        if (fd < 0) {
+            throw CairoException.critical(ff.errno()).put("could not open directory for WAL group commit [path=").put(path).put(']');
+        }
+        syncFds.add(fd);
+    }
+
+    private static class TableTxns {
+        private final AtomicLong committedTxn = new AtomicLong(-1);
+        // only written by the job under the SynchronizedJob lock
+        private volatile long durableTxn = -1;
+    }
+}
@@ -35,8 +35,12 @@ public class WalMetrics implements Mutable {
     private final Counter applyPhysicallyWrittenRowsCounter;
     private final LongGauge applyRowsWriteRateGauge;
     private final Counter applyRowsWrittenCounter;
+    private final Counter replicaDownloadedSegmentsCounter;
+    private final LongGauge replicaLagTxnsGauge;
     private final Counter rowsWrittenCounter;
     private final LongGauge seqTxnGauge;
+    private final Counter shippedSegmentsCounter;
+    private final Counter shippedTxnsCounter;
     private final AtomicLong totalRowsWritten = new AtomicLong();
     private final AtomicLong totalRowsWrittenTotalTime = new AtomicLong();
     private final LongGauge writerTxnGauge;
@@ -48,6 +52,10 @@ public class WalMetrics implements Mutable {
         this.rowsWrittenCounter = metricsRegistry.newCounter("wal_written_rows");
         this.seqTxnGauge = metricsRegistry.newAtomicLongGauge("wal_apply_seq_txn");
         this.writerTxnGauge = metricsRegistry.newAtomicLongGauge("wal_apply_writer_txn");
+        this.shippedSegmentsCounter = metricsRegistry.newCounter("wal_shipping_uploaded_segments");
+        this.shippedTxnsCounter = metricsRegistry.newCounter("wal_shipping_uploaded_txns");
+        this.replicaDownloadedSegmentsCounter = metricsRegistry.newCounter("wal_replica_downloaded_segments");
+        this.replicaLagTxnsGauge = metricsRegistry.newLongGauge("wal_replica_lag_txns");
     }
 
     public void addApplyRowsWritten(long rows, long physicallyWrittenRows, long timeMicros) {
@@ -59,6 +67,10 @@ public class WalMetrics implements Mutable {
         applyRowsWriteRateGauge.setValue(rowsAppendRate);
     }
 
+    public void addReplicaDownloadedSegment() {
+        replicaDownloadedSegmentsCounter.inc();
+    }
+
     public void addRowsWritten(long txnRowCount) {
         rowsWrittenCounter.add(txnRowCount);
     }
@@ -67,6 +79,14 @@ public class WalMetrics implements Mutable {
         seqTxnGauge.add(txnDelta);
     }
 
+    public void addShippedSegment() {
+        shippedSegmentsCounter.inc();
+    }
+
+    public void addShippedTxns(long txnCount) {
+        shippedTxnsCounter.add(txnCount);
+    }
+
     public void addWriterTxn(long txnDelta) {
         writerTxnGauge.add(txnDelta);
     }
@@ -76,10 +96,22 @@ public class WalMetrics implements Mutable {
         applyPhysicallyWrittenRowsCounter.reset();
         applyRowsWriteRateGauge.setValue(0);
         applyRowsWrittenCounter.reset();
+        replicaDownloadedSegmentsCounter.reset();
+        replicaLagTxnsGauge.setValue(0);
         rowsWrittenCounter.reset();
         seqTxnGauge.setValue(0);
+        shippedSegmentsCounter.reset();
+        shippedTxnsCounter.reset();
         totalRowsWritten.set(0);
         totalRowsWrittenTotalTime.set(0);
         writerTxnGauge.setValue(0);
     }
+
+    /**
+     * Sets the number of shipped transactions, summed over all tables, that the replica
+     * has not registered with its sequencers yet.
+     */
+    public void setReplicaLagTxns(long lagTxns) {
+        replicaLagTxnsGauge.setValue(lagTxns);
+    }
 }
@@ -40,6 +40,7 @@ import io.questdb.cairo.GeoHashes;
 import io.questdb.cairo.IndexType;
 import io.questdb.cairo.PartitionBy;
 import io.questdb.cairo.SecurityContext;
+import io.questdb.cairo.SharedSymbolCache;
 import io.questdb.cairo.SymbolMapReader;
 import io.questdb.cairo.SymbolMapReaderImpl;
 import io.questdb.cairo.TableToken;
@@ -138,6 +139,7 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
     private final BoolList symbolMapNullFlagsChanged = new BoolList();
     private final ObjList<SymbolMapReader> symbolMapReaders = new ObjList<>();
     private final ObjList<DirectCharSequenceIntHashMap> symbolMaps = new ObjList<>();
+    private final LongList symbolTableNameTxns = new LongList();
     private final Telemetry<TelemetryWalTask> telemetryWal;
     private final TimestampDriver timestampDriver;
     private final int timestampIndex;
@@ -162,6 +164,9 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
     private long lastTxnMaxTimestamp = -1;
     private byte lastTxnType = WalTxnType.DATA;
     private long segmentRowCount = -1;
+    private SharedSymbolCache sharedSymbolCache;
+    // truncate version of the table when symbol map readers were last (re)configured
+    private long symbolTruncateVersion;
     private long totalSegmentsRowCount;
     private long totalSegmentsSize;
     private TxReader txReader;
@@ -337,7 +342,8 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
                 WAL_DEFAULT_LAST_PERIOD_HI,
                 0,
                 0,
-                WAL_DEDUP_MODE_DEFAULT
+                WAL_DEDUP_MODE_DEFAULT,
+                null
         );
     }
 
@@ -362,7 +368,8 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
                 lastPeriodHi,
                 lastReplaceRangeLowTs,
                 lastReplaceRangeHiTs,
-                WAL_DEDUP_MODE_REPLACE_RANGE
+                WAL_DEDUP_MODE_REPLACE_RANGE,
+                null
         );
     }
 
@@ -381,7 +388,8 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
                 WAL_DEFAULT_LAST_PERIOD_HI,
                 0,
                 0,
-                WAL_DEDUP_MODE_DEFAULT
+                WAL_DEDUP_MODE_DEFAULT,
+                null
         );
     }
 
@@ -415,10 +423,38 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
                 WAL_DEFAULT_LAST_PERIOD_HI,
                 lowTs,
                 hiTs,
-                WAL_DEDUP_MODE_REPLACE_RANGE
+                WAL_DEDUP_MODE_REPLACE_RANGE,
+                null
         );
     }
 
+    /**
+     * Writes the pending rows as a transaction of the current segment, like {@link #commit()},
+     * but appends it to the given batch instead of committing it to the sequencer. The batch is
+     * committed with {@link TableSequencerAPI#nextTxns(TableToken, long, LongList)}, so that the
+     * transactions of several writers become visible at once. The writer is left distressed, so
+     * that it is discarded on close rather than returned to the pool, whether the batch is
+     * committed or not.
+     *
+     * @param txnBatch receives the transaction, see {@link io.questdb.cairo.wal.seq.TableTransactionLogFile#BATCH_ENTRY_SIZE}
+     * @return the structure version the transaction is written with
+     */
+    public long commitToBatch(LongList txnBatch) {
+        final long structureVersion = getColumnStructureVersion();
+        commit0(
+                WalTxnType.DATA,
+                WAL_DEFAULT_BASE_TABLE_TXN,
+                WAL_DEFAULT_LAST_REFRESH_TIMESTAMP,
+                WAL_DEFAULT_LAST_PERIOD_HI,
+                0,
+                0,
+                WAL_DEDUP_MODE_DEFAULT,
+                txnBatch
+        );
+        distressed = true;
+        return structureVersion;
+    }
+
     public void commitWithParams(long replaceRangeLowTs, long replaceRangeHiTs, byte dedupMode) {
         commit0(
                 WalTxnType.DATA,
@@ -427,7 +463,8 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
                 WAL_DEFAULT_LAST_PERIOD_HI,
                 replaceRangeLowTs,
                 replaceRangeHiTs,
-                dedupMode
+                dedupMode,
+                null
         );
     }
 
@@ -675,6 +712,14 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
         rowValueIsNotNull.setQuick(columnIndex, lastWrittenRow);
     }
 
+    /**
+     * Binds the engine-wide symbol cache consulted before the symbol map files when
+     * resolving UTF-8 symbol values. A disabled cache is ignored.
+     */
+    public void setSharedSymbolCache(@Nullable SharedSymbolCache sharedSymbolCache) {
+        this.sharedSymbolCache = sharedSymbolCache != null && sharedSymbolCache.isEnabled() ? sharedSymbolCache : null;
+    }
+
     /**
      * Validates that a designated timestamp value is within allowed bounds.
      * Used by columnar appender to match the validation in {@link #newRow(long)}.
@@ -1024,7 +1069,8 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
             long lastPeriodHi,
             long replaceRangeLowTs,
             long replaceRangeHiTs,
-            byte dedupMode
+            byte dedupMode,
+            @Nullable LongList txnBatch
     ) {
         checkDistressed();
         throwIfInColumnarWrite("commit");
@@ -1065,7 +1111,19 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
                 );
                 // flush disk before getting next txn
                 syncIfRequired();
-                final long seqTxn = getSequencerTxn();
+                final long seqTxn;
+                if (txnBatch == null) {
+                    seqTxn = getSequencerTxn();
+                } else {
+                    // the caller commits the batch to the sequencer
+                    txnBatch.add(walId);
+                    txnBatch.add(segmentId);
+                    txnBatch.add(lastSegmentTxn);
+                    txnBatch.add(txnMinTimestamp);
+                    txnBatch.add(txnMaxTimestamp);
+                    txnBatch.add(txnRowCount);
+                    seqTxn = NO_TXN;
+                }
                 if (walTelemetryEnabled) {
                     final long minTs = txnRowCount > 0 ? txnMinTimestamp : Numbers.LONG_NULL;
                     final long maxTs = txnRowCount > 0 ? txnMaxTimestamp : Numbers.LONG_NULL;
@@ -1101,7 +1159,7 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
                 mayRollSegmentOnNextRow();
                 metrics.walMetrics().addRowsWritten(txnRowCount);
                 // Track WAL commit for tables() function
-                if (recentWriteTracker != null) {
+                if (recentWriteTracker != null && txnBatch == null) {
                     recentWriteTracker.recordWalWrite(
                             tableToken,
                             seqTxn,
@@ -1149,6 +1207,7 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
 
     private void configureEmptySymbol(int columnWriterIndex) {
         symbolMapReaders.extendAndSet(columnWriterIndex, EmptySymbolMapReader.INSTANCE);
+        symbolTableNameTxns.extendAndSet(columnWriterIndex, COLUMN_NAME_TXN_NONE);
         initialSymbolCounts.extendAndSet(columnWriterIndex, 0);
         localSymbolIds.extendAndSet(columnWriterIndex, 0);
         symbolMapNullFlags.extendAndSet(columnWriterIndex, false);
@@ -1244,6 +1303,7 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
         );
 
         symbolMapReaders.extendAndSet(columnWriterIndex, symbolMapReader);
+        symbolTableNameTxns.extendAndSet(columnWriterIndex, columnNameTxn);
         symbolMaps.extendAndSet(columnWriterIndex, new DirectCharSequenceIntHashMap(8, 0.5, SymbolTable.VALUE_NOT_FOUND));
         utf8SymbolMaps.extendAndSet(columnWriterIndex, new Utf8StringIntHashMap(8, 0.5, SymbolTable.VALUE_NOT_FOUND));
         initialSymbolCounts.extendAndSet(columnWriterIndex, symbolCount);
@@ -1296,6 +1356,7 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
                         }
                         columnVersionReader.readSafe(milliClock, spinLockTimeout);
                     } while (txReader.getColumnVersion() != columnVersionReader.getVersion());
+                    symbolTruncateVersion = txReader.getTruncateVersion();
                 }
 
                 if (initialized) {
@@ -1615,6 +1676,7 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
             }
             columnVersionReader.readSafe(milliClock, spinLockTimeout);
         } while (txReader.getColumnVersion() != columnVersionReader.getVersion());
+        symbolTruncateVersion = txReader.getTruncateVersion();
 
         // Update each symbol column
         int denseSymbolIndex = 0;
@@ -2069,7 +2131,8 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
 
     private void syncIfRequired() {
         int commitMode = configuration.getCommitMode();
-        if (commitMode != CommitMode.NOSYNC) {
+        // with group commit the segment files are synced by WalGroupCommitJob, batched across writers
+        if (commitMode != CommitMode.NOSYNC && !WalGroupCommitJob.isSyncDeferred(configuration)) {
             final boolean async = commitMode == CommitMode.ASYNC;
             for (int i = 0, n = columns.size(); i < n; i++) {
                 MemoryMA column = columns.getQuick(i);
@@ -3122,11 +3185,36 @@ public class WalWriter extends WalWriterBase implements TableWriterAPI {
                 DirectUtf8Sequence utf8Value,
                 SymbolMapReader symbolMapReader
         ) {
-            return putSym0(
+            final SharedSymbolCache sharedCache = sharedSymbolCache;
+            if (sharedCache == null) {
+                return putSym0(
+                        columnIndex,
+                        Utf8s.directUtf8ToUtf16(utf8Value, tempSink),
+                        symbolMapReader
+                );
+            }
+
+            // Keys at or above the initial symbol count are WAL-local, so a shared key is only
+            // usable when this writer's symbol map snapshot already covers it.
+            final int initialSymCount = initialSymbolCounts.get(columnIndex);
+            final long tableId = tableToken.getTableId();
+            final long symbolTableNameTxn = symbolTableNameTxns.getQuick(columnIndex);
+            int key = sharedCache.keyOf(tableId, columnIndex, symbolTableNameTxn, symbolTruncateVersion, utf8Value);
+            if (key > -1 && key < initialSymCount) {
+                getPrimaryColumn(columnIndex).putInt(key);
+                setRowValueNotNull(columnIndex);
+                return key;
+            }
+
+            key = putSym0(
                     columnIndex,
                     Utf8s.directUtf8ToUtf16(utf8Value, tempSink),
                     symbolMapReader
             );
+            if (key > -1 && key < initialSymCount) {
+                sharedCache.put(tableId, columnIndex, symbolTableNameTxn, symbolTruncateVersion, utf8Value, key);
+            }
+            return key;
         }
 
         private void setTimestamp(long value) {
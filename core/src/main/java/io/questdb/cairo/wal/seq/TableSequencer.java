@@ -25,6 +25,7 @@
 package io.questdb.cairo.wal.seq;
 
 import io.questdb.cairo.TableToken;
+import io.questdb.std.LongList;
 import io.questdb.std.QuietCloseable;
 
 public interface TableSequencer extends QuietCloseable {
@@ -63,6 +64,10 @@ public interface TableSequencer extends QuietCloseable {
     // returns committed txn number if schema version is the expected one, otherwise returns NO_TXN
     long nextTxn(long expectedStructureVersion, int walId, int segmentId, int segmentTxn, long txnMinTimestamp, long txnMaxTimestamp, long txnRowCount);
 
+    // commits a batch of txns atomically, see TableTransactionLogFile.addEntries(), returns the last
+    // committed txn number if schema version is the expected one, otherwise returns NO_TXN
+    long nextTxns(long expectedStructureVersion, LongList entries);
+
     TableToken reload();
 
     void resumeTable();
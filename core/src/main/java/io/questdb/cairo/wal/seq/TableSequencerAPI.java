@@ -39,6 +39,7 @@ import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.ConcurrentHashMap;
 import io.questdb.std.FilesFacade;
+import io.questdb.std.LongList;
 import io.questdb.std.ObjHashSet;
 import io.questdb.std.QuietCloseable;
 import io.questdb.std.str.Path;
@@ -324,6 +325,28 @@ public class TableSequencerAPI implements QuietCloseable {
         }
     }
 
+    /**
+     * Commits a batch of transactions, already written to WAL segments, so that they become
+     * visible together.
+     *
+     * @param entries {@link TableTransactionLogFile#BATCH_ENTRY_SIZE} longs per transaction
+     * @return the last committed txn, or NO_TXN when the table structure has changed
+     */
+    public long nextTxns(final TableToken tableToken, long expectedSchemaVersion, LongList entries) {
+        try (TableSequencerImpl tableSequencer = openSequencerLocked(tableToken, SequencerLockType.WRITE)) {
+            long txn;
+            try {
+                if (!tableSequencer.getTableToken().equals(tableToken)) {
+                    throw TableReferenceOutOfDateException.of(tableToken);
+                }
+                txn = tableSequencer.nextTxns(expectedSchemaVersion, entries);
+            } finally {
+                tableSequencer.unlockWrite();
+            }
+            return txn;
+        }
+    }
+
     public boolean notifyOnCheck(TableToken tableToken, long seqTxn) {
         // Updates seqTxn and returns true if CheckWalTransactionsJob should post notification
         // to run ApplyWal2TableJob for the table
@@ -33,12 +33,15 @@ import io.questdb.cairo.IDGeneratorFactory;
 import io.questdb.cairo.TableStructure;
 import io.questdb.cairo.TableToken;
 import io.questdb.cairo.wal.WalDirectoryPolicy;
+import io.questdb.cairo.wal.WalGroupCommitJob;
+import io.questdb.cairo.wal.WalListener;
 import io.questdb.cairo.wal.WalUtils;
 import io.questdb.griffin.engine.ops.AlterOperation;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.IntList;
+import io.questdb.std.LongList;
 import io.questdb.std.Misc;
 import io.questdb.std.SimpleReadWriteLock;
 import io.questdb.std.datetime.MicrosecondClock;
@@ -438,6 +441,44 @@ public class TableSequencerImpl implements TableSequencer {
         return txn;
     }
 
+    @Override
+    public long nextTxns(long expectedStructureVersion, LongList entries) {
+        assert !closed;
+        assert entries.size() > 0 && entries.size() % TableTransactionLogFile.BATCH_ENTRY_SIZE == 0;
+        checkDropped();
+        checkHardSuspended();
+        long txn;
+        final long timestamp = microClock.getTicks();
+        try {
+            if (metadata.getMetadataVersion() == expectedStructureVersion) {
+                txn = tableTransactionLog.addEntries(getStructureVersion(), entries, timestamp);
+            } else {
+                return NO_TXN;
+            }
+        } catch (Throwable th) {
+            distressed = true;
+            LOG.critical().$("could not apply transaction batch to WAL table sequencer [table=").$(tableToken)
+                    .$(", error=").$safe(th.getMessage())
+                    .I$();
+            throw th;
+        }
+
+        notifyTxnCommitted(txn);
+        final WalListener walListener = engine.getWalListener();
+        long batchTxn = txn - entries.size() / TableTransactionLogFile.BATCH_ENTRY_SIZE;
+        for (int i = 0, n = entries.size(); i < n; i += TableTransactionLogFile.BATCH_ENTRY_SIZE) {
+            walListener.dataTxnCommitted(
+                    tableToken,
+                    ++batchTxn,
+                    timestamp,
+                    (int) entries.getQuick(i),
+                    (int) entries.getQuick(i + 1),
+                    (int) entries.getQuick(i + 2)
+            );
+        }
+        return txn;
+    }
+
     public void notifyRename(TableToken tableToken) {
         this.tableToken = tableToken;
         this.metadata.notifyRenameTable(tableToken);
@@ -558,6 +599,10 @@ public class TableSequencerImpl implements TableSequencer {
         // the sequencer has the commit visible, independently of the apply job's progress.
         if (txn != Long.MAX_VALUE) {
             engine.notifyLiveViewBaseTableCommit(tableToken, txn);
+            final WalGroupCommitJob groupCommitJob = engine.getWalGroupCommitJob();
+            if (groupCommitJob != null) {
+                groupCommitJob.onTxnCommitted(tableToken, txn);
+            }
         }
     }
 
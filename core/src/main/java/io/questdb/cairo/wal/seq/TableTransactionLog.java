@@ -38,6 +38,7 @@ import io.questdb.log.LogFactory;
 import io.questdb.std.CarrierLocal;
 import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
+import io.questdb.std.LongList;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.Misc;
 import io.questdb.std.Os;
@@ -186,6 +187,10 @@ public class TableTransactionLog implements Closeable {
         return instance;
     }
 
+    long addEntries(long structureVersion, LongList entries, long timestamp) {
+        return lastTxn = txnLogFile.addEntries(structureVersion, entries, timestamp);
+    }
+
     long addEntry(long structureVersion, int walId, int segmentId, int segmentTxn, long timestamp, long txnMinTimestamp, long txnMaxTimestamp, long txnRowCount) {
         return lastTxn = txnLogFile.addEntry(structureVersion, walId, segmentId, segmentTxn, timestamp, txnMinTimestamp, txnMaxTimestamp, txnRowCount);
     }
@@ -25,6 +25,7 @@
 package io.questdb.cairo.wal.seq;
 
 import io.questdb.cairo.MemorySerializer;
+import io.questdb.std.LongList;
 import io.questdb.std.Transient;
 import io.questdb.std.str.Path;
 
@@ -68,6 +69,8 @@ import java.io.Closeable;
  * See different implementations of the interface for the storage details.
  */
 public interface TableTransactionLogFile extends Closeable {
+    // longs per transaction in a batch: walId, segmentId, segmentTxn, txnMinTimestamp, txnMaxTimestamp, txnRowCount
+    int BATCH_ENTRY_SIZE = 6;
     int HEADER_RESERVED = 6 * Long.BYTES + Integer.BYTES;
     long MAX_TXN_OFFSET_64 = Integer.BYTES;
     int STRUCTURAL_CHANGE_WAL_ID = -1;
@@ -80,6 +83,17 @@ public interface TableTransactionLogFile extends Closeable {
     long TX_LOG_SEGMENT_TXN_OFFSET = TX_LOG_SEGMENT_OFFSET + Integer.BYTES;
     long TX_LOG_COMMIT_TIMESTAMP_OFFSET = TX_LOG_SEGMENT_TXN_OFFSET + Integer.BYTES;
 
+    /**
+     * Adds a batch of data transactions to the log. The max txn in the header is only advanced
+     * once all the records are written, so readers see either none or all of them.
+     *
+     * @param structureVersion version of the table structure
+     * @param entries          transactions, {@link #BATCH_ENTRY_SIZE} longs each
+     * @param timestamp        commit timestamp
+     * @return last committed transaction id
+     */
+    long addEntries(long structureVersion, LongList entries, long timestamp);
+
     /**
      * Adds a new data transaction to the log
      * <p>
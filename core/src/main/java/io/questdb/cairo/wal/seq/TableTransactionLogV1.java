@@ -31,12 +31,14 @@ import io.questdb.cairo.MemorySerializer;
 import io.questdb.cairo.TableUtils;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryCMARW;
+import io.questdb.cairo.wal.WalGroupCommitJob;
 import io.questdb.cairo.wal.WalUtils;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.CarrierLocal;
 import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
+import io.questdb.std.LongList;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.Os;
 import io.questdb.std.Transient;
@@ -85,6 +87,23 @@ public class TableTransactionLogV1 implements TableTransactionLogFile {
         return ff.readNonNegativeLong(logFileFd, offset);
     }
 
+    @Override
+    public long addEntries(long structureVersion, LongList entries, long timestamp) {
+        for (int i = 0, n = entries.size(); i < n; i += BATCH_ENTRY_SIZE) {
+            txnMem.putLong(structureVersion);
+            txnMem.putInt((int) entries.getQuick(i));
+            txnMem.putInt((int) entries.getQuick(i + 1));
+            txnMem.putInt((int) entries.getQuick(i + 2));
+            txnMem.putLong(timestamp);
+        }
+
+        Unsafe.storeFence();
+        long maxTxn = this.maxTxn.addAndGet(entries.size() / BATCH_ENTRY_SIZE);
+        txnMem.putLong(MAX_TXN_OFFSET_64, maxTxn);
+        sync0();
+        return maxTxn;
+    }
+
     @Override
     public long addEntry(
             long structureVersion,
@@ -204,7 +223,8 @@ public class TableTransactionLogV1 implements TableTransactionLogFile {
 
     private void sync0() {
         int commitMode = configuration.getCommitMode();
-        if (commitMode != CommitMode.NOSYNC) {
+        // with group commit the log is synced together with WAL segments by WalGroupCommitJob
+        if (commitMode != CommitMode.NOSYNC && !WalGroupCommitJob.isSyncDeferred(configuration)) {
             txnMem.sync(commitMode == CommitMode.ASYNC);
         }
     }
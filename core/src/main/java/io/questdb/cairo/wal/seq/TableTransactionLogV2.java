@@ -32,12 +32,14 @@ import io.questdb.cairo.TableUtils;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryCMARW;
 import io.questdb.cairo.wal.WalDirectoryPolicy;
+import io.questdb.cairo.wal.WalGroupCommitJob;
 import io.questdb.cairo.wal.WalUtils;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.CarrierLocal;
 import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
+import io.questdb.std.LongList;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.Transient;
 import io.questdb.std.Unsafe;
@@ -125,6 +127,31 @@ public class TableTransactionLogV2 implements TableTransactionLogFile {
         return 0;
     }
 
+    @Override
+    public long addEntries(long structureVersion, LongList entries, long timestamp) {
+        long txn = this.maxTxn.get();
+        for (int i = 0, n = entries.size(); i < n; i += BATCH_ENTRY_SIZE) {
+            // records may span parts, they're only visible once the header is updated
+            openTxnPart(txn++);
+
+            txnPartMem.putLong(structureVersion);
+            txnPartMem.putInt((int) entries.getQuick(i));
+            txnPartMem.putInt((int) entries.getQuick(i + 1));
+            txnPartMem.putInt((int) entries.getQuick(i + 2));
+            txnPartMem.putLong(timestamp);
+            txnPartMem.putLong(entries.getQuick(i + 3));
+            txnPartMem.putLong(entries.getQuick(i + 4));
+            txnPartMem.putLong(entries.getQuick(i + 5));
+            txnPartMem.putLong(0L);
+        }
+
+        Unsafe.storeFence();
+        this.maxTxn.set(txn);
+        txnMem.putLong(MAX_TXN_OFFSET_64, txn);
+        sync0();
+        return txn;
+    }
+
     @Override
     public long addEntry(long structureVersion, int walId, int segmentId, int segmentTxn, long timestamp, long txnMinTimestamp, long txnMaxTimestamp, long txnRowCount) {
         openTxnPart();
@@ -323,7 +350,8 @@ public class TableTransactionLogV2 implements TableTransactionLogFile {
 
     private void sync0() {
         int commitMode = configuration.getCommitMode();
-        if (commitMode != CommitMode.NOSYNC) {
+        // with group commit the log is synced together with WAL segments by WalGroupCommitJob
+        if (commitMode != CommitMode.NOSYNC && !WalGroupCommitJob.isSyncDeferred(configuration)) {
             txnMem.sync(commitMode == CommitMode.ASYNC);
         }
     }
@@ -0,0 +1,182 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.wal.ship;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.std.Chars;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Os;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8s;
+
+/**
+ * {@link WalObjectStore} backed by a local (or mounted) directory. Objects are written
+ * to a temporary file next to their final location and renamed into place, which makes
+ * them visible atomically. The temporary file is synced before the rename and the
+ * directory after it, so a published object survives a crash of the store's host.
+ */
+public class FilesWalObjectStore implements WalObjectStore {
+    private static final String TMP_SUFFIX = ".tmp";
+    private final FilesFacade ff;
+    private final int mkDirMode;
+    private final StringSink nameSink = new StringSink();
+    private final Path objPath = new Path();
+    private final String root;
+    private final Path tmpPath = new Path();
+
+    public FilesWalObjectStore(FilesFacade ff, CharSequence root, int mkDirMode) {
+        this.ff = ff;
+        this.root = Chars.toString(root);
+        this.mkDirMode = mkDirMode;
+    }
+
+    @Override
+    public void close() {
+        Misc.free(objPath);
+        Misc.free(tmpPath);
+    }
+
+    @Override
+    public boolean download(CharSequence key, LPSZ dst) {
+        objPath.of(root).concat(key);
+        if (!ff.exists(objPath.$())) {
+            return false;
+        }
+        if (ff.copy(objPath.$(), dst) < 0) {
+            throw CairoException.critical(ff.errno()).put("could not download WAL object [key=").put(key)
+                    .put(", dst=").put(dst).put(']');
+        }
+        return true;
+    }
+
+    @Override
+    public boolean exists(CharSequence key) {
+        return ff.exists(objPath.of(root).concat(key).$());
+    }
+
+    @Override
+    public void list(CharSequence prefix, ObjList<String> sink) {
+        objPath.of(root).concat(prefix);
+        if (!ff.exists(objPath.$())) {
+            return;
+        }
+        ff.iterateDir(objPath.$(), (pUtf8NameZ, type) -> {
+            if (type == Files.DT_FILE) {
+                nameSink.clear();
+                Utf8s.utf8ToUtf16Z(pUtf8NameZ, nameSink);
+                if (!Chars.endsWith(nameSink, TMP_SUFFIX)) {
+                    sink.add(nameSink.toString());
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean read(CharSequence key, MemoryCARW sink) {
+        objPath.of(root).concat(key);
+        final long fd = ff.openRO(objPath.$());
+        if (fd < 0) {
+            if (!ff.exists(objPath.$())) {
+                return false;
+            }
+            throw CairoException.critical(ff.errno()).put("could not open WAL object [key=").put(key).put(']');
+        }
+        try {
+            final long len = ff.length(fd);
+            final long address = sink.appendAddressFor(len);
+            if (ff.read(fd, address, len, 0) != len) {
+                throw CairoException.critical(ff.errno()).put("could not read WAL object [key=").put(key).put(']');
+            }
+            return true;
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    @Override
+    public void upload(LPSZ src, CharSequence key) {
+        prepareTmp(key);
+        if (ff.copy(src, tmpPath.$()) < 0) {
+            throw CairoException.critical(ff.errno()).put("could not upload WAL object [src=").put(src)
+                    .put(", key=").put(key).put(']');
+        }
+        final long fd = ff.openRO(tmpPath.$());
+        if (fd < 0) {
+            throw CairoException.critical(ff.errno()).put("could not open uploaded WAL object [key=").put(key).put(']');
+        }
+        ff.fsyncAndClose(fd);
+        commitTmp(key);
+    }
+
+    @Override
+    public void write(CharSequence key, long address, long len) {
+        prepareTmp(key);
+        final long fd = ff.openRW(tmpPath.$(), CairoConfiguration.O_NONE);
+        if (fd < 0) {
+            throw CairoException.critical(ff.errno()).put("could not create WAL object [key=").put(key).put(']');
+        }
+        try {
+            if (!ff.truncate(fd, 0) || ff.write(fd, address, len, 0) != len) {
+                throw CairoException.critical(ff.errno()).put("could not write WAL object [key=").put(key).put(']');
+            }
+            ff.fsync(fd);
+        } finally {
+            ff.close(fd);
+        }
+        commitTmp(key);
+    }
+
+    private void commitTmp(CharSequence key) {
+        objPath.of(root).concat(key);
+        if (ff.rename(tmpPath.$(), objPath.$()) != Files.FILES_RENAME_OK) {
+            ff.removeQuiet(tmpPath.$());
+            throw CairoException.critical(ff.errno()).put("could not publish WAL object [key=").put(key).put(']');
+        }
+        // makes the rename durable
+        if (!Os.isWindows()) {
+            final long dirFd = ff.openRO(objPath.parent().$());
+            if (dirFd < 0) {
+                throw CairoException.critical(ff.errno()).put("could not open WAL object directory [key=").put(key).put(']');
+            }
+            ff.fsyncAndClose(dirFd);
+        }
+    }
+
+    private void prepareTmp(CharSequence key) {
+        tmpPath.of(root).concat(key);
+        // creates the parent directories of the object
+        if (ff.mkdirs(tmpPath, mkDirMode) != 0) {
+            throw CairoException.critical(ff.errno()).put("could not create WAL object directory [key=").put(key).put(']');
+        }
+        tmpPath.put(TMP_SUFFIX);
+    }
+}
@@ -0,0 +1,104 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.wal.ship;
+
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.wal.WalDirectoryPolicy;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.str.Path;
+
+/**
+ * Pins new WAL segment directories against {@link io.questdb.cairo.wal.WalPurgeJob} until
+ * {@link WalShippingJob} has uploaded them. Each segment directory gets an
+ * {@link #UPLOAD_PENDING_FILE_NAME} marker on creation; the segment stays in use until the
+ * job removes the marker after the upload.
+ */
+public class ShippingWalDirectoryPolicy implements WalDirectoryPolicy {
+    public static final String UPLOAD_PENDING_FILE_NAME = "upload.pending";
+    private final FilesFacade ff;
+
+    public ShippingWalDirectoryPolicy(FilesFacade ff) {
+        this.ff = ff;
+    }
+
+    @Override
+    public void initDirectory(Path dirPath) {
+    }
+
+    @Override
+    public void initDirectory(Path dirPath, TableToken tableToken) {
+        // live views are node-local and the sequencer directory is shipped as txn log parts,
+        // neither needs a marker
+        if (tableToken.isLiveView() || !isSegmentDir(dirPath)) {
+            return;
+        }
+        final int len = dirPath.size();
+        try {
+            ff.touch(dirPath.concat(UPLOAD_PENDING_FILE_NAME).$());
+        } finally {
+            dirPath.trimTo(len);
+        }
+    }
+
+    @Override
+    public boolean isInUse(Path path) {
+        final int len = path.size();
+        try {
+            return ff.exists(path.concat(UPLOAD_PENDING_FILE_NAME).$());
+        } finally {
+            path.trimTo(len);
+        }
+    }
+
+    @Override
+    public void rollbackDirectory(Path path) {
+        // an empty segment is never shipped
+        final int len = path.size();
+        try {
+            ff.removeQuiet(path.concat(UPLOAD_PENDING_FILE_NAME).$());
+        } finally {
+            path.trimTo(len);
+        }
+    }
+
+    @Override
+    public boolean truncateFilesOnClose() {
+        return true;
+    }
+
+    // segment directories are named after the segment id, the sequencer directory is not
+    private static boolean isSegmentDir(Path dirPath) {
+        int i = dirPath.size() - 1;
+        if (i >= 0 && dirPath.byteAt(i) == Files.SEPARATOR) {
+            i--;
+        }
+        if (i < 0) {
+            return false;
+        }
+        final byte b = dirPath.byteAt(i);
+        return b >= '0' && b <= '9';
+    }
+}
@@ -0,0 +1,68 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.wal.ship;
+
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.str.LPSZ;
+
+/**
+ * Object store that {@link WalShippingJob} ships sealed WAL segments and transaction log
+ * parts to, and that {@link WalReplicaJob} downloads them from. Keys are relative,
+ * {@code /}-separated paths, e.g. {@code trades~12/wal3/0/_event}.
+ * <p>
+ * Implementations must make an object visible atomically: a reader either sees the whole
+ * object or none of it. Failures other than a missing object are reported with a
+ * {@link io.questdb.cairo.CairoException}.
+ */
+public interface WalObjectStore extends QuietCloseable {
+
+    /**
+     * Copies the object to the given local file, replacing it if it exists.
+     *
+     * @return false if there is no such object
+     */
+    boolean download(CharSequence key, LPSZ dst);
+
+    boolean exists(CharSequence key);
+
+    /**
+     * Adds the names of the objects directly under the given prefix to the sink. The prefix
+     * is a key with no trailing separator.
+     */
+    void list(CharSequence prefix, ObjList<String> sink);
+
+    /**
+     * Appends the object's bytes to the sink.
+     *
+     * @return false if there is no such object
+     */
+    boolean read(CharSequence key, MemoryCARW sink);
+
+    void upload(LPSZ src, CharSequence key);
+
+    void write(CharSequence key, long address, long len);
+}
@@ -0,0 +1,289 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.wal.ship;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.cairo.wal.WalLocker;
+import io.questdb.cairo.wal.WalMetrics;
+import io.questdb.cairo.wal.WalUtils;
+import io.questdb.cairo.wal.seq.TableSequencerAPI;
+import io.questdb.griffin.engine.ops.AlterOperation;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
+import io.questdb.std.NumericException;
+import io.questdb.std.ObjHashSet;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+
+/**
+ * Replays the WAL shipped by a {@link WalShippingJob} on a read-only replica, enabled by
+ * {@link CairoConfiguration#isWalShippingReplica()}. Every
+ * {@link CairoConfiguration#getWalShippingInterval()} the job compares each local WAL table's
+ * sequencer with the shipped head and registers the missing transactions: data transactions
+ * once their segment is downloaded, structural changes straight from the txn log part. The
+ * apply job then applies them to the table as usual.
+ * <p>
+ * Replica tables must be seeded from a checkpoint of the primary, so that the sequencers
+ * agree on the seqTxn that shipping continues from. The job only follows tables that exist
+ * locally: a table created on the primary after the checkpoint is shipped, but it is not
+ * replicated until the replica is seeded again from a newer checkpoint. Shipped objects are
+ * keyed by the primary's table directory name, which a table created independently on the
+ * replica would not share. Tables unknown to the store are left alone. A replica that diverges from the primary (a gap in the shipped transactions or a
+ * seqTxn mismatch) stops replicating the table and logs an error.
+ */
+public class WalReplicaJob extends SynchronizedJob implements QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(WalReplicaJob.class);
+    private final AlterOperation alterOp = new AlterOperation();
+    private final MillisecondClock clock;
+    private final CairoEngine engine;
+    private final FilesFacade ff;
+    private final MemoryCARW headMem;
+    private final long interval;
+    private final StringSink keySink = new StringSink();
+    private final WalMetrics metrics;
+    private final int mkDirMode;
+    private final ObjList<String> objectNames = new ObjList<>();
+    private final MemoryCARW partMem;
+    private final Path path = new Path();
+    private final ObjHashSet<String> stalledTables = new ObjHashSet<>();
+    private final WalObjectStore store;
+    private final ObjHashSet<TableToken> tableTokenBucket = new ObjHashSet<>();
+    private long lagTxns;
+    private long lastRunMs;
+
+    public WalReplicaJob(CairoEngine engine, WalObjectStore store) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.store = store;
+        this.clock = configuration.getMillisecondClock();
+        this.ff = configuration.getFilesFacade();
+        this.interval = configuration.getWalShippingInterval();
+        this.metrics = configuration.getMetrics().walMetrics();
+        this.mkDirMode = configuration.getMkDirMode();
+        try {
+            this.headMem = Vm.getCARWInstance(Long.BYTES, 1, MemoryTag.NATIVE_DEFAULT);
+            this.partMem = Vm.getCARWInstance(64 * 1024, Integer.MAX_VALUE, MemoryTag.NATIVE_DEFAULT);
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    @Override
+    public void close() {
+        Misc.free(headMem);
+        Misc.free(partMem);
+        Misc.free(path);
+        Misc.free(store);
+    }
+
+    private void downloadSegment(TableToken tableToken, int walId, int segmentId, int segmentPathLen) {
+        final WalLocker walLocker = engine.getWalLocker();
+        // keeps the purge job away from the half-downloaded segment
+        walLocker.lockWriter(tableToken, walId, segmentId);
+        try {
+            if (ff.mkdirs(path.trimTo(segmentPathLen).slash(), mkDirMode) != 0) {
+                throw CairoException.critical(ff.errno()).put("could not create WAL segment directory [path=").put(path).put(']');
+            }
+            objectNames.clear();
+            keySink.clear();
+            keySink.put(tableToken.getDirName()).put('/').put(WalUtils.WAL_NAME_BASE).put(walId).put('/').put(segmentId);
+            store.list(keySink, objectNames);
+            for (int i = 0, n = objectNames.size(); i < n; i++) {
+                final String fileName = objectNames.getQuick(i);
+                if (!WalUtils.EVENT_FILE_NAME.equals(fileName)) {
+                    downloadSegmentFile(tableToken, walId, segmentId, segmentPathLen, fileName);
+                }
+            }
+            // the _event file goes last, its presence marks the local segment as complete
+            downloadSegmentFile(tableToken, walId, segmentId, segmentPathLen, WalUtils.EVENT_FILE_NAME);
+        } finally {
+            path.trimTo(segmentPathLen);
+            walLocker.unlockWriter(tableToken, walId);
+        }
+        metrics.addReplicaDownloadedSegment();
+    }
+
+    private void downloadSegmentFile(TableToken tableToken, int walId, int segmentId, int segmentPathLen, String fileName) {
+        setSegmentKey(tableToken, walId, segmentId).put(fileName);
+        if (!store.download(keySink, path.trimTo(segmentPathLen).concat(fileName).$())) {
+            throw CairoException.critical(0).put("shipped WAL segment file is missing [key=").put(keySink).put(']');
+        }
+    }
+
+    // returns the first seqTxn of the shipped txn log part that holds the given seqTxn
+    private long findPart(TableToken tableToken, long seqTxn) {
+        objectNames.clear();
+        keySink.clear();
+        keySink.put(tableToken.getDirName()).put('/').put(WalShippingJob.TXNLOG_DIR);
+        store.list(keySink, objectNames);
+        long partTxn = -1;
+        for (int i = 0, n = objectNames.size(); i < n; i++) {
+            try {
+                final long firstTxn = Numbers.parseLong(objectNames.getQuick(i));
+                if (firstTxn <= seqTxn && firstTxn > partTxn) {
+                    partTxn = firstTxn;
+                }
+            } catch (NumericException ignore) {
+                // the head object
+            }
+        }
+        return partTxn;
+    }
+
+    private long replicateDataTxn(TableToken tableToken, long offset) {
+        final int walId = partMem.getInt(offset + WalShippingJob.RECORD_WAL_ID_OFFSET);
+        final int segmentId = partMem.getInt(offset + WalShippingJob.RECORD_SEGMENT_ID_OFFSET);
+        path.of(engine.getConfiguration().getDbRoot()).concat(tableToken).concat(WalUtils.WAL_NAME_BASE).put(walId).slash().put(segmentId);
+        final int segmentPathLen = path.size();
+        if (!ff.exists(path.concat(WalUtils.EVENT_FILE_NAME).$())) {
+            downloadSegment(tableToken, walId, segmentId, segmentPathLen);
+        }
+        return engine.getTableSequencerAPI().nextTxn(
+                tableToken,
+                walId,
+                partMem.getLong(offset + WalShippingJob.RECORD_STRUCTURE_VERSION_OFFSET),
+                segmentId,
+                partMem.getInt(offset + WalShippingJob.RECORD_SEGMENT_TXN_OFFSET),
+                partMem.getLong(offset + WalShippingJob.RECORD_MIN_TIMESTAMP_OFFSET),
+                partMem.getLong(offset + WalShippingJob.RECORD_MAX_TIMESTAMP_OFFSET),
+                partMem.getLong(offset + WalShippingJob.RECORD_ROW_COUNT_OFFSET)
+        );
+    }
+
+    private long replicateStructureTxn(TableToken tableToken, long offset, int alterLength) {
+        final long alterLo = offset + WalShippingJob.RECORD_HEADER_SIZE;
+        alterOp.deserializeBody(partMem, alterLo, alterLo + alterLength);
+        final long structureVersion = partMem.getLong(offset + WalShippingJob.RECORD_STRUCTURE_VERSION_OFFSET);
+        return engine.getTableSequencerAPI().nextStructureTxn(tableToken, structureVersion - 1, alterOp);
+    }
+
+    private boolean replicateTable(TableToken tableToken) {
+        final TableSequencerAPI sequencerAPI = engine.getTableSequencerAPI();
+        final long headTxn = WalShippingJob.readHead(store, tableToken, keySink, headMem);
+        if (headTxn < 0) {
+            // the table isn't shipped
+            return false;
+        }
+        long replicatedTxn = sequencerAPI.lastTxn(tableToken);
+        if (headTxn <= replicatedTxn) {
+            return false;
+        }
+
+        final long fromTxn = replicatedTxn;
+        try {
+            final long partTxn = findPart(tableToken, replicatedTxn + 1);
+            keySink.clear();
+            keySink.put(tableToken.getDirName()).put('/').put(WalShippingJob.TXNLOG_DIR).put('/').put(partTxn);
+            partMem.truncate();
+            if (partTxn < 0 || !store.read(keySink, partMem)) {
+                throw CairoException.critical(0).put("shipped WAL transaction is missing [table=").put(tableToken)
+                        .put(", seqTxn=").put(replicatedTxn + 1).put(']');
+            }
+
+            final long partSize = partMem.getAppendOffset();
+            long offset = 0;
+            while (offset + WalShippingJob.RECORD_HEADER_SIZE <= partSize) {
+                final long seqTxn = partMem.getLong(offset + WalShippingJob.RECORD_SEQ_TXN_OFFSET);
+                final int alterLength = partMem.getInt(offset + WalShippingJob.RECORD_ALTER_LENGTH_OFFSET);
+                if (seqTxn > replicatedTxn) {
+                    if (seqTxn != replicatedTxn + 1) {
+                        // a gap in the shipped transactions
+                        stall(tableToken, replicatedTxn + 1, seqTxn);
+                        break;
+                    }
+                    final int walId = partMem.getInt(offset + WalShippingJob.RECORD_WAL_ID_OFFSET);
+                    final long txn = walId == WalUtils.METADATA_WALID
+                            ? replicateStructureTxn(tableToken, offset, alterLength)
+                            : replicateDataTxn(tableToken, offset);
+                    if (txn != seqTxn) {
+                        stall(tableToken, seqTxn, txn);
+                        break;
+                    }
+                    replicatedTxn = seqTxn;
+                }
+                offset += WalShippingJob.RECORD_HEADER_SIZE + alterLength;
+            }
+        } finally {
+            lagTxns += headTxn - replicatedTxn;
+        }
+        LOG.debug().$("replicated WAL [table=").$(tableToken).$(", fromTxn=").$(fromTxn).$(", toTxn=").$(replicatedTxn).$(", headTxn=").$(headTxn).I$();
+        return replicatedTxn > fromTxn;
+    }
+
+    private StringSink setSegmentKey(TableToken tableToken, int walId, int segmentId) {
+        keySink.clear();
+        keySink.put(tableToken.getDirName()).put('/').put(WalUtils.WAL_NAME_BASE).put(walId).put('/').put(segmentId).put('/');
+        return keySink;
+    }
+
+    // the replica can't follow the primary without operator intervention, e.g. a reseed
+    private void stall(TableToken tableToken, long expectedTxn, long actualTxn) {
+        stalledTables.add(tableToken.getDirName());
+        LOG.critical().$("replica diverged from the primary, stopped replicating table [table=").$(tableToken)
+                .$(", expectedTxn=").$(expectedTxn)
+                .$(", actualTxn=").$(actualTxn)
+                .I$();
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long now = clock.getTicks();
+        if (now - lastRunMs < interval) {
+            return false;
+        }
+        lastRunMs = now;
+        lagTxns = 0;
+        engine.getTableTokens(tableTokenBucket, false);
+        boolean useful = false;
+        for (int i = 0, n = tableTokenBucket.size(); i < n; i++) {
+            final TableToken tableToken = tableTokenBucket.get(i);
+            if (!tableToken.isWal() || tableToken.isLiveView() || stalledTables.contains(tableToken.getDirName())) {
+                continue;
+            }
+            try {
+                useful |= replicateTable(tableToken);
+            } catch (CairoException e) {
+                // the next run retries from the sequencer's last txn
+                LOG.error().$("could not replicate WAL [table=").$(tableToken).$(", error=").$safe(e.getFlyweightMessage()).I$();
+            }
+        }
+        metrics.setReplicaLagTxns(lagTxns);
+        return useful;
+    }
+}
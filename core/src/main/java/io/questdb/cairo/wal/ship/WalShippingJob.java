@@ -0,0 +1,400 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.wal.ship;
+
+import io.questdb.cairo.BinaryAlterSerializer;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.cairo.wal.DurableAckRegistry;
+import io.questdb.cairo.wal.WalEventCursor;
+import io.questdb.cairo.wal.WalEventReader;
+import io.questdb.cairo.wal.WalMetrics;
+import io.questdb.cairo.wal.WalTxnDetails;
+import io.questdb.cairo.wal.WalTxnType;
+import io.questdb.cairo.wal.WalUtils;
+import io.questdb.cairo.wal.seq.TableMetadataChange;
+import io.questdb.cairo.wal.seq.TableMetadataChangeLog;
+import io.questdb.cairo.wal.seq.TableSequencerAPI;
+import io.questdb.cairo.wal.seq.TransactionLogCursor;
+import io.questdb.griffin.engine.ops.AlterOperation;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.Chars;
+import io.questdb.std.ConcurrentHashMap;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.FindVisitor;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjHashSet;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8s;
+
+/**
+ * Ships the WAL of every table (live views excepted) to a {@link WalObjectStore}, enabled by
+ * {@link CairoConfiguration#getWalShippingRoot()}. Every
+ * {@link CairoConfiguration#getWalShippingInterval()} the job walks each table's transaction
+ * log from the last shipped seqTxn and, per table:
+ * <ul>
+ *     <li>uploads the WAL segment of every data transaction, once the segment is sealed (no
+ *     writer holds it any longer), as {@code <table dir>/wal<id>/<segment>/<file>}, the
+ *     {@code _event} file last, then clears the segment's
+ *     {@link ShippingWalDirectoryPolicy#UPLOAD_PENDING_FILE_NAME} marker so that the purge job
+ *     may remove it;</li>
+ *     <li>writes the shipped transactions as a txn log part,
+ *     {@code <table dir>/txnlog/<first seqTxn>}, structural changes included;</li>
+ *     <li>advances the {@code <table dir>/txnlog/_head} object to the last shipped seqTxn.</li>
+ * </ul>
+ * Shipping stops at the first transaction whose segment is still being written, so the
+ * shipping lag is bounded by segment rollover and the WAL writer's inactivity TTL.
+ * <p>
+ * The job doubles as the engine's {@link DurableAckRegistry}, reporting a transaction as
+ * durable once it is shipped. With WAL group commit enabled too, the engine combines both
+ * registries, see {@link io.questdb.cairo.wal.CompositeDurableAckRegistry}.
+ */
+public final class WalShippingJob extends SynchronizedJob implements DurableAckRegistry, QuietCloseable {
+    public static final String HEAD_OBJECT_NAME = "_head";
+    public static final int RECORD_ALTER_LENGTH_OFFSET = 52;
+    public static final int RECORD_HEADER_SIZE = 56;
+    public static final int RECORD_MAX_TIMESTAMP_OFFSET = 24;
+    public static final int RECORD_MIN_TIMESTAMP_OFFSET = 16;
+    public static final int RECORD_ROW_COUNT_OFFSET = 32;
+    public static final int RECORD_SEGMENT_ID_OFFSET = 44;
+    public static final int RECORD_SEGMENT_TXN_OFFSET = 48;
+    // txn log part record: seqTxn, structureVersion, minTimestamp, maxTimestamp, rowCount (longs),
+    // walId, segmentId, segmentTxn, alter length (ints), followed by the serialized alter, if any
+    public static final int RECORD_SEQ_TXN_OFFSET = 0;
+    public static final int RECORD_STRUCTURE_VERSION_OFFSET = 8;
+    public static final int RECORD_WAL_ID_OFFSET = 40;
+    public static final String TXNLOG_DIR = "txnlog";
+    private static final Log LOG = LogFactory.getLog(WalShippingJob.class);
+    private static final int MAX_TXNS_PER_PART = 4096;
+    private final BinaryAlterSerializer alterSerializer = new BinaryAlterSerializer();
+    private final MillisecondClock clock;
+    private final CairoEngine engine;
+    private final WalEventReader eventReader;
+    private final FilesFacade ff;
+    private final MemoryCARW headMem;
+    private final long interval;
+    private final StringSink keySink = new StringSink();
+    private final WalMetrics metrics;
+    private final StringSink nameSink = new StringSink();
+    private final MemoryCARW partMem;
+    private final Path path = new Path();
+    private final ObjList<String> segmentFiles = new ObjList<>();
+    private final FindVisitor segmentFileVisitor = this::collectSegmentFile;
+    private final WalObjectStore store;
+    private final ObjHashSet<TableToken> tableTokenBucket = new ObjHashSet<>();
+    // keyed by table dir name
+    private final ConcurrentHashMap<TableState> tables = new ConcurrentHashMap<>();
+    private long lastRunMs;
+    // set once the tables present at startup have been picked up
+    private boolean started;
+
+    public WalShippingJob(CairoEngine engine, WalObjectStore store) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.store = store;
+        this.clock = configuration.getMillisecondClock();
+        this.ff = configuration.getFilesFacade();
+        this.interval = configuration.getWalShippingInterval();
+        this.metrics = configuration.getMetrics().walMetrics();
+        try {
+            this.eventReader = new WalEventReader(configuration);
+            this.headMem = Vm.getCARWInstance(Long.BYTES, 1, MemoryTag.NATIVE_DEFAULT);
+            this.partMem = Vm.getCARWInstance(64 * 1024, Integer.MAX_VALUE, MemoryTag.NATIVE_DEFAULT);
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    /**
+     * Reads the last shipped seqTxn of a table from the store.
+     *
+     * @return the seqTxn, or -1 if the table hasn't been shipped yet
+     */
+    public static long readHead(WalObjectStore store, TableToken tableToken, StringSink keySink, MemoryCARW headMem) {
+        keySink.clear();
+        keySink.put(tableToken.getDirName()).put('/').put(TXNLOG_DIR).put('/').put(HEAD_OBJECT_NAME);
+        headMem.truncate();
+        if (!store.read(keySink, headMem)) {
+            return -1;
+        }
+        if (headMem.getAppendOffset() != Long.BYTES) {
+            throw CairoException.critical(0).put("corrupt shipped WAL head [table=").put(tableToken).put(']');
+        }
+        return headMem.getLong(0);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(eventReader);
+        Misc.free(headMem);
+        Misc.free(partMem);
+        Misc.free(path);
+        Misc.free(store);
+    }
+
+    @Override
+    public long getDurablyUploadedSeqTxn(CharSequence tableDirName) {
+        final TableState state = tables.get(tableDirName);
+        return state != null ? state.shippedTxn : -1;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void onTableDropped(TableToken tableToken) {
+        tables.remove(tableToken.getDirName());
+    }
+
+    private long appendRecord(TransactionLogCursor cursor, long minTimestamp, long maxTimestamp, long rowCount) {
+        final long offset = partMem.getAppendOffset();
+        partMem.putLong(cursor.getTxn());
+        partMem.putLong(cursor.getStructureVersion());
+        partMem.putLong(minTimestamp);
+        partMem.putLong(maxTimestamp);
+        partMem.putLong(rowCount);
+        partMem.putInt(cursor.getWalId());
+        partMem.putInt(cursor.getSegmentId());
+        partMem.putInt(cursor.getSegmentTxn());
+        partMem.putInt(0);
+        return offset;
+    }
+
+    private void collectSegmentFile(long pUtf8NameZ, int type) {
+        if (type == Files.DT_FILE) {
+            nameSink.clear();
+            Utf8s.utf8ToUtf16Z(pUtf8NameZ, nameSink);
+            if (!Chars.equals(nameSink, ShippingWalDirectoryPolicy.UPLOAD_PENDING_FILE_NAME)
+                    && !Chars.equals(nameSink, WalUtils.EVENT_FILE_NAME)) {
+                segmentFiles.add(nameSink.toString());
+            }
+        }
+    }
+
+    private StringSink setSegmentKey(TableToken tableToken, int walId, int segmentId) {
+        keySink.clear();
+        keySink.put(tableToken.getDirName()).put('/').put(WalUtils.WAL_NAME_BASE).put(walId).put('/').put(segmentId).put('/');
+        return keySink;
+    }
+
+    private int setSegmentPath(TableToken tableToken, int walId, int segmentId) {
+        path.of(engine.getConfiguration().getDbRoot()).concat(tableToken).concat(WalUtils.WAL_NAME_BASE).put(walId).slash().put(segmentId);
+        return path.size();
+    }
+
+    private boolean shipDataTxn(TableToken tableToken, TransactionLogCursor cursor, TableState state) {
+        final int walId = cursor.getWalId();
+        final int segmentId = cursor.getSegmentId();
+        if (engine.getWalLocker().isSegmentLocked(tableToken, walId, segmentId)) {
+            // the segment is still being written
+            return false;
+        }
+        if (walId != state.lastWalId || segmentId != state.lastSegmentId) {
+            setSegmentKey(tableToken, walId, segmentId).put(WalUtils.EVENT_FILE_NAME);
+            if (!store.exists(keySink)) {
+                uploadSegment(tableToken, walId, segmentId);
+            }
+            state.lastWalId = walId;
+            state.lastSegmentId = segmentId;
+        }
+
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = -1;
+        long rowCount = 0;
+        setSegmentPath(tableToken, walId, segmentId);
+        try {
+            final WalEventCursor eventCursor = WalTxnDetails.openWalEFile(path, eventReader, cursor.getSegmentTxn(), cursor.getTxn());
+            if (WalTxnType.isDataType(eventCursor.getType())) {
+                final WalEventCursor.DataInfo dataInfo = eventCursor.getDataInfo();
+                minTimestamp = dataInfo.getMinTimestamp();
+                maxTimestamp = dataInfo.getMaxTimestamp();
+                rowCount = dataInfo.getEndRowID() - dataInfo.getStartRowID();
+            }
+        } finally {
+            eventReader.close();
+        }
+        appendRecord(cursor, minTimestamp, maxTimestamp, rowCount);
+        return true;
+    }
+
+    private boolean shipStructureTxn(TableToken tableToken, TransactionLogCursor cursor) {
+        final long structureVersion = cursor.getStructureVersion();
+        try (TableMetadataChangeLog changeLog = engine.getTableSequencerAPI().getMetadataChangeLog(tableToken, structureVersion - 1)) {
+            if (!changeLog.hasNext()) {
+                LOG.error().$("structure change missing from sequencer, cannot ship [table=").$(tableToken)
+                        .$(", structureVersion=").$(structureVersion)
+                        .I$();
+                return false;
+            }
+            final TableMetadataChange change = changeLog.next();
+            if (!(change instanceof AlterOperation)) {
+                LOG.error().$("structure change cannot be shipped [table=").$(tableToken)
+                        .$(", structureVersion=").$(structureVersion)
+                        .I$();
+                return false;
+            }
+            final long offset = appendRecord(cursor, Long.MAX_VALUE, -1, 0);
+            final long alterLo = partMem.getAppendOffset();
+            alterSerializer.toSink(change, partMem);
+            partMem.putInt(offset + RECORD_ALTER_LENGTH_OFFSET, (int) (partMem.getAppendOffset() - alterLo));
+            return true;
+        }
+    }
+
+    private boolean shipTable(TableToken tableToken) {
+        final TableSequencerAPI sequencerAPI = engine.getTableSequencerAPI();
+        final String dirName = tableToken.getDirName();
+        TableState state = tables.get(dirName);
+        if (state == null) {
+            state = new TableState();
+            state.shippedTxn = readHead(store, tableToken, keySink, headMem);
+            if (state.shippedTxn < 0) {
+                // Shipping starts from the table's current state, replicas are seeded with a
+                // checkpoint taken from here on.
+                state.shippedTxn = sequencerAPI.lastTxn(tableToken);
+                writeHead(tableToken, state.shippedTxn);
+                if (started) {
+                    LOG.advisory().$("started shipping WAL of a new table, replicas follow it once reseeded from a checkpoint [table=")
+                            .$(tableToken).$(", seqTxn=").$(state.shippedTxn).I$();
+                } else {
+                    LOG.info().$("started shipping WAL [table=").$(tableToken).$(", seqTxn=").$(state.shippedTxn).I$();
+                }
+            }
+            tables.put(dirName, state);
+        }
+
+        final long firstTxn = state.shippedTxn + 1;
+        if (sequencerAPI.lastTxn(tableToken) < firstTxn) {
+            return false;
+        }
+
+        partMem.truncate();
+        long shippedTxn = state.shippedTxn;
+        int txnCount = 0;
+        try (TransactionLogCursor cursor = sequencerAPI.getCursor(tableToken, shippedTxn)) {
+            while (txnCount < MAX_TXNS_PER_PART && cursor.hasNext()) {
+                final int walId = cursor.getWalId();
+                final boolean shipped;
+                if (walId > 0) {
+                    shipped = shipDataTxn(tableToken, cursor, state);
+                } else if (walId == WalUtils.METADATA_WALID) {
+                    shipped = shipStructureTxn(tableToken, cursor);
+                } else {
+                    // table drops are not replicated
+                    shipped = false;
+                }
+                if (!shipped) {
+                    break;
+                }
+                shippedTxn = cursor.getTxn();
+                txnCount++;
+            }
+        }
+        if (txnCount == 0) {
+            return false;
+        }
+
+        keySink.clear();
+        keySink.put(dirName).put('/').put(TXNLOG_DIR).put('/').put(firstTxn);
+        store.write(keySink, partMem.getAddress(), partMem.getAppendOffset());
+        writeHead(tableToken, shippedTxn);
+        state.shippedTxn = shippedTxn;
+        metrics.addShippedTxns(txnCount);
+        LOG.debug().$("shipped WAL [table=").$(tableToken).$(", fromTxn=").$(firstTxn).$(", toTxn=").$(shippedTxn).I$();
+        return true;
+    }
+
+    private void uploadSegment(TableToken tableToken, int walId, int segmentId) {
+        final int segmentPathLen = setSegmentPath(tableToken, walId, segmentId);
+        segmentFiles.clear();
+        ff.iterateDir(path.$(), segmentFileVisitor);
+        for (int i = 0, n = segmentFiles.size(); i < n; i++) {
+            final String fileName = segmentFiles.getQuick(i);
+            setSegmentKey(tableToken, walId, segmentId).put(fileName);
+            store.upload(path.trimTo(segmentPathLen).concat(fileName).$(), keySink);
+        }
+        // the _event file goes last, its presence in the store marks the segment as complete
+        setSegmentKey(tableToken, walId, segmentId).put(WalUtils.EVENT_FILE_NAME);
+        store.upload(path.trimTo(segmentPathLen).concat(WalUtils.EVENT_FILE_NAME).$(), keySink);
+        ff.removeQuiet(path.trimTo(segmentPathLen).concat(ShippingWalDirectoryPolicy.UPLOAD_PENDING_FILE_NAME).$());
+        metrics.addShippedSegment();
+    }
+
+    private void writeHead(TableToken tableToken, long seqTxn) {
+        headMem.truncate();
+        headMem.putLong(seqTxn);
+        keySink.clear();
+        keySink.put(tableToken.getDirName()).put('/').put(TXNLOG_DIR).put('/').put(HEAD_OBJECT_NAME);
+        store.write(keySink, headMem.getAddress(), Long.BYTES);
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long now = clock.getTicks();
+        if (now - lastRunMs < interval) {
+            return false;
+        }
+        lastRunMs = now;
+        engine.getTableTokens(tableTokenBucket, false);
+        boolean useful = false;
+        for (int i = 0, n = tableTokenBucket.size(); i < n; i++) {
+            final TableToken tableToken = tableTokenBucket.get(i);
+            if (!tableToken.isWal() || tableToken.isLiveView()) {
+                continue;
+            }
+            try {
+                useful |= shipTable(tableToken);
+            } catch (CairoException e) {
+                // the next run retries from the last shipped seqTxn
+                LOG.error().$("could not ship WAL [table=").$(tableToken).$(", error=").$safe(e.getFlyweightMessage()).I$();
+            }
+        }
+        started = true;
+        return useful;
+    }
+
+    private static class TableState {
+        // segment last seen as shipped, saves a store lookup per transaction
+        private int lastSegmentId = -1;
+        private int lastWalId = -1;
+        // only written by the job under the SynchronizedJob lock
+        private volatile long shippedTxn = -1;
+    }
+}
@@ -41,6 +41,11 @@ public class DefaultHttpContextConfiguration implements HttpContextConfiguration
         return false;
     }
 
+    @Override
+    public boolean allowZstdBeforeSend() {
+        return false;
+    }
+
     @Override
     public boolean areCookiesEnabled() {
         return true;
@@ -142,6 +147,11 @@ public class DefaultHttpContextConfiguration implements HttpContextConfiguration
         return 1_800_000_000L; // 30 minutes
     }
 
+    @Override
+    public int getZstdCompressionLevel() {
+        return 1;
+    }
+
     @Override
     public boolean readOnlySecurityContext() {
         return false;
@@ -1048,11 +1048,17 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
             HttpRequestProcessor processor = rejectProcessor.isRequestBeingRejected() ? rejectProcessor : getHttpRequestProcessor(selector);
 
             DirectUtf8Sequence acceptEncoding = headerParser.getHeader(HEADER_CONTENT_ACCEPT_ENCODING);
-            if (configuration.getHttpContextConfiguration().allowDeflateBeforeSend()
-                    && acceptEncoding != null
-                    && Utf8s.containsAscii(acceptEncoding, "gzip")) {
+            if (acceptEncoding != null) {
+                final HttpContextConfiguration contextConfiguration = configuration.getHttpContextConfiguration();
                 // re-read send buffer size in case the config was reloaded
-                responseSink.setDeflateBeforeSend(true, configuration.getSendBufferSize());
+                final boolean zstd = contextConfiguration.allowZstdBeforeSend()
+                        && Utf8s.containsAscii(acceptEncoding, "zstd")
+                        && responseSink.setZstdBeforeSend(configuration.getSendBufferSize());
+                if (!zstd
+                        && contextConfiguration.allowDeflateBeforeSend()
+                        && Utf8s.containsAscii(acceptEncoding, "gzip")) {
+                    responseSink.setDeflateBeforeSend(true, configuration.getSendBufferSize());
+                }
             }
 
             try {
@@ -34,6 +34,12 @@ public interface HttpContextConfiguration {
 
     boolean allowDeflateBeforeSend();
 
+    /**
+     * When enabled, responses are compressed with zstd for clients that list {@code zstd}
+     * in their {@code Accept-Encoding} header. zstd takes precedence over gzip.
+     */
+    boolean allowZstdBeforeSend();
+
     boolean areCookiesEnabled();
 
     int getConnectionPoolInitialCapacity();
@@ -74,5 +80,7 @@ public interface HttpContextConfiguration {
 
     long getSessionTimeout();
 
+    int getZstdCompressionLevel();
+
     boolean readOnlySecurityContext();
 }
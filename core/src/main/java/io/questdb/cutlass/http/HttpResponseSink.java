@@ -25,6 +25,7 @@
 package io.questdb.cutlass.http;
 
 import io.questdb.cairo.CairoException;
+import io.questdb.cutlass.http.processors.HttpMetrics;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.network.Net;
@@ -42,6 +43,7 @@ import io.questdb.std.ObjList;
 import io.questdb.std.Unsafe;
 import io.questdb.std.Vect;
 import io.questdb.std.Zip;
+import io.questdb.std.Zstd;
 import io.questdb.std.bytes.Bytes;
 import io.questdb.std.datetime.millitime.DateFormatUtils;
 import io.questdb.std.datetime.millitime.MillisecondClock;
@@ -78,22 +80,28 @@ public class HttpResponseSink implements Closeable, Mutable {
     private final boolean dumpNetworkTraffic;
     private final int forceSendFragmentationChunkSize;
     private final HttpResponseHeaderImpl headerImpl;
+    private final HttpMetrics httpMetrics;
     private final String httpVersion;
     private final NetworkFacade nf;
     private final HttpRawSocketImpl rawSocket = new HttpRawSocketImpl();
     private final SimpleResponseImpl simpleResponse = new SimpleResponseImpl();
     private final ResponseSinkImpl sink = new ResponseSinkImpl();
+    private final int zstdCompressionLevel;
     private boolean chunkedRequestDone;
     private boolean compressedHeaderDone;
     private boolean compressedOutputReady;
     private boolean compressionComplete;
     private int crc = 0;
+    // set for either content encoding, zstdBeforeSend picks zstd over gzip
     private boolean deflateBeforeSend = false;
     private boolean headersSent;
     private Socket socket;
     private long total = 0;
     private long totalBytesSent = 0;
     private long zStreamPtr = 0;
+    private boolean zstdBeforeSend = false;
+    private long zstdCCtx = 0;
+    private long zstdProgress = 0;
 
     public HttpResponseSink(HttpServerConfiguration configuration) {
         final int responseBufferSize = configuration.getSendBufferSize();
@@ -107,6 +115,8 @@ public class HttpResponseSink implements Closeable, Mutable {
         this.connectionCloseHeader = !contextConfiguration.getServerKeepAlive();
         this.cookiesEnabled = contextConfiguration.areCookiesEnabled();
         this.forceSendFragmentationChunkSize = contextConfiguration.getForceSendFragmentationChunkSize();
+        this.httpMetrics = contextConfiguration.getMetrics().httpMetrics();
+        this.zstdCompressionLevel = contextConfiguration.getZstdCompressionLevel();
     }
 
     @Override
@@ -116,6 +126,7 @@ public class HttpResponseSink implements Closeable, Mutable {
         headersSent = false;
         chunkedRequestDone = false;
         deflateBeforeSend = false;
+        zstdBeforeSend = false;
         simpleResponse.clear();
         resetZip();
     }
@@ -125,8 +136,14 @@ public class HttpResponseSink implements Closeable, Mutable {
         if (zStreamPtr != 0) {
             Zip.deflateEnd(zStreamPtr);
             zStreamPtr = 0;
-            compressOutBuffer.close();
         }
+        if (zstdCCtx != 0) {
+            Zstd.freeCCtx(zstdCCtx);
+            zstdCCtx = 0;
+            Unsafe.free(zstdProgress, Zstd.PROGRESS_BLOCK_SIZE, MemoryTag.NATIVE_HTTP_CONN);
+            zstdProgress = 0;
+        }
+        compressOutBuffer.close();
         buffer.close();
         socket = null;
     }
@@ -147,7 +164,11 @@ public class HttpResponseSink implements Closeable, Mutable {
 
         while (true) {
             if (!compressedOutputReady && !compressionComplete) {
-                deflate();
+                if (zstdBeforeSend) {
+                    compressZstd();
+                } else {
+                    deflate();
+                }
             }
 
             if (compressedOutputReady) {
@@ -170,10 +191,83 @@ public class HttpResponseSink implements Closeable, Mutable {
         }
     }
 
+    /**
+     * Switches the response to the zstd content encoding. The compression context is
+     * created on first use and reused by the following responses on the connection.
+     * Returns false when the context cannot be created, leaving the response as is.
+     */
+    public boolean setZstdBeforeSend(long bufferSize) {
+        if (zstdCCtx == 0) {
+            final long cctx = Zstd.createCCtx(zstdCompressionLevel);
+            if (cctx == 0) {
+                return false;
+            }
+            zstdCCtx = cctx;
+            zstdProgress = Unsafe.malloc(Zstd.PROGRESS_BLOCK_SIZE, MemoryTag.NATIVE_HTTP_CONN);
+        }
+        compressOutBuffer.reopen(bufferSize);
+        deflateBeforeSend = true;
+        zstdBeforeSend = true;
+        return true;
+    }
+
     public SimpleResponseImpl simpleResponse() {
         return simpleResponse;
     }
 
+    private void compressZstd() {
+        long nInAvailable = buffer.getReadNAvailable();
+        // the frame is ended on the last chunk only, the stream is continued otherwise
+        final int endOp = chunkedRequestDone ? Zstd.END_FRAME : Zstd.END_CONTINUE;
+
+        long ret;
+        int len;
+        // compress input until we run out of either input or output
+        do {
+            final long inAddress = nInAvailable > 0 ? buffer.getReadAddress() : 0;
+            ret = Zstd.compressStream(
+                    zstdCCtx,
+                    inAddress,
+                    nInAvailable,
+                    compressOutBuffer.getWriteAddress(0),
+                    compressOutBuffer.getWriteNAvailable(),
+                    endOp,
+                    zstdProgress
+            );
+            if (ret < 0) {
+                throw HttpException.instance("could not compress with zstd [ret=").put(ret).put(']');
+            }
+            len = (int) Zstd.getProduced(zstdProgress);
+            compressOutBuffer.onWrite(len);
+
+            final int nInConsumed = (int) Zstd.getConsumed(zstdProgress);
+            if (nInConsumed > 0) {
+                this.total += nInConsumed;
+                buffer.onRead(nInConsumed);
+                nInAvailable -= nInConsumed;
+                httpMetrics.responseZstdRawBytesCounter().add(nInConsumed);
+            }
+        } while (len == 0 && nInAvailable > 0);
+
+        if (nInAvailable == 0) {
+            buffer.clearAndPrepareToWriteToBuffer();
+        }
+
+        if (len == 0) {
+            compressedOutputReady = false;
+            return;
+        }
+        compressedOutputReady = true;
+        httpMetrics.responseZstdCompressedBytesCounter().add(len);
+
+        // zstd returns 0 once the frame epilogue has been written out in full
+        boolean finished = chunkedRequestDone && ret == 0 && nInAvailable == 0;
+        if (finished) {
+            compressionComplete = true;
+        }
+        compressOutBuffer.prepareToReadFromBuffer(true, finished);
+    }
+
     private void deflate() {
         if (!compressedHeaderDone) {
             int len = Zip.gzipHeaderLen;
@@ -200,6 +294,7 @@ public class HttpResponseSink implements Closeable, Mutable {
             ret = Zip.deflate(zStreamPtr, p, sz, chunkedRequestDone);
             len = sz - Zip.availOut(zStreamPtr);
             compressOutBuffer.onWrite(len);
+            httpMetrics.responseGzipCompressedBytesCounter().add(len);
             if (ret < 0) {
                 // This is not an error, zlib just couldn't do any work with the input/output buffers it was provided.
                 // This happens often (will depend on output buffer size) when there is no new input and zlib has finished generating
@@ -214,6 +309,7 @@ public class HttpResponseSink implements Closeable, Mutable {
             if (nInConsumed > 0) {
                 this.crc = Zip.crc32(this.crc, buffer.getReadAddress(), nInConsumed);
                 this.total += nInConsumed;
+                httpMetrics.responseGzipRawBytesCounter().add(nInConsumed);
                 buffer.onRead(nInConsumed);
                 nInAvailable = availIn;
             }
@@ -269,8 +365,14 @@ public class HttpResponseSink implements Closeable, Mutable {
     }
 
     private void resetZip() {
-        if (zStreamPtr != 0) {
-            Zip.deflateReset(zStreamPtr);
+        if (zstdCCtx != 0) {
+            // drops a frame left unfinished by an aborted response
+            Zstd.resetCCtx(zstdCCtx);
+        }
+        if (zStreamPtr != 0 || zstdCCtx != 0) {
+            if (zStreamPtr != 0) {
+                Zip.deflateReset(zStreamPtr);
+            }
             compressOutBuffer.clear();
             crc = 0;
             total = 0;
@@ -542,7 +644,9 @@ public class HttpResponseSink implements Closeable, Mutable {
         @Override
         public void status(int status, CharSequence contentType) {
             super.status(status, contentType);
-            if (deflateBeforeSend) {
+            if (zstdBeforeSend) {
+                headerImpl.putAscii("Content-Encoding: zstd").putEOL();
+            } else if (deflateBeforeSend) {
                 headerImpl.putAscii("Content-Encoding: gzip").putEOL();
             }
         }
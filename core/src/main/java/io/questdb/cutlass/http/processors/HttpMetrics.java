@@ -32,16 +32,42 @@ import io.questdb.std.Mutable;
 public class HttpMetrics implements Mutable {
     private final Counter listenerStateChangeCounter;
     private final LongGauge connectionCountGauge;
+    // compressed and decoded bytes of ILP/HTTP request bodies, per content encoding
+    private final Counter requestGzipCompressedBytesCounter;
+    private final Counter requestGzipDecodedBytesCounter;
+    private final Counter requestZstdCompressedBytesCounter;
+    private final Counter requestZstdDecodedBytesCounter;
+    // raw and compressed bytes of HTTP responses, per content encoding
+    private final Counter responseGzipCompressedBytesCounter;
+    private final Counter responseGzipRawBytesCounter;
+    private final Counter responseZstdCompressedBytesCounter;
+    private final Counter responseZstdRawBytesCounter;
 
     public HttpMetrics(MetricsRegistry metricsRegistry) {
         this.connectionCountGauge = metricsRegistry.newLongGauge("http_connections");
         this.listenerStateChangeCounter = metricsRegistry.newCounter("http_listener_state_change_count");
+        this.requestGzipCompressedBytesCounter = metricsRegistry.newCounter("http_request_gzip_compressed_bytes");
+        this.requestGzipDecodedBytesCounter = metricsRegistry.newCounter("http_request_gzip_decoded_bytes");
+        this.requestZstdCompressedBytesCounter = metricsRegistry.newCounter("http_request_zstd_compressed_bytes");
+        this.requestZstdDecodedBytesCounter = metricsRegistry.newCounter("http_request_zstd_decoded_bytes");
+        this.responseGzipCompressedBytesCounter = metricsRegistry.newCounter("http_response_gzip_compressed_bytes");
+        this.responseGzipRawBytesCounter = metricsRegistry.newCounter("http_response_gzip_raw_bytes");
+        this.responseZstdCompressedBytesCounter = metricsRegistry.newCounter("http_response_zstd_compressed_bytes");
+        this.responseZstdRawBytesCounter = metricsRegistry.newCounter("http_response_zstd_raw_bytes");
     }
 
     @Override
     public void clear() {
         connectionCountGauge.setValue(0);
         listenerStateChangeCounter.reset();
+        requestGzipCompressedBytesCounter.reset();
+        requestGzipDecodedBytesCounter.reset();
+        requestZstdCompressedBytesCounter.reset();
+        requestZstdDecodedBytesCounter.reset();
+        responseGzipCompressedBytesCounter.reset();
+        responseGzipRawBytesCounter.reset();
+        responseZstdCompressedBytesCounter.reset();
+        responseZstdRawBytesCounter.reset();
     }
 
     public Counter listenerStateChangeCounter() {
@@ -51,4 +77,36 @@ public class HttpMetrics implements Mutable {
     public LongGauge connectionCountGauge() {
         return connectionCountGauge;
     }
+
+    public Counter requestGzipCompressedBytesCounter() {
+        return requestGzipCompressedBytesCounter;
+    }
+
+    public Counter requestGzipDecodedBytesCounter() {
+        return requestGzipDecodedBytesCounter;
+    }
+
+    public Counter requestZstdCompressedBytesCounter() {
+        return requestZstdCompressedBytesCounter;
+    }
+
+    public Counter requestZstdDecodedBytesCounter() {
+        return requestZstdDecodedBytesCounter;
+    }
+
+    public Counter responseGzipCompressedBytesCounter() {
+        return responseGzipCompressedBytesCounter;
+    }
+
+    public Counter responseGzipRawBytesCounter() {
+        return responseGzipRawBytesCounter;
+    }
+
+    public Counter responseZstdCompressedBytesCounter() {
+        return responseZstdCompressedBytesCounter;
+    }
+
+    public Counter responseZstdRawBytesCounter() {
+        return responseZstdRawBytesCounter;
+    }
 }
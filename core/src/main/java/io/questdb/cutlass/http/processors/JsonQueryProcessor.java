@@ -172,6 +172,8 @@ public class JsonQueryProcessor implements HttpRequestProcessor, HttpRequestHand
         NetworkSqlExecutionCircuitBreaker circuitBreaker = context.getOrCreateCircuitBreaker(engine);
         SqlExecutionContextImpl sqlExecutionContext = context.getOrCreateSqlExecutionContext(engine, sharedWorkerCount);
         sqlExecutionContext.setQueryFutureUpdateListener(configuration.getQueryFutureUpdateListener());
+        // queries that wait for an admission slot are re-run via the retry queue, see EntryUnavailableException below
+        sqlExecutionContext.setAdmissionParkable(true);
         circuitBreaker.resetTimer();
 
         if (fut == null) {
@@ -245,6 +247,8 @@ public class JsonQueryProcessor implements HttpRequestProcessor, HttpRequestHand
                     context.getMetrics()
             );
             readyForNextRequest(context);
+        } finally {
+            sqlExecutionContext.setAdmissionParkable(false);
         }
     }
 
@@ -289,6 +293,8 @@ public class JsonQueryProcessor implements HttpRequestProcessor, HttpRequestHand
 
         // clear random for a new request to avoid reusing random between requests
         state.setRnd(null);
+        // a new request starts its admission wait afresh, retries keep it
+        context.getOrCreateSqlExecutionContext(engine, sharedWorkerCount).setAdmissionWaitStart(Numbers.LONG_NULL);
 
         if (parseUrl(state, configuration.getKeepAliveHeader())) {
             execute0(state);
@@ -89,6 +89,8 @@ public class LineHttpProcessorImpl implements HttpMultipartContentProcessor, Htt
     public void onChunk(long lo, long hi) {
         if (state.isGzipEncoded()) {
             state.inflateAndParse(lo, hi);
+        } else if (state.isZstdEncoded()) {
+            state.decompressAndParse(lo, hi);
         } else {
             state.parse(lo, hi);
         }
@@ -130,6 +132,11 @@ public class LineHttpProcessorImpl implements HttpMultipartContentProcessor, Htt
             }
             state.setInflateStream(inflateStream);
         }
+        state.setZstdEncoded(encoding != null && Utf8s.equalsIgnoreCaseAscii("zstd", encoding));
+        if (state.isZstdEncoded() && !state.initZstd()) {
+            state.reject(ENCODING_NOT_SUPPORTED, "failed to initialise zstd decompression", context.getFd());
+            return;
+        }
 
         byte timestampPrecision;
         DirectUtf8Sequence precision = requestHeader.getUrlParam(URL_PARAM_PRECISION);
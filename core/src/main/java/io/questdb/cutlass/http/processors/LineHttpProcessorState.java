@@ -46,6 +46,7 @@ import io.questdb.std.QuietCloseable;
 import io.questdb.std.Unsafe;
 import io.questdb.std.WeakClosableObjectPool;
 import io.questdb.std.Zip;
+import io.questdb.std.Zstd;
 import io.questdb.std.str.StringSink;
 import io.questdb.std.str.Utf8Sink;
 
@@ -63,6 +64,7 @@ public class LineHttpProcessorState implements QuietCloseable, ConnectionAware {
     private static Log LOG = LogFactory.getLog(LineHttpProcessorState.class);
     private final LineWalAppender appender;
     private final StringSink error = new StringSink();
+    private final HttpMetrics httpMetrics;
     private final LineHttpTudCache ilpTudCache;
     private final boolean logMessageOnError;
     private final int maxResponseErrorMessageLength;
@@ -75,9 +77,14 @@ public class LineHttpProcessorState implements QuietCloseable, ConnectionAware {
     private long fd = -1;
     private long inflateStream;
     private boolean isGzipEncoded;
+    private boolean isZstdEncoded;
     private int line = 0;
     private SecurityContext securityContext;
     private SendStatus sendStatus = SendStatus.NONE;
+    // zstd context and its progress block are allocated on the first zstd request
+    // and reused by every following request on the connection
+    private long zstdDCtx;
+    private long zstdProgress;
 
     public LineHttpProcessorState(
             int initRecvBufSize,
@@ -112,6 +119,7 @@ public class LineHttpProcessorState implements QuietCloseable, ConnectionAware {
                 5
         );
         this.logMessageOnError = configuration.logMessageOnError();
+        this.httpMetrics = engine.getMetrics().httpMetrics();
     }
 
     public void cleanupGzip() {
@@ -140,6 +148,14 @@ public class LineHttpProcessorState implements QuietCloseable, ConnectionAware {
         Misc.free(symbolCachePool);
         Misc.free(parser);
         cleanupGzip();
+        if (zstdDCtx != 0) {
+            Zstd.freeDCtx(zstdDCtx);
+            zstdDCtx = 0;
+        }
+        if (zstdProgress != 0) {
+            Unsafe.free(zstdProgress, Zstd.PROGRESS_BLOCK_SIZE, MemoryTag.NATIVE_HTTP_CONN);
+            zstdProgress = 0;
+        }
     }
 
     public void commit() {
@@ -151,6 +167,49 @@ public class LineHttpProcessorState implements QuietCloseable, ConnectionAware {
         }
     }
 
+    public void decompressAndParse(long lo, long hi) {
+        if (stopParse()) {
+            return;
+        }
+
+        long src = lo;
+        long srcLen = hi - lo;
+        httpMetrics.requestZstdCompressedBytesCounter().add(srcLen);
+        long pp = recvBuffer.getBufPos();
+        while (!stopParse()) {
+            long p = recvBuffer.getBufPos();
+            long len = recvBuffer.getBufEnd() - p;
+            if (len == 0) {
+                reject(MESSAGE_TOO_LARGE, "server buffer is too small", fd);
+                return;
+            }
+            long ret = Zstd.decompressStream(zstdDCtx, src, srcLen, p, len, zstdProgress);
+            if (ret < 0) {
+                reject(ENCODING_NOT_SUPPORTED, "zstd decompression error", fd);
+                return;
+            }
+            long consumed = Zstd.getConsumed(zstdProgress);
+            long newBytes = Zstd.getProduced(zstdProgress);
+            src += consumed;
+            srcLen -= consumed;
+            if (newBytes > 0) {
+                httpMetrics.requestZstdDecodedBytesCounter().add(newBytes);
+                recvBuffer.setBufPos(p + newBytes);
+                currentStatus = processLocalBuffer();
+                pp = recvBuffer.getBufPos();
+            }
+            // zstd flushes as much as the buffer takes, so a buffer that was not
+            // filled up means all decodable data of this chunk is out
+            if (srcLen == 0 && newBytes < len) {
+                break;
+            }
+        }
+
+        if (recvBuffer.getBufPos() > pp) {
+            currentStatus = processLocalBuffer();
+        }
+    }
+
     public void formatError(Utf8Sink sink) {
         sink.putAscii("{\"code\":\"").putAscii(currentStatus.codeStr);
         sink.putAscii("\",\"message\":\"");
@@ -181,6 +240,7 @@ public class LineHttpProcessorState implements QuietCloseable, ConnectionAware {
         }
 
         Zip.setInput(inflateStream, lo, (int) (hi - lo));
+        httpMetrics.requestGzipCompressedBytesCounter().add(hi - lo);
 
         long pp = recvBuffer.getBufPos();
         while (Zip.availIn(inflateStream) > 0 && !stopParse()) {
@@ -189,6 +249,7 @@ public class LineHttpProcessorState implements QuietCloseable, ConnectionAware {
             int ret = Zip.inflate(inflateStream, p, len, false);
             int newBytes = len - Zip.availOut(inflateStream);
             if (newBytes > 0) {
+                httpMetrics.requestGzipDecodedBytesCounter().add(newBytes);
                 recvBuffer.setBufPos(p + newBytes);
             }
 
@@ -227,6 +288,25 @@ public class LineHttpProcessorState implements QuietCloseable, ConnectionAware {
         }
     }
 
+    /**
+     * Prepares the connection's zstd context for a new request body, allocating it
+     * on first use. Returns false if the context cannot be created or reset.
+     */
+    public boolean initZstd() {
+        if (zstdDCtx == 0) {
+            zstdDCtx = Zstd.createDCtx();
+            if (zstdDCtx == 0) {
+                return false;
+            }
+        } else if (Zstd.resetDCtx(zstdDCtx) < 0) {
+            return false;
+        }
+        if (zstdProgress == 0) {
+            zstdProgress = Unsafe.malloc(Zstd.PROGRESS_BLOCK_SIZE, MemoryTag.NATIVE_HTTP_CONN);
+        }
+        return true;
+    }
+
     public boolean isGzipEncoded() {
         return isGzipEncoded;
     }
@@ -235,6 +315,10 @@ public class LineHttpProcessorState implements QuietCloseable, ConnectionAware {
         return currentStatus == Status.OK;
     }
 
+    public boolean isZstdEncoded() {
+        return isZstdEncoded;
+    }
+
     public void of(long fd, byte timestampPrecision, SecurityContext securityContext) {
         this.fd = fd;
         this.securityContext = securityContext;
@@ -301,6 +385,10 @@ public class LineHttpProcessorState implements QuietCloseable, ConnectionAware {
         this.sendStatus = sendStatus;
     }
 
+    public void setZstdEncoded(boolean zstdEncoded) {
+        isZstdEncoded = zstdEncoded;
+    }
+
     private static String generateErrorId() {
         return UUID.randomUUID().toString().substring(24, 36);
     }
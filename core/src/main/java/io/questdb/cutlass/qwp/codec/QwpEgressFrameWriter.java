@@ -210,6 +210,21 @@ public final class QwpEgressFrameWriter {
         return bodyEnd;
     }
 
+    /**
+     * Writes the body of a {@code SUBSCRIPTION_DELTA} frame: msg_kind + request_id +
+     * seq_txn + retain_from_ts + replace_from_ts.
+     *
+     * @return address just past the body
+     */
+    public static long writeSubscriptionDelta(long bufAddr, long requestId, long seqTxn, long retainFromTs, long replaceFromTs) {
+        Unsafe.putByte(bufAddr, QwpEgressMsgKind.SUBSCRIPTION_DELTA);
+        Unsafe.putLong(bufAddr + 1, requestId);
+        Unsafe.putLong(bufAddr + 9, seqTxn);
+        Unsafe.putLong(bufAddr + 17, retainFromTs);
+        Unsafe.putLong(bufAddr + 25, replaceFromTs);
+        return bufAddr + 33;
+    }
+
     /**
      * UTF-8 encodes {@code s} directly into the native buffer at {@code dst},
      * truncating if the encoded size exceeds {@code cap} bytes. Avoids the
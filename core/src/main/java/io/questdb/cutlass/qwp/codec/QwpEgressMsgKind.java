@@ -132,6 +132,36 @@ public final class QwpEgressMsgKind {
      * 0x17 is claimed by {@link #CACHE_RESET}; SERVER_INFO lives at 0x18.
      */
     public static final byte SERVER_INFO = 0x18;
+    /**
+     * Client-to-server subscription to a live view. Body (little-endian):
+     * {@code msg_kind:u8, request_id:u64, from_seq_txn:i64, initial_credit:varint,
+     * view_name_len:varint, view_name:utf8}.
+     * <p>
+     * {@code from_seq_txn} is the {@code seq_txn} of the last {@link #SUBSCRIPTION_DELTA}
+     * the client fully applied; {@code -1} asks for a full snapshot. The server also
+     * falls back to a snapshot when the view's transaction log no longer covers the
+     * requested position. The server answers with a stream of deltas, each one a
+     * {@code SUBSCRIPTION_DELTA} frame followed by {@code RESULT_BATCH} frames and a
+     * {@code RESULT_END} under the subscription's request id. {@code initial_credit}
+     * is granted afresh to every delta; {@code CREDIT} tops up the delta in flight.
+     * {@code CANCEL} with the same request id ends the subscription, and a
+     * {@code QUERY_ERROR} for it is terminal.
+     */
+    public static final byte SUBSCRIBE = 0x19;
+    /**
+     * Server-to-client header of one live view delta. Body (little-endian):
+     * {@code msg_kind:u8, request_id:u64, seq_txn:i64, retain_from_ts:i64,
+     * replace_from_ts:i64}.
+     * <p>
+     * The client drops rows below {@code retain_from_ts} (retention) and rows at or
+     * above {@code replace_from_ts} (updated band), then appends the rows of the
+     * result that follows. {@code replace_from_ts} is {@code LONG_NULL} when the
+     * delta is a full snapshot. {@code seq_txn} is the cursor to resume from on
+     * {@code SUBSCRIBE}. Deltas coalesce every view
+     * transaction since the previous one, so a slow consumer never queues more
+     * than one.
+     */
+    public static final byte SUBSCRIPTION_DELTA = 0x1A;
     private static final byte[] ROLE_NAME_BYTES_PRIMARY = "PRIMARY".getBytes(StandardCharsets.US_ASCII);
     private static final byte[] ROLE_NAME_BYTES_PRIMARY_CATCHUP = "PRIMARY_CATCHUP".getBytes(StandardCharsets.US_ASCII);
     private static final byte[] ROLE_NAME_BYTES_REPLICA = "REPLICA".getBytes(StandardCharsets.US_ASCII);
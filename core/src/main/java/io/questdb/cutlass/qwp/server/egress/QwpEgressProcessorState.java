@@ -26,6 +26,7 @@ package io.questdb.cutlass.qwp.server.egress;
 
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.SecurityContext;
+import io.questdb.cairo.lv.LiveViewSubscriberRegistry;
 import io.questdb.cairo.sql.PageFrame;
 import io.questdb.cairo.sql.PageFrameAddressCache;
 import io.questdb.cairo.sql.PageFrameCursor;
@@ -45,6 +46,7 @@ import io.questdb.griffin.engine.functions.bind.BindVariableServiceImpl;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.mp.SCSequence;
+import io.questdb.network.IOContext;
 import io.questdb.std.Chars;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.Misc;
@@ -273,6 +275,10 @@ public class QwpEgressProcessorState implements QuietCloseable, ConnectionAware
      * {@link QwpEgressUpgradeProcessor} reaches the cache-put site.
      */
     private String streamingSqlText;
+    // Live view push subscription owned by this connection, if any. Allocated on the
+    // first SUBSCRIBE and reused for later ones; active while subscriptionActive is set.
+    private QwpEgressSubscription subscription;
+    private boolean subscriptionActive;
     private boolean wsHandshakeSent;
     // Native ZSTD_CCtx handle (pointer from Zstd.createCCtx). 0 means not yet
     // allocated. Lives across queries on the same connection because the
@@ -479,6 +485,7 @@ public class QwpEgressProcessorState implements QuietCloseable, ConnectionAware
 
     public void clear() {
         endStreaming();
+        endSubscription();
         recvBufferLen = 0;
         wsHandshakeSent = false;
         handshakeFlushPending = false;
@@ -516,6 +523,7 @@ public class QwpEgressProcessorState implements QuietCloseable, ConnectionAware
         pageFrameMemoryRecord = Misc.free(pageFrameMemoryRecord);
         pageFrameMemoryPool = Misc.free(pageFrameMemoryPool);
         pageFrameAddressCache = Misc.free(pageFrameAddressCache);
+        subscription = Misc.free(subscription);
         if (zstdCompressScratchAddr != 0) {
             Unsafe.free(zstdCompressScratchAddr, zstdCompressScratchCapacity, MemoryTag.NATIVE_DEFAULT);
             zstdCompressScratchAddr = 0;
@@ -649,6 +657,17 @@ public class QwpEgressProcessorState implements QuietCloseable, ConnectionAware
         streamingSqlText = null;
     }
 
+    /**
+     * Ends the live view subscription, if any. The subscription object stays allocated
+     * for reuse by the next SUBSCRIBE on this connection.
+     */
+    public void endSubscription() {
+        if (subscriptionActive) {
+            subscription.detach();
+            subscriptionActive = false;
+        }
+    }
+
     public QwpResultBatchBuffer getBatchBuffer() {
         return batchBuffer;
     }
@@ -779,6 +798,13 @@ public class QwpEgressProcessorState implements QuietCloseable, ConnectionAware
         return streamingPageFrameCursor != null ? streamingPageFrameCursor : streamingCursor;
     }
 
+    /**
+     * Returns the active live view subscription, or null when the connection has none.
+     */
+    public QwpEgressSubscription getSubscription() {
+        return subscriptionActive ? subscription : null;
+    }
+
     public boolean isHandshakeFlushPending() {
         return handshakeFlushPending;
     }
@@ -952,6 +978,21 @@ public class QwpEgressProcessorState implements QuietCloseable, ConnectionAware
         this.wsHandshakeSent = wsHandshakeSent;
     }
 
+    public QwpEgressSubscription subscribe(
+            long requestId,
+            CharSequence viewName,
+            long fromSeqTxn,
+            long initialCredit,
+            LiveViewSubscriberRegistry registry,
+            IOContext<?> context
+    ) {
+        if (subscription == null) {
+            subscription = new QwpEgressSubscription(cairoConfiguration);
+        }
+        subscriptionActive = true;
+        return subscription.of(requestId, viewName, fromSeqTxn, initialCredit, registry, context);
+    }
+
     /**
      * Returns the native {@code ZSTD_CCtx} pointer, allocating it on first use.
      * Caller must already know compression is active (codec != COMPRESSION_NONE)
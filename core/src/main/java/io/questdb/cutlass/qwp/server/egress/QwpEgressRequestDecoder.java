@@ -60,6 +60,7 @@ public class QwpEgressRequestDecoder {
      */
     public final StringSink selectCacheKey = new StringSink();
     public final StringSink sql = new StringSink();
+    public final StringSink viewName = new StringSink();
     /**
      * Reusable sink passed to {@link BindVariableService#setStr}. The
      * implementation copies the value out, so we can safely reuse this
@@ -79,6 +80,7 @@ public class QwpEgressRequestDecoder {
      * count returned by the decoder.
      */
     private final QwpVarint.DecodeResult varintScratch = new QwpVarint.DecodeResult();
+    public long fromSeqTxn;
     public long initialCredit;
     public long queryFlags;
     public long requestId;
@@ -212,6 +214,42 @@ public class QwpEgressRequestDecoder {
         }
     }
 
+    /**
+     * Decodes a SUBSCRIBE payload. The first byte (msg_kind) must already be SUBSCRIBE.
+     * <p>
+     * Populates {@link #requestId}, {@link #fromSeqTxn}, {@link #initialCredit}
+     * and {@link #viewName}.
+     */
+    public void decodeSubscribe(long payload, int payloadLen) throws QwpParseException {
+        long limit = payload + payloadLen;
+        long p = payload + 1; // skip msg_kind
+        if (p + 16 > limit) {
+            throw QwpParseException.instance(QwpParseException.ErrorCode.INSUFFICIENT_DATA).put("SUBSCRIBE: header truncated");
+        }
+        requestId = Unsafe.getLong(p);
+        fromSeqTxn = Unsafe.getLong(p + 8);
+        p += 16;
+
+        QwpVarint.decode(p, limit, varintScratch);
+        initialCredit = varintScratch.value;
+        p += varintScratch.bytesRead;
+        if (initialCredit < 0) {
+            throw QwpParseException.instance(QwpParseException.ErrorCode.INSUFFICIENT_DATA).put("SUBSCRIBE: initial_credit must be non-negative: ").put(initialCredit);
+        }
+
+        QwpVarint.decode(p, limit, varintScratch);
+        long nameLen = varintScratch.value;
+        p += varintScratch.bytesRead;
+        if (nameLen <= 0 || nameLen > (limit - p)) {
+            throw QwpParseException.instance(QwpParseException.ErrorCode.INSUFFICIENT_DATA).put("SUBSCRIBE: view_name_len out of range: ").put(nameLen);
+        }
+        viewName.clear();
+        if (!Utf8s.utf8ToUtf16(p, p + nameLen, viewName)) {
+            throw QwpParseException.instance(QwpParseException.ErrorCode.INSUFFICIENT_DATA)
+                    .put("SUBSCRIBE: view name contains invalid UTF-8");
+        }
+    }
+
     /**
      * Returns the {@link QwpEgressMsgKind} byte at the start of the payload.
      */
@@ -228,6 +266,8 @@ public class QwpEgressRequestDecoder {
         requestId = 0;
         initialCredit = 0;
         queryFlags = 0;
+        viewName.clear();
+        fromSeqTxn = 0;
     }
 
     private long decodeBind(long start, long limit, int index, BindVariableService bindVars)
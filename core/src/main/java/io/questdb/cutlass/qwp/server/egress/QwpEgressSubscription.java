@@ -0,0 +1,290 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.qwp.server.egress;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableReaderMetadata;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.lv.LiveViewInstance;
+import io.questdb.cairo.lv.LiveViewSubscriber;
+import io.questdb.cairo.lv.LiveViewSubscriberRegistry;
+import io.questdb.cairo.sql.BindVariableService;
+import io.questdb.cairo.wal.WalEventCursor;
+import io.questdb.cairo.wal.WalEventReader;
+import io.questdb.cairo.wal.WalTxnDetails;
+import io.questdb.cairo.wal.WalTxnType;
+import io.questdb.cairo.wal.WalUtils;
+import io.questdb.cairo.wal.seq.TransactionLogCursor;
+import io.questdb.griffin.SqlException;
+import io.questdb.network.IOContext;
+import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+
+/**
+ * Push subscription to a live view on a QWP egress connection.
+ * <p>
+ * The live view keeps its result in a WAL table, so every refresh cycle lands as one
+ * or more sequencer transactions. A subscription remembers the last transaction it
+ * delivered and, when polled, walks the transactions committed since then to find the
+ * lowest timestamp they touched. Everything at or above that timestamp is re-read
+ * with a bounded range scan on the view and shipped as one delta; the client replaces
+ * its copy of that band and drops the rows that fell out of retention. Inserts, updates
+ * and retractions all reduce to "replace the band", which keeps the client-side merge
+ * trivial and lets the server reuse a single cached plan for every delta.
+ * <p>
+ * The subscription is registered with the engine's {@link LiveViewSubscriberRegistry}, and
+ * every refresh applied to the view wakes the owning connection, which then polls it.
+ * Deltas are produced on demand and never queued: while one is streaming, further
+ * commits accumulate in the transaction log and the next poll coalesces all of them.
+ * When the log no longer covers the cursor, or a transaction is not a plain data
+ * commit (truncate, partition drop, schema change), the subscription falls back to a
+ * full snapshot.
+ */
+public class QwpEgressSubscription implements LiveViewSubscriber, QuietCloseable {
+    private final StringSink cacheKey = new StringSink();
+    private final WalEventReader eventReader;
+    private final StringSink sql = new StringSink();
+    private final StringSink viewName = new StringSink();
+    private final Path walPath = new Path();
+    // the connection to wake up, set while registered
+    private volatile IOContext<?> context;
+    private boolean deltaPending;
+    private long deltaReplaceFromTs;
+    private long deltaRetainFromTs;
+    private long deltaSeqTxn;
+    private long initialCredit;
+    private LiveViewSubscriberRegistry registry;
+    private long requestId;
+    private long seqTxn;
+
+    public QwpEgressSubscription(CairoConfiguration configuration) {
+        this.eventReader = new WalEventReader(configuration);
+    }
+
+    /**
+     * Clears the staged delta header once it has been written to the wire.
+     */
+    public void clearDeltaPending() {
+        deltaPending = false;
+    }
+
+    @Override
+    public void close() {
+        detach();
+        Misc.free(eventReader);
+        Misc.free(walPath);
+    }
+
+    /**
+     * Removes the subscription from the registry, after which the connection is no longer woken.
+     */
+    public void detach() {
+        if (registry != null) {
+            registry.remove(this);
+            registry = null;
+        }
+        context = null;
+    }
+
+    /**
+     * Select-cache key of the delta query, valid after {@link #prepareDelta} returned true.
+     */
+    public CharSequence getCacheKey() {
+        return cacheKey;
+    }
+
+    public long getDeltaReplaceFromTs() {
+        return deltaReplaceFromTs;
+    }
+
+    public long getDeltaRetainFromTs() {
+        return deltaRetainFromTs;
+    }
+
+    public long getDeltaSeqTxn() {
+        return deltaSeqTxn;
+    }
+
+    public long getInitialCredit() {
+        return initialCredit;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public long getSeqTxn() {
+        return seqTxn;
+    }
+
+    /**
+     * Delta query text, valid after {@link #prepareDelta} returned true.
+     */
+    public CharSequence getSql() {
+        return sql;
+    }
+
+    @Override
+    public CharSequence getViewName() {
+        return viewName;
+    }
+
+    public boolean isDeltaPending() {
+        return deltaPending;
+    }
+
+    public QwpEgressSubscription of(
+            long requestId,
+            CharSequence viewName,
+            long fromSeqTxn,
+            long initialCredit,
+            LiveViewSubscriberRegistry registry,
+            IOContext<?> context
+    ) {
+        detach();
+        this.requestId = requestId;
+        this.viewName.clear();
+        this.viewName.put(viewName);
+        this.seqTxn = fromSeqTxn;
+        this.initialCredit = initialCredit;
+        this.deltaPending = false;
+        this.context = context;
+        this.registry = registry;
+        registry.add(this);
+        return this;
+    }
+
+    @Override
+    public void onViewCommitted() {
+        final IOContext<?> context = this.context;
+        if (context != null) {
+            context.wake();
+        }
+    }
+
+    /**
+     * Checks the view for transactions committed after the subscription cursor. When there
+     * are some, stages the next delta: binds the range into {@code bindVars}, fills
+     * {@link #getSql()} / {@link #getCacheKey()} and the delta header, and advances the
+     * cursor. Returns false when the view has not moved.
+     *
+     * @throws CairoException when the live view no longer exists
+     */
+    public boolean prepareDelta(CairoEngine engine, BindVariableService bindVars) throws SqlException {
+        final LiveViewInstance instance = engine.getLiveViewRegistry().getViewInstance(viewName);
+        if (instance == null) {
+            throw CairoException.tableDoesNotExist(viewName);
+        }
+        final TableToken token = instance.getLiveViewToken();
+        try (TableReader reader = engine.getReader(token)) {
+            final long readerSeqTxn = reader.getSeqTxn();
+            if (seqTxn == readerSeqTxn) {
+                return false;
+            }
+            // A cursor ahead of the view means the client resumes against a view that
+            // was dropped and re-created; the only safe answer is a fresh snapshot.
+            long replaceFromTs = seqTxn < 0 || seqTxn > readerSeqTxn
+                    ? Numbers.LONG_NULL
+                    : findReplaceFromTs(engine, token, readerSeqTxn);
+
+            final TableReaderMetadata metadata = reader.getMetadata();
+            final int timestampIndex = metadata.getTimestampIndex();
+            if (timestampIndex < 0) {
+                throw CairoException.nonCritical().put("live view has no designated timestamp [view=").put(viewName).put(']');
+            }
+            final int timestampType = metadata.getColumnType(timestampIndex);
+            final CharSequence timestampName = metadata.getColumnName(timestampIndex);
+            bindVars.clear();
+            bindVars.setTimestampWithType(0, timestampType, replaceFromTs == Numbers.LONG_NULL ? Numbers.LONG_NULL + 1 : replaceFromTs);
+            // An empty view reports LONG_NULL as its max timestamp, and the range
+            // collapses to nothing.
+            bindVars.setTimestampWithType(1, timestampType, reader.getMaxTimestamp());
+
+            sql.clear();
+            sql.put("select * from \"").put(viewName).put("\" where \"").put(timestampName)
+                    .put("\" >= $1 and \"").put(timestampName).put("\" <= $2");
+            // Same [types]sql shape as QwpEgressRequestDecoder.buildSelectCacheKey, so every
+            // delta after the first is served by the cached plan.
+            cacheKey.clear();
+            cacheKey.put('[').put(timestampType).put(',').put(timestampType).put(']').put(sql);
+
+            deltaSeqTxn = readerSeqTxn;
+            deltaRetainFromTs = reader.getMinTimestamp();
+            deltaReplaceFromTs = replaceFromTs;
+            deltaPending = true;
+            seqTxn = readerSeqTxn;
+            return true;
+        }
+    }
+
+    /**
+     * Returns the lowest timestamp touched by the view transactions in
+     * {@code (seqTxn, toSeqTxn]}, or {@code LONG_NULL} when the range cannot be expressed
+     * as a timestamp band and the client needs a full snapshot.
+     */
+    private long findReplaceFromTs(CairoEngine engine, TableToken token, long toSeqTxn) {
+        long minTs = Long.MAX_VALUE;
+        try (TransactionLogCursor txnCursor = engine.getTableSequencerAPI().getCursor(token, seqTxn)) {
+            while (txnCursor.hasNext()) {
+                final long txn = txnCursor.getTxn();
+                if (txn > toSeqTxn) {
+                    break;
+                }
+                final int walId = txnCursor.getWalId();
+                if (walId <= 0) {
+                    // structural change
+                    return Numbers.LONG_NULL;
+                }
+                walPath.of(engine.getConfiguration().getDbRoot())
+                        .concat(token)
+                        .concat(WalUtils.WAL_NAME_BASE).put(walId).slash().put(txnCursor.getSegmentId());
+                final WalEventCursor eventCursor = WalTxnDetails.openWalEFile(walPath, eventReader, txnCursor.getSegmentTxn(), txn);
+                if (!WalTxnType.isDataType(eventCursor.getType())) {
+                    return Numbers.LONG_NULL;
+                }
+                final WalEventCursor.DataInfo dataInfo = eventCursor.getDataInfo();
+                if (dataInfo.getEndRowID() > dataInfo.getStartRowID()) {
+                    minTs = Math.min(minTs, dataInfo.getMinTimestamp());
+                }
+                if (dataInfo.getDedupMode() == WalUtils.WAL_DEDUP_MODE_REPLACE_RANGE) {
+                    minTs = Math.min(minTs, dataInfo.getReplaceRangeTsLow());
+                }
+            }
+        } catch (CairoException e) {
+            // the transaction log or WAL segments backing the cursor have been purged
+            return Numbers.LONG_NULL;
+        } finally {
+            eventReader.close();
+        }
+        // commits that neither inserted nor removed rows leave the band empty (Long.MAX_VALUE)
+        return Math.max(minTs, Numbers.LONG_NULL + 1);
+    }
+}
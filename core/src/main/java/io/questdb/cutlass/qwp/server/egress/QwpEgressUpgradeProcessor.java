@@ -497,11 +497,14 @@ public class QwpEgressUpgradeProcessor implements HttpRequestProcessor, QuietClo
                 throw ServerDisconnectException.INSTANCE;
             }
             if (read == 0) {
+                // nothing from the peer, the dispatcher woke us up because the subscribed view committed
+                pollSubscription(context, state);
                 throw PeerIsSlowToWriteException.INSTANCE;
             }
 
             recvBufferLen += read;
             processWebSocketFrames(context, state, recvBuffer, recvBufferLen);
+            pollSubscription(context, state);
 
             if (read == forceRecvFragmentationChunkSize) {
                 throw PeerIsSlowToWriteException.INSTANCE;
@@ -818,6 +821,7 @@ public class QwpEgressUpgradeProcessor implements HttpRequestProcessor, QuietClo
             case QwpEgressMsgKind.QUERY_REQUEST -> handleQueryRequest(context, state, payload, length);
             case QwpEgressMsgKind.CANCEL -> handleCancel(context, state, payload, length);
             case QwpEgressMsgKind.CREDIT -> handleCredit(context, state, payload, length);
+            case QwpEgressMsgKind.SUBSCRIBE -> handleSubscribe(context, state, payload, length);
             default -> {
                 LOG.error().$("Egress unknown msg_kind [fd=").$(context.getFd())
                         .$(", kind=0x").$(Integer.toHexString(msgKind & 0xFF)).I$();
@@ -863,6 +867,35 @@ public class QwpEgressUpgradeProcessor implements HttpRequestProcessor, QuietClo
         sendFrame(rawSocket, bufAddr, qwpStart, qwpSize);
     }
 
+    /**
+     * Writes the {@code SUBSCRIPTION_DELTA} header staged by {@link #pollSubscription}
+     * ahead of the delta's first RESULT_BATCH. Same clear-before-send discipline as
+     * {@link #emitPendingCacheReset}, so a PISR re-entry does not emit it twice.
+     */
+    private void emitPendingSubscriptionDelta(HttpConnectionContext context, QwpEgressProcessorState state)
+            throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final QwpEgressSubscription subscription = state.getSubscription();
+        if (subscription == null || !subscription.isDeltaPending() || subscription.getRequestId() != state.getStreamingRequestId()) {
+            return;
+        }
+        HttpRawSocket rawSocket = context.getRawResponseSocket();
+        long bufAddr = rawSocket.getBufferAddress();
+        long qwpStart = bufAddr + QwpEgressFrameWriter.WS_HEADER_RESERVATION;
+        long bodyStart = QwpEgressFrameWriter.writeMessageHeader(
+                qwpStart, state.getNegotiatedVersion(), (byte) 0, 0, 0 /* payload len patched */);
+        long bodyEnd = QwpEgressFrameWriter.writeSubscriptionDelta(
+                bodyStart,
+                subscription.getRequestId(),
+                subscription.getDeltaSeqTxn(),
+                subscription.getDeltaRetainFromTs(),
+                subscription.getDeltaReplaceFromTs()
+        );
+        int qwpSize = (int) (bodyEnd - qwpStart);
+        QwpEgressFrameWriter.patchPayloadLength(qwpStart, qwpSize - QwpConstants.HEADER_SIZE);
+        subscription.clearDeltaPending();
+        sendFrame(rawSocket, bufAddr, qwpStart, qwpSize);
+    }
+
     // Egress message dispatch and query execution
 
     /**
@@ -993,6 +1026,11 @@ public class QwpEgressUpgradeProcessor implements HttpRequestProcessor, QuietClo
                 state.markStreamingCancelRequested();
                 LOG.info().$("Egress CANCEL accepted [fd=").$(context.getFd())
                         .$(", requestId=").$(targetRequestId).I$();
+            } else if (state.getSubscription() != null && state.getSubscription().getRequestId() == targetRequestId) {
+                // idle subscription, nothing on the wire to abort
+                state.endSubscription();
+                LOG.info().$("Egress subscription cancelled [fd=").$(context.getFd())
+                        .$(", requestId=").$(targetRequestId).I$();
             } else {
                 LOG.debug().$("Egress CANCEL for unknown query [fd=").$(context.getFd())
                         .$(", targetRequestId=").$(targetRequestId)
@@ -1180,21 +1218,7 @@ public class QwpEgressUpgradeProcessor implements HttpRequestProcessor, QuietClo
                     .$(", requestId=").$(requestId)
                     .$(", sqlLen=").$(decoder.sql.length()).I$();
 
-            SqlExecutionContextImpl sqlCtx = context.getOrCreateSqlExecutionContext(engine, sharedWorkerCount);
-            NetworkSqlExecutionCircuitBreaker circuitBreaker = context.getOrCreateCircuitBreaker(engine);
-            circuitBreaker.resetTimer();
-            sqlCtx.with(
-                    context.getSecurityContext(),
-                    state.getBindVariableService(),
-                    null,
-                    context.getFd(),
-                    circuitBreaker.of(context.getFd())
-            );
-            sqlCtx.initNow();
-            // The breaker is shared with the plain-HTTP processors that may have served this
-            // connection before the upgrade; /exec and /exp set per-statement timeouts on it,
-            // so reset to the default, matching JsonQueryProcessor.
-            circuitBreaker.resetMaxTimeToDefault();
+            SqlExecutionContextImpl sqlCtx = prepareSqlExecutionContext(context, state);
 
             // Bounded retry loop: a factory returned by the compile cache may have a
             // stale TableReader reference if the table was dropped+recreated after
@@ -1352,6 +1376,42 @@ public class QwpEgressUpgradeProcessor implements HttpRequestProcessor, QuietClo
         }
     }
 
+    /**
+     * SUBSCRIBE handler: registers a push subscription to a live view and sends the first
+     * delta right away (a snapshot, or the catch-up from the client's resume cursor).
+     * A connection carries at most one subscription, and it shares the single stream
+     * slot with ad-hoc queries.
+     */
+    private void handleSubscribe(HttpConnectionContext context, QwpEgressProcessorState state, long payload, int length)
+            throws PeerDisconnectedException, PeerIsSlowToReadException {
+        long requestId = length >= 9 ? Unsafe.getLong(payload + 1) : 0;
+        if (state.isStreamingActive() || state.getSubscription() != null) {
+            sendQueryError(context, state, requestId, QwpConstants.STATUS_PARSE_ERROR,
+                    "egress supports a single in-flight query or subscription per connection");
+            return;
+        }
+        QwpEgressRequestDecoder decoder = state.getDecoder();
+        try {
+            decoder.decodeSubscribe(payload, length);
+        } catch (QwpParseException e) {
+            sendQueryError(context, state, requestId, QwpConstants.STATUS_PARSE_ERROR, e.getFlyweightMessage());
+            return;
+        }
+        LOG.info().$("Egress SUBSCRIBE [fd=").$(context.getFd())
+                .$(", requestId=").$(decoder.requestId)
+                .$(", view=").$safe(decoder.viewName)
+                .$(", fromSeqTxn=").$(decoder.fromSeqTxn).I$();
+        state.subscribe(
+                decoder.requestId,
+                decoder.viewName,
+                decoder.fromSeqTxn,
+                decoder.initialCredit,
+                engine.getLiveViewSubscriberRegistry(),
+                context
+        );
+        pollSubscription(context, state);
+    }
+
     private void handleWebSocketFrame(
             HttpConnectionContext context,
             QwpEgressProcessorState state,
@@ -1413,6 +1473,133 @@ public class QwpEgressUpgradeProcessor implements HttpRequestProcessor, QuietClo
         return negotiated;
     }
 
+    /**
+     * Egress counterpart of {@link #handleQueryRequest} for live view subscriptions:
+     * when the subscribed view has committed since the last delta, opens the delta
+     * range scan and streams it behind a {@code SUBSCRIPTION_DELTA} header. No-op while
+     * another stream (a query or the previous delta) is in flight; the transactions it
+     * misses are coalesced into the next delta.
+     * <p>
+     * Polled when a refresh of the view wakes the connection up (see
+     * {@link QwpEgressSubscription#onViewCommitted()}) and after every batch of inbound
+     * frames. Commits that land while the connection is busy keep the wake request pending
+     * until it parks on a read again, so none of them is missed.
+     */
+    private void pollSubscription(HttpConnectionContext context, QwpEgressProcessorState state)
+            throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final QwpEgressSubscription subscription = state.getSubscription();
+        if (subscription == null || state.isStreamingActive()) {
+            return;
+        }
+        final long requestId = subscription.getRequestId();
+        boolean streamingHandedOff = false;
+        RecordCursorFactory factory = null;
+        RecordCursor cursor = null;
+        PageFrameCursor pageFrameCursor = null;
+        try {
+            if (!subscription.prepareDelta(engine, state.getBindVariableService())) {
+                return;
+            }
+            applyCacheResetForUpcomingQuery(context, state, false);
+            LOG.debug().$("Egress subscription delta [fd=").$(context.getFd())
+                    .$(", requestId=").$(requestId)
+                    .$(", seqTxn=").$(subscription.getDeltaSeqTxn())
+                    .$(", replaceFromTs=").$(subscription.getDeltaReplaceFromTs()).I$();
+
+            SqlExecutionContextImpl sqlCtx = prepareSqlExecutionContext(context, state);
+            final CharSequence cacheKey = subscription.getCacheKey();
+            for (int retries = 0; ; retries++) {
+                try {
+                    if (retries == 0) {
+                        factory = selectCache.poll(cacheKey);
+                    }
+                    if (factory == null) {
+                        try (SqlCompiler compiler = engine.getSqlCompiler()) {
+                            factory = compiler.compile(subscription.getSql(), sqlCtx).getRecordCursorFactory();
+                        }
+                    }
+                    if (factory.supportsPageFrameCursor()) {
+                        pageFrameCursor = factory.getPageFrameCursor(sqlCtx, PartitionFrameCursorFactory.ORDER_ASC);
+                    }
+                    if (pageFrameCursor == null) {
+                        cursor = factory.getCursor(sqlCtx);
+                    }
+                    break;
+                } catch (TableReferenceOutOfDateException e) {
+                    cursor = Misc.free(cursor);
+                    pageFrameCursor = Misc.free(pageFrameCursor);
+                    factory = Misc.free(factory);
+                    if (retries == maxSqlRecompileAttempts) {
+                        throw SqlException.$(0, e.getFlyweightMessage());
+                    }
+                }
+            }
+            RecordMetadata metadata = factory.getMetadata();
+            int columnCount = metadata.getColumnCount();
+            ObjList<QwpEgressColumnDef> columnDefs = state.borrowColumnDefs(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                columnDefs.getQuick(i).of(metadata.getColumnName(i), metadata.getColumnType(i));
+            }
+            if (pageFrameCursor != null) {
+                pageFrameCursor.setScanProfile(ReaderScanProfile.SEQUENTIAL_CACHED);
+                state.beginStreamingPageFrame(requestId, factory, pageFrameCursor,
+                        columnCount, subscription.getInitialCredit(), cacheKey);
+            } else {
+                state.beginStreaming(requestId, factory, cursor,
+                        columnCount, subscription.getInitialCredit(), cacheKey);
+            }
+            streamingHandedOff = true;
+            streamResults(context, state);
+        } catch (PeerDisconnectedException e) {
+            if (state.isStreamingActive()) {
+                state.endStreaming();
+            }
+            throw e;
+        } catch (PeerIsSlowToReadException e) {
+            throw e;
+        } catch (Throwable e) {
+            LOG.error().$("Egress subscription failed [fd=").$(context.getFd())
+                    .$(", requestId=").$(requestId)
+                    .$(", error=").$(e).I$();
+            if (state.isStreamingActive()) {
+                state.getBatchBuffer().rollbackCurrentBatch();
+                state.endStreaming();
+            } else if (!streamingHandedOff) {
+                Misc.free(cursor);
+                Misc.free(pageFrameCursor);
+                Misc.free(factory);
+            }
+            byte status = mapErrorStatusAndMark(e);
+            try {
+                // terminal for the subscription, see sendQueryError
+                sendQueryError(context, state, requestId, status,
+                        e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+            } catch (PeerDisconnectedException | PeerIsSlowToReadException sendFail) {
+                throw sendFail;
+            } catch (Throwable ignored) {
+            }
+        }
+    }
+
+    private SqlExecutionContextImpl prepareSqlExecutionContext(HttpConnectionContext context, QwpEgressProcessorState state) {
+        SqlExecutionContextImpl sqlCtx = context.getOrCreateSqlExecutionContext(engine, sharedWorkerCount);
+        NetworkSqlExecutionCircuitBreaker circuitBreaker = context.getOrCreateCircuitBreaker(engine);
+        circuitBreaker.resetTimer();
+        sqlCtx.with(
+                context.getSecurityContext(),
+                state.getBindVariableService(),
+                null,
+                context.getFd(),
+                circuitBreaker.of(context.getFd())
+        );
+        sqlCtx.initNow();
+        // The breaker is shared with the plain-HTTP processors that may have served this
+        // connection before the upgrade; /exec and /exp set per-statement timeouts on it,
+        // so reset to the default, matching JsonQueryProcessor.
+        circuitBreaker.resetMaxTimeToDefault();
+        return sqlCtx;
+    }
+
     private void processWebSocketFrames(HttpConnectionContext context, QwpEgressProcessorState state, long buffer, int bufferLen)
             throws ServerDisconnectException, PeerDisconnectedException, PeerIsSlowToReadException {
         long bufferEnd = buffer + bufferLen;
@@ -1539,6 +1726,11 @@ public class QwpEgressUpgradeProcessor implements HttpRequestProcessor, QuietClo
             byte status,
             CharSequence msg
     ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        // an error reported against the subscription's request id is terminal for it
+        final QwpEgressSubscription subscription = state.getSubscription();
+        if (subscription != null && subscription.getRequestId() == requestId) {
+            state.endSubscription();
+        }
         HttpRawSocket rawSocket = context.getRawResponseSocket();
         long bufAddr = rawSocket.getBufferAddress();
         int bufSize = rawSocket.getBufferSize();
@@ -1857,6 +2049,7 @@ public class QwpEgressUpgradeProcessor implements HttpRequestProcessor, QuietClo
         // streamingActive=false. Idempotent: getPendingCacheResetMask returns
         // 0 once consumed, so resumeSend re-entries skip the emit.
         emitPendingCacheReset(context, state);
+        emitPendingSubscriptionDelta(context, state);
         QwpResultBatchBuffer batchBuffer = state.getBatchBuffer();
         ObjList<QwpEgressColumnDef> columnDefs = state.borrowColumnDefs(state.getStreamingColumnCount());
         long requestId = state.getStreamingRequestId();
@@ -38,6 +38,7 @@ import io.questdb.cairo.TableStructure;
 import io.questdb.cairo.TableToken;
 import io.questdb.cairo.TableUtils;
 import io.questdb.cairo.TableWriter;
+import io.questdb.cairo.TableWriterAPI;
 import io.questdb.cairo.TxReader;
 import io.questdb.cairo.TxnScoreboardPool;
 import io.questdb.cairo.security.AllowAllSecurityContext;
@@ -45,6 +46,7 @@ import io.questdb.cairo.sql.ExecutionCircuitBreaker;
 import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryCMARW;
+import io.questdb.cairo.wal.WalWriter;
 import io.questdb.cutlass.text.types.TimestampAdapter;
 import io.questdb.cutlass.text.types.TypeAdapter;
 import io.questdb.griffin.engine.functions.columns.ColumnUtils;
@@ -56,6 +58,7 @@ import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.IOURing;
 import io.questdb.std.IOURingFacade;
+import io.questdb.std.IntList;
 import io.questdb.std.IntObjHashMap;
 import io.questdb.std.LongList;
 import io.questdb.std.MemoryTag;
@@ -90,6 +93,7 @@ public class CopyImportTask {
     public static final byte PHASE_SETUP = 0;
     public static final byte PHASE_SYMBOL_TABLE_MERGE = 4;
     public static final byte PHASE_UPDATE_SYMBOL_KEYS = 5;
+    public static final byte PHASE_WAL_COMMIT = 11;
     public static final byte STATUS_CANCELLED = 3;
     public static final byte STATUS_FAILED = 2;
     public static final byte STATUS_FINISHED = 1;
@@ -362,6 +366,43 @@ public class CopyImportTask {
             int lo,
             int hi,
             final ObjList<ParallelCsvFileImporter.PartitionInfo> partitions
+    ) {
+        ofPhasePartitionImport(
+                cairoEngine,
+                targetTableStructure,
+                types,
+                atomicity,
+                columnDelimiter,
+                importRoot,
+                inputFileName,
+                index,
+                lo,
+                hi,
+                partitions,
+                null,
+                null
+        );
+    }
+
+    /**
+     * When a WAL writer is given, rows are appended to it instead of a temporary table. The
+     * writer is left uncommitted, the importer commits it once all tasks have succeeded.
+     * Column indexes map the text columns onto the writer's columns.
+     */
+    void ofPhasePartitionImport(
+            CairoEngine cairoEngine,
+            TableStructure targetTableStructure,
+            ObjList<TypeAdapter> types,
+            int atomicity,
+            byte columnDelimiter,
+            CharSequence importRoot,
+            CharSequence inputFileName,
+            int index,
+            int lo,
+            int hi,
+            final ObjList<ParallelCsvFileImporter.PartitionInfo> partitions,
+            @Nullable WalWriter walWriter,
+            @Nullable IntList columnIndexes
     ) {
         this.phase = PHASE_PARTITION_IMPORT;
         this.phasePartitionImport.of(
@@ -375,7 +416,9 @@ public class CopyImportTask {
                 index,
                 lo,
                 hi,
-                partitions
+                partitions,
+                walWriter,
+                columnIndexes
         );
     }
 
@@ -873,6 +916,7 @@ public class CopyImportTask {
         private final LongList offsets = new LongList();
         private final StringSink tableNameSink = new StringSink();
         private int atomicity;
+        private IntList columnIndexes;
         private byte columnDelimiter;
         private Decimal256 decimal256;
         private CairoEngine engine;
@@ -886,13 +930,14 @@ public class CopyImportTask {
         private ObjList<ParallelCsvFileImporter.PartitionInfo> partitions;
         private long rowsHandled;
         private long rowsImported;
-        private TableWriter tableWriterRef;
+        private TableWriterAPI tableWriterRef;
         private TableStructure targetTableStructure;
         private TimestampAdapter timestampAdapter;
         private int timestampIndex;
         private ObjList<TypeAdapter> types;
         private DirectUtf16Sink utf16Sink;
         private DirectUtf8Sink utf8Sink;
+        private WalWriter walWriter;
         private final CsvTextLexer.Listener onFieldsPartitioned = this::onFieldsPartitioned;
 
         public void clear() {
@@ -917,6 +962,9 @@ public class CopyImportTask {
 
             this.utf16Sink = null;
             this.decimal256 = null;
+            this.walWriter = null;
+            this.columnIndexes = null;
+            this.tableWriterRef = null;
         }
 
         public long getErrors() {
@@ -950,6 +998,14 @@ public class CopyImportTask {
             this.utf8Sink = utf8Sink;
             this.decimal256 = decimal256;
 
+            if (walWriter != null) {
+                tableWriterRef = walWriter;
+                tableNameSink.clear();
+                tableNameSink.put(targetTableStructure.getTableName());
+                importPartitions(lf, fileBufAddr, fileBufSize, utf16Sink, unmergedIndexes, path, tmpPath);
+                return;
+            }
+
             final CairoConfiguration configuration = engine.getConfiguration();
             final FilesFacade ff = configuration.getFilesFacade();
 
@@ -993,53 +1049,67 @@ public class CopyImportTask {
                     )
             ) {
                 tableWriterRef = writer;
-                AbstractTextLexer lexer = lf.getLexer(columnDelimiter);
-                lexer.setTableName(tableNameSink);
-                lexer.setSkipLinesWithExtraValues(false);
-
-                long prevErrors;
                 try {
-                    for (int i = lo; i < hi; i++) {
-                        throwIfCancelled();
-
-                        lexer.clear();
-                        prevErrors = errors;
-
-                        final CharSequence name = partitions.getQuick(i).name;
-                        path.of(importRoot).concat(name);
-                        mergePartitionIndexAndImportData(
-                                ff,
-                                configuration.getIOURingFacade(),
-                                configuration.isIOURingEnabled(),
-                                path,
-                                lexer,
-                                fileBufAddr,
-                                fileBufSize,
-                                utf16Sink,
-                                unmergedIndexes,
-                                tmpPath
-                        );
-
-                        long newErrors = errors - prevErrors;
-                        long imported = atomicity == Atomicity.SKIP_ROW ? lexer.getLineCount() - newErrors : lexer.getLineCount();
-                        importedRows.add(i);
-                        importedRows.add(imported);
-                        rowsHandled += lexer.getLineCount();
-                        rowsImported += imported;
-
-                        LOG.info()
-                                .$("imported data [temp_table=").$(tableNameSink)
-                                .$(", partition=").$(name)
-                                .$(", lines=").$(lexer.getLineCount())
-                                .$(", errors=").$(newErrors)
-                                .I$();
-                    }
+                    importPartitions(lf, fileBufAddr, fileBufSize, utf16Sink, unmergedIndexes, path, tmpPath);
                 } finally {
                     writer.commit();
                 }
             }
         }
 
+        private void importPartitions(
+                TextLexerWrapper lf,
+                long fileBufAddr,
+                long fileBufSize,
+                DirectUtf16Sink utf16Sink,
+                DirectLongList unmergedIndexes,
+                Path path,
+                Path tmpPath
+        ) throws TextException {
+            final CairoConfiguration configuration = engine.getConfiguration();
+            final FilesFacade ff = configuration.getFilesFacade();
+            AbstractTextLexer lexer = lf.getLexer(columnDelimiter);
+            lexer.setTableName(tableNameSink);
+            lexer.setSkipLinesWithExtraValues(false);
+
+            long prevErrors;
+            for (int i = lo; i < hi; i++) {
+                throwIfCancelled();
+
+                lexer.clear();
+                prevErrors = errors;
+
+                final CharSequence name = partitions.getQuick(i).name;
+                path.of(importRoot).concat(name);
+                mergePartitionIndexAndImportData(
+                        ff,
+                        configuration.getIOURingFacade(),
+                        configuration.isIOURingEnabled(),
+                        path,
+                        lexer,
+                        fileBufAddr,
+                        fileBufSize,
+                        utf16Sink,
+                        unmergedIndexes,
+                        tmpPath
+                );
+
+                long newErrors = errors - prevErrors;
+                long imported = atomicity == Atomicity.SKIP_ROW ? lexer.getLineCount() - newErrors : lexer.getLineCount();
+                importedRows.add(i);
+                importedRows.add(imported);
+                rowsHandled += lexer.getLineCount();
+                rowsImported += imported;
+
+                LOG.info()
+                        .$(walWriter != null ? "imported data [wal_table=" : "imported data [temp_table=").$(tableNameSink)
+                        .$(", partition=").$(name)
+                        .$(", lines=").$(lexer.getLineCount())
+                        .$(", errors=").$(newErrors)
+                        .I$();
+            }
+        }
+
         private void consumeIOURing(
                 FilesFacade ff,
                 long sqeMin,
@@ -1418,7 +1488,7 @@ public class CopyImportTask {
         ) throws TextException {
             TypeAdapter type = this.types.getQuick(fieldIndex);
             try {
-                type.write(w, fieldIndex, dus, utf16Sink, utf8Sink, decimal256);
+                type.write(w, columnIndexes != null ? columnIndexes.getQuick(fieldIndex) : fieldIndex, dus, utf16Sink, utf8Sink, decimal256);
             } catch (NumericException | Utf8Exception | ImplicitCastException ignore) {
                 errors++;
                 logError(offset, fieldIndex, dus);
@@ -1527,9 +1597,13 @@ public class CopyImportTask {
                 int index,
                 int lo,
                 int hi,
-                final ObjList<ParallelCsvFileImporter.PartitionInfo> partitions
+                final ObjList<ParallelCsvFileImporter.PartitionInfo> partitions,
+                @Nullable WalWriter walWriter,
+                @Nullable IntList columnIndexes
         ) {
             this.engine = cairoEngine;
+            this.walWriter = walWriter;
+            this.columnIndexes = columnIndexes;
             this.targetTableStructure = targetTableStructure;
             this.types = types;
             this.atomicity = atomicity;
@@ -1557,6 +1631,7 @@ public class CopyImportTask {
         PHASE_NAME_MAP.put(PHASE_BUILD_SYMBOL_INDEX, "build_symbol_index");
         PHASE_NAME_MAP.put(PHASE_MOVE_PARTITIONS, "move_partitions");
         PHASE_NAME_MAP.put(PHASE_ATTACH_PARTITIONS, "attach_partitions");
+        PHASE_NAME_MAP.put(PHASE_WAL_COMMIT, "wal_commit");
         PHASE_NAME_MAP.put(PHASE_ANALYZE_FILE_STRUCTURE, "analyze_file_structure");
         PHASE_NAME_MAP.put(PHASE_CLEANUP, "cleanup");
 
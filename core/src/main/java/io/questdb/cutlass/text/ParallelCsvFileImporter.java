@@ -45,6 +45,7 @@ import io.questdb.cairo.sql.ExecutionCircuitBreaker;
 import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryMARW;
+import io.questdb.cairo.wal.WalWriter;
 import io.questdb.cutlass.text.types.BadDateAdapter;
 import io.questdb.cutlass.text.types.BadTimestampAdapter;
 import io.questdb.cutlass.text.types.OtherToTimestampAdapter;
@@ -86,6 +87,7 @@ import java.io.IOException;
 import java.util.function.Consumer;
 
 import static io.questdb.cairo.TableUtils.TXN_FILE_NAME;
+import static io.questdb.cairo.wal.seq.TableSequencer.NO_TXN;
 import static io.questdb.std.datetime.DateLocaleFactory.EN_LOCALE;
 
 
@@ -102,6 +104,10 @@ import static io.questdb.std.datetime.DateLocaleFactory.EN_LOCALE;
  * - remaps all symbol values
  * - moves and attaches partitions from temp tables to target table
  * - removes temp tables and index files
+ * <p>
+ * Imports into a non-empty WAL table skip the temp tables: each worker appends its partitions
+ * to its own WAL writer, and once all workers succeed the writers are committed atomically, as
+ * a single sequencer batch.
  */
 public class ParallelCsvFileImporter implements Closeable, Mutable {
     private static final int DEFAULT_MIN_CHUNK_SIZE = 300 * 1024 * 1024;
@@ -113,6 +119,8 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
     // count of quotes, even new lines, odd new lines, offset to first even newline, offset to first odd newline
     private final LongList chunkStats;
     private final Sequence collectSeq;
+    // maps text column indexes onto target table column indexes
+    private final IntList columnIndexes;
     private final CairoConfiguration configuration;
     private final FilesFacade ff;
     // holds input for second phase - indexing: offset and start line number for each chunk
@@ -137,6 +145,10 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
     private final TypeManager typeManager;
     private final DirectUtf16Sink utf16Sink;
     private final DirectUtf8Sink utf8Sink;
+    // text column index -> WAL writer column index, see remapColumnsToWalWriter()
+    private final IntList walColumnIndexes = new IntList();
+    private final LongList walTxnBatch = new LongList();
+    private final ObjList<WalWriter> walWriters = new ObjList<>();
     private final int workerCount;
     private int atomicity;
     private ExecutionCircuitBreaker circuitBreaker;
@@ -181,6 +193,9 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
     // input params end
     // index of timestamp column in input file
     private int timestampIndex;
+    // set when rows are appended to a non-empty WAL table through per-task WAL writers
+    private boolean walAppend;
+    private long walStructureVersion = -1;
     private TableWriter writer;
 
     public ParallelCsvFileImporter(CairoEngine cairoEngine, int workerCount) {
@@ -233,6 +248,7 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
             this.partitions = new ObjList<>();
             this.taskDistribution = new IntList();
             this.symbolCapacities = new IntList();
+            this.columnIndexes = new IntList();
         } catch (Throwable t) {
             close();
             throw t;
@@ -330,6 +346,12 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
     @Override
     public void clear() {
         writer = Misc.free(writer);
+        Misc.freeObjListAndClear(walWriters);
+        walTxnBatch.clear();
+        Misc.clear(columnIndexes);
+        walColumnIndexes.clear();
+        walAppend = false;
+        walStructureVersion = -1;
         metadata = null;
         importId = -1;
         Misc.clear(chunkStats);
@@ -656,17 +678,23 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
                     phaseBoundaryCheck(length);
                     phaseIndexing();
                     phasePartitionImport();
-                    phaseSymbolTableMerge();
-                    phaseUpdateSymbolKeys();
-                    phaseBuildSymbolIndex();
-                    movePartitions();
-                    attachPartitions();
+                    if (walAppend) {
+                        phaseWalCommit();
+                    } else {
+                        phaseSymbolTableMerge();
+                        phaseUpdateSymbolKeys();
+                        phaseBuildSymbolIndex();
+                        movePartitions();
+                        attachPartitions();
+                    }
                     updateImportStatus(CopyImportTask.STATUS_FINISHED, rowsHandled, rowsImported, errors);
                 } catch (Throwable t) {
                     cleanUp();
                     throw t;
                 } finally {
                     closeWriter();
+                    // rolls back any uncommitted rows left by a failed append
+                    Misc.freeObjListAndClear(walWriters);
                     if (createdWorkDir) {
                         removeWorkDir();
                     }
@@ -739,7 +767,7 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
     }
 
     private void cleanUp() {
-        if (targetTableStatus == TableUtils.TABLE_EXISTS && writer != null) {
+        if (targetTableStatus == TableUtils.TABLE_EXISTS && writer != null && !walAppend) {
             writer.truncate();
         }
         closeWriter();
@@ -860,9 +888,10 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
                     .put(']');
         }
 
-        // remap index is only needed to adjust names and types
-        // workers will import data into temp tables without remapping
-        final IntList remapIndex = new IntList();
+        // remap index is used to adjust names and types, workers import data into
+        // temp tables without remapping unless they append to a WAL table
+        final IntList remapIndex = columnIndexes;
+        remapIndex.clear();
         remapIndex.setPos(types.size());
         for (int i = 0, n = types.size(); i < n; i++) {
             final int columnIndex = metadata.getColumnIndexQuiet(names.getQuick(i));
@@ -1119,6 +1148,13 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
         int collectedCount = 0;
         taskDistribution.clear();
 
+        if (walAppend && taskCount > 0) {
+            for (int i = 0; i < taskCount; i++) {
+                walWriters.add(cairoEngine.getWalWriter(tableToken));
+            }
+            remapColumnsToWalWriter(walWriters.getQuick(0));
+        }
+
         for (int i = 0; i < taskCount; ++i) {
             int lo = 0;
             while (lo < partitions.size() && partitions.getQuick(lo).taskId != i) {
@@ -1146,7 +1182,9 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
                             i,
                             lo,
                             hi,
-                            partitions
+                            partitions,
+                            walAppend ? walWriters.getQuick(i) : null,
+                            walAppend ? walColumnIndexes : null
                     );
                     pubSeq.done(seq);
                     queuedCount++;
@@ -1167,6 +1205,38 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
         phaseEpilogue(CopyImportTask.PHASE_PARTITION_IMPORT);
     }
 
+    /**
+     * Commits per-task WAL writers atomically. Each writer seals its segment transaction, and
+     * all of them are then published with a single sequencer batch, so readers see either the
+     * whole import or none of it. Should anything fail, the writers are discarded by the caller
+     * and the sealed segment transactions are never referenced.
+     */
+    private void phaseWalCommit() throws TextImportException {
+        phasePrologue(CopyImportTask.PHASE_WAL_COMMIT);
+        walTxnBatch.clear();
+        try {
+            for (int i = 0, n = walWriters.size(); i < n; i++) {
+                // every writer must still have the structure the column remap was built from
+                if (walWriters.getQuick(i).commitToBatch(walTxnBatch) != walStructureVersion) {
+                    throw TextImportException.instance(CopyImportTask.PHASE_WAL_COMMIT, "table structure changed during import [table=")
+                            .put(tableName).put(']');
+                }
+            }
+            if (walTxnBatch.size() > 0
+                    && cairoEngine.getTableSequencerAPI().nextTxns(tableToken, walStructureVersion, walTxnBatch) == NO_TXN) {
+                throw TextImportException.instance(CopyImportTask.PHASE_WAL_COMMIT, "table structure changed during import [table=")
+                        .put(tableName).put(']');
+            }
+        } catch (CairoException e) {
+            throw TextImportException.instance(CopyImportTask.PHASE_WAL_COMMIT, "could not commit [table=")
+                    .put(tableName).put(", msg=")
+                    .put('[').put(e.getErrno()).put("] ").put(e.getFlyweightMessage()).put(']');
+        } finally {
+            walTxnBatch.clear();
+        }
+        phaseEpilogue(CopyImportTask.PHASE_WAL_COMMIT);
+    }
+
     private void phasePrologue(byte phase) {
         phaseErrors = 0;
         LOG.info()
@@ -1367,6 +1437,27 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
         }
     }
 
+    /**
+     * Maps text columns to the column indexes of the WAL writers the import appends through. The
+     * indexes resolved at init come from the dense table writer metadata, which can lag the sequencer
+     * and skips dropped columns, whereas WAL rows are addressed by writer index. The structure version
+     * the remap is built from is checked again when the WAL writers commit.
+     */
+    private void remapColumnsToWalWriter(WalWriter walWriter) throws TextImportException {
+        final RecordMetadata walMetadata = walWriter.getMetadata();
+        walStructureVersion = walWriter.getMetadataVersion();
+        walColumnIndexes.clear();
+        for (int i = 0, n = columnIndexes.size(); i < n; i++) {
+            final int denseIndex = columnIndexes.getQuick(i);
+            final int walIndex = walMetadata.getColumnIndexQuiet(metadata.getColumnName(denseIndex));
+            if (walIndex < 0 || walMetadata.getColumnType(walIndex) != metadata.getColumnType(denseIndex)) {
+                throw TextImportException.instance(CopyImportTask.PHASE_PARTITION_IMPORT, "table structure changed during import [table=")
+                        .put(tableName).put(']');
+            }
+            walColumnIndexes.add(walIndex);
+        }
+    }
+
     private void removeWorkDir() {
         Path workDirPath = tmpPath.of(importRoot);
         if (ff.exists(workDirPath.$())) {
@@ -1484,7 +1575,12 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
                     initWriterAndOverrideImportMetadata(names, types, typeManager, securityContext);
 
                     if (writer.getRowCount() > 0) {
-                        throw TextException.$("target table must be empty [table=").put(tableName).put(']');
+                        // WAL tables accept the rows as regular transactions, dedup and O3 are
+                        // handled by the apply job, other tables can only attach to an empty table
+                        if (!tableToken.isWal()) {
+                            throw TextException.$("target table must be empty [table=").put(tableName).put(']');
+                        }
+                        walAppend = true;
                     }
 
                     CharSequence designatedTimestampColumnName = writer.getDesignatedTimestampColumnName();
@@ -1498,6 +1594,10 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
                     }
                     validate(names, types, designatedTimestampColumnName, designatedTimestampIndex);
                     targetTableStructure.of(tableName, names, types, symbolCapacities, timestampIndex, partitionBy);
+                    if (walAppend) {
+                        // the table writer would hold off WAL apply for the duration of the import
+                        writer = Misc.free(writer);
+                    }
                     break;
                 default:
                     throw TextException.$("name is reserved [table=").put(tableName).put(']');
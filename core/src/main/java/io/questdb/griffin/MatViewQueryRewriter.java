@@ -0,0 +1,711 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.TimestampDriver;
+import io.questdb.cairo.mv.FixedOffsetIntervalIterator;
+import io.questdb.cairo.mv.MatViewDefinition;
+import io.questdb.cairo.mv.MatViewState;
+import io.questdb.cairo.mv.SampleByIntervalIterator;
+import io.questdb.cairo.mv.TimeZoneIntervalIterator;
+import io.questdb.cairo.mv.WalTxnRangeLoader;
+import io.questdb.cairo.sql.TableMetadata;
+import io.questdb.cairo.wal.seq.SeqTxnTracker;
+import io.questdb.griffin.engine.groupby.TimestampSampler;
+import io.questdb.griffin.engine.groupby.TimestampSamplerFactory;
+import io.questdb.griffin.model.ExpressionNode;
+import io.questdb.griffin.model.IQueryModel;
+import io.questdb.griffin.model.QueryColumn;
+import io.questdb.std.Chars;
+import io.questdb.std.GenericLexer;
+import io.questdb.std.LongList;
+import io.questdb.std.LowerCaseCharSequenceHashSet;
+import io.questdb.std.LowerCaseCharSequenceObjHashMap;
+import io.questdb.std.Mutable;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.ObjectPool;
+import io.questdb.std.datetime.CommonUtils;
+import io.questdb.std.datetime.TimeZoneRules;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.griffin.SqlKeywords.*;
+import static io.questdb.griffin.model.ExpressionNode.*;
+
+/**
+ * Rewrites SAMPLE BY queries over a base table to read from one of its materialized views.
+ * <p>
+ * A query qualifies when its sampling interval is a multiple of the view's one, it uses the same
+ * time zone and offset, its aggregates can be re-aggregated from the view columns
+ * (sum, min, max, first, last and count, which becomes sum over the view count) and its filter
+ * references only key columns. The view must be valid and have all its rows in place, i.e.
+ * no refresh limit, no period and no TTL.
+ * <pre>
+ * SELECT ts, sym, sum(amount) FROM trades SAMPLE BY 1h
+ * </pre>
+ * becomes, with the view {@code trades_1m AS (SELECT ts, sym, sum(amount) total FROM trades SAMPLE BY 1m)}:
+ * <pre>
+ * SELECT ts, sym, sum(total) FROM trades_1m SAMPLE BY 1h
+ * </pre>
+ * When the base table has transactions the view hasn't been refreshed with yet, the buckets
+ * they touch are aggregated from the base table instead:
+ * <pre>
+ * SELECT ts, sym, sum(total) FROM (
+ *   SELECT ts, sym, total FROM trades_1m WHERE ts &lt; boundary
+ *   UNION ALL
+ *   SELECT ts, sym, sum(amount) total FROM trades WHERE ts &gt;= boundary SAMPLE BY 1m
+ * ) TIMESTAMP(ts) SAMPLE BY 1h
+ * </pre>
+ * The boundary is the view bucket of the oldest pending row. It is computed at compile time,
+ * so queries rewritten this way are not cached.
+ */
+class MatViewQueryRewriter implements Mutable {
+    private static final int AGGREGATE_COUNT = 1;
+    private static final int AGGREGATE_FIRST_LAST = 2;
+    private static final int AGGREGATE_NONE = 0;
+    private static final int AGGREGATE_OTHER = 3;
+    private static final long FRESH = Long.MAX_VALUE;
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+    private static final long NANOS_PER_HOUR = 3_600_000_000_000L;
+    private static final long UNUSABLE = Numbers.LONG_NULL;
+    private final ObjList<CharSequence> aggregateKeys = new ObjList<>();
+    private final ObjList<ExpressionNode> aggregates = new ObjList<>();
+    private final CharacterStore characterStore;
+    private final CairoConfiguration configuration;
+    private final ObjectPool<ExpressionNode> expressionNodePool;
+    private final FixedOffsetIntervalIterator fixedOffsetIterator = new FixedOffsetIntervalIterator();
+    private final FunctionParser functionParser;
+    private final LongList intervals = new LongList();
+    private final ObjList<CharSequence> keys = new ObjList<>();
+    private final LowerCaseCharSequenceHashSet keySet = new LowerCaseCharSequenceHashSet();
+    private final Path path;
+    private final ObjList<CharSequence> selectKeys = new ObjList<>();
+    private final LowerCaseCharSequenceHashSet selectKeySet = new LowerCaseCharSequenceHashSet();
+    private final StringSink sqlSink = new StringSink();
+    private final LowerCaseCharSequenceHashSet tailColumns = new LowerCaseCharSequenceHashSet();
+    private final TimeZoneIntervalIterator timeZoneIterator = new TimeZoneIntervalIterator();
+    private final LongList viewScores = new LongList();
+    private final ObjList<TableToken> viewTokens = new ObjList<>();
+    private final LowerCaseCharSequenceObjHashMap<CharSequence> viewAggregates = new LowerCaseCharSequenceObjHashMap<>();
+    private final LowerCaseCharSequenceHashSet viewKeys = new LowerCaseCharSequenceHashSet();
+    private boolean hasFirstLast;
+    private long queryCalendarMonths;
+    private long queryFixedNanos;
+    private char queryUnit;
+    private long tailLo;
+    private IQueryModel viewNestedModel;
+
+    MatViewQueryRewriter(
+            CairoConfiguration configuration,
+            CharacterStore characterStore,
+            ObjectPool<ExpressionNode> expressionNodePool,
+            FunctionParser functionParser,
+            Path path
+    ) {
+        this.configuration = configuration;
+        this.characterStore = characterStore;
+        this.expressionNodePool = expressionNodePool;
+        this.functionParser = functionParser;
+        this.path = path;
+    }
+
+    @Override
+    public void clear() {
+        aggregateKeys.clear();
+        aggregates.clear();
+        intervals.clear();
+        keys.clear();
+        keySet.clear();
+        selectKeys.clear();
+        selectKeySet.clear();
+        sqlSink.clear();
+        tailColumns.clear();
+        viewScores.clear();
+        viewTokens.clear();
+        viewAggregates.clear();
+        viewKeys.clear();
+        viewNestedModel = null;
+    }
+
+    /**
+     * Rewrites eligible SAMPLE BY models found in the given model tree.
+     *
+     * @return true when at least one model was rewritten
+     */
+    boolean rewrite(
+            IQueryModel model,
+            SqlExecutionContext executionContext,
+            SqlParserCallback sqlParserCallback
+    ) throws SqlException {
+        if (!configuration.isMatViewQueryRewriteEnabled()
+                || !executionContext.allowMatViewQueryRewrite()
+                || executionContext.isLiveViewCompile()) {
+            return false;
+        }
+        return rewrite0(model, executionContext, sqlParserCallback);
+    }
+
+    // Fixed length of the interval in nanoseconds, or -1 for calendar units.
+    private static long fixedIntervalNanos(long interval, char unit) {
+        return switch (unit) {
+            case 'n' -> interval;
+            case 'U' -> interval * 1_000L;
+            case 'T' -> interval * 1_000_000L;
+            case 's' -> interval * 1_000_000_000L;
+            case 'm' -> interval * 60_000_000_000L;
+            case 'h' -> interval * NANOS_PER_HOUR;
+            case 'd' -> interval * NANOS_PER_DAY;
+            case 'w' -> interval * 7 * NANOS_PER_DAY;
+            default -> -1;
+        };
+    }
+
+    private static int getAggregateKind(CharSequence token) {
+        if (isCountKeyword(token)) {
+            return AGGREGATE_COUNT;
+        }
+        if (isFirstKeyword(token) || isLastKeyword(token)) {
+            return AGGREGATE_FIRST_LAST;
+        }
+        if (isSumKeyword(token) || Chars.equalsLowerCaseAscii(token, "min") || Chars.equalsLowerCaseAscii(token, "max")) {
+            return AGGREGATE_OTHER;
+        }
+        return AGGREGATE_NONE;
+    }
+
+    private static boolean isPlainLiteral(ExpressionNode node) {
+        return node != null && node.type == LITERAL && Chars.indexOfLastUnquoted(node.token, '.') == -1;
+    }
+
+    private static boolean isSameOffset(ExpressionNode queryOffset, ExpressionNode viewOffset) {
+        if (queryOffset == SqlParser.ZERO_OFFSET || viewOffset == SqlParser.ZERO_OFFSET) {
+            return queryOffset == viewOffset;
+        }
+        return queryOffset != null && viewOffset != null
+                && queryOffset.type == CONSTANT && viewOffset.type == CONSTANT
+                && Chars.equals(queryOffset.token, viewOffset.token);
+    }
+
+    private static boolean isSameTimeZone(ExpressionNode queryTimeZone, ExpressionNode viewTimeZone) {
+        if (queryTimeZone == null || viewTimeZone == null) {
+            return queryTimeZone == viewTimeZone;
+        }
+        return queryTimeZone.type == CONSTANT && viewTimeZone.type == CONSTANT
+                && Chars.equalsIgnoreCase(queryTimeZone.token, viewTimeZone.token);
+    }
+
+    // Number of months in the interval, or -1 for fixed units.
+    private static long monthCount(long interval, char unit) {
+        return switch (unit) {
+            case 'M' -> interval;
+            case 'y' -> interval * 12;
+            default -> -1;
+        };
+    }
+
+    private static void putQuoted(StringSink sink, CharSequence name) {
+        sink.put('"').put(name).put('"');
+    }
+
+    private boolean addAggregate(ExpressionNode node, int kind) {
+        final CharSequence key = toAggregateKey(node, kind);
+        if (key == null) {
+            return false;
+        }
+        aggregates.add(node);
+        aggregateKeys.add(key);
+        hasFirstLast |= kind == AGGREGATE_FIRST_LAST;
+        return true;
+    }
+
+    private void addKey(CharSequence name, boolean select) {
+        if (keySet.add(name)) {
+            keys.add(name);
+        }
+        if (select && selectKeySet.add(name)) {
+            selectKeys.add(name);
+        }
+    }
+
+    // Collects key columns and aggregates of a projection or filter expression. Returns false when
+    // the expression uses something that can't be computed from the view.
+    private boolean collect(ExpressionNode node, CharSequence timestampName, boolean select) {
+        if (node == null) {
+            return true;
+        }
+        switch (node.type) {
+            case CONSTANT:
+                return true;
+            case LITERAL:
+                if (!isPlainLiteral(node)) {
+                    return false;
+                }
+                final CharSequence name = GenericLexer.unquote(node.token);
+                if (Chars.equalsIgnoreCase(name, timestampName)) {
+                    // filtering on raw timestamps can't be answered from buckets
+                    return select;
+                }
+                addKey(name, select);
+                return true;
+            case FUNCTION:
+                final int kind = getAggregateKind(node.token);
+                if (kind != AGGREGATE_NONE) {
+                    return select && addAggregate(node, kind);
+                }
+                if (functionParser.getFunctionFactoryCache().isGroupBy(node.token)
+                        || functionParser.getFunctionFactoryCache().isWindow(node.token)) {
+                    return false;
+                }
+                // fall through
+            case OPERATION:
+                if (node.paramCount < 3) {
+                    return collect(node.lhs, timestampName, select) && collect(node.rhs, timestampName, select);
+                }
+                for (int i = 0, n = node.args.size(); i < n; i++) {
+                    if (!collect(node.args.getQuick(i), timestampName, select)) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Analyses the view SQL and its state. On success, view keys and aggregates are collected
+    // and tailLo is set to the lowest bucket not yet covered by the view, or FRESH.
+    private boolean collectView(
+            CairoEngine engine,
+            TableToken baseToken,
+            CharSequence baseTimestampName,
+            TableToken viewToken,
+            MatViewDefinition viewDefinition,
+            IQueryModel nestedModel,
+            SqlParserCallback sqlParserCallback
+    ) throws SqlException {
+        viewKeys.clear();
+        viewAggregates.clear();
+
+        final IQueryModel viewModel = sqlParserCallback.parseGeneratedQuery(viewDefinition.getMatViewSql());
+        if (viewModel == null || viewModel.getSelectModelType() != IQueryModel.SELECT_MODEL_CHOOSE || viewModel.getUnionModel() != null) {
+            return false;
+        }
+        final IQueryModel viewNested = viewModel.getNestedModel();
+        if (!isPlainSampleBy(viewNested)
+                || viewNested.getWhereClause() != null
+                || !Chars.equalsIgnoreCase(viewNested.getTableNameExpr().token, baseToken.getTableName())
+                || !isSameTimeZone(nestedModel.getSampleByTimezoneName(), viewNested.getSampleByTimezoneName())
+                || !isSameOffset(nestedModel.getSampleByOffset(), viewNested.getSampleByOffset())) {
+            return false;
+        }
+
+        boolean hasTimestamp = false;
+        final ObjList<QueryColumn> columns = viewModel.getBottomUpColumns();
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            final QueryColumn column = columns.getQuick(i);
+            final ExpressionNode ast = column.getAst();
+            if (isPlainLiteral(ast)) {
+                // key columns and the timestamp keep their names in the view, so the
+                // query's projection, filter and ORDER BY stay valid over the view
+                final CharSequence name = GenericLexer.unquote(ast.token);
+                if (!Chars.equalsIgnoreCase(name, column.getAlias())) {
+                    continue;
+                }
+                if (Chars.equalsIgnoreCase(name, baseTimestampName)) {
+                    hasTimestamp = true;
+                } else {
+                    viewKeys.add(name);
+                }
+            } else if (ast.type == FUNCTION) {
+                final CharSequence key = toAggregateKey(ast, getAggregateKind(ast.token));
+                if (key != null) {
+                    viewAggregates.put(key, column.getAlias());
+                }
+            }
+        }
+        if (!hasTimestamp) {
+            return false;
+        }
+
+        for (int i = 0, n = keys.size(); i < n; i++) {
+            if (!viewKeys.contains(keys.getQuick(i))) {
+                return false;
+            }
+        }
+        // first() and last() are re-aggregated in timestamp order, which only holds
+        // when the query groups by every view key
+        if (hasFirstLast && selectKeys.size() != viewKeys.size()) {
+            return false;
+        }
+        for (int i = 0, n = aggregateKeys.size(); i < n; i++) {
+            if (viewAggregates.get(aggregateKeys.getQuick(i)) == null) {
+                return false;
+            }
+        }
+
+        try (TableMetadata viewMetadata = engine.getTableMetadata(viewToken)) {
+            if (viewMetadata.getTtlHoursOrMonths() != 0
+                    || viewMetadata.getTimestampIndex() < 0
+                    || !Chars.equalsIgnoreCase(viewMetadata.getColumnName(viewMetadata.getTimestampIndex()), baseTimestampName)) {
+                return false;
+            }
+            for (int i = 0, n = aggregateKeys.size(); i < n; i++) {
+                if (viewMetadata.getColumnIndexQuiet(viewAggregates.get(aggregateKeys.getQuick(i))) < 0) {
+                    return false;
+                }
+            }
+        } catch (CairoException e) {
+            return false;
+        }
+
+        tailLo = getTailLo(engine, baseToken, viewToken, viewDefinition);
+        if (tailLo == UNUSABLE) {
+            return false;
+        }
+        viewNestedModel = viewNested;
+        return true;
+    }
+
+    private long getBucketLo(MatViewDefinition viewDefinition, long timestamp) throws SqlException {
+        final TimestampDriver driver = viewDefinition.getBaseTableTimestampDriver();
+        final char unit = viewDefinition.getSamplingIntervalUnit();
+        // the view definition's sampler is shared with the refresh job, hence a fresh instance
+        final TimestampSampler sampler = TimestampSamplerFactory.getInstance(driver, viewDefinition.getSamplingInterval(), unit, 0);
+        final TimeZoneRules tzRules = viewDefinition.getTzRules();
+        final long fixedOffset = viewDefinition.getFixedOffset();
+        final SampleByIntervalIterator iterator;
+        // same bucket alignment as the refresh job uses
+        if (tzRules == null || tzRules.hasFixedOffset()) {
+            final long fixedTzOffset = tzRules != null ? tzRules.getOffset(0) : 0;
+            iterator = fixedOffsetIterator.of(sampler, fixedOffset - fixedTzOffset, null, timestamp, timestamp, 1);
+        } else if (CommonUtils.isSubDayUnit(unit)) {
+            final long standardOffset = CommonUtils.getFloorUtcTzOffset(tzRules, 0, unit);
+            iterator = fixedOffsetIterator.of(sampler, fixedOffset - standardOffset, null, timestamp, timestamp, 1);
+        } else {
+            iterator = timeZoneIterator.of(driver, sampler, tzRules, fixedOffset, null, timestamp, timestamp, 1);
+        }
+        return iterator.getMinTimestamp();
+    }
+
+    // Returns the lowest view bucket touched by base table transactions the view hasn't been
+    // refreshed with, FRESH when there are none, or UNUSABLE when the view can't be used.
+    private long getTailLo(CairoEngine engine, TableToken baseToken, TableToken viewToken, MatViewDefinition viewDefinition) throws SqlException {
+        final MatViewState state = engine.getMatViewStateStore().getViewState(viewToken);
+        if (state == null || state.isInvalid() || state.isPendingInvalidation() || state.isDropped()) {
+            return UNUSABLE;
+        }
+        // the view's own WAL must be applied, otherwise its last refresh isn't visible to readers yet
+        final SeqTxnTracker viewTracker = engine.getTableSequencerAPI().getTxnTracker(viewToken);
+        if (viewTracker.getWriterTxn() < viewTracker.getSeqTxn()) {
+            return UNUSABLE;
+        }
+        final long lastRefreshBaseTxn = state.getLastRefreshBaseTxn();
+        if (lastRefreshBaseTxn < 0) {
+            return UNUSABLE;
+        }
+        final long baseTxn = engine.getTableSequencerAPI().getTxnTracker(baseToken).getWriterTxn();
+        if (lastRefreshBaseTxn >= baseTxn) {
+            return FRESH;
+        }
+
+        final long minTimestamp;
+        try (WalTxnRangeLoader loader = new WalTxnRangeLoader(configuration)) {
+            intervals.clear();
+            loader.load(engine, path, baseToken, intervals, lastRefreshBaseTxn, baseTxn);
+            if (loader.hasTruncate()) {
+                return UNUSABLE;
+            }
+            minTimestamp = loader.getMinTimestamp();
+        } catch (CairoException e) {
+            // WAL segments of the pending transactions may be purged already
+            return UNUSABLE;
+        }
+        if (intervals.size() == 0) {
+            // no data transactions, e.g. only ALTERs
+            return FRESH;
+        }
+        return getBucketLo(viewDefinition, minTimestamp);
+    }
+
+    private boolean isCompatibleInterval(long viewInterval, char viewUnit) {
+        final long viewFixedNanos = fixedIntervalNanos(viewInterval, viewUnit);
+        if (queryCalendarMonths > 0) {
+            final long viewMonths = monthCount(viewInterval, viewUnit);
+            if (viewMonths > 0) {
+                return queryCalendarMonths % viewMonths == 0;
+            }
+            // days and their divisors nest in calendar months, weeks don't
+            return viewFixedNanos > 0 && viewUnit != 'w' && NANOS_PER_DAY % viewFixedNanos == 0;
+        }
+        if (viewFixedNanos < 0 || queryFixedNanos % viewFixedNanos != 0) {
+            return false;
+        }
+        // weeks are aligned differently to the other fixed units
+        return (viewUnit == 'w') == (queryUnit == 'w');
+    }
+
+    private boolean isPlainSampleBy(IQueryModel model) {
+        return model != null
+                && model.getTableNameExpr() != null
+                && isPlainLiteral(model.getTableNameExpr())
+                && model.getNestedModel() == null
+                && model.getJoinModels().size() == 1
+                && model.getUnionModel() == null
+                && model.getSampleBy() != null
+                && model.getSampleBy().type == CONSTANT
+                && model.getSampleByUnit() == null
+                // ALIGN TO FIRST OBSERVATION buckets depend on the data
+                && model.getSampleByOffset() != null
+                && model.getSampleByFrom() == null
+                && model.getSampleByTo() == null
+                && model.getLatestBy().size() == 0
+                && model.getGroupBy().size() == 0
+                && model.getTimestamp() == null
+                && model.getAlias() == null
+                && model.getTableSampleMethod() == IQueryModel.TABLESAMPLE_NONE;
+    }
+
+    private boolean parseQueryInterval(CharSequence interval) {
+        try {
+            final int end = TimestampSamplerFactory.findPositiveIntervalEndIndex(interval, 0, "sample");
+            final long value = TimestampSamplerFactory.parsePositiveInterval(interval, end, 0, "sample", Numbers.INT_NULL, ' ');
+            queryUnit = interval.charAt(end);
+            queryFixedNanos = fixedIntervalNanos(value, queryUnit);
+            queryCalendarMonths = monthCount(value, queryUnit);
+            return queryFixedNanos > 0 || queryCalendarMonths > 0;
+        } catch (SqlException e) {
+            // leave it to the SAMPLE BY code generator to report
+            return false;
+        }
+    }
+
+    private void rewriteAggregates() {
+        for (int i = 0, n = aggregates.size(); i < n; i++) {
+            final ExpressionNode node = aggregates.getQuick(i);
+            final CharSequence viewColumn = viewAggregates.get(aggregateKeys.getQuick(i));
+            if (isCountKeyword(node.token)) {
+                node.token = "sum";
+                node.paramCount = 1;
+                node.lhs = null;
+            }
+            node.rhs = expressionNodePool.next().of(LITERAL, viewColumn, 0, node.position);
+        }
+    }
+
+    private boolean rewrite0(
+            IQueryModel model,
+            SqlExecutionContext executionContext,
+            SqlParserCallback sqlParserCallback
+    ) throws SqlException {
+        if (model == null) {
+            return false;
+        }
+        boolean rewritten = tryRewrite(model, executionContext, sqlParserCallback);
+        if (!rewritten) {
+            rewritten = rewrite0(model.getNestedModel(), executionContext, sqlParserCallback);
+        }
+        final ObjList<IQueryModel> joinModels = model.getJoinModels();
+        for (int i = 1, n = joinModels.size(); i < n; i++) {
+            rewritten |= rewrite0(joinModels.getQuick(i), executionContext, sqlParserCallback);
+        }
+        rewritten |= rewrite0(model.getUnionModel(), executionContext, sqlParserCallback);
+        return rewritten;
+    }
+
+    private void setTail(IQueryModel nestedModel, TableToken baseToken, TableToken viewToken, CharSequence timestampName, TimestampDriver driver, SqlParserCallback sqlParserCallback) throws SqlException {
+        final StringSink sink = sqlSink;
+        sink.clear();
+        sink.put("select ");
+        putQuoted(sink, timestampName);
+        for (int i = 0, n = keys.size(); i < n; i++) {
+            sink.put(", ");
+            putQuoted(sink, keys.getQuick(i));
+        }
+        final LowerCaseCharSequenceHashSet columns = tailColumns;
+        columns.clear();
+        for (int i = 0, n = aggregateKeys.size(); i < n; i++) {
+            final CharSequence viewColumn = viewAggregates.get(aggregateKeys.getQuick(i));
+            if (columns.add(viewColumn)) {
+                sink.put(", ");
+                putQuoted(sink, viewColumn);
+            }
+        }
+        sink.put(" from ");
+        putQuoted(sink, viewToken.getTableName());
+        sink.put(" where ");
+        putQuoted(sink, timestampName);
+        sink.put(" < '");
+        driver.append(sink, tailLo);
+        sink.put("' union all select ");
+        putQuoted(sink, timestampName);
+        for (int i = 0, n = keys.size(); i < n; i++) {
+            sink.put(", ");
+            putQuoted(sink, keys.getQuick(i));
+        }
+        columns.clear();
+        for (int i = 0, n = aggregateKeys.size(); i < n; i++) {
+            final CharSequence viewColumn = viewAggregates.get(aggregateKeys.getQuick(i));
+            if (columns.add(viewColumn)) {
+                sink.put(", ").put(aggregateKeys.getQuick(i)).put(' ');
+                putQuoted(sink, viewColumn);
+            }
+        }
+        sink.put(" from ");
+        putQuoted(sink, baseToken.getTableName());
+        sink.put(" where ");
+        putQuoted(sink, timestampName);
+        sink.put(" >= '");
+        driver.append(sink, tailLo);
+        sink.put("' sample by ").put(viewNestedModel.getSampleBy().token).put(" align to calendar");
+        if (viewNestedModel.getSampleByTimezoneName() != null) {
+            sink.put(" time zone ").put(viewNestedModel.getSampleByTimezoneName().token);
+        }
+        if (viewNestedModel.getSampleByOffset() != SqlParser.ZERO_OFFSET) {
+            sink.put(" with offset ").put(viewNestedModel.getSampleByOffset().token);
+        }
+
+        final IQueryModel unionModel = sqlParserCallback.parseGeneratedQuery(Chars.toString(sink));
+        nestedModel.setTableNameExpr(null);
+        nestedModel.setNestedModel(unionModel);
+        nestedModel.setNestedModelIsSubQuery(true);
+        nestedModel.setTimestamp(expressionNodePool.next().of(LITERAL, timestampName, 0, nestedModel.getModelPosition()));
+    }
+
+    // Normalised aggregate, e.g. sum("price"), used to match query aggregates to view columns.
+    private @Nullable CharSequence toAggregateKey(ExpressionNode node, int kind) {
+        if (kind == AGGREGATE_NONE) {
+            return null;
+        }
+        final CharacterStoreEntry entry = characterStore.newEntry();
+        if (kind == AGGREGATE_COUNT && (node.paramCount == 0 || (node.paramCount == 1 && node.rhs.type == CONSTANT && !isNullKeyword(node.rhs.token)))) {
+            entry.put("count()");
+        } else if (node.paramCount == 1 && isPlainLiteral(node.rhs)) {
+            entry.put(node.token).put("(\"").put(GenericLexer.unquote(node.rhs.token)).put("\")");
+        } else {
+            return null;
+        }
+        return entry.toImmutable();
+    }
+
+    private boolean tryRewrite(
+            IQueryModel model,
+            SqlExecutionContext executionContext,
+            SqlParserCallback sqlParserCallback
+    ) throws SqlException {
+        if (model.getSelectModelType() != IQueryModel.SELECT_MODEL_CHOOSE) {
+            return false;
+        }
+        final IQueryModel nestedModel = model.getNestedModel();
+        if (!isPlainSampleBy(nestedModel) || !parseQueryInterval(nestedModel.getSampleBy().token)) {
+            return false;
+        }
+
+        final CairoEngine engine = executionContext.getCairoEngine();
+        final TableToken baseToken = executionContext.getTableTokenIfExists(nestedModel.getTableNameExpr().token);
+        if (baseToken == null || !baseToken.isWal() || baseToken.isMatView() || baseToken.isView() || baseToken.isLiveView()) {
+            return false;
+        }
+        viewTokens.clear();
+        engine.getDependentViewGraph().getDependentViews(baseToken, viewTokens);
+        if (viewTokens.size() == 0) {
+            return false;
+        }
+
+        final CharSequence timestampName;
+        try (TableMetadata baseMetadata = engine.getTableMetadata(baseToken)) {
+            // a base table TTL drops rows the view still has
+            if (baseMetadata.getTimestampIndex() < 0 || baseMetadata.getTtlHoursOrMonths() != 0) {
+                return false;
+            }
+            timestampName = Chars.toString(baseMetadata.getColumnName(baseMetadata.getTimestampIndex()));
+        } catch (CairoException e) {
+            return false;
+        }
+
+        keys.clear();
+        keySet.clear();
+        selectKeys.clear();
+        selectKeySet.clear();
+        aggregates.clear();
+        aggregateKeys.clear();
+        hasFirstLast = false;
+        final ObjList<QueryColumn> columns = model.getBottomUpColumns();
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            final QueryColumn column = columns.getQuick(i);
+            if (column.isWindowExpression() || !collect(column.getAst(), timestampName, true)) {
+                return false;
+            }
+        }
+        if (aggregates.size() == 0 || !collect(nestedModel.getWhereClause(), timestampName, false)) {
+            return false;
+        }
+
+        // prefer the coarsest view, it has the fewest rows to re-aggregate
+        viewScores.clear();
+        for (int i = 0, n = viewTokens.size(); i < n; i++) {
+            final MatViewDefinition viewDefinition = engine.getDependentViewGraph().getViewDefinition(viewTokens.getQuick(i));
+            long score = -1;
+            if (viewDefinition != null
+                    && viewDefinition.getPeriodLength() == 0
+                    && viewDefinition.getRefreshLimitHoursOrMonths() == 0
+                    && isCompatibleInterval(viewDefinition.getSamplingInterval(), viewDefinition.getSamplingIntervalUnit())) {
+                final long months = monthCount(viewDefinition.getSamplingInterval(), viewDefinition.getSamplingIntervalUnit());
+                score = months > 0 ? months * 31 * NANOS_PER_DAY : fixedIntervalNanos(viewDefinition.getSamplingInterval(), viewDefinition.getSamplingIntervalUnit());
+            }
+            viewScores.add(score);
+        }
+
+        while (true) {
+            int best = -1;
+            for (int i = 0, n = viewScores.size(); i < n; i++) {
+                if (viewScores.getQuick(i) > 0 && (best == -1 || viewScores.getQuick(i) > viewScores.getQuick(best))) {
+                    best = i;
+                }
+            }
+            if (best == -1) {
+                return false;
+            }
+            viewScores.setQuick(best, -1);
+
+            final TableToken viewToken = viewTokens.getQuick(best);
+            final MatViewDefinition viewDefinition = engine.getDependentViewGraph().getViewDefinition(viewToken);
+            if (viewDefinition != null && collectView(engine, baseToken, timestampName, viewToken, viewDefinition, nestedModel, sqlParserCallback)) {
+                rewriteAggregates();
+                if (tailLo == FRESH) {
+                    nestedModel.setTableNameExpr(expressionNodePool.next().of(LITERAL, viewToken.getTableName(), 0, nestedModel.getTableNameExpr().position));
+                } else {
+                    setTail(nestedModel, baseToken, viewToken, timestampName, viewDefinition.getBaseTableTimestampDriver(), sqlParserCallback);
+                }
+                return true;
+            }
+        }
+    }
+}
@@ -47,10 +47,12 @@ import io.questdb.cairo.SqlJitMode;
 import io.questdb.cairo.SymbolMapReader;
 import io.questdb.cairo.TableColumnMetadata;
 import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableSamplePartitionFrameCursorFactory;
 import io.questdb.cairo.TableToken;
 import io.questdb.cairo.TableUtils;
 import io.questdb.cairo.TimestampDriver;
 import io.questdb.cairo.idx.IndexReader;
+import io.questdb.cairo.idx.TrigramIndex;
 import io.questdb.cairo.lv.LiveViewCheckpointRowsPlan;
 import io.questdb.cairo.map.RecordValueSink;
 import io.questdb.cairo.map.RecordValueSinkFactory;
@@ -190,6 +192,7 @@ import io.questdb.griffin.engine.groupby.SampleByFillValueNotKeyedRecordCursorFa
 import io.questdb.griffin.engine.groupby.SampleByFillValueRecordCursorFactory;
 import io.questdb.griffin.engine.groupby.SampleByFirstLastRecordCursorFactory;
 import io.questdb.griffin.engine.groupby.SampleByInterpolateRecordCursorFactory;
+import io.questdb.griffin.engine.groupby.TableSampleScaleRecordCursorFactory;
 import io.questdb.griffin.engine.groupby.TimestampSampler;
 import io.questdb.griffin.engine.groupby.TimestampSamplerFactory;
 import io.questdb.griffin.engine.groupby.vect.AvgDoubleVectorAggregateFunction;
@@ -203,18 +206,21 @@ import io.questdb.griffin.engine.groupby.vect.CountVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.GroupByRecordCursorFactory;
 import io.questdb.griffin.engine.groupby.vect.KSumDoubleVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.MaxDateVectorAggregateFunction;
+import io.questdb.griffin.engine.groupby.vect.MaxDecimal64VectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.MaxDoubleVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.MaxIntVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.MaxLongVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.MaxShortVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.MaxTimestampVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.MinDateVectorAggregateFunction;
+import io.questdb.griffin.engine.groupby.vect.MinDecimal64VectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.MinDoubleVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.MinIntVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.MinLongVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.MinShortVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.MinTimestampVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.NSumDoubleVectorAggregateFunction;
+import io.questdb.griffin.engine.groupby.vect.SumDecimal64VectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.SumDoubleVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.SumIntVectorAggregateFunction;
 import io.questdb.griffin.engine.groupby.vect.SumLong256VectorAggregateFunction;
@@ -233,6 +239,7 @@ import io.questdb.griffin.engine.join.AsOfJoinMemoizedRecordCursorFactory;
 import io.questdb.griffin.engine.join.AsOfJoinNoKeyFastRecordCursorFactory;
 import io.questdb.griffin.engine.join.AsOfJoinRecordCursorFactory;
 import io.questdb.griffin.engine.join.AsyncWindowJoinFastRecordCursorFactory;
+import io.questdb.griffin.engine.join.AsyncAsOfJoinRecordCursorFactory;
 import io.questdb.griffin.engine.join.AsyncWindowJoinRecordCursorFactory;
 import io.questdb.griffin.engine.join.ChainedSymbolShortCircuit;
 import io.questdb.griffin.engine.join.CrossJoinRecordCursorFactory;
@@ -327,8 +334,10 @@ import io.questdb.griffin.engine.table.PushdownFilterExtractor;
 import io.questdb.griffin.engine.table.RuntimeConstGateRecordCursorFactory;
 import io.questdb.griffin.engine.table.SelectedRecordCursorFactory;
 import io.questdb.griffin.engine.table.SortedSymbolIndexRecordCursorFactory;
+import io.questdb.griffin.engine.table.SortedValueIndexRowCursorFactory;
 import io.questdb.griffin.engine.table.SymbolIndexFilteredRowCursorFactory;
 import io.questdb.griffin.engine.table.SymbolIndexRowCursorFactory;
+import io.questdb.griffin.engine.table.TrigramIndexRowCursorFactory;
 import io.questdb.griffin.engine.table.VirtualRecordCursorFactory;
 import io.questdb.griffin.engine.union.ExceptAllRecordCursorFactory;
 import io.questdb.griffin.engine.union.ExceptRecordCursorFactory;
@@ -1678,7 +1687,11 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         if (ast.type == FUNCTION && ast.paramCount == 1 && isSumKeyword(ast.token) && ast.rhs.type == LITERAL) {
             columnIndex = SqlUtil.getColumnIndex(metadata, ast.rhs.token);
             tempVecConstructorArgIndexes.add(columnIndex);
-            return sumConstructors.get(metadata.getColumnType(columnIndex));
+            final int columnType = metadata.getColumnType(columnIndex);
+            if (ColumnType.tagOf(columnType) == ColumnType.DECIMAL64) {
+                return (int keyKind, int index, int timestampIndex, int _) -> new SumDecimal64VectorAggregateFunction(keyKind, index, columnType);
+            }
+            return sumConstructors.get(columnType);
         } else if (ast.type == FUNCTION && isCountKeyword(ast.token)
                 && (ast.paramCount == 0 || (ast.paramCount == 1 && ast.rhs.type == CONSTANT && !isNullKeyword(ast.rhs.token)))) {
             // count() is a no-arg function, count(1) is the same as count(*)
@@ -1687,7 +1700,9 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         } else if (isSingleColumnFunction(ast, "count")) {
             columnIndex = SqlUtil.getColumnIndex(metadata, ast.rhs.token);
             tempVecConstructorArgIndexes.add(columnIndex);
-            return countConstructors.get(metadata.getColumnType(columnIndex));
+            final int columnType = metadata.getColumnType(columnIndex);
+            // DECIMAL64 shares the LONG null sentinel, so the long count kernels apply
+            return countConstructors.get(ColumnType.tagOf(columnType) == ColumnType.DECIMAL64 ? ColumnType.DECIMAL64 : columnType);
         } else if (isSingleColumnFunction(ast, "ksum")) {
             columnIndex = SqlUtil.getColumnIndex(metadata, ast.rhs.token);
             tempVecConstructorArgIndexes.add(columnIndex);
@@ -1703,11 +1718,19 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         } else if (isSingleColumnFunction(ast, "min")) {
             columnIndex = SqlUtil.getColumnIndex(metadata, ast.rhs.token);
             tempVecConstructorArgIndexes.add(columnIndex);
-            return minConstructors.get(metadata.getColumnType(columnIndex));
+            final int columnType = metadata.getColumnType(columnIndex);
+            if (ColumnType.tagOf(columnType) == ColumnType.DECIMAL64) {
+                return (int keyKind, int index, int timestampIndex, int _) -> new MinDecimal64VectorAggregateFunction(keyKind, index, columnType);
+            }
+            return minConstructors.get(columnType);
         } else if (isSingleColumnFunction(ast, "max")) {
             columnIndex = SqlUtil.getColumnIndex(metadata, ast.rhs.token);
             tempVecConstructorArgIndexes.add(columnIndex);
-            return maxConstructors.get(metadata.getColumnType(columnIndex));
+            final int columnType = metadata.getColumnType(columnIndex);
+            if (ColumnType.tagOf(columnType) == ColumnType.DECIMAL64) {
+                return (int keyKind, int index, int timestampIndex, int _) -> new MaxDecimal64VectorAggregateFunction(keyKind, index, columnType);
+            }
+            return maxConstructors.get(columnType);
         }
         return null;
     }
@@ -5393,7 +5416,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             final RecordMetadata masterMetadata,
             final CharSequence masterAlias,
             final RecordCursorFactory slave,
-            final RecordMetadata slaveMetadata
+            final RecordMetadata slaveMetadata,
+            final SqlExecutionContext executionContext
     ) throws SqlException {
         long toleranceInterval = tolerance(slaveModel, masterMetadata.getTimestampType(), slaveMetadata.getTimestampType());
         CharSequence slaveAlias = slaveModel.getName();
@@ -5489,6 +5513,21 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                 );
                             }
 
+                            RecordCursorFactory parallelJoin = generateParallelAsOfJoin(
+                                    executionContext,
+                                    master,
+                                    masterMetadata,
+                                    slave,
+                                    slaveMetadata,
+                                    joinMetadata,
+                                    slaveContext,
+                                    toleranceInterval,
+                                    true
+                            );
+                            if (parallelJoin != null) {
+                                return parallelJoin;
+                            }
+
                             // We're falling back to the default Fast scan. We can still optimize one thing:
                             // join key equality check. Instead of comparing symbols as strings, compare symbol keys.
                             // For that to work, we need code that maps master symbol key to slave symbol key.
@@ -5747,7 +5786,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             RecordMetadata masterMetadata,
             CharSequence masterAlias,
             RecordCursorFactory slave,
-            RecordMetadata slaveMetadata
+            RecordMetadata slaveMetadata,
+            SqlExecutionContext executionContext
     ) throws SqlException {
         long toleranceInterval = tolerance(slaveModel, masterMetadata.getTimestampType(), slaveMetadata.getTimestampType());
         CharSequence slaveAlias = slaveModel.getName();
@@ -5770,6 +5810,22 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         JoinRecordMetadata joinMetadata = createJoinMetadata(masterAlias, masterMetadata, slaveAlias, slaveMetadata);
         try {
             if (isKeyedTemporalJoin(masterMetadata, slaveMetadata)) {
+                if (!SqlHints.hasAsOfLinearHint(model, masterAlias, slaveAlias)) {
+                    RecordCursorFactory parallelJoin = generateParallelAsOfJoin(
+                            executionContext,
+                            master,
+                            masterMetadata,
+                            slave,
+                            slaveMetadata,
+                            joinMetadata,
+                            slaveModel.getJoinContext(),
+                            toleranceInterval,
+                            false
+                    );
+                    if (parallelJoin != null) {
+                        return parallelJoin;
+                    }
+                }
                 int[][] ltSymbolKeyIndices = convertSymbolJoinKeysToInt(masterMetadata, slaveMetadata);
                 RecordSink masterKeyCopier = createRecordCopierMaster(masterMetadata);
                 RecordSink slaveKeyCopier = createRecordCopierSlave(slaveMetadata);
@@ -6005,8 +6061,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                 processJoinContext(index == 1, isSelfJoin, slaveModel.getJoinContext(), masterMetadata, slaveMetadata);
                                 validateTimestampNotInJoinKeys(slaveModel, masterMetadata, slaveMetadata);
                                 master = joinType == IQueryModel.JOIN_ASOF
-                                        ? generateJoinAsof(isSelfJoin, model, slaveModel, master, masterMetadata, masterAlias, slaveToFree, slaveMetadata)
-                                        : generateJoinLt(model, slaveModel, master, masterMetadata, masterAlias, slaveToFree, slaveMetadata);
+                                        ? generateJoinAsof(isSelfJoin, model, slaveModel, master, masterMetadata, masterAlias, slaveToFree, slaveMetadata, executionContext)
+                                        : generateJoinLt(model, slaveModel, master, masterMetadata, masterAlias, slaveToFree, slaveMetadata, executionContext);
                                 masterAlias = null;
                                 // from now on, master owns slave, so we don't have to close it
                                 closeSlaveOnFailure = false;
@@ -8222,6 +8278,54 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    // Returns the multi-threaded ASOF/LT JOIN factory when it is enabled and the join is keyed on
+    // a single SYMBOL column with the master providing page frames and the slave providing time frames.
+    // Returns null otherwise, in which case the caller falls back to the single-threaded join.
+    private @Nullable RecordCursorFactory generateParallelAsOfJoin(
+            SqlExecutionContext executionContext,
+            RecordCursorFactory master,
+            RecordMetadata masterMetadata,
+            RecordCursorFactory slave,
+            RecordMetadata slaveMetadata,
+            JoinRecordMetadata joinMetadata,
+            JoinContext joinContext,
+            long toleranceInterval,
+            boolean inclusive
+    ) {
+        if (!executionContext.isParallelAsOfJoinEnabled()
+                || listColumnFilterA.getColumnCount() != 1
+                || !master.supportsPageFrameCursor()
+                || master.getScanDirection() != RecordCursorFactory.SCAN_DIRECTION_FORWARD
+                || !slave.supportsTimeFrameCursor()) {
+            return null;
+        }
+        final int masterSymbolIndex = listColumnFilterB.getColumnIndexFactored(0);
+        final int slaveSymbolIndex = listColumnFilterA.getColumnIndexFactored(0);
+        if (!ColumnType.isSymbol(masterMetadata.getColumnType(masterSymbolIndex))
+                || !masterMetadata.isSymbolTableStatic(masterSymbolIndex)
+                || !ColumnType.isSymbol(slaveMetadata.getColumnType(slaveSymbolIndex))
+                || !slaveMetadata.isSymbolTableStatic(slaveSymbolIndex)) {
+            return null;
+        }
+        master.changePageFrameSizes(configuration.getSqlSmallPageFrameMinRows(), configuration.getSqlSmallPageFrameMaxRows());
+        return new AsyncAsOfJoinRecordCursorFactory(
+                executionContext.getCairoEngine(),
+                configuration,
+                executionContext.getMessageBus(),
+                joinMetadata,
+                master,
+                slave,
+                joinContext,
+                masterMetadata.getColumnCount(),
+                masterSymbolIndex,
+                slaveSymbolIndex,
+                toleranceInterval,
+                inclusive,
+                reduceTaskFactory,
+                executionContext.getSharedQueryWorkerCount()
+        );
+    }
+
     private RecordCursorFactory generateQuery(IQueryModel model, SqlExecutionContext executionContext, boolean processJoins) throws SqlException {
         final RecordCursorFactory factory = generateQuery0(model, executionContext, processJoins);
         if (model.getUnionModel() != null) {
@@ -8999,7 +9103,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     ) throws SqlException {
         return switch (model.getSelectModelType()) {
             case IQueryModel.SELECT_MODEL_CHOOSE -> generateSelectChoose(model, executionContext);
-            case IQueryModel.SELECT_MODEL_GROUP_BY -> generateSelectGroupBy(model, executionContext);
+            case IQueryModel.SELECT_MODEL_GROUP_BY ->
+                    generateTableSampleScale(model, generateSelectGroupBy(model, executionContext), executionContext);
             case IQueryModel.SELECT_MODEL_VIRTUAL -> generateSelectVirtual(model, executionContext);
             case IQueryModel.SELECT_MODEL_WINDOW -> generateSelectWindow(model, executionContext);
             case IQueryModel.SELECT_MODEL_WINDOW_JOIN -> generateSelectWindowJoin(model, executionContext);
@@ -11287,6 +11392,9 @@ public class SqlCodeGenerator implements Mutable, Closeable {
 
         GenericRecordMetadata dfcFactoryMeta = GenericRecordMetadata.copyOfNew(metadata);
         final int latestByColumnCount = prepareLatestByColumnIndexes(latestBy, queryMeta);
+        if (latestByColumnCount > 0 && model.getTableSampleMethod() != IQueryModel.TABLESAMPLE_NONE) {
+            throw SqlException.$(model.getTableSamplePercent().position, "TABLESAMPLE is not supported with LATEST ON");
+        }
         final TableToken tableToken = metadata.getTableToken();
         ExpressionNode withinExtracted;
 
@@ -11475,6 +11583,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 );
                 intervalHitsOnlyOnePartition = reader.getPartitionedBy() == PartitionBy.NONE;
             }
+            dfcFactory = wrapTableSample(model, dfcFactory, executionContext);
 
             try {
                 if (intrinsicModel.filter != null && dfcFactory.hasParquetFormatPartitions(executionContext) && executionContext.isParquetRowGroupPruningEnabled()) {
@@ -11848,6 +11957,48 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     }
                 }
 
+                if (
+                        intrinsicModel.filter != null
+                                && configuration.isSqlValueIndexEnabled()
+                                && SqlHints.hasValueIndexHint(model)
+                                && !model.isForceBackwardScan()
+                                && !SqlHints.hasNoIndexHint(model)
+                ) {
+                    final RecordCursorFactory valueIndexFactory = generateValueIndexScan(
+                            intrinsicModel,
+                            queryMeta,
+                            dfcFactory,
+                            columnIndexes,
+                            columnSizeShifts,
+                            supportsRandomAccess,
+                            executionContext
+                    );
+                    if (valueIndexFactory != null) {
+                        return valueIndexFactory;
+                    }
+                }
+
+                if (
+                        intrinsicModel.filter != null
+                                && configuration.isSqlTrigramIndexEnabled()
+                                && SqlHints.hasTrigramIndexHint(model)
+                                && !model.isForceBackwardScan()
+                                && !SqlHints.hasNoIndexHint(model)
+                ) {
+                    final RecordCursorFactory trigramIndexFactory = generateTrigramIndexScan(
+                            intrinsicModel,
+                            queryMeta,
+                            dfcFactory,
+                            columnIndexes,
+                            columnSizeShifts,
+                            supportsRandomAccess,
+                            executionContext
+                    );
+                    if (trigramIndexFactory != null) {
+                        return trigramIndexFactory;
+                    }
+                }
+
                 final RowCursorFactory rowFactory = new PageFrameRowCursorFactory(model.isForceBackwardScan() ? ORDER_DESC : ORDER_ASC);
 
                 model.setWhereClause(intrinsicModel.filter);
@@ -11886,6 +12037,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     getViewPosition(viewExpr),
                     model.isUpdate()
             );
+            cursorFactory = wrapTableSample(model, cursorFactory, executionContext);
             RowCursorFactory rowCursorFactory = new PageFrameRowCursorFactory(order);
 
             return new PageFrameRecordCursorFactory(
@@ -12004,6 +12156,174 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         );
     }
 
+    /**
+     * Scales count() and sum() produced by a group-by over a TABLESAMPLE'd table by 100/percent,
+     * so that they estimate full-table totals. Only the simple case is handled, i.e. when the
+     * group-by reads the sampled table without joins or another aggregation in between.
+     */
+    private RecordCursorFactory generateTableSampleScale(
+            IQueryModel model,
+            RecordCursorFactory factory,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        IQueryModel sampled = model.getTableSampleMethod() != IQueryModel.TABLESAMPLE_NONE ? model : model.getNestedModel();
+        while (sampled != null && sampled.getTableSampleMethod() == IQueryModel.TABLESAMPLE_NONE) {
+            final int selectModelType = sampled.getSelectModelType();
+            if (sampled.getJoinModels().size() > 1
+                    || sampled.getUnionModel() != null
+                    || (selectModelType != IQueryModel.SELECT_MODEL_NONE
+                    && selectModelType != IQueryModel.SELECT_MODEL_CHOOSE
+                    && selectModelType != IQueryModel.SELECT_MODEL_VIRTUAL)) {
+                return factory;
+            }
+            sampled = sampled.getNestedModel();
+        }
+        if (sampled == null) {
+            return factory;
+        }
+
+        try {
+            final double percent = toTableSamplePercent(sampled, executionContext);
+            final RecordMetadata metadata = factory.getMetadata();
+            final ObjList<QueryColumn> columns = model.getColumns();
+            IntHashSet scaledColumns = null;
+            for (int i = 0, n = columns.size(); i < n; i++) {
+                final QueryColumn column = columns.getQuick(i);
+                final ExpressionNode ast = column.getAst();
+                if (ast.type != FUNCTION || !(isCountKeyword(ast.token) || isSumKeyword(ast.token))) {
+                    continue;
+                }
+                final int columnIndex = metadata.getColumnIndexQuiet(column.getAlias());
+                if (columnIndex < 0) {
+                    continue;
+                }
+                switch (ColumnType.tagOf(metadata.getColumnType(columnIndex))) {
+                    case INT, LONG, FLOAT, DOUBLE -> {
+                        if (scaledColumns == null) {
+                            scaledColumns = new IntHashSet();
+                        }
+                        scaledColumns.add(columnIndex);
+                    }
+                    default -> {
+                        // decimals, long256 etc. are left as computed over the sample
+                    }
+                }
+            }
+            if (scaledColumns == null || percent == 100) {
+                return factory;
+            }
+            return new TableSampleScaleRecordCursorFactory(factory, scaledColumns, 100 / percent);
+        } catch (Throwable th) {
+            Misc.free(factory);
+            throw th;
+        }
+    }
+
+    // Picks the first LIKE, ILIKE or regex match condition with a constant pattern on a VARCHAR
+    // or STRING column from the filter and serves it from per-partition trigram indexes. The whole filter
+    // is still applied to the rows the index returns.
+    @Nullable
+    private RecordCursorFactory generateTrigramIndexScan(
+            IntrinsicModel intrinsicModel,
+            RecordMetadata queryMeta,
+            PartitionFrameCursorFactory dfcFactory,
+            IntList columnIndexes,
+            IntList columnSizeShifts,
+            boolean supportsRandomAccess,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        ObjList<IntList> groups = null;
+        int columnIndex = -1;
+        sqlNodeStack.clear();
+        ExpressionNode node = intrinsicModel.filter;
+        while (groups == null && (node != null || !sqlNodeStack.isEmpty())) {
+            if (node == null) {
+                node = sqlNodeStack.poll();
+            } else if (node.token != null && SqlKeywords.isAndKeyword(node.token)) {
+                if (node.rhs != null) {
+                    sqlNodeStack.push(node.rhs);
+                }
+                node = node.lhs;
+            } else {
+                if (
+                        node.token != null
+                                && node.paramCount == 2
+                                && node.lhs != null
+                                && node.lhs.type == ExpressionNode.LITERAL
+                                && node.rhs != null
+                                && node.rhs.type == ExpressionNode.CONSTANT
+                ) {
+                    final boolean like = SqlKeywords.isLikeKeyword(node.token);
+                    final boolean ilike = SqlKeywords.isIlikeKeyword(node.token);
+                    final boolean regex = Chars.equals(node.token, '~');
+                    final int index = queryMeta.getColumnIndexQuiet(node.lhs.token);
+                    // ILIKE on STRING folds the case of non-ASCII chars too, e.g. the Kelvin sign
+                    // matches 'k', which the ASCII folded trigrams can't answer
+                    if (
+                            (like || ilike || regex)
+                                    && index > -1
+                                    && TrigramIndex.isSupportedColumnType(queryMeta.getColumnType(index))
+                                    && !(ilike && ColumnType.isString(queryMeta.getColumnType(index)))
+                    ) {
+                        final Function pattern = functionParser.parseFunction(node.rhs, queryMeta, executionContext);
+                        try {
+                            final short patternTag = ColumnType.tagOf(pattern.getType());
+                            final CharSequence patternStr = patternTag == ColumnType.STRING || patternTag == ColumnType.VARCHAR
+                                    ? pattern.getStrA(null)
+                                    : null;
+                            if (patternStr != null) {
+                                groups = regex
+                                        ? TrigramIndexRowCursorFactory.regexTrigrams(patternStr)
+                                        : TrigramIndexRowCursorFactory.likeTrigrams(patternStr, ilike);
+                                columnIndex = index;
+                            }
+                        } finally {
+                            Misc.free(pattern);
+                        }
+                    }
+                }
+                node = null;
+            }
+        }
+        if (groups == null) {
+            return null;
+        }
+
+        Function filter = null;
+        try {
+            filter = compileFilter(intrinsicModel, queryMeta, executionContext);
+            if (filter == null || filter.isConstant()) {
+                // leave constant filters to the regular scan path
+                Misc.free(filter);
+                return null;
+            }
+            final RowCursorFactory rowCursorFactory = new TrigramIndexRowCursorFactory(
+                    columnIndex,
+                    columnIndexes.getQuick(columnIndex),
+                    queryMeta.getColumnType(columnIndex),
+                    groups,
+                    filter,
+                    executionContext.getCairoEngine().getTrigramIndexMemoryBudget()
+            );
+            return new PageFrameRecordCursorFactory(
+                    configuration,
+                    queryMeta,
+                    dfcFactory,
+                    rowCursorFactory,
+                    false,
+                    filter,
+                    false,
+                    columnIndexes,
+                    columnSizeShifts,
+                    supportsRandomAccess,
+                    false
+            );
+        } catch (Throwable th) {
+            Misc.free(filter);
+            throw th;
+        }
+    }
+
     private RecordCursorFactory generateUnionAllFactory(
             IQueryModel model,
             SqlExecutionContext executionContext,
@@ -12411,6 +12731,83 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    // Picks the first equality, IN, range or BETWEEN condition on an INT or LONG column
+    // from the filter and serves it from per-partition sorted value indexes. The whole
+    // filter is still applied to the rows the index returns.
+    @Nullable
+    private RecordCursorFactory generateValueIndexScan(
+            IntrinsicModel intrinsicModel,
+            RecordMetadata queryMeta,
+            PartitionFrameCursorFactory dfcFactory,
+            IntList columnIndexes,
+            IntList columnSizeShifts,
+            boolean supportsRandomAccess,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        final ObjList<PushdownFilterExtractor.PushdownFilterCondition> conditions = pushdownFilterExtractor.extractAndCompile(
+                sqlNodeStack,
+                sqlNodeStack2,
+                intrinsicModel.filter,
+                queryMeta,
+                functionParser,
+                executionContext
+        );
+        if (conditions == null) {
+            return null;
+        }
+
+        PushdownFilterExtractor.PushdownFilterCondition indexCondition = null;
+        for (int i = 0, n = conditions.size(); i < n; i++) {
+            final PushdownFilterExtractor.PushdownFilterCondition condition = conditions.getQuick(i);
+            if (SortedValueIndexRowCursorFactory.isSupported(condition)) {
+                indexCondition = condition;
+                conditions.setQuick(i, null);
+                break;
+            }
+        }
+        Misc.freeObjList(conditions);
+        if (indexCondition == null) {
+            return null;
+        }
+
+        Function filter = null;
+        try {
+            filter = compileFilter(intrinsicModel, queryMeta, executionContext);
+            if (filter == null || filter.isConstant()) {
+                // leave constant filters to the regular scan path
+                Misc.free(filter);
+                Misc.free(indexCondition);
+                return null;
+            }
+            final int columnIndex = queryMeta.getColumnIndexQuiet(indexCondition.getColumnName());
+            final RowCursorFactory rowCursorFactory = new SortedValueIndexRowCursorFactory(
+                    columnIndex,
+                    columnIndexes.getQuick(columnIndex),
+                    indexCondition,
+                    filter,
+                    executionContext.getCairoEngine().getValueIndexMemoryBudget()
+            );
+            indexCondition = null;
+            return new PageFrameRecordCursorFactory(
+                    configuration,
+                    queryMeta,
+                    dfcFactory,
+                    rowCursorFactory,
+                    false,
+                    filter,
+                    false,
+                    columnIndexes,
+                    columnSizeShifts,
+                    supportsRandomAccess,
+                    false
+            );
+        } catch (Throwable th) {
+            Misc.free(indexCondition);
+            Misc.free(filter);
+            throw th;
+        }
+    }
+
     @Nullable
     private Function getHiFunction(IQueryModel model, SqlExecutionContext executionContext) throws SqlException {
         return toLimitFunction(executionContext, model.getLimitHi(), null);
@@ -12729,6 +13126,36 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         processNodeQueryModels(node, RESTORE_WHERE_CLAUSE);
     }
 
+    private double toTableSamplePercent(IQueryModel model, SqlExecutionContext executionContext) throws SqlException {
+        final ExpressionNode node = model.getTableSamplePercent();
+        final Function func = functionParser.parseFunction(node, EmptyRecordMetadata.INSTANCE, executionContext);
+        try {
+            if (!func.isConstant() || !ColumnType.isSameTagOrBuiltInWideningCast(func.getType(), DOUBLE)) {
+                throw SqlException.$(node.position, "sample percentage must be a numeric constant");
+            }
+            return TableSamplePartitionFrameCursorFactory.checkPercent(func.getDouble(null), node.position);
+        } finally {
+            Misc.free(func);
+        }
+    }
+
+    // returns LONG_NULL when the sample is not repeatable
+    private long toTableSampleSeed(IQueryModel model, SqlExecutionContext executionContext) throws SqlException {
+        final ExpressionNode node = model.getTableSampleSeed();
+        if (node == null) {
+            return Numbers.LONG_NULL;
+        }
+        final Function func = functionParser.parseFunction(node, EmptyRecordMetadata.INSTANCE, executionContext);
+        try {
+            if (!func.isConstant() || !ColumnType.isSameTagOrBuiltInWideningCast(func.getType(), LONG)) {
+                throw SqlException.$(node.position, "seed must be an integer constant");
+            }
+            return func.getLong(null);
+        } finally {
+            Misc.free(func);
+        }
+    }
+
     private Function toLimitFunction(
             SqlExecutionContext executionContext,
             ExpressionNode limit,
@@ -12820,6 +13247,31 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    private PartitionFrameCursorFactory wrapTableSample(
+            IQueryModel model,
+            PartitionFrameCursorFactory factory,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        if (model.getTableSampleMethod() != IQueryModel.TABLESAMPLE_SYSTEM) {
+            // BERNOULLI sampling is a row filter added by the optimiser
+            return factory;
+        }
+        try {
+            final double percent = toTableSamplePercent(model, executionContext);
+            final long seed = toTableSampleSeed(model, executionContext);
+            return new TableSamplePartitionFrameCursorFactory(
+                    factory,
+                    percent,
+                    seed != Numbers.LONG_NULL,
+                    seed,
+                    configuration.getSqlPageFrameMinRows()
+            );
+        } catch (Throwable th) {
+            Misc.free(factory);
+            throw th;
+        }
+    }
+
     private RecordCursorFactory wrapCoveringWithFilter(
             CoveringIndexRecordCursorFactory coveringFactory,
             Function filter,
@@ -13109,6 +13561,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         countConstructors.put(DOUBLE, CountDoubleVectorAggregateFunction::new);
         countConstructors.put(INT, CountIntVectorAggregateFunction::new);
         countConstructors.put(LONG, CountLongVectorAggregateFunction::new);
+        countConstructors.put(DECIMAL64, CountLongVectorAggregateFunction::new);
         countConstructors.put(DATE, CountLongVectorAggregateFunction::new);
         countConstructors.put(TIMESTAMP_MICRO, CountLongVectorAggregateFunction::new);
         countConstructors.put(TIMESTAMP_NANO, CountLongVectorAggregateFunction::new);
@@ -617,6 +617,11 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
         return parser.expr(lexer, (IQueryModel) null, this);
     }
 
+    @Override
+    public IQueryModel parseGeneratedQuery(CharSequence sql) throws SqlException {
+        return parser.parseGeneratedQuery(sql);
+    }
+
     @TestOnly
     public void setUnionSymbolProjectionTestHook(@Nullable SqlCodeGenerator.UnionSymbolProjectionTestHook hook) {
         codeGenerator.setUnionSymbolProjectionTestHook(hook);
@@ -3344,7 +3349,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                 executionContext.getSecurityContext().authorizeMatViewCreate();
                 final CreateMatViewOperationBuilder createMatViewBuilder = (CreateMatViewOperationBuilder) model;
                 if (createMatViewBuilder.getQueryModel() != null) {
-                    final IQueryModel selectModel = optimiser.optimise(createMatViewBuilder.getQueryModel(), executionContext, this);
+                    final IQueryModel selectModel = optimiser.optimise(createMatViewBuilder.getQueryModel(), executionContext, this, false);
                     createMatViewBuilder.setSelectModel(selectModel);
                 }
                 return model;
@@ -3355,13 +3360,14 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                 // trips "wtf? ts" under -ea and an AIOOBE without - an Error escaping compile(),
                 // i.e. a 500 on HTTP/pgwire instead of a plan.
                 //
-                // The live-view codegen flag is armed in generateExplain, not here: nothing in
-                // SqlOptimiser reads isLiveViewCompile(), so arming it around this call alone would
-                // leave it false for the code generation that actually reads it.
+                // The live-view codegen flag is armed in generateExplain, not here: SqlOptimiser
+                // only reads isLiveViewCompile() to skip the mat view rewrite, which is disabled for
+                // this call anyway, so arming it around this call alone would leave it false for the
+                // code generation that actually reads it.
                 executionContext.getSecurityContext().authorizeLiveViewCreate();
                 final CreateLiveViewOperationBuilder createLiveViewBuilder = (CreateLiveViewOperationBuilder) model;
                 if (createLiveViewBuilder.getQueryModel() != null) {
-                    final IQueryModel selectModel = optimiser.optimise(createLiveViewBuilder.getQueryModel(), executionContext, this);
+                    final IQueryModel selectModel = optimiser.optimise(createLiveViewBuilder.getQueryModel(), executionContext, this, false);
                     createLiveViewBuilder.setSelectModel(selectModel);
                 }
                 return model;
@@ -5230,7 +5236,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
             // Arm the live-view compile flag around CODE GENERATION, which is the only thing that
             // reads it: SqlCodeGenerator (the symbol partition-key sink, anchor collection),
             // WhereClauseParser (a SqlCodeGenerator field - it suppresses indexed-symbol filters
-            // for a live view) and CompiledFilterIRSerializer. SqlOptimiser never reads it, so
+            // for a live view) and CompiledFilterIRSerializer. SqlOptimiser only reads it to skip the mat view rewrite, so
             // arming it only around optimise() in compileExplainExecutionModel0 left it false here
             // and printed a plan the real CREATE never generates (an indexed symbol scan). Mirrors
             // the arm CairoEngine.createLiveView wraps its compile() in.
@@ -5895,7 +5901,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
             factory = new StaleViewCheckFactory(factory, views, engine);
         }
         if (generateProgressLogger) {
-            return new QueryProgress(queryRegistry, sqlText, factory);
+            return new QueryProgress(queryRegistry, sqlText, factory, SqlHints.getWorkloadClass(selectQueryModel));
         } else {
             return factory;
         }
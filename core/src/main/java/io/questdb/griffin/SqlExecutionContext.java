@@ -37,6 +37,7 @@ import io.questdb.cairo.sql.BindVariableService;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
 import io.questdb.cairo.sql.TableRecordMetadata;
 import io.questdb.cairo.sql.VirtualRecord;
+import io.questdb.cairo.sql.async.QueryWorkloadClass;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
 import io.questdb.griffin.engine.window.WindowContext;
 import io.questdb.griffin.model.IntrinsicModel;
@@ -45,6 +46,7 @@ import io.questdb.std.Decimal128;
 import io.questdb.std.Decimal256;
 import io.questdb.std.Decimal64;
 import io.questdb.std.MemoryTracker;
+import io.questdb.std.Numbers;
 import io.questdb.std.Rnd;
 import io.questdb.std.Transient;
 import io.questdb.std.str.CharSink;
@@ -58,6 +60,12 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 public interface SqlExecutionContext extends Sinkable, Closeable {
 
+    // Returns true when SAMPLE BY queries may be rewritten to read from a materialized view
+    // instead of its base table. A materialized view refresh must always read the base table.
+    default boolean allowMatViewQueryRewrite() {
+        return true;
+    }
+
     // Returns true when the context doesn't require all SQL functions to be deterministic.
     // Deterministic-only functions are enforced e.g. when compiling a mat view.
     boolean allowNonDeterministicFunctions();
@@ -102,6 +110,14 @@ public interface SqlExecutionContext extends Sinkable, Closeable {
         return false;
     }
 
+    /**
+     * Returns the time, in microseconds, the query on this context was first parked waiting for
+     * an admission slot, or {@link Numbers#LONG_NULL} when it isn't waiting.
+     */
+    default long getAdmissionWaitStart() {
+        return Numbers.LONG_NULL;
+    }
+
     default Rnd getAsyncRandom() {
         return SharedRandom.getAsyncRandom(getCairoEngine().getConfiguration());
     }
@@ -248,10 +264,28 @@ public interface SqlExecutionContext extends Sinkable, Closeable {
 
     WindowContext getWindowContext();
 
+    /**
+     * Returns the {@link QueryWorkloadClass} of the query whose cursor is being opened on
+     * this context. Page frame sequences read it to schedule their reduce tasks.
+     */
+    default byte getWorkloadClass() {
+        return QueryWorkloadClass.NORMAL;
+    }
+
     int hasInterval();
 
     void initNow();
 
+    /**
+     * Returns true when the caller re-runs the query once it fails with
+     * {@link io.questdb.cairo.EntryUnavailableException}, e.g. through the HTTP retry queue.
+     * Such queries are parked while they wait for an admission slot, other queries block the
+     * calling thread for at most the admission blocking timeout.
+     */
+    default boolean isAdmissionParkable() {
+        return false;
+    }
+
     boolean isCacheHit();
 
     // Returns false only for materialized view refresh contexts when the
@@ -277,6 +311,8 @@ public interface SqlExecutionContext extends Sinkable, Closeable {
         return false;
     }
 
+    boolean isParallelAsOfJoinEnabled();
+
     boolean isParallelFilterEnabled();
 
     boolean isParallelGroupByEnabled();
@@ -332,6 +368,9 @@ public interface SqlExecutionContext extends Sinkable, Closeable {
 
     void restoreToDefaultPageFrameSizes();
 
+    default void setAdmissionWaitStart(long micros) {
+    }
+
     void setAllowNonDeterministicFunction(boolean value);
 
     void setCacheHit(boolean value);
@@ -361,6 +400,8 @@ public interface SqlExecutionContext extends Sinkable, Closeable {
 
     void setNowAndFixClock(long now, int nowTimestampType);
 
+    void setParallelAsOfJoinEnabled(boolean parallelAsOfJoinEnabled);
+
     void setParallelFilterEnabled(boolean parallelFilterEnabled);
 
     void setParallelGroupByEnabled(boolean parallelGroupByEnabled);
@@ -389,6 +430,13 @@ public interface SqlExecutionContext extends Sinkable, Closeable {
 
     void setUseSimpleCircuitBreaker(boolean value);
 
+    /**
+     * Set by {@code QueryProgress} for the duration of cursor open to the class the query was
+     * admitted to; the previous value is restored afterward. Default is a no-op.
+     */
+    default void setWorkloadClass(byte workloadClass) {
+    }
+
     default boolean shouldLogSql() {
         return true;
     }
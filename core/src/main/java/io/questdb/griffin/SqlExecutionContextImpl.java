@@ -39,6 +39,7 @@ import io.questdb.cairo.sql.AtomicBooleanCircuitBreaker;
 import io.questdb.cairo.sql.BindVariableService;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
 import io.questdb.cairo.sql.VirtualRecord;
+import io.questdb.cairo.sql.async.QueryWorkloadClass;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
 import io.questdb.griffin.engine.window.WindowContext;
 import io.questdb.griffin.engine.window.WindowContextImpl;
@@ -51,6 +52,7 @@ import io.questdb.std.IntHashSet;
 import io.questdb.std.IntStack;
 import io.questdb.std.MemoryTracker;
 import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
 import io.questdb.std.ObjStack;
 import io.questdb.std.Rnd;
 import io.questdb.std.Transient;
@@ -85,6 +87,8 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
     private final WindowContextImpl windowContext = new WindowContextImpl();
     protected BindVariableService bindVariableService;
     protected SecurityContext securityContext;
+    private boolean admissionParkable;
+    private long admissionWaitStart = Numbers.LONG_NULL;
     private boolean allowNonDeterministicFunction = true;
     private boolean cacheHit;
     private SqlExecutionCircuitBreaker circuitBreaker = SqlExecutionCircuitBreaker.NOOP_CIRCUIT_BREAKER;
@@ -103,6 +107,7 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
     private int nowTimestampType;
     private int pageFrameMaxRows;
     private int pageFrameMinRows;
+    private boolean parallelAsOfJoinEnabled;
     private boolean parallelFilterEnabled;
     private boolean parallelGroupByEnabled;
     private boolean parallelReadParquetEnabled;
@@ -117,6 +122,7 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
     private boolean useSimpleCircuitBreaker;
     private boolean validationOnly = false;
     private SecurityContext validationSecurityContext;
+    private byte workloadClass = QueryWorkloadClass.NORMAL;
 
     public SqlExecutionContextImpl(CairoEngine cairoEngine, int sharedQueryWorkerCount) {
         assert sharedQueryWorkerCount >= 0;
@@ -134,6 +140,7 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         parallelTopKEnabled = cairoConfiguration.isSqlParallelTopKEnabled() && sharedQueryWorkerCount > 0;
         parallelHorizonJoinEnabled = cairoConfiguration.isSqlParallelHorizonJoinEnabled() && sharedQueryWorkerCount > 0;
         parallelWindowJoinEnabled = cairoConfiguration.isSqlParallelWindowJoinEnabled() && sharedQueryWorkerCount > 0;
+        parallelAsOfJoinEnabled = cairoConfiguration.isSqlParallelAsOfJoinEnabled() && sharedQueryWorkerCount > 0;
         parallelReadParquetEnabled = cairoConfiguration.isSqlParallelReadParquetEnabled() && sharedQueryWorkerCount > 0;
         parquetRowGroupPruningEnabled = cairoConfiguration.isSqlParquetRowGroupPruningEnabled();
         telemetry = cairoEngine.getTelemetry();
@@ -232,6 +239,11 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         this.containsSecret = containsSecret;
     }
 
+    @Override
+    public long getAdmissionWaitStart() {
+        return admissionWaitStart;
+    }
+
     @Override
     public BindVariableService getBindVariableService() {
         return bindVariableService;
@@ -368,6 +380,11 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         return windowContext;
     }
 
+    @Override
+    public byte getWorkloadClass() {
+        return workloadClass;
+    }
+
     @Override
     public int hasInterval() {
         return hasIntervalStack.peek();
@@ -382,6 +399,11 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         }
     }
 
+    @Override
+    public boolean isAdmissionParkable() {
+        return admissionParkable;
+    }
+
     public boolean isCacheHit() {
         return cacheHit;
     }
@@ -391,6 +413,11 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         return liveViewCompile;
     }
 
+    @Override
+    public boolean isParallelAsOfJoinEnabled() {
+        return parallelAsOfJoinEnabled;
+    }
+
     @Override
     public boolean isParallelFilterEnabled() {
         return parallelFilterEnabled;
@@ -506,6 +533,9 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         // cursor open; reset() is a backstop for reused per-connection contexts if that
         // restore is ever bypassed.
         this.readerPoolSupervisor = null;
+        this.workloadClass = QueryWorkloadClass.NORMAL;
+        this.admissionParkable = false;
+        this.admissionWaitStart = Numbers.LONG_NULL;
         this.timestampRequiredStack.clear();
         this.hasIntervalStack.clear();
         this.intervalModelObjStack.clear();
@@ -518,6 +548,15 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         this.pageFrameMaxRows = defaultPageFrameMaxRows;
     }
 
+    public void setAdmissionParkable(boolean admissionParkable) {
+        this.admissionParkable = admissionParkable;
+    }
+
+    @Override
+    public void setAdmissionWaitStart(long micros) {
+        this.admissionWaitStart = micros;
+    }
+
     @Override
     public void setAllowNonDeterministicFunction(boolean value) {
         this.allowNonDeterministicFunction = value;
@@ -578,6 +617,11 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         this.queryFutureUpdateListener = listener != null ? listener : QueryFutureUpdateListener.EMPTY;
     }
 
+    @Override
+    public void setParallelAsOfJoinEnabled(boolean parallelAsOfJoinEnabled) {
+        this.parallelAsOfJoinEnabled = parallelAsOfJoinEnabled;
+    }
+
     @Override
     public void setParallelFilterEnabled(boolean parallelFilterEnabled) {
         this.parallelFilterEnabled = parallelFilterEnabled;
@@ -637,6 +681,11 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         }
     }
 
+    @Override
+    public void setWorkloadClass(byte workloadClass) {
+        this.workloadClass = workloadClass;
+    }
+
     @Override
     public boolean shouldLogSql() {
         // Validation only compiles the SQL to check it; suppress query progress logging
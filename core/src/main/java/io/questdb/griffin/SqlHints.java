@@ -24,6 +24,7 @@
 
 package io.questdb.griffin;
 
+import io.questdb.cairo.sql.async.QueryWorkloadClass;
 import io.questdb.griffin.model.IQueryModel;
 import io.questdb.std.Chars;
 import io.questdb.std.LowerCaseCharSequenceObjHashMap;
@@ -41,6 +42,26 @@ public final class SqlHints {
     public static final String MARKOUT_HORIZON_HINT = "markout_horizon";
     public static final String NO_COVERING_HINT = "no_covering";
     public static final String NO_INDEX_HINT = "no_index";
+    public static final String TRIGRAM_INDEX_HINT = "trigram_index";
+    public static final String VALUE_INDEX_HINT = "value_index";
+    public static final String WORKLOAD_CLASS_HINT = "workload_class";
+
+    /**
+     * Returns the class requested with the {@code workload_class(high|normal|low)} hint. The hint
+     * is looked up on the outermost model that has it, following the nested model chain.
+     *
+     * @return the requested class, or {@link QueryWorkloadClass#NONE} when there is no valid hint
+     */
+    public static byte getWorkloadClass(@Nullable IQueryModel queryModel) {
+        while (queryModel != null) {
+            CharSequence params = queryModel.getHints().get(WORKLOAD_CLASS_HINT);
+            if (params != null) {
+                return QueryWorkloadClass.of(params);
+            }
+            queryModel = queryModel.getNestedModel();
+        }
+        return QueryWorkloadClass.NONE;
+    }
 
     public static boolean hasAsOfDenseHint(
             @NotNull IQueryModel queryModel,
@@ -109,6 +130,16 @@ public final class SqlHints {
         return queryModel.getHints().keyIndex(NO_INDEX_HINT) < 0;
     }
 
+    // opts the query into trigram indexes built on the fly, see TrigramIndexRowCursorFactory
+    public static boolean hasTrigramIndexHint(@NotNull IQueryModel queryModel) {
+        return queryModel.getHints().keyIndex(TRIGRAM_INDEX_HINT) < 0;
+    }
+
+    // opts the query into sorted value indexes built on the fly, see SortedValueIndexRowCursorFactory
+    public static boolean hasValueIndexHint(@NotNull IQueryModel queryModel) {
+        return queryModel.getHints().keyIndex(VALUE_INDEX_HINT) < 0;
+    }
+
     private static boolean hasHintWithParams(
             @NotNull IQueryModel queryModel,
             @NotNull CharSequence hintName,
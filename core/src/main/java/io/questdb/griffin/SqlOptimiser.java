@@ -57,6 +57,7 @@ import io.questdb.griffin.engine.functions.catalogue.ShowTransactionIsolationLev
 import io.questdb.griffin.engine.functions.constants.CharConstant;
 import io.questdb.griffin.engine.functions.date.TimestampFloorFromOffsetUtcFunctionFactory;
 import io.questdb.griffin.engine.functions.date.ToUTCTimestampFunctionFactory;
+import io.questdb.griffin.engine.functions.rnd.TableSampleBernoulliFunctionFactory;
 import io.questdb.griffin.engine.table.ShowColumnsRecordCursorFactory;
 import io.questdb.griffin.engine.table.ShowPartitionsRecordCursorFactory;
 import io.questdb.griffin.model.ExpressionNode;
@@ -204,6 +205,7 @@ public class SqlOptimiser implements Mutable {
     private final IntHashSet literalCollectorBIndexes = new IntHashSet();
     private final ObjList<CharSequence> literalCollectorBNames = new ObjList<>();
     private final LiteralRewritingVisitor literalRewritingVisitor = new LiteralRewritingVisitor();
+    private final MatViewQueryRewriter matViewQueryRewriter;
     private final int maxRecursion;
     private final AtomicInteger nonAggSelectCount = new AtomicInteger(0);
     // Per-level master-nulling-join anchors filled by precomputeNullingJoinAnchors for O(1) lookups.
@@ -312,6 +314,13 @@ public class SqlOptimiser implements Mutable {
                 innerWindowModels,
                 tempColumns2
         );
+        this.matViewQueryRewriter = new MatViewQueryRewriter(
+                configuration,
+                characterStore,
+                expressionNodePool,
+                functionParser,
+                path
+        );
         initialiseOperatorExpressions();
     }
 
@@ -423,6 +432,7 @@ public class SqlOptimiser implements Mutable {
         tmpStringSink.clear();
         clearWindowFunctionHashMap();
         lateralJoinRewriter.clear();
+        matViewQueryRewriter.clear();
     }
 
     public void clearConstNameMaps() {
@@ -533,6 +543,16 @@ public class SqlOptimiser implements Mutable {
         }
     }
 
+    private static boolean containsLiteral(ObjList<ExpressionNode> nodes, CharSequence token) {
+        for (int i = 0, n = nodes.size(); i < n; i++) {
+            final ExpressionNode node = nodes.getQuick(i);
+            if (node.type == LITERAL && Chars.equalsIgnoreCase(node.token, token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static void extractAndTerms(ExpressionNode node, ObjList<ExpressionNode> terms) {
         if (node.type == ExpressionNode.OPERATION && SqlKeywords.isAndKeyword(node.token)) {
             extractAndTerms(node.lhs, terms);
@@ -542,6 +562,32 @@ public class SqlOptimiser implements Mutable {
         }
     }
 
+    private static int getUnionAllBranchColumnIndex(IQueryModel union, CharSequence columnName) {
+        final int index = union.getColumnAliasIndex(columnName);
+        if (index < 0) {
+            return -1;
+        }
+        // union output takes column names from the first branch, other branches
+        // must use the same names for the branch group by models to resolve them
+        for (IQueryModel branch = union; branch != null; branch = branch.getUnionModel()) {
+            final ObjList<QueryColumn> branchColumns = branch.getBottomUpColumns();
+            if (index >= branchColumns.size() || !Chars.equalsIgnoreCase(branchColumns.getQuick(index).getAlias(), columnName)) {
+                return -1;
+            }
+        }
+        return index;
+    }
+
+    private static int getUnionAllBranchColumnType(IQueryModel branch, int columnIndex) {
+        final ExpressionNode ast = branch.getBottomUpColumns().getQuick(columnIndex).getAst();
+        final IQueryModel branchNested = branch.getNestedModel();
+        if (ast.type != LITERAL || branchNested == null || branchNested.getTableNameExpr() == null || branchNested.getJoinModels().size() > 1) {
+            return -1;
+        }
+        final QueryColumn column = branchNested.getAliasToColumnMap().get(ast.token);
+        return column != null ? column.getColumnType() : -1;
+    }
+
     private static boolean hasLinearFill(ObjList<ExpressionNode> fill) {
         for (int i = 0, n = fill.size(); i < n; i++) {
             if (isLinearKeyword(fill.getQuick(i).token)) {
@@ -685,6 +731,170 @@ public class SqlOptimiser implements Mutable {
                 || isCurrentTimestampKeyword(token);
     }
 
+    private static boolean isUnionAllGroupByAggregatePushdownPossible(IQueryModel union, ExpressionNode ast) {
+        final boolean isCount = isCountKeyword(ast.token);
+        final boolean isSum = isSumKeyword(ast.token);
+        if (!isCount && !isSum && !Chars.equalsIgnoreCase("min", ast.token) && !Chars.equalsIgnoreCase("max", ast.token)) {
+            return false;
+        }
+        if (ast.paramCount == 0) {
+            return isCount;
+        }
+        if (ast.paramCount != 1) {
+            return false;
+        }
+        final ExpressionNode arg = ast.rhs;
+        if (isCount) {
+            // count(*) and count(constant) are pushed down as count()
+            if (Chars.equals(arg.token, '*')) {
+                return true;
+            }
+            if (arg.type == CONSTANT) {
+                return !isNullKeyword(arg.token);
+            }
+        }
+        if (arg.type != LITERAL || arg.isWildcard()) {
+            return false;
+        }
+        final int columnIndex = getUnionAllBranchColumnIndex(union, arg.token);
+        if (columnIndex < 0) {
+            return false;
+        }
+        if (isCount) {
+            return true;
+        }
+
+        // the aggregate of partial aggregates must return the same type as the original aggregate:
+        // sum() widens integers to long, while min() and max() keep the argument type
+        int firstType = -1;
+        for (IQueryModel branch = union; branch != null; branch = branch.getUnionModel()) {
+            final int type = getUnionAllBranchColumnType(branch, columnIndex);
+            if (type < 0) {
+                return false;
+            }
+            if (firstType < 0) {
+                firstType = type;
+            }
+            if (isSum) {
+                if (!isUnionAllSumTypeCompatible(firstType, type)) {
+                    return false;
+                }
+            } else if (type != firstType) {
+                return false;
+            }
+        }
+        if (isSum) {
+            return true;
+        }
+        switch (ColumnType.tagOf(firstType)) {
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isUnionAllGroupByPushdownPossible(IQueryModel model, IQueryModel nested) {
+        final IQueryModel union = nested.getNestedModel();
+        if (union == null
+                || union.getUnionModel() == null
+                || model.getSelectModelType() != IQueryModel.SELECT_MODEL_CHOOSE
+                || model.isDistinct()
+                || model.getJoinModels().size() > 1
+                || nested.getTableNameExpr() != null
+                || nested.getJoinModels().size() > 1
+                || nested.getWhereClause() != null
+                || nested.getSampleBy() != null
+                || nested.getLatestBy().size() > 0
+                || nested.getTimestamp() != null
+                || nested.getUnionModel() != null
+        ) {
+            return false;
+        }
+
+        final int branchColumnCount = union.getBottomUpColumns().size();
+        for (IQueryModel branch = union; branch != null; branch = branch.getUnionModel()) {
+            if (branch.hasSharedRefs()
+                    || branch.isDistinct()
+                    || branch.getLimitLo() != null
+                    || branch.getLimitHi() != null
+                    || branch.getBottomUpColumns().size() != branchColumnCount
+                    || (branch.getUnionModel() != null && branch.getSetOperationType() != IQueryModel.SET_OPERATION_UNION_ALL)
+            ) {
+                return false;
+            }
+        }
+
+        final ObjList<QueryColumn> columns = model.getBottomUpColumns();
+        final ObjList<ExpressionNode> groupBy = nested.getGroupBy();
+        int aggregateCount = 0;
+        int keyCount = 0;
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            final QueryColumn qc = columns.getQuick(i);
+            final ExpressionNode ast = qc.getAst();
+            if (qc.isWindowExpression()) {
+                return false;
+            }
+            if (ast.type == LITERAL) {
+                if (ast.isWildcard()
+                        || !Chars.equalsIgnoreCase(qc.getAlias(), ast.token)
+                        || getUnionAllBranchColumnIndex(union, ast.token) < 0
+                        || (groupBy.size() > 0 && !containsLiteral(groupBy, ast.token))
+                ) {
+                    return false;
+                }
+                keyCount++;
+            } else if (ast.type == FUNCTION && isUnionAllGroupByAggregatePushdownPossible(union, ast)) {
+                aggregateCount++;
+            } else {
+                return false;
+            }
+        }
+        if (aggregateCount == 0) {
+            return false;
+        }
+
+        // explicit group by must list exactly the key columns
+        if (groupBy.size() > 0) {
+            if (groupBy.size() != keyCount) {
+                return false;
+            }
+            for (int i = 0, n = groupBy.size(); i < n; i++) {
+                final ExpressionNode node = groupBy.getQuick(i);
+                if (node.type != LITERAL) {
+                    return false;
+                }
+                final QueryColumn qc = model.getAliasToColumnMap().get(node.token);
+                if (qc == null || qc.getAst().type != LITERAL) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUnionAllSumTypeCompatible(int firstType, int type) {
+        final short firstTag = ColumnType.tagOf(firstType);
+        final short tag = ColumnType.tagOf(type);
+        switch (tag) {
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+                return firstTag == ColumnType.BYTE || firstTag == ColumnType.SHORT || firstTag == ColumnType.INT || firstTag == ColumnType.LONG;
+            case ColumnType.DOUBLE:
+            case ColumnType.LONG256:
+                return firstTag == tag;
+            default:
+                return false;
+        }
+    }
+
     private static void linkDependencies(IQueryModel model, int parent, int child) {
         model.getJoinModels().getQuick(parent).addDependency(child);
     }
@@ -4317,6 +4527,40 @@ public class SqlOptimiser implements Mutable {
         }
     }
 
+    /**
+     * Row-level TABLESAMPLE BERNOULLI is implemented as a filter on the sampled table. It is
+     * added once the where clauses are settled, so that the predicate, which references no
+     * columns, is never mistaken for a constant and hoisted out of the table model.
+     */
+    private void addTableSampleFilters(IQueryModel model) {
+        if (!model.isOptimisable()) {
+            return;
+        }
+        final ObjList<IQueryModel> joinModels = model.getJoinModels();
+        for (int i = 0, n = joinModels.size(); i < n; i++) {
+            final IQueryModel m = joinModels.getQuick(i);
+            if (m.getTableSampleMethod() == IQueryModel.TABLESAMPLE_BERNOULLI) {
+                final ExpressionNode percent = m.getTableSamplePercent();
+                final ExpressionNode seed = m.getTableSampleSeed();
+                final ExpressionNode sample = expressionNodePool.next().of(FUNCTION, TableSampleBernoulliFunctionFactory.NAME, 0, percent.position);
+                sample.paramCount = 2;
+                sample.lhs = percent;
+                sample.rhs = seed != null ? seed : expressionNodePool.next().of(CONSTANT, "null", 0, percent.position);
+                m.setWhereClause(concatFilters(configuration.getCairoSqlLegacyOperatorPrecedence(), expressionNodePool, m.getWhereClause(), sample));
+            }
+
+            IQueryModel nested = m.getNestedModel();
+            if (nested != null) {
+                addTableSampleFilters(nested);
+            }
+
+            nested = m.getUnionModel();
+            if (nested != null) {
+                addTableSampleFilters(nested);
+            }
+        }
+    }
+
     private void eraseColumnPrefixInWhereClauses(IQueryModel model) throws SqlException {
         if (!model.isOptimisable()) {
             return;
@@ -7365,6 +7609,80 @@ public class SqlOptimiser implements Mutable {
         optimiseOrderBy(jm1, orderByMnemonic);
     }
 
+    private void pushGroupByIntoUnionAll(IQueryModel model, IQueryModel nested) throws SqlException {
+        final ObjList<QueryColumn> columns = model.getBottomUpColumns();
+        final ObjList<ExpressionNode> groupBy = nested.getGroupBy();
+
+        // wrap every union branch into a group by model that mirrors the outer one
+        IQueryModel branch = nested.getNestedModel();
+        IQueryModel prevBranchGroupBy = null;
+        while (branch != null) {
+            final IQueryModel nextBranch = branch.getUnionModel();
+            branch.setUnionModel(null);
+            branch.setSetOperationType(IQueryModel.SET_OPERATION_UNION_ALL);
+
+            final IQueryModel branchGroupByNested = queryModelPool.next();
+            branchGroupByNested.setNestedModel(branch);
+            branchGroupByNested.setNestedModelIsSubQuery(true);
+            for (int i = 0, n = groupBy.size(); i < n; i++) {
+                final ExpressionNode node = groupBy.getQuick(i);
+                branchGroupByNested.addGroupBy(nextLiteral(node.token, node.position));
+            }
+
+            final IQueryModel branchGroupBy = queryModelPool.next();
+            branchGroupBy.setNestedModel(branchGroupByNested);
+            branchGroupBy.setSelectModelType(IQueryModel.SELECT_MODEL_CHOOSE);
+            for (int i = 0, n = columns.size(); i < n; i++) {
+                final QueryColumn qc = columns.getQuick(i);
+                final ExpressionNode ast = qc.getAst();
+                final ExpressionNode branchAst;
+                if (ast.type == LITERAL) {
+                    branchAst = nextLiteral(ast.token, ast.position);
+                } else {
+                    branchAst = expressionNodePool.next().of(FUNCTION, ast.token, 0, ast.position);
+                    if (ast.paramCount == 1 && ast.rhs.type == LITERAL && !Chars.equals(ast.rhs.token, '*')) {
+                        branchAst.paramCount = 1;
+                        branchAst.rhs = nextLiteral(ast.rhs.token, ast.rhs.position);
+                    }
+                }
+                branchGroupBy.addBottomUpColumn(queryColumnPool.next().of(qc.getAlias(), branchAst));
+            }
+
+            if (prevBranchGroupBy == null) {
+                nested.setNestedModel(branchGroupBy);
+            } else {
+                prevBranchGroupBy.setUnionModel(branchGroupBy);
+                prevBranchGroupBy.setSetOperationType(IQueryModel.SET_OPERATION_UNION_ALL);
+            }
+            prevBranchGroupBy = branchGroupBy;
+            branch = nextBranch;
+        }
+
+        // the outer model now merges partial aggregates, count() partials are summed up
+        tempColumns.clear();
+        tempColumns.addAll(columns);
+        model.clearColumnMapStructs();
+        for (int i = 0, n = tempColumns.size(); i < n; i++) {
+            final QueryColumn qc = tempColumns.getQuick(i);
+            final ExpressionNode ast = qc.getAst();
+            final CharSequence alias = qc.getAlias();
+            if (ast.type == LITERAL) {
+                model.addBottomUpColumn(queryColumnPool.next().of(alias, nextLiteral(alias, ast.position)));
+            } else {
+                final ExpressionNode mergeAst = expressionNodePool.next().of(
+                        FUNCTION,
+                        isCountKeyword(ast.token) ? "sum" : ast.token,
+                        0,
+                        ast.position
+                );
+                mergeAst.paramCount = 1;
+                mergeAst.rhs = nextLiteral(alias, ast.position);
+                model.addBottomUpColumn(queryColumnPool.next().of(alias, mergeAst));
+            }
+        }
+        tempColumns.clear();
+    }
+
     /**
      * For a query like this: SELECT ts, b, c from x ORDER BY ts DESC, b DESC LIMIT 100
      * See the model:
@@ -7416,6 +7734,7 @@ public class SqlOptimiser implements Mutable {
                 target.setTableNameExpr(nested.getTableNameExpr());
                 target.setModelType(nested.getModelType());
                 target.setTimestamp(nested.getTimestamp());
+                target.setTableSample(nested.getTableSampleMethod(), nested.getTableSamplePercent(), nested.getTableSampleSeed());
                 target.setWhereClause(nested.getWhereClause());
                 target.copyColumnsFrom(nested, queryColumnPool, expressionNodePool);
                 for (int i = 0, n = nested.getOrderBy().size(); i < n; i++) {
@@ -8914,6 +9233,7 @@ public class SqlOptimiser implements Mutable {
                 reversedNested.setTableNameExpr(nested.getTableNameExpr());
                 reversedNested.setModelType(nested.getModelType());
                 reversedNested.setTimestamp(nested.getTimestamp());
+                reversedNested.setTableSample(nested.getTableSampleMethod(), nested.getTableSamplePercent(), nested.getTableSampleSeed());
                 reversedNested.setWhereClause(nested.getWhereClause());
                 reversedNested.copyColumnsFrom(nested, queryColumnPool, expressionNodePool);
 
@@ -11552,6 +11872,7 @@ public class SqlOptimiser implements Mutable {
                     newNested.setTableNameExpr(nested.getTableNameExpr());
                     newNested.setModelType(nested.getModelType());
                     newNested.setTimestamp(nested.getTimestamp());
+                    newNested.setTableSample(nested.getTableSampleMethod(), nested.getTableSamplePercent(), nested.getTableSampleSeed());
                     newNested.setWhereClause(nested.getWhereClause());
                     newNested.copyColumnsFrom(nested, queryColumnPool, expressionNodePool);
                 }
@@ -11836,6 +12157,44 @@ public class SqlOptimiser implements Mutable {
         }
     }
 
+    /**
+     * Rewrites GROUP BY over UNION ALL such as:
+     * <pre>
+     * SELECT k, sum(v) s, count() c FROM (SELECT k, v FROM t1 UNION ALL SELECT k, v FROM t2) GROUP BY k;
+     * </pre>
+     * into:
+     * <pre>
+     * SELECT k, sum(s) s, sum(c) c FROM (
+     *     SELECT k, sum(v) s, count() c FROM (SELECT k, v FROM t1) GROUP BY k
+     *     UNION ALL
+     *     SELECT k, sum(v) s, count() c FROM (SELECT k, v FROM t2) GROUP BY k
+     * ) GROUP BY k;
+     * </pre>
+     * Each branch gets a GROUP BY of its own, which runs over the branch table's page frames and
+     * may be executed in parallel, while the outer GROUP BY merges the much smaller partial results.
+     * Only sum(), min(), max() and count() are pushed down, and only when the branch column types
+     * keep the aggregate result type unchanged.
+     */
+    private void rewriteUnionAllGroupBy(IQueryModel model) throws SqlException {
+        if (model == null || !model.isOptimisable()) {
+            return;
+        }
+
+        final IQueryModel nested = model.getNestedModel();
+        if (nested != null && isUnionAllGroupByPushdownPossible(model, nested)) {
+            pushGroupByIntoUnionAll(model, nested);
+        }
+
+        rewriteUnionAllGroupBy(nested);
+
+        final ObjList<IQueryModel> joinModels = model.getJoinModels();
+        for (int i = 1, n = joinModels.size(); i < n; i++) {
+            rewriteUnionAllGroupBy(joinModels.getQuick(i));
+        }
+
+        rewriteUnionAllGroupBy(model.getUnionModel());
+    }
+
     private ExpressionNode rewriteWindowJoinBoundLiteral(
             ExpressionNode node,
             IQueryModel masterModel,
@@ -13102,6 +13461,17 @@ public class SqlOptimiser implements Mutable {
             @Transient final IQueryModel model,
             @Transient SqlExecutionContext sqlExecutionContext,
             SqlParserCallback sqlParserCallback
+    ) throws SqlException {
+        return optimise(model, sqlExecutionContext, sqlParserCallback, true);
+    }
+
+    // allowMatViewRewrite is false for the queries of view definitions: those have to keep
+    // reading the tables they name rather than a materialized view of them
+    IQueryModel optimise(
+            @Transient final IQueryModel model,
+            @Transient SqlExecutionContext sqlExecutionContext,
+            SqlParserCallback sqlParserCallback,
+            boolean allowMatViewRewrite
     ) throws SqlException {
         if (!model.isOptimisable()) {
             return model;
@@ -13110,6 +13480,10 @@ public class SqlOptimiser implements Mutable {
         try {
             rewrittenModel = bubbleUpOrderByAndLimitFromUnion(rewrittenModel);
             optimiseExpressionModels(rewrittenModel, sqlExecutionContext, sqlParserCallback);
+            if (allowMatViewRewrite && matViewQueryRewriter.rewrite(rewrittenModel, sqlExecutionContext, sqlParserCallback)) {
+                // the rewrite depends on the view's refresh state at compile time
+                rewrittenModel.setCacheable(false);
+            }
             enumerateTableColumns(rewrittenModel, sqlExecutionContext, sqlParserCallback);
             rewrittenModel = rewritePivot(rewrittenModel, sqlExecutionContext);
             rewriteTopLevelLiteralsToFunctions(rewrittenModel);
@@ -13126,6 +13500,9 @@ public class SqlOptimiser implements Mutable {
             resolveNamedWindows(rewrittenModel);
             lateralJoinRewriter.rewrite(rewrittenModel);
             rewrittenModel = rewriteDistinct(rewrittenModel);
+            if (configuration.isSqlParallelUnionAllGroupByEnabled()) {
+                rewriteUnionAllGroupBy(rewrittenModel);
+            }
             rewrittenModel = rewriteSelectClause(rewrittenModel, true, sqlExecutionContext, sqlParserCallback);
 
             detectTimestampOffsetsRecursive(rewrittenModel);
@@ -13145,6 +13522,7 @@ public class SqlOptimiser implements Mutable {
             createOrderHash(rewrittenModel);
             moveWhereInsideSubQueries(rewrittenModel);
             eraseColumnPrefixInWhereClauses(rewrittenModel);
+            addTableSampleFilters(rewrittenModel);
             moveTimestampToChooseModel(rewrittenModel);
             propagateTopDownColumns(rewrittenModel, rewrittenModel.allowsColumnsChange());
             rewriteMultipleTermLimitedOrderByPart2(rewrittenModel);
@@ -4154,11 +4154,23 @@ public class SqlParser {
                     model.setNestedModelIsSubQuery(true);
                     tok = setModelAliasAndTimestamp(lexer, model);
                 }
+
+                // a sub-query collapsed into a table can still be sampled, otherwise this is an error
+                if (tok != null && isTablesampleKeyword(tok)) {
+                    parseTableSample(lexer, model, sqlParserCallback);
+                    tok = optTok(lexer);
+                }
             } else {
                 lexer.unparseLast();
                 parseSelectFrom(lexer, model, masterModel.getWithClauses(), sqlParserCallback);
                 tok = setModelAliasAndTimestamp(lexer, model);
 
+                // expect [tablesample system | bernoulli (percent) [repeatable (seed)]]
+                if (tok != null && isTablesampleKeyword(tok)) {
+                    parseTableSample(lexer, model, sqlParserCallback);
+                    tok = optTok(lexer);
+                }
+
                 // expect [latest by] (deprecated syntax)
                 if (tok != null && isLatestKeyword(tok)) {
                     parseLatestBy(lexer, model);
@@ -5685,6 +5697,47 @@ public class SqlParser {
         model.setTableNameExpr(tableNameExpr);
     }
 
+    private void parseTableSample(GenericLexer lexer, IQueryModel model, SqlParserCallback sqlParserCallback) throws SqlException {
+        final int samplePosition = lexer.lastTokenPosition();
+        final ExpressionNode tableNameExpr = model.getTableNameExpr();
+        if (tableNameExpr == null || tableNameExpr.type != ExpressionNode.LITERAL) {
+            throw SqlException.$(samplePosition, "TABLESAMPLE is only supported on tables");
+        }
+
+        CharSequence tok = tok(lexer, "'system' or 'bernoulli'");
+        final int method;
+        if (isSystemKeyword(tok)) {
+            method = IQueryModel.TABLESAMPLE_SYSTEM;
+        } else if (isBernoulliKeyword(tok)) {
+            method = IQueryModel.TABLESAMPLE_BERNOULLI;
+        } else {
+            throw SqlException.$(lexer.lastTokenPosition(), "'system' or 'bernoulli' expected");
+        }
+
+        expectTok(lexer, '(');
+        final ExpressionNode percent = expr(lexer, model, sqlParserCallback, model.getDecls());
+        if (percent == null) {
+            throw SqlException.$(lexer.lastTokenPosition(), "sample percentage expected");
+        }
+        tok = tokIncludingLocalBrace(lexer, "')'");
+        expectTok(tok, lexer.lastTokenPosition(), ')');
+
+        ExpressionNode seed = null;
+        tok = optTok(lexer);
+        if (tok != null && isRepeatableKeyword(tok)) {
+            expectTok(lexer, '(');
+            seed = expr(lexer, model, sqlParserCallback, model.getDecls());
+            if (seed == null) {
+                throw SqlException.$(lexer.lastTokenPosition(), "seed expected");
+            }
+            tok = tokIncludingLocalBrace(lexer, "')'");
+            expectTok(tok, lexer.lastTokenPosition(), ')');
+        } else if (tok != null) {
+            lexer.unparseLast();
+        }
+        model.setTableSample(method, percent, seed);
+    }
+
     private char parseTimeUnit(GenericLexer lexer) throws SqlException {
         CharSequence tok = tok(lexer, "'preceding' or time unit");
         char unit = 0;
@@ -6931,6 +6984,12 @@ public class SqlParser {
         return model;
     }
 
+    IQueryModel parseGeneratedQuery(CharSequence sql) throws SqlException {
+        final GenericLexer generatedLexer = viewLexers.next();
+        generatedLexer.of(sql);
+        return parseAsSubQuery(generatedLexer, null, false, viewSqlParserCallback, null, false);
+    }
+
     String parseViewSql(GenericLexer lexer, SqlParserCallback sqlParserCallback) throws SqlException {
         int startOfQuery = lexer.getPosition();
         CharSequence tok = tok(lexer, "'(' or 'with' or 'select'");
@@ -7023,6 +7082,7 @@ public class SqlParser {
         tableAliasStop.add("lt");
         tableAliasStop.add("cross");
         tableAliasStop.add("sample");
+        tableAliasStop.add("tablesample");
         tableAliasStop.add("order");
         tableAliasStop.add("on");
         tableAliasStop.add("timestamp");
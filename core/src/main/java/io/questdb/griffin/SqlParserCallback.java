@@ -174,6 +174,14 @@ public interface SqlParserCallback {
         return builder;
     }
 
+    /**
+     * Parses a query generated by the optimiser, e.g. the read from a materialized view that
+     * replaces a SAMPLE BY over its base table. Returns null when the callback can't parse it.
+     */
+    default @Nullable IQueryModel parseGeneratedQuery(CharSequence sql) throws SqlException {
+        return null;
+    }
+
     default int parseShowSql(
             GenericLexer lexer,
             IQueryModel model,
@@ -28,6 +28,7 @@ import io.questdb.cairo.AbstractRecordCursorFactory;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.CairoException;
+import io.questdb.cairo.EntryUnavailableException;
 import io.questdb.cairo.ReaderScanProfile;
 import io.questdb.cairo.SqlJitMode;
 import io.questdb.cairo.TableReader;
@@ -46,6 +47,7 @@ import io.questdb.cairo.sql.SymbolTable;
 import io.questdb.cairo.sql.TimeFrameCursor;
 import io.questdb.griffin.engine.table.ConcurrentTimeFrameCursor;
 import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.cairo.sql.async.QueryWorkloadClass;
 import io.questdb.griffin.ExecutionState;
 import io.questdb.griffin.PlanSink;
 import io.questdb.griffin.QueryRegistry;
@@ -59,6 +61,7 @@ import io.questdb.mp.SCSequence;
 import io.questdb.std.Chars;
 import io.questdb.std.FlyweightMessageContainer;
 import io.questdb.std.IntHashSet;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.Misc;
 import io.questdb.std.ObjList;
 import org.jetbrains.annotations.NotNull;
@@ -76,14 +79,23 @@ public class QueryProgress extends AbstractRecordCursorFactory implements Resour
     private final QueryTrace queryTrace = new QueryTrace();
     private final ObjList<TableReader> readers = new ObjList<>();
     private final QueryRegistry registry;
+    // class requested with the workload_class hint, or QueryWorkloadClass.NONE
+    private final byte workloadClassHint;
     private long beginNanos;
     private SqlExecutionContext executionContext;
     private long sqlId;
+    // class of the admission slot held by the open cursor, or QueryWorkloadClass.NONE
+    private byte workloadClass = QueryWorkloadClass.NONE;
 
     public QueryProgress(QueryRegistry registry, CharSequence sqlText, RecordCursorFactory base) {
+        this(registry, sqlText, base, QueryWorkloadClass.NONE);
+    }
+
+    public QueryProgress(QueryRegistry registry, CharSequence sqlText, RecordCursorFactory base, byte workloadClassHint) {
         super(base.getMetadata());
         this.base = base;
         this.registry = registry;
+        this.workloadClassHint = workloadClassHint;
         this.cursor = new RegisteredRecordCursor();
         this.pageFrameCursor = new RegisteredPageFrameCursor();
         this.jit = base.usesCompiledFilter();
@@ -307,8 +319,10 @@ public class QueryProgress extends AbstractRecordCursorFactory implements Resour
             // same limitation as before this change -- because fetch can interleave across
             // PGWire portals, which a single context supervisor slot cannot model.
             final ResourcePoolSupervisor<TableReader> prevSupervisor = executionContext.getReaderPoolSupervisor();
+            final byte prevWorkloadClass = executionContext.getWorkloadClass();
             executionContext.setReaderPoolSupervisor(this);
             try {
+                admit(executionContext);
                 final RecordCursor baseCursor = base.getCursor(executionContext);
                 cursor.of(baseCursor); // this should not fail, it is just variable assignment
             } catch (Throwable th) {
@@ -316,6 +330,7 @@ public class QueryProgress extends AbstractRecordCursorFactory implements Resour
                 throw th;
             } finally {
                 executionContext.setReaderPoolSupervisor(prevSupervisor);
+                executionContext.setWorkloadClass(prevWorkloadClass);
             }
         }
         return cursor;
@@ -347,8 +362,10 @@ public class QueryProgress extends AbstractRecordCursorFactory implements Resour
             // See getCursor: supervise only the synchronous cursor-open window, on the
             // context so it survives a cont park/resume, and restore on return.
             final ResourcePoolSupervisor<TableReader> prevSupervisor = executionContext.getReaderPoolSupervisor();
+            final byte prevWorkloadClass = executionContext.getWorkloadClass();
             executionContext.setReaderPoolSupervisor(this);
             try {
+                admit(executionContext);
                 final PageFrameCursor baseCursor = base.getPageFrameCursor(executionContext, order);
                 pageFrameCursor.of(baseCursor);
             } catch (Throwable th) {
@@ -356,6 +373,7 @@ public class QueryProgress extends AbstractRecordCursorFactory implements Resour
                 throw th;
             } finally {
                 executionContext.setReaderPoolSupervisor(prevSupervisor);
+                executionContext.setWorkloadClass(prevWorkloadClass);
             }
         }
         return pageFrameCursor;
@@ -452,6 +470,22 @@ public class QueryProgress extends AbstractRecordCursorFactory implements Resour
         }
     }
 
+    // Takes an admission slot for the query. The query is already registered at this point,
+    // so a parked query can be cancelled between its attempts. The slot is given back in
+    // unregisterAndCleanup(), which runs on both cursor close and failed cursor open.
+    // The memory tracker was acquired on registration for the principal's class, the hint
+    // may have demoted the query, so the tracker's limit follows the admitted class.
+    private void admit(SqlExecutionContext executionContext) {
+        assert workloadClass == QueryWorkloadClass.NONE;
+        final CairoEngine engine = executionContext.getCairoEngine();
+        workloadClass = engine.getQueryAdmissionController().acquire(executionContext, workloadClassHint);
+        executionContext.setWorkloadClass(workloadClass);
+        final MemoryTracker tracker = executionContext.getMemoryTracker();
+        if (tracker != null) {
+            engine.getMemoryTrackerProvider().onWorkloadClass(tracker, workloadClass);
+        }
+    }
+
     private void unregisterAndCleanup(@Nullable Throwable th) {
         // When execution context is null, the cursor has never been opened.
         // Otherwise, cursor open attempt has been made, but may not have fully succeeded.
@@ -461,10 +495,17 @@ public class QueryProgress extends AbstractRecordCursorFactory implements Resour
                 String sqlText = queryTrace.queryText;
                 if (th == null) {
                     logEnd(sqlId, sqlText, executionContext, beginNanos, readers, queryTrace);
+                } else if (th instanceof EntryUnavailableException && workloadClass == QueryWorkloadClass.NONE) {
+                    // parked by admission control, the caller re-runs the query, this isn't an error
+                    LOG.info().$("parked [id=").$(sqlId).$(", reason=").$(((EntryUnavailableException) th).getReason()).I$();
                 } else {
                     logError(th, sqlId, sqlText, executionContext, beginNanos, readers);
                 }
             } finally {
+                if (workloadClass != QueryWorkloadClass.NONE) {
+                    executionContext.getCairoEngine().getQueryAdmissionController().release(workloadClass);
+                    workloadClass = QueryWorkloadClass.NONE;
+                }
                 // Unregister must follow the base cursor close call to avoid concurrent access
                 // to cleaned up circuit breaker.
                 registry.unregister(sqlId, executionContext);
@@ -28,6 +28,7 @@ import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoException;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.arr.ArrayView;
+import io.questdb.cairo.arr.DoubleArrayKernels;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.SymbolTableSource;
@@ -96,7 +97,11 @@ public class DoubleArrayDotProductFunctionFactory implements FunctionFactory {
                         .put(", rightShape=").put(right.shapeToString())
                         .put(']');
             }
-            if (left.isVanilla() && right.isVanilla()) {
+            final long leftAddr = DoubleArrayKernels.addressOf(left);
+            final long rightAddr = DoubleArrayKernels.addressOf(right);
+            if (leftAddr != 0 && rightAddr != 0) {
+                return DoubleArrayKernels.dotProduct(leftAddr, rightAddr, left.getFlatViewLength());
+            } else if (left.isVanilla() && right.isVanilla()) {
                 double value = 0d;
                 for (int i = 0, n = left.getFlatViewLength(); i < n; i++) {
                     double leftVal = left.getDouble(i);
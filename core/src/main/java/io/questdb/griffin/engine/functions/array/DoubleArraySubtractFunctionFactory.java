@@ -29,6 +29,7 @@ import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.arr.ArrayView;
 import io.questdb.cairo.arr.DerivedArrayView;
 import io.questdb.cairo.arr.DirectArray;
+import io.questdb.cairo.arr.DoubleArrayKernels;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.SymbolTableSource;
@@ -137,7 +138,11 @@ public class DoubleArraySubtractFunctionFactory implements FunctionFactory {
             }
 
             arrayOut.applyShape();
-            if (left.isVanilla() && right.isVanilla()) {
+            final long leftAddr = DoubleArrayKernels.addressOf(left);
+            final long rightAddr = DoubleArrayKernels.addressOf(right);
+            if (leftAddr != 0 && rightAddr != 0) {
+                DoubleArrayKernels.subtract(leftAddr, rightAddr, arrayOut.ptr(), left.getFlatViewLength());
+            } else if (left.isVanilla() && right.isVanilla()) {
                 for (int i = 0, n = left.getFlatViewLength(); i < n; i++) {
                     arrayOut.putDouble(i, left.getDouble(i) - right.getDouble(i));
                 }
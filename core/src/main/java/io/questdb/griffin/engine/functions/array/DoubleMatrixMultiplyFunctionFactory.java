@@ -30,6 +30,7 @@ import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.arr.ArrayView;
 import io.questdb.cairo.arr.DerivedArrayView;
 import io.questdb.cairo.arr.DirectArray;
+import io.questdb.cairo.arr.DoubleArrayKernels;
 import io.questdb.cairo.sql.ArrayFunction;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
@@ -141,6 +142,12 @@ public class DoubleMatrixMultiplyFunctionFactory implements FunctionFactory {
             arrayOut.setDimLen(0, outRowCount);
             arrayOut.setDimLen(1, outColCount);
             arrayOut.applyShape(leftArgPos);
+            final long leftAddr = DoubleArrayKernels.addressOf(left);
+            final long rightAddr = DoubleArrayKernels.addressOf(right);
+            if (leftAddr != 0 && rightAddr != 0 && outRowCount > 0 && outColCount > 0) {
+                DoubleArrayKernels.matmul(leftAddr, rightAddr, arrayOut.ptr(), outRowCount, commonDimLen, outColCount);
+                return arrayOut;
+            }
             MemoryA memOut = arrayOut.startMemoryA();
             for (int rowOut = 0; rowOut < outRowCount; rowOut++) {
                 for (int colOut = 0; colOut < outColCount; colOut++) {
@@ -120,6 +120,8 @@ public class MatViewsFunctionFactory implements FunctionFactory {
         private static final int COLUMN_REFRESH_AVG_SCAN_SAMPLE_NANOS = COLUMN_REFRESH_AVG_COMMIT_NANOS + 1;
         private static final int COLUMN_REFRESH_AVG_SCAN_RANGE_TS_UNITS = COLUMN_REFRESH_AVG_SCAN_SAMPLE_NANOS + 1;
         private static final int COLUMN_REFRESH_GAP_THRESHOLD_TS_UNITS = COLUMN_REFRESH_AVG_SCAN_RANGE_TS_UNITS + 1;
+        private static final int COLUMN_REFRESH_SLICES = COLUMN_REFRESH_GAP_THRESHOLD_TS_UNITS + 1;
+        private static final int COLUMN_REFRESH_SLICES_COMMITTED = COLUMN_REFRESH_SLICES + 1;
         private static final RecordMetadata METADATA;
         private final ViewsListCursor cursor;
 
@@ -251,6 +253,9 @@ public class MatViewsFunctionFactory implements FunctionFactory {
                         // A pending retry deadline (in-memory only) means an incremental refresh was
                         // deferred after a transient "table busy" or out-of-memory error.
                         final boolean retrying = state != null && state.getRefreshRetryAfterMicros() != Numbers.LONG_NULL;
+                        // Progress of a sliced refresh, in-memory only.
+                        final int refreshSlices = state != null ? state.getRefreshSliceCount() : 0;
+                        final int refreshSlicesCommitted = state != null ? state.getRefreshSlicesCommitted() : 0;
 
                         record.of(
                                 viewDefinition,
@@ -273,7 +278,9 @@ public class MatViewsFunctionFactory implements FunctionFactory {
                                 avgScanSampleNanos,
                                 avgScanRangeTsUnits,
                                 commitGapThresholdTsUnits,
-                                retrying
+                                retrying,
+                                refreshSlices,
+                                refreshSlicesCommitted
                         );
                         viewIndex++;
                         return true;
@@ -316,6 +323,8 @@ public class MatViewsFunctionFactory implements FunctionFactory {
                 private int periodLength;
                 private char periodLengthUnit;
                 private int refreshLimitHoursOrMonths;
+                private int refreshSlices;
+                private int refreshSlicesCommitted;
                 private boolean retrying;
                 private int timerInterval;
                 private char timerIntervalUnit;
@@ -329,6 +338,8 @@ public class MatViewsFunctionFactory implements FunctionFactory {
                         case COLUMN_TIMER_INTERVAL -> timerInterval;
                         case COLUMN_PERIOD_LENGTH -> periodLength;
                         case COLUMN_PERIOD_DELAY -> periodDelay;
+                        case COLUMN_REFRESH_SLICES -> refreshSlices;
+                        case COLUMN_REFRESH_SLICES_COMMITTED -> refreshSlicesCommitted;
                         default -> 0;
                     };
                 }
@@ -410,7 +421,9 @@ public class MatViewsFunctionFactory implements FunctionFactory {
                         long avgScanSampleNanos,
                         long avgScanRangeTsUnits,
                         long commitGapThresholdTsUnits,
-                        boolean retrying
+                        boolean retrying,
+                        int refreshSlices,
+                        int refreshSlicesCommitted
                 ) {
                     this.viewDefinition = viewDefinition;
                     this.lastRefreshStartTimestamp = lastRefreshStartTimestamp;
@@ -434,6 +447,8 @@ public class MatViewsFunctionFactory implements FunctionFactory {
                     this.avgScanRangeTsUnits = avgScanRangeTsUnits;
                     this.commitGapThresholdTsUnits = commitGapThresholdTsUnits;
                     this.retrying = retrying;
+                    this.refreshSlices = refreshSlices;
+                    this.refreshSlicesCommitted = refreshSlicesCommitted;
                 }
 
                 private CharSequence getViewStatus() {
@@ -478,6 +493,8 @@ public class MatViewsFunctionFactory implements FunctionFactory {
             metadata.add(new TableColumnMetadata("refresh_avg_scan_sample_nanos", ColumnType.LONG));
             metadata.add(new TableColumnMetadata("refresh_avg_scan_range_ts_units", ColumnType.LONG));
             metadata.add(new TableColumnMetadata("refresh_gap_threshold_ts_units", ColumnType.LONG));
+            metadata.add(new TableColumnMetadata("refresh_slices", ColumnType.INT));
+            metadata.add(new TableColumnMetadata("refresh_slices_committed", ColumnType.INT));
             METADATA = metadata;
         }
     }
@@ -30,6 +30,7 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.columns.VarcharColumn;
 import io.questdb.std.IntList;
 import io.questdb.std.Misc;
 import io.questdb.std.ObjList;
@@ -81,8 +82,19 @@ public class JsonExtractTypedFunctionFactory implements FunctionFactory {
             throw SqlException.$(argPositions.getQuick(1), "constant or bind variable expected");
         }
 
+        final int targetType = parseTargetType(position, args.getQuick(2));
+        final JsonShredCache shredCache = sqlExecutionContext.getCairoEngine().getJsonShredCache();
+        if (shredCache.isEnabled() && json instanceof VarcharColumn varcharColumn && path.isConstant()) {
+            return new JsonShredFunction(
+                    targetType,
+                    varcharColumn,
+                    path,
+                    configuration.getStrFunctionMaxBufferLength(),
+                    shredCache
+            );
+        }
         return new JsonExtractFunction(
-                parseTargetType(position, args.getQuick(2)),
+                targetType,
                 json,
                 path,
                 configuration.getStrFunctionMaxBufferLength()
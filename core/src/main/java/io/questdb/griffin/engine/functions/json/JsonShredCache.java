@@ -0,0 +1,443 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.json;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.std.CharSequenceIntHashMap;
+import io.questdb.std.Chars;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Mutable;
+import io.questdb.std.ObjList;
+import io.questdb.std.ObjObjHashMap;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Engine-wide, memory-bounded cache of shredded JSON paths. Typed {@code json_extract()}
+ * calls otherwise parse every document on every query, even when the same path of the
+ * same column is extracted over and over.
+ * <p>
+ * An entry holds the values of one JSON path extracted from one VARCHAR column of one
+ * native partition, 8 bytes per row, in the representation documented on
+ * {@link JsonShredFunction}. It is keyed by the table id, the column writer index, the
+ * path, the target type and the partition and column versions. Rewriting a partition or
+ * a column changes the versions, so stale entries are never hit and simply age out of
+ * the LRU. An entry covers the first {@code rowCount} rows of the partition; rows
+ * appended later are parsed until the entry is rebuilt.
+ * <p>
+ * Entries are filled lazily, one block of {@code 1 << BLOCK_SHIFT} rows at a time, the
+ * first time a query reads a row of the block. A scan that visits a part of a partition
+ * only parses the blocks it visits, and the first row of a partition costs no more than
+ * a block worth of parsing. Queries that fill the same block concurrently write the same
+ * values, a block is published once it is marked as filled.
+ * <p>
+ * Paths are shredded once they are listed in {@code cairo.json.shred.paths}, or once
+ * {@code cairo.json.shred.min.queries} queries extracted them from the same column.
+ * <p>
+ * Readers pin entries with {@link #acquire} or {@link #put} and unpin them with
+ * {@link #release}. Pinned entries are never freed; eviction picks the least recently
+ * used unpinned entry. Entries evicted or cleared while pinned are freed on their last
+ * release.
+ * <p>
+ * This class is thread-safe.
+ */
+public class JsonShredCache implements QuietCloseable, Mutable {
+    public static final int BLOCK_SHIFT = 12;
+    // query counters are dropped once this many table/column/path combinations were seen
+    private static final int MAX_QUERY_STATS = 4096;
+    private final ObjObjHashMap<Entry, Entry> entries = new ObjObjHashMap<>();
+    private final Entry lookupKey = new Entry();
+    private final long maxBytes;
+    private final int minQueries;
+    private final ObjList<String> paths = new ObjList<>();
+    private final CharSequenceIntHashMap queryCounts = new CharSequenceIntHashMap();
+    private final StringSink queryKey = new StringSink();
+    private long cachedBytes;
+    private Entry lruHead;
+    private Entry lruTail;
+
+    public JsonShredCache(long maxBytes, int minQueries, @NotNull CharSequence paths) {
+        this.maxBytes = Math.max(maxBytes, 0L);
+        this.minQueries = Math.max(minQueries, 1);
+        int lo = 0;
+        for (int i = 0, n = paths.length(); i <= n; i++) {
+            if (i == n || paths.charAt(i) == ',') {
+                final String path = Chars.toString(paths, lo, i).trim();
+                if (!path.isEmpty()) {
+                    this.paths.add(path);
+                }
+                lo = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Pins and returns the entry of the given path and partition, or returns null if
+     * there is none.
+     */
+    public synchronized @Nullable Entry acquire(
+            int tableId,
+            int writerIndex,
+            @NotNull CharSequence path,
+            int targetType,
+            long partitionTimestamp,
+            long partitionNameTxn,
+            long columnNameTxn,
+            long truncateVersion,
+            long columnTop
+    ) {
+        final Entry entry = entries.get(lookupKey.of(tableId, writerIndex, path, targetType, partitionTimestamp, partitionNameTxn, columnNameTxn, truncateVersion, columnTop));
+        if (entry != null) {
+            entry.pinCount++;
+            lruMoveToTail(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Allocates an entry for the first {@code rowCount} rows of a partition, with no blocks
+     * filled. The caller passes it to {@link #put} and fills the blocks as it reads them. Returns null when the entry
+     * does not fit the budget or the memory cannot be allocated.
+     */
+    public @Nullable Entry allocate(
+            int tableId,
+            int writerIndex,
+            @NotNull CharSequence path,
+            int targetType,
+            long partitionTimestamp,
+            long partitionNameTxn,
+            long columnNameTxn,
+            long truncateVersion,
+            long columnTop,
+            long rowCount
+    ) {
+        final long size = rowCount * Long.BYTES;
+        if (rowCount < 1 || size > maxBytes) {
+            return null;
+        }
+        final Entry entry = new Entry().of(tableId, writerIndex, Chars.toString(path), targetType, partitionTimestamp, partitionNameTxn, columnNameTxn, truncateVersion, columnTop);
+        try {
+            entry.address = Unsafe.malloc(size, MemoryTag.NATIVE_FUNC_RSS);
+        } catch (CairoException e) {
+            // The cache is best effort: running into the RSS limit must not fail the query.
+            return null;
+        }
+        entry.size = size;
+        entry.rowCount = rowCount;
+        entry.filledBlocks = new AtomicLongArray((int) (((rowCount - 1) >>> BLOCK_SHIFT >>> 6) + 1));
+        return entry;
+    }
+
+    /**
+     * Drops every entry and query counter. Pinned entries are freed once released.
+     */
+    @Override
+    public synchronized void clear() {
+        Entry entry = lruHead;
+        while (entry != null) {
+            final Entry next = entry.next;
+            evict(entry);
+            entry = next;
+        }
+        assert entries.size() == 0;
+        queryCounts.clear();
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    /**
+     * Frees an entry returned by {@link #allocate} that will not be passed to {@link #put}.
+     */
+    public void discard(@NotNull Entry entry) {
+        free(entry);
+    }
+
+    @TestOnly
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    @TestOnly
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    @TestOnly
+    public synchronized long getFilledBlockCount() {
+        long count = 0;
+        for (Entry entry = lruHead; entry != null; entry = entry.next) {
+            for (int i = 0, n = entry.filledBlocks.length(); i < n; i++) {
+                count += Long.bitCount(entry.filledBlocks.get(i));
+            }
+        }
+        return count;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Records a query that extracts the path from the given column and returns true if
+     * the path should be shredded.
+     */
+    public synchronized boolean onQuery(int tableId, int writerIndex, @NotNull CharSequence path) {
+        for (int i = 0, n = paths.size(); i < n; i++) {
+            if (Chars.equals(paths.getQuick(i), path)) {
+                return true;
+            }
+        }
+        queryKey.clear();
+        queryKey.put(tableId).put('/').put(writerIndex).put('/').put(path);
+        if (queryCounts.size() >= MAX_QUERY_STATS && queryCounts.keyIndex(queryKey) > -1) {
+            queryCounts.clear();
+        }
+        queryCounts.inc(queryKey);
+        return queryCounts.get(queryKey) >= minQueries;
+    }
+
+    /**
+     * Inserts an entry returned by {@link #allocate} and pins it. When another query already
+     * cached the same partition with at least as many rows, the new entry is freed and the
+     * cached one is pinned instead. Returns null, freeing the entry, if it does not fit the
+     * budget even after evicting all unpinned entries.
+     */
+    public synchronized @Nullable Entry put(@NotNull Entry entry) {
+        final Entry existing = entries.get(entry);
+        if (existing != null) {
+            if (existing.rowCount >= entry.rowCount) {
+                free(entry);
+                existing.pinCount++;
+                lruMoveToTail(existing);
+                return existing;
+            }
+            evict(existing);
+        }
+        Entry victim = lruHead;
+        while (victim != null && cachedBytes + entry.size > maxBytes) {
+            final Entry next = victim.next;
+            if (victim.pinCount == 0) {
+                evict(victim);
+            }
+            victim = next;
+        }
+        if (cachedBytes + entry.size > maxBytes) {
+            // Everything left is pinned.
+            free(entry);
+            return null;
+        }
+        entries.put(entry, entry);
+        lruAppend(entry);
+        cachedBytes += entry.size;
+        entry.pinCount++;
+        return entry;
+    }
+
+    public synchronized void release(@NotNull Entry entry) {
+        assert entry.pinCount > 0;
+        if (--entry.pinCount == 0 && entry.isEvicted) {
+            free(entry);
+        }
+    }
+
+    private static void free(Entry entry) {
+        if (entry.address != 0) {
+            Unsafe.free(entry.address, entry.size, MemoryTag.NATIVE_FUNC_RSS);
+            entry.address = 0;
+        }
+    }
+
+    private void evict(Entry entry) {
+        entries.remove(entry);
+        lruUnlink(entry);
+        cachedBytes -= entry.size;
+        if (entry.pinCount == 0) {
+            free(entry);
+        } else {
+            entry.isEvicted = true;
+        }
+    }
+
+    private void lruAppend(Entry entry) {
+        entry.prev = lruTail;
+        entry.next = null;
+        if (lruTail != null) {
+            lruTail.next = entry;
+        } else {
+            lruHead = entry;
+        }
+        lruTail = entry;
+    }
+
+    private void lruMoveToTail(Entry entry) {
+        if (entry != lruTail) {
+            lruUnlink(entry);
+            lruAppend(entry);
+        }
+    }
+
+    private void lruUnlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            lruHead = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            lruTail = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    public static class Entry {
+        private long address;
+        private long columnNameTxn;
+        private long columnTop;
+        private AtomicLongArray filledBlocks;
+        private boolean isEvicted;
+        private Entry next;
+        private long partitionNameTxn;
+        private long partitionTimestamp;
+        private CharSequence path;
+        private int pinCount;
+        private Entry prev;
+        private long rowCount;
+        private long size;
+        private int tableId;
+        private int targetType;
+        private long truncateVersion;
+        private int writerIndex;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry that)) {
+                return false;
+            }
+            return tableId == that.tableId
+                    && writerIndex == that.writerIndex
+                    && targetType == that.targetType
+                    && partitionTimestamp == that.partitionTimestamp
+                    && partitionNameTxn == that.partitionNameTxn
+                    && columnNameTxn == that.columnNameTxn
+                    && truncateVersion == that.truncateVersion
+                    && columnTop == that.columnTop
+                    && Chars.equals(path, that.path);
+        }
+
+        /**
+         * Copies the full blocks that are filled in the other entry of the same partition,
+         * which covers fewer rows.
+         */
+        public void copyFilledBlocks(@NotNull Entry other) {
+            assert other.rowCount <= rowCount;
+            final long blockSize = (1L << BLOCK_SHIFT) * Long.BYTES;
+            for (long block = 0, n = other.rowCount >>> BLOCK_SHIFT; block < n; block++) {
+                if (other.isBlockFilled(block)) {
+                    Vect.memcpy(address + block * blockSize, other.address + block * blockSize, blockSize);
+                    setBlockFilled(block);
+                }
+            }
+        }
+
+        public long getAddress() {
+            return address;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public int hashCode() {
+            long h = partitionTimestamp * 31 + partitionNameTxn;
+            h = h * 31 + columnNameTxn;
+            h = h * 31 + truncateVersion;
+            h = h * 31 + columnTop;
+            h = h * 31 + tableId;
+            h = h * 31 + writerIndex;
+            h = h * 31 + targetType;
+            h = h * 31 + Chars.hashCode(path);
+            return Long.hashCode(h);
+        }
+
+        public boolean isBlockFilled(long block) {
+            return (filledBlocks.get((int) (block >>> 6)) & (1L << block)) != 0;
+        }
+
+        /**
+         * Marks the block as filled, its values have to be written before the call.
+         */
+        public void setBlockFilled(long block) {
+            final int index = (int) (block >>> 6);
+            final long bit = 1L << block;
+            long word;
+            do {
+                word = filledBlocks.get(index);
+            } while ((word & bit) == 0 && !filledBlocks.compareAndSet(index, word, word | bit));
+        }
+
+        private Entry of(
+                int tableId,
+                int writerIndex,
+                CharSequence path,
+                int targetType,
+                long partitionTimestamp,
+                long partitionNameTxn,
+                long columnNameTxn,
+                long truncateVersion,
+                long columnTop
+        ) {
+            this.tableId = tableId;
+            this.writerIndex = writerIndex;
+            this.path = path;
+            this.targetType = targetType;
+            this.partitionTimestamp = partitionTimestamp;
+            this.partitionNameTxn = partitionNameTxn;
+            this.columnNameTxn = columnNameTxn;
+            this.truncateVersion = truncateVersion;
+            this.columnTop = columnTop;
+            return this;
+        }
+    }
+}
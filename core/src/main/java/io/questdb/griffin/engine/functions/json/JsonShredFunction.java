@@ -0,0 +1,325 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.json;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.VarcharTypeDriver;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.PartitionFormat;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.cairo.vm.api.MemoryCR;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.columns.VarcharColumn;
+import io.questdb.griffin.engine.table.PageFrameRecordCursor;
+import io.questdb.griffin.engine.table.TablePageFrameCursor;
+import io.questdb.griffin.engine.table.VirtualRecordCursorFactory;
+import io.questdb.std.Rows;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8s;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Typed JSON extraction that reads values of native table partitions from the
+ * {@link JsonShredCache} instead of parsing the documents. The values are cached 8 bytes
+ * per row: booleans as 0 or 1, floats and doubles as raw double bits, all other types as
+ * longs. They are parsed a block of rows at a time, when the scan reads the first row of
+ * a block that no query has parsed yet, so only the row ranges the scan visits are parsed.
+ * Rows that are not covered by the cache, e.g. rows appended after the partition was
+ * shredded or rows of Parquet partitions, are parsed as usual.
+ * <p>
+ * Shredding applies only when the function is evaluated over a table scan cursor, directly
+ * or within a projection of one, so that each record's row id maps back to its partition
+ * and row.
+ */
+public class JsonShredFunction extends JsonExtractFunction {
+    private final BuildRecord buildRecord = new BuildRecord();
+    private final JsonShredCache cache;
+    private final int columnIndex;
+    private final Function path;
+    private final StringSink pathSink = new StringSink();
+    private JsonShredCache.Entry entry;
+    private long entryAddress;
+    private long entryRowCount;
+    private int partitionIndex = -1;
+    private TableReader reader;
+    private int readerColumnIndex;
+
+    public JsonShredFunction(
+            int targetType,
+            VarcharColumn json,
+            Function path,
+            int maxSize,
+            @NotNull JsonShredCache cache
+    ) {
+        super(targetType, json, path, maxSize);
+        this.columnIndex = json.getColumnIndex();
+        this.path = path;
+        this.cache = cache;
+    }
+
+    @Override
+    public void close() {
+        releaseEntry();
+        reader = null;
+        super.close();
+    }
+
+    @Override
+    public void cursorClosed() {
+        releaseEntry();
+        reader = null;
+        super.cursorClosed();
+    }
+
+    @Override
+    public boolean getBool(Record rec) {
+        final long row = shreddedRow(rec);
+        return row > -1 ? Unsafe.getUnsafe().getLong(entryAddress + row * Long.BYTES) != 0 : super.getBool(rec);
+    }
+
+    @Override
+    public long getDate(Record rec) {
+        final long row = shreddedRow(rec);
+        return row > -1 ? Unsafe.getUnsafe().getLong(entryAddress + row * Long.BYTES) : super.getDate(rec);
+    }
+
+    @Override
+    public double getDouble(Record rec) {
+        final long row = shreddedRow(rec);
+        return row > -1 ? Double.longBitsToDouble(Unsafe.getUnsafe().getLong(entryAddress + row * Long.BYTES)) : super.getDouble(rec);
+    }
+
+    @Override
+    public int getIPv4(Record rec) {
+        final long row = shreddedRow(rec);
+        return row > -1 ? (int) Unsafe.getUnsafe().getLong(entryAddress + row * Long.BYTES) : super.getIPv4(rec);
+    }
+
+    @Override
+    public int getInt(Record rec) {
+        final long row = shreddedRow(rec);
+        return row > -1 ? (int) Unsafe.getUnsafe().getLong(entryAddress + row * Long.BYTES) : super.getInt(rec);
+    }
+
+    @Override
+    public long getLong(Record rec) {
+        final long row = shreddedRow(rec);
+        return row > -1 ? Unsafe.getUnsafe().getLong(entryAddress + row * Long.BYTES) : super.getLong(rec);
+    }
+
+    @Override
+    public short getShort(Record rec) {
+        final long row = shreddedRow(rec);
+        return row > -1 ? (short) Unsafe.getUnsafe().getLong(entryAddress + row * Long.BYTES) : super.getShort(rec);
+    }
+
+    @Override
+    public long getTimestamp(Record rec) {
+        final long row = shreddedRow(rec);
+        return row > -1 ? Unsafe.getUnsafe().getLong(entryAddress + row * Long.BYTES) : super.getTimestamp(rec);
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        super.init(symbolTableSource, executionContext);
+        releaseEntry();
+        reader = null;
+        // projections hand functions a join of their own columns and the base cursor columns
+        SymbolTableSource source = symbolTableSource;
+        int baseColumnIndex = columnIndex;
+        if (source instanceof VirtualRecordCursorFactory.VirtualRecordCursorFactorySymbolTableSource virtualSource) {
+            source = virtualSource.getBase();
+            baseColumnIndex -= virtualSource.getVirtualColumnReservedSlots();
+        }
+        if (baseColumnIndex > -1 && source instanceof PageFrameRecordCursor recordCursor) {
+            final PageFrameCursor frameCursor = recordCursor.getPageFrameCursor();
+            if (frameCursor instanceof TablePageFrameCursor tableFrameCursor && !tableFrameCursor.hasLeadFrames()) {
+                final Utf8Sequence pathValue = path.getVarcharA(null);
+                final TableReader tableReader = tableFrameCursor.getTableReader();
+                if (pathValue != null && tableReader != null) {
+                    pathSink.clear();
+                    Utf8s.utf8ToUtf16(pathValue, pathSink);
+                    readerColumnIndex = tableFrameCursor.getColumnMapping().getColumnIndex(baseColumnIndex);
+                    if (cache.onQuery(tableReader.getTableToken().getTableId(), tableReader.getMetadata().getWriterIndex(readerColumnIndex), pathSink)) {
+                        reader = tableReader;
+                    }
+                }
+            }
+        }
+    }
+
+    private void allocate(long partitionTimestamp, long partitionNameTxn, long columnNameTxn, long truncateVersion, long columnTop, long rowCount) {
+        final JsonShredCache.Entry newEntry = cache.allocate(
+                reader.getTableToken().getTableId(),
+                reader.getMetadata().getWriterIndex(readerColumnIndex),
+                pathSink,
+                getType(),
+                partitionTimestamp,
+                partitionNameTxn,
+                columnNameTxn,
+                truncateVersion,
+                columnTop,
+                rowCount
+        );
+        if (newEntry == null) {
+            return;
+        }
+        if (entry != null) {
+            // keep the blocks parsed so far
+            newEntry.copyFilledBlocks(entry);
+        }
+        final JsonShredCache.Entry cached = cache.put(newEntry);
+        if (cached != null) {
+            if (entry != null) {
+                cache.release(entry);
+            }
+            entry = cached;
+        }
+    }
+
+    private long extract(Record rec) {
+        return switch (ColumnType.tagOf(getType())) {
+            case ColumnType.BOOLEAN -> super.getBool(rec) ? 1 : 0;
+            case ColumnType.SHORT -> super.getShort(rec);
+            case ColumnType.INT -> super.getInt(rec);
+            case ColumnType.FLOAT, ColumnType.DOUBLE -> Double.doubleToRawLongBits(super.getDouble(rec));
+            case ColumnType.DATE -> super.getDate(rec);
+            case ColumnType.TIMESTAMP -> super.getTimestamp(rec);
+            case ColumnType.IPv4 -> super.getIPv4(rec);
+            default -> super.getLong(rec);
+        };
+    }
+
+    // parses the rows of the block into the entry, returns false when the block has rows the reader doesn't see
+    private boolean fillBlock(long block) {
+        final long lo = block << JsonShredCache.BLOCK_SHIFT;
+        final long hi = Math.min(lo + (1L << JsonShredCache.BLOCK_SHIFT), entry.getRowCount());
+        if (hi > entryRowCount) {
+            // the entry was allocated by a query that sees more rows
+            return false;
+        }
+        for (long row = lo; row < hi; row++) {
+            buildRecord.row = row;
+            Unsafe.getUnsafe().putLong(entryAddress + row * Long.BYTES, extract(buildRecord));
+        }
+        entry.setBlockFilled(block);
+        return true;
+    }
+
+    private void releaseEntry() {
+        if (entry != null) {
+            cache.release(entry);
+            entry = null;
+        }
+        buildRecord.clear();
+        entryAddress = 0;
+        entryRowCount = 0;
+        partitionIndex = -1;
+    }
+
+    private long shreddedRow(Record rec) {
+        if (reader == null) {
+            return -1;
+        }
+        final long rowId = rec.getUpdateRowId();
+        final int partitionIndex = Rows.toPartitionIndex(rowId);
+        if (partitionIndex != this.partitionIndex) {
+            switchPartition(partitionIndex);
+        }
+        final long row = Rows.toLocalRowID(rowId);
+        if (row >= entryRowCount) {
+            return -1;
+        }
+        final long block = row >>> JsonShredCache.BLOCK_SHIFT;
+        return entry.isBlockFilled(block) || fillBlock(block) ? row : -1;
+    }
+
+    private void switchPartition(int partitionIndex) {
+        releaseEntry();
+        this.partitionIndex = partitionIndex;
+        if (reader.getPartitionFormat(partitionIndex) != PartitionFormat.NATIVE) {
+            return;
+        }
+        final long rowCount = reader.getPartitionRowCount(partitionIndex);
+        final long partitionTimestamp = reader.getPartitionTimestampByIndex(partitionIndex);
+        final long columnTop = reader.getColumnTop(reader.getColumnBase(partitionIndex), readerColumnIndex);
+        final long partitionNameTxn = reader.getTxFile().getPartitionNameTxn(partitionIndex);
+        final long columnNameTxn = reader.getColumnVersionReader().getColumnNameTxn(
+                partitionTimestamp,
+                reader.getMetadata().getWriterIndex(readerColumnIndex)
+        );
+        final long truncateVersion = reader.getTxFile().getTruncateVersion();
+        entry = cache.acquire(
+                reader.getTableToken().getTableId(),
+                reader.getMetadata().getWriterIndex(readerColumnIndex),
+                pathSink,
+                getType(),
+                partitionTimestamp,
+                partitionNameTxn,
+                columnNameTxn,
+                truncateVersion,
+                columnTop
+        );
+        // reallocate once the appended rows outnumber the covered ones
+        if (entry == null || rowCount - entry.getRowCount() > entry.getRowCount()) {
+            allocate(partitionTimestamp, partitionNameTxn, columnNameTxn, truncateVersion, columnTop, rowCount);
+        }
+        if (entry != null) {
+            entryAddress = entry.getAddress();
+            entryRowCount = Math.min(entry.getRowCount(), rowCount);
+            final int primaryIndex = TableReader.getPrimaryColumnIndex(reader.getColumnBase(partitionIndex), readerColumnIndex);
+            buildRecord.of(reader.getColumn(primaryIndex + 1), reader.getColumn(primaryIndex), columnTop);
+        }
+    }
+
+    private static class BuildRecord implements Record {
+        private MemoryCR auxMem;
+        private long columnTop;
+        private MemoryCR dataMem;
+        private long row;
+
+        @Override
+        public Utf8Sequence getVarcharA(int col) {
+            return row < columnTop ? null : VarcharTypeDriver.getSplitValue(auxMem, dataMem, row - columnTop, 1);
+        }
+
+        private void clear() {
+            auxMem = null;
+            dataMem = null;
+        }
+
+        private void of(MemoryCR auxMem, MemoryCR dataMem, long columnTop) {
+            this.auxMem = auxMem;
+            this.dataMem = dataMem;
+            this.columnTop = columnTop;
+        }
+    }
+}
@@ -24,13 +24,72 @@
 
 package io.questdb.griffin.engine.functions.regex;
 
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BooleanFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.griffin.engine.functions.constants.BooleanConstant;
+import io.questdb.std.IntList;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.Utf8Sequence;
+
 /**
- * This is tactical implementation of regex not match over varchar column.
- * It exploits the ability of a varchar column to return a CharSequence view of the sequence.
+ * Regex not match over varchar column. Constant patterns supported by {@link Utf8Regex} are
+ * matched directly over UTF-8 bytes, the rest fall back to the tactical implementation
+ * that exploits the ability of a varchar column to return a CharSequence view of the sequence.
  */
 public class NotMatchVarcharFunctionFactory extends NotMatchStrFunctionFactory {
     @Override
     public String getSignature() {
         return "!~(Øs)";
     }
+
+    @Override
+    public Function newInstance(
+            int position,
+            ObjList<Function> args,
+            IntList argPositions,
+            CairoConfiguration configuration,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+        final Function pattern = args.getQuick(1);
+        if (RegexUtils.createMatcher(pattern, argPositions.getQuick(1)) == null) {
+            return BooleanConstant.FALSE;
+        }
+        final Utf8Regex regex = Utf8Regex.compile(pattern.getStrA(null));
+        if (regex != null) {
+            return new NotMatchVarcharConstPatternFunction(args.getQuick(0), regex);
+        }
+        return super.newInstance(position, args, argPositions, configuration, sqlExecutionContext);
+    }
+
+    private static class NotMatchVarcharConstPatternFunction extends BooleanFunction implements UnaryFunction {
+        private final Utf8Regex regex;
+        private final Function value;
+
+        public NotMatchVarcharConstPatternFunction(Function value, Utf8Regex regex) {
+            this.value = value;
+            this.regex = regex;
+        }
+
+        @Override
+        public Function getArg() {
+            return value;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            final Utf8Sequence us = value.getVarcharA(rec);
+            return us == null || !regex.find(us);
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(value).val(" !~ ").val(regex.toString());
+        }
+    }
 }
@@ -28,6 +28,7 @@ import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoException;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
 import io.questdb.griffin.PlanSink;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
@@ -148,6 +149,18 @@ public class RegexpReplaceVarcharFunctionFactory extends RegexpReplaceStrFunctio
                 } catch (NumericException ignore) {
                 }
             }
+
+            // Rows that don't match are returned as is, so a byte-level scan
+            // lets us skip the UTF-16 view and java.util.regex for them.
+            final Utf8Regex regex = Utf8Regex.compile(patternStr);
+            if (regex != null) {
+                final int maxLength = configuration.getStrFunctionMaxBufferLength();
+                return new Utf8RegexGatedFunc(
+                        value,
+                        regex,
+                        new RegexpReplaceStrFunction(value, pattern, patternPos, replacement, maxLength, position)
+                );
+            }
         }
 
         final int maxLength = configuration.getStrFunctionMaxBufferLength();
@@ -440,4 +453,75 @@ public class RegexpReplaceVarcharFunctionFactory extends RegexpReplaceStrFunctio
             }
         }
     }
+
+    private static class Utf8RegexGatedFunc extends StrFunction implements UnaryFunction {
+        private final RegexpReplaceStrFunction delegate;
+        private final Utf8Regex regex;
+        private final Function value;
+
+        public Utf8RegexGatedFunc(Function value, Utf8Regex regex, RegexpReplaceStrFunction delegate) {
+            this.value = value;
+            this.regex = regex;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void close() {
+            // the delegate owns the value function
+            Misc.free(delegate);
+        }
+
+        @Override
+        public Function getArg() {
+            return value;
+        }
+
+        @Override
+        public int getComplexity() {
+            return delegate.getComplexity();
+        }
+
+        @Override
+        public CharSequence getStrA(Record rec) {
+            final Utf8Sequence us = value.getVarcharA(rec);
+            if (us == null) {
+                return null;
+            }
+            return regex.find(us) ? delegate.getStrA(rec) : value.getStrA(rec);
+        }
+
+        @Override
+        public CharSequence getStrB(Record rec) {
+            final Utf8Sequence us = value.getVarcharB(rec);
+            if (us == null) {
+                return null;
+            }
+            return regex.find(us) ? delegate.getStrB(rec) : value.getStrB(rec);
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+            delegate.init(symbolTableSource, executionContext);
+        }
+
+        @Override
+        public boolean isConstant() {
+            return false;
+        }
+
+        @Override
+        public boolean isRuntimeConstant() {
+            return false;
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return false;
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            delegate.toPlan(sink);
+        }
+    }
 }
@@ -0,0 +1,1011 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.regex;
+
+import io.questdb.std.IntList;
+import io.questdb.std.ObjIntHashMap;
+import io.questdb.std.ObjList;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8String;
+import io.questdb.std.str.Utf8s;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Regular expression matcher that runs a DFA directly over UTF-8 bytes, so that varchar
+ * values don't need a UTF-16 view and matching never backtracks.
+ * <p>
+ * Only a subset of {@link java.util.regex.Pattern} syntax is supported: literals, {@code .},
+ * ASCII character classes (including {@code \d \w \s} and their negations), groups,
+ * alternation, greedy and lazy quantifiers, {@code ^} and {@code $}. {@link #compile(CharSequence)}
+ * returns null for anything else, as well as for patterns whose DFA grows too large, and the
+ * caller is expected to fall back to {@code java.util.regex}. Since only {@link #find(Utf8Sequence)}
+ * is answered, lazy and greedy quantifiers are equivalent and groups don't capture.
+ * <p>
+ * The pattern is also scanned for literals that every match has to contain. Values that contain
+ * none of them are rejected with a plain substring search before the DFA runs, and patterns that
+ * are nothing but an alternation of literals are answered by the substring search alone.
+ * <p>
+ * Invalid UTF-8 sequences never match {@code .} or a negated class, whereas Java would see them
+ * as replacement characters.
+ */
+public final class Utf8Regex {
+    private static final int MAX_DFA_STATES = 1024;
+    private static final int MAX_LITERALS = 8;
+    private static final int MAX_NFA_STATES = 4096;
+    private static final int MAX_REPEAT = 64;
+    private static final int NFA_BEGIN = 0;
+    private static final int NFA_BYTE = 1;
+    private static final int NFA_END = 2;
+    private static final int NFA_MATCH = 3;
+    private static final int NFA_SPLIT = 4;
+    private static final int NODE_ALT = 0;
+    private static final int NODE_BEGIN = 1;
+    private static final int NODE_CLASS = 2;
+    private static final int NODE_CONCAT = 3;
+    private static final int NODE_EMPTY = 4;
+    private static final int NODE_END = 5;
+    private static final int NODE_LITERAL = 6;
+    private static final int NODE_REPEAT = 7;
+    private static final int NON_ASCII_ALL = 1;
+    private static final int NON_ASCII_NONE = 0;
+    private static final int NON_ASCII_NOT_TERMINATOR = 2;
+    // byte range sequences of all multibyte UTF-8 code points
+    private static final int[][] UTF8_NON_ASCII = {
+            {0xC2, 0xDF, 0x80, 0xBF},
+            {0xE0, 0xEF, 0x80, 0xBF, 0x80, 0xBF},
+            {0xF0, 0xF4, 0x80, 0xBF, 0x80, 0xBF, 0x80, 0xBF}
+    };
+    // same as above, minus the U+0085, U+2028 and U+2029 line terminators
+    private static final int[][] UTF8_NON_ASCII_NOT_TERMINATOR = {
+            {0xC2, 0xC2, 0x80, 0x84},
+            {0xC2, 0xC2, 0x86, 0xBF},
+            {0xC3, 0xDF, 0x80, 0xBF},
+            {0xE0, 0xE1, 0x80, 0xBF, 0x80, 0xBF},
+            {0xE2, 0xE2, 0x80, 0x80, 0x80, 0xA7},
+            {0xE2, 0xE2, 0x80, 0x80, 0xAA, 0xBF},
+            {0xE2, 0xE2, 0x81, 0xBF, 0x80, 0xBF},
+            {0xE3, 0xEF, 0x80, 0xBF, 0x80, 0xBF},
+            {0xF0, 0xF4, 0x80, 0xBF, 0x80, 0xBF, 0x80, 0xBF}
+    };
+    private final int[] byteClasses;
+    private final int classCount;
+    private final int deadState;
+    private final boolean[] endMatched;
+    private final boolean hasEndAssertion;
+    private final @Nullable ObjList<Utf8String> literals;
+    private final boolean literalsExact;
+    private final boolean[] matched;
+    private final String pattern;
+    private final int[] transitions;
+
+    private Utf8Regex(
+            String pattern,
+            int[] byteClasses,
+            int classCount,
+            int[] transitions,
+            boolean[] matched,
+            boolean[] endMatched,
+            int deadState,
+            boolean hasEndAssertion,
+            @Nullable ObjList<Utf8String> literals,
+            boolean literalsExact
+    ) {
+        this.pattern = pattern;
+        this.byteClasses = byteClasses;
+        this.classCount = classCount;
+        this.transitions = transitions;
+        this.matched = matched;
+        this.endMatched = endMatched;
+        this.deadState = deadState;
+        this.hasEndAssertion = hasEndAssertion;
+        this.literals = literals;
+        this.literalsExact = literalsExact;
+    }
+
+    /**
+     * Compiles the pattern, which has to be valid {@link java.util.regex.Pattern} syntax.
+     * Returns null when the pattern uses unsupported syntax or its DFA is too large.
+     */
+    @Nullable
+    public static Utf8Regex compile(CharSequence pattern) {
+        final Node root = new Parser(pattern).parse();
+        if (root == null) {
+            return null;
+        }
+        final Nfa nfa = new Nfa();
+        final int matchState = nfa.add(NFA_MATCH, 0, 0, -1, -1);
+        final int start = nfa.emit(root, matchState);
+        if (start < 0) {
+            return null;
+        }
+        final String patternStr = pattern.toString();
+        final ObjList<byte[]> required = requiredLiterals(root);
+        ObjList<Utf8String> literals = null;
+        if (required != null) {
+            literals = new ObjList<>(required.size());
+            for (int i = 0, n = required.size(); i < n; i++) {
+                final byte[] bytes = required.getQuick(i);
+                if (bytes.length == 0) {
+                    literals = null;
+                    break;
+                }
+                literals.add(new Utf8String(bytes, isAscii(bytes)));
+            }
+        }
+        return nfa.toDfa(patternStr, start, literals, literals != null && isLiteralAlternation(root));
+    }
+
+    /**
+     * Returns true when the value contains a match of the pattern anywhere, same as
+     * {@link java.util.regex.Matcher#find()}.
+     */
+    public boolean find(Utf8Sequence value) {
+        final int size = value.size();
+        if (literals != null) {
+            if (!containsAnyLiteral(value, size)) {
+                return false;
+            }
+            if (literalsExact) {
+                return true;
+            }
+        }
+
+        int state = 0;
+        if (matched[state]) {
+            return true;
+        }
+        final long ptr = value.ptr();
+        int prev1 = state;
+        int prev2 = state;
+        int prev3 = state;
+        for (int i = 0; i < size; i++) {
+            prev3 = prev2;
+            prev2 = prev1;
+            prev1 = state;
+            final int b = ptr != -1 ? Unsafe.getByte(ptr + i) : value.byteAt(i);
+            state = transitions[state * classCount + byteClasses[b & 0xff]];
+            if (matched[state]) {
+                return true;
+            }
+            // $ may still match before a final line terminator of up to 3 bytes
+            if (state == deadState && (!hasEndAssertion || i < size - 3)) {
+                return false;
+            }
+        }
+        return endMatched[state] || (hasEndAssertion && matchesBeforeFinalTerminator(value, size, prev1, prev2, prev3));
+    }
+
+    /**
+     * Returns literals at least one of which occurs in every match, or null when the
+     * pattern has no such literals.
+     */
+    public @Nullable ObjList<Utf8String> getRequiredLiterals() {
+        return literals;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    private static void addAsciiRanges(Nfa nfa, long lo, long hi, int next, IntList starts) {
+        int rangeLo = -1;
+        for (int c = 0; c <= 128; c++) {
+            final boolean in = c < 128 && ((c < 64 ? lo >>> c : hi >>> (c - 64)) & 1) != 0;
+            if (in && rangeLo < 0) {
+                rangeLo = c;
+            } else if (!in && rangeLo >= 0) {
+                starts.add(nfa.add(NFA_BYTE, rangeLo, c - 1, next, -1));
+                rangeLo = -1;
+            }
+        }
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLiteralAlternation(Node node) {
+        if (node.type == NODE_LITERAL) {
+            return true;
+        }
+        if (node.type != NODE_ALT) {
+            return false;
+        }
+        for (int i = 0, n = node.children.size(); i < n; i++) {
+            if (node.children.getQuick(i).type != NODE_LITERAL) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int minLength(ObjList<byte[]> literals) {
+        int min = Integer.MAX_VALUE;
+        for (int i = 0, n = literals.size(); i < n; i++) {
+            min = Math.min(min, literals.getQuick(i).length);
+        }
+        return min;
+    }
+
+    // Returns literals at least one of which occurs in every match, or null if there are none.
+    private static @Nullable ObjList<byte[]> requiredLiterals(Node node) {
+        switch (node.type) {
+            case NODE_LITERAL: {
+                final ObjList<byte[]> result = new ObjList<>();
+                result.add(node.bytes);
+                return result;
+            }
+            case NODE_CONCAT: {
+                ObjList<byte[]> best = null;
+                for (int i = 0, n = node.children.size(); i < n; i++) {
+                    final ObjList<byte[]> candidate = requiredLiterals(node.children.getQuick(i));
+                    if (candidate != null && (best == null || minLength(candidate) > minLength(best))) {
+                        best = candidate;
+                    }
+                }
+                return best;
+            }
+            case NODE_ALT: {
+                final ObjList<byte[]> result = new ObjList<>();
+                for (int i = 0, n = node.children.size(); i < n; i++) {
+                    final ObjList<byte[]> candidate = requiredLiterals(node.children.getQuick(i));
+                    if (candidate == null || result.size() + candidate.size() > MAX_LITERALS) {
+                        return null;
+                    }
+                    result.addAll(candidate);
+                }
+                return result;
+            }
+            case NODE_REPEAT:
+                return node.min > 0 ? requiredLiterals(node.child) : null;
+            default:
+                return null;
+        }
+    }
+
+    private boolean containsAnyLiteral(Utf8Sequence value, int size) {
+        assert literals != null;
+        for (int i = 0, n = literals.size(); i < n; i++) {
+            if (Utf8s.indexOf(value, 0, size, literals.getQuick(i)) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Java's $ also matches before the final \n, \r\n, \r, U+0085, U+2028 or U+2029.
+    private boolean matchesBeforeFinalTerminator(Utf8Sequence value, int size, int prev1, int prev2, int prev3) {
+        if (size == 0) {
+            return false;
+        }
+        final int last = value.byteAt(size - 1) & 0xff;
+        if (last == '\n') {
+            return size > 1 && value.byteAt(size - 2) == '\r' ? endMatched[prev2] : endMatched[prev1];
+        }
+        if (last == '\r') {
+            return endMatched[prev1];
+        }
+        if (last == 0x85) {
+            return size > 1 && (value.byteAt(size - 2) & 0xff) == 0xC2 && endMatched[prev2];
+        }
+        if (last == 0xA8 || last == 0xA9) {
+            return size > 2
+                    && (value.byteAt(size - 2) & 0xff) == 0x80
+                    && (value.byteAt(size - 3) & 0xff) == 0xE2
+                    && endMatched[prev3];
+        }
+        return false;
+    }
+
+    private static final class Nfa {
+        private final IntList his = new IntList();
+        private final IntList los = new IntList();
+        private final IntList outs = new IntList();
+        private final IntList outs2 = new IntList();
+        private final IntList types = new IntList();
+        private int[] visited;
+        private int visitedMark;
+
+        int add(int type, int lo, int hi, int out, int out2) {
+            if (types.size() >= MAX_NFA_STATES) {
+                return -1;
+            }
+            types.add(type);
+            los.add(lo);
+            his.add(hi);
+            outs.add(out);
+            outs2.add(out2);
+            return types.size() - 1;
+        }
+
+        // Builds the NFA backwards: returns the start state of a fragment that continues with next.
+        int emit(Node node, int next) {
+            if (next < 0) {
+                return -1;
+            }
+            switch (node.type) {
+                case NODE_LITERAL:
+                    for (int i = node.bytes.length - 1; i > -1 && next > -1; i--) {
+                        final int b = node.bytes[i] & 0xff;
+                        next = add(NFA_BYTE, b, b, next, -1);
+                    }
+                    return next;
+                case NODE_CLASS: {
+                    final IntList starts = new IntList();
+                    addAsciiRanges(this, node.asciiLo, node.asciiHi, next, starts);
+                    final int[][] sequences = node.nonAscii == NON_ASCII_ALL ? UTF8_NON_ASCII
+                            : node.nonAscii == NON_ASCII_NOT_TERMINATOR ? UTF8_NON_ASCII_NOT_TERMINATOR
+                            : null;
+                    if (sequences != null) {
+                        for (int[] sequence : sequences) {
+                            int s = next;
+                            for (int i = sequence.length - 2; i > -1 && s > -1; i -= 2) {
+                                s = add(NFA_BYTE, sequence[i], sequence[i + 1], s, -1);
+                            }
+                            starts.add(s);
+                        }
+                    }
+                    return alternate(starts);
+                }
+                case NODE_CONCAT:
+                    for (int i = node.children.size() - 1; i > -1 && next > -1; i--) {
+                        next = emit(node.children.getQuick(i), next);
+                    }
+                    return next;
+                case NODE_ALT: {
+                    final IntList starts = new IntList();
+                    for (int i = 0, n = node.children.size(); i < n; i++) {
+                        starts.add(emit(node.children.getQuick(i), next));
+                    }
+                    return alternate(starts);
+                }
+                case NODE_REPEAT: {
+                    if (node.max < 0) {
+                        final int loop = add(NFA_SPLIT, 0, 0, -1, next);
+                        if (loop < 0) {
+                            return -1;
+                        }
+                        final int body = emit(node.child, loop);
+                        if (body < 0) {
+                            return -1;
+                        }
+                        outs.setQuick(loop, body);
+                        next = loop;
+                    } else {
+                        for (int i = node.min; i < node.max && next > -1; i++) {
+                            final int body = emit(node.child, next);
+                            next = body < 0 ? -1 : add(NFA_SPLIT, 0, 0, body, next);
+                        }
+                    }
+                    for (int i = 0; i < node.min && next > -1; i++) {
+                        next = emit(node.child, next);
+                    }
+                    return next;
+                }
+                case NODE_BEGIN:
+                    return add(NFA_BEGIN, 0, 0, next, -1);
+                case NODE_END:
+                    return add(NFA_END, 0, 0, next, -1);
+                default:
+                    return next;
+            }
+        }
+
+        private int alternate(IntList starts) {
+            if (starts.size() == 0) {
+                // a class that matches nothing, such as [^\s\S]
+                return -1;
+            }
+            int s = starts.getQuick(starts.size() - 1);
+            for (int i = starts.size() - 2; i > -1 && s > -1; i--) {
+                final int start = starts.getQuick(i);
+                s = start < 0 ? -1 : add(NFA_SPLIT, 0, 0, start, s);
+            }
+            return s;
+        }
+
+        private void closure(IntList seeds, boolean atStart, boolean atEnd, IntList sink) {
+            visitedMark++;
+            final IntList stack = new IntList();
+            for (int i = seeds.size() - 1; i > -1; i--) {
+                stack.add(seeds.getQuick(i));
+            }
+            while (stack.size() > 0) {
+                final int s = stack.getLast();
+                stack.removeIndex(stack.size() - 1);
+                if (visited[s] == visitedMark) {
+                    continue;
+                }
+                visited[s] = visitedMark;
+                switch (types.getQuick(s)) {
+                    case NFA_SPLIT:
+                        stack.add(outs2.getQuick(s));
+                        stack.add(outs.getQuick(s));
+                        break;
+                    case NFA_BEGIN:
+                        if (atStart) {
+                            stack.add(outs.getQuick(s));
+                        }
+                        break;
+                    case NFA_END:
+                        if (atEnd) {
+                            stack.add(outs.getQuick(s));
+                        } else {
+                            sink.add(s);
+                        }
+                        break;
+                    default:
+                        sink.add(s);
+                        break;
+                }
+            }
+            sink.sortGroups(1);
+        }
+
+        private boolean containsMatch(IntList set) {
+            for (int i = 0, n = set.size(); i < n; i++) {
+                if (types.getQuick(set.getQuick(i)) == NFA_MATCH) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private @Nullable Utf8Regex toDfa(String pattern, int start, @Nullable ObjList<Utf8String> literals, boolean literalsExact) {
+            final int nfaStateCount = types.size();
+            visited = new int[nfaStateCount];
+            boolean hasEndAssertion = false;
+
+            // split the byte alphabet into classes that no transition tells apart
+            final boolean[] boundaries = new boolean[257];
+            for (int s = 0; s < nfaStateCount; s++) {
+                if (types.getQuick(s) == NFA_BYTE) {
+                    boundaries[los.getQuick(s)] = true;
+                    boundaries[his.getQuick(s) + 1] = true;
+                } else if (types.getQuick(s) == NFA_END) {
+                    hasEndAssertion = true;
+                }
+            }
+            final int[] byteClasses = new int[256];
+            final IntList representatives = new IntList();
+            int classId = -1;
+            for (int b = 0; b < 256; b++) {
+                if (b == 0 || boundaries[b]) {
+                    classId++;
+                    representatives.add(b);
+                }
+                byteClasses[b] = classId;
+            }
+            final int classCount = classId + 1;
+
+            final ObjList<IntList> states = new ObjList<>();
+            final ObjIntHashMap<IntList> stateIndex = new ObjIntHashMap<>();
+            final IntList transitions = new IntList();
+            final IntList seeds = new IntList();
+
+            // $ is only evaluated at the end of input, so it must not be followed by anything
+            // that consumes input, such as the final line terminator in "a$\n"
+            if (hasEndAssertion) {
+                final IntList tail = new IntList();
+                for (int s = 0; s < nfaStateCount; s++) {
+                    if (types.getQuick(s) == NFA_END) {
+                        seeds.clear();
+                        seeds.add(outs.getQuick(s));
+                        tail.clear();
+                        closure(seeds, true, true, tail);
+                        for (int i = 0, n = tail.size(); i < n; i++) {
+                            if (types.getQuick(tail.getQuick(i)) == NFA_BYTE) {
+                                return null;
+                            }
+                        }
+                    }
+                }
+            }
+
+            // the start state is never shared since it is the only one where ^ holds
+            seeds.clear();
+            seeds.add(start);
+            final IntList startSet = new IntList();
+            closure(seeds, true, false, startSet);
+            states.add(startSet);
+
+            int deadState = -1;
+            for (int d = 0; d < states.size(); d++) {
+                final IntList set = states.getQuick(d);
+                for (int c = 0; c < classCount; c++) {
+                    final int b = representatives.getQuick(c);
+                    seeds.clear();
+                    for (int i = 0, n = set.size(); i < n; i++) {
+                        final int s = set.getQuick(i);
+                        if (types.getQuick(s) == NFA_BYTE && los.getQuick(s) <= b && b <= his.getQuick(s)) {
+                            seeds.add(outs.getQuick(s));
+                        }
+                    }
+                    // unanchored search: a match may start at every position
+                    seeds.add(start);
+                    final IntList nextSet = new IntList();
+                    closure(seeds, false, false, nextSet);
+                    final int index = stateIndex.keyIndex(nextSet);
+                    if (index < 0) {
+                        transitions.add(stateIndex.valueAt(index));
+                    } else {
+                        if (states.size() >= MAX_DFA_STATES) {
+                            return null;
+                        }
+                        final int id = states.size();
+                        states.add(nextSet);
+                        stateIndex.putAt(index, nextSet, id);
+                        transitions.add(id);
+                        if (nextSet.size() == 0) {
+                            deadState = id;
+                        }
+                    }
+                }
+            }
+
+            final int dfaStateCount = states.size();
+            final boolean[] matched = new boolean[dfaStateCount];
+            final boolean[] endMatched = new boolean[dfaStateCount];
+            final IntList endSet = new IntList();
+            for (int d = 0; d < dfaStateCount; d++) {
+                final IntList set = states.getQuick(d);
+                matched[d] = containsMatch(set);
+                endSet.clear();
+                closure(set, d == 0, true, endSet);
+                endMatched[d] = containsMatch(endSet);
+            }
+            return new Utf8Regex(
+                    pattern,
+                    byteClasses,
+                    classCount,
+                    transitions.toArray(),
+                    matched,
+                    endMatched,
+                    deadState,
+                    hasEndAssertion,
+                    literals,
+                    literalsExact
+            );
+        }
+    }
+
+    private static final class Node {
+        private final int type;
+        private long asciiHi;
+        private long asciiLo;
+        private byte[] bytes;
+        private Node child;
+        private ObjList<Node> children;
+        private int max;
+        private int min;
+        private int nonAscii;
+
+        private Node(int type) {
+            this.type = type;
+        }
+
+        static Node cls(long asciiLo, long asciiHi, int nonAscii) {
+            final Node node = new Node(NODE_CLASS);
+            node.asciiLo = asciiLo;
+            node.asciiHi = asciiHi;
+            node.nonAscii = nonAscii;
+            return node;
+        }
+
+        static Node list(int type, ObjList<Node> children) {
+            final Node node = new Node(type);
+            node.children = children;
+            return node;
+        }
+
+        static Node literal(byte[] bytes) {
+            final Node node = new Node(NODE_LITERAL);
+            node.bytes = bytes;
+            return node;
+        }
+
+        static Node repeat(Node child, int min, int max) {
+            final Node node = new Node(NODE_REPEAT);
+            node.child = child;
+            node.min = min;
+            node.max = max;
+            return node;
+        }
+    }
+
+    private static final class Parser {
+        private static final long DIGITS_LO = 0x03FF000000000000L;
+        private static final long SPACES_LO = (1L << ' ') | (1L << '\t') | (1L << '\n') | (1L << 0x0B) | (1L << '\f') | (1L << '\r');
+        private static final long WORD_HI = 0x07FFFFFE87FFFFFEL;
+        private final CharSequence pattern;
+        private int pos;
+        // the ASCII set of the last parsed class escape, see parseClassEscape()
+        private long setHi;
+        private long setLo;
+
+        private Parser(CharSequence pattern) {
+            this.pattern = pattern;
+        }
+
+        private static Node merge(ObjList<Node> items) {
+            final ObjList<Node> merged = new ObjList<>();
+            for (int i = 0, n = items.size(); i < n; i++) {
+                final Node item = items.getQuick(i);
+                final int last = merged.size() - 1;
+                if (item.type == NODE_LITERAL && last > -1 && merged.getQuick(last).type == NODE_LITERAL) {
+                    final byte[] a = merged.getQuick(last).bytes;
+                    final byte[] joined = new byte[a.length + item.bytes.length];
+                    System.arraycopy(a, 0, joined, 0, a.length);
+                    System.arraycopy(item.bytes, 0, joined, a.length, item.bytes.length);
+                    merged.setQuick(last, Node.literal(joined));
+                } else {
+                    merged.add(item);
+                }
+            }
+            if (merged.size() == 0) {
+                return new Node(NODE_EMPTY);
+            }
+            return merged.size() == 1 ? merged.getQuick(0) : Node.list(NODE_CONCAT, merged);
+        }
+
+        private static long bit(int c) {
+            return 1L << (c & 63);
+        }
+
+        private static int controlEscape(char c) {
+            switch (c) {
+                case 't':
+                    return '\t';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 'f':
+                    return '\f';
+                case 'a':
+                    return 7;
+                case 'e':
+                    return 27;
+                default:
+                    return -1;
+            }
+        }
+
+        private static byte[] utf8(int codePoint) {
+            return new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8);
+        }
+
+        private boolean hasMore() {
+            return pos < pattern.length();
+        }
+
+        @Nullable
+        Node parse() {
+            final Node node = parseAlternation();
+            return node != null && !hasMore() ? node : null;
+        }
+
+        private @Nullable Node parseAlternation() {
+            final ObjList<Node> alternatives = new ObjList<>();
+            while (true) {
+                final Node node = parseConcat();
+                if (node == null) {
+                    return null;
+                }
+                alternatives.add(node);
+                if (hasMore() && pattern.charAt(pos) == '|') {
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            return alternatives.size() == 1 ? alternatives.getQuick(0) : Node.list(NODE_ALT, alternatives);
+        }
+
+        private @Nullable Node parseAtom() {
+            final char c = pattern.charAt(pos++);
+            switch (c) {
+                case '(': {
+                    if (hasMore() && pattern.charAt(pos) == '?') {
+                        if (pos + 1 < pattern.length() && pattern.charAt(pos + 1) == ':') {
+                            pos += 2;
+                        } else {
+                            // flags, lookarounds, named and atomic groups
+                            return null;
+                        }
+                    }
+                    final Node node = parseAlternation();
+                    if (node == null || !hasMore() || pattern.charAt(pos) != ')') {
+                        return null;
+                    }
+                    pos++;
+                    return node;
+                }
+                case '[':
+                    return parseClass();
+                case '.':
+                    return Node.cls(~(bit('\n') | bit('\r')), -1L, NON_ASCII_NOT_TERMINATOR);
+                case '^':
+                    return new Node(NODE_BEGIN);
+                case '$':
+                    return new Node(NODE_END);
+                case '\\':
+                    return parseEscape();
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                case '}':
+                case ']':
+                    return null;
+                default:
+                    if (Character.isHighSurrogate(c) && hasMore()) {
+                        final char low = pattern.charAt(pos++);
+                        return Node.literal(utf8(Character.toCodePoint(c, low)));
+                    }
+                    return Node.literal(utf8(c));
+            }
+        }
+
+        private @Nullable Node parseClass() {
+            boolean negate = false;
+            if (hasMore() && pattern.charAt(pos) == '^') {
+                negate = true;
+                pos++;
+            }
+            if (hasMore() && pattern.charAt(pos) == ']') {
+                return null;
+            }
+            long lo = 0;
+            long hi = 0;
+            boolean nonAscii = false;
+            while (true) {
+                if (!hasMore()) {
+                    return null;
+                }
+                char c = pattern.charAt(pos++);
+                if (c == ']') {
+                    break;
+                }
+                if (c == '[' || c > 127 || (c == '&' && hasMore() && pattern.charAt(pos) == '&')) {
+                    return null;
+                }
+                int first = c;
+                if (c == '\\') {
+                    if (!hasMore()) {
+                        return null;
+                    }
+                    final char e = pattern.charAt(pos++);
+                    final int cls = parseClassEscape(e);
+                    if (cls != -1) {
+                        lo |= setLo;
+                        hi |= setHi;
+                        nonAscii |= cls == NON_ASCII_ALL;
+                        continue;
+                    }
+                    first = escapedChar(e);
+                    if (first < 0) {
+                        return null;
+                    }
+                }
+                int last = first;
+                if (pos + 1 < pattern.length() && pattern.charAt(pos) == '-' && pattern.charAt(pos + 1) != ']') {
+                    pos++;
+                    char h = pattern.charAt(pos++);
+                    if (h == '\\') {
+                        if (!hasMore()) {
+                            return null;
+                        }
+                        last = escapedChar(pattern.charAt(pos++));
+                    } else if (h == '[' || h > 127) {
+                        return null;
+                    } else {
+                        last = h;
+                    }
+                    if (last < first) {
+                        return null;
+                    }
+                }
+                for (int b = first; b <= last; b++) {
+                    if (b < 64) {
+                        lo |= bit(b);
+                    } else {
+                        hi |= bit(b);
+                    }
+                }
+            }
+            if (negate) {
+                return Node.cls(~lo, ~hi, nonAscii ? NON_ASCII_NONE : NON_ASCII_ALL);
+            }
+            return Node.cls(lo, hi, nonAscii ? NON_ASCII_ALL : NON_ASCII_NONE);
+        }
+
+        // Sets setLo/setHi for \d \w \s and their negations; returns NON_ASCII_* or -1 for other escapes.
+        private int parseClassEscape(char e) {
+            switch (e) {
+                case 'd':
+                    setLo = DIGITS_LO;
+                    setHi = 0;
+                    return NON_ASCII_NONE;
+                case 'D':
+                    setLo = ~DIGITS_LO;
+                    setHi = -1L;
+                    return NON_ASCII_ALL;
+                case 'w':
+                    setLo = DIGITS_LO;
+                    setHi = WORD_HI;
+                    return NON_ASCII_NONE;
+                case 'W':
+                    setLo = ~DIGITS_LO;
+                    setHi = ~WORD_HI;
+                    return NON_ASCII_ALL;
+                case 's':
+                    setLo = SPACES_LO;
+                    setHi = 0;
+                    return NON_ASCII_NONE;
+                case 'S':
+                    setLo = ~SPACES_LO;
+                    setHi = -1L;
+                    return NON_ASCII_ALL;
+                default:
+                    return -1;
+            }
+        }
+
+        private @Nullable Node parseConcat() {
+            final ObjList<Node> items = new ObjList<>();
+            while (hasMore()) {
+                final char c = pattern.charAt(pos);
+                if (c == '|' || c == ')') {
+                    break;
+                }
+                Node atom = parseAtom();
+                if (atom == null) {
+                    return null;
+                }
+                atom = parseQuantifier(atom);
+                if (atom == null) {
+                    return null;
+                }
+                items.add(atom);
+            }
+            return merge(items);
+        }
+
+        private @Nullable Node parseEscape() {
+            if (!hasMore()) {
+                return null;
+            }
+            final char e = pattern.charAt(pos++);
+            final int cls = parseClassEscape(e);
+            if (cls != -1) {
+                return Node.cls(setLo, setHi, cls);
+            }
+            if (Character.isHighSurrogate(e) && hasMore()) {
+                return Node.literal(utf8(Character.toCodePoint(e, pattern.charAt(pos++))));
+            }
+            if (e > 127) {
+                return Node.literal(utf8(e));
+            }
+            final int c = escapedChar(e);
+            return c < 0 ? null : Node.literal(utf8(c));
+        }
+
+        // Returns the ASCII char denoted by a backslash escape, or -1 for unsupported escapes.
+        private int escapedChar(char e) {
+            final int control = controlEscape(e);
+            if (control != -1) {
+                return control;
+            }
+            // letters and digits denote constructs such as \b, \p{..}, \x.. or back references
+            if (e > 127 || Character.isLetterOrDigit(e)) {
+                return -1;
+            }
+            return e;
+        }
+
+        private int parseNumber() {
+            int value = -1;
+            while (hasMore() && pattern.charAt(pos) >= '0' && pattern.charAt(pos) <= '9') {
+                value = Math.max(value, 0) * 10 + pattern.charAt(pos++) - '0';
+                if (value > MAX_REPEAT) {
+                    return Integer.MAX_VALUE;
+                }
+            }
+            return value;
+        }
+
+        private @Nullable Node parseQuantifier(Node atom) {
+            if (!hasMore()) {
+                return atom;
+            }
+            final int min;
+            final int max;
+            switch (pattern.charAt(pos)) {
+                case '*':
+                    min = 0;
+                    max = -1;
+                    pos++;
+                    break;
+                case '+':
+                    min = 1;
+                    max = -1;
+                    pos++;
+                    break;
+                case '?':
+                    min = 0;
+                    max = 1;
+                    pos++;
+                    break;
+                case '{': {
+                    pos++;
+                    min = parseNumber();
+                    if (min < 0 || min > MAX_REPEAT || !hasMore()) {
+                        return null;
+                    }
+                    if (pattern.charAt(pos) == ',') {
+                        pos++;
+                        max = parseNumber();
+                        if (max > MAX_REPEAT || (max > -1 && max < min)) {
+                            return null;
+                        }
+                    } else {
+                        max = min;
+                    }
+                    if (!hasMore() || pattern.charAt(pos) != '}') {
+                        return null;
+                    }
+                    pos++;
+                    break;
+                }
+                default:
+                    return atom;
+            }
+            if (atom.type == NODE_BEGIN || atom.type == NODE_END) {
+                return null;
+            }
+            if (hasMore()) {
+                final char c = pattern.charAt(pos);
+                if (c == '?') {
+                    // lazy and greedy quantifiers find the same matches
+                    pos++;
+                } else if (c == '+' || c == '*' || c == '{') {
+                    // possessive quantifiers may reject matches that greedy ones find
+                    return null;
+                }
+            }
+            return Node.repeat(atom, min, max);
+        }
+    }
+}
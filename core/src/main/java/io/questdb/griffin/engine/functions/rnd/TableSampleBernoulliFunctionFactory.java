@@ -0,0 +1,117 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.rnd;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.TableSamplePartitionFrameCursorFactory;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BooleanFunction;
+import io.questdb.std.IntList;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+
+/**
+ * Row filter behind {@code TABLESAMPLE BERNOULLI (percent) [REPEATABLE (seed)]}. The optimiser
+ * adds it to the where clause of the sampled table. A row is kept when the hash of the seed
+ * and the table row id, i.e. the partition index and the row index within the partition,
+ * falls under the sampling threshold. The key doesn't depend on how the partitions are cut
+ * into page frames, so a repeatable sample keeps the same rows in serial and parallel plans
+ * and whatever the frame sizes are, for as long as the table's partitions stay the same.
+ * A NULL seed draws a fresh one on every cursor open.
+ */
+public class TableSampleBernoulliFunctionFactory implements FunctionFactory {
+    public static final String NAME = "tablesample_bernoulli";
+
+    @Override
+    public String getSignature() {
+        return NAME + "(dl)";
+    }
+
+    @Override
+    public Function newInstance(
+            int position,
+            @Transient ObjList<Function> args,
+            @Transient IntList argPositions,
+            CairoConfiguration configuration,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+        final double percent = TableSamplePartitionFrameCursorFactory.checkPercent(args.getQuick(0).getDouble(null), argPositions.getQuick(0));
+        return new BernoulliFunction(percent, args.getQuick(1).getLong(null));
+    }
+
+    private static class BernoulliFunction extends BooleanFunction {
+        private final double percent;
+        private final boolean repeatable;
+        private final long threshold;
+        private long seed;
+
+        public BernoulliFunction(double percent, long seed) {
+            this.percent = percent;
+            this.threshold = TableSamplePartitionFrameCursorFactory.threshold(percent);
+            this.repeatable = seed != Numbers.LONG_NULL;
+            this.seed = seed;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            // unlike getRowId(), which is relative to the page frame, the update row id
+            // is relative to the partition
+            return TableSamplePartitionFrameCursorFactory.isSampled(seed, rec.getUpdateRowId(), threshold);
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) {
+            if (!repeatable) {
+                seed = executionContext.getRandom().nextLong();
+            }
+        }
+
+        @Override
+        public boolean isNonDeterministic() {
+            return !repeatable;
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(NAME).val('(').val(percent);
+            if (repeatable) {
+                sink.val(',').val(seed);
+            }
+            sink.val(')');
+        }
+    }
+}
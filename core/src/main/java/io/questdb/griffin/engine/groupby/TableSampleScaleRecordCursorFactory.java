@@ -0,0 +1,232 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.sql.ParquetDecodeHint;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.table.SelectedRecord;
+import io.questdb.std.IntHashSet;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
+
+/**
+ * Scales additive aggregates (count and sum) computed over a TABLESAMPLE'd table
+ * by the inverse of the sampling fraction, so that they estimate the totals of the
+ * full table rather than of the sample. Other columns are passed through as is.
+ */
+public class TableSampleScaleRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final RecordCursorFactory base;
+    private final TableSampleScaleRecordCursor cursor;
+    private final double factor;
+    private final IntHashSet scaledColumns;
+
+    public TableSampleScaleRecordCursorFactory(RecordCursorFactory base, IntHashSet scaledColumns, double factor) {
+        super(base.getMetadata());
+        this.base = base;
+        this.scaledColumns = scaledColumns;
+        this.factor = factor;
+        final int columnCount = base.getMetadata().getColumnCount();
+        final IntList columnIndex = new IntList(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            columnIndex.add(i);
+        }
+        this.cursor = new TableSampleScaleRecordCursor(columnIndex, base.recordCursorSupportsRandomAccess());
+    }
+
+    @Override
+    public boolean followedOrderByAdvice() {
+        return base.followedOrderByAdvice();
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        cursor.of(base.getCursor(executionContext));
+        return cursor;
+    }
+
+    @Override
+    public int getScanDirection() {
+        return base.getScanDirection();
+    }
+
+    @Override
+    public boolean isNonDeterministic() {
+        return base.isNonDeterministic();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return base.recordCursorSupportsRandomAccess();
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("TableSampleScale");
+        sink.meta("factor").val(factor);
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return base.usesCompiledFilter();
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(base);
+    }
+
+    private class ScaledRecord extends SelectedRecord {
+
+        ScaledRecord(IntList columnIndex) {
+            super(columnIndex);
+        }
+
+        @Override
+        public double getDouble(int col) {
+            final double value = super.getDouble(col);
+            return scaledColumns.contains(col) ? value * factor : value;
+        }
+
+        @Override
+        public float getFloat(int col) {
+            final float value = super.getFloat(col);
+            return scaledColumns.contains(col) ? (float) (value * factor) : value;
+        }
+
+        @Override
+        public int getInt(int col) {
+            final int value = super.getInt(col);
+            return value != Numbers.INT_NULL && scaledColumns.contains(col) ? (int) Math.round(value * factor) : value;
+        }
+
+        @Override
+        public long getLong(int col) {
+            final long value = super.getLong(col);
+            return value != Numbers.LONG_NULL && scaledColumns.contains(col) ? Math.round(value * factor) : value;
+        }
+    }
+
+    private class TableSampleScaleRecordCursor implements RecordCursor {
+        private final ScaledRecord recordA;
+        private final ScaledRecord recordB;
+        private RecordCursor baseCursor;
+
+        TableSampleScaleRecordCursor(IntList columnIndex, boolean supportsRandomAccess) {
+            this.recordA = new ScaledRecord(columnIndex);
+            this.recordB = supportsRandomAccess ? new ScaledRecord(columnIndex) : null;
+        }
+
+        @Override
+        public void calculateSize(SqlExecutionCircuitBreaker circuitBreaker, Counter counter) {
+            baseCursor.calculateSize(circuitBreaker, counter);
+        }
+
+        @Override
+        public void close() {
+            baseCursor = Misc.free(baseCursor);
+        }
+
+        @Override
+        public Record getRecord() {
+            return recordA;
+        }
+
+        @Override
+        public Record getRecordB() {
+            if (recordB != null) {
+                return recordB;
+            }
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            return baseCursor.getSymbolTable(columnIndex);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return baseCursor.hasNext();
+        }
+
+        @Override
+        public SymbolTable newSymbolTable(int columnIndex) {
+            return baseCursor.newSymbolTable(columnIndex);
+        }
+
+        @Override
+        public long preComputedStateSize() {
+            return baseCursor.preComputedStateSize();
+        }
+
+        @Override
+        public void recordAt(Record record, long atRowId) {
+            baseCursor.recordAt(((ScaledRecord) record).getBaseRecord(), atRowId);
+        }
+
+        @Override
+        public void setParquetDecodeHint(ParquetDecodeHint hint) {
+            baseCursor.setParquetDecodeHint(hint);
+        }
+
+        @Override
+        public long size() {
+            return baseCursor.size();
+        }
+
+        @Override
+        public void skipRows(Counter rowCount, long maxRowsAfterSkip) {
+            baseCursor.skipRows(rowCount, maxRowsAfterSkip);
+        }
+
+        @Override
+        public void toTop() {
+            baseCursor.toTop();
+        }
+
+        void of(RecordCursor baseCursor) {
+            this.baseCursor = baseCursor;
+            recordA.of(baseCursor.getRecord());
+            if (recordB != null) {
+                recordB.of(baseCursor.getRecordB());
+            }
+        }
+    }
+}
@@ -55,6 +55,7 @@ import io.questdb.mp.MPSequence;
 import io.questdb.mp.RingQueue;
 import io.questdb.mp.SOUnboundedCountDownLatch;
 import io.questdb.mp.Worker;
+import io.questdb.std.Decimal128;
 import io.questdb.std.DirectLongLongSortedList;
 import io.questdb.std.IntList;
 import io.questdb.std.Long256;
@@ -812,6 +813,17 @@ public class GroupByRecordCursorFactory extends AbstractRecordCursorFactory {
                 return getLong(col);
             }
 
+            @Override
+            public void getDecimal128(int col, Decimal128 sink) {
+                final long address = getValueAddress(col);
+                sink.ofRaw(Unsafe.getLong(address), Unsafe.getLong(address + Long.BYTES));
+            }
+
+            @Override
+            public long getDecimal64(int col) {
+                return getLong(col);
+            }
+
             @Override
             public double getDouble(int col) {
                 return Unsafe.getDouble(getValueAddress(col));
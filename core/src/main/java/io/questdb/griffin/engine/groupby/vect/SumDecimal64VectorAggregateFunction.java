@@ -0,0 +1,208 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby.vect;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.engine.functions.decimal.Decimal128Function;
+import io.questdb.mp.SimpleSpinLock;
+import io.questdb.std.Decimal128;
+import io.questdb.std.Decimals;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Rosti;
+import io.questdb.std.Unsafe;
+
+import static io.questdb.griffin.SqlCodeGenerator.GKK_MICRO_HOUR_INT;
+import static io.questdb.griffin.SqlCodeGenerator.GKK_NANO_HOUR_INT;
+
+/**
+ * Sums DECIMAL64 values into a DECIMAL128 result, the same way sum() does for a row-at-a-time
+ * GROUP BY. Keyed values are accumulated by the 128-bit long sum kernels, so the per-key sums
+ * cannot overflow. The kernels keep the accumulator in little-endian order, which
+ * {@link #wrapUp(long)} swaps into the DECIMAL128 (high, low) layout.
+ */
+public class SumDecimal64VectorAggregateFunction extends Decimal128Function implements VectorAggregateFunction {
+    private final int columnIndex;
+    private final DistinctFunc distinctFunc;
+    private final KeyValueFunc keyValueFunc;
+    private final SimpleSpinLock lock = new SimpleSpinLock();
+    private long count;
+    private long sumHi;
+    private long sumLo;
+    private int valueOffset;
+
+    public SumDecimal64VectorAggregateFunction(int keyKind, int columnIndex, int columnType) {
+        super(ColumnType.getDecimalType(Decimals.getDecimalTagPrecision(ColumnType.DECIMAL128), ColumnType.getDecimalScale(columnType)));
+        this.columnIndex = columnIndex;
+        if (keyKind == GKK_MICRO_HOUR_INT) {
+            distinctFunc = Rosti::keyedMicroHourDistinct;
+            keyValueFunc = Rosti::keyedMicroHourSumLongLong;
+        } else if (keyKind == GKK_NANO_HOUR_INT) {
+            distinctFunc = Rosti::keyedNanoHourDistinct;
+            keyValueFunc = Rosti::keyedNanoHourSumLongLong;
+        } else {
+            distinctFunc = Rosti::keyedIntDistinct;
+            keyValueFunc = Rosti::keyedIntSumLongLong;
+        }
+    }
+
+    @Override
+    public void aggregate(long address, long frameRowCount, int workerId) {
+        if (address != 0) {
+            long lo = 0;
+            long hi = 0;
+            long n = 0;
+            for (long i = 0; i < frameRowCount; i++) {
+                final long value = Unsafe.getLong(address + (i << 3));
+                if (value != Decimals.DECIMAL64_NULL) {
+                    final long r = lo + value;
+                    hi += (value >> 63) + (Long.compareUnsigned(r, lo) < 0 ? 1 : 0);
+                    lo = r;
+                    n++;
+                }
+            }
+            if (n > 0) {
+                lock.lock();
+                try {
+                    final long r = sumLo + lo;
+                    sumHi += hi + (Long.compareUnsigned(r, sumLo) < 0 ? 1 : 0);
+                    sumLo = r;
+                    count += n;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean aggregate(long pRosti, long keyAddress, long valueAddress, long frameRowCount) {
+        if (valueAddress == 0) {
+            return distinctFunc.run(pRosti, keyAddress, frameRowCount);
+        } else {
+            return keyValueFunc.run(pRosti, keyAddress, valueAddress, frameRowCount, valueOffset);
+        }
+    }
+
+    @Override
+    public void clear() {
+        sumHi = 0;
+        sumLo = 0;
+        count = 0;
+    }
+
+    @Override
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    @Override
+    public void getDecimal128(Record rec, Decimal128 sink) {
+        if (count > 0) {
+            sink.ofRaw(sumHi, sumLo);
+        } else {
+            sink.ofRawNull();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "sum";
+    }
+
+    @Override
+    public int getValueOffset() {
+        return valueOffset;
+    }
+
+    @Override
+    public void initRosti(long pRosti) {
+        Unsafe.putLong(Rosti.getInitialValueSlot(pRosti, valueOffset), 0);
+        Unsafe.putLong(Rosti.getInitialValueSlot(pRosti, valueOffset + 1), 0);
+        Unsafe.putLong(Rosti.getInitialValueSlot(pRosti, valueOffset + 2), 0);
+    }
+
+    @Override
+    public boolean merge(long pRostiA, long pRostiB) {
+        return Rosti.keyedIntSumLongLongMerge(pRostiA, pRostiB, valueOffset);
+    }
+
+    @Override
+    public void pushValueTypes(ArrayColumnTypes types) {
+        this.valueOffset = types.getColumnCount();
+        types.add(ColumnType.LONG); // accumulator low part, high part once wrapped up
+        types.add(ColumnType.LONG); // accumulator high part, low part once wrapped up
+        types.add(ColumnType.LONG); // count
+    }
+
+    @Override
+    public boolean wrapUp(long pRosti) {
+        final int nullKey = Unsafe.getInt(Rosti.getInitialValuesSlot(pRosti));
+        if (count > 0) {
+            // make sure the null key has a slot, summing a single zero into it bumps its count by one
+            final long mem = Unsafe.malloc(2 * Long.BYTES, MemoryTag.NATIVE_DEFAULT);
+            try {
+                Unsafe.putInt(mem, nullKey);
+                Unsafe.putLong(mem + Long.BYTES, 0);
+                if (!Rosti.keyedIntSumLongLong(pRosti, mem, mem + Long.BYTES, 1, valueOffset)) {
+                    return false;
+                }
+            } finally {
+                Unsafe.free(mem, 2 * Long.BYTES, MemoryTag.NATIVE_DEFAULT);
+            }
+        }
+
+        final long valueOffsets = Rosti.getValueOffsets(pRosti);
+        final long sumOffset = Unsafe.getInt(valueOffsets + valueOffset * 4L);
+        final long countOffset = Unsafe.getInt(valueOffsets + (valueOffset + 2) * 4L);
+        final long ctrl = Rosti.getCtrl(pRosti);
+        final long slots = Rosti.getSlots(pRosti);
+        final long shift = Rosti.getSlotShift(pRosti);
+        for (long i = 0, n = Rosti.getCapacity(pRosti); i < n; i++) {
+            if (Unsafe.getByte(ctrl + i) < 0) {
+                continue;
+            }
+            final long pRow = slots + (i << shift);
+            long lo = Unsafe.getLong(pRow + sumOffset);
+            long hi = Unsafe.getLong(pRow + sumOffset + Long.BYTES);
+            long rowCount = Unsafe.getLong(pRow + countOffset);
+            if (count > 0 && Unsafe.getInt(pRow) == nullKey) {
+                final long r = lo + sumLo;
+                hi += sumHi + (Long.compareUnsigned(r, lo) < 0 ? 1 : 0);
+                lo = r;
+                rowCount += count - 1;
+                Unsafe.putLong(pRow + countOffset, rowCount);
+            }
+            if (rowCount == 0) {
+                hi = Decimals.DECIMAL128_HI_NULL;
+                lo = Decimals.DECIMAL128_LO_NULL;
+            }
+            Unsafe.putLong(pRow + sumOffset, hi);
+            Unsafe.putLong(pRow + sumOffset + Long.BYTES, lo);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,300 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.sql.ParquetDecodeHint;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.cairo.sql.StaticSymbolTable;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.engine.PerWorkerLockOwner;
+import io.questdb.griffin.engine.PerWorkerLocks;
+import io.questdb.griffin.engine.table.ConcurrentTimeFrameCursor;
+import io.questdb.griffin.engine.table.ConcurrentTimeFrameState;
+import io.questdb.griffin.engine.table.TablePageFrameCursor;
+import io.questdb.std.DirectIntIntHashMap;
+import io.questdb.std.DirectIntMultiLongHashMap;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.TestOnly;
+
+import static io.questdb.griffin.engine.join.AsyncWindowJoinFastAtom.*;
+
+/**
+ * Per-query state of {@link AsyncAsOfJoinRecordCursorFactory}. Each worker slot owns a
+ * {@link ConcurrentTimeFrameCursor} over the shared slave time frame index, along with
+ * the key-to-row maps used to resolve a master page frame. The master-to-slave symbol
+ * key translation is built once per query and is read-only afterward.
+ * <p>
+ * The last rows map of a slot outlives the frames: it keeps the backward scan results of
+ * the frames the slot resolved so far, so that the next frame only scans the slave rows
+ * between the previous frame's lower timestamp and its own.
+ */
+public final class AsyncAsOfJoinAtom implements StatefulAtom, PerWorkerLockOwner {
+    // -1 is the "no match" row id and also the no entry value of the row maps
+    static final long NO_MATCH = -1;
+    static final int ROW_ID_VALUE_INDEX = 0;
+    // lower timestamp bound of the frame the last rows map entry was resolved for
+    static final int SPLIT_TIMESTAMP_VALUE_INDEX = 2;
+    static final int TIMESTAMP_VALUE_INDEX = 1;
+    private static final int LAST_ROW_MAP_VALUE_COUNT = 3;
+    private static final int ROW_MAP_VALUE_COUNT = 2;
+    private final boolean inclusive;
+    private final int masterSymbolIndex;
+    private final int masterTimestampIndex;
+    // master-to-slave symbol key lookup hash table
+    private final DirectIntIntHashMap masterToSlaveKeyMap;
+    private final long masterTsScale;
+    // slave key -> (row id, timestamp) for the rows found by the backward scan
+    private final DirectIntMultiLongHashMap ownerBackwardRows;
+    // slave key -> (row id, timestamp) for the rows merged by the forward pass
+    private final DirectIntMultiLongHashMap ownerForwardRows;
+    // slave key -> (row id, timestamp, split timestamp) for the latest row before the split timestamp
+    private final DirectIntMultiLongHashMap ownerLastRows;
+    private final ConcurrentTimeFrameCursor ownerSlaveTimeFrameCursor;
+    private final ObjList<DirectIntMultiLongHashMap> perWorkerBackwardRows;
+    private final ObjList<DirectIntMultiLongHashMap> perWorkerForwardRows;
+    private final ObjList<DirectIntMultiLongHashMap> perWorkerLastRows;
+    private final PerWorkerLocks perWorkerLocks;
+    private final ObjList<ConcurrentTimeFrameCursor> perWorkerSlaveTimeFrameCursors;
+    private final int slaveSymbolIndex;
+    private final long slaveTsScale;
+    private final long toleranceInterval;
+
+    public AsyncAsOfJoinAtom(
+            @NotNull CairoConfiguration configuration,
+            @NotNull RecordCursorFactory slaveFactory,
+            int masterSymbolIndex,
+            int slaveSymbolIndex,
+            int masterTimestampIndex,
+            long masterTsScale,
+            long slaveTsScale,
+            long toleranceInterval,
+            boolean inclusive,
+            int workerCount
+    ) {
+        final int slotCount = Math.min(workerCount, configuration.getPageFrameReduceQueueCapacity());
+        try {
+            this.masterSymbolIndex = masterSymbolIndex;
+            this.slaveSymbolIndex = slaveSymbolIndex;
+            this.masterTimestampIndex = masterTimestampIndex;
+            this.masterTsScale = masterTsScale;
+            this.slaveTsScale = slaveTsScale;
+            this.toleranceInterval = toleranceInterval;
+            this.inclusive = inclusive;
+            this.masterToSlaveKeyMap = new DirectIntIntHashMap(
+                    SLAVE_MAP_INITIAL_CAPACITY,
+                    SLAVE_MAP_LOAD_FACTOR,
+                    0,
+                    StaticSymbolTable.VALUE_NOT_FOUND,
+                    MemoryTag.NATIVE_UNORDERED_MAP
+            );
+            this.ownerSlaveTimeFrameCursor = slaveFactory.newTimeFrameCursor();
+            this.ownerForwardRows = newRowMap(ROW_MAP_VALUE_COUNT);
+            this.ownerBackwardRows = newRowMap(ROW_MAP_VALUE_COUNT);
+            this.ownerLastRows = newRowMap(LAST_ROW_MAP_VALUE_COUNT);
+            this.perWorkerSlaveTimeFrameCursors = new ObjList<>(slotCount);
+            this.perWorkerForwardRows = new ObjList<>(slotCount);
+            this.perWorkerBackwardRows = new ObjList<>(slotCount);
+            this.perWorkerLastRows = new ObjList<>(slotCount);
+            for (int i = 0; i < slotCount; i++) {
+                perWorkerSlaveTimeFrameCursors.extendAndSet(i, slaveFactory.newTimeFrameCursor());
+                perWorkerForwardRows.extendAndSet(i, newRowMap(ROW_MAP_VALUE_COUNT));
+                perWorkerBackwardRows.extendAndSet(i, newRowMap(ROW_MAP_VALUE_COUNT));
+                perWorkerLastRows.extendAndSet(i, newRowMap(LAST_ROW_MAP_VALUE_COUNT));
+            }
+            this.perWorkerLocks = new PerWorkerLocks(configuration, slotCount);
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    @Override
+    public void clear() {
+        Misc.free(masterToSlaveKeyMap);
+        Misc.free(ownerSlaveTimeFrameCursor);
+        Misc.freeObjListAndKeepObjects(perWorkerSlaveTimeFrameCursors);
+        Misc.free(ownerForwardRows);
+        Misc.freeObjListAndKeepObjects(perWorkerForwardRows);
+        Misc.free(ownerBackwardRows);
+        Misc.freeObjListAndKeepObjects(perWorkerBackwardRows);
+        Misc.free(ownerLastRows);
+        Misc.freeObjListAndKeepObjects(perWorkerLastRows);
+    }
+
+    @Override
+    public void close() {
+        Throwable cleanupFailure = null;
+        cleanupFailure = Misc.freeBestEffort(cleanupFailure, masterToSlaveKeyMap);
+        cleanupFailure = Misc.freeBestEffort(cleanupFailure, ownerSlaveTimeFrameCursor);
+        cleanupFailure = Misc.freeObjListBestEffort(cleanupFailure, perWorkerSlaveTimeFrameCursors);
+        cleanupFailure = Misc.freeBestEffort(cleanupFailure, ownerForwardRows);
+        cleanupFailure = Misc.freeObjListBestEffort(cleanupFailure, perWorkerForwardRows);
+        cleanupFailure = Misc.freeBestEffort(cleanupFailure, ownerBackwardRows);
+        cleanupFailure = Misc.freeObjListBestEffort(cleanupFailure, perWorkerBackwardRows);
+        cleanupFailure = Misc.freeBestEffort(cleanupFailure, ownerLastRows);
+        cleanupFailure = Misc.freeObjListBestEffort(cleanupFailure, perWorkerLastRows);
+        CairoException.rethrowCleanupFailure(cleanupFailure);
+    }
+
+    public DirectIntMultiLongHashMap getBackwardRows(int slotId) {
+        if (slotId == -1) {
+            return ownerBackwardRows;
+        }
+        return perWorkerBackwardRows.getQuick(slotId);
+    }
+
+    public DirectIntMultiLongHashMap getForwardRows(int slotId) {
+        if (slotId == -1) {
+            return ownerForwardRows;
+        }
+        return perWorkerForwardRows.getQuick(slotId);
+    }
+
+    public DirectIntMultiLongHashMap getLastRows(int slotId) {
+        if (slotId == -1) {
+            return ownerLastRows;
+        }
+        return perWorkerLastRows.getQuick(slotId);
+    }
+
+    public int getMasterSymbolIndex() {
+        return masterSymbolIndex;
+    }
+
+    public int getMasterTimestampIndex() {
+        return masterTimestampIndex;
+    }
+
+    public DirectIntIntHashMap getMasterToSlaveKeyMap() {
+        return masterToSlaveKeyMap;
+    }
+
+    public long getMasterTsScale() {
+        return masterTsScale;
+    }
+
+    @Override
+    @TestOnly
+    public PerWorkerLocks getPerWorkerLocks() {
+        return perWorkerLocks;
+    }
+
+    public int getSlaveSymbolIndex() {
+        return slaveSymbolIndex;
+    }
+
+    public ConcurrentTimeFrameCursor getSlaveTimeFrameCursor(int slotId) {
+        if (slotId == -1) {
+            return ownerSlaveTimeFrameCursor;
+        }
+        return perWorkerSlaveTimeFrameCursors.getQuick(slotId);
+    }
+
+    public long getSlaveTsScale() {
+        return slaveTsScale;
+    }
+
+    public long getToleranceInterval() {
+        return toleranceInterval;
+    }
+
+    public void initTimeFrameCursors(
+            SymbolTableSource masterSymbolTableSource,
+            TablePageFrameCursor pageFrameCursor,
+            ConcurrentTimeFrameState sharedState
+    ) {
+        final int timestampIndex = ownerSlaveTimeFrameCursor.getTimestampIndex();
+        ownerSlaveTimeFrameCursor.of(sharedState, pageFrameCursor, timestampIndex);
+        ownerSlaveTimeFrameCursor.setParquetDecodeHint(ParquetDecodeHint.MONOTONIC);
+        ownerForwardRows.reopen();
+        ownerBackwardRows.reopen();
+        ownerLastRows.reopen();
+        for (int i = 0, n = perWorkerSlaveTimeFrameCursors.size(); i < n; i++) {
+            final ConcurrentTimeFrameCursor workerCursor = perWorkerSlaveTimeFrameCursors.getQuick(i);
+            workerCursor.of(sharedState, pageFrameCursor, timestampIndex);
+            workerCursor.setParquetDecodeHint(ParquetDecodeHint.MONOTONIC);
+            perWorkerForwardRows.getQuick(i).reopen();
+            perWorkerBackwardRows.getQuick(i).reopen();
+            perWorkerLastRows.getQuick(i).reopen();
+        }
+
+        masterToSlaveKeyMap.reopen();
+        final StaticSymbolTable masterSymbolTable = (StaticSymbolTable) masterSymbolTableSource.getSymbolTable(masterSymbolIndex);
+        final StaticSymbolTable slaveSymbolTable = ownerSlaveTimeFrameCursor.getSymbolTable(slaveSymbolIndex);
+        for (int masterKey = 0, n = masterSymbolTable.getSymbolCount(); masterKey < n; masterKey++) {
+            final int slaveKey = slaveSymbolTable.keyOf(masterSymbolTable.valueOf(masterKey));
+            if (slaveKey != StaticSymbolTable.VALUE_NOT_FOUND) {
+                masterToSlaveKeyMap.put(masterKey + KEY_SHIFT, slaveKey);
+            }
+        }
+        if (slaveSymbolTable.containsNullValue()) {
+            masterToSlaveKeyMap.put(NULL_KEY, StaticSymbolTable.VALUE_IS_NULL);
+        }
+    }
+
+    /**
+     * Returns true for ASOF JOIN, where a slave row with the same timestamp as
+     * the master row is a match, and false for the strict LT JOIN.
+     */
+    public boolean isInclusive() {
+        return inclusive;
+    }
+
+    /**
+     * Attempts to acquire a slot for the given worker thread.
+     * On success, a {@link #release(int)} call must follow.
+     *
+     * @throws io.questdb.cairo.CairoException when circuit breaker has tripped
+     */
+    public int maybeAcquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use its own cursor and maps anytime.
+            return -1;
+        }
+        return perWorkerLocks.acquireSlot(workerId, circuitBreaker);
+    }
+
+    public void release(int slotId) {
+        perWorkerLocks.releaseSlot(slotId);
+    }
+
+    private static DirectIntMultiLongHashMap newRowMap(int valueCount) {
+        return new DirectIntMultiLongHashMap(
+                SLAVE_MAP_INITIAL_CAPACITY,
+                SLAVE_MAP_LOAD_FACTOR,
+                0,
+                NO_MATCH,
+                valueCount,
+                MemoryTag.NATIVE_UNORDERED_MAP
+        );
+    }
+}
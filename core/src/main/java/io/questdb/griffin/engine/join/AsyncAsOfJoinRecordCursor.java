@@ -0,0 +1,360 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ImplicitCastException;
+import io.questdb.cairo.sql.NoRandomAccessRecordCursor;
+import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.table.ConcurrentTimeFrameCursor;
+import io.questdb.griffin.engine.table.ConcurrentTimeFrameState;
+import io.questdb.griffin.engine.table.TablePageFrameCursor;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.NumericException;
+import io.questdb.std.Os;
+import org.jetbrains.annotations.NotNull;
+
+class AsyncAsOfJoinRecordCursor implements NoRandomAccessRecordCursor {
+    private static final Log LOG = LogFactory.getLog(AsyncAsOfJoinRecordCursor.class);
+    private final int columnSplit;
+    private final PageFrameMemoryRecord masterRecord;
+    private final OuterJoinRecord record;
+    private final RecordCursorFactory slaveFactory;
+    private final RecordMetadata slaveMetadata;
+    private final Record slaveRecord;
+    // used to position the slave record on the row ids resolved by the workers
+    private final ConcurrentTimeFrameCursor slaveTimeFrameCursor;
+    private final ConcurrentTimeFrameState slaveTimeFrameState;
+    private boolean allFramesActive;
+    private long cursor = -1;
+    private SqlExecutionContext executionContext;
+    private int frameIndex;
+    private int frameLimit;
+    private long frameRowCount;
+    private long frameRowIndex;
+    private boolean isOpen;
+    private boolean isSlaveTimeFrameCacheBuilt;
+    private PageFrameSequence<AsyncAsOfJoinAtom> masterFrameSequence;
+    private TablePageFrameCursor slaveFrameCursor;
+    private DirectLongList slaveRowIds;
+
+    public AsyncAsOfJoinRecordCursor(@NotNull RecordCursorFactory slaveFactory, int columnSplit) {
+        this.slaveTimeFrameState = new ConcurrentTimeFrameState();
+        this.slaveFactory = slaveFactory;
+        this.slaveMetadata = slaveFactory.getMetadata();
+        this.columnSplit = columnSplit;
+        this.masterRecord = new PageFrameMemoryRecord(PageFrameMemoryRecord.RECORD_A_LETTER);
+        this.slaveTimeFrameCursor = slaveFactory.newTimeFrameCursor();
+        this.slaveRecord = slaveTimeFrameCursor.getRecord();
+        this.record = new OuterJoinRecord(columnSplit, NullRecordFactory.getInstance(slaveMetadata));
+        record.of(masterRecord, slaveRecord);
+    }
+
+    @Override
+    public void calculateSize(SqlExecutionCircuitBreaker circuitBreaker, RecordCursor.Counter counter) {
+        buildSlaveTimeFrameCacheConditionally();
+
+        // every master row produces exactly one output row, so the size is the master's one
+        if (frameLimit == -1) {
+            masterFrameSequence.prepareForDispatch();
+            frameLimit = masterFrameSequence.getFrameCount() - 1;
+            for (int i = 0, n = masterFrameSequence.getFrameCount(); i < n; i++) {
+                counter.add(masterFrameSequence.getFrameRowCount(i));
+            }
+        } else {
+            // cursor.hasNext() was called previously.
+            // Check if we have something left in the current frame.
+            if (frameRowIndex < frameRowCount) {
+                counter.add(frameRowCount - frameRowIndex);
+                frameRowIndex = frameRowCount;
+            }
+
+            // Count sizes of remaining page frames.
+            for (int i = frameIndex + 1, n = masterFrameSequence.getFrameCount(); i < n; i++) {
+                counter.add(masterFrameSequence.getFrameRowCount(i));
+            }
+
+            // Discard what was published.
+            collectCursor(true);
+            masterFrameSequence.await();
+        }
+        // Leave the cursor exhausted so that a following hasNext() returns false.
+        frameIndex = frameLimit;
+        frameRowIndex = frameRowCount;
+    }
+
+    @Override
+    public void close() {
+        if (isOpen) {
+            try {
+                if (masterFrameSequence != null) {
+                    LOG.debug()
+                            .$("closing [shard=").$(masterFrameSequence.getShard())
+                            .$(", frameIndex=").$(frameIndex)
+                            .$(", frameCount=").$(frameLimit)
+                            .$(", frameId=").$(masterFrameSequence.getId())
+                            .$(", cursor=").$(cursor)
+                            .I$();
+
+                    collectCursor(true);
+                    if (frameLimit > -1) {
+                        masterFrameSequence.await();
+                    }
+                    masterFrameSequence.reset();
+                }
+            } finally {
+                // Free shared resources only after workers have finished
+                Misc.free(slaveFrameCursor);
+                Misc.free(slaveTimeFrameState);
+                isOpen = false;
+            }
+        }
+        Misc.free(slaveTimeFrameCursor);
+    }
+
+    @Override
+    public Record getRecord() {
+        return record;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        if (columnIndex < columnSplit) {
+            return masterFrameSequence.getSymbolTableSource().getSymbolTable(columnIndex);
+        }
+        return slaveFrameCursor.getSymbolTable(columnIndex - columnSplit);
+    }
+
+    @Override
+    public boolean hasNext() {
+        buildSlaveTimeFrameCacheConditionally();
+
+        // Check for the first hasNext call.
+        if (frameIndex == -1) {
+            fetchNextFrame();
+        }
+
+        // We have rows in the current frame we still need to dispatch
+        if (frameRowIndex < frameRowCount) {
+            nextRecord();
+            return true;
+        }
+
+        // Release the previous queue item.
+        // There is no identity check here because this check
+        // had been done when 'cursor' was assigned.
+        collectCursor(false);
+
+        // Do we have more frames?
+        if (frameIndex < frameLimit) {
+            fetchNextFrame();
+            if (frameRowCount > 0 && frameRowIndex < frameRowCount) {
+                nextRecord();
+                return true;
+            }
+        }
+
+        if (!allFramesActive) {
+            throwTimeoutException();
+        }
+        return false;
+    }
+
+    @Override
+    public SymbolTable newSymbolTable(int columnIndex) {
+        if (columnIndex < columnSplit) {
+            return masterFrameSequence.getSymbolTableSource().newSymbolTable(columnIndex);
+        }
+        return slaveFrameCursor.newSymbolTable(columnIndex - columnSplit);
+    }
+
+    @Override
+    public long preComputedStateSize() {
+        return 0;
+    }
+
+    @Override
+    public long size() {
+        return -1;
+    }
+
+    @Override
+    public void toTop() {
+        collectCursor(false);
+        masterFrameSequence.toTop();
+        slaveFrameCursor.toTop();
+        // Don't reset frameLimit here since its value is used to prepare frame sequence for dispatch only once.
+        frameIndex = -1;
+        frameRowIndex = -1;
+        frameRowCount = -1;
+        allFramesActive = true;
+    }
+
+    private void buildSlaveTimeFrameCacheConditionally() {
+        if (!isSlaveTimeFrameCacheBuilt) {
+            slaveTimeFrameState.of(
+                    slaveFrameCursor,
+                    slaveMetadata,
+                    slaveFrameCursor.getColumnMapping(),
+                    slaveFrameCursor.isExternal(),
+                    executionContext.getPageFrameMinRows(),
+                    executionContext.getPageFrameMaxRows(),
+                    executionContext.getSharedQueryWorkerCount(),
+                    executionContext.getMemoryTracker()
+            );
+            masterFrameSequence.getAtom().initTimeFrameCursors(
+                    masterFrameSequence.getSymbolTableSource(),
+                    slaveFrameCursor,
+                    slaveTimeFrameState
+            );
+            slaveTimeFrameCursor.of(slaveTimeFrameState, slaveFrameCursor, slaveTimeFrameCursor.getTimestampIndex());
+            isSlaveTimeFrameCacheBuilt = true;
+        }
+    }
+
+    private void collectCursor(boolean forceCollect) {
+        if (cursor > -1) {
+            masterFrameSequence.collect(cursor, forceCollect);
+            // It is necessary to clear 'cursor' value
+            // because we updated frameIndex and loop can exit due to lack of frames.
+            // Non-update of 'cursor' could cause double-free.
+            cursor = -1;
+            // We also need to clear the record as it's initialized with the task's
+            // page frame memory that is now closed.
+            masterRecord.clear();
+        }
+    }
+
+    private void fetchNextFrame() {
+        if (frameLimit == -1) {
+            masterFrameSequence.prepareForDispatch();
+            frameLimit = masterFrameSequence.getFrameCount() - 1;
+        }
+
+        try {
+            do {
+                cursor = masterFrameSequence.next();
+                if (cursor > -1) {
+                    PageFrameReduceTask task = masterFrameSequence.getTask(cursor);
+                    LOG.debug()
+                            .$("collected [shard=").$(masterFrameSequence.getShard())
+                            .$(", frameIndex=").$(task.getFrameIndex())
+                            .$(", frameCount=").$(masterFrameSequence.getFrameCount())
+                            .$(", frameId=").$(masterFrameSequence.getId())
+                            .$(", active=").$(masterFrameSequence.isActive())
+                            .$(", cursor=").$(cursor)
+                            .I$();
+
+                    if (task.hasError()) {
+                        throw task.buildError();
+                    }
+
+                    allFramesActive &= masterFrameSequence.isActive();
+                    slaveRowIds = task.getFilteredRows();
+                    frameRowCount = task.getFilteredRowCount();
+                    frameIndex = task.getFrameIndex();
+                    frameRowIndex = 0;
+                    if (frameRowCount > 0 && masterFrameSequence.isActive()) {
+                        masterRecord.init(task.getFrameMemory());
+                        break;
+                    } else {
+                        // Force reset frame size if frameSequence was canceled or failed.
+                        frameRowCount = 0;
+                        collectCursor(false);
+                    }
+                } else if (cursor == -2) {
+                    break; // No frames to join
+                } else {
+                    Os.pause();
+                }
+            } while (frameIndex < frameLimit);
+        } catch (Throwable th) {
+            if (th instanceof CairoException ce) {
+                if (ce.isInterruption() || ce.isCancellation()) {
+                    LOG.error().$("join error [ex=").$safe(ce.getFlyweightMessage()).I$();
+                    throwTimeoutException();
+                } else {
+                    LOG.error().$("join error [ex=").$(th).I$();
+                    throw ce;
+                }
+            }
+            LOG.error().$("join error [ex=").$(th).I$();
+            if (th instanceof ImplicitCastException || th instanceof NumericException) {
+                throw (RuntimeException) th;
+            }
+            throw CairoException.nonCritical().put(th.getMessage());
+        }
+    }
+
+    private void nextRecord() {
+        masterRecord.setRowIndex(frameRowIndex);
+        final long slaveRowId = slaveRowIds.get(frameRowIndex++);
+        if (slaveRowId != AsyncAsOfJoinAtom.NO_MATCH) {
+            slaveTimeFrameCursor.recordAt(slaveRecord, slaveRowId);
+            record.hasSlave(true);
+        } else {
+            record.hasSlave(false);
+        }
+    }
+
+    private void throwTimeoutException() {
+        if (masterFrameSequence.getCancelReason() == SqlExecutionCircuitBreaker.STATE_CANCELLED) {
+            throw CairoException.queryCancelled();
+        } else {
+            throw CairoException.queryTimedOut();
+        }
+    }
+
+    void of(
+            PageFrameSequence<AsyncAsOfJoinAtom> masterFrameSequence,
+            int slaveOrder,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        this.masterFrameSequence = masterFrameSequence;
+        isOpen = true;
+        this.slaveFrameCursor = (TablePageFrameCursor) slaveFactory.getPageFrameCursor(executionContext, slaveOrder);
+        this.executionContext = executionContext;
+        allFramesActive = true;
+        isSlaveTimeFrameCacheBuilt = false;
+        frameIndex = -1;
+        frameLimit = -1;
+        frameRowIndex = -1;
+        frameRowCount = -1;
+        masterRecord.of(masterFrameSequence.getSymbolTableSource());
+    }
+}
@@ -0,0 +1,485 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StaticSymbolTable;
+import io.questdb.cairo.sql.TimeFrame;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReduceTaskFactory;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.table.ConcurrentTimeFrameCursor;
+import io.questdb.griffin.model.JoinContext;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.DirectIntIntHashMap;
+import io.questdb.std.DirectIntMultiLongHashMap;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
+import io.questdb.std.Rows;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import static io.questdb.cairo.sql.PartitionFrameCursorFactory.ORDER_ASC;
+import static io.questdb.cairo.sql.PartitionFrameCursorFactory.ORDER_DESC;
+import static io.questdb.griffin.engine.join.AbstractAsOfJoinFastRecordCursor.scaleTimestamp;
+import static io.questdb.griffin.engine.join.AsyncAsOfJoinAtom.*;
+import static io.questdb.griffin.engine.join.AsyncWindowJoinFastAtom.toSymbolMapKey;
+
+/**
+ * Multi-threaded keyed ASOF and LT JOIN on a single SYMBOL column. Master page frames are
+ * dispatched to the shared query workers; each worker resolves the matching slave row id
+ * for every row of its frame through its own {@link ConcurrentTimeFrameCursor}, and the
+ * owner cursor stitches the frames back together in frame order, so the output order is
+ * the same as in the single-threaded {@link AsOfJoinFastRecordCursorFactory}.
+ * <p>
+ * A frame is resolved in two passes. The forward pass merges the slave rows falling into
+ * the frame's time range with the master rows, remembering the latest slave row per key.
+ * Keys not seen by then are resolved by a single backward scan from the frame's lower
+ * timestamp bound, which stops once every such key is found, the tolerance interval is
+ * exceeded, or the slave table is exhausted.
+ * <p>
+ * Without the tolerance, a key that is sparse in the slave table would make the backward
+ * scan of every frame run all the way back to its last row. To avoid that, each worker
+ * slot remembers the latest row per key before the lower timestamp bound of the frames it
+ * resolved. A later frame only scans back to that bound, and a key without a row in
+ * between gets the remembered one. Frames are dispatched in order, so the slots mostly
+ * see increasing bounds, and the slave rows are scanned backward about once per slot.
+ *
+ * @see AsOfJoinFastRecordCursorFactory for the single-threaded variant
+ */
+public class AsyncAsOfJoinRecordCursorFactory extends AbstractJoinRecordCursorFactory {
+    private static final PageFrameReducer JOIN = AsyncAsOfJoinRecordCursorFactory::join;
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final boolean inclusive;
+    private final int workerCount;
+    private AsyncAsOfJoinRecordCursor cursor;
+    private PageFrameSequence<AsyncAsOfJoinAtom> frameSequence;
+
+    public AsyncAsOfJoinRecordCursorFactory(
+            @NotNull CairoEngine engine,
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordMetadata metadata,
+            @NotNull RecordCursorFactory masterFactory,
+            @NotNull RecordCursorFactory slaveFactory,
+            @NotNull JoinContext joinContext,
+            int columnSplit,
+            int masterSymbolIndex,
+            int slaveSymbolIndex,
+            long toleranceInterval,
+            boolean inclusive,
+            @NotNull PageFrameReduceTaskFactory reduceTaskFactory,
+            int workerCount
+    ) {
+        super(metadata, joinContext, masterFactory, slaveFactory);
+        assert masterFactory.supportsPageFrameCursor();
+        assert slaveFactory.supportsTimeFrameCursor();
+        this.inclusive = inclusive;
+        this.workerCount = workerCount;
+        this.cursor = new AsyncAsOfJoinRecordCursor(slaveFactory, columnSplit);
+
+        final int masterTsType = masterFactory.getMetadata().getTimestampType();
+        final int slaveTsType = slaveFactory.getMetadata().getTimestampType();
+        long masterTsScale = 1;
+        long slaveTsScale = 1;
+        if (masterTsType != slaveTsType) {
+            masterTsScale = ColumnType.getTimestampDriver(masterTsType).toNanosScale();
+            slaveTsScale = ColumnType.getTimestampDriver(slaveTsType).toNanosScale();
+        }
+
+        final AsyncAsOfJoinAtom atom = new AsyncAsOfJoinAtom(
+                configuration,
+                slaveFactory,
+                masterSymbolIndex,
+                slaveSymbolIndex,
+                masterFactory.getMetadata().getTimestampIndex(),
+                masterTsScale,
+                slaveTsScale,
+                toleranceInterval,
+                inclusive,
+                workerCount
+        );
+        this.frameSequence = new PageFrameSequence<>(
+                engine,
+                configuration,
+                messageBus,
+                atom,
+                JOIN,
+                reduceTaskFactory,
+                workerCount,
+                PageFrameReduceTask.TYPE_ASOF_JOIN
+        );
+    }
+
+    @Override
+    public PageFrameSequence<AsyncAsOfJoinAtom> execute(SqlExecutionContext executionContext, SCSequence collectSubSeq, int order) throws SqlException {
+        CairoConfiguration config = executionContext.getCairoEngine().getConfiguration();
+        executionContext.changePageFrameSizes(config.getSqlSmallPageFrameMinRows(), config.getSqlSmallPageFrameMaxRows());
+        try {
+            return frameSequence.of(masterFactory, executionContext, collectSubSeq, order);
+        } finally {
+            executionContext.restoreToDefaultPageFrameSizes();
+        }
+    }
+
+    @Override
+    public boolean followedOrderByAdvice() {
+        return masterFactory.followedOrderByAdvice();
+    }
+
+    @Override
+    @TestOnly
+    public AsyncAsOfJoinAtom getAtom() {
+        return frameSequence.getAtom();
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return masterFactory;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final int masterOrder = masterFactory.getScanDirection() == SCAN_DIRECTION_BACKWARD ? ORDER_DESC : ORDER_ASC;
+        final int slaveOrder = slaveFactory.getScanDirection() == SCAN_DIRECTION_BACKWARD ? ORDER_DESC : ORDER_ASC;
+        final PageFrameSequence<AsyncAsOfJoinAtom> masterFrameSequence = execute(executionContext, collectSubSeq, masterOrder);
+        try {
+            cursor.of(masterFrameSequence, slaveOrder, executionContext);
+            return cursor;
+        } catch (Throwable th) {
+            cursor.close();
+            throw th;
+        }
+    }
+
+    @Override
+    public int getScanDirection() {
+        return masterFactory.getScanDirection();
+    }
+
+    @Override
+    public TableToken getTableToken() {
+        return masterFactory.getTableToken();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsUpdateRowId(TableToken tableToken) {
+        return masterFactory.supportsUpdateRowId(tableToken);
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type(inclusive ? "Async AsOf Join" : "Async Lt Join");
+        sink.meta("workers").val(workerCount);
+        sink.attr("condition").val(joinContext);
+        sink.child(masterFactory);
+        sink.child(slaveFactory);
+    }
+
+    // Returns the index of the first row in the given open frame with the timestamp
+    // at or after the given one. The frame's last timestamp must not be less than it.
+    private static long findRowLo(
+            ConcurrentTimeFrameCursor slaveCursor,
+            Record slaveRecord,
+            int slaveTimestampIndex,
+            long slaveTsScale,
+            long timestamp
+    ) {
+        final TimeFrame timeFrame = slaveCursor.getTimeFrame();
+        long lo = timeFrame.getRowLo();
+        long hi = timeFrame.getRowHi() - 1;
+        slaveCursor.recordAt(slaveRecord, timeFrame.getFrameIndex(), lo);
+        while (lo < hi) {
+            final long mid = (lo + hi) >>> 1;
+            slaveCursor.recordAtRowIndex(slaveRecord, mid);
+            if (scaleTimestamp(slaveRecord.getTimestamp(slaveTimestampIndex), slaveTsScale) < timestamp) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static void join(
+            int workerId,
+            @NotNull PageFrameMemoryRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final long frameRowCount = task.getFrameRowCount();
+        assert frameRowCount > 0;
+        final AsyncAsOfJoinAtom atom = task.getFrameSequence(AsyncAsOfJoinAtom.class).getAtom();
+        final PageFrameMemory frameMemory = task.populateFrameMemory();
+        record.init(frameMemory);
+        final DirectLongList rows = task.getFilteredRows();
+        rows.clear();
+        task.setFilteredRowCount(frameRowCount);
+
+        final int masterTimestampIndex = atom.getMasterTimestampIndex();
+        final int masterSymbolIndex = atom.getMasterSymbolIndex();
+        final int slaveSymbolIndex = atom.getSlaveSymbolIndex();
+        final long masterTsScale = atom.getMasterTsScale();
+        final long slaveTsScale = atom.getSlaveTsScale();
+        final long toleranceInterval = atom.getToleranceInterval();
+        final boolean inclusive = atom.isInclusive();
+        final DirectIntIntHashMap masterToSlaveKeyMap = atom.getMasterToSlaveKeyMap();
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+        final int slotId = atom.maybeAcquire(workerId, owner, circuitBreaker);
+        try {
+            final ConcurrentTimeFrameCursor slaveCursor = atom.getSlaveTimeFrameCursor(slotId);
+            final TimeFrame slaveTimeFrame = slaveCursor.getTimeFrame();
+            final Record slaveRecord = slaveCursor.getRecord();
+            final int slaveTimestampIndex = slaveCursor.getTimestampIndex();
+            final DirectIntMultiLongHashMap forwardRows = atom.getForwardRows(slotId);
+            forwardRows.clear();
+            final DirectIntMultiLongHashMap backwardRows = atom.getBackwardRows(slotId);
+            backwardRows.clear();
+            final DirectIntMultiLongHashMap lastRows = atom.getLastRows(slotId);
+
+            record.setRowIndex(0);
+            final long masterTimestampLo = scaleTimestamp(record.getTimestamp(masterTimestampIndex), masterTsScale);
+
+            // Find the first slave row at or after the frame's lower timestamp. The forward
+            // pass starts there, the backward scan ends just before it.
+            int splitFrameIndex = -1;
+            long splitRowIndex = -1;
+            slaveCursor.seekEstimate(slaveTsScale == 1 ? masterTimestampLo : masterTimestampLo / slaveTsScale);
+            while (slaveCursor.next()) {
+                if (slaveCursor.open() > 0
+                        && scaleTimestamp(slaveTimeFrame.getTimestampHi() - 1, slaveTsScale) >= masterTimestampLo) {
+                    splitFrameIndex = slaveTimeFrame.getFrameIndex();
+                    splitRowIndex = findRowLo(slaveCursor, slaveRecord, slaveTimestampIndex, slaveTsScale, masterTimestampLo);
+                    break;
+                }
+            }
+
+            // Forward pass: merge slave rows preceding each master row into the per-key map.
+            boolean slaveExhausted = splitFrameIndex == -1;
+            int slaveFrameIndex = splitFrameIndex;
+            long slaveRowIndex = splitRowIndex;
+            long slaveRowHi = slaveExhausted ? 0 : slaveTimeFrame.getRowHi();
+            long slaveTimestamp = Long.MAX_VALUE;
+            if (!slaveExhausted) {
+                slaveCursor.recordAtRowIndex(slaveRecord, slaveRowIndex);
+                slaveTimestamp = scaleTimestamp(slaveRecord.getTimestamp(slaveTimestampIndex), slaveTsScale);
+            }
+
+            int pendingKeyCount = 0;
+            // the backward scan may stop below this timestamp, all pending keys are remembered down to it
+            long scanFloor = Long.MAX_VALUE;
+            for (long r = 0; r < frameRowCount; r++) {
+                record.setRowIndex(r);
+                final long masterTimestamp = scaleTimestamp(record.getTimestamp(masterTimestampIndex), masterTsScale);
+                while (!slaveExhausted && (slaveTimestamp < masterTimestamp || (inclusive && slaveTimestamp == masterTimestamp))) {
+                    final int slaveKey = toSymbolMapKey(slaveRecord.getInt(slaveSymbolIndex));
+                    forwardRows.put(slaveKey, ROW_ID_VALUE_INDEX, Rows.toRowID(slaveFrameIndex, slaveRowIndex));
+                    // the entry exists now, so this put updates it in place
+                    forwardRows.put(slaveKey, TIMESTAMP_VALUE_INDEX, slaveTimestamp);
+
+                    if (++slaveRowIndex >= slaveRowHi) {
+                        slaveExhausted = true;
+                        while (slaveCursor.next()) {
+                            if (slaveCursor.open() > 0) {
+                                slaveFrameIndex = slaveTimeFrame.getFrameIndex();
+                                slaveRowIndex = slaveTimeFrame.getRowLo();
+                                slaveRowHi = slaveTimeFrame.getRowHi();
+                                slaveCursor.recordAt(slaveRecord, slaveFrameIndex, slaveRowIndex);
+                                slaveExhausted = false;
+                                break;
+                            }
+                        }
+                        circuitBreaker.statefulThrowExceptionIfTripped();
+                        if (slaveExhausted) {
+                            break;
+                        }
+                    } else {
+                        slaveCursor.recordAtRowIndex(slaveRecord, slaveRowIndex);
+                    }
+                    slaveTimestamp = scaleTimestamp(slaveRecord.getTimestamp(slaveTimestampIndex), slaveTsScale);
+                }
+
+                final int slaveKey = masterToSlaveKeyMap.get(toSymbolMapKey(record.getInt(masterSymbolIndex)));
+                if (slaveKey == StaticSymbolTable.VALUE_NOT_FOUND) {
+                    rows.add(NO_MATCH);
+                    continue;
+                }
+                final int mapKey = toSymbolMapKey(slaveKey);
+                final long index = forwardRows.keyIndex(mapKey);
+                if (index < 0) {
+                    if (toleranceInterval != Numbers.LONG_NULL
+                            && forwardRows.valueAt(index, TIMESTAMP_VALUE_INDEX) < masterTimestamp - toleranceInterval) {
+                        rows.add(NO_MATCH);
+                    } else {
+                        rows.add(forwardRows.valueAt(index, ROW_ID_VALUE_INDEX));
+                    }
+                    continue;
+                }
+                // The match, if any, precedes the frame's lower timestamp. Leave an encoded
+                // key for the fix-up pass and ask the backward scan to look for it.
+                rows.add(-mapKey - 1);
+                final long pendingIndex = backwardRows.keyIndex(mapKey);
+                if (pendingIndex > -1) {
+                    final long lastIndex = lastRows.keyIndex(mapKey);
+                    if (lastIndex < 0 && lastRows.valueAt(lastIndex, SPLIT_TIMESTAMP_VALUE_INDEX) <= masterTimestampLo) {
+                        // only the rows since the remembered split need to be scanned
+                        scanFloor = Math.min(scanFloor, lastRows.valueAt(lastIndex, SPLIT_TIMESTAMP_VALUE_INDEX));
+                    } else if (lastIndex < 0 && lastRows.valueAt(lastIndex, TIMESTAMP_VALUE_INDEX) < masterTimestampLo) {
+                        // a frame further ahead found the latest row of the key before our split, or no row at all
+                        backwardRows.putAt(pendingIndex, mapKey, ROW_ID_VALUE_INDEX, lastRows.valueAt(lastIndex, ROW_ID_VALUE_INDEX));
+                        backwardRows.put(mapKey, TIMESTAMP_VALUE_INDEX, lastRows.valueAt(lastIndex, TIMESTAMP_VALUE_INDEX));
+                        continue;
+                    } else {
+                        scanFloor = Long.MIN_VALUE;
+                    }
+                    backwardRows.putAt(pendingIndex, mapKey, ROW_ID_VALUE_INDEX, NO_MATCH);
+                    pendingKeyCount++;
+                }
+            }
+
+            if (backwardRows.size() == 0) {
+                return;
+            }
+
+            // Backward scan: find the latest row for each pending key before the split point.
+            // Unless every pending key is found, all rows at or after scanLo are visited.
+            final long minSlaveTimestamp = toleranceInterval != Numbers.LONG_NULL ? masterTimestampLo - toleranceInterval : Long.MIN_VALUE;
+            final long scanLo = Math.max(minSlaveTimestamp, scanFloor);
+            // all rows at or after this timestamp were visited by the scan
+            long scannedLo = Long.MAX_VALUE;
+            long rowHi = 0;
+            if (pendingKeyCount > 0 && splitFrameIndex != -1) {
+                slaveCursor.jumpTo(splitFrameIndex);
+                slaveCursor.open();
+                rowHi = splitRowIndex;
+            }
+            // otherwise, the cursor is positioned past the last frame and prev() gets us there
+            scan:
+            while (pendingKeyCount > 0) {
+                if (rowHi > 0) {
+                    final int frameIndex = slaveTimeFrame.getFrameIndex();
+                    slaveCursor.recordAt(slaveRecord, frameIndex, rowHi - 1);
+                    for (long r = rowHi - 1; r >= 0; r--) {
+                        slaveCursor.recordAtRowIndex(slaveRecord, r);
+                        final long timestamp = scaleTimestamp(slaveRecord.getTimestamp(slaveTimestampIndex), slaveTsScale);
+                        if (timestamp < scanLo) {
+                            scannedLo = scanLo;
+                            break scan;
+                        }
+                        final int mapKey = toSymbolMapKey(slaveRecord.getInt(slaveSymbolIndex));
+                        final long index = backwardRows.keyIndex(mapKey);
+                        if (index < 0 && backwardRows.valueAt(index, ROW_ID_VALUE_INDEX) == NO_MATCH) {
+                            backwardRows.putAt(index, mapKey, ROW_ID_VALUE_INDEX, Rows.toRowID(frameIndex, r));
+                            backwardRows.putAt(index, mapKey, TIMESTAMP_VALUE_INDEX, timestamp);
+                            if (--pendingKeyCount == 0) {
+                                break scan;
+                            }
+                        }
+                    }
+                }
+                circuitBreaker.statefulThrowExceptionIfTripped();
+                if (!slaveCursor.prev()) {
+                    scannedLo = Long.MIN_VALUE;
+                    break;
+                }
+                rowHi = slaveCursor.open();
+            }
+
+            // Fix-up pass: replace the encoded keys with the backward scan results.
+            for (long r = 0; r < frameRowCount; r++) {
+                final long value = rows.get(r);
+                if (value < NO_MATCH) {
+                    final int mapKey = (int) (-value - 1);
+                    final long index = backwardRows.keyIndex(mapKey);
+                    final long foundRowId = backwardRows.valueAt(index, ROW_ID_VALUE_INDEX);
+                    long slaveRowId = foundRowId;
+                    long rowTimestamp = backwardRows.valueAt(index, TIMESTAMP_VALUE_INDEX);
+                    final long lastIndex = lastRows.keyIndex(mapKey);
+                    final long lastSplit = lastIndex < 0 ? lastRows.valueAt(lastIndex, SPLIT_TIMESTAMP_VALUE_INDEX) : Long.MAX_VALUE;
+                    if (slaveRowId == NO_MATCH && lastSplit <= masterTimestampLo) {
+                        // no row since the remembered split, so the remembered row is the latest one
+                        slaveRowId = lastRows.valueAt(lastIndex, ROW_ID_VALUE_INDEX);
+                        rowTimestamp = lastRows.valueAt(lastIndex, TIMESTAMP_VALUE_INDEX);
+                    }
+                    // remember the row once it's known to be the latest one before the split
+                    final boolean remember = lastSplit == Long.MAX_VALUE
+                            ? foundRowId != NO_MATCH || scannedLo == Long.MIN_VALUE
+                            : lastSplit < masterTimestampLo && (foundRowId != NO_MATCH || scannedLo <= lastSplit);
+                    if (remember) {
+                        lastRows.putAt(lastIndex, mapKey, ROW_ID_VALUE_INDEX, slaveRowId);
+                        lastRows.put(mapKey, TIMESTAMP_VALUE_INDEX, rowTimestamp);
+                        lastRows.put(mapKey, SPLIT_TIMESTAMP_VALUE_INDEX, masterTimestampLo);
+                    }
+                    if (slaveRowId != NO_MATCH && toleranceInterval != Numbers.LONG_NULL) {
+                        record.setRowIndex(r);
+                        final long masterTimestamp = scaleTimestamp(record.getTimestamp(masterTimestampIndex), masterTsScale);
+                        if (rowTimestamp < masterTimestamp - toleranceInterval) {
+                            slaveRowId = NO_MATCH;
+                        }
+                    }
+                    rows.set(r, slaveRowId);
+                }
+            }
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    @Override
+    protected void _close() {
+        final AsyncAsOfJoinRecordCursor cursor = this.cursor;
+        this.cursor = null;
+        final PageFrameSequence<AsyncAsOfJoinAtom> frameSequence = this.frameSequence;
+        this.frameSequence = null;
+        Throwable cleanupFailure = closeJoinOwnersBestEffort();
+        cleanupFailure = Misc.freeBestEffort(cleanupFailure, frameSequence);
+        cleanupFailure = Misc.freeBestEffort(cleanupFailure, cursor);
+        CairoException.rethrowCleanupFailure(cleanupFailure);
+    }
+}
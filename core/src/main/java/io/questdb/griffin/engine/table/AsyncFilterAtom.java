@@ -63,8 +63,12 @@ public class AsyncFilterAtom implements StatefulAtom, PerWorkerLockOwner, Planna
     private final ObjList<Function> perWorkerFilters;
     private final PerWorkerLocks perWorkerLocks;
     private final ObjList<SelectivityStats> perWorkerSelectivityStats;
+    // Columns pre-touched when the parent's used columns are unknown: all but the filter ones,
+    // which are already paged in by the time the filter has run over the frame.
+    private final IntList preTouchColumnIndexes;
     private final boolean preTouchEnabled;
     private final double preTouchThreshold;
+    private IntList lateMatPreTouchColumnIndexes;
     private IntHashSet lateMatSkipColumnIndexes;
     // Per-query native memory tracker captured from SqlExecutionContext on init.
     // Null when no per-query limit applies. Workers and operator code feed it to
@@ -94,6 +98,12 @@ public class AsyncFilterAtom implements StatefulAtom, PerWorkerLockOwner, Planna
             perWorkerSelectivityStats = null;
         }
         this.columnTypes = columnTypes;
+        this.preTouchColumnIndexes = new IntList(columnTypes.size());
+        for (int i = 0, n = columnTypes.size(); i < n; i++) {
+            if (!filterUsedColumnIndexes.contains(i)) {
+                preTouchColumnIndexes.add(i);
+            }
+        }
         this.preTouchEnabled = preTouchEnabled;
         this.preTouchThreshold = configuration.getSqlParallelFilterPreTouchThreshold();
     }
@@ -104,6 +114,7 @@ public class AsyncFilterAtom implements StatefulAtom, PerWorkerLockOwner, Planna
         Misc.clearObjList(perWorkerSelectivityStats);
         memoryTracker = null;
         lateMatSkipColumnIndexes = null;
+        lateMatPreTouchColumnIndexes = null;
     }
 
     @Override
@@ -138,6 +149,11 @@ public class AsyncFilterAtom implements StatefulAtom, PerWorkerLockOwner, Planna
         return perWorkerLocks;
     }
 
+    public IntList getPreTouchColumnIndexes() {
+        final IntList lateMatColumns = lateMatPreTouchColumnIndexes;
+        return lateMatColumns != null ? lateMatColumns : preTouchColumnIndexes;
+    }
+
     public SelectivityStats getSelectivityStats(int slotId) {
         if (slotId == -1 || perWorkerSelectivityStats == null) {
             return ownerSelectivityStats;
@@ -185,6 +201,11 @@ public class AsyncFilterAtom implements StatefulAtom, PerWorkerLockOwner, Planna
      * The idea is to access the memory to page fault and, thus, warm up the pages
      * in parallel, on multiple threads, instead of relying on the "query owner" thread
      * to do it later serially.
+     * <p>
+     * Native frames are materialised late: only the columns the filter reads are scanned
+     * for every row, while the remaining columns are touched for the filtered rows only.
+     * Filter columns are skipped here, and so are the columns the parent cursor does not
+     * read, once it has reported them via {@link #setParentUsedColumns(IntHashSet)}.
      *
      * @param record        record to use
      * @param rows          rows to pre-touch
@@ -195,12 +216,18 @@ public class AsyncFilterAtom implements StatefulAtom, PerWorkerLockOwner, Planna
         if (!preTouchEnabled || rows.size() > frameRowCount * preTouchThreshold) {
             return;
         }
+        final IntList columnIndexes = getPreTouchColumnIndexes();
+        final int columnCount = columnIndexes.size();
+        if (columnCount == 0) {
+            return;
+        }
         // We use a LongAdder as a black hole to make sure that the JVM JIT compiler keeps the load instructions in place.
         long sum = 0;
         for (long p = 0, n = rows.size(); p < n; p++) {
             long r = rows.get(p);
             record.setRowIndex(r);
-            for (int i = 0; i < columnTypes.size(); i++) {
+            for (int c = 0; c < columnCount; c++) {
+                final int i = columnIndexes.getQuick(c);
                 int columnType = columnTypes.getQuick(i);
                 switch (ColumnType.tagOf(columnType)) {
                     case ColumnType.BOOLEAN:
@@ -285,16 +312,21 @@ public class AsyncFilterAtom implements StatefulAtom, PerWorkerLockOwner, Planna
     public void setParentUsedColumns(@Nullable IntHashSet columns) {
         if (columns == null || filterUsedColumnIndexes == null) {
             lateMatSkipColumnIndexes = null;
+            lateMatPreTouchColumnIndexes = null;
             return;
         }
-        // Always a fresh set: a previously published one may still be visible to workers.
+        // Always fresh collections: previously published ones may still be visible to workers.
         final IntHashSet skipSet = new IntHashSet();
+        final IntList preTouchColumns = new IntList();
         for (int i = 0, n = columnTypes.size(); i < n; i++) {
             if (!columns.contains(i) || filterUsedColumnIndexes.contains(i)) {
                 skipSet.add(i);
+            } else {
+                preTouchColumns.add(i);
             }
         }
         lateMatSkipColumnIndexes = skipSet;
+        lateMatPreTouchColumnIndexes = preTouchColumns;
     }
 
     public boolean shouldUseLateMaterialization(int slotId, boolean isParquetFrame, boolean isCountOnly) {
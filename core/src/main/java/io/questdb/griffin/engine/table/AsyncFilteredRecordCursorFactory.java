@@ -279,6 +279,9 @@ public class AsyncFilteredRecordCursorFactory extends AbstractRecordCursorFactor
             sink.attr("limit").val(rowsRemaining);
         }
         sink.attr("filter").val(frameSequence.getAtom());
+        if (frameSequence.getFrameSizeAdvisor().isEnabled()) {
+            sink.attr("frame sizing").val(frameSequence.getFrameSizeAdvisor());
+        }
         sink.child(base, order);
     }
 
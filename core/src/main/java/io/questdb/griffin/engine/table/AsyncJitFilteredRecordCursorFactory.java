@@ -313,6 +313,9 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
             sink.attr("limit").val(rowsRemaining);
         }
         sink.attr("filter").val(frameSequence.getAtom());
+        if (frameSequence.getFrameSizeAdvisor().isEnabled()) {
+            sink.attr("frame sizing").val(frameSequence.getFrameSizeAdvisor());
+        }
         sink.child(base, order);
     }
 
@@ -0,0 +1,116 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.std.DirectLongList;
+
+/**
+ * Returns frame rows picked by a sorted value or trigram index, followed by the frame rows the index
+ * does not cover yet, in ascending order. Every row is checked against the filter, the
+ * index only narrows down the rows to look at.
+ */
+class SortedValueIndexFilteredRowCursor implements RowCursor {
+    private final Function filter;
+    private final PageFrameMemoryRecord record;
+    private long indexedHi;
+    private long indexedPos;
+    private long rowIndex;
+    private long rowLo;
+    private DirectLongList rows;
+    private long scanHi;
+    private long scanPos;
+
+    SortedValueIndexFilteredRowCursor(Function filter) {
+        this.filter = filter;
+        this.record = new PageFrameMemoryRecord(PageFrameMemoryRecord.RECORD_A_LETTER);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (indexedPos < indexedHi) {
+            final long rowIndex = rows.get(indexedPos++) - rowLo;
+            record.setRowIndex(rowIndex);
+            if (filter.getBool(record)) {
+                this.rowIndex = rowIndex;
+                return true;
+            }
+        }
+        while (scanPos < scanHi) {
+            final long rowIndex = scanPos++;
+            record.setRowIndex(rowIndex);
+            if (filter.getBool(record)) {
+                this.rowIndex = rowIndex;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long next() {
+        return rowIndex;
+    }
+
+    Function getFilter() {
+        return filter;
+    }
+
+    /**
+     * @param rows       sorted partition row ids picked by the index
+     * @param indexedLo  position of the first row id that belongs to the frame
+     * @param indexedHi  position past the last row id that belongs to the frame
+     * @param rowLo      partition row the frame starts at
+     * @param scanLo     first frame-relative row not covered by the index
+     * @param scanHi     frame size
+     */
+    SortedValueIndexFilteredRowCursor of(
+            PageFrameMemory pageFrameMemory,
+            DirectLongList rows,
+            long indexedLo,
+            long indexedHi,
+            long rowLo,
+            long scanLo,
+            long scanHi
+    ) {
+        this.rows = rows;
+        this.indexedPos = indexedLo;
+        this.indexedHi = indexedHi;
+        this.rowLo = rowLo;
+        this.scanPos = scanLo;
+        this.scanHi = scanHi;
+        record.init(pageFrameMemory);
+        record.setRowIndex(0);
+        return this;
+    }
+
+    void prepare(PageFrameCursor pageFrameCursor) {
+        record.of(pageFrameCursor);
+    }
+}
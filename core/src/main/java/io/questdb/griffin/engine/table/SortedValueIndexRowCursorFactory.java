@@ -0,0 +1,355 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.idx.QueryIndexMemoryBudget;
+import io.questdb.cairo.idx.SortedValueIndex;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.PartitionFormat;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.cairo.sql.RowCursorFactory;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.LongList;
+import io.questdb.std.LongObjHashMap;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+
+/**
+ * Row cursor factory that narrows down a filtered scan of an INT or LONG column with
+ * per-partition {@link SortedValueIndex} instances. The index is used for an equality,
+ * IN list, range or BETWEEN condition on the column, while the full filter still runs
+ * on every row the index picks.
+ * <p>
+ * This is a query-time optimisation, not a persisted index: it's only used for queries
+ * with the {@code value_index} hint, and the indexes are built by the query thread on
+ * first access to a native partition. They are kept by the factory, so cached queries,
+ * for example the ones with bind variables, reuse them across executions. An index is
+ * rebuilt when the partition gets rewritten by an O3 merge, UPDATE or TRUNCATE, or when
+ * the rows appended after the build outnumber the indexed ones. Until then the appended
+ * rows are scanned.
+ * <p>
+ * The index memory is reserved from the engine-wide {@link QueryIndexMemoryBudget}, shared
+ * by all the cached factories, and is given back when the factory closes. Partitions that
+ * do not fit into the budget, as well as Parquet partitions, are scanned in full.
+ */
+public class SortedValueIndexRowCursorFactory implements RowCursorFactory {
+    private final int columnIndex;
+    private final int columnType;
+    private final PushdownFilterExtractor.PushdownFilterCondition condition;
+    private final SortedValueIndexFilteredRowCursor cursor;
+    private final LongObjHashMap<SortedValueIndex> indexes = new LongObjHashMap<>();
+    private final QueryIndexMemoryBudget memoryBudget;
+    // inclusive [lo, hi] value ranges to look up
+    private final LongList ranges = new LongList();
+    private final int readerColumnIndex;
+    private final LongList values = new LongList();
+    private long memoryUsed;
+    private long partitionIndexedRowCount;
+    private int partitionIndex = -1;
+    private DirectLongList partitionRows;
+    private TableReader reader;
+
+    public SortedValueIndexRowCursorFactory(
+            int columnIndex,
+            int readerColumnIndex,
+            PushdownFilterExtractor.PushdownFilterCondition condition,
+            Function filter,
+            QueryIndexMemoryBudget memoryBudget
+    ) {
+        assert isSupported(condition);
+        this.columnIndex = columnIndex;
+        this.readerColumnIndex = readerColumnIndex;
+        this.columnType = condition.getColumnType();
+        this.condition = condition;
+        this.cursor = new SortedValueIndexFilteredRowCursor(filter);
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Returns true when the condition is on an INT or LONG column and compares it
+     * with integer values only.
+     */
+    public static boolean isSupported(PushdownFilterExtractor.PushdownFilterCondition condition) {
+        if (!SortedValueIndex.isSupportedColumnType(condition.getColumnType())) {
+            return false;
+        }
+        switch (condition.getOperationType()) {
+            case PushdownFilterExtractor.OP_EQ,
+                 PushdownFilterExtractor.OP_LT,
+                 PushdownFilterExtractor.OP_LE,
+                 PushdownFilterExtractor.OP_GT,
+                 PushdownFilterExtractor.OP_GE,
+                 PushdownFilterExtractor.OP_BETWEEN -> {
+            }
+            default -> {
+                return false;
+            }
+        }
+        final ObjList<Function> valueFunctions = condition.getValueFunctions();
+        if (valueFunctions.size() == 0) {
+            return false;
+        }
+        for (int i = 0, n = valueFunctions.size(); i < n; i++) {
+            switch (ColumnType.tagOf(valueFunctions.getQuick(i).getType())) {
+                case ColumnType.BYTE, ColumnType.SHORT, ColumnType.INT, ColumnType.LONG -> {
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        indexes.forEach((partitionTimestamp, index) -> index.close());
+        indexes.clear();
+        memoryBudget.release(memoryUsed);
+        memoryUsed = 0;
+        partitionRows = Misc.free(partitionRows);
+        Misc.free(condition);
+    }
+
+    @Override
+    public RowCursor getCursor(PageFrame pageFrame, PageFrameMemory pageFrameMemory) {
+        if (pageFrame.getPartitionIndex() != partitionIndex) {
+            ofPartition(pageFrame);
+        }
+        final long lo = pageFrame.getPartitionLo();
+        final long hi = pageFrame.getPartitionHi();
+        long indexedLo = 0;
+        long indexedHi = 0;
+        if (partitionIndexedRowCount > 0) {
+            indexedLo = lowerBound(lo);
+            indexedHi = lowerBound(hi);
+        }
+        return cursor.of(
+                pageFrameMemory,
+                partitionRows,
+                indexedLo,
+                indexedHi,
+                lo,
+                Math.max(lo, partitionIndexedRowCount) - lo,
+                hi - lo
+        );
+    }
+
+    @Override
+    public void init(PageFrameCursor pageFrameCursor, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        reader = pageFrameCursor instanceof TablePageFrameCursor ? ((TablePageFrameCursor) pageFrameCursor).getTableReader() : null;
+        partitionIndex = -1;
+        condition.init(sqlExecutionContext);
+        computeRanges();
+    }
+
+    @Override
+    public boolean isEntity() {
+        return false;
+    }
+
+    @Override
+    public boolean isStableWithinExecution() {
+        final Function filter = cursor.getFilter();
+        if (filter != null && !filter.isStableWithinExecution()) {
+            return false;
+        }
+        final ObjList<Function> valueFunctions = condition.getValueFunctions();
+        for (int i = 0, n = valueFunctions.size(); i < n; i++) {
+            if (!valueFunctions.getQuick(i).isStableWithinExecution()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isUsingIndex() {
+        return true;
+    }
+
+    @Override
+    public void prepareCursor(PageFrameCursor pageFrameCursor) {
+        cursor.prepare(pageFrameCursor);
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("Sorted value index scan").meta("on").putBaseColumnName(columnIndex);
+        sink.attr("filter").val(cursor.getFilter());
+    }
+
+    private void computeRanges() {
+        ranges.clear();
+        final ObjList<Function> valueFunctions = condition.getValueFunctions();
+        final long value = valueFunctions.getQuick(0).getLong(null);
+        switch (condition.getOperationType()) {
+            case PushdownFilterExtractor.OP_EQ -> {
+                values.clear();
+                for (int i = 0, n = valueFunctions.size(); i < n; i++) {
+                    values.add(valueFunctions.getQuick(i).getLong(null));
+                }
+                values.sort();
+                for (int i = 0, n = values.size(); i < n; i++) {
+                    final long v = values.getQuick(i);
+                    if (i == 0 || v != values.getQuick(i - 1)) {
+                        ranges.add(v, v);
+                    }
+                }
+            }
+            case PushdownFilterExtractor.OP_LT -> {
+                if (value != Long.MIN_VALUE) {
+                    ranges.add(Long.MIN_VALUE, value - 1);
+                }
+            }
+            case PushdownFilterExtractor.OP_LE -> ranges.add(Long.MIN_VALUE, value);
+            case PushdownFilterExtractor.OP_GT -> {
+                if (value != Long.MAX_VALUE) {
+                    ranges.add(value + 1, Long.MAX_VALUE);
+                }
+            }
+            case PushdownFilterExtractor.OP_GE -> ranges.add(value, Long.MAX_VALUE);
+            case PushdownFilterExtractor.OP_BETWEEN -> {
+                // BETWEEN accepts bounds in any order
+                final long other = valueFunctions.getQuick(1).getLong(null);
+                ranges.add(Math.min(value, other), Math.max(value, other));
+            }
+            default -> throw new UnsupportedOperationException();
+        }
+    }
+
+    private SortedValueIndex getIndex(int partitionIndex) {
+        final long rowCount = reader.getPartitionRowCount(partitionIndex);
+        if (rowCount < 1) {
+            return null;
+        }
+        final long partitionTimestamp = reader.getPartitionTimestampByIndex(partitionIndex);
+        final int columnBase = reader.getColumnBase(partitionIndex);
+        final long columnTop = reader.getColumnTop(columnBase, readerColumnIndex);
+        final long partitionNameTxn = reader.getTxFile().getPartitionNameTxn(partitionIndex);
+        final long columnNameTxn = reader.getColumnVersionReader().getColumnNameTxn(
+                partitionTimestamp,
+                reader.getMetadata().getWriterIndex(readerColumnIndex)
+        );
+        final long truncateVersion = reader.getTxFile().getTruncateVersion();
+
+        SortedValueIndex index = indexes.get(partitionTimestamp);
+        final boolean usable = index != null
+                && index.isBuiltFor(partitionNameTxn, columnNameTxn, columnTop, truncateVersion)
+                && index.getRowCount() <= rowCount;
+        if (usable && rowCount - index.getRowCount() <= index.getRowCount()) {
+            return index;
+        }
+
+        final long oldSize = index != null ? index.getSize() : 0;
+        final long sizeDelta = SortedValueIndex.sizeOf(rowCount) - oldSize;
+        if (sizeDelta > 0 && !memoryBudget.tryReserve(sizeDelta)) {
+            if (usable) {
+                // no room to extend the index, keep scanning the appended rows
+                return index;
+            }
+            if (index != null) {
+                index.close();
+                memoryBudget.release(oldSize);
+                memoryUsed -= oldSize;
+            }
+            return null;
+        }
+
+        if (index == null) {
+            index = new SortedValueIndex();
+            indexes.put(partitionTimestamp, index);
+        }
+        try {
+            index.of(
+                    reader.getColumn(TableReader.getPrimaryColumnIndex(columnBase, readerColumnIndex)),
+                    columnType,
+                    columnTop,
+                    rowCount,
+                    partitionNameTxn,
+                    columnNameTxn,
+                    truncateVersion
+            );
+        } catch (Throwable th) {
+            index.close();
+            memoryBudget.release(oldSize + Math.max(sizeDelta, 0));
+            memoryUsed -= oldSize;
+            throw th;
+        }
+        if (sizeDelta < 0) {
+            memoryBudget.release(-sizeDelta);
+        }
+        memoryUsed += sizeDelta;
+        return index;
+    }
+
+    // position of the first partition row id that is greater than or equal to the given row
+    private long lowerBound(long row) {
+        long lo = 0;
+        long hi = partitionRows.size();
+        while (lo < hi) {
+            final long mid = (lo + hi) >>> 1;
+            if (partitionRows.get(mid) < row) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void ofPartition(PageFrame pageFrame) {
+        partitionIndex = pageFrame.getPartitionIndex();
+        partitionIndexedRowCount = 0;
+        if (partitionRows == null) {
+            partitionRows = new DirectLongList(16, MemoryTag.NATIVE_INDEX_READER);
+        }
+        partitionRows.clear();
+        if (reader == null || pageFrame.getFormat() != PartitionFormat.NATIVE || ranges.size() == 0) {
+            return;
+        }
+        final SortedValueIndex index = getIndex(partitionIndex);
+        if (index == null) {
+            return;
+        }
+        for (int i = 0, n = ranges.size(); i < n; i += 2) {
+            final long hi = index.findHi(ranges.getQuick(i + 1));
+            for (long p = index.findLo(ranges.getQuick(i)); p < hi; p++) {
+                partitionRows.add(index.getRowId(p));
+            }
+        }
+        partitionRows.sortAsUnsigned();
+        partitionIndexedRowCount = index.getRowCount();
+    }
+}
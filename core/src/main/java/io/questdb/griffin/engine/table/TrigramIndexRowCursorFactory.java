@@ -0,0 +1,390 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.idx.QueryIndexMemoryBudget;
+import io.questdb.cairo.idx.TrigramIndex;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.PartitionFormat;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.cairo.sql.RowCursorFactory;
+import io.questdb.cairo.vm.api.MemoryCR;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.regex.Utf8Regex;
+import io.questdb.std.Chars;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.IntList;
+import io.questdb.std.LongList;
+import io.questdb.std.LongObjHashMap;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8String;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Row cursor factory that narrows down a filtered scan of a VARCHAR or STRING column with
+ * per-partition {@link TrigramIndex} instances. The index is used for a LIKE, ILIKE or regex
+ * match condition on the column, represented as groups of trigrams: a row is picked when it
+ * contains all the trigrams of at least one group. The full filter still runs on every picked row.
+ * <p>
+ * Same as {@link SortedValueIndexRowCursorFactory}, this is a query-time optimisation used only
+ * for queries with the {@code trigram_index} hint. Indexes are built by the query thread, kept,
+ * invalidated and accounted against the engine-wide {@link QueryIndexMemoryBudget} the same way.
+ * The scan that uses them is single-threaded, so the hint pays off for selective patterns on
+ * repeatedly queried partitions, while other queries keep the parallel filter.
+ */
+public class TrigramIndexRowCursorFactory implements RowCursorFactory {
+    // [lo, hi) posting list bounds of the current group's trigrams
+    private final LongList bounds = new LongList();
+    private final int columnIndex;
+    private final int columnType;
+    private final SortedValueIndexFilteredRowCursor cursor;
+    private final ObjList<IntList> groups;
+    private final LongObjHashMap<TrigramIndex> indexes = new LongObjHashMap<>();
+    private final QueryIndexMemoryBudget memoryBudget;
+    private final int readerColumnIndex;
+    private long memoryUsed;
+    private int partitionIndex = -1;
+    private long partitionIndexedRowCount;
+    private DirectLongList partitionRows;
+    private TableReader reader;
+
+    public TrigramIndexRowCursorFactory(
+            int columnIndex,
+            int readerColumnIndex,
+            int columnType,
+            ObjList<IntList> groups,
+            Function filter,
+            QueryIndexMemoryBudget memoryBudget
+    ) {
+        assert groups.size() > 0 && TrigramIndex.isSupportedColumnType(columnType);
+        this.columnIndex = columnIndex;
+        this.columnType = columnType;
+        this.readerColumnIndex = readerColumnIndex;
+        this.groups = groups;
+        this.cursor = new SortedValueIndexFilteredRowCursor(filter);
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Returns trigram groups for a LIKE or ILIKE pattern, or null when the pattern has no
+     * literal run of at least 3 bytes. ILIKE patterns with non-ASCII chars are not supported,
+     * since their case folding is not limited to ASCII letters.
+     */
+    public static @Nullable ObjList<IntList> likeTrigrams(CharSequence pattern, boolean caseInsensitive) {
+        if (caseInsensitive && !Chars.isAscii(pattern)) {
+            return null;
+        }
+        final IntList trigrams = new IntList();
+        final StringBuilder run = new StringBuilder();
+        for (int i = 0, n = pattern.length(); i < n; i++) {
+            final char c = pattern.charAt(i);
+            if (c == '\\' && i + 1 < n) {
+                run.append(pattern.charAt(++i));
+            } else if (c == '%' || c == '_') {
+                addTrigrams(new Utf8String(run), trigrams);
+                run.setLength(0);
+            } else {
+                run.append(c);
+            }
+        }
+        addTrigrams(new Utf8String(run), trigrams);
+        if (trigrams.size() == 0) {
+            return null;
+        }
+        final ObjList<IntList> groups = new ObjList<>();
+        groups.add(trigrams);
+        return groups;
+    }
+
+    /**
+     * Returns trigram groups for a regex pattern, one per literal that a match may contain,
+     * or null when the pattern has no required literals or some of them are shorter than 3 bytes.
+     */
+    public static @Nullable ObjList<IntList> regexTrigrams(CharSequence pattern) {
+        final Utf8Regex regex = Utf8Regex.compile(pattern);
+        if (regex == null) {
+            return null;
+        }
+        final ObjList<Utf8String> literals = regex.getRequiredLiterals();
+        if (literals == null) {
+            return null;
+        }
+        final ObjList<IntList> groups = new ObjList<>(literals.size());
+        for (int i = 0, n = literals.size(); i < n; i++) {
+            final Utf8String literal = literals.getQuick(i);
+            if (literal.size() < 3) {
+                return null;
+            }
+            final IntList trigrams = new IntList();
+            addTrigrams(literal, trigrams);
+            groups.add(trigrams);
+        }
+        return groups;
+    }
+
+    @Override
+    public void close() {
+        indexes.forEach((partitionTimestamp, index) -> index.close());
+        indexes.clear();
+        memoryBudget.release(memoryUsed);
+        memoryUsed = 0;
+        partitionRows = Misc.free(partitionRows);
+    }
+
+    @Override
+    public RowCursor getCursor(PageFrame pageFrame, PageFrameMemory pageFrameMemory) {
+        if (pageFrame.getPartitionIndex() != partitionIndex) {
+            ofPartition(pageFrame);
+        }
+        final long lo = pageFrame.getPartitionLo();
+        final long hi = pageFrame.getPartitionHi();
+        long indexedLo = 0;
+        long indexedHi = 0;
+        if (partitionIndexedRowCount > 0) {
+            indexedLo = lowerBound(lo);
+            indexedHi = lowerBound(hi);
+        }
+        return cursor.of(
+                pageFrameMemory,
+                partitionRows,
+                indexedLo,
+                indexedHi,
+                lo,
+                Math.max(lo, partitionIndexedRowCount) - lo,
+                hi - lo
+        );
+    }
+
+    @Override
+    public void init(PageFrameCursor pageFrameCursor, SqlExecutionContext sqlExecutionContext) {
+        reader = pageFrameCursor instanceof TablePageFrameCursor ? ((TablePageFrameCursor) pageFrameCursor).getTableReader() : null;
+        partitionIndex = -1;
+    }
+
+    @Override
+    public boolean isEntity() {
+        return false;
+    }
+
+    @Override
+    public boolean isStableWithinExecution() {
+        final Function filter = cursor.getFilter();
+        return filter == null || filter.isStableWithinExecution();
+    }
+
+    @Override
+    public boolean isUsingIndex() {
+        return true;
+    }
+
+    @Override
+    public void prepareCursor(PageFrameCursor pageFrameCursor) {
+        cursor.prepare(pageFrameCursor);
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("Trigram index scan").meta("on").putBaseColumnName(columnIndex);
+        sink.attr("filter").val(cursor.getFilter());
+    }
+
+    private static void addTrigrams(Utf8Sequence bytes, IntList trigrams) {
+        for (int i = 2, n = bytes.size(); i < n; i++) {
+            final int trigram = TrigramIndex.trigram(
+                    TrigramIndex.foldAscii(bytes.byteAt(i - 2)),
+                    TrigramIndex.foldAscii(bytes.byteAt(i - 1)),
+                    TrigramIndex.foldAscii(bytes.byteAt(i))
+            );
+            if (!trigrams.contains(trigram)) {
+                trigrams.add(trigram);
+            }
+        }
+    }
+
+    // appends rows that contain all trigrams of the group
+    private void addGroupRows(TrigramIndex index, IntList group) {
+        bounds.clear();
+        int rarest = -1;
+        for (int i = 0, n = group.size(); i < n; i++) {
+            final int trigram = group.getQuick(i);
+            final long lo = index.findLo(trigram);
+            final long hi = index.findHi(trigram);
+            if (lo == hi) {
+                return;
+            }
+            bounds.add(lo, hi);
+            if (rarest == -1 || hi - lo < bounds.getQuick(2 * rarest + 1) - bounds.getQuick(2 * rarest)) {
+                rarest = i;
+            }
+        }
+        for (long p = bounds.getQuick(2 * rarest), hi = bounds.getQuick(2 * rarest + 1); p < hi; p++) {
+            final long row = index.getRowId(p);
+            boolean found = true;
+            for (int i = 0, n = group.size(); i < n && found; i++) {
+                found = i == rarest || index.contains(bounds.getQuick(2 * i), bounds.getQuick(2 * i + 1), row);
+            }
+            if (found) {
+                partitionRows.add(row);
+            }
+        }
+    }
+
+    private TrigramIndex getIndex(int partitionIndex) {
+        final long rowCount = reader.getPartitionRowCount(partitionIndex);
+        if (rowCount < 1 || rowCount > TrigramIndex.MAX_ROW_COUNT) {
+            return null;
+        }
+        final long partitionTimestamp = reader.getPartitionTimestampByIndex(partitionIndex);
+        final int columnBase = reader.getColumnBase(partitionIndex);
+        final long columnTop = reader.getColumnTop(columnBase, readerColumnIndex);
+        final long partitionNameTxn = reader.getTxFile().getPartitionNameTxn(partitionIndex);
+        final long columnNameTxn = reader.getColumnVersionReader().getColumnNameTxn(
+                partitionTimestamp,
+                reader.getMetadata().getWriterIndex(readerColumnIndex)
+        );
+        final long truncateVersion = reader.getTxFile().getTruncateVersion();
+
+        TrigramIndex index = indexes.get(partitionTimestamp);
+        final boolean usable = index != null
+                && index.isBuiltFor(partitionNameTxn, columnNameTxn, columnTop, truncateVersion)
+                && index.getRowCount() <= rowCount;
+        if (usable && rowCount - index.getRowCount() <= index.getRowCount()) {
+            return index;
+        }
+
+        if (index == null) {
+            index = new TrigramIndex();
+            indexes.put(partitionTimestamp, index);
+        }
+        final int primaryIndex = TableReader.getPrimaryColumnIndex(columnBase, readerColumnIndex);
+        final MemoryCR dataMem = reader.getColumn(primaryIndex);
+        final MemoryCR auxMem = reader.getColumn(primaryIndex + 1);
+        final long entryCount = columnTop < rowCount ? index.countEntries(columnType, auxMem, dataMem, columnTop, rowCount) : 0;
+        final long oldSize = index.getSize();
+        // the entries are sorted in a scratch buffer that reuses the memory of the old index
+        final long sizeDelta = TrigramIndex.sortSizeOf(entryCount) - oldSize;
+        if (sizeDelta > 0 && !memoryBudget.tryReserve(sizeDelta)) {
+            if (usable) {
+                // no room to extend the index, keep scanning the appended rows
+                return index;
+            }
+            releaseIndex(index, oldSize, oldSize);
+            return null;
+        }
+
+        long reserved = oldSize + Math.max(sizeDelta, 0);
+        try {
+            index.of(
+                    columnType,
+                    auxMem,
+                    dataMem,
+                    columnTop,
+                    rowCount,
+                    entryCount,
+                    partitionNameTxn,
+                    columnNameTxn,
+                    truncateVersion
+            );
+            final long directorySize = index.getDirectorySize();
+            if (!memoryBudget.tryReserve(directorySize)) {
+                releaseIndex(index, oldSize, reserved);
+                return null;
+            }
+            reserved += directorySize;
+            index.compact();
+        } catch (Throwable th) {
+            releaseIndex(index, oldSize, reserved);
+            throw th;
+        }
+        // the compacted index is smaller than the scratch buffer
+        memoryBudget.release(reserved - index.getSize());
+        memoryUsed += index.getSize() - oldSize;
+        return index;
+    }
+
+    // position of the first partition row id that is greater than or equal to the given row
+    private long lowerBound(long row) {
+        long lo = 0;
+        long hi = partitionRows.size();
+        while (lo < hi) {
+            final long mid = (lo + hi) >>> 1;
+            if (partitionRows.get(mid) < row) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void ofPartition(PageFrame pageFrame) {
+        partitionIndex = pageFrame.getPartitionIndex();
+        partitionIndexedRowCount = 0;
+        if (partitionRows == null) {
+            partitionRows = new DirectLongList(16, MemoryTag.NATIVE_INDEX_READER);
+        }
+        partitionRows.clear();
+        if (reader == null || pageFrame.getFormat() != PartitionFormat.NATIVE) {
+            return;
+        }
+        final TrigramIndex index = getIndex(partitionIndex);
+        if (index == null) {
+            return;
+        }
+        for (int i = 0, n = groups.size(); i < n; i++) {
+            addGroupRows(index, groups.getQuick(i));
+        }
+        if (groups.size() > 1 && partitionRows.size() > 1) {
+            // rows of different groups may interleave and repeat
+            partitionRows.sortAsUnsigned();
+            long last = partitionRows.get(0);
+            long size = 1;
+            for (long i = 1, n = partitionRows.size(); i < n; i++) {
+                final long row = partitionRows.get(i);
+                if (row != last) {
+                    partitionRows.set(size++, row);
+                    last = row;
+                }
+            }
+            partitionRows.setPos(size);
+        }
+        partitionIndexedRowCount = index.getRowCount();
+    }
+
+    private void releaseIndex(TrigramIndex index, long oldSize, long reserved) {
+        index.close();
+        memoryBudget.release(reserved);
+        memoryUsed -= oldSize;
+    }
+}
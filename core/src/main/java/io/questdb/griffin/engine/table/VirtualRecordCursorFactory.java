@@ -260,7 +260,7 @@ public class VirtualRecordCursorFactory extends AbstractRecordCursorFactory {
         CairoException.rethrowCleanupFailure(cleanupFailure);
     }
 
-    private static class VirtualRecordCursorFactorySymbolTableSource implements SymbolTableSource {
+    public static class VirtualRecordCursorFactorySymbolTableSource implements SymbolTableSource {
         private final RecordCursor own;
         private final int virtualColumnReservedSlots;
         private RecordCursor base;
@@ -270,6 +270,10 @@ public class VirtualRecordCursorFactory extends AbstractRecordCursorFactory {
             this.virtualColumnReservedSlots = virtualColumnReservedSlots;
         }
 
+        public RecordCursor getBase() {
+            return base;
+        }
+
         @Override
         public SymbolTable getSymbolTable(int columnIndex) {
             if (columnIndex < virtualColumnReservedSlots) {
@@ -278,6 +282,14 @@ public class VirtualRecordCursorFactory extends AbstractRecordCursorFactory {
             return base.getSymbolTable(columnIndex - virtualColumnReservedSlots);
         }
 
+        /**
+         * Returns the number of leading column indexes that refer to the projection itself;
+         * base cursor columns follow them.
+         */
+        public int getVirtualColumnReservedSlots() {
+            return virtualColumnReservedSlots;
+        }
+
         @Override
         public SymbolTable newSymbolTable(int columnIndex) {
             if (columnIndex < virtualColumnReservedSlots) {
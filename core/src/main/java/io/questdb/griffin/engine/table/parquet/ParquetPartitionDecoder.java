@@ -50,6 +50,10 @@ public class ParquetPartitionDecoder implements ParquetDecoder, QuietCloseable {
     protected long parquetMetaAddr;
     protected long parquetMetaSize;
     protected long parquetSize;
+    private ParquetRowGroupCache rowGroupCache;
+    private long rowGroupCachePartitionNameTxn;
+    private long rowGroupCachePartitionTimestamp;
+    private int rowGroupCacheTableId;
 
     public static boolean decodeNoNeedToDecodeFlag(long encodedIndex) {
         return (encodedIndex & 1) == 1;
@@ -253,6 +257,26 @@ public class ParquetPartitionDecoder implements ParquetDecoder, QuietCloseable {
         return parquetSize;
     }
 
+    /**
+     * Returns the engine-wide decoded row group cache, or null when the decoder is
+     * not bound to a table partition or the cache is disabled.
+     */
+    public ParquetRowGroupCache getRowGroupCache() {
+        return rowGroupCache;
+    }
+
+    public long getRowGroupCachePartitionNameTxn() {
+        return rowGroupCachePartitionNameTxn;
+    }
+
+    public long getRowGroupCachePartitionTimestamp() {
+        return rowGroupCachePartitionTimestamp;
+    }
+
+    public int getRowGroupCacheTableId() {
+        return rowGroupCacheTableId;
+    }
+
     public ParquetMetaFileReader metadata() {
         return parquetMetaReader;
     }
@@ -316,6 +340,17 @@ public class ParquetPartitionDecoder implements ParquetDecoder, QuietCloseable {
         this.parquetSize = other.parquetSize;
         this.allocator = other.allocator;
         this.parquetMetaReader.of(other.parquetMetaReader);
+        ofRowGroupCache(other);
+    }
+
+    /**
+     * Copies the row group cache binding of another decoder over the same file.
+     */
+    public void ofRowGroupCache(ParquetPartitionDecoder other) {
+        this.rowGroupCache = other.rowGroupCache;
+        this.rowGroupCacheTableId = other.rowGroupCacheTableId;
+        this.rowGroupCachePartitionTimestamp = other.rowGroupCachePartitionTimestamp;
+        this.rowGroupCachePartitionNameTxn = other.rowGroupCachePartitionNameTxn;
     }
 
     public long rowGroupMaxTimestamp(int rowGroupIndex, int timestampColumnIndex) {
@@ -326,6 +361,19 @@ public class ParquetPartitionDecoder implements ParquetDecoder, QuietCloseable {
         return parquetMetaReader.getRowGroupMinTimestamp(rowGroupIndex, timestampColumnIndex);
     }
 
+    /**
+     * Binds the decoder to the engine-wide decoded row group cache. Table id, partition
+     * timestamp and partition name txn, together with the file size, identify the
+     * version of the Parquet file in cache keys. The binding is dropped on the next
+     * {@link #of} or {@link #close()}.
+     */
+    public void setRowGroupCache(ParquetRowGroupCache rowGroupCache, int tableId, long partitionTimestamp, long partitionNameTxn) {
+        this.rowGroupCache = rowGroupCache != null && rowGroupCache.isEnabled() ? rowGroupCache : null;
+        this.rowGroupCacheTableId = tableId;
+        this.rowGroupCachePartitionTimestamp = partitionTimestamp;
+        this.rowGroupCachePartitionNameTxn = partitionNameTxn;
+    }
+
     protected static int decodeRowGroupFromBuffersShim(
             long decodeContextPtr,
             long parquetMetaReaderPtr,
@@ -503,6 +551,7 @@ public class ParquetPartitionDecoder implements ParquetDecoder, QuietCloseable {
         parquetMetaSize = 0;
         parquetAddr = 0;
         parquetSize = 0;
+        rowGroupCache = null;
     }
 
     static {
@@ -0,0 +1,365 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table.parquet;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.std.DirectIntList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Mutable;
+import io.questdb.std.ObjList;
+import io.questdb.std.ObjObjHashMap;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Engine-wide, memory-bounded cache of decoded Parquet column chunks. Page frame
+ * memory pools keep decoded row groups only for the lifetime of one cursor, so
+ * repeated queries over the same Parquet partitions would otherwise decode the
+ * same row groups on every run.
+ * <p>
+ * An entry holds a copy of one decoded column chunk. It is keyed by the Parquet
+ * file (table id, partition timestamp, partition name txn and file size), the
+ * row group, the decoded row window, the Parquet column index and the decode
+ * type. Rewriting a partition changes its name txn or file size, so stale
+ * entries are never hit and simply age out of the LRU.
+ * <p>
+ * Readers pin entries with {@link #acquire} and unpin them with {@link #release}.
+ * Pinned entries are never freed; eviction picks the least recently used unpinned
+ * entry. Entries evicted or cleared while pinned are freed on their last release.
+ * Only fixed-size columns are cached: decoded var-size aux vectors may hold
+ * absolute pointers into decoder-owned memory.
+ * <p>
+ * This class is thread-safe.
+ */
+public class ParquetRowGroupCache implements QuietCloseable, Mutable {
+    private final ObjObjHashMap<Entry, Entry> entries = new ObjObjHashMap<>();
+    private final Entry lookupKey = new Entry();
+    private final long maxBytes;
+    private final ParquetRowGroupCacheMetrics metrics;
+    private long cachedBytes;
+    private Entry lruHead;
+    private Entry lruTail;
+
+    public ParquetRowGroupCache(long maxBytes, ParquetRowGroupCacheMetrics metrics) {
+        this.maxBytes = Math.max(maxBytes, 0L);
+        this.metrics = metrics;
+    }
+
+    public static boolean isCacheable(int decodeType) {
+        return !ColumnType.isVarSize(decodeType);
+    }
+
+    /**
+     * Pins the cached chunks of all {@code [parquet_column_index, column_type]} pairs
+     * in {@code columns} and appends them to {@code sink} in slot order. Returns false
+     * and pins nothing unless every column is cached.
+     */
+    public synchronized boolean acquire(
+            ParquetPartitionDecoder decoder,
+            DirectIntList columns,
+            int rowGroup,
+            int rowLo,
+            int rowHi,
+            ObjList<Entry> sink
+    ) {
+        assert sink.size() == 0;
+        for (long i = 0, n = columns.size(); i < n; i += 2) {
+            final int decodeType = columns.get(i + 1);
+            final Entry entry = isCacheable(decodeType)
+                    ? entries.get(lookupKey.of(decoder, rowGroup, rowLo, rowHi, columns.get(i), decodeType))
+                    : null;
+            if (entry == null) {
+                metrics.onMiss();
+                for (int j = 0, m = sink.size(); j < m; j++) {
+                    release0(sink.getQuick(j));
+                }
+                sink.clear();
+                return false;
+            }
+            metrics.onHit();
+            entry.pinCount++;
+            lruMoveToTail(entry);
+            sink.add(entry);
+        }
+        return true;
+    }
+
+    /**
+     * Drops every entry. Pinned entries are freed once released.
+     */
+    @Override
+    public synchronized void clear() {
+        Entry entry = lruHead;
+        while (entry != null) {
+            final Entry next = entry.next;
+            evict(entry);
+            entry = next;
+        }
+        assert entries.size() == 0;
+        metrics.setCachedBytes(cachedBytes);
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    @TestOnly
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    @TestOnly
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Copies the decoded chunks of cacheable columns that are not cached yet. Chunks
+     * that do not fit the budget, even after evicting all unpinned entries, are skipped.
+     */
+    public void put(
+            ParquetPartitionDecoder decoder,
+            DirectIntList columns,
+            int rowGroup,
+            int rowLo,
+            int rowHi,
+            RowGroupBuffers buffers
+    ) {
+        for (int slot = 0, n = (int) (columns.size() / 2); slot < n; slot++) {
+            final int parquetColumn = columns.get(2L * slot);
+            final int decodeType = columns.get(2L * slot + 1);
+            final long size = buffers.getChunkDataSize(slot);
+            if (!isCacheable(decodeType) || size > maxBytes || contains(decoder, rowGroup, rowLo, rowHi, parquetColumn, decodeType)) {
+                continue;
+            }
+            // Copy outside the lock; a concurrent put of the same chunk is resolved in insert().
+            final Entry entry = new Entry().of(decoder, rowGroup, rowLo, rowHi, parquetColumn, decodeType);
+            entry.columnTop = buffers.getChunkColumnTop(slot);
+            if (size > 0) {
+                try {
+                    entry.address = Unsafe.malloc(size, MemoryTag.NATIVE_PARQUET_PARTITION_DECODER);
+                } catch (CairoException e) {
+                    // The cache is best effort: running into the RSS limit must not fail the query.
+                    return;
+                }
+                entry.size = size;
+                Vect.memcpy(entry.address, buffers.getChunkDataPtr(slot), size);
+            }
+            insert(entry);
+        }
+    }
+
+    public synchronized void release(ObjList<Entry> pinned) {
+        for (int i = 0, n = pinned.size(); i < n; i++) {
+            release0(pinned.getQuick(i));
+        }
+        pinned.clear();
+    }
+
+    private static void free(Entry entry) {
+        if (entry.address != 0) {
+            Unsafe.free(entry.address, entry.size, MemoryTag.NATIVE_PARQUET_PARTITION_DECODER);
+            entry.address = 0;
+        }
+    }
+
+    private synchronized boolean contains(
+            ParquetPartitionDecoder decoder,
+            int rowGroup,
+            int rowLo,
+            int rowHi,
+            int parquetColumn,
+            int decodeType
+    ) {
+        return entries.keyIndex(lookupKey.of(decoder, rowGroup, rowLo, rowHi, parquetColumn, decodeType)) < 0;
+    }
+
+    private void evict(Entry entry) {
+        entries.remove(entry);
+        lruUnlink(entry);
+        cachedBytes -= entry.size;
+        if (entry.pinCount == 0) {
+            free(entry);
+        } else {
+            entry.isEvicted = true;
+        }
+    }
+
+    private synchronized void insert(Entry entry) {
+        final int keyIndex = entries.keyIndex(entry);
+        if (keyIndex < 0) {
+            free(entry);
+            return;
+        }
+        Entry victim = lruHead;
+        while (victim != null && cachedBytes + entry.size > maxBytes) {
+            final Entry next = victim.next;
+            if (victim.pinCount == 0) {
+                evict(victim);
+                metrics.onEvicted();
+            }
+            victim = next;
+        }
+        if (cachedBytes + entry.size > maxBytes) {
+            // Everything left is pinned.
+            free(entry);
+            metrics.setCachedBytes(cachedBytes);
+            return;
+        }
+        // Evictions shift probe chains, so keyIndex is stale by now.
+        entries.put(entry, entry);
+        lruAppend(entry);
+        cachedBytes += entry.size;
+        metrics.setCachedBytes(cachedBytes);
+    }
+
+    private void lruAppend(Entry entry) {
+        entry.prev = lruTail;
+        entry.next = null;
+        if (lruTail != null) {
+            lruTail.next = entry;
+        } else {
+            lruHead = entry;
+        }
+        lruTail = entry;
+    }
+
+    private void lruMoveToTail(Entry entry) {
+        if (entry != lruTail) {
+            lruUnlink(entry);
+            lruAppend(entry);
+        }
+    }
+
+    private void lruUnlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            lruHead = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            lruTail = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private void release0(Entry entry) {
+        assert entry.pinCount > 0;
+        if (--entry.pinCount == 0 && entry.isEvicted) {
+            free(entry);
+        }
+    }
+
+    public static class Entry {
+        private long address;
+        private long columnTop;
+        private int decodeType;
+        private long fileSize;
+        private boolean isEvicted;
+        private Entry next;
+        private int parquetColumn;
+        private long partitionNameTxn;
+        private long partitionTimestamp;
+        private int pinCount;
+        private Entry prev;
+        private int rowGroup;
+        private int rowHi;
+        private int rowLo;
+        private long size;
+        private int tableId;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry that)) {
+                return false;
+            }
+            return tableId == that.tableId
+                    && partitionTimestamp == that.partitionTimestamp
+                    && partitionNameTxn == that.partitionNameTxn
+                    && fileSize == that.fileSize
+                    && rowGroup == that.rowGroup
+                    && rowLo == that.rowLo
+                    && rowHi == that.rowHi
+                    && parquetColumn == that.parquetColumn
+                    && decodeType == that.decodeType;
+        }
+
+        public long getAddress() {
+            return address;
+        }
+
+        public long getColumnTop() {
+            return columnTop;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public int hashCode() {
+            long h = partitionTimestamp * 31 + partitionNameTxn;
+            h = h * 31 + fileSize;
+            h = h * 31 + tableId;
+            h = h * 31 + rowGroup;
+            h = h * 31 + rowLo;
+            h = h * 31 + rowHi;
+            h = h * 31 + parquetColumn;
+            h = h * 31 + decodeType;
+            return Long.hashCode(h);
+        }
+
+        private Entry of(ParquetPartitionDecoder decoder, int rowGroup, int rowLo, int rowHi, int parquetColumn, int decodeType) {
+            this.tableId = decoder.getRowGroupCacheTableId();
+            this.partitionTimestamp = decoder.getRowGroupCachePartitionTimestamp();
+            this.partitionNameTxn = decoder.getRowGroupCachePartitionNameTxn();
+            this.fileSize = decoder.getFileSize();
+            this.rowGroup = rowGroup;
+            this.rowLo = rowLo;
+            this.rowHi = rowHi;
+            this.parquetColumn = parquetColumn;
+            this.decodeType = decodeType;
+            return this;
+        }
+    }
+}
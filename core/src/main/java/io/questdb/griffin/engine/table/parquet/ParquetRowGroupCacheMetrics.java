@@ -0,0 +1,90 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table.parquet;
+
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.LongGauge;
+import io.questdb.metrics.MetricsRegistry;
+import io.questdb.std.Mutable;
+
+public class ParquetRowGroupCacheMetrics implements Mutable {
+    private final LongGauge cachedBytesGauge;
+    private final Counter evictionCounter;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public ParquetRowGroupCacheMetrics(MetricsRegistry metricsRegistry) {
+        this.hitCounter = metricsRegistry.newCounter("parquet_row_group_cache_hits");
+        this.missCounter = metricsRegistry.newCounter("parquet_row_group_cache_misses");
+        this.evictionCounter = metricsRegistry.newCounter("parquet_row_group_cache_evictions");
+        this.cachedBytesGauge = metricsRegistry.newLongGauge("parquet_row_group_cache_bytes");
+    }
+
+    @Override
+    public void clear() {
+        hitCounter.reset();
+        missCounter.reset();
+        evictionCounter.reset();
+        cachedBytesGauge.setValue(0);
+    }
+
+    public long getEvictionCount() {
+        return evictionCounter.getValue();
+    }
+
+    public long getHitCount() {
+        return hitCounter.getValue();
+    }
+
+    /**
+     * Returns the share of column chunk lookups served from the cache, or 0 when
+     * there were no lookups yet.
+     */
+    public double getHitRatio() {
+        final long hits = hitCounter.getValue();
+        final long lookups = hits + missCounter.getValue();
+        return lookups > 0 ? (double) hits / lookups : 0;
+    }
+
+    public long getMissCount() {
+        return missCounter.getValue();
+    }
+
+    public void onEvicted() {
+        evictionCounter.inc();
+    }
+
+    public void onHit() {
+        hitCounter.inc();
+    }
+
+    public void onMiss() {
+        missCounter.inc();
+    }
+
+    public void setCachedBytes(long cachedBytes) {
+        cachedBytesGauge.setValue(cachedBytes);
+    }
+}
@@ -103,6 +103,9 @@ public interface IQueryModel extends Mutable, ExecutionModel, AliasTranslator, S
     int SHOW_TRANSACTION = 4;
     int SHOW_TRANSACTION_ISOLATION_LEVEL = 5;
     String SUB_QUERY_ALIAS_PREFIX = "_xQdbA";
+    int TABLESAMPLE_BERNOULLI = 2;
+    int TABLESAMPLE_NONE = 0;
+    int TABLESAMPLE_SYSTEM = 1;
 
     /**
      * Recursively clones the current value of whereClause for the model and its sub-models into the backupWhereClause field.
@@ -416,6 +419,12 @@ public interface IQueryModel extends Mutable, ExecutionModel, AliasTranslator, S
 
     RecordCursorFactory getTableNameFunction();
 
+    int getTableSampleMethod();
+
+    ExpressionNode getTableSamplePercent();
+
+    ExpressionNode getTableSampleSeed();
+
     ExpressionNode getTimestamp();
 
     int getTimestampColumnIndex();
@@ -675,6 +684,8 @@ public interface IQueryModel extends Mutable, ExecutionModel, AliasTranslator, S
 
     void setTableNameFunction(RecordCursorFactory function);
 
+    void setTableSample(int method, ExpressionNode percent, ExpressionNode seed);
+
     void setTimestamp(ExpressionNode timestamp);
 
     void setTimestampColumnIndex(int index);
@@ -193,6 +193,9 @@ public class QueryModel implements IQueryModel {
     private int tableId = -1;
     private ExpressionNode tableNameExpr;
     private RecordCursorFactory tableNameFunction;
+    private int tableSampleMethod = TABLESAMPLE_NONE;
+    private ExpressionNode tableSamplePercent;
+    private ExpressionNode tableSampleSeed;
     private ExpressionNode timestamp;
     private int timestampColumnIndex = -1;      // Index of the timestamp column in virtual models (-1 means not set)
     private CharSequence timestampOffsetAlias;  // The alias name for the transformed timestamp (e.g., "ts")
@@ -496,6 +499,9 @@ public class QueryModel implements IQueryModel {
         overridableDecls.clear();
         orderDescendingByDesignatedTimestampOnly = false;
         forceBackwardScan = false;
+        tableSampleMethod = TABLESAMPLE_NONE;
+        tableSamplePercent = null;
+        tableSampleSeed = null;
         hintsMap.clear();
         asOfJoinTolerance = null;
         horizonJoinContext.clear();
@@ -1109,6 +1115,21 @@ public class QueryModel implements IQueryModel {
         return tableNameFunction;
     }
 
+    @Override
+    public int getTableSampleMethod() {
+        return tableSampleMethod;
+    }
+
+    @Override
+    public ExpressionNode getTableSamplePercent() {
+        return tableSamplePercent;
+    }
+
+    @Override
+    public ExpressionNode getTableSampleSeed() {
+        return tableSampleSeed;
+    }
+
     @Override
     public ExpressionNode getTimestamp() {
         return timestamp;
@@ -1954,6 +1975,13 @@ public class QueryModel implements IQueryModel {
         this.tableNameFunction = function;
     }
 
+    @Override
+    public void setTableSample(int method, ExpressionNode percent, ExpressionNode seed) {
+        this.tableSampleMethod = method;
+        this.tableSamplePercent = percent;
+        this.tableSampleSeed = seed;
+    }
+
     @Override
     public void setTimestamp(ExpressionNode timestamp) {
         this.timestamp = timestamp;
@@ -2070,6 +2098,17 @@ public class QueryModel implements IQueryModel {
                 sink.putAscii(')');
             }
 
+            if (tableSampleMethod != TABLESAMPLE_NONE) {
+                sink.putAscii(tableSampleMethod == TABLESAMPLE_SYSTEM ? " tablesample system (" : " tablesample bernoulli (");
+                tableSamplePercent.toSink(sink);
+                sink.putAscii(')');
+                if (tableSampleSeed != null) {
+                    sink.putAscii(" repeatable (");
+                    tableSampleSeed.toSink(sink);
+                    sink.putAscii(')');
+                }
+            }
+
             // Output timestamp offset info if present (for dateadd-transformed timestamps)
             if (hasTimestampOffset()) {
                 sink.putAscii(" ts_offset ('");
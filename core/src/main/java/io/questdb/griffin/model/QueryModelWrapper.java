@@ -676,6 +676,21 @@ public class QueryModelWrapper implements IQueryModel {
         return delegate.getTableNameFunction();
     }
 
+    @Override
+    public int getTableSampleMethod() {
+        return delegate.getTableSampleMethod();
+    }
+
+    @Override
+    public ExpressionNode getTableSamplePercent() {
+        return delegate.getTableSamplePercent();
+    }
+
+    @Override
+    public ExpressionNode getTableSampleSeed() {
+        return delegate.getTableSampleSeed();
+    }
+
     @Override
     public ExpressionNode getTimestamp() {
         return delegate.getTimestamp();
@@ -1312,6 +1327,11 @@ public class QueryModelWrapper implements IQueryModel {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void setTableSample(int method, ExpressionNode percent, ExpressionNode seed) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void setTimestamp(ExpressionNode timestamp) {
         throw new UnsupportedOperationException();
@@ -87,7 +87,8 @@ public class WorkerPoolUtils {
             sharedPoolQuery.assign(new PageFrameReduceJob(
                     cairoEngine,
                     messageBus,
-                    new Rnd(microsecondClock.getTicks(), nanosecondClock.getTicks())
+                    new Rnd(microsecondClock.getTicks(), nanosecondClock.getTicks()),
+                    configuration.isPageFrameReduceShardAffinityEnabled() ? sharedPoolQuery.getWorkerCount() : 0
             ));
             sharedPoolQuery.assign(new UnorderedPageFrameReduceJob(cairoEngine, messageBus));
         }
@@ -81,6 +81,9 @@ public abstract class AbstractIODispatcher<C extends IOContext<C>> extends Synch
     protected final NetworkFacade nf;
     protected final ObjLongMatrix<C> pending = new ObjLongMatrix<>(OPM_COLUMN_COUNT);
     protected final ObjLongMatrix<C> pendingHeartbeats = new ObjLongMatrix<>(OPM_COLUMN_COUNT);
+    protected final MPSequence wakePubSeq;
+    protected final RingQueue<IOEvent<C>> wakeQueue;
+    protected final SCSequence wakeSubSeq;
     private final IODispatcherConfiguration configuration;
     private final AtomicInteger connectionCount = new AtomicInteger();
     private final LongGauge connectionCountGauge;
@@ -112,6 +115,11 @@ public abstract class AbstractIODispatcher<C extends IOContext<C>> extends Synch
         this.interestSubSeq = new SCSequence();
         this.interestPubSeq.then(interestSubSeq).then(interestPubSeq);
 
+        this.wakeQueue = new RingQueue<>(IOEvent::new, configuration.getInterestQueueCapacity());
+        this.wakePubSeq = new MPSequence(wakeQueue.getCycle());
+        this.wakeSubSeq = new SCSequence();
+        this.wakePubSeq.then(wakeSubSeq).then(wakePubSeq);
+
         this.ioEventQueue = new RingQueue<>(IOEvent::new, configuration.getIOQueueCapacity());
         this.ioEventPubSeq = new SPSequence(ioEventQueue.getCycle());
         this.ioEventSubSeq = new MCSequence(ioEventQueue.getCycle());
@@ -254,10 +262,22 @@ public abstract class AbstractIODispatcher<C extends IOContext<C>> extends Synch
         }
     }
 
+    @Override
+    public void wake(C context) {
+        // A closed dispatcher has nothing parked to wake.
+        final long cursor = closed ? -1 : bullyUntilClosed(wakePubSeq);
+        if (cursor < 0) {
+            return;
+        }
+        wakeQueue.get(cursor).context = context;
+        wakePubSeq.done(cursor);
+    }
+
     private void addPending(long fd, long timestamp) {
         // append pending connection
         // all rows below watermark will be registered with epoll (or similar)
         final C context = ioContextFactory.newInstance(fd);
+        context.setDispatcher(this);
         int r = pending.addRow();
         LOG.debug().$("pending [row=").$(r).$(", fd=").$(fd).I$();
         pending.set(r, OPM_CREATE_TIMESTAMP, timestamp);
@@ -459,6 +479,12 @@ public abstract class AbstractIODispatcher<C extends IOContext<C>> extends Synch
         return drainedFully;
     }
 
+    /**
+     * Stops the poller from reporting the pending operation of a context that is about to be
+     * handed to a worker out of band.
+     */
+    protected abstract void disarm(C context, long opId);
+
     protected void doDisconnect(C context, int src) {
         if (context == null || context.invalid()) {
             return;
@@ -510,6 +536,34 @@ public abstract class AbstractIODispatcher<C extends IOContext<C>> extends Synch
         return useful;
     }
 
+    /**
+     * Hands the contexts woken via {@link #wake} to the workers. A context parked on a read is
+     * disarmed and published as readable. Any other context keeps its wake request until it
+     * next registers for a read, where the registration is short-circuited the same way.
+     */
+    protected boolean processWakeups() {
+        boolean useful = false;
+        long cursor;
+        while ((cursor = wakeSubSeq.next()) > -1) {
+            final C context = wakeQueue.get(cursor).context;
+            wakeSubSeq.done(cursor);
+            useful = true;
+            // wakes are rare, once per pushed update, so a scan beats indexing pending by context
+            for (int i = 0, n = pending.size(); i < n; i++) {
+                if (pending.get(i) == context) {
+                    if (pending.get(i, OPM_OPERATION) == IOOperation.READ && context.consumeWakeRequest()) {
+                        LOG.debug().$("woken [fd=").$(context.getFd()).I$();
+                        disarm(context, pending.get(i, OPM_ID));
+                        publishOperation(IOOperation.READ, context);
+                        pending.deleteRow(i);
+                    }
+                    break;
+                }
+            }
+        }
+        return useful;
+    }
+
     protected void publishOperation(int operation, C context) {
         final long cursor = bullyUntilClosed(ioEventPubSeq);
         if (cursor < 0) {
@@ -32,13 +32,17 @@ import org.jetbrains.annotations.NotNull;
 
 public abstract class IOContext<T extends IOContext<T>> implements Mutable, QuietCloseable {
     private static final long DISCONNECTING_OFFSET = Unsafe.getFieldOffset(IOContext.class, "disconnecting");
+    private static final long WAKE_REQUESTED_OFFSET = Unsafe.getFieldOffset(IOContext.class, "wakeRequested");
     protected final Socket socket;
     protected long heartbeatId = -1;
+    private IODispatcher<T> dispatcher;
     // 0 while this lease of the context is live, flipped to 1 by the single caller that claims the
     // disconnect. of() resets it at every checkout so each connection starts unclaimed.
     private volatile int disconnecting = 0;
     private int disconnectReason;
     private volatile boolean initialized = false;
+    // 1 between wake() and the dispatcher handing the context to a worker, reset per lease in of()
+    private volatile int wakeRequested = 0;
 
     // IMPORTANT: Keep subclass constructors lightweight!
     // Under high load, new context objects are created for each accepted connection.
@@ -59,6 +63,14 @@ public abstract class IOContext<T extends IOContext<T>> implements Mutable, Quie
         _clear();
     }
 
+    /**
+     * Claims the pending wake request, if any. Called by the dispatcher when the context is
+     * parked on a read, or registers for one.
+     */
+    public boolean consumeWakeRequest() {
+        return wakeRequested == 1 && Unsafe.cas(this, WAKE_REQUESTED_OFFSET, 1, 0);
+    }
+
     public long getAndResetHeartbeatId() {
         long id = heartbeatId;
         heartbeatId = -1;
@@ -91,6 +103,7 @@ public abstract class IOContext<T extends IOContext<T>> implements Mutable, Quie
     @SuppressWarnings("unchecked")
     public final T of(long fd) {
         disconnecting = 0;
+        wakeRequested = 0;
         socket.of(fd);
         return (T) this;
     }
@@ -112,6 +125,10 @@ public abstract class IOContext<T extends IOContext<T>> implements Mutable, Quie
         return PeerIsSlowToReadException.INSTANCE;
     }
 
+    public void setDispatcher(IODispatcher<T> dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
     public void setHeartbeatId(long heartbeatId) {
         this.heartbeatId = heartbeatId;
     }
@@ -128,6 +145,20 @@ public abstract class IOContext<T extends IOContext<T>> implements Mutable, Quie
         return Unsafe.cas(this, DISCONNECTING_OFFSET, 0, 1);
     }
 
+    /**
+     * Asks the dispatcher to hand this context to a worker as if its socket had become readable,
+     * so that a connection parked on a read can push data the peer did not ask for. Safe to call
+     * from any thread. A context that is busy, or parked on a write, picks the request up the next
+     * time it registers for a read.
+     */
+    @SuppressWarnings("unchecked")
+    public void wake() {
+        final IODispatcher<T> dispatcher = this.dispatcher;
+        if (dispatcher != null && Unsafe.cas(this, WAKE_REQUESTED_OFFSET, 0, 1)) {
+            dispatcher.wake((T) this);
+        }
+    }
+
     private void _clear() {
         heartbeatId = -1;
         socket.close();
@@ -68,4 +68,10 @@ public interface IODispatcher<C extends IOContext<C>> extends Closeable, Job {
     boolean processIOQueue(IORequestProcessor<C> processor);
 
     void registerChannel(C context, int operation);
+
+    /**
+     * Hands a context parked on a read to a worker as if its socket had become readable.
+     * Safe to call from any thread, see {@link IOContext#wake()}.
+     */
+    void wake(C context);
 }
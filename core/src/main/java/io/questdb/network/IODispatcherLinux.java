@@ -198,7 +198,7 @@ public class IODispatcherLinux<C extends IOContext<C>> extends AbstractIODispatc
                     pendingHeartbeats.deleteRow(heartbeatRow);
                 }
             } else {
-                if (requestedOperation == IOOperation.READ && context.getSocket().isMorePlaintextBuffered()) {
+                if (requestedOperation == IOOperation.READ && (context.getSocket().isMorePlaintextBuffered() || context.consumeWakeRequest())) {
                     publishOperation(IOOperation.READ, context);
                     continue;
                 }
@@ -235,6 +235,16 @@ public class IODispatcherLinux<C extends IOContext<C>> extends AbstractIODispatc
         }
     }
 
+    @Override
+    protected void disarm(C context, long opId) {
+        // one-shot registration without events, re-armed by the next registration
+        if (epoll.control(context.getFd(), opId, EpollAccessor.EPOLL_CTL_MOD, 0) < 0) {
+            LOG.critical().$("internal error: epoll_ctl modify operation failure [id=").$(opId)
+                    .$(", err=").$(nf.errno())
+                    .I$();
+        }
+    }
+
     @Override
     protected void registerListenerFd() {
         epoll.listen(serverFd);
@@ -250,6 +260,8 @@ public class IODispatcherLinux<C extends IOContext<C>> extends AbstractIODispatc
 
         final long timestamp = clock.getTicks();
         boolean useful = processDisconnects(timestamp);
+        // before the poll, so that the watermark below accounts for woken rows
+        useful |= processWakeups();
         final int n = epoll.poll();
         int watermark = pending.size();
         int offset = 0;
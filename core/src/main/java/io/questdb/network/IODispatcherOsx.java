@@ -213,7 +213,7 @@ public class IODispatcherOsx<C extends IOContext<C>> extends AbstractIODispatche
                     pendingHeartbeats.deleteRow(heartbeatRow);
                 }
             } else {
-                if (requestedOperation == IOOperation.READ && context.getSocket().isMorePlaintextBuffered()) {
+                if (requestedOperation == IOOperation.READ && (context.getSocket().isMorePlaintextBuffered() || context.consumeWakeRequest())) {
                     publishOperation(IOOperation.READ, context);
                     continue;
                 }
@@ -267,6 +267,20 @@ public class IODispatcherOsx<C extends IOContext<C>> extends AbstractIODispatche
         keventWriter.done();
     }
 
+    @Override
+    protected void disarm(C context, long opId) {
+        final long fd = context.getFd();
+        keventWriter.prepare().tolerateErrors();
+        keventWriter.removeReadFD(fd);
+        if (context.getSocket().wantsTlsWrite()) {
+            keventWriter.removeWriteFD(fd);
+        }
+        if (keventWriter.done() != 0) {
+            LOG.critical().$("internal error: kqueue remove fd failure [fd=").$(fd)
+                    .$(", err=").$(nf.errno()).I$();
+        }
+    }
+
     @Override
     protected void registerListenerFd() {
         if (kqueue.listen(serverFd) != 0) {
@@ -278,6 +292,8 @@ public class IODispatcherOsx<C extends IOContext<C>> extends AbstractIODispatche
     protected boolean runSerially() {
         final long timestamp = clock.getTicks();
         boolean useful = processDisconnects(timestamp);
+        // before the poll, so that the watermark below accounts for woken rows
+        useful |= processWakeups();
         alreadyHandledFds.clear();
         final int n = kqueue.poll(0);
         int watermark = pending.size();
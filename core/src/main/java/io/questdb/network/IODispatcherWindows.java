@@ -98,7 +98,7 @@ public class IODispatcherWindows<C extends IOContext<C>> extends AbstractIODispa
                     pendingHeartbeats.deleteRow(heartbeatRow);
                 }
             } else {
-                if (operation == IOOperation.READ && context.getSocket().isMorePlaintextBuffered()) {
+                if (operation == IOOperation.READ && (context.getSocket().isMorePlaintextBuffered() || context.consumeWakeRequest())) {
                     publishOperation(IOOperation.READ, context);
                     continue;
                 }
@@ -144,6 +144,11 @@ public class IODispatcherWindows<C extends IOContext<C>> extends AbstractIODispa
         }
     }
 
+    @Override
+    protected void disarm(C context, long opId) {
+        // fd sets are rebuilt from pending on every iteration
+    }
+
     @Override
     protected void pendingAdded(int index) {
         pending.set(index, OPM_OPERATION, initialBias == IODispatcherConfiguration.BIAS_READ ? IOOperation.READ : IOOperation.WRITE);
@@ -158,6 +163,8 @@ public class IODispatcherWindows<C extends IOContext<C>> extends AbstractIODispa
     protected boolean runSerially() {
         final long timestamp = clock.getTicks();
         boolean useful = processDisconnects(timestamp);
+        // woken rows leave pending before the fd sets are re-armed below
+        useful |= processWakeups();
 
         int count;
         if (readFdSet.getCount() > 0 || writeFdSet.getCount() > 0) {
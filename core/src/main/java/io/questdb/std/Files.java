@@ -58,6 +58,9 @@ public final class Files {
     public static final int POSIX_FADV_RANDOM;
     public static final int POSIX_FADV_SEQUENTIAL;
     public static final int POSIX_MADV_DONTNEED;
+    // Marks the range as eligible for transparent huge pages. MADV_HUGEPAGE has the same value
+    // on every Linux architecture we ship for, so unlike the other flags it isn't read from libc.
+    public static final int POSIX_MADV_HUGEPAGE;
     // Pre-fault pages for writing. Linux 5.14+. On older kernels, madvise() returns
     // EINVAL which the caller ignores, so using this flag is safe on any kernel version.
     public static final int POSIX_MADV_POPULATE_WRITE;
@@ -71,6 +74,8 @@ public final class Files {
     public static final int TMPFS_MAGIC = 0x01021994;
     public static final Charset UTF_8;
     public static final int WINDOWS_ERROR_FILE_EXISTS = 0x50;
+    // false when the bundled native library predates syncfs0()
+    private static final boolean SYNC_FS_AVAILABLE;
     private static final int VIRTIO_FS_MAGIC = 0x6a656a63;
     private static final FdCache fdCache = new FdCache();
     private static final MmapCache mmapCache = MmapCache.INSTANCE;
@@ -323,6 +328,14 @@ public final class Files {
         return isSoftLink(path.ptr());
     }
 
+    /**
+     * Returns true when {@link #syncfs(long)} is available, i.e. on Linux with a native
+     * library that exports it.
+     */
+    public static boolean isSyncFsSupported() {
+        return SYNC_FS_AVAILABLE;
+    }
+
     public static long length(LPSZ lpsz) {
         return length0(lpsz.ptr());
     }
@@ -543,6 +556,19 @@ public final class Files {
 
     public static native int sync();
 
+    /**
+     * Flushes the file system containing the given file or directory, unlike {@link #sync()}
+     * which flushes all of them. Linux only, returns -1 elsewhere.
+     *
+     * @return 0 on success, -1 on failure, in which case errno has to be checked
+     */
+    public static int syncfs(long fd) {
+        if (SYNC_FS_AVAILABLE) {
+            return syncfs0(toOsFd(fd));
+        }
+        return -1;
+    }
+
     public static int toOsFd(long fd) {
         return fdCache.toOsFd(fd);
     }
@@ -759,6 +785,8 @@ public final class Files {
 
     private native static boolean setLastModified(long lpszName, long millis);
 
+    private static native int syncfs0(int fd);
+
     private native static boolean truncate(int fd, long size);
 
     private static int unlink0(Path path, int recursiveDepth) {
@@ -827,6 +855,7 @@ public final class Files {
             POSIX_MADV_RANDOM = getPosixMadvRandom();
             POSIX_MADV_SEQUENTIAL = getPosixMadvSequential();
             POSIX_MADV_DONTNEED = getPosixMadvDontneed();
+            POSIX_MADV_HUGEPAGE = 14;
             POSIX_MADV_POPULATE_WRITE = getMadvPopulateWrite();
         } else {
             POSIX_FADV_SEQUENTIAL = -1;
@@ -834,7 +863,18 @@ public final class Files {
             POSIX_MADV_SEQUENTIAL = -1;
             POSIX_MADV_RANDOM = -1;
             POSIX_MADV_DONTNEED = -1;
+            POSIX_MADV_HUGEPAGE = -1;
             POSIX_MADV_POPULATE_WRITE = -1;
         }
+        boolean syncFsAvailable = false;
+        if (Os.isLinux()) {
+            try {
+                // Probe: an invalid fd fails with EBADF without touching any file system
+                syncfs0(-1);
+                syncFsAvailable = true;
+            } catch (UnsatisfiedLinkError ignore) {
+            }
+        }
+        SYNC_FS_AVAILABLE = syncFsAvailable;
     }
 }
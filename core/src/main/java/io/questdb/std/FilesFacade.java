@@ -106,6 +106,8 @@ public interface FilesFacade {
 
     boolean isSoftLink(LPSZ softLink);
 
+    boolean isSyncFsSupported();
+
     void iterateDir(LPSZ path, FindVisitor func);
 
     long length(long fd);
@@ -177,6 +179,8 @@ public interface FilesFacade {
 
     int sync();
 
+    int syncfs(long fd);
+
     boolean touch(LPSZ path);
 
     boolean truncate(long fd, long size);
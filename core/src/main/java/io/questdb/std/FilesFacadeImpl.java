@@ -279,6 +279,11 @@ public class FilesFacadeImpl implements FilesFacade {
         return Files.isSoftLink(softLink);
     }
 
+    @Override
+    public boolean isSyncFsSupported() {
+        return Files.isSyncFsSupported();
+    }
+
     @Override
     public void iterateDir(LPSZ path, FindVisitor func) {
         long p = findFirst(path);
@@ -497,6 +502,11 @@ public class FilesFacadeImpl implements FilesFacade {
         return Files.sync();
     }
 
+    @Override
+    public int syncfs(long fd) {
+        return Files.syncfs(fd);
+    }
+
     @Override
     public boolean touch(LPSZ path) {
         return Files.touch(path);
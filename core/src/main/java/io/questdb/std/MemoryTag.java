@@ -112,6 +112,18 @@ public final class MemoryTag {
         return tagNameMap.getQuick(tag);
     }
 
+    /**
+     * Returns the tag with the given name, case-insensitive, or -1 when there is no such tag.
+     */
+    public static int tagOf(CharSequence name) {
+        for (int tag = 0; tag < SIZE; tag++) {
+            if (Chars.equalsIgnoreCase(tagNameMap.getQuick(tag), name)) {
+                return tag;
+            }
+        }
+        return -1;
+    }
+
     static {
         tagNameMap.extendAndSet(MMAP_DEFAULT, "MMAP_DEFAULT");
         tagNameMap.extendAndSet(NATIVE_DEFAULT, "NATIVE_DEFAULT");
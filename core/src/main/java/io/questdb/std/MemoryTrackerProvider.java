@@ -47,7 +47,8 @@ public interface MemoryTrackerProvider extends Closeable, Mutable {
      *
      * @param securityContext the principal driving the workload; consumed by
      *                        the enterprise provider to look up a per-principal
-     *                        quota node, ignored by the OSS provider.
+     *                        quota node, and by the OSS provider to apply the
+     *                        memory limit of the principal's workload class.
      * @param queryId         identifier carried in the error message on a limit
      *                        breach. For {@code QUERY} it is the query registry
      *                        id (matches {@code query_activity.query_id}); for
@@ -72,4 +73,15 @@ public interface MemoryTrackerProvider extends Closeable, Mutable {
 
     @Override
     void close();
+
+    /**
+     * Called once the query the tracker was acquired for is admitted to a workload class,
+     * which may differ from the principal's class when the query carries a
+     * {@code workload_class} hint. The default implementation is a no-op.
+     *
+     * @param tracker       tracker bound to the query's execution context
+     * @param workloadClass one of the {@code QueryWorkloadClass} constants
+     */
+    default void onWorkloadClass(@NotNull MemoryTracker tracker, byte workloadClass) {
+    }
 }
@@ -109,4 +109,8 @@ public final class PerQueryMemoryTracker extends MemoryTracker {
         Unsafe.putLongVolatile(nativeAddress + Unsafe.MEMORY_TRACKER_USED_OFFSET, 0L);
         Unsafe.putLongVolatile(nativeAddress + Unsafe.MEMORY_TRACKER_LIMIT_OFFSET, limit);
     }
+
+    void setLimit(long limit) {
+        Unsafe.putLongVolatile(nativeAddress + Unsafe.MEMORY_TRACKER_LIMIT_OFFSET, limit);
+    }
 }
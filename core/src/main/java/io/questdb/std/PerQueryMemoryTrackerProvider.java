@@ -26,6 +26,7 @@ package io.questdb.std;
 
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.SecurityContext;
+import io.questdb.cairo.sql.async.QueryWorkloadClass;
 import io.questdb.mp.ConcurrentPool;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.TestOnly;
@@ -68,7 +69,7 @@ public final class PerQueryMemoryTrackerProvider implements MemoryTrackerProvide
         if (tracker == null) {
             tracker = new PerQueryMemoryTracker(this);
         }
-        tracker.init(queryId, workload, limitFor(workload));
+        tracker.init(queryId, workload, limitFor(workload, securityContext));
         return tracker;
     }
 
@@ -93,6 +94,14 @@ public final class PerQueryMemoryTrackerProvider implements MemoryTrackerProvide
         return pool.count();
     }
 
+    @Override
+    public void onWorkloadClass(@NotNull MemoryTracker tracker, byte workloadClass) {
+        // inherited background trackers keep the limit of their workload
+        if (tracker instanceof PerQueryMemoryTracker perQueryTracker && tracker.getWorkload() == MemoryTrackerWorkload.QUERY) {
+            perQueryTracker.setLimit(queryLimitFor(workloadClass));
+        }
+    }
+
     private void drainPool() {
         PerQueryMemoryTracker tracker;
         while ((tracker = pool.pop()) != null) {
@@ -100,15 +109,23 @@ public final class PerQueryMemoryTrackerProvider implements MemoryTrackerProvide
         }
     }
 
-    private long limitFor(MemoryTrackerWorkload workload) {
+    private long limitFor(MemoryTrackerWorkload workload, SecurityContext securityContext) {
         return switch (workload) {
-            case QUERY -> configuration.getQueryMemoryLimitBytes();
+            case QUERY -> queryLimitFor(QueryWorkloadClass.ofPrincipal(configuration, securityContext.getPrincipal()));
             case MAT_VIEW_REFRESH -> configuration.getMatViewRefreshMemoryLimitBytes();
             case WAL_APPLY -> configuration.getWalApplyMemoryLimitBytes();
             case LIVE_VIEW_REFRESH -> configuration.getLiveViewRefreshMemoryLimitBytes();
         };
     }
 
+    // A per-class limit, when configured for the query's workload class, takes
+    // precedence over the general query limit. The tracker is acquired with the limit of
+    // the principal's class and moved to the admitted class by onWorkloadClass().
+    private long queryLimitFor(byte workloadClass) {
+        final long classLimit = configuration.getSqlWorkloadMemoryLimitBytes(workloadClass);
+        return classLimit > 0 ? classLimit : configuration.getQueryMemoryLimitBytes();
+    }
+
     void release(PerQueryMemoryTracker tracker) {
         if (closed) {
             tracker.destroy();
@@ -48,6 +48,7 @@ public final class Rosti {
             long pRosti = alloc(mem, columnCount, Numbers.ceilPow2(capacity) - 1);
             if (pRosti != 0) {
                 Unsafe.recordMemAlloc(getAllocMemory(pRosti), MemoryTag.NATIVE_ROSTI);
+                adviseHugePages(pRosti);
             }
             return pRosti;
         } finally {
@@ -369,6 +370,17 @@ public final class Rosti {
     public static void updateMemoryUsage(long pRosti, long oldSize) {
         long newSize = Rosti.getAllocMemory(pRosti);
         Unsafe.recordMemAlloc(newSize - oldSize, MemoryTag.NATIVE_ROSTI);
+        if (newSize != oldSize) {
+            adviseHugePages(pRosti);
+        }
+    }
+
+    // the arena is allocated natively, so the huge page hint applied by Unsafe.malloc()
+    // has to be repeated here: it spans the initial values slot, control bytes and slots
+    private static void adviseHugePages(long pRosti) {
+        final long lo = getInitialValuesSlot(pRosti);
+        final long hi = getSlots(pRosti) + getSlotSize(pRosti) * (getCapacity(pRosti) + 1);
+        Unsafe.adviseHugePages(lo, hi - lo, MemoryTag.NATIVE_ROSTI);
     }
 
     private static native long alloc(long pKeyTypes, int keyTypeCount, long capacity);
@@ -31,6 +31,7 @@ import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.concurrent.atomic.LongAdder;
 
 import static io.questdb.std.MemoryTag.NATIVE_DEFAULT;
@@ -57,6 +58,8 @@ public final class Unsafe {
     public static final long MEMORY_TRACKER_LIMIT_OFFSET = 8;
     public static final long MEMORY_TRACKER_USED_OFFSET = 0;
     private static final LongAdder[] COUNTERS = new LongAdder[MemoryTag.SIZE];
+    // Memory tags whose large allocations are advised to be backed by transparent huge pages.
+    private static final boolean[] HUGE_PAGE_TAGS = new boolean[MemoryTag.SIZE];
     private static final long FREE_COUNT_ADDR;
     private static final long MALLOC_COUNT_ADDR;
     private static final long[] NATIVE_ALLOCATORS = new long[MemoryTag.SIZE - NATIVE_DEFAULT];
@@ -70,10 +73,29 @@ public final class Unsafe {
     private static final long RSS_MEM_USED_ADDR;
     private static final sun.misc.Unsafe UNSAFE;
     private static final AnonymousClassDefiner anonymousClassDefiner;
+    // Long.MAX_VALUE keeps huge page advice off until it is configured on startup.
+    private static long hugePageMinSize = Long.MAX_VALUE;
 
     private Unsafe() {
     }
 
+    /**
+     * Advises the kernel to back the page-aligned part of the given native block with
+     * transparent huge pages when huge pages are enabled for the memory tag and the block
+     * is at least the configured minimum size. This is a hint only: the kernel
+     * may ignore it, e.g. when THP is disabled system-wide.
+     */
+    public static void adviseHugePages(long address, long size, int memoryTag) {
+        if (isHugePageCandidate(size, memoryTag)) {
+            final long pageSize = Files.PAGE_SIZE;
+            final long lo = (address + pageSize - 1) & -pageSize;
+            final long hi = (address + size) & -pageSize;
+            if (hi > lo) {
+                Files.madvise0(lo, hi - lo, Files.POSIX_MADV_HUGEPAGE);
+            }
+        }
+    }
+
     public static long allocateMemory(long size) {
         return UNSAFE.allocateMemory(size);
     }
@@ -364,6 +386,14 @@ public final class Unsafe {
         UNSAFE.getAndAddLong(null, REALLOC_COUNT_ADDR, 1);
     }
 
+    /**
+     * Returns true when a block of the given size and memory tag should be advised to be
+     * backed by transparent huge pages.
+     */
+    public static boolean isHugePageCandidate(long size, int memoryTag) {
+        return size >= hugePageMinSize && HUGE_PAGE_TAGS[memoryTag] && Files.POSIX_MADV_HUGEPAGE != -1;
+    }
+
     public static void loadFence() {
         UNSAFE.loadFence();
     }
@@ -375,6 +405,7 @@ public final class Unsafe {
             long ptr = UNSAFE.allocateMemory(size);
             recordMemAlloc(size, memoryTag);
             incrMallocCount();
+            adviseHugePages(ptr, size, memoryTag);
             return ptr;
         } catch (OutOfMemoryError oom) {
             CairoException e = CairoException.nonCritical().setOutOfMemory(true)
@@ -418,6 +449,7 @@ public final class Unsafe {
             recordMemAlloc(size, memoryTag);
             recordPerQueryMemAlloc(size, trackerBase);
             incrMallocCount();
+            adviseHugePages(ptr, size, memoryTag);
             return ptr;
         } catch (OutOfMemoryError oom) {
             CairoException e = CairoException.nonCritical().setOutOfMemory(true)
@@ -507,6 +539,7 @@ public final class Unsafe {
             long ptr = UNSAFE.reallocateMemory(address, newSize);
             recordMemAlloc(-oldSize + newSize, memoryTag);
             incrReallocCount();
+            adviseHugePages(ptr, newSize, memoryTag);
             return ptr;
         } catch (OutOfMemoryError oom) {
             CairoException e = CairoException.nonCritical().setOutOfMemory(true)
@@ -549,6 +582,7 @@ public final class Unsafe {
             recordMemAlloc(delta, memoryTag);
             recordPerQueryMemAlloc(delta, trackerBase);
             incrReallocCount();
+            adviseHugePages(ptr, newSize, memoryTag);
             return ptr;
         } catch (OutOfMemoryError oom) {
             CairoException e = CairoException.nonCritical().setOutOfMemory(true)
@@ -584,6 +618,21 @@ public final class Unsafe {
         UNSAFE.setMemory(address, bytes, value);
     }
 
+    /**
+     * Enables transparent huge page advice for native blocks of at least {@code minSize} bytes
+     * allocated with one of the given memory tags, and disables it for all other tags. Only
+     * native (anonymous memory) tags are accepted. An empty tag list turns the advice off.
+     */
+    public static void setHugePages(IntList memoryTags, long minSize) {
+        Arrays.fill(HUGE_PAGE_TAGS, false);
+        for (int i = 0, n = memoryTags.size(); i < n; i++) {
+            final int memoryTag = memoryTags.getQuick(i);
+            assert memoryTag >= MemoryTag.NATIVE_PATH;
+            HUGE_PAGE_TAGS[memoryTag] = true;
+        }
+        hugePageMinSize = memoryTags.size() > 0 ? minSize : Long.MAX_VALUE;
+    }
+
     public static void setRssMemLimit(long limit) {
         UNSAFE.putLongVolatile(null, RSS_MEM_LIMIT_ADDR, limit);
     }
@@ -686,7 +735,7 @@ public final class Unsafe {
      * per-tag Rust allocator pointers.
      */
     static long constructTrackerNativeAllocator(MemoryTracker tracker, int memoryTag) {
-        assert memoryTag >= NATIVE_DEFAULT;
+        assert memoryTag >= MemoryTag.NATIVE_PATH;
         // The `MemTracking` struct starts at the same address as RSS_MEM_USED_ADDR;
         // see the layout comment in the static initializer.
         return constructNativeAllocator(RSS_MEM_USED_ADDR, memoryTag, tracker.nativeAddress());
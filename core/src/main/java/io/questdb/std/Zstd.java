@@ -30,11 +30,21 @@ package io.questdb.std;
  * allocated once per connection on the server and a {@code DCtx} once per
  * IoThread on the client, both reused across every batch.
  * <p>
+ * The HTTP server uses the streaming methods for the {@code zstd} content
+ * encoding of ILP request bodies and of query responses. Those report the
+ * consumed input and the produced output as two longs written to the
+ * {@code progressAddr} block of {@link #PROGRESS_BLOCK_SIZE} bytes, see
+ * {@link #getConsumed(long)} and {@link #getProduced(long)}.
+ * <p>
  * All methods operate on raw native addresses so callers can pass direct
  * buffer pointers with zero copies. The native implementation lives in
  * {@code core/rust/qdbr/src/qwp_zstd.rs} and is packaged inside libquestdbr.
  */
 public final class Zstd {
+    public static final int END_CONTINUE = 0;
+    public static final int END_FLUSH = 1;
+    public static final int END_FRAME = 2;
+    public static final int PROGRESS_BLOCK_SIZE = 2 * Long.BYTES;
 
     private Zstd() {
     }
@@ -46,13 +56,44 @@ public final class Zstd {
      */
     public static native long compress(long ctx, long srcAddr, long srcLen, long dstAddr, long dstCap);
 
+    /**
+     * Streaming compression, see {@code ZSTD_compressStream2}. {@code endOp} is one of
+     * {@link #END_CONTINUE}, {@link #END_FLUSH} and {@link #END_FRAME}. Returns the number
+     * of bytes still buffered in the context, which is 0 once a flush or a frame end has
+     * completed; a negative value encodes a zstd error code.
+     */
+    public static native long compressStream(long ctx, long srcAddr, long srcLen, long dstAddr, long dstCap, int endOp, long progressAddr);
+
     public static native long createCCtx(int level);
 
     public static native long createDCtx();
 
     public static native long decompress(long ctx, long srcAddr, long srcLen, long dstAddr, long dstCap);
 
+    /**
+     * Streaming decompression, see {@code ZSTD_decompressStream}. Returns 0 once a frame
+     * has been fully decoded and flushed, a positive hint when more input is expected, or
+     * a negative zstd error code.
+     */
+    public static native long decompressStream(long ctx, long srcAddr, long srcLen, long dstAddr, long dstCap, long progressAddr);
+
     public static native void freeCCtx(long ptr);
 
     public static native void freeDCtx(long ptr);
+
+    public static long getConsumed(long progressAddr) {
+        return Unsafe.getLong(progressAddr);
+    }
+
+    public static long getProduced(long progressAddr) {
+        return Unsafe.getLong(progressAddr + Long.BYTES);
+    }
+
+    /**
+     * Aborts the current frame and keeps the compression level, so that the
+     * context can start a new stream. Returns 0 or a negative zstd error code.
+     */
+    public static native long resetCCtx(long ctx);
+
+    public static native long resetDCtx(long ctx);
 }
@@ -52,6 +52,8 @@ import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.FilesFacadeImpl;
 import io.questdb.std.IntHashSet;
+import io.questdb.std.IntList;
+import io.questdb.std.MemoryTag;
 import io.questdb.std.Misc;
 import io.questdb.std.Numbers;
 import io.questdb.std.ObjHashSet;
@@ -1429,6 +1431,23 @@ public class PropServerConfigurationTest {
         Assert.assertEquals("/x/index.html", Utf8s.toString(redirects.get(new Utf8String("/x"))));
     }
 
+    @Test
+    public void testHugePagesMemoryTags() throws Exception {
+        Properties properties = new Properties();
+        PropServerConfiguration configuration = newPropServerConfiguration(properties);
+        Assert.assertEquals(0, configuration.getMemoryConfiguration().getHugePagesMemoryTags().size());
+        Assert.assertEquals(2 * 1024 * 1024, configuration.getMemoryConfiguration().getHugePagesMinSize());
+
+        properties.setProperty(PropertyKey.RAM_HUGE_PAGES_MEMORY_TAGS.getPropertyPath(), " native_fast_map, NATIVE_ROSTI,,");
+        properties.setProperty(PropertyKey.RAM_HUGE_PAGES_MIN_SIZE.getPropertyPath(), "4m");
+        configuration = newPropServerConfiguration(properties);
+        final IntList tags = configuration.getMemoryConfiguration().getHugePagesMemoryTags();
+        Assert.assertEquals(2, tags.size());
+        Assert.assertEquals(MemoryTag.NATIVE_FAST_MAP, tags.getQuick(0));
+        Assert.assertEquals(MemoryTag.NATIVE_ROSTI, tags.getQuick(1));
+        Assert.assertEquals(4 * 1024 * 1024, configuration.getMemoryConfiguration().getHugePagesMinSize());
+    }
+
     @Test
     public void testILPMsgBufferSizeAdjustment() throws Exception {
         Properties properties = new Properties();
@@ -1563,6 +1582,21 @@ public class PropServerConfigurationTest {
         }
     }
 
+    @Test
+    public void testInvalidHugePagesMemoryTags() throws Exception {
+        // unknown tags are rejected, and so are file-backed mappings
+        for (String value : new String[]{"NATIVE_FAST_MAP,NO_SUCH_TAG", "MMAP_TABLE_READER", "NATIVE_ROSTI,mmap_default"}) {
+            Properties properties = new Properties();
+            properties.setProperty(PropertyKey.RAM_HUGE_PAGES_MEMORY_TAGS.getPropertyPath(), value);
+            try {
+                newPropServerConfiguration(properties);
+                Assert.fail();
+            } catch (ServerConfigurationException e) {
+                TestUtils.assertContains(e.getMessage(), "invalid configuration value [key=ram.huge.pages.memory.tags, value=" + value + ']');
+            }
+        }
+    }
+
     @Test(expected = ServerConfigurationException.class)
     public void testInvalidIPv4Address() throws Exception {
         Properties properties = new Properties();
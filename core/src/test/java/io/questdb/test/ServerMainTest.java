@@ -654,6 +654,9 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.inactive.writer.ttl\tQDB_CAIRO_INACTIVE_WRITER_TTL\t600000\tdefault\tfalse\tfalse\n" +
                                     "cairo.index.value.block.size\tQDB_CAIRO_INDEX_VALUE_BLOCK_SIZE\t256\tdefault\tfalse\tfalse\n" +
                                     "cairo.iouring.enabled\tQDB_CAIRO_IOURING_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
+                                    "cairo.json.shred.memory.size\tQDB_CAIRO_JSON_SHRED_MEMORY_SIZE\t0\tdefault\tfalse\tfalse\n" +
+                                    "cairo.json.shred.min.queries\tQDB_CAIRO_JSON_SHRED_MIN_QUERIES\t3\tdefault\tfalse\tfalse\n" +
+                                    "cairo.json.shred.paths\tQDB_CAIRO_JSON_SHRED_PATHS\t\tdefault\tfalse\tfalse\n" +
                                     "cairo.json.unnest.max.value.size\tQDB_CAIRO_JSON_UNNEST_MAX_VALUE_SIZE\t4096\tdefault\tfalse\tfalse\n" +
                                     "cairo.latestby.queue.capacity\tQDB_CAIRO_LATESTBY_QUEUE_CAPACITY\t32\tdefault\tfalse\tfalse\n" +
                                     "cairo.legacy.string.column.type.default\tQDB_CAIRO_LEGACY_STRING_COLUMN_TYPE_DEFAULT\tfalse\tdefault\tfalse\tfalse\n" +
@@ -699,6 +702,7 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.page.frame.reduce.queue.capacity\tQDB_CAIRO_PAGE_FRAME_REDUCE_QUEUE_CAPACITY\t8\tdefault\tfalse\tfalse\n" +
                                     "cairo.page.frame.rowid.list.capacity\tQDB_CAIRO_PAGE_FRAME_ROWID_LIST_CAPACITY\t256\tdefault\tfalse\tfalse\n" +
                                     "cairo.page.frame.shard.count\tQDB_CAIRO_PAGE_FRAME_SHARD_COUNT\t2\tdefault\tfalse\tfalse\n" +
+                                    "cairo.page.frame.shard.affinity.enabled\tQDB_CAIRO_PAGE_FRAME_SHARD_AFFINITY_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
                                     "cairo.parallel.index.threshold\tQDB_CAIRO_PARALLEL_INDEX_THRESHOLD\t100000\tdefault\tfalse\tfalse\n" +
                                     "cairo.parallel.indexing.enabled\tQDB_CAIRO_PARALLEL_INDEXING_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "cairo.posting.index.auto.include.timestamp\tQDB_CAIRO_POSTING_INDEX_AUTO_INCLUDE_TIMESTAMP\ttrue\tdefault\tfalse\tfalse\n" +
@@ -783,6 +787,8 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.sql.page.frame.min.rows\tQDB_CAIRO_SQL_PAGE_FRAME_MIN_ROWS\t100000\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.small.page.frame.max.rows\tQDB_CAIRO_SQL_SMALL_PAGE_FRAME_MAX_ROWS\t100000\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.small.page.frame.min.rows\tQDB_CAIRO_SQL_SMALL_PAGE_FRAME_MIN_ROWS\t10000\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.page.frame.adaptive.enabled\tQDB_CAIRO_SQL_PAGE_FRAME_ADAPTIVE_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.page.frame.adaptive.task.time\tQDB_CAIRO_SQL_PAGE_FRAME_ADAPTIVE_TASK_TIME\t2000\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.parallel.filter.enabled\tQDB_CAIRO_SQL_PARALLEL_FILTER_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.parallel.filter.pretouch.threshold\tQDB_CAIRO_SQL_PARALLEL_FILTER_PRETOUCH_THRESHOLD\t0.05\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.parallel.filter.dispatch.limit\tQDB_CAIRO_SQL_PARALLEL_FILTER_DISPATCH_LIMIT\t2\tdefault\tfalse\tfalse\n" +
@@ -805,8 +811,15 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.sql.parallel.work.stealing.threshold\tQDB_CAIRO_SQL_PARALLEL_WORK_STEALING_THRESHOLD\t16\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.parallel.work.stealing.spin.timeout\tQDB_CAIRO_SQL_PARALLEL_WORK_STEALING_SPIN_TIMEOUT\t50000\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.parallel.read.parquet.enabled\tQDB_CAIRO_SQL_PARALLEL_READ_PARQUET_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.parallel.union.all.groupby.enabled\tQDB_CAIRO_SQL_PARALLEL_UNION_ALL_GROUPBY_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.parallel.asof.join.enabled\tQDB_CAIRO_SQL_PARALLEL_ASOF_JOIN_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.parquet.cache.memory.size\tQDB_CAIRO_SQL_PARQUET_CACHE_MEMORY_SIZE\t268435456\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.parquet.row.group.pruning.enabled\tQDB_CAIRO_SQL_PARQUET_ROW_GROUP_PRUNING_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.parquet.shared.cache.memory.size\tQDB_CAIRO_SQL_PARQUET_SHARED_CACHE_MEMORY_SIZE\t0\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.trigram.index.enabled\tQDB_CAIRO_SQL_TRIGRAM_INDEX_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.trigram.index.memory.limit\tQDB_CAIRO_SQL_TRIGRAM_INDEX_MEMORY_LIMIT\t268435456\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.value.index.enabled\tQDB_CAIRO_SQL_VALUE_INDEX_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.value.index.memory.limit\tQDB_CAIRO_SQL_VALUE_INDEX_MEMORY_LIMIT\t268435456\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.rename.table.model.pool.capacity\tQDB_CAIRO_SQL_RENAME_TABLE_MODEL_POOL_CAPACITY\t16\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.compile.view.model.pool.capacity\tQDB_CAIRO_SQL_COMPILE_VIEW_MODEL_POOL_CAPACITY\t8\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.sampleby.page.size\tQDB_CAIRO_SQL_SAMPLEBY_PAGE_SIZE\t0\tdefault\tfalse\tfalse\n" +
@@ -844,6 +857,22 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.sql.legacy.operator.precedence\tQDB_CAIRO_SQL_LEGACY_OPERATOR_PRECEDENCE\tfalse\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.legacy.union.column.propagation\tQDB_CAIRO_SQL_LEGACY_UNION_COLUMN_PROPAGATION\tfalse\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.window.tree.page.size\tQDB_CAIRO_SQL_WINDOW_TREE_PAGE_SIZE\t524288\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.admission.blocking.timeout\tQDB_CAIRO_SQL_WORKLOAD_ADMISSION_BLOCKING_TIMEOUT\t100\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.admission.timeout\tQDB_CAIRO_SQL_WORKLOAD_ADMISSION_TIMEOUT\t10000\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.fair.enabled\tQDB_CAIRO_SQL_WORKLOAD_FAIR_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.fair.slice\tQDB_CAIRO_SQL_WORKLOAD_FAIR_SLICE\t10000\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.high.users\tQDB_CAIRO_SQL_WORKLOAD_HIGH_USERS\t\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.low.users\tQDB_CAIRO_SQL_WORKLOAD_LOW_USERS\t\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.high.max.concurrent\tQDB_CAIRO_SQL_WORKLOAD_HIGH_MAX_CONCURRENT\t0\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.normal.max.concurrent\tQDB_CAIRO_SQL_WORKLOAD_NORMAL_MAX_CONCURRENT\t0\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.low.max.concurrent\tQDB_CAIRO_SQL_WORKLOAD_LOW_MAX_CONCURRENT\t0\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.high.weight\tQDB_CAIRO_SQL_WORKLOAD_HIGH_WEIGHT\t8\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.normal.weight\tQDB_CAIRO_SQL_WORKLOAD_NORMAL_WEIGHT\t4\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.low.weight\tQDB_CAIRO_SQL_WORKLOAD_LOW_WEIGHT\t1\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.workload.high.memory.limit.bytes\tQDB_CAIRO_SQL_WORKLOAD_HIGH_MEMORY_LIMIT_BYTES\t0\tdefault\tfalse\ttrue\n" +
+                                    "cairo.sql.workload.normal.memory.limit.bytes\tQDB_CAIRO_SQL_WORKLOAD_NORMAL_MEMORY_LIMIT_BYTES\t0\tdefault\tfalse\ttrue\n" +
+                                    "cairo.sql.workload.low.memory.limit.bytes\tQDB_CAIRO_SQL_WORKLOAD_LOW_MEMORY_LIMIT_BYTES\t0\tdefault\tfalse\ttrue\n" +
+                                    "cairo.mat.view.query.rewrite.enabled\tQDB_CAIRO_MAT_VIEW_QUERY_REWRITE_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.with.clause.model.pool.capacity\tQDB_CAIRO_SQL_WITH_CLAUSE_MODEL_POOL_CAPACITY\t128\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.orderby.sort.enabled\tQDB_CAIRO_SQL_ORDERBY_SORT_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "cairo.system.o3.column.memory.size\tQDB_CAIRO_SYSTEM_O3_COLUMN_MEMORY_SIZE\t262144\tdefault\tfalse\tfalse\n" +
@@ -851,6 +880,7 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.system.wal.writer.data.append.page.size\tQDB_CAIRO_SYSTEM_WAL_WRITER_DATA_APPEND_PAGE_SIZE\t262144\tdefault\tfalse\tfalse\n" +
                                     "cairo.system.wal.writer.event.append.page.size\tQDB_CAIRO_SYSTEM_WAL_WRITER_EVENT_APPEND_PAGE_SIZE\t16384\tdefault\tfalse\tfalse\n" +
                                     "cairo.system.writer.data.append.page.size\tQDB_CAIRO_SYSTEM_WRITER_DATA_APPEND_PAGE_SIZE\t262144\tdefault\tfalse\tfalse\n" +
+                                    "cairo.symbol.shared.cache.memory.size\tQDB_CAIRO_SYMBOL_SHARED_CACHE_MEMORY_SIZE\t0\tdefault\tfalse\tfalse\n" +
                                     "cairo.symbol.table.min.allocation.page.size\tQDB_CAIRO_SYMBOL_TABLE_MIN_ALLOCATION_PAGE_SIZE\t" + Files.PAGE_SIZE + "\tdefault\tfalse\tfalse\n" +
                                     "cairo.symbol.table.max.allocation.page.size\tQDB_CAIRO_SYMBOL_TABLE_MAX_ALLOCATION_PAGE_SIZE\t8388608\tdefault\tfalse\tfalse\n" +
                                     "cairo.table.registry.auto.reload.frequency\tQDB_CAIRO_TABLE_REGISTRY_AUTO_RELOAD_FREQUENCY\t500\tdefault\tfalse\tfalse\n" +
@@ -865,6 +895,9 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.wal.apply.parallel.sql.enabled\tQDB_CAIRO_WAL_APPLY_PARALLEL_SQL_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.apply.memory.limit.bytes\tQDB_CAIRO_WAL_APPLY_MEMORY_LIMIT_BYTES\t0\tdefault\tfalse\ttrue\n" +
                                     "cairo.wal.enabled.default\tQDB_CAIRO_WAL_ENABLED_DEFAULT\tfalse\tconf\tfalse\tfalse\n" +
+                                    "cairo.wal.group.commit.enabled\tQDB_CAIRO_WAL_GROUP_COMMIT_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.group.commit.interval\tQDB_CAIRO_WAL_GROUP_COMMIT_INTERVAL\t5\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.group.commit.max.pending.txns\tQDB_CAIRO_WAL_GROUP_COMMIT_MAX_PENDING_TXNS\t1024\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.inactive.writer.ttl\tQDB_CAIRO_WAL_INACTIVE_WRITER_TTL\t120000\tdefault\tfalse\tfalse\n" +
                                     "cairo.view.wal.inactive.writer.ttl\tQDB_CAIRO_VIEW_WAL_INACTIVE_WRITER_TTL\t60000\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.max.lag.txn.count\tQDB_CAIRO_WAL_MAX_LAG_TXN_COUNT\t-1\tdefault\tfalse\tfalse\n" +
@@ -875,6 +908,9 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.wal.recreate.distressed.sequencer.attempts\tQDB_CAIRO_WAL_RECREATE_DISTRESSED_SEQUENCER_ATTEMPTS\t3\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.segment.rollover.row.count\tQDB_CAIRO_WAL_SEGMENT_ROLLOVER_ROW_COUNT\t200000\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.segment.rollover.size\tQDB_CAIRO_WAL_SEGMENT_ROLLOVER_SIZE\t52428800\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.shipping.interval\tQDB_CAIRO_WAL_SHIPPING_INTERVAL\t1000\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.shipping.replica\tQDB_CAIRO_WAL_SHIPPING_REPLICA\tfalse\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.shipping.root\tQDB_CAIRO_WAL_SHIPPING_ROOT\t\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.squash.uncommitted.rows.multiplier\tQDB_CAIRO_WAL_SQUASH_UNCOMMITTED_ROWS_MULTIPLIER\t20.0\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.supported\tQDB_CAIRO_WAL_SUPPORTED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.temp.pending.rename.table.prefix\tQDB_CAIRO_WAL_TEMP_PENDING_RENAME_TABLE_PREFIX\ttemp_5822f658-31f6-11ee-be56-0242ac120002\tdefault\tfalse\tfalse\n" +
@@ -900,6 +936,8 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "config.reload.enabled\tQDB_CONFIG_RELOAD_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "config.validation.strict\tQDB_CONFIG_VALIDATION_STRICT\tfalse\tdefault\tfalse\tfalse\n" +
                                     "http.allow.deflate.before.send\tQDB_HTTP_ALLOW_DEFLATE_BEFORE_SEND\tfalse\tdefault\tfalse\tfalse\n" +
+                                    "http.allow.zstd.before.send\tQDB_HTTP_ALLOW_ZSTD_BEFORE_SEND\tfalse\tdefault\tfalse\tfalse\n" +
+                                    "http.zstd.compression.level\tQDB_HTTP_ZSTD_COMPRESSION_LEVEL\t1\tdefault\tfalse\tfalse\n" +
                                     "http.bind.to\tQDB_HTTP_BIND_TO\t0.0.0.0:" + HTTP_PORT + "\tconf\tfalse\tfalse\n" +
                                     "http.user\tQDB_HTTP_USER\t\tdefault\tfalse\tfalse\n" +
                                     "http.password\tQDB_HTTP_PASSWORD\t****\tdefault\ttrue\tfalse\n" +
@@ -1064,6 +1102,7 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.mat.view.rows.per.query.estimate\tQDB_CAIRO_MAT_VIEW_ROWS_PER_QUERY_ESTIMATE\t1000000\tdefault\tfalse\ttrue\n" +
                                     "cairo.mat.view.max.refresh.intervals\tQDB_CAIRO_MAT_VIEW_MAX_REFRESH_INTERVALS\t100\tdefault\tfalse\ttrue\n" +
                                     "cairo.mat.view.refresh.max.clusters\tQDB_CAIRO_MAT_VIEW_REFRESH_MAX_CLUSTERS\t32\tdefault\tfalse\tfalse\n" +
+                                    "cairo.mat.view.refresh.parallelism\tQDB_CAIRO_MAT_VIEW_REFRESH_PARALLELISM\t1\tdefault\tfalse\tfalse\n" +
                                     "cairo.mat.view.max.refresh.step\tQDB_CAIRO_MAT_VIEW_MAX_REFRESH_STEP\t31536000000000\tdefault\tfalse\tfalse\n" +
                                     "cairo.mat.view.refresh.intervals.update.period\tQDB_CAIRO_MAT_VIEW_REFRESH_INTERVALS_UPDATE_PERIOD\t15000\tdefault\tfalse\tfalse\n" +
                                     "cairo.mat.view.refresh.memory.limit.bytes\tQDB_CAIRO_MAT_VIEW_REFRESH_MEMORY_LIMIT_BYTES\t0\tdefault\tfalse\ttrue\n" +
@@ -1153,6 +1192,8 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "qwp.udp.own.thread.affinity\tQDB_QWP_UDP_OWN_THREAD_AFFINITY\t-1\tdefault\tfalse\tfalse\n" +
                                     "qwp.udp.receive.buffer.size\tQDB_QWP_UDP_RECEIVE_BUFFER_SIZE\t-1\tdefault\tfalse\tfalse\n" +
                                     "qwp.udp.unicast\tQDB_QWP_UDP_UNICAST\ttrue\tdefault\tfalse\tfalse\n" +
+                                    "ram.huge.pages.memory.tags\tQDB_RAM_HUGE_PAGES_MEMORY_TAGS\t\tdefault\tfalse\tfalse\n" +
+                                    "ram.huge.pages.min.size\tQDB_RAM_HUGE_PAGES_MIN_SIZE\t2097152\tdefault\tfalse\tfalse\n" +
                                     "ram.usage.limit.bytes\tQDB_RAM_USAGE_LIMIT_BYTES\t0\tdefault\tfalse\tfalse\n" +
                                     "ram.usage.limit.percent\tQDB_RAM_USAGE_LIMIT_PERCENT\t90\tdefault\tfalse\tfalse\n" +
                                     "readonly\tQDB_READONLY\tfalse\tdefault\tfalse\tfalse\n" +
@@ -1192,6 +1233,10 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.partition.encoder.parquet.data.page.size\tQDB_CAIRO_PARTITION_ENCODER_PARQUET_DATA_PAGE_SIZE\t1048576\tdefault\tfalse\tfalse\n" +
                                     "cairo.partition.encoder.parquet.compression.codec\tQDB_CAIRO_PARTITION_ENCODER_PARQUET_COMPRESSION_CODEC\tLZ4_RAW\tdefault\tfalse\tfalse\n" +
                                     "cairo.partition.encoder.parquet.compression.level\tQDB_CAIRO_PARTITION_ENCODER_PARQUET_COMPRESSION_LEVEL\t0\tdefault\tfalse\tfalse\n" +
+                                    "cairo.partition.tiering.age\tQDB_CAIRO_PARTITION_TIERING_AGE\t2592000000\tdefault\tfalse\tfalse\n" +
+                                    "cairo.partition.tiering.interval\tQDB_CAIRO_PARTITION_TIERING_INTERVAL\t60000\tdefault\tfalse\tfalse\n" +
+                                    "cairo.partition.tiering.parquet.enabled\tQDB_CAIRO_PARTITION_TIERING_PARQUET_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
+                                    "cairo.partition.tiering.root\tQDB_CAIRO_PARTITION_TIERING_ROOT\t\tdefault\tfalse\tfalse\n" +
                                     "http.min.request.header.buffer.size\tQDB_HTTP_MIN_REQUEST_HEADER_BUFFER_SIZE\t4096\tdefault\tfalse\tfalse\n" +
                                     "http.min.allow.deflate.before.send\tQDB_HTTP_MIN_ALLOW_DEFLATE_BEFORE_SEND\tfalse\tdefault\tfalse\tfalse\n" +
                                     "http.min.multipart.header.buffer.size\tQDB_HTTP_MIN_MULTIPART_HEADER_BUFFER_SIZE\t512\tdefault\tfalse\tfalse\n" +
@@ -0,0 +1,305 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.MicrosTimestampDriver;
+import io.questdb.cairo.PartitionBy;
+import io.questdb.cairo.PartitionTieringJob;
+import io.questdb.cairo.PartitionTieringMetrics;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.TxReader;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.Utf8String;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PartitionTieringJobTest extends AbstractCairoTest {
+    private static String coldRoot;
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        coldRoot = temp.newFolder("cold").getAbsolutePath();
+        setProperty(PropertyKey.CAIRO_PARTITION_TIERING_AGE, "24h");
+        setProperty(PropertyKey.CAIRO_PARTITION_TIERING_INTERVAL, "0");
+        setProperty(PropertyKey.CAIRO_PARTITION_TIERING_ROOT, coldRoot);
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Test
+    public void testDropRemovesColdCopies() throws Exception {
+        assertMemoryLeak(() -> {
+            setCurrentMicros(MicrosTimestampDriver.floor("2024-03-01T00:00:00.000000Z"));
+            execute("create table z (a int, ts timestamp) timestamp(ts) partition by day");
+            execute(
+                    "insert into z values " +
+                            "(1, '2024-01-01T00:00:00.000000Z'), " +
+                            "(2, '2024-01-02T00:00:00.000000Z'), " +
+                            "(3, '2024-02-29T00:00:00.000000Z')"
+            );
+            final TableToken tableToken = engine.verifyTableName("z");
+            final PartitionTieringJob job = new PartitionTieringJob(engine, coldRoot);
+            Assert.assertTrue(job.run());
+            final String coldCopy0 = readColdCopyPath(tableToken, 0);
+            final String coldCopy1 = readColdCopyPath(tableToken, 1);
+            Assert.assertNotNull(coldCopy0);
+            Assert.assertNotNull(coldCopy1);
+
+            execute("alter table z drop partition list '2024-01-01'");
+            drainPurgeJob();
+            Assert.assertFalse(exists(coldCopy0));
+            Assert.assertTrue(exists(coldCopy1));
+            assertQuery("z")
+                    .noLeakCheck()
+                    .returnsOnce("""
+                            a\tts
+                            2\t2024-01-02T00:00:00.000000Z
+                            3\t2024-02-29T00:00:00.000000Z
+                            """);
+
+            execute("drop table z");
+            Assert.assertFalse(exists(coldCopy1));
+            try (Path path = new Path()) {
+                Assert.assertFalse(exists(path.of(coldRoot).concat(tableToken.getDirName()).toString()));
+            }
+        });
+    }
+
+    @Test
+    public void testLateRowsIntoTieredPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            setCurrentMicros(MicrosTimestampDriver.floor("2024-03-01T00:00:00.000000Z"));
+            execute("create table y (a int, ts timestamp) timestamp(ts) partition by day");
+            execute(
+                    "insert into y values " +
+                            "(1, '2024-01-01T00:00:00.000000Z'), " +
+                            "(2, '2024-01-01T12:00:00.000000Z'), " +
+                            "(3, '2024-01-02T00:00:00.000000Z'), " +
+                            "(4, '2024-02-29T00:00:00.000000Z')"
+            );
+            final TableToken tableToken = engine.verifyTableName("y");
+            final PartitionTieringMetrics metrics = engine.getMetrics().partitionTieringMetrics();
+            final long movedBefore = metrics.getMovedPartitionCount();
+
+            final PartitionTieringJob job = new PartitionTieringJob(engine, coldRoot);
+            Assert.assertTrue(job.run());
+            Assert.assertEquals(movedBefore + 2, metrics.getMovedPartitionCount());
+            Assert.assertTrue(isPartitionLinked(tableToken, 0));
+            Assert.assertTrue(isPartitionLinked(tableToken, 1));
+            final String oldColdCopy = readColdCopyPath(tableToken, 0);
+            Assert.assertNotNull(oldColdCopy);
+
+            // late rows are merged into the tiered partitions, none is dropped
+            execute(
+                    "insert into y values " +
+                            "(5, '2024-01-01T06:00:00.000000Z'), " +
+                            "(6, '2024-01-02T12:00:00.000000Z')"
+            );
+            // updates write through the link to the cold copy
+            execute("update y set a = 30 where a = 3");
+            assertQuery("y")
+                    .noLeakCheck()
+                    .returnsOnce("""
+                            a\tts
+                            1\t2024-01-01T00:00:00.000000Z
+                            5\t2024-01-01T06:00:00.000000Z
+                            2\t2024-01-01T12:00:00.000000Z
+                            30\t2024-01-02T00:00:00.000000Z
+                            6\t2024-01-02T12:00:00.000000Z
+                            4\t2024-02-29T00:00:00.000000Z
+                            """);
+            try (TableReader reader = getReader("y")) {
+                Assert.assertFalse(reader.getTxFile().isPartitionReadOnly(0));
+                Assert.assertFalse(reader.getTxFile().isPartitionReadOnly(1));
+            }
+
+            // the merge rewrote the first partition on the hot volume, the purge of
+            // the previous version takes its cold copy with it
+            Assert.assertFalse(isPartitionLinked(tableToken, 0));
+            drainPurgeJob();
+            Assert.assertFalse(exists(oldColdCopy));
+
+            // and the partition is moved again
+            Assert.assertTrue(job.run());
+            Assert.assertTrue(isPartitionLinked(tableToken, 0));
+            Assert.assertNotEquals(oldColdCopy, readColdCopyPath(tableToken, 0));
+            assertQuery("select count(), sum(a) from y")
+                    .noLeakCheck()
+                    .returnsOnce("""
+                            count\tsum
+                            6\t48
+                            """);
+        });
+    }
+
+    @Test
+    public void testMovesOldPartitionsToColdVolume() throws Exception {
+        assertMemoryLeak(() -> {
+            setCurrentMicros(MicrosTimestampDriver.floor("2024-03-01T00:00:00.000000Z"));
+            execute("create table x (a int, ts timestamp) timestamp(ts) partition by day");
+            execute(
+                    "insert into x values " +
+                            "(1, '2024-01-01T00:00:00.000000Z'), " +
+                            "(2, '2024-01-02T00:00:00.000000Z'), " +
+                            "(3, '2024-02-29T00:00:00.000000Z')"
+            );
+            final TableToken tableToken = engine.verifyTableName("x");
+            final PartitionTieringMetrics metrics = engine.getMetrics().partitionTieringMetrics();
+            final long movedBefore = metrics.getMovedPartitionCount();
+            final long coldOpensBefore = metrics.getColdOpenCount();
+
+            final PartitionTieringJob job = new PartitionTieringJob(engine, coldRoot);
+            Assert.assertTrue(job.run());
+            Assert.assertEquals(movedBefore + 2, metrics.getMovedPartitionCount());
+            // moved partitions are soft links, there is nothing left to move
+            Assert.assertFalse(job.run());
+
+            try (TableReader reader = getReader("x")) {
+                final TxReader txFile = reader.getTxFile();
+                // moved partitions stay writable
+                Assert.assertFalse(txFile.isPartitionReadOnly(0));
+                Assert.assertFalse(txFile.isPartitionReadOnly(1));
+            }
+            Assert.assertTrue(isPartitionLinked(tableToken, 0));
+            Assert.assertTrue(isPartitionLinked(tableToken, 1));
+            // the active partition stays on the hot volume
+            Assert.assertFalse(isPartitionLinked(tableToken, 2));
+
+            final FilesFacade ff = configuration.getFilesFacade();
+            try (Path path = new Path()) {
+                Assert.assertTrue(ff.getDirSize(path.of(coldRoot).concat(tableToken.getDirName())) > 0);
+            }
+
+            // readers follow the soft links to the cold volume
+            assertQuery("x")
+                    .noLeakCheck()
+                    .returnsOnce("""
+                            a\tts
+                            1\t2024-01-01T00:00:00.000000Z
+                            2\t2024-01-02T00:00:00.000000Z
+                            3\t2024-02-29T00:00:00.000000Z
+                            """);
+            Assert.assertTrue(metrics.getColdOpenCount() > coldOpensBefore);
+
+            // the active partition still takes writes
+            execute("insert into x values (4, '2024-02-29T01:00:00.000000Z')");
+            assertQuery("select count() from x")
+                    .noLeakCheck()
+                    .returnsOnce("""
+                            count
+                            4
+                            """);
+        });
+    }
+
+    @Test
+    public void testSkipsWalTables() throws Exception {
+        assertMemoryLeak(() -> {
+            setCurrentMicros(MicrosTimestampDriver.floor("2024-03-01T00:00:00.000000Z"));
+            execute("create table w (a int, ts timestamp) timestamp(ts) partition by day wal");
+            execute(
+                    "insert into w values " +
+                            "(1, '2024-01-01T00:00:00.000000Z'), " +
+                            "(2, '2024-01-02T00:00:00.000000Z'), " +
+                            "(3, '2024-02-29T00:00:00.000000Z')"
+            );
+            drainWalQueue();
+            final TableToken tableToken = engine.verifyTableName("w");
+            final PartitionTieringMetrics metrics = engine.getMetrics().partitionTieringMetrics();
+            final long movedBefore = metrics.getMovedPartitionCount();
+
+            // the move would bypass the sequencer
+            final PartitionTieringJob job = new PartitionTieringJob(engine, coldRoot);
+            Assert.assertFalse(job.run());
+            Assert.assertEquals(movedBefore, metrics.getMovedPartitionCount());
+            Assert.assertFalse(isPartitionLinked(tableToken, 0));
+            Assert.assertFalse(isPartitionLinked(tableToken, 1));
+            Assert.assertFalse(exists(coldRoot + Files.SEPARATOR + tableToken.getDirName()));
+
+            // and the table keeps taking WAL commits
+            execute("insert into w values (4, '2024-01-01T12:00:00.000000Z')");
+            drainWalQueue();
+            assertQuery("select count(), sum(a) from w")
+                    .noLeakCheck()
+                    .returnsOnce("""
+                            count\tsum
+                            4\t10
+                            """);
+        });
+    }
+
+    private static boolean exists(String dir) {
+        try (Path path = new Path()) {
+            return configuration.getFilesFacade().exists(path.of(dir).$());
+        }
+    }
+
+    private static boolean isPartitionLinked(TableToken tableToken, int partitionIndex) {
+        try (
+                TableReader reader = getReader(tableToken);
+                Path path = new Path()
+        ) {
+            final TxReader txFile = reader.getTxFile();
+            path.of(configuration.getDbRoot()).concat(tableToken);
+            TableUtils.setPathForNativePartition(
+                    path,
+                    ColumnType.TIMESTAMP,
+                    PartitionBy.DAY,
+                    txFile.getPartitionTimestampByIndex(partitionIndex),
+                    txFile.getPartitionNameTxn(partitionIndex)
+            );
+            return configuration.getFilesFacade().isSoftLink(path.$());
+        }
+    }
+
+    // Returns the cold copy the partition links to, or null when it is not tiered.
+    private static String readColdCopyPath(TableToken tableToken, int partitionIndex) {
+        try (
+                TableReader reader = getReader(tableToken);
+                Path path = new Path();
+                Path target = new Path()
+        ) {
+            final TxReader txFile = reader.getTxFile();
+            path.of(configuration.getDbRoot()).concat(tableToken);
+            TableUtils.setPathForNativePartition(
+                    path,
+                    ColumnType.TIMESTAMP,
+                    PartitionBy.DAY,
+                    txFile.getPartitionTimestampByIndex(partitionIndex),
+                    txFile.getPartitionNameTxn(partitionIndex)
+            );
+            return TableUtils.readTieredPartitionLink(configuration.getFilesFacade(), path, new Utf8String(coldRoot), target)
+                    ? target.toString()
+                    : null;
+        }
+    }
+}
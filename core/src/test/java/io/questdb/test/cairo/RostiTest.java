@@ -26,13 +26,49 @@ package io.questdb.test.cairo;
 
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.SingleColumnType;
+import io.questdb.std.Files;
+import io.questdb.std.IntList;
+import io.questdb.std.MemoryTag;
 import io.questdb.std.Rosti;
+import io.questdb.std.Unsafe;
 import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
 import org.junit.Test;
 
 
 public class RostiTest extends AbstractCairoTest {
 
+    @Test
+    public void testHugePages() {
+        final IntList tags = new IntList();
+        tags.add(MemoryTag.NATIVE_ROSTI);
+        Unsafe.setHugePages(tags, Files.PAGE_SIZE);
+        final int keyCount = 100_000;
+        final long pKeys = Unsafe.malloc((long) keyCount * Integer.BYTES, MemoryTag.NATIVE_DEFAULT);
+        long pRosti = 0;
+        try {
+            for (int i = 0; i < keyCount; i++) {
+                Unsafe.putInt(pKeys + (long) i * Integer.BYTES, i);
+            }
+            pRosti = Rosti.alloc(new SingleColumnType(ColumnType.INT), 16);
+            final long oldSize = Rosti.getAllocMemory(pRosti);
+            // the map grows as keys are added, so the arena is re-advised after each resize
+            Assert.assertTrue(Rosti.keyedIntDistinct(pRosti, pKeys, keyCount));
+            Rosti.updateMemoryUsage(pRosti, oldSize);
+            Assert.assertTrue(Rosti.getAllocMemory(pRosti) > oldSize);
+            Assert.assertEquals(keyCount, Rosti.getSize(pRosti));
+            // re-adding the same keys is a no-op
+            Assert.assertTrue(Rosti.keyedIntDistinct(pRosti, pKeys, keyCount));
+            Assert.assertEquals(keyCount, Rosti.getSize(pRosti));
+        } finally {
+            if (pRosti != 0) {
+                Rosti.free(pRosti);
+            }
+            Unsafe.free(pKeys, (long) keyCount * Integer.BYTES, MemoryTag.NATIVE_DEFAULT);
+            Unsafe.setHugePages(new IntList(), 0);
+        }
+    }
+
     @Test
     public void testPrintRosti() {
         long pRosti = Rosti.alloc(new SingleColumnType(ColumnType.INT), 1024);
@@ -0,0 +1,163 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.SharedSymbolCache;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.TableWriter;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.cairo.wal.WalWriter;
+import io.questdb.std.Numbers;
+import io.questdb.std.str.Utf8String;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SharedSymbolCacheTest extends AbstractCairoTest {
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        setProperty(PropertyKey.CAIRO_SYMBOL_SHARED_CACHE_MEMORY_SIZE, Numbers.SIZE_1MB);
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Test
+    public void testDisabledWhenBudgetIsTooSmall() {
+        Assert.assertFalse(new SharedSymbolCache(0).isEnabled());
+        Assert.assertFalse(new SharedSymbolCache(1024).isEnabled());
+        Assert.assertTrue(new SharedSymbolCache(Numbers.SIZE_1MB).isEnabled());
+    }
+
+    @Test
+    public void testEntriesAreScopedBySymbolTableVersion() {
+        final SharedSymbolCache cache = new SharedSymbolCache(Numbers.SIZE_1MB);
+        final Utf8String value = new Utf8String("Таке-Сяке");
+        cache.put(1, 2, 0, 0, value, 7);
+        Assert.assertEquals(7, cache.keyOf(1, 2, 0, 0, value));
+        // truncated table
+        Assert.assertEquals(SymbolTable.VALUE_NOT_FOUND, cache.keyOf(1, 2, 0, 1, value));
+        // symbol table rebuilt under a new name txn
+        Assert.assertEquals(SymbolTable.VALUE_NOT_FOUND, cache.keyOf(1, 2, 3, 0, value));
+        // another column and another table
+        Assert.assertEquals(SymbolTable.VALUE_NOT_FOUND, cache.keyOf(1, 3, 0, 0, value));
+        Assert.assertEquals(SymbolTable.VALUE_NOT_FOUND, cache.keyOf(2, 2, 0, 0, value));
+        Assert.assertEquals(SymbolTable.VALUE_NOT_FOUND, cache.keyOf(1, 2, 0, 0, new Utf8String("Таке")));
+
+        cache.clear();
+        Assert.assertEquals(0, cache.getEntryCount());
+        Assert.assertEquals(SymbolTable.VALUE_NOT_FOUND, cache.keyOf(1, 2, 0, 0, value));
+    }
+
+    @Test
+    public void testHotEntriesSurviveEviction() {
+        final SharedSymbolCache cache = new SharedSymbolCache(64 * 1024);
+        final Utf8String hot = new Utf8String("hot");
+        cache.put(1, 0, 0, 0, hot, 42);
+        for (int i = 0; i < 10_000; i++) {
+            Assert.assertEquals(42, cache.keyOf(1, 0, 0, 0, hot));
+            cache.put(1, 0, 0, 0, new Utf8String("cold_" + i), i);
+        }
+        Assert.assertEquals(42, cache.keyOf(1, 0, 0, 0, hot));
+        // cold entries that were never hit get evicted
+        Assert.assertEquals(SymbolTable.VALUE_NOT_FOUND, cache.keyOf(1, 0, 0, 0, new Utf8String("cold_0")));
+    }
+
+    @Test
+    public void testMemoryIsBounded() {
+        final SharedSymbolCache cache = new SharedSymbolCache(64 * 1024);
+        Assert.assertTrue(cache.isEnabled());
+        Utf8String value = null;
+        for (int i = 0; i < 10_000; i++) {
+            value = new Utf8String("sym_" + i);
+            cache.put(1, 0, 0, 0, value, i);
+            Assert.assertTrue(cache.getEntryCount() <= 16 * 16);
+        }
+        Assert.assertEquals(9_999, cache.keyOf(1, 0, 0, 0, value));
+    }
+
+    @Test
+    public void testWalWritersShareCommittedSymbolKeys() throws Exception {
+        assertMemoryLeak(() -> {
+            execute("create table x (s symbol, ts timestamp) timestamp(ts) partition by day wal");
+            execute("insert into x values ('a', 0), ('b', 1)");
+            drainWalQueue();
+
+            final TableToken tableToken = engine.verifyTableName("x");
+            final SharedSymbolCache cache = engine.getSharedSymbolCache();
+            try {
+                try (WalWriter walWriter = engine.getWalWriter(tableToken)) {
+                    putSymbols(walWriter, 2, "a", "b", "c");
+                    walWriter.commit();
+                }
+                // 'c' is local to the WAL segment until it is applied, so it must not be shared
+                Assert.assertEquals(2, cache.getEntryCount());
+                drainWalQueue();
+
+                try (
+                        WalWriter walWriter1 = engine.getWalWriter(tableToken);
+                        WalWriter walWriter2 = engine.getWalWriter(tableToken)
+                ) {
+                    putSymbols(walWriter1, 5, "b", "c", "a");
+                    putSymbols(walWriter2, 8, "a", "d", "b");
+                    walWriter1.commit();
+                    walWriter2.commit();
+                }
+                drainWalQueue();
+
+                assertQuery("select s, count() from x order by s")
+                        .noLeakCheck()
+                        .returnsOnce("""
+                                s\tcount
+                                a\t4
+                                b\t4
+                                c\t2
+                                d\t1
+                                """);
+                assertQuery("select distinct s from x order by s")
+                        .noLeakCheck()
+                        .returnsOnce("""
+                                s
+                                a
+                                b
+                                c
+                                d
+                                """);
+            } finally {
+                cache.clear();
+            }
+        });
+    }
+
+    private static void putSymbols(WalWriter walWriter, long timestamp, String... values) {
+        for (String value : values) {
+            final TableWriter.Row row = walWriter.newRow(timestamp++);
+            TestUtils.putUtf8(row, value, 0, true);
+            row.append();
+        }
+    }
+}
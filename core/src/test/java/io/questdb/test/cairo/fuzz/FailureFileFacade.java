@@ -293,6 +293,11 @@ public class FailureFileFacade implements FilesFacade {
         return ff.isSoftLink(softLink);
     }
 
+    @Override
+    public boolean isSyncFsSupported() {
+        return ff.isSyncFsSupported();
+    }
+
     @Override
     public void iterateDir(LPSZ path, FindVisitor func) {
         ff.iterateDir(path, func);
@@ -566,6 +571,11 @@ public class FailureFileFacade implements FilesFacade {
         return ff.sync();
     }
 
+    @Override
+    public int syncfs(long fd) {
+        return ff.syncfs(fd);
+    }
+
     @Override
     public boolean touch(LPSZ path) {
         if (checkForFailure()) {
@@ -0,0 +1,185 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo.mv;
+
+import io.questdb.PropertyKey;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MatViewQueryRewriteTest extends AbstractCairoTest {
+
+    @Before
+    public void setUp() {
+        setProperty(PropertyKey.CAIRO_MAT_VIEW_QUERY_REWRITE_ENABLED, "true");
+        super.setUp();
+    }
+
+    @Test
+    public void testCreateMatViewIsNotRewritten() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            // the view's own query keeps reading the base table
+            assertPlanDoesNotContain(
+                    "create materialized view price_1h as select sym, sum(price) total, ts from base_price sample by 1h",
+                    "price_1m"
+            );
+        });
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        setProperty(PropertyKey.CAIRO_MAT_VIEW_QUERY_REWRITE_ENABLED, "false");
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            assertPlanDoesNotContain("select ts, sym, sum(price) from base_price sample by 1h", "price_1m");
+        });
+    }
+
+    @Test
+    public void testFreshView() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+
+            final String query = "select ts, sym, sum(price), max(price), count() from base_price sample by 1h order by ts, sym";
+            assertPlanContains(query, "price_1m");
+            assertPlanDoesNotContain(query, "base_price");
+            assertQuery(query)
+                    .noLeakCheck()
+                    .inferRandomAccess()
+                    .inferTimestamp()
+                    .sizeMayVary()
+                    .returns("""
+                            ts\tsym\tsum\tmax\tcount
+                            2024-09-10T12:00:00.000000Z\ta\t3.0\t2.0\t2
+                            2024-09-10T12:00:00.000000Z\tb\t3.0\t3.0\t1
+                            2024-09-10T13:00:00.000000Z\ta\t4.0\t4.0\t1
+                            """);
+
+            // keys may be dropped and filtered on
+            assertPlanContains("select ts, sum(price) from base_price where sym = 'a' sample by 1d", "price_1m");
+            assertQuery("select ts, sum(price) from base_price where sym = 'a' sample by 1d")
+                    .noLeakCheck()
+                    .inferRandomAccess()
+                    .inferTimestamp()
+                    .sizeMayVary()
+                    .returns("""
+                            ts\tsum
+                            2024-09-10T00:00:00.000000Z\t7.0
+                            """);
+        });
+    }
+
+    @Test
+    public void testIneligibleQueries() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            // avg() can't be re-aggregated
+            assertPlanDoesNotContain("select ts, sym, avg(price) from base_price sample by 1h", "price_1m");
+            // interval isn't a multiple of the view's
+            assertPlanDoesNotContain("select ts, sym, sum(price) from base_price sample by 90s", "price_1m");
+            // different time zone
+            assertPlanDoesNotContain("select ts, sym, sum(price) from base_price sample by 1h align to calendar time zone 'Europe/London'", "price_1m");
+            // filter on a non-key column
+            assertPlanDoesNotContain("select ts, sym, sum(price) from base_price where price > 1 sample by 1h", "price_1m");
+            // filter on the timestamp
+            assertPlanDoesNotContain("select ts, sym, sum(price) from base_price where ts > '2024-09-10T12:30' sample by 1h", "price_1m");
+            // buckets depend on the data
+            assertPlanDoesNotContain("select ts, sym, sum(price) from base_price sample by 1h align to first observation", "price_1m");
+            // last() over a subset of the view keys isn't in timestamp order
+            assertPlanDoesNotContain("select ts, last(price) from base_price sample by 1h", "price_1m");
+        });
+    }
+
+    @Test
+    public void testInvalidViewIsNotUsed() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            execute("truncate table base_price");
+            drainWalAndMatViewQueues();
+            assertPlanDoesNotContain("select ts, sym, sum(price) from base_price sample by 1h", "price_1m");
+        });
+    }
+
+    @Test
+    public void testStaleViewReadsTailFromBaseTable() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            execute("insert into base_price values ('b', 5, '2024-09-10T13:10'), ('a', 6, '2024-09-10T13:59')");
+            // apply the base table WAL, but leave the view behind
+            drainWalQueue();
+
+            final String query = "select ts, sym, sum(price), count() from base_price sample by 1h order by ts, sym";
+            assertPlanContains(query, "Union All");
+            assertPlanContains(query, "price_1m");
+            assertQuery(query)
+                    .noLeakCheck()
+                    .inferRandomAccess()
+                    .inferTimestamp()
+                    .sizeMayVary()
+                    .returns("""
+                            ts\tsym\tsum\tcount
+                            2024-09-10T12:00:00.000000Z\ta\t3.0\t2
+                            2024-09-10T12:00:00.000000Z\tb\t3.0\t1
+                            2024-09-10T13:00:00.000000Z\ta\t10.0\t2
+                            2024-09-10T13:00:00.000000Z\tb\t5.0\t1
+                            """);
+
+            drainWalAndMatViewQueues();
+            assertPlanDoesNotContain(query, "Union All");
+            assertPlanDoesNotContain(query, "base_price");
+        });
+    }
+
+    private static void createBaseTableAndView() throws Exception {
+        execute("create table base_price (sym varchar, price double, ts timestamp) timestamp(ts) partition by day wal");
+        execute(
+                "create materialized view price_1m as " +
+                        "select sym, sum(price) total, max(price) hi, last(price) last_price, count() cnt, ts from base_price sample by 1m"
+        );
+        execute(
+                "insert into base_price values ('a', 1, '2024-09-10T12:01'), ('a', 2, '2024-09-10T12:02')" +
+                        ", ('b', 3, '2024-09-10T12:30'), ('a', 4, '2024-09-10T13:05')"
+        );
+        drainWalAndMatViewQueues();
+    }
+
+    private void assertPlanContains(String query, String marker) throws Exception {
+        final String plan = explain(query);
+        Assert.assertTrue("expected plan for [" + query + "] to contain '" + marker + "', got:\n" + plan, plan.contains(marker));
+    }
+
+    private void assertPlanDoesNotContain(String query, String marker) throws Exception {
+        final String plan = explain(query);
+        Assert.assertFalse("expected plan for [" + query + "] to not contain '" + marker + "', got:\n" + plan, plan.contains(marker));
+    }
+
+    private String explain(String query) throws Exception {
+        sink.clear();
+        printSql("explain " + query);
+        return sink.toString();
+    }
+}
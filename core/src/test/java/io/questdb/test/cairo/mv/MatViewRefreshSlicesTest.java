@@ -0,0 +1,262 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo.mv;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.mv.MatViewRefreshJob;
+import io.questdb.cairo.mv.MatViewRefreshSlices;
+import io.questdb.cairo.mv.MatViewState;
+import io.questdb.std.Os;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MatViewRefreshSlicesTest extends AbstractCairoTest {
+    private static final String VIEW_QUERY = "select sym, last(price) price, sum(amount) amount, ts from base_price sample by 1h";
+
+    @Before
+    public void setUp() {
+        setProperty(PropertyKey.CAIRO_MAT_VIEW_REFRESH_PARALLELISM, 4);
+        // one hour bucket per step, hence one slice per hour
+        setProperty(PropertyKey.CAIRO_MAT_VIEW_ROWS_PER_QUERY_ESTIMATE, 1);
+        super.setUp();
+    }
+
+    @Test
+    public void testCommitTurnWaitsForPreviousSlice() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            final TableToken viewToken = engine.verifyTableName("price_1h");
+            final MatViewState viewState = engine.getMatViewStateStore().getViewState(viewToken);
+            Assert.assertNotNull(viewState);
+
+            final MatViewRefreshSlices slices = new MatViewRefreshSlices();
+            // the second slice is woken up by the commit of the first one
+            Assert.assertEquals(1, awaitSecondSlice(slices, viewState, false));
+            // or by a failure, in which case it's rolled back
+            Assert.assertEquals(0, awaitSecondSlice(slices, viewState, true));
+            slices.clear();
+        });
+    }
+
+    @Test
+    public void testIncrementalRefreshInSlices() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            insertRows("2024-09-10T00:00", 600);
+            drainWalAndMatViewQueues();
+            assertViewData();
+
+            // rewrite a few hours in the middle and append a few more
+            insertRows("2024-09-10T03:30", 240);
+            insertRows("2024-09-10T12:00", 180);
+            drainWalAndMatViewQueues();
+            assertViewData();
+            assertQuery("select view_status, refresh_slices = refresh_slices_committed from materialized_views()")
+                    .noLeakCheck()
+                    .inferRandomAccess()
+                    .inferTimestamp()
+                    .sizeMayVary()
+                    .returns("""
+                            view_status\tcolumn
+                            valid\ttrue
+                            """);
+        });
+    }
+
+    @Test
+    public void testInitialRefreshInSlices() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            insertRows("2024-09-10T00:00", 600);
+            drainWalAndMatViewQueues();
+
+            assertViewData();
+            assertQuery("select view_status, refresh_slices, refresh_slices_committed from materialized_views()")
+                    .noLeakCheck()
+                    .inferRandomAccess()
+                    .inferTimestamp()
+                    .sizeMayVary()
+                    .returns("""
+                            view_status\trefresh_slices\trefresh_slices_committed
+                            valid\t10\t10
+                            """);
+
+            // full refresh is sliced too
+            execute("refresh materialized view price_1h full");
+            drainWalAndMatViewQueues();
+            assertViewData();
+            assertQuery("select view_status, refresh_slices, refresh_slices_committed from materialized_views()")
+                    .noLeakCheck()
+                    .inferRandomAccess()
+                    .inferTimestamp()
+                    .sizeMayVary()
+                    .returns("""
+                            view_status\trefresh_slices\trefresh_slices_committed
+                            valid\t10\t10
+                            """);
+        });
+    }
+
+    @Test
+    public void testRangeRefreshInSlices() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            insertRows("2024-09-10T00:00", 600);
+            drainWalAndMatViewQueues();
+
+            execute("refresh materialized view price_1h range from '2024-09-10T02:00' to '2024-09-10T05:59'");
+            drainWalAndMatViewQueues();
+            assertViewData();
+            assertQuery("select view_status, refresh_slices, refresh_slices_committed from materialized_views()")
+                    .noLeakCheck()
+                    .inferRandomAccess()
+                    .inferTimestamp()
+                    .sizeMayVary()
+                    .returns("""
+                            view_status\trefresh_slices\trefresh_slices_committed
+                            valid\t4\t4
+                            """);
+        });
+    }
+
+    @Test
+    public void testSingleWorkerRefresh() throws Exception {
+        setProperty(PropertyKey.CAIRO_MAT_VIEW_REFRESH_PARALLELISM, 1);
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            insertRows("2024-09-10T00:00", 600);
+            drainWalAndMatViewQueues();
+
+            assertViewData();
+            assertQuery("select view_status, refresh_slices, refresh_slices_committed from materialized_views()")
+                    .noLeakCheck()
+                    .inferRandomAccess()
+                    .inferTimestamp()
+                    .sizeMayVary()
+                    .returns("""
+                            view_status\trefresh_slices\trefresh_slices_committed
+                            valid\t0\t0
+                            """);
+        });
+    }
+
+    @Test
+    public void testSlicesRefreshedByHelper() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            insertRows("2024-09-10T00:00", 1200);
+
+            final AtomicBoolean stop = new AtomicBoolean();
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            try (
+                    MatViewRefreshJob ownerJob = new MatViewRefreshJob(engine, 1);
+                    MatViewRefreshJob helperJob = new MatViewRefreshJob(engine, 1)
+            ) {
+                final Thread helper = new Thread(() -> {
+                    try {
+                        while (!stop.get()) {
+                            if (!helperJob.run()) {
+                                Os.pause();
+                            }
+                        }
+                    } catch (Throwable th) {
+                        error.set(th);
+                    }
+                });
+                helper.start();
+                try {
+                    drainWalAndMatViewQueues(ownerJob, engine);
+                } finally {
+                    stop.set(true);
+                    helper.join();
+                }
+                Assert.assertNull(error.get());
+                // the helper may have picked up refresh tasks too
+                drainWalAndMatViewQueues(ownerJob, engine);
+            }
+            assertViewData();
+        });
+    }
+
+    private static void assertViewData() throws Exception {
+        assertSqlCursors(VIEW_QUERY + " order by ts, sym", "price_1h order by ts, sym");
+    }
+
+    // Returns 1 when the waiter on the second slice got its commit turn, 0 when it was told to roll back.
+    private static int awaitSecondSlice(MatViewRefreshSlices slices, MatViewState viewState, boolean fail) throws Exception {
+        slices.of(viewState.getViewDefinition(), viewState);
+        slices.addSlice(0, 1);
+        slices.addSlice(1, 2);
+        final long generation = slices.open();
+        Assert.assertTrue(slices.tryJoin(generation));
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger result = new AtomicInteger(-1);
+        final Thread waiter = new Thread(() -> {
+            started.countDown();
+            result.set(slices.awaitCommitTurn(1) ? 1 : 0);
+            slices.leave();
+        });
+        waiter.start();
+        started.await();
+        // the waiter blocks until the first slice is done
+        waiter.join(50);
+        Assert.assertTrue(waiter.isAlive());
+        Assert.assertEquals(-1, result.get());
+
+        if (fail) {
+            slices.fail();
+        } else {
+            Assert.assertTrue(slices.awaitCommitTurn(0));
+            slices.sliceCommitted();
+        }
+        waiter.join(TimeUnit.SECONDS.toMillis(10));
+        Assert.assertFalse(waiter.isAlive());
+        // close() returns once the helper has left
+        slices.close();
+        return result.get();
+    }
+
+    private static void createBaseTableAndView() throws Exception {
+        execute("create table base_price (sym symbol, price double, amount long, ts timestamp) timestamp(ts) partition by day wal");
+        execute("create materialized view price_1h as " + VIEW_QUERY);
+    }
+
+    private static void insertRows(String from, int minutes) throws Exception {
+        execute(
+                "insert into base_price select rnd_symbol('a', 'b', 'c'), rnd_double(), rnd_long(0, 100, 0), " +
+                        "timestamp_sequence('" + from + "', 60_000_000) from long_sequence(" + minutes + ")"
+        );
+    }
+}
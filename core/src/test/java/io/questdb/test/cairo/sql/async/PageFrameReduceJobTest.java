@@ -0,0 +1,48 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo.sql.async;
+
+import io.questdb.cairo.sql.async.PageFrameReduceJob;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PageFrameReduceJobTest {
+
+    @Test
+    public void testWorkerShardGroups() {
+        // 8 workers over 2 shards, e.g. two NUMA nodes with 4 pinned workers each
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(0, PageFrameReduceJob.getWorkerShard(i, 8, 2));
+        }
+        for (int i = 4; i < 8; i++) {
+            Assert.assertEquals(1, PageFrameReduceJob.getWorkerShard(i, 8, 2));
+        }
+        // more shards than workers
+        Assert.assertEquals(0, PageFrameReduceJob.getWorkerShard(0, 2, 4));
+        Assert.assertEquals(2, PageFrameReduceJob.getWorkerShard(1, 2, 4));
+        // ids outside the pool wrap around
+        Assert.assertEquals(1, PageFrameReduceJob.getWorkerShard(9, 8, 2));
+    }
+}
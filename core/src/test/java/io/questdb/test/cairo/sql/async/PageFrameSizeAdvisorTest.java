@@ -0,0 +1,109 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo.sql.async;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.GenericRecordMetadata;
+import io.questdb.cairo.TableColumnMetadata;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameSizeAdvisor;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PageFrameSizeAdvisorTest extends AbstractCairoTest {
+
+    @Test
+    public void testAdviseFromMeasuredCost() {
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_ADAPTIVE_ENABLED, "true");
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_ADAPTIVE_TASK_TIME, 1_000);
+        final PageFrameSizeAdvisor advisor = new PageFrameSizeAdvisor(configuration, PageFrameReduceTask.TYPE_FILTER);
+        Assert.assertTrue(advisor.isEnabled());
+
+        final GenericRecordMetadata metadata = new GenericRecordMetadata();
+        metadata.add(new TableColumnMetadata("l", ColumnType.LONG));
+        metadata.add(new TableColumnMetadata("d", ColumnType.DOUBLE));
+
+        // no measurements yet: a 16-byte row halves the max frame
+        advisor.advise(metadata, 1_000, 1_000_000);
+        Assert.assertEquals(16, advisor.getBytesPerRow());
+        Assert.assertEquals(1_000, advisor.getAdvisedMinRows());
+        Assert.assertEquals(500_000, advisor.getAdvisedMaxRows());
+
+        // 10 ns per row with 1 ms budget gives 100k rows per frame
+        advisor.onFrameReduced(50_000, 5_000, 500_000);
+        advisor.onFrameReduced(50_000, 5_000, 500_000);
+        advisor.onSequenceFinished();
+        Assert.assertEquals(10.0, advisor.getAvgNanosPerRow(), 0.0001);
+        Assert.assertEquals(0.1, advisor.getAvgSelectivity(), 0.0001);
+        advisor.advise(metadata, 1_000, 1_000_000);
+        Assert.assertEquals(100_000, advisor.getAdvisedMinRows());
+        Assert.assertEquals(100_000, advisor.getAdvisedMaxRows());
+
+        // expensive rows are clamped to the min frame size
+        for (int i = 0; i < 20; i++) {
+            advisor.onFrameReduced(1_000, 1_000, 1_000_000_000);
+            advisor.onSequenceFinished();
+        }
+        advisor.advise(metadata, 1_000, 1_000_000);
+        Assert.assertEquals(1_000, advisor.getAdvisedMaxRows());
+
+        // a finished execution without reduced frames keeps the averages
+        final double avg = advisor.getAvgNanosPerRow();
+        advisor.onSequenceFinished();
+        Assert.assertEquals(avg, advisor.getAvgNanosPerRow(), 0.0);
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        final PageFrameSizeAdvisor advisor = new PageFrameSizeAdvisor(configuration, PageFrameReduceTask.TYPE_FILTER);
+        Assert.assertFalse(advisor.isEnabled());
+    }
+
+    @Test
+    public void testFilterResultsAndPlan() throws Exception {
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_ADAPTIVE_ENABLED, "true");
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MIN_ROWS, 100);
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, 1_000);
+        assertMemoryLeak(() -> {
+            execute("create table x as (select x, timestamp_sequence(0, 1000000) ts from long_sequence(10000)) timestamp(ts) partition by hour");
+            final String query = "select count() from (select * from x where x % 10 = 0)";
+            for (int i = 0; i < 3; i++) {
+                assertQuery(query)
+                        .noLeakCheck()
+                        .returnsOnce("count\n1000\n");
+            }
+            final String plan = getPlan("select * from x where x % 10 = 0").toString();
+            TestUtils.assertContains(plan, "frame sizing:");
+        });
+    }
+
+    private CharSequence getPlan(String query) throws Exception {
+        printSql("explain " + query);
+        return sink;
+    }
+}
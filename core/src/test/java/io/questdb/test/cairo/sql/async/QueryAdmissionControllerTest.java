@@ -0,0 +1,359 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo.sql.async;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.EntryUnavailableException;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.async.QueryAdmissionController;
+import io.questdb.cairo.sql.async.QueryFairShare;
+import io.questdb.cairo.sql.async.QueryWorkloadClass;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.std.Numbers;
+import io.questdb.std.Os;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryAdmissionControllerTest extends AbstractCairoTest {
+
+    @Test
+    public void testAdmissionBlockedUntilSlotReleased() throws Exception {
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_LOW_MAX_CONCURRENT, 1);
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_ADMISSION_BLOCKING_TIMEOUT, 60_000);
+        assertMemoryLeak(() -> {
+            execute("create table x as (select x from long_sequence(10))");
+            final QueryAdmissionController controller = engine.getQueryAdmissionController();
+            final byte heldClass = controller.acquire(sqlExecutionContext, QueryWorkloadClass.LOW);
+            Assert.assertEquals(QueryWorkloadClass.LOW, heldClass);
+            final Thread releaser = new Thread(() -> {
+                Os.sleep(50);
+                controller.release(heldClass);
+            });
+            try (RecordCursorFactory factory = select("select /*+ workload_class(low) */ * from x where x > 5")) {
+                releaser.start();
+                // the caller can't re-run the query, so it waits on the calling thread
+                try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                    Assert.assertTrue(cursor.hasNext());
+                    Assert.assertEquals(1, controller.getActiveQueryCount(QueryWorkloadClass.LOW));
+                }
+            } finally {
+                releaser.join();
+            }
+            Assert.assertEquals(Numbers.LONG_NULL, ((SqlExecutionContextImpl) sqlExecutionContext).getAdmissionWaitStart());
+            Assert.assertEquals(0, controller.getActiveQueryCount(QueryWorkloadClass.LOW));
+        });
+    }
+
+    @Test
+    public void testAdmissionParkedQueryAdmittedOnRetry() throws Exception {
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_LOW_MAX_CONCURRENT, 1);
+        assertMemoryLeak(() -> {
+            execute("create table x as (select x from long_sequence(10))");
+            final SqlExecutionContextImpl context = (SqlExecutionContextImpl) sqlExecutionContext;
+            final long waitMicrosBefore = engine.getMetrics().queryAdmissionMetrics().getWaitMicros();
+            setCurrentMicros(1_000_000);
+            context.setAdmissionParkable(true);
+            try (RecordCursorFactory factoryB = select("select /*+ workload_class(low) */ * from x where x > 5")) {
+                try (
+                        RecordCursorFactory factoryA = select("select /*+ workload_class(low) */ * from x");
+                        RecordCursor ignore = factoryA.getCursor(sqlExecutionContext)
+                ) {
+                    try (RecordCursor ignore2 = factoryB.getCursor(sqlExecutionContext)) {
+                        Assert.fail();
+                    } catch (EntryUnavailableException ignore2) {
+                    }
+                }
+
+                // the slot is free now, the retry is admitted with the wait since it was parked
+                setCurrentMicros(1_003_000);
+                try (RecordCursor cursorB = factoryB.getCursor(sqlExecutionContext)) {
+                    Assert.assertTrue(cursorB.hasNext());
+                }
+                Assert.assertEquals(Numbers.LONG_NULL, context.getAdmissionWaitStart());
+                Assert.assertEquals(waitMicrosBefore + 3_000, engine.getMetrics().queryAdmissionMetrics().getWaitMicros());
+            } finally {
+                context.setAdmissionParkable(false);
+                setCurrentMicros(-1);
+            }
+        });
+    }
+
+    @Test
+    public void testAdmissionParkedUntilTimeout() throws Exception {
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_LOW_MAX_CONCURRENT, 1);
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_ADMISSION_TIMEOUT, 10);
+        assertMemoryLeak(() -> {
+            execute("create table x as (select x from long_sequence(10))");
+            final SqlExecutionContextImpl context = (SqlExecutionContextImpl) sqlExecutionContext;
+            final long waitMicrosBefore = engine.getMetrics().queryAdmissionMetrics().getWaitMicros();
+            setCurrentMicros(1_000_000);
+            try (
+                    RecordCursorFactory factoryA = select("select /*+ workload_class(low) */ * from x");
+                    RecordCursor ignore = factoryA.getCursor(sqlExecutionContext);
+                    RecordCursorFactory factoryB = select("select /*+ workload_class(low) */ * from x where x > 5")
+            ) {
+                context.setAdmissionParkable(true);
+                // the query is parked rather than blocking the calling thread
+                try (RecordCursor ignore2 = factoryB.getCursor(sqlExecutionContext)) {
+                    Assert.fail();
+                } catch (EntryUnavailableException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "query admission");
+                }
+                Assert.assertEquals(1_000_000, context.getAdmissionWaitStart());
+
+                // a retry within the timeout is parked again, keeping the wait start
+                setCurrentMicros(1_005_000);
+                try (RecordCursor ignore2 = factoryB.getCursor(sqlExecutionContext)) {
+                    Assert.fail();
+                } catch (EntryUnavailableException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "query admission");
+                }
+                Assert.assertEquals(1_000_000, context.getAdmissionWaitStart());
+
+                // the timeout bounds the total wait across the retries
+                setCurrentMicros(1_010_000);
+                try (RecordCursor ignore2 = factoryB.getCursor(sqlExecutionContext)) {
+                    Assert.fail();
+                } catch (CairoException e) {
+                    Assert.assertFalse(e instanceof EntryUnavailableException);
+                    TestUtils.assertContains(e.getFlyweightMessage(), "query admission timed out [class=low, maxConcurrent=1, waitMicros=10000]");
+                }
+                Assert.assertEquals(Numbers.LONG_NULL, context.getAdmissionWaitStart());
+                Assert.assertEquals(waitMicrosBefore + 10_000, engine.getMetrics().queryAdmissionMetrics().getWaitMicros());
+            } finally {
+                context.setAdmissionParkable(false);
+                setCurrentMicros(-1);
+            }
+            Assert.assertEquals(0, engine.getQueryAdmissionController().getActiveQueryCount(QueryWorkloadClass.LOW));
+        });
+    }
+
+    @Test
+    public void testAdmissionRejectedWithoutParking() throws Exception {
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_LOW_MAX_CONCURRENT, 1);
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_ADMISSION_BLOCKING_TIMEOUT, 10);
+        assertMemoryLeak(() -> {
+            execute("create table x as (select x from long_sequence(10))");
+            try (
+                    RecordCursorFactory factoryA = select("select /*+ workload_class(low) */ * from x");
+                    RecordCursor ignore = factoryA.getCursor(sqlExecutionContext);
+                    RecordCursorFactory factoryB = select("select /*+ workload_class(low) */ * from x where x > 5")
+            ) {
+                // the caller can't re-run the query, so it's rejected once the blocking wait runs out
+                try (RecordCursor ignore2 = factoryB.getCursor(sqlExecutionContext)) {
+                    Assert.fail();
+                } catch (CairoException e) {
+                    Assert.assertFalse(e instanceof EntryUnavailableException);
+                    TestUtils.assertContains(e.getFlyweightMessage(), "query admission rejected, no free slot [class=low, maxConcurrent=1]");
+                }
+
+                // the normal class is unlimited
+                try (
+                        RecordCursorFactory factoryC = select("select * from x where x > 5");
+                        RecordCursor cursorC = factoryC.getCursor(sqlExecutionContext)
+                ) {
+                    Assert.assertTrue(cursorC.hasNext());
+                }
+            }
+            Assert.assertEquals(0, engine.getQueryAdmissionController().getActiveQueryCount(QueryWorkloadClass.LOW));
+        });
+    }
+
+    @Test
+    public void testAdmissionSlotReleasedOnCursorClose() throws Exception {
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_LOW_MAX_CONCURRENT, 1);
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_ADMISSION_TIMEOUT, 10);
+        assertMemoryLeak(() -> {
+            execute("create table x as (select x from long_sequence(10))");
+            final QueryAdmissionController controller = engine.getQueryAdmissionController();
+            final String sql = "select /*+ workload_class(low) */ sum(x) from x";
+            for (int i = 0; i < 3; i++) {
+                try (
+                        RecordCursorFactory factory = select(sql);
+                        RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+                ) {
+                    Assert.assertTrue(cursor.hasNext());
+                    Assert.assertEquals(1, controller.getActiveQueryCount(QueryWorkloadClass.LOW));
+                }
+                Assert.assertEquals(0, controller.getActiveQueryCount(QueryWorkloadClass.LOW));
+            }
+        });
+    }
+
+    @Test
+    public void testDispatchLimitMixedClasses() {
+        final QueryAdmissionController controller = engine.getQueryAdmissionController();
+        controller.onSequenceStarted(QueryWorkloadClass.HIGH);
+        controller.onSequenceStarted(QueryWorkloadClass.LOW);
+        try {
+            // default weights are 8 for high and 1 for low
+            Assert.assertEquals(56, controller.getDispatchLimit(QueryWorkloadClass.HIGH, Integer.MAX_VALUE, 64));
+            Assert.assertEquals(7, controller.getDispatchLimit(QueryWorkloadClass.LOW, Integer.MAX_VALUE, 64));
+            // the caller's limit still applies
+            Assert.assertEquals(3, controller.getDispatchLimit(QueryWorkloadClass.HIGH, 3, 64));
+            // a sequence always gets at least one task in flight
+            Assert.assertEquals(1, controller.getDispatchLimit(QueryWorkloadClass.LOW, Integer.MAX_VALUE, 4));
+        } finally {
+            controller.onSequenceFinished(QueryWorkloadClass.HIGH);
+            controller.onSequenceFinished(QueryWorkloadClass.LOW);
+        }
+    }
+
+    @Test
+    public void testDispatchLimitSingleClass() {
+        final QueryAdmissionController controller = engine.getQueryAdmissionController();
+        controller.onSequenceStarted(QueryWorkloadClass.LOW);
+        controller.onSequenceStarted(QueryWorkloadClass.LOW);
+        try {
+            Assert.assertEquals(Integer.MAX_VALUE, controller.getDispatchLimit(QueryWorkloadClass.LOW, Integer.MAX_VALUE, 64));
+            Assert.assertEquals(42, controller.getDispatchLimit(QueryWorkloadClass.NONE, 42, 64));
+        } finally {
+            controller.onSequenceFinished(QueryWorkloadClass.LOW);
+            controller.onSequenceFinished(QueryWorkloadClass.LOW);
+        }
+    }
+
+    @Test
+    public void testFairDispatchLimitForgivesLeadOverIdleCompetitor() {
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_FAIR_ENABLED, "true");
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_FAIR_SLICE, "10ms");
+        setCurrentMicros(1_000_000);
+        final QueryAdmissionController controller = engine.getQueryAdmissionController();
+        final QueryFairShare scan = new QueryFairShare(controller);
+        final QueryFairShare idle = new QueryFairShare(controller);
+        scan.of(QueryWorkloadClass.NORMAL);
+        idle.of(QueryWorkloadClass.NORMAL);
+        try {
+            scan.onFrameReduced(100_000_000);
+            Assert.assertEquals(1, scan.getDispatchLimit(64));
+
+            // the competitor reduced nothing for longer than a slice, so the lead is forgiven
+            setCurrentMicros(1_020_000);
+            Assert.assertEquals(64, scan.getDispatchLimit(64));
+            Assert.assertEquals(64, scan.getDispatchLimit(64));
+        } finally {
+            scan.clear();
+            idle.clear();
+            setCurrentMicros(-1);
+        }
+    }
+
+    @Test
+    public void testFairDispatchLimitThrottlesLeader() {
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_FAIR_ENABLED, "true");
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_FAIR_SLICE, "10ms");
+        final QueryAdmissionController controller = engine.getQueryAdmissionController();
+        final QueryFairShare scan = new QueryFairShare(controller);
+        final QueryFairShare point = new QueryFairShare(controller);
+        scan.of(QueryWorkloadClass.LOW);
+        try {
+            Assert.assertTrue(scan.isActive());
+            // a lone sequence is never throttled
+            scan.onFrameReduced(100_000_000);
+            Assert.assertEquals(64, scan.getDispatchLimit(64));
+
+            point.of(QueryWorkloadClass.HIGH);
+            // the newcomer starts at the virtual time, the scan has used it all up on its own
+            Assert.assertEquals(controller.getVirtualTime(), point.getVruntime());
+            scan.onFrameReduced(100_000_000);
+            Assert.assertEquals(1, scan.getDispatchLimit(64));
+            Assert.assertEquals(64, point.getDispatchLimit(64));
+
+            // with weights 8 and 1, the point query catches up after 8x the reduce time
+            point.onFrameReduced(800_000_000);
+            Assert.assertEquals(64, scan.getDispatchLimit(64));
+            Assert.assertEquals(64, point.getDispatchLimit(64));
+        } finally {
+            scan.clear();
+            point.clear();
+        }
+        Assert.assertFalse(scan.isActive());
+    }
+
+    @Test
+    public void testFairSchedulingDisabledByDefault() {
+        final QueryAdmissionController controller = engine.getQueryAdmissionController();
+        final QueryFairShare scan = new QueryFairShare(controller);
+        final QueryFairShare point = new QueryFairShare(controller);
+        scan.of(QueryWorkloadClass.LOW);
+        point.of(QueryWorkloadClass.HIGH);
+        Assert.assertFalse(scan.isActive());
+        Assert.assertFalse(point.isActive());
+        Assert.assertEquals(64, scan.getDispatchLimit(64));
+        scan.clear();
+        point.clear();
+    }
+
+    @Test
+    public void testFairSchedulingQueryResults() throws Exception {
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_FAIR_ENABLED, "true");
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_FAIR_SLICE, 1);
+        assertMemoryLeak(() -> {
+            execute("create table x as (select x, timestamp_sequence(0, 1000000) ts from long_sequence(100000)) timestamp(ts) partition by hour");
+            assertQuery("select /*+ workload_class(low) */ count() from x where x % 2 = 0")
+                    .noLeakCheck()
+                    .returnsOnce("count\n50000\n");
+            assertQuery("select x from x where x = 42")
+                    .noLeakCheck()
+                    .returnsOnce("x\n42\n");
+        });
+    }
+
+    @Test
+    public void testHintAppliesClassMemoryLimit() throws Exception {
+        setProperty(PropertyKey.CAIRO_QUERY_MEMORY_LIMIT_BYTES, 64 * 1024 * 1024);
+        setProperty(PropertyKey.CAIRO_SQL_WORKLOAD_LOW_MEMORY_LIMIT_BYTES, 16 * 1024 * 1024);
+        assertMemoryLeak(() -> {
+            execute("create table x as (select x from long_sequence(10))");
+            try (
+                    RecordCursorFactory factory = select("select /*+ workload_class(low) */ * from x");
+                    RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+            ) {
+                Assert.assertTrue(cursor.hasNext());
+                Assert.assertEquals(16 * 1024 * 1024, sqlExecutionContext.getMemoryTracker().getLimit());
+            }
+            try (
+                    RecordCursorFactory factory = select("select * from x");
+                    RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+            ) {
+                Assert.assertTrue(cursor.hasNext());
+                Assert.assertEquals(64 * 1024 * 1024, sqlExecutionContext.getMemoryTracker().getLimit());
+            }
+        });
+    }
+
+    @Test
+    public void testHintCannotRaiseClass() {
+        Assert.assertEquals(QueryWorkloadClass.LOW, QueryWorkloadClass.withHint(QueryWorkloadClass.NORMAL, QueryWorkloadClass.LOW));
+        Assert.assertEquals(QueryWorkloadClass.NORMAL, QueryWorkloadClass.withHint(QueryWorkloadClass.NORMAL, QueryWorkloadClass.HIGH));
+        Assert.assertEquals(QueryWorkloadClass.HIGH, QueryWorkloadClass.withHint(QueryWorkloadClass.HIGH, QueryWorkloadClass.NONE));
+        Assert.assertEquals(QueryWorkloadClass.LOW, QueryWorkloadClass.of("LOW"));
+        Assert.assertEquals(QueryWorkloadClass.NONE, QueryWorkloadClass.of("urgent"));
+    }
+}
@@ -0,0 +1,216 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo.wal;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.CairoConfigurationWrapper;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.wal.DurableAckRegistry;
+import io.questdb.cairo.wal.WalGroupCommitJob;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.std.TestFilesFacadeImpl;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WalGroupCommitJobTest extends AbstractCairoTest {
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        // without syncfs() the engine ignores the flag and writers sync each commit
+        setProperty(PropertyKey.CAIRO_WAL_GROUP_COMMIT_ENABLED, "true");
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Test
+    public void testCommitsBecomeDurableAfterSync() throws Exception {
+        Assume.assumeTrue(Files.isSyncFsSupported());
+        assertMemoryLeak(() -> {
+            execute("create table x (a int, ts timestamp) timestamp(ts) partition by day wal");
+            final TableToken tableToken = engine.verifyTableName("x");
+
+            final WalGroupCommitJob job = engine.getWalGroupCommitJob();
+            Assert.assertNotNull(job);
+            final DurableAckRegistry registry = engine.getDurableAckRegistry();
+            Assert.assertSame(job, registry);
+            Assert.assertTrue(registry.isEnabled());
+
+            execute("insert into x values (1, '2024-01-01T00:00:00.000000Z')");
+            execute("insert into x values (2, '2024-01-01T00:00:01.000000Z')");
+            Assert.assertEquals(-1, registry.getDurablyUploadedSeqTxn(tableToken.getDirName()));
+
+            Assert.assertTrue(job.sync());
+            Assert.assertEquals(2, registry.getDurablyUploadedSeqTxn(tableToken.getDirName()));
+            // nothing new to sync
+            Assert.assertFalse(job.sync());
+
+            execute("alter table x add column b long");
+            execute("insert into x values (3, '2024-01-01T00:00:02.000000Z', 42)");
+            Assert.assertEquals(2, registry.getDurablyUploadedSeqTxn(tableToken.getDirName()));
+            Assert.assertTrue(job.sync());
+            Assert.assertEquals(4, registry.getDurablyUploadedSeqTxn(tableToken.getDirName()));
+
+            drainWalQueue();
+            assertQuery("x")
+                    .noLeakCheck()
+                    .returnsOnce("""
+                            a\tts\tb
+                            1\t2024-01-01T00:00:00.000000Z\tnull
+                            2\t2024-01-01T00:00:01.000000Z\tnull
+                            3\t2024-01-01T00:00:02.000000Z\t42
+                            """);
+        });
+    }
+
+    @Test
+    public void testFailedSyncKeepsCommitsPending() throws Exception {
+        Assume.assumeTrue(Files.isSyncFsSupported());
+        assertMemoryLeak(() -> {
+            execute("create table f (a int, ts timestamp) timestamp(ts) partition by day wal");
+            final TableToken tableToken = engine.verifyTableName("f");
+
+            final AtomicBoolean fail = new AtomicBoolean(true);
+            final AtomicInteger syncCount = new AtomicInteger();
+            final FilesFacade ff = new TestFilesFacadeImpl() {
+                @Override
+                public int syncfs(long fd) {
+                    syncCount.incrementAndGet();
+                    return fail.get() ? -1 : super.syncfs(fd);
+                }
+            };
+            try (WalGroupCommitJob job = new WalGroupCommitJob(newConfiguration(ff))) {
+                job.onTxnCommitted(tableToken, 1);
+                job.onTxnCommitted(tableToken, 2);
+
+                Assert.assertFalse(job.sync());
+                Assert.assertEquals(1, syncCount.get());
+                Assert.assertEquals(-1, job.getDurablyUploadedSeqTxn(tableToken.getDirName()));
+                // the failed commits are retried
+                Assert.assertFalse(job.sync());
+                Assert.assertEquals(2, syncCount.get());
+                Assert.assertEquals(-1, job.getDurablyUploadedSeqTxn(tableToken.getDirName()));
+
+                fail.set(false);
+                Assert.assertTrue(job.sync());
+                Assert.assertEquals(3, syncCount.get());
+                Assert.assertEquals(2, job.getDurablyUploadedSeqTxn(tableToken.getDirName()));
+                Assert.assertFalse(job.sync());
+                Assert.assertEquals(3, syncCount.get());
+            }
+        });
+    }
+
+    @Test
+    public void testFallsBackToPerCommitSync() throws Exception {
+        assertMemoryLeak(() -> {
+            final FilesFacade ff = new TestFilesFacadeImpl() {
+                @Override
+                public boolean isSyncFsSupported() {
+                    return false;
+                }
+            };
+            final CairoConfigurationWrapper fallbackConfiguration = newConfiguration(ff);
+            Assert.assertFalse(WalGroupCommitJob.isSyncDeferred(fallbackConfiguration));
+            try (CairoEngine fallbackEngine = new CairoEngine(fallbackConfiguration)) {
+                Assert.assertNull(fallbackEngine.getWalGroupCommitJob());
+                Assert.assertFalse(fallbackEngine.getDurableAckRegistry().isEnabled());
+            }
+        });
+    }
+
+    @Test
+    public void testSyncCoversAllTables() throws Exception {
+        Assume.assumeTrue(Files.isSyncFsSupported());
+        assertMemoryLeak(() -> {
+            execute("create table a (a int, ts timestamp) timestamp(ts) partition by day wal");
+            execute("create table b (a int, ts timestamp) timestamp(ts) partition by day wal");
+            final TableToken a = engine.verifyTableName("a");
+            final TableToken b = engine.verifyTableName("b");
+
+            execute("insert into a values (1, '2024-01-01T00:00:00.000000Z')");
+            execute("insert into b values (1, '2024-01-01T00:00:00.000000Z')");
+            execute("insert into b values (2, '2024-01-01T00:00:01.000000Z')");
+
+            final WalGroupCommitJob job = engine.getWalGroupCommitJob();
+            Assert.assertNotNull(job);
+            Assert.assertTrue(job.sync());
+            Assert.assertEquals(1, job.getDurablyUploadedSeqTxn(a.getDirName()));
+            Assert.assertEquals(2, job.getDurablyUploadedSeqTxn(b.getDirName()));
+        });
+    }
+
+    @Test
+    public void testTableDropReleasesState() throws Exception {
+        Assume.assumeTrue(Files.isSyncFsSupported());
+        assertMemoryLeak(() -> {
+            execute("create table z (a int, ts timestamp) timestamp(ts) partition by day wal");
+            final TableToken tableToken = engine.verifyTableName("z");
+            execute("insert into z values (1, '2024-01-01T00:00:00.000000Z')");
+
+            final WalGroupCommitJob job = engine.getWalGroupCommitJob();
+            Assert.assertNotNull(job);
+            Assert.assertTrue(job.sync());
+            Assert.assertEquals(1, job.getDurablyUploadedSeqTxn(tableToken.getDirName()));
+
+            execute("drop table z");
+            Assert.assertEquals(-1, job.getDurablyUploadedSeqTxn(tableToken.getDirName()));
+        });
+    }
+
+    @Test
+    public void testUnsupportedOs() throws Exception {
+        assertMemoryLeak(() -> {
+            final FilesFacade ff = new TestFilesFacadeImpl() {
+                @Override
+                public boolean isSyncFsSupported() {
+                    return false;
+                }
+            };
+            try (WalGroupCommitJob ignore = new WalGroupCommitJob(newConfiguration(ff))) {
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "WAL group commit requires syncfs(), which is not available");
+            }
+        });
+    }
+
+    private static CairoConfigurationWrapper newConfiguration(FilesFacade ff) {
+        return new CairoConfigurationWrapper(configuration) {
+            @Override
+            public FilesFacade getFilesFacade() {
+                return ff;
+            }
+        };
+    }
+}
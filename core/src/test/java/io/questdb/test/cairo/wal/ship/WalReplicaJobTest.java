@@ -0,0 +1,188 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo.wal.ship;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.security.AllowAllSecurityContext;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.cairo.wal.ship.FilesWalObjectStore;
+import io.questdb.cairo.wal.ship.WalReplicaJob;
+import io.questdb.cairo.wal.ship.WalShippingJob;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.cairo.DefaultTestCairoConfiguration;
+import io.questdb.test.tools.TestUtils;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Ships the WAL of the test engine and replays it on a second, read-only engine seeded
+ * with a copy of the primary's database root.
+ */
+public class WalReplicaJobTest extends AbstractCairoTest {
+    private static String shippingRoot;
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        shippingRoot = temp.newFolder("wal_shipping").getAbsolutePath();
+        setProperty(PropertyKey.CAIRO_WAL_SHIPPING_ROOT, shippingRoot);
+        setProperty(PropertyKey.CAIRO_WAL_SHIPPING_INTERVAL, "0");
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Test
+    public void testReplicaFollowsPrimary() throws Exception {
+        assertMemoryLeak(() -> {
+            execute("create table x (a int, ts timestamp) timestamp(ts) partition by day wal");
+            execute("insert into x values (1, '2024-01-01T00:00:00.000000Z')");
+            drainWalQueue();
+            final WalShippingJob shippingJob = engine.getWalShippingJob();
+            Assert.assertNotNull(shippingJob);
+            // shipping starts from seqTxn 1, which is where the replica is seeded
+            shippingJob.run();
+
+            try (
+                    CairoEngine replica = seedReplica();
+                    WalReplicaJob replicaJob = newReplicaJob(replica);
+                    SqlExecutionContext replicaContext = new SqlExecutionContextImpl(replica, 1).with(AllowAllSecurityContext.INSTANCE)
+            ) {
+                Assert.assertTrue(replica.isReadOnlyMode());
+                Assert.assertNull(replica.getWalShippingJob());
+                final TableToken replicaToken = replica.verifyTableName("x");
+                // nothing shipped beyond the seed yet
+                Assert.assertFalse(replicaJob.run());
+
+                execute("insert into x values (2, '2024-01-01T00:00:01.000000Z')");
+                execute("alter table x add column b long");
+                execute("insert into x values (3, '2024-01-01T00:00:02.000000Z', 42)");
+                engine.releaseAllWalWriters();
+                Assert.assertTrue(shippingJob.run());
+
+                Assert.assertTrue(replicaJob.run());
+                Assert.assertEquals(4, replica.getTableSequencerAPI().lastTxn(replicaToken));
+                Assert.assertFalse(replicaJob.run());
+
+                TestUtils.drainWalQueue(replica);
+                TestUtils.printSql(replica, replicaContext, "x", sink);
+                TestUtils.assertEquals(
+                        """
+                                a\tts\tb
+                                1\t2024-01-01T00:00:00.000000Z\tnull
+                                2\t2024-01-01T00:00:01.000000Z\tnull
+                                3\t2024-01-01T00:00:02.000000Z\t42
+                                """,
+                        sink
+                );
+            }
+        });
+    }
+
+    @Test
+    public void testReplicaStallsOnDivergence() throws Exception {
+        assertMemoryLeak(() -> {
+            execute("create table x (a int, ts timestamp) timestamp(ts) partition by day wal");
+            execute("insert into x values (1, '2024-01-01T00:00:00.000000Z')");
+            drainWalQueue();
+            final WalShippingJob shippingJob = engine.getWalShippingJob();
+            Assert.assertNotNull(shippingJob);
+            shippingJob.run();
+
+            final FilesFacade ff = configuration.getFilesFacade();
+            try (
+                    CairoEngine replica = seedReplica();
+                    WalReplicaJob replicaJob = newReplicaJob(replica);
+                    FilesWalObjectStore store = new FilesWalObjectStore(ff, shippingRoot, configuration.getMkDirMode());
+                    MemoryCARW partMem = Vm.getCARWInstance(4096, Integer.MAX_VALUE, MemoryTag.NATIVE_DEFAULT)
+            ) {
+                final TableToken replicaToken = replica.verifyTableName("x");
+                execute("insert into x values (2, '2024-01-01T00:00:01.000000Z')");
+                execute("insert into x values (3, '2024-01-01T00:00:02.000000Z')");
+                engine.releaseAllWalWriters();
+                Assert.assertTrue(shippingJob.run());
+
+                // make the shipped part skip seqTxn 2, the replica can't follow that
+                final String partKey = engine.verifyTableName("x").getDirName() + "/" + WalShippingJob.TXNLOG_DIR + "/2";
+                Assert.assertTrue(store.read(partKey, partMem));
+                final long seqTxnOffset = WalShippingJob.RECORD_SEQ_TXN_OFFSET;
+                Assert.assertEquals(2, partMem.getLong(seqTxnOffset));
+                partMem.putLong(seqTxnOffset, 3);
+                store.write(partKey, partMem.getAddress(), partMem.getAppendOffset());
+
+                Assert.assertFalse(replicaJob.run());
+                Assert.assertEquals(1, replica.getTableSequencerAPI().lastTxn(replicaToken));
+
+                // the table stays stalled even once the store is repaired, it needs a reseed
+                partMem.putLong(seqTxnOffset, 2);
+                store.write(partKey, partMem.getAddress(), partMem.getAppendOffset());
+                Assert.assertFalse(replicaJob.run());
+                Assert.assertEquals(1, replica.getTableSequencerAPI().lastTxn(replicaToken));
+            }
+        });
+    }
+
+    private static WalReplicaJob newReplicaJob(CairoEngine replica) {
+        return new WalReplicaJob(
+                replica,
+                new FilesWalObjectStore(configuration.getFilesFacade(), shippingRoot, configuration.getMkDirMode())
+        );
+    }
+
+    // seeds the replica with a copy of the primary's database root, as a checkpoint restore would
+    private static CairoEngine seedReplica() throws Exception {
+        engine.releaseAllWalWriters();
+        engine.releaseInactive();
+        final String replicaRoot = temp.newFolder().getAbsolutePath();
+        try (Path src = new Path(); Path dst = new Path()) {
+            src.of(configuration.getDbRoot());
+            dst.of(replicaRoot);
+            Assert.assertEquals(0, configuration.getFilesFacade().copyRecursive(src, dst, configuration.getMkDirMode()));
+        }
+        return new CairoEngine(new DefaultTestCairoConfiguration(replicaRoot) {
+            @Override
+            public long getWalShippingInterval() {
+                return 0;
+            }
+
+            @Override
+            public @Nullable CharSequence getWalShippingRoot() {
+                return shippingRoot;
+            }
+
+            @Override
+            public boolean isWalShippingReplica() {
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,142 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo.wal.ship;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.wal.WalUtils;
+import io.questdb.cairo.wal.ship.FilesWalObjectStore;
+import io.questdb.cairo.wal.ship.ShippingWalDirectoryPolicy;
+import io.questdb.cairo.wal.ship.WalShippingJob;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class WalShippingJobTest extends AbstractCairoTest {
+    private static String shippingRoot;
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        shippingRoot = temp.newFolder("wal_shipping").getAbsolutePath();
+        setProperty(PropertyKey.CAIRO_WAL_SHIPPING_ROOT, shippingRoot);
+        setProperty(PropertyKey.CAIRO_WAL_SHIPPING_INTERVAL, "0");
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Test
+    public void testShipsSealedSegments() throws Exception {
+        assertMemoryLeak(() -> {
+            execute("create table x (a int, ts timestamp) timestamp(ts) partition by day wal");
+            final TableToken tableToken = engine.verifyTableName("x");
+
+            final WalShippingJob job = engine.getWalShippingJob();
+            Assert.assertNotNull(job);
+            Assert.assertSame(job, engine.getDurableAckRegistry());
+            Assert.assertTrue(engine.getWalDirectoryPolicy() instanceof ShippingWalDirectoryPolicy);
+
+            // the first run starts shipping from the table's current seqTxn
+            job.run();
+            Assert.assertEquals(0, job.getDurablyUploadedSeqTxn(tableToken.getDirName()));
+
+            execute("insert into x values (1, '2024-01-01T00:00:00.000000Z')");
+            execute("alter table x add column b long");
+            execute("insert into x values (2, '2024-01-01T00:00:01.000000Z', 42)");
+
+            // the pooled WAL writer still holds the segment
+            job.run();
+            Assert.assertEquals(0, job.getDurablyUploadedSeqTxn(tableToken.getDirName()));
+
+            engine.releaseAllWalWriters();
+            Assert.assertTrue(job.run());
+            Assert.assertEquals(3, job.getDurablyUploadedSeqTxn(tableToken.getDirName()));
+
+            final FilesFacade ff = configuration.getFilesFacade();
+            try (
+                    Path path = new Path();
+                    FilesWalObjectStore store = new FilesWalObjectStore(ff, shippingRoot, configuration.getMkDirMode())
+            ) {
+                final String segmentKey = tableToken.getDirName() + "/" + WalUtils.WAL_NAME_BASE + "1/0";
+                Assert.assertTrue(store.exists(segmentKey + "/" + WalUtils.EVENT_FILE_NAME));
+                final ObjList<String> parts = new ObjList<>();
+                store.list(tableToken.getDirName() + "/" + WalShippingJob.TXNLOG_DIR, parts);
+                // the head and a single part holding seqTxn 1 to 3
+                Assert.assertEquals(2, parts.size());
+                Assert.assertTrue(parts.indexOf(WalShippingJob.HEAD_OBJECT_NAME) > -1);
+                Assert.assertTrue(parts.indexOf("1") > -1);
+
+                // once uploaded, the segment is no longer pinned against the purge job
+                path.of(configuration.getDbRoot()).concat(tableToken).concat(segmentKey.substring(tableToken.getDirName().length() + 1));
+                Assert.assertTrue(ff.exists(path.$()));
+                Assert.assertFalse(engine.getWalDirectoryPolicy().isInUse(path));
+                Assert.assertFalse(ff.exists(path.concat(ShippingWalDirectoryPolicy.UPLOAD_PENDING_FILE_NAME).$()));
+            }
+
+            // nothing new to ship
+            Assert.assertFalse(job.run());
+
+            drainWalQueue();
+            assertQuery("x")
+                    .noLeakCheck()
+                    .returnsOnce("""
+                            a\tts\tb
+                            1\t2024-01-01T00:00:00.000000Z\tnull
+                            2\t2024-01-01T00:00:01.000000Z\t42
+                            """);
+        });
+    }
+
+    @Test
+    public void testStorePublishesObjectsAtomically() throws Exception {
+        assertMemoryLeak(() -> {
+            final FilesFacade ff = configuration.getFilesFacade();
+            final String root = temp.newFolder("store").getAbsolutePath();
+            try (
+                    Path path = new Path();
+                    FilesWalObjectStore store = new FilesWalObjectStore(ff, root, configuration.getMkDirMode())
+            ) {
+                Assert.assertFalse(store.exists("t/a"));
+                Assert.assertFalse(store.download("t/a", path.of(root).concat("copy").$()));
+
+                path.of(root).concat("src").$();
+                Assert.assertTrue(ff.touch(path.$()));
+                store.upload(path.$(), "t/x/a");
+                store.upload(path.$(), "t/x/b");
+                Assert.assertTrue(store.exists("t/x/a"));
+
+                final ObjList<String> names = new ObjList<>();
+                store.list("t/x", names);
+                Assert.assertEquals(2, names.size());
+                // no temporary files are left behind
+                path.of(root).concat("t").concat("x").concat("a.tmp");
+                Assert.assertFalse(ff.exists(path.$()));
+                Assert.assertTrue(ff.exists(path.of(root).concat("t").concat("x").concat("b").$()));
+            }
+        });
+    }
+}
@@ -0,0 +1,346 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cutlass.http;
+
+import io.questdb.DefaultHttpClientConfiguration;
+import io.questdb.PropertyKey;
+import io.questdb.cutlass.http.client.Fragment;
+import io.questdb.cutlass.http.client.HttpClient;
+import io.questdb.cutlass.http.client.HttpClientFactory;
+import io.questdb.cutlass.http.client.Response;
+import io.questdb.cutlass.http.processors.HttpMetrics;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Zstd;
+import io.questdb.std.str.Utf8String;
+import io.questdb.test.AbstractBootstrapTest;
+import io.questdb.test.TestServerMain;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+public class HttpZstdEncodingTest extends AbstractBootstrapTest {
+    private static final Utf8String CONTENT_ENCODING = new Utf8String("Content-Encoding");
+    private static final String QUERY = "select x, x * 2 y from long_sequence(5000)";
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        TestUtils.unchecked(() -> createDummyConfiguration());
+        dbPath.parent().$();
+    }
+
+    @Test
+    public void testExecResponseZstdEncoded() throws Exception {
+        assertZstdResponse("/exec");
+    }
+
+    @Test
+    public void testExpResponseZstdEncoded() throws Exception {
+        assertZstdResponse("/exp");
+    }
+
+    @Test
+    public void testIlpZstdBodyInSmallChunks() throws Exception {
+        assertMemoryLeak(() -> {
+            try (final TestServerMain serverMain = startWithEnvVariables(
+                    PropertyKey.METRICS_ENABLED.getEnvVarName(), "true",
+                    PropertyKey.HTTP_RECV_BUFFER_SIZE.getEnvVarName(), "4096"
+            )) {
+                serverMain.start();
+
+                final StringBuilder lines = new StringBuilder();
+                for (int i = 0; i < 2000; i++) {
+                    lines.append("zstd_ilp,sym=s").append(i % 10).append(" x=").append(i).append("i ").append((i + 1) * 1_000_000_000L).append('\n');
+                }
+                final byte[] raw = lines.toString().getBytes(StandardCharsets.UTF_8);
+                final byte[] compressed = zstdCompress(raw);
+                // the decoded body is larger than the receive buffer, the chunks are smaller
+                Assert.assertTrue(raw.length > 4096);
+
+                try (HttpClient httpClient = HttpClientFactory.newPlainTextInstance(new DefaultHttpClientConfiguration())) {
+                    final HttpClient.Request request = httpClient.newRequest("localhost", serverMain.getHttpServerPort())
+                            .POST()
+                            .url("/write")
+                            .header("Content-Encoding", "zstd")
+                            .withChunkedContent();
+                    // zstd blocks straddle the chunk boundaries
+                    for (int lo = 0; lo < compressed.length; lo += 100) {
+                        final int hi = Math.min(lo + 100, compressed.length);
+                        request.putAscii(Integer.toHexString(hi - lo)).putEOL();
+                        for (int i = lo; i < hi; i++) {
+                            request.put(compressed[i]);
+                        }
+                        request.putEOL();
+                    }
+                    request.putAscii("0").putEOL().putEOL();
+
+                    try (HttpClient.ResponseHeaders resp = request.send()) {
+                        resp.await();
+                        TestUtils.assertEquals("204", resp.getStatusCode());
+                    }
+                }
+
+                serverMain.awaitTable("zstd_ilp");
+                serverMain.assertSql(
+                        "select count(), sum(x), count_distinct(sym) from zstd_ilp",
+                        """
+                                count\tsum\tcount_distinct
+                                2000\t1999000\t10
+                                """
+                );
+
+                final HttpMetrics metrics = serverMain.getEngine().getMetrics().httpMetrics();
+                Assert.assertEquals(compressed.length, metrics.requestZstdCompressedBytesCounter().getValue());
+                Assert.assertEquals(raw.length, metrics.requestZstdDecodedBytesCounter().getValue());
+                Assert.assertEquals(0, metrics.requestGzipDecodedBytesCounter().getValue());
+            }
+        });
+    }
+
+    @Test
+    public void testIlpZstdCorruptBody() throws Exception {
+        assertMemoryLeak(() -> {
+            try (final TestServerMain serverMain = startWithEnvVariables()) {
+                serverMain.start();
+
+                try (HttpClient httpClient = HttpClientFactory.newPlainTextInstance(new DefaultHttpClientConfiguration())) {
+                    // zeros are not a valid zstd frame header
+                    final HttpClient.Request request = httpClient.newRequest("localhost", serverMain.getHttpServerPort())
+                            .POST()
+                            .url("/write")
+                            .header("Content-Encoding", "zstd")
+                            .withContent();
+                    for (int i = 0; i < 64; i++) {
+                        request.put((byte) 0);
+                    }
+
+                    try (HttpClient.ResponseHeaders resp = request.send()) {
+                        resp.await();
+                        TestUtils.assertEquals("415", resp.getStatusCode());
+                    }
+                }
+
+                // a valid body still goes through on a new connection
+                try (HttpClient httpClient = HttpClientFactory.newPlainTextInstance(new DefaultHttpClientConfiguration())) {
+                    final byte[] compressed = zstdCompress("zstd_ilp x=1i 1000000000\n".getBytes(StandardCharsets.UTF_8));
+                    final HttpClient.Request valid = httpClient.newRequest("localhost", serverMain.getHttpServerPort())
+                            .POST()
+                            .url("/write")
+                            .header("Content-Encoding", "zstd")
+                            .withContent();
+                    for (byte b : compressed) {
+                        valid.put(b);
+                    }
+                    try (HttpClient.ResponseHeaders resp = valid.send()) {
+                        resp.await();
+                        TestUtils.assertEquals("204", resp.getStatusCode());
+                    }
+                }
+
+                serverMain.awaitTable("zstd_ilp");
+                serverMain.assertSql(
+                        "select count() from zstd_ilp",
+                        """
+                                count
+                                1
+                                """
+                );
+            }
+        });
+    }
+
+    @Test
+    public void testResponseGzipWhenClientDoesNotAcceptZstd() throws Exception {
+        assertMemoryLeak(() -> {
+            try (final TestServerMain serverMain = startWithEnvVariables(
+                    PropertyKey.METRICS_ENABLED.getEnvVarName(), "true",
+                    PropertyKey.HTTP_ALLOW_DEFLATE_BEFORE_SEND.getEnvVarName(), "true",
+                    PropertyKey.HTTP_ALLOW_ZSTD_BEFORE_SEND.getEnvVarName(), "true"
+            )) {
+                serverMain.start();
+                assertGzipResponse(serverMain, "gzip, deflate, br");
+            }
+        });
+    }
+
+    @Test
+    public void testResponseGzipWhenZstdDisabled() throws Exception {
+        assertMemoryLeak(() -> {
+            try (final TestServerMain serverMain = startWithEnvVariables(
+                    PropertyKey.METRICS_ENABLED.getEnvVarName(), "true",
+                    PropertyKey.HTTP_ALLOW_DEFLATE_BEFORE_SEND.getEnvVarName(), "true"
+            )) {
+                serverMain.start();
+                assertGzipResponse(serverMain, "zstd, gzip");
+            }
+        });
+    }
+
+    private static void assertGzipResponse(TestServerMain serverMain, String acceptEncoding) throws IOException {
+        try (HttpClient httpClient = HttpClientFactory.newPlainTextInstance(new DefaultHttpClientConfiguration())) {
+            final String expected = fetch(httpClient, serverMain, "/exec", null, null);
+            final String actual = fetch(httpClient, serverMain, "/exec", acceptEncoding, "gzip");
+            TestUtils.assertEquals(expected, actual);
+
+            final HttpMetrics metrics = serverMain.getEngine().getMetrics().httpMetrics();
+            Assert.assertEquals(expected.length(), metrics.responseGzipRawBytesCounter().getValue());
+            Assert.assertTrue(metrics.responseGzipCompressedBytesCounter().getValue() > 0);
+            Assert.assertEquals(0, metrics.responseZstdRawBytesCounter().getValue());
+        }
+    }
+
+    private static String decode(byte[] body, String encoding) throws IOException {
+        if (encoding == null) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        if ("gzip".equals(encoding)) {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        return new String(zstdDecompress(body), StandardCharsets.UTF_8);
+    }
+
+    // Returns the decoded response body and checks the Content-Encoding the server picked.
+    private static String fetch(
+            HttpClient httpClient,
+            TestServerMain serverMain,
+            String url,
+            String acceptEncoding,
+            String expectedEncoding
+    ) throws IOException {
+        final HttpClient.Request request = httpClient.newRequest("localhost", serverMain.getHttpServerPort())
+                .GET()
+                .url(url)
+                .query("query", QUERY);
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        try (HttpClient.ResponseHeaders resp = request.send()) {
+            resp.await();
+            TestUtils.assertEquals("200", resp.getStatusCode());
+            if (expectedEncoding != null) {
+                TestUtils.assertEquals(expectedEncoding, resp.getHeader(CONTENT_ENCODING));
+            } else {
+                Assert.assertNull(resp.getHeader(CONTENT_ENCODING));
+            }
+            return decode(receive(resp.getResponse()), expectedEncoding);
+        }
+    }
+
+    private static byte[] receive(Response response) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Fragment fragment;
+        while ((fragment = response.recv()) != null) {
+            for (long p = fragment.lo(), hi = fragment.hi(); p < hi; p++) {
+                out.write(Unsafe.getUnsafe().getByte(p));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] zstdCompress(byte[] raw) {
+        final int dstCap = raw.length + 1024;
+        final long src = Unsafe.malloc(raw.length, MemoryTag.NATIVE_DEFAULT);
+        final long dst = Unsafe.malloc(dstCap, MemoryTag.NATIVE_DEFAULT);
+        final long cctx = Zstd.createCCtx(3);
+        try {
+            for (int i = 0; i < raw.length; i++) {
+                Unsafe.getUnsafe().putByte(src + i, raw[i]);
+            }
+            final long len = Zstd.compress(cctx, src, raw.length, dst, dstCap);
+            Assert.assertTrue("zstd compression failed: " + len, len > 0);
+            final byte[] compressed = new byte[(int) len];
+            for (int i = 0; i < len; i++) {
+                compressed[i] = Unsafe.getUnsafe().getByte(dst + i);
+            }
+            return compressed;
+        } finally {
+            Zstd.freeCCtx(cctx);
+            Unsafe.free(src, raw.length, MemoryTag.NATIVE_DEFAULT);
+            Unsafe.free(dst, dstCap, MemoryTag.NATIVE_DEFAULT);
+        }
+    }
+
+    private static byte[] zstdDecompress(byte[] compressed) {
+        final int dstCap = 4 * 1024 * 1024;
+        final long src = Unsafe.malloc(compressed.length, MemoryTag.NATIVE_DEFAULT);
+        final long dst = Unsafe.malloc(dstCap, MemoryTag.NATIVE_DEFAULT);
+        final long dctx = Zstd.createDCtx();
+        try {
+            for (int i = 0; i < compressed.length; i++) {
+                Unsafe.getUnsafe().putByte(src + i, compressed[i]);
+            }
+            final long len = Zstd.decompress(dctx, src, compressed.length, dst, dstCap);
+            Assert.assertTrue("zstd decompression failed: " + len, len > 0);
+            final byte[] raw = new byte[(int) len];
+            for (int i = 0; i < len; i++) {
+                raw[i] = Unsafe.getUnsafe().getByte(dst + i);
+            }
+            return raw;
+        } finally {
+            Zstd.freeDCtx(dctx);
+            Unsafe.free(src, compressed.length, MemoryTag.NATIVE_DEFAULT);
+            Unsafe.free(dst, dstCap, MemoryTag.NATIVE_DEFAULT);
+        }
+    }
+
+    private void assertZstdResponse(String url) throws Exception {
+        assertMemoryLeak(() -> {
+            try (final TestServerMain serverMain = startWithEnvVariables(
+                    PropertyKey.METRICS_ENABLED.getEnvVarName(), "true",
+                    PropertyKey.HTTP_ALLOW_DEFLATE_BEFORE_SEND.getEnvVarName(), "true",
+                    PropertyKey.HTTP_ALLOW_ZSTD_BEFORE_SEND.getEnvVarName(), "true"
+            )) {
+                serverMain.start();
+
+                try (HttpClient httpClient = HttpClientFactory.newPlainTextInstance(new DefaultHttpClientConfiguration())) {
+                    final String expected = fetch(httpClient, serverMain, url, null, null);
+                    // zstd wins over gzip when the client takes both
+                    final String actual = fetch(httpClient, serverMain, url, "gzip, zstd", "zstd");
+                    TestUtils.assertEquals(expected, actual);
+
+                    final HttpMetrics metrics = serverMain.getEngine().getMetrics().httpMetrics();
+                    Assert.assertEquals(expected.length(), metrics.responseZstdRawBytesCounter().getValue());
+                    final long compressedBytes = metrics.responseZstdCompressedBytesCounter().getValue();
+                    Assert.assertTrue(compressedBytes > 0 && compressedBytes < expected.length());
+                    Assert.assertEquals(0, metrics.responseGzipRawBytesCounter().getValue());
+
+                    // the compression context is reused by the next response on the connection
+                    TestUtils.assertEquals(expected, fetch(httpClient, serverMain, url, "zstd", "zstd"));
+                    Assert.assertEquals(2L * expected.length(), metrics.responseZstdRawBytesCounter().getValue());
+                }
+            }
+        });
+    }
+}
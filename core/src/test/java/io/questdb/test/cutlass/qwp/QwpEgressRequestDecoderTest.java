@@ -107,6 +107,48 @@ public class QwpEgressRequestDecoderTest {
         });
     }
 
+    @Test
+    public void testSubscribeBody() throws Exception {
+        runWithBuf(64, (buf, _, decoder) -> {
+            long p = buf;
+            Unsafe.putByte(p++, QwpEgressMsgKind.SUBSCRIBE);
+            Unsafe.putLong(p, 7L);
+            p += 8;
+            Unsafe.putLong(p, 42L);
+            p += 8;
+            p = QwpVarint.encode(p, 65536L);
+            p = QwpVarint.encode(p, 3);
+            Unsafe.putByte(p++, (byte) 'l');
+            Unsafe.putByte(p++, (byte) 'v');
+            Unsafe.putByte(p++, (byte) '1');
+            decoder.decodeSubscribe(buf, (int) (p - buf));
+            Assert.assertEquals(7L, decoder.requestId);
+            Assert.assertEquals(42L, decoder.fromSeqTxn);
+            Assert.assertEquals(65536L, decoder.initialCredit);
+            TestUtils.assertEquals("lv1", decoder.viewName);
+        });
+    }
+
+    @Test
+    public void testSubscribeRejectsEmptyViewName() throws Exception {
+        runWithBuf(64, (buf, _, decoder) -> {
+            long p = buf;
+            Unsafe.putByte(p++, QwpEgressMsgKind.SUBSCRIBE);
+            Unsafe.putLong(p, 7L);
+            p += 8;
+            Unsafe.putLong(p, -1L);
+            p += 8;
+            p = QwpVarint.encode(p, 0);
+            p = QwpVarint.encode(p, 0);
+            try {
+                decoder.decodeSubscribe(buf, (int) (p - buf));
+                Assert.fail("expected QwpParseException for empty view name");
+            } catch (QwpParseException expected) {
+                Assert.assertTrue(expected.getFlyweightMessage().toString().contains("view_name_len"));
+            }
+        });
+    }
+
     /**
      * Bindless queries use the SQL text verbatim as the select-cache key,
      * preserving the existing cache shape for the 99% path.
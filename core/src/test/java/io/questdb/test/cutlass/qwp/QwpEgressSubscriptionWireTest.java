@@ -0,0 +1,249 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cutlass.qwp;
+
+import io.questdb.cairo.lv.LiveViewSubscriberRegistry;
+import io.questdb.cutlass.qwp.codec.QwpEgressMsgKind;
+import io.questdb.cutlass.qwp.protocol.QwpConstants;
+import io.questdb.cutlass.qwp.protocol.QwpVarint;
+import io.questdb.cutlass.qwp.websocket.WebSocketOpcode;
+import io.questdb.std.Numbers;
+import io.questdb.test.TestServerMain;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * End-to-end coverage of live view push subscriptions over the raw wire. The
+ * managed client has no SUBSCRIBE support, so each test drives the WebSocket
+ * byte stream directly and decodes the {@code SUBSCRIPTION_DELTA},
+ * {@code RESULT_BATCH} and {@code RESULT_END} frames itself.
+ * <p>
+ * Tests cover:
+ * <ul>
+ *   <li>Push - a delta arrives after a base table insert while the client sends
+ *       nothing, so it must come from the live view refresh waking the parked
+ *       connection rather than from inbound frames.</li>
+ *   <li>Backpressure - a delta streamed under a tiny credit stalls after its first
+ *       batch and completes only once the client sends {@code CREDIT}.</li>
+ *   <li>Resume - a reconnect that subscribes from the last applied
+ *       {@code seq_txn} receives only the band committed while it was away.</li>
+ * </ul>
+ */
+public class QwpEgressSubscriptionWireTest extends AbstractQwpBootstrapTest {
+    private static final String VIEW_SQL = "CREATE LIVE VIEW lv FLUSH EVERY 100ms START FROM BEGINNING AS" +
+            " SELECT sym, price, ts, row_number() OVER w AS rn FROM trades" +
+            " WINDOW w AS (PARTITION BY sym ORDER BY ts ANCHOR DAILY '00:00')";
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        TestUtils.unchecked(() -> createDummyConfiguration());
+        dbPath.parent().$();
+    }
+
+    @Test
+    public void testSubscriptionCreditStallsDeltaUntilReplenished() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final long requestId = 7;
+            try (final TestServerMain serverMain = startFragmented()) {
+                createViewWithRows(serverMain, 10);
+
+                try (Socket socket = new Socket("127.0.0.1", HTTP_PORT)) {
+                    socket.setSoTimeout(60_000);
+                    // two rows per batch, so the snapshot takes five batches
+                    QwpWireTestFixtures.performReadHandshake(socket, 2);
+                    OutputStream out = socket.getOutputStream();
+                    InputStream in = socket.getInputStream();
+
+                    // a single byte of credit lets exactly one batch through
+                    out.write(QwpWireTestFixtures.maskedFrame(WebSocketOpcode.BINARY,
+                            QwpWireTestFixtures.buildSubscribeRequest(requestId, "lv", -1, 1)));
+                    out.flush();
+
+                    byte[] frame = readFrameUntilKind(in, QwpEgressMsgKind.SUBSCRIPTION_DELTA);
+                    Assert.assertEquals(requestId, readLongLE(frame, QwpConstants.HEADER_SIZE + 1));
+                    frame = QwpWireTestFixtures.readServerFrame(in);
+                    Assert.assertEquals(QwpEgressMsgKind.RESULT_BATCH, frame[QwpConstants.HEADER_SIZE]);
+
+                    // the stream is parked on credit: nothing more arrives
+                    socket.setSoTimeout(500);
+                    try {
+                        frame = QwpWireTestFixtures.readServerFrame(in);
+                        Assert.fail("credit-exhausted delta kept streaming, got msg_kind 0x"
+                                + Integer.toHexString(frame[QwpConstants.HEADER_SIZE] & 0xFF));
+                    } catch (SocketTimeoutException ignore) {
+                    }
+
+                    socket.setSoTimeout(60_000);
+                    out.write(QwpWireTestFixtures.maskedFrame(WebSocketOpcode.BINARY,
+                            QwpWireTestFixtures.buildCreditFrame(requestId, 1 << 20)));
+                    out.flush();
+                    frame = readFrameUntilKind(in, QwpEgressMsgKind.RESULT_END);
+                    Assert.assertEquals(10, readTotalRows(frame));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testSubscriptionPushesDeltaWithoutClientFrames() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final long requestId = 11;
+            try (final TestServerMain serverMain = startFragmented()) {
+                createViewWithRows(serverMain, 5);
+                final LiveViewSubscriberRegistry registry = serverMain.getEngine().getLiveViewSubscriberRegistry();
+
+                try (Socket socket = new Socket("127.0.0.1", HTTP_PORT)) {
+                    socket.setSoTimeout(60_000);
+                    QwpWireTestFixtures.performReadHandshake(socket);
+                    OutputStream out = socket.getOutputStream();
+                    InputStream in = socket.getInputStream();
+
+                    out.write(QwpWireTestFixtures.maskedFrame(WebSocketOpcode.BINARY,
+                            QwpWireTestFixtures.buildSubscribeRequest(requestId, "lv", -1, 0)));
+                    out.flush();
+
+                    byte[] frame = readFrameUntilKind(in, QwpEgressMsgKind.SUBSCRIPTION_DELTA);
+                    final long snapshotSeqTxn = readLongLE(frame, QwpConstants.HEADER_SIZE + 9);
+                    Assert.assertEquals("the first delta is a snapshot",
+                            Numbers.LONG_NULL, readLongLE(frame, QwpConstants.HEADER_SIZE + 25));
+                    frame = readFrameUntilKind(in, QwpEgressMsgKind.RESULT_END);
+                    Assert.assertEquals(5, readTotalRows(frame));
+                    Assert.assertEquals(1, registry.getSubscriberCount());
+
+                    // The client stays silent from here on: the next delta must be
+                    // pushed by the view refresh waking the connection.
+                    insertRows(serverMain, "2024-09-10T01:00:00.000000Z", 3);
+                    frame = readFrameUntilKind(in, QwpEgressMsgKind.SUBSCRIPTION_DELTA);
+                    Assert.assertEquals(requestId, readLongLE(frame, QwpConstants.HEADER_SIZE + 1));
+                    Assert.assertTrue(readLongLE(frame, QwpConstants.HEADER_SIZE + 9) > snapshotSeqTxn);
+                    Assert.assertNotEquals(Numbers.LONG_NULL, readLongLE(frame, QwpConstants.HEADER_SIZE + 25));
+                    readFrameUntilKind(in, QwpEgressMsgKind.RESULT_END);
+                }
+                // the disconnect unregisters the subscription
+                TestUtils.assertEventually(() -> Assert.assertEquals(0, registry.getSubscriberCount()));
+            }
+        });
+    }
+
+    @Test
+    public void testSubscriptionResumesAfterReconnect() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            try (final TestServerMain serverMain = startFragmented()) {
+                createViewWithRows(serverMain, 5);
+
+                long lastSeqTxn;
+                try (Socket socket = new Socket("127.0.0.1", HTTP_PORT)) {
+                    socket.setSoTimeout(60_000);
+                    QwpWireTestFixtures.performReadHandshake(socket);
+                    OutputStream out = socket.getOutputStream();
+                    out.write(QwpWireTestFixtures.maskedFrame(WebSocketOpcode.BINARY,
+                            QwpWireTestFixtures.buildSubscribeRequest(1, "lv", -1, 0)));
+                    out.flush();
+
+                    InputStream in = socket.getInputStream();
+                    byte[] frame = readFrameUntilKind(in, QwpEgressMsgKind.SUBSCRIPTION_DELTA);
+                    lastSeqTxn = readLongLE(frame, QwpConstants.HEADER_SIZE + 9);
+                    frame = readFrameUntilKind(in, QwpEgressMsgKind.RESULT_END);
+                    Assert.assertEquals(5, readTotalRows(frame));
+                }
+
+                // the view moves on while the client is away
+                insertRows(serverMain, "2024-09-10T01:00:00.000000Z", 3);
+                awaitViewRows(serverMain, 8);
+
+                try (Socket socket = new Socket("127.0.0.1", HTTP_PORT)) {
+                    socket.setSoTimeout(60_000);
+                    QwpWireTestFixtures.performReadHandshake(socket);
+                    OutputStream out = socket.getOutputStream();
+                    out.write(QwpWireTestFixtures.maskedFrame(WebSocketOpcode.BINARY,
+                            QwpWireTestFixtures.buildSubscribeRequest(2, "lv", lastSeqTxn, 0)));
+                    out.flush();
+
+                    InputStream in = socket.getInputStream();
+                    byte[] frame = readFrameUntilKind(in, QwpEgressMsgKind.SUBSCRIPTION_DELTA);
+                    Assert.assertEquals(2, readLongLE(frame, QwpConstants.HEADER_SIZE + 1));
+                    Assert.assertTrue(readLongLE(frame, QwpConstants.HEADER_SIZE + 9) > lastSeqTxn);
+                    Assert.assertNotEquals("a covered resume cursor must not fall back to a snapshot",
+                            Numbers.LONG_NULL, readLongLE(frame, QwpConstants.HEADER_SIZE + 25));
+                    frame = readFrameUntilKind(in, QwpEgressMsgKind.RESULT_END);
+                    Assert.assertEquals("only the rows committed since the cursor are resent", 3, readTotalRows(frame));
+                }
+            }
+        });
+    }
+
+    private static void awaitViewRows(TestServerMain serverMain, int rows) throws Exception {
+        TestUtils.assertEventually(() -> serverMain.assertSql("SELECT count() FROM lv", "count\n" + rows + "\n"));
+    }
+
+    private static void createViewWithRows(TestServerMain serverMain, int rows) throws Exception {
+        serverMain.execute("CREATE TABLE trades (sym SYMBOL, price DOUBLE, ts TIMESTAMP) TIMESTAMP(ts) PARTITION BY HOUR WAL");
+        insertRows(serverMain, "2024-09-10T00:00:00.000000Z", rows);
+        serverMain.awaitTable("trades");
+        serverMain.execute(VIEW_SQL);
+        awaitViewRows(serverMain, rows);
+    }
+
+    private static void insertRows(TestServerMain serverMain, String from, int rows) {
+        serverMain.execute("INSERT INTO trades SELECT rnd_symbol('a', 'b'), rnd_double(), " +
+                "timestamp_sequence('" + from + "', 1_000_000) FROM long_sequence(" + rows + ")");
+    }
+
+    private static byte[] readFrameUntilKind(InputStream in, byte kind) throws Exception {
+        for (int attempt = 0; attempt < 64; attempt++) {
+            byte[] payload = QwpWireTestFixtures.readServerFrame(in);
+            if (payload.length > QwpConstants.HEADER_SIZE && payload[QwpConstants.HEADER_SIZE] == kind) {
+                return payload;
+            }
+        }
+        Assert.fail("did not receive a frame with msg_kind 0x" + Integer.toHexString(kind & 0xFF));
+        return null; // unreachable
+    }
+
+    private static long readLongLE(byte[] buf, int offset) {
+        long v = 0;
+        for (int i = 0; i < 8; i++) {
+            v |= (long) (buf[offset + i] & 0xFF) << (8 * i);
+        }
+        return v;
+    }
+
+    // RESULT_END body: msg_kind, request_id, final_seq (varint), total_rows (varint)
+    private static long readTotalRows(byte[] frame) throws Exception {
+        QwpVarint.DecodeResult result = new QwpVarint.DecodeResult();
+        int p = QwpConstants.HEADER_SIZE + 9;
+        QwpVarint.decode(frame, p, frame.length, result);
+        QwpVarint.decode(frame, p + result.bytesRead, frame.length, result);
+        return result.value;
+    }
+}
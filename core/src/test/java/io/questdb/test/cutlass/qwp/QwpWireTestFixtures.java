@@ -40,7 +40,8 @@ import java.util.Base64;
  * Raw-wire building blocks for QWP egress tests that must drive the WebSocket
  * byte stream directly (e.g. disconnect-while-parked scenarios that a managed
  * client's close-during-execute contract forbids). Shared by
- * {@link QwpEgressBootstrapTest} and {@link QwpEgressQueryFlagsResetWireTest}.
+ * {@link QwpEgressBootstrapTest}, {@link QwpEgressQueryFlagsResetWireTest} and
+ * {@link QwpEgressSubscriptionWireTest}.
  */
 final class QwpWireTestFixtures {
 
@@ -87,6 +88,30 @@ final class QwpWireTestFixtures {
         return Arrays.copyOf(p, i);
     }
 
+    /**
+     * msg_kind(1) + request_id(8 LE) + from_seq_txn(8 LE) + initial_credit(varint,
+     * 0 = unbounded) + view_name_len(varint) + view_name. The view name must be short
+     * enough for a single-byte length varint.
+     */
+    static byte[] buildSubscribeRequest(long requestId, String viewName, long fromSeqTxn, long initialCredit) {
+        byte[] nameBytes = viewName.getBytes(StandardCharsets.UTF_8);
+        Assert.assertTrue("helper supports single-byte varint view name lengths only", nameBytes.length < 128);
+        byte[] p = new byte[1 + 8 + 8 + 10 + 1 + nameBytes.length];
+        int i = 0;
+        p[i++] = QwpEgressMsgKind.SUBSCRIBE;
+        for (int s = 0; s < 8; s++) {
+            p[i++] = (byte) (requestId >>> (8 * s));
+        }
+        for (int s = 0; s < 8; s++) {
+            p[i++] = (byte) (fromSeqTxn >>> (8 * s));
+        }
+        i = QwpVarint.encode(p, i, initialCredit);
+        p[i++] = (byte) nameBytes.length;
+        System.arraycopy(nameBytes, 0, p, i, nameBytes.length);
+        i += nameBytes.length;
+        return Arrays.copyOf(p, i);
+    }
+
     /**
      * Wraps {@code payload} in a masked client-to-server frame (FIN set) of the given
      * opcode. Client frames must be masked per RFC 6455.
@@ -124,6 +149,14 @@ final class QwpWireTestFixtures {
      * frames (SERVER_INFO first) unconsumed in the stream.
      */
     static void performReadHandshake(Socket socket) throws Exception {
+        performReadHandshake(socket, 0);
+    }
+
+    /**
+     * Same as {@link #performReadHandshake(Socket)}, but also asks for a per-batch row
+     * cap via {@code X-QWP-Max-Batch-Rows} when {@code maxBatchRows} is positive.
+     */
+    static void performReadHandshake(Socket socket, int maxBatchRows) throws Exception {
         OutputStream out = socket.getOutputStream();
         InputStream in = socket.getInputStream();
 
@@ -139,6 +172,7 @@ final class QwpWireTestFixtures {
                 "Connection: Upgrade\r\n" +
                 "Sec-WebSocket-Key: " + wsKey + "\r\n" +
                 "Sec-WebSocket-Version: 13\r\n" +
+                (maxBatchRows > 0 ? "X-QWP-Max-Batch-Rows: " + maxBatchRows + "\r\n" : "") +
                 "\r\n";
         out.write(request.getBytes(StandardCharsets.UTF_8));
         out.flush();
@@ -39,6 +39,7 @@ import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RowCursor;
 import io.questdb.cairo.sql.StaticSymbolTable;
 import io.questdb.cairo.vm.MemoryCMARWImpl;
+import io.questdb.cairo.wal.WalUtils;
 import io.questdb.cutlass.text.Atomicity;
 import io.questdb.cutlass.text.CopyImportJob;
 import io.questdb.cutlass.text.CopyImportRequestJob;
@@ -84,7 +85,9 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ParallelCsvFileImporterTest extends AbstractCairoTest {
     private static final Rnd rnd = new Rnd();
@@ -1601,6 +1604,239 @@ public class ParallelCsvFileImporterTest extends AbstractCairoTest {
         );
     }
 
+    @Test
+    public void testImportIntoNonEmptyWalTableAppendsRows() throws Exception {
+        executeWithPool(
+                8, 4, (CairoEngine engine, SqlCompiler compiler, SqlExecutionContext sqlExecutionContext) -> {
+                    execute(compiler, "create table tab53 (line symbol, ts timestamp, d double, txt string) timestamp(ts) partition by DAY WAL;", sqlExecutionContext);
+                    execute(compiler, "insert into tab53 values ('line0', '2022-05-09T11:52:00.000Z', 0.5, 'a'), ('line1', '2022-05-11T10:00:00.000Z', 1.5, 'b');", sqlExecutionContext);
+                    drainWalQueue(engine);
+
+                    try (ParallelCsvFileImporter importer = new ParallelCsvFileImporter(engine, 8)) {
+                        importer.setMinChunkSize(1);
+                        importer.of("tab53", "test-quotes-small.csv", 1, PartitionBy.DAY, (byte) ',', "ts", "yyyy-MM-ddTHH:mm:ss.SSSZ", true);
+                        importer.process(AllowAllSecurityContext.INSTANCE);
+                    }
+                    drainWalQueue(engine);
+                    refreshTablesInBaseEngine();
+                    assertQuery("select line, ts, d from tab53")
+                            .noLeakCheck()
+                            .timestamp("ts")
+                            .returns("""
+                                    line\tts\td
+                                    line0\t2022-05-09T11:52:00.000000Z\t0.5
+                                    line1\t2022-05-10T11:52:00.000000Z\t111.11
+                                    line1\t2022-05-11T10:00:00.000000Z\t1.5
+                                    line2\t2022-05-11T11:52:00.000000Z\t222.22
+                                    line3\t2022-05-11T11:52:00.001000Z\t333.33
+                                    """);
+                }
+        );
+    }
+
+    @Test
+    public void testImportIntoNonEmptyWalTableDedupsRows() throws Exception {
+        executeWithPool(
+                8, 4, (CairoEngine engine, SqlCompiler compiler, SqlExecutionContext sqlExecutionContext) -> {
+                    execute(compiler, "create table tab54 (line symbol, ts timestamp, d double, txt string) timestamp(ts) partition by DAY WAL dedup upsert keys(ts, line);", sqlExecutionContext);
+                    execute(compiler, "insert into tab54 values ('line1', '2022-05-10T11:52:00.000Z', 0.5, 'a'), ('line3', '2022-05-11T11:52:00.001Z', 1.5, 'b');", sqlExecutionContext);
+                    drainWalQueue(engine);
+
+                    try (ParallelCsvFileImporter importer = new ParallelCsvFileImporter(engine, 8)) {
+                        importer.setMinChunkSize(1);
+                        importer.of("tab54", "test-quotes-small.csv", 1, PartitionBy.DAY, (byte) ',', "ts", "yyyy-MM-ddTHH:mm:ss.SSSZ", true);
+                        importer.process(AllowAllSecurityContext.INSTANCE);
+                    }
+                    drainWalQueue(engine);
+                    refreshTablesInBaseEngine();
+                    // imported rows replace the existing ones with the same keys
+                    assertQuery("select line, ts, d from tab54")
+                            .noLeakCheck()
+                            .timestamp("ts")
+                            .returns("""
+                                    line\tts\td
+                                    line1\t2022-05-10T11:52:00.000000Z\t111.11
+                                    line2\t2022-05-11T11:52:00.000000Z\t222.22
+                                    line3\t2022-05-11T11:52:00.001000Z\t333.33
+                                    """);
+                }
+        );
+    }
+
+    @Test
+    public void testImportIntoNonEmptyWalTableFailsMidway() throws Exception {
+        // the task importing the second partition fails, while the first one may have appended its rows
+        FilesFacade brokenFf = new TestFilesFacadeImpl() {
+            @Override
+            public long openRO(LPSZ name) {
+                if (Utf8s.containsAscii(name, "2022-05-11" + Files.SEPARATOR)) {
+                    return -1;
+                }
+                return super.openRO(name);
+            }
+        };
+
+        executeWithPool(
+                8, 4, brokenFf, (CairoEngine engine, SqlCompiler compiler, SqlExecutionContext sqlExecutionContext) -> {
+                    execute(compiler, "create table tab55 (line symbol, ts timestamp, d double, txt string) timestamp(ts) partition by DAY WAL;", sqlExecutionContext);
+                    execute(compiler, "insert into tab55 values ('line0', '2022-05-09T11:52:00.000Z', 0.5, 'a');", sqlExecutionContext);
+                    drainWalQueue(engine);
+
+                    try (ParallelCsvFileImporter importer = new ParallelCsvFileImporter(engine, 8)) {
+                        importer.setMinChunkSize(1);
+                        importer.of("tab55", "test-quotes-small.csv", 1, PartitionBy.DAY, (byte) ',', "ts", "yyyy-MM-ddTHH:mm:ss.SSSZ", true);
+                        importer.process(AllowAllSecurityContext.INSTANCE);
+                        Assert.fail();
+                    } catch (TextImportException e) {
+                        TestUtils.assertContains(e.getMessage(), "import failed [phase=partition_import");
+                    }
+                    assertWalAppendRolledBack(engine, compiler, sqlExecutionContext, "tab55");
+                }
+        );
+    }
+
+    @Test
+    public void testImportIntoNonEmptyWalTableFailsOnConcurrentDropColumn() throws Exception {
+        // the column is dropped after the import has resolved the table structure
+        final AtomicReference<Runnable> alter = new AtomicReference<>();
+        final AtomicInteger inputOpenCount = new AtomicInteger();
+        FilesFacade ff = new TestFilesFacadeImpl() {
+            @Override
+            public long openRO(LPSZ name) {
+                if (Utf8s.containsAscii(name, "test-quotes-small.csv") && inputOpenCount.incrementAndGet() == 2) {
+                    alter.get().run();
+                }
+                return super.openRO(name);
+            }
+        };
+
+        executeWithPool(
+                8, 4, ff, (CairoEngine engine, SqlCompiler compiler, SqlExecutionContext sqlExecutionContext) -> {
+                    execute(compiler, "create table tab63 (line symbol, ts timestamp, d double, txt string) timestamp(ts) partition by DAY WAL;", sqlExecutionContext);
+                    execute(compiler, "insert into tab63 values ('line0', '2022-05-09T11:52:00.000Z', 0.5, 'a');", sqlExecutionContext);
+                    drainWalQueue(engine);
+
+                    alter.set(() -> {
+                        try {
+                            execute(compiler, "alter table tab63 drop column d;", sqlExecutionContext);
+                        } catch (SqlException e) {
+                            throw new RuntimeException(e);
+                        }
+                    });
+                    try (ParallelCsvFileImporter importer = new ParallelCsvFileImporter(engine, 8)) {
+                        importer.setMinChunkSize(1);
+                        importer.of("tab63", "test-quotes-small.csv", 1, PartitionBy.DAY, (byte) ',', "ts", "yyyy-MM-ddTHH:mm:ss.SSSZ", true);
+                        importer.process(AllowAllSecurityContext.INSTANCE);
+                        Assert.fail();
+                    } catch (TextImportException e) {
+                        TestUtils.assertContains(e.getMessage(), "table structure changed during import [table=tab63]");
+                    }
+                    Assert.assertTrue(inputOpenCount.get() > 1);
+
+                    drainWalQueue(engine);
+                    Assert.assertFalse(engine.getTableSequencerAPI().isSuspended(engine.verifyTableName("tab63")));
+                    refreshTablesInBaseEngine();
+                    assertQuery("select line, ts, txt from tab63")
+                            .noLeakCheck()
+                            .timestamp("ts")
+                            .returns("""
+                                    line\tts\ttxt
+                                    line0\t2022-05-09T11:52:00.000000Z\ta
+                                    """);
+                }
+        );
+    }
+
+    @Test
+    public void testImportIntoNonEmptyWalTableRollsBackFailedCommit() throws Exception {
+        // one txn log part per transaction, so that the batch commit opens a part file per task
+        setProperty(PropertyKey.CAIRO_DEFAULT_SEQ_PART_TXN_COUNT, 1);
+        final AtomicBoolean armed = new AtomicBoolean();
+        final AtomicInteger partOpenCount = new AtomicInteger();
+        FilesFacade brokenFf = new TestFilesFacadeImpl() {
+            @Override
+            public long openRW(LPSZ name, int opts) {
+                // let the first record of the batch in, then fail the second one
+                if (armed.get() && Utf8s.containsAscii(name, WalUtils.TXNLOG_PARTS_DIR) && partOpenCount.incrementAndGet() == 2) {
+                    return -1;
+                }
+                return super.openRW(name, opts);
+            }
+        };
+
+        executeWithPool(
+                8, 4, brokenFf, (CairoEngine engine, SqlCompiler compiler, SqlExecutionContext sqlExecutionContext) -> {
+                    execute(compiler, "create table tab56 (line symbol, ts timestamp, d double, txt string) timestamp(ts) partition by DAY WAL;", sqlExecutionContext);
+                    execute(compiler, "insert into tab56 values ('line0', '2022-05-09T11:52:00.000Z', 0.5, 'a');", sqlExecutionContext);
+                    drainWalQueue(engine);
+
+                    armed.set(true);
+                    try (ParallelCsvFileImporter importer = new ParallelCsvFileImporter(engine, 8)) {
+                        importer.setMinChunkSize(1);
+                        importer.of("tab56", "test-quotes-small.csv", 1, PartitionBy.DAY, (byte) ',', "ts", "yyyy-MM-ddTHH:mm:ss.SSSZ", true);
+                        importer.process(AllowAllSecurityContext.INSTANCE);
+                        Assert.fail();
+                    } catch (TextImportException e) {
+                        TestUtils.assertContains(e.getMessage(), "import failed [phase=wal_commit");
+                    }
+                    armed.set(false);
+                    Assert.assertEquals(2, partOpenCount.get());
+                    assertWalAppendRolledBack(engine, compiler, sqlExecutionContext, "tab56");
+
+                    // the sequencer recovers and the import can be retried
+                    try (ParallelCsvFileImporter importer = new ParallelCsvFileImporter(engine, 8)) {
+                        importer.setMinChunkSize(1);
+                        importer.of("tab56", "test-quotes-small.csv", 1, PartitionBy.DAY, (byte) ',', "ts", "yyyy-MM-ddTHH:mm:ss.SSSZ", true);
+                        importer.process(AllowAllSecurityContext.INSTANCE);
+                    }
+                    drainWalQueue(engine);
+                    refreshTablesInBaseEngine();
+                    assertQuery("select line, ts, d from tab56")
+                            .noLeakCheck()
+                            .timestamp("ts")
+                            .returns("""
+                                    line\tts\td
+                                    line0\t2022-05-09T11:52:00.000000Z\t0.5
+                                    line4\t2022-05-09T12:00:00.000000Z\t4.5
+                                    line1\t2022-05-10T11:52:00.000000Z\t111.11
+                                    line2\t2022-05-11T11:52:00.000000Z\t222.22
+                                    line3\t2022-05-11T11:52:00.001000Z\t333.33
+                                    """);
+                }
+        );
+    }
+
+    @Test
+    public void testImportIntoNonEmptyWalTableWithDroppedColumn() throws Exception {
+        // WAL rows are addressed by writer column index, which counts the dropped column
+        executeWithPool(
+                8, 4, (CairoEngine engine, SqlCompiler compiler, SqlExecutionContext sqlExecutionContext) -> {
+                    execute(compiler, "create table tab64 (line symbol, x int, ts timestamp, d double, txt string) timestamp(ts) partition by DAY WAL;", sqlExecutionContext);
+                    execute(compiler, "insert into tab64 values ('line0', 1, '2022-05-09T11:52:00.000Z', 0.5, 'a');", sqlExecutionContext);
+                    execute(compiler, "alter table tab64 drop column x;", sqlExecutionContext);
+                    drainWalQueue(engine);
+
+                    try (ParallelCsvFileImporter importer = new ParallelCsvFileImporter(engine, 8)) {
+                        importer.setMinChunkSize(1);
+                        importer.of("tab64", "test-quotes-small.csv", 1, PartitionBy.DAY, (byte) ',', "ts", "yyyy-MM-ddTHH:mm:ss.SSSZ", true);
+                        importer.process(AllowAllSecurityContext.INSTANCE);
+                    }
+                    drainWalQueue(engine);
+                    refreshTablesInBaseEngine();
+                    assertQuery("select line, ts, d from tab64")
+                            .noLeakCheck()
+                            .timestamp("ts")
+                            .returns("""
+                                    line\tts\td
+                                    line0\t2022-05-09T11:52:00.000000Z\t0.5
+                                    line1\t2022-05-10T11:52:00.000000Z\t111.11
+                                    line2\t2022-05-11T11:52:00.000000Z\t222.22
+                                    line3\t2022-05-11T11:52:00.001000Z\t333.33
+                                    """);
+                }
+        );
+    }
+
     @Test
     public void testImportIsCancelled() throws Exception {
         executeWithPool(
@@ -3090,6 +3326,23 @@ public class ParallelCsvFileImporterTest extends AbstractCairoTest {
         Assert.assertEquals(list(expectedChunks), actualChunks);
     }
 
+    // none of the rows of a failed append become visible and the table stays writable
+    private void assertWalAppendRolledBack(CairoEngine engine, SqlCompiler compiler, SqlExecutionContext sqlExecutionContext, String tableName) throws Exception {
+        drainWalQueue(engine);
+        Assert.assertFalse(engine.getTableSequencerAPI().isSuspended(engine.verifyTableName(tableName)));
+        execute(compiler, "insert into " + tableName + " values ('line4', '2022-05-09T12:00:00.000Z', 4.5, 'e');", sqlExecutionContext);
+        drainWalQueue(engine);
+        refreshTablesInBaseEngine();
+        assertQuery("select line, ts, d from " + tableName)
+                .noLeakCheck()
+                .timestamp("ts")
+                .returns("""
+                        line\tts\td
+                        line0\t2022-05-09T11:52:00.000000Z\t0.5
+                        line4\t2022-05-09T12:00:00.000000Z\t4.5
+                        """);
+    }
+
     private void executeCopy(SqlCompiler compiler, SqlExecutionContext sqlExecutionContext) throws SqlException {
         CompiledQuery cq = compiler.compile(
                 "copy xy from 'test-quotes-big.csv' with header true timestamp 'ts' delimiter ',' format 'yyyy-MM-ddTHH:mm:ss.SSSUUUZ' partition by MONTH on error ABORT; ",
@@ -3572,6 +3825,11 @@ public class ParallelCsvFileImporterTest extends AbstractCairoTest {
                         return ioURingFacade;
                     }
 
+                    @Override
+                    public int getDefaultSeqPartTxnCount() {
+                        return configuration.getDefaultSeqPartTxnCount();
+                    }
+
                     @Override
                     public int getSqlCopyBufferSize() {
                         return configuration.getSqlCopyBufferSize();
@@ -3607,6 +3865,11 @@ public class ParallelCsvFileImporterTest extends AbstractCairoTest {
                         return ioURingFacade;
                     }
 
+                    @Override
+                    public int getDefaultSeqPartTxnCount() {
+                        return configuration.getDefaultSeqPartTxnCount();
+                    }
+
                     @Override
                     public int getSqlCopyBufferSize() {
                         return configuration.getSqlCopyBufferSize();
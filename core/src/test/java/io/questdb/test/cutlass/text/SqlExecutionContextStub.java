@@ -211,6 +211,11 @@ public record SqlExecutionContextStub(CairoEngine engine) implements SqlExecutio
         return false;
     }
 
+    @Override
+    public boolean isParallelAsOfJoinEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isParallelFilterEnabled() {
         return false;
@@ -326,6 +331,10 @@ public record SqlExecutionContextStub(CairoEngine engine) implements SqlExecutio
     public void setNowAndFixClock(long now, int nowTimestampType) {
     }
 
+    @Override
+    public void setParallelAsOfJoinEnabled(boolean parallelAsOfJoinEnabled) {
+    }
+
     @Override
     public void setParallelFilterEnabled(boolean parallelFilterEnabled) {
     }
@@ -0,0 +1,162 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.PropertyKey;
+import io.questdb.std.Chars;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GroupByUnionAllPushdownTest extends AbstractCairoTest {
+
+    @Override
+    public void setUp() {
+        node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_UNION_ALL_GROUPBY_ENABLED, true);
+        super.setUp();
+    }
+
+    @Test
+    public void testExplicitGroupBy() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            final String query = "select k, count(*) c, sum(d) sd from (" +
+                    "select k, d from t1 union all select k, d from t2" +
+                    ") group by k order by k";
+            assertGroupByCount(3, query);
+            printSql(query);
+            TestUtils.assertEquals(
+                    """
+                            k\tc\tsd
+                            a\t3\t2.0
+                            b\t2\t6.5
+                            c\t1\t1.0
+                            """,
+                    sink
+            );
+        });
+    }
+
+    @Test
+    public void testKeyed() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            final String query = "select k, sum(i) si, sum(d) sd, min(i) mn, max(ts) mx, count() c, count(i) ci from (" +
+                    "select k, i, d, ts from t1 union all select k, i, d, ts from t2" +
+                    ") order by k";
+            assertGroupByCount(3, query);
+            printSql(query);
+            TestUtils.assertEquals(
+                    """
+                            k\tsi\tsd\tmn\tmx\tc\tci
+                            a\t14\t2.0\t1\t2024-01-05T00:00:00.000000Z\t3\t3
+                            b\t2\t6.5\t2\t2024-01-04T00:00:00.000000Z\t2\t1
+                            c\t20\t1.0\t20\t2024-01-06T00:00:00.000000Z\t1\t1
+                            """,
+                    sink
+            );
+        });
+    }
+
+    @Test
+    public void testMixedIntegerSumTypes() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            execute("create table t3 (k symbol, l long)");
+            execute("insert into t3 values ('a', 9000000000), ('b', 1)");
+            // sum() of int and long branches is long either way
+            final String query = "select k, sum(i) s from (" +
+                    "select k, i from t1 union all select k, l i from t3" +
+                    ") order by k";
+            assertGroupByCount(3, query);
+            printSql(query);
+            TestUtils.assertEquals(
+                    """
+                            k\ts
+                            a\t9000000004
+                            b\t3
+                            """,
+                    sink
+            );
+        });
+    }
+
+    @Test
+    public void testNonKeyedWithEmptyBranch() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            final String query = "select count(*) c, sum(i) s, max(d) mx from (" +
+                    "select i, d from t1 union all select i, d from t2 where i > 100" +
+                    ")";
+            assertGroupByCount(3, query);
+            printSql(query);
+            TestUtils.assertEquals(
+                    """
+                            c\ts\tmx
+                            4\t6\t4.0
+                            """,
+                    sink
+            );
+        });
+    }
+
+    @Test
+    public void testNotPushedDown() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            // avg() cannot be merged from partial results
+            assertGroupByCount(1, "select k, avg(i) from (select k, i from t1 union all select k, i from t2)");
+            // min() over int and double branches changes result type
+            assertGroupByCount(1, "select k, min(v) from (select k, i v from t1 union all select k, d v from t2)");
+            // UNION removes duplicates before aggregation
+            assertGroupByCount(1, "select k, count() from (select k, i from t1 union select k, i from t2)");
+            // column names of the second branch do not match the union output
+            assertGroupByCount(1, "select k, count(i) from (select k, i from t1 union all select k, d from t2)");
+        });
+    }
+
+    private static void assertGroupByCount(int expected, String query) throws Exception {
+        printSql("explain " + query);
+        int count = 0;
+        for (int i = Chars.indexOf(sink, 0, sink.length(), "Group"); i > -1; i = Chars.indexOf(sink, i + 1, sink.length(), "Group")) {
+            count++;
+        }
+        Assert.assertEquals(sink.toString(), expected, count);
+    }
+
+    private static void createTables() throws Exception {
+        execute("create table t1 (k symbol, i int, d double, ts timestamp) timestamp(ts) partition by day");
+        execute("insert into t1 values " +
+                "('a', 1, 1.5, '2024-01-01'), " +
+                "('b', 2, 2.5, '2024-01-02'), " +
+                "('a', 3, null, '2024-01-03'), " +
+                "('b', null, 4.0, '2024-01-04')");
+        execute("create table t2 (k symbol, i int, d double, ts timestamp) timestamp(ts) partition by day");
+        execute("insert into t2 values " +
+                "('a', 10, 0.5, '2024-01-05'), " +
+                "('c', 20, 1.0, '2024-01-06')");
+    }
+}
@@ -0,0 +1,194 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelAsOfJoinTest extends AbstractCairoTest {
+    private static final int PAGE_FRAME_MAX_ROWS = 100;
+
+    @Override
+    @Before
+    public void setUp() {
+        setProperty(PropertyKey.CAIRO_SQL_PARALLEL_ASOF_JOIN_ENABLED, "true");
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, PAGE_FRAME_MAX_ROWS);
+        setProperty(PropertyKey.CAIRO_SMALL_SQL_PAGE_FRAME_MAX_ROWS, PAGE_FRAME_MAX_ROWS);
+        super.setUp();
+    }
+
+    @Test
+    public void testAsOfJoin() throws Exception {
+        assertParallelJoin(
+                "select m.ts, m.sym, m.id, s.ts, s.sym, s.id from m asof join s on sym",
+                "Async AsOf Join"
+        );
+    }
+
+    @Test
+    public void testAsOfJoinSparseKeys() throws Exception {
+        assertParallelJoin(
+                "select m.ts, m.sym, m.id, s.ts, s.sym, s.id from m asof join s on sym",
+                "Async AsOf Join",
+                ParallelAsOfJoinTest::createSparseKeyTables
+        );
+    }
+
+    @Test
+    public void testAsOfJoinTolerance() throws Exception {
+        assertParallelJoin(
+                "select m.ts, m.sym, m.id, s.ts, s.id from m asof join s on sym tolerance 2m",
+                "Async AsOf Join"
+        );
+    }
+
+    @Test
+    public void testLtJoin() throws Exception {
+        assertParallelJoin(
+                "select m.ts, m.sym, m.id, s.ts, s.sym, s.id from m lt join s on sym",
+                "Async Lt Join"
+        );
+    }
+
+    @Test
+    public void testLtJoinSparseKeys() throws Exception {
+        assertParallelJoin(
+                "select m.ts, m.sym, m.id, s.ts, s.sym, s.id from m lt join s on sym",
+                "Async Lt Join",
+                ParallelAsOfJoinTest::createSparseKeyTables
+        );
+    }
+
+    @Test
+    public void testLtJoinTolerance() throws Exception {
+        assertParallelJoin(
+                "select m.ts, m.sym, m.id, s.ts, s.id from m lt join s on sym tolerance 2m",
+                "Async Lt Join"
+        );
+    }
+
+    // Without a tolerance, the backward scan of each master frame would go all the way back to
+    // the last slave row of the sparse keys. The frames of the same worker resolve them from
+    // the rows remembered for the previous frames instead.
+    private static void createSparseKeyTables(CairoEngine engine, SqlExecutionContext sqlExecutionContext) throws Exception {
+        engine.execute(
+                "create table m as (" +
+                        "  select timestamp_sequence('2024-01-01T01:00', 30_000_000) ts, rnd_symbol('a','rare','early','late') sym, x id" +
+                        "  from long_sequence(4000)" +
+                        ") timestamp(ts) partition by hour",
+                sqlExecutionContext
+        );
+        // 'early' has a single row before the master, 'rare' has a row every few hours and
+        // 'late' has a single row in the second half of the master
+        engine.execute(
+                "create table s as (" +
+                        "  select timestamp_sequence('2024-01-01', 20_000_000) ts, 'a'::symbol sym, x id" +
+                        "  from long_sequence(8000)" +
+                        ") timestamp(ts) partition by hour",
+                sqlExecutionContext
+        );
+        engine.execute(
+                "insert into s values " +
+                        "('2024-01-01T00:00:10', 'early', -1), " +
+                        "('2024-01-01T00:30', 'rare', -2), " +
+                        "('2024-01-01T09:15', 'rare', -3), " +
+                        "('2024-01-01T14:00', 'late', -4), " +
+                        "('2024-01-01T17:45', 'rare', -5)",
+                sqlExecutionContext
+        );
+    }
+
+    private static void createTables(CairoEngine engine, SqlExecutionContext sqlExecutionContext) throws Exception {
+        engine.execute(
+                "create table m as (" +
+                        "  select timestamp_sequence('2024-01-01', 60_000_000) ts, rnd_symbol('a','b','c','d') sym, x id" +
+                        "  from long_sequence(2000)" +
+                        ") timestamp(ts) partition by hour",
+                sqlExecutionContext
+        );
+        engine.execute(
+                "insert into m select timestamp_sequence('2024-01-02T10:00', 60_000_000), null, -x from long_sequence(50)",
+                sqlExecutionContext
+        );
+        // the slave has rows with the same timestamps as the master, a symbol the master
+        // doesn't have, a master symbol that is only found at its very beginning and nulls
+        engine.execute(
+                "create table s as (" +
+                        "  select timestamp_sequence('2024-01-01T00:10', 30_000_000) ts, rnd_symbol('a','b','c','e') sym, x id" +
+                        "  from long_sequence(4000)" +
+                        ") timestamp(ts) partition by hour",
+                sqlExecutionContext
+        );
+        engine.execute("insert into s values ('2024-01-01T00:05', 'd', 0)", sqlExecutionContext);
+        engine.execute(
+                "insert into s select timestamp_sequence('2024-01-02T09:00', 90_000_000), null, -x from long_sequence(100)",
+                sqlExecutionContext
+        );
+    }
+
+    private void assertParallelJoin(String query, String expectedFactory) throws Exception {
+        assertParallelJoin(query, expectedFactory, ParallelAsOfJoinTest::createTables);
+    }
+
+    private void assertParallelJoin(String query, String expectedFactory, TableSetup setup) throws Exception {
+        WorkerPool pool = new WorkerPool(() -> 4);
+        TestUtils.execute(
+                pool,
+                (engine, compiler, sqlExecutionContext) -> {
+                    setup.create(engine, sqlExecutionContext);
+
+                    TestUtils.printSql(compiler, sqlExecutionContext, "explain " + query, sink);
+                    TestUtils.assertContains(sink, expectedFactory);
+
+                    final StringSink parallelSink = new StringSink();
+                    TestUtils.printSql(compiler, sqlExecutionContext, query, parallelSink);
+
+                    sqlExecutionContext.setParallelAsOfJoinEnabled(false);
+                    try {
+                        TestUtils.printSql(compiler, sqlExecutionContext, "explain " + query, sink);
+                        TestUtils.assertNotContains(sink, "Async");
+                        TestUtils.printSql(compiler, sqlExecutionContext, query, sink);
+                    } finally {
+                        sqlExecutionContext.setParallelAsOfJoinEnabled(true);
+                    }
+                    TestUtils.assertEquals(sink, parallelSink);
+                },
+                configuration,
+                LOG
+        );
+    }
+
+    @FunctionalInterface
+    private interface TableSetup {
+        void create(CairoEngine engine, SqlExecutionContext sqlExecutionContext) throws Exception;
+    }
+}
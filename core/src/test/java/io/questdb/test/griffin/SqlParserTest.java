@@ -13149,6 +13149,45 @@ public class SqlParserTest extends AbstractSqlParserTest {
         );
     }
 
+    @Test
+    public void testTableSampleBadMethod() throws Exception {
+        assertSyntaxError(
+                "select * from tab tablesample foo (10)",
+                30,
+                "'system' or 'bernoulli' expected",
+                modelOf("tab").col("x", ColumnType.INT)
+        );
+    }
+
+    @Test
+    public void testTableSampleMissingBrace() throws Exception {
+        assertSyntaxError(
+                "select * from tab tablesample system 10",
+                37,
+                "'(' expected",
+                modelOf("tab").col("x", ColumnType.INT)
+        );
+    }
+
+    @Test
+    public void testTableSampleOnSubQuery() throws Exception {
+        assertSyntaxError(
+                "select * from (select x from tab where x > 1) tablesample system (10)",
+                46,
+                "TABLESAMPLE is only supported on tables",
+                modelOf("tab").col("x", ColumnType.INT)
+        );
+    }
+
+    @Test
+    public void testTableSampleSystem() throws Exception {
+        assertQuery(
+                "select-choose x from (select [x] from tab tablesample system (10) repeatable (42))",
+                "select * from tab tablesample system (10) repeatable (42)",
+                modelOf("tab").col("x", ColumnType.INT)
+        );
+    }
+
     @Test
     public void testTimestampOffsetDetectedWithoutExplicitTimestampClause() throws Exception {
         // Verify ts_offset is detected even without explicit timestamp(ts) clause
@@ -0,0 +1,166 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.PropertyKey;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TableSampleTest extends AbstractCairoTest {
+    private static final String DDL = "create table x as (" +
+            "select x, rnd_symbol('a','b','c') sym, timestamp_sequence(0, 1000000) ts from long_sequence(100000)" +
+            ") timestamp(ts) partition by HOUR";
+
+    @Override
+    @Before
+    public void setUp() {
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MIN_ROWS, 1000);
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, 1000);
+        super.setUp();
+    }
+
+    @Test
+    public void testBernoulliCountIsScaled() throws Exception {
+        assertQuery("select c between 95000 and 105000 ok from (select count() c from x tablesample bernoulli (10) repeatable (42))")
+                .ddl(DDL)
+                .returnsOnce("ok\ntrue\n");
+    }
+
+    @Test
+    public void testBernoulliFullSample() throws Exception {
+        assertMemoryLeak(() -> {
+            execute(DDL);
+            assertSqlCursors("x", "select * from x tablesample bernoulli (100)");
+        });
+    }
+
+    @Test
+    public void testBernoulliPercentOutOfRange() throws Exception {
+        assertQuery("select * from x tablesample bernoulli (150)")
+                .ddl(DDL)
+                .fails(39, "sample percentage must be greater than 0 and not greater than 100");
+    }
+
+    @Test
+    public void testBernoulliRepeatable() throws Exception {
+        assertMemoryLeak(() -> {
+            execute(DDL);
+            assertSqlCursors(
+                    "select * from x tablesample bernoulli (5) repeatable (1)",
+                    "select * from x tablesample bernoulli (5) repeatable (1)"
+            );
+        });
+    }
+
+    @Test
+    public void testBernoulliRepeatableAcrossPlans() throws Exception {
+        assertMemoryLeak(() -> {
+            execute(DDL);
+            final String query = "select * from x tablesample bernoulli (5) repeatable (7)";
+
+            node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_FILTER_ENABLED, "false");
+            printSql(query);
+            final String serial = sink.toString();
+
+            node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_FILTER_ENABLED, "true");
+            printSql(query);
+            TestUtils.assertEquals(serial, sink);
+
+            // frame sizes must not matter either
+            node1.setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MIN_ROWS, 333);
+            node1.setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, 333);
+            printSql(query);
+            TestUtils.assertEquals(serial, sink);
+        });
+    }
+
+    @Test
+    public void testLatestOnNotSupported() throws Exception {
+        assertQuery("select * from x tablesample system (10) latest on ts partition by sym")
+                .ddl(DDL)
+                .fails(36, "TABLESAMPLE is not supported with LATEST ON");
+    }
+
+    @Test
+    public void testSumIsScaled() throws Exception {
+        assertQuery("select s between 80000 and 120000 ok from (select sum(1) s from x tablesample bernoulli (20) repeatable (3))")
+                .ddl(DDL)
+                .returnsOnce("ok\ntrue\n");
+    }
+
+    @Test
+    public void testSystemCountIsScaled() throws Exception {
+        assertQuery("select c between 60000 and 140000 ok from (select count() c from x tablesample system (50) repeatable (42))")
+                .ddl(DDL)
+                .returnsOnce("ok\ntrue\n");
+    }
+
+    @Test
+    public void testSystemFullSample() throws Exception {
+        assertMemoryLeak(() -> {
+            execute(DDL);
+            assertSqlCursors("x", "select * from x tablesample system (100)");
+            assertSqlCursors("select count() from x", "select count() from x tablesample system (100)");
+        });
+    }
+
+    @Test
+    public void testSystemPercentNotConstant() throws Exception {
+        assertQuery("select * from x tablesample system (x)")
+                .ddl(DDL)
+                .fails(36, "Invalid column: x");
+    }
+
+    @Test
+    public void testSystemPercentOutOfRange() throws Exception {
+        assertQuery("select * from x tablesample system (0)")
+                .ddl(DDL)
+                .fails(36, "sample percentage must be greater than 0 and not greater than 100");
+    }
+
+    @Test
+    public void testSystemPlan() throws Exception {
+        assertQuery("select count() from x tablesample system (10) repeatable (5)")
+                .ddl(DDL)
+                .assertsPlanContaining("TableSampleScale", "sample: system(10.0) repeatable(5)");
+    }
+
+    @Test
+    public void testSystemRepeatable() throws Exception {
+        assertMemoryLeak(() -> {
+            execute(DDL);
+            assertSqlCursors(
+                    "select * from x tablesample system (25) repeatable (7)",
+                    "select * from x tablesample system (25) repeatable (7)"
+            );
+            assertSqlCursors(
+                    "select * from x tablesample system (25) repeatable (7) order by ts desc",
+                    "select * from (select * from x tablesample system (25) repeatable (7)) order by ts desc"
+            );
+        });
+    }
+}
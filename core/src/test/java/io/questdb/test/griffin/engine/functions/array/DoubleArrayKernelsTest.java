@@ -0,0 +1,155 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.engine.functions.array;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.arr.DerivedArrayView;
+import io.questdb.cairo.arr.DirectArray;
+import io.questdb.cairo.arr.DoubleArrayKernels;
+import io.questdb.cairo.vm.api.MemoryA;
+import io.questdb.std.Numbers;
+import io.questdb.std.Rnd;
+import io.questdb.test.AbstractTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoubleArrayKernelsTest extends AbstractTest {
+
+    @Test
+    public void testAddressOfNonVanillaArray() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            try (DirectArray array = newArray(new Rnd(), 3, 4)) {
+                Assert.assertEquals(array.ptr(), DoubleArrayKernels.addressOf(array));
+                final DerivedArrayView view = new DerivedArrayView();
+                view.of(array);
+                view.transpose();
+                Assert.assertEquals(0, DoubleArrayKernels.addressOf(view));
+            }
+        });
+    }
+
+    @Test
+    public void testDotProductMatchesNaiveLoop() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final Rnd rnd = TestUtils.generateRandom(null);
+            for (int len = 0; len < 40; len++) {
+                try (
+                        DirectArray left = newArray(rnd, 1, len);
+                        DirectArray right = newArray(rnd, 1, len)
+                ) {
+                    double expected = 0d;
+                    for (int i = 0; i < len; i++) {
+                        final double l = left.getDouble(i);
+                        final double r = right.getDouble(i);
+                        if (Numbers.isFinite(l) && Numbers.isFinite(r)) {
+                            expected += l * r;
+                        }
+                    }
+                    final double actual = len > 0 ? DoubleArrayKernels.dotProduct(left.ptr(), right.ptr(), len) : 0d;
+                    // the products are summed in element order, so the results are bit-identical
+                    Assert.assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testElementwise() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final Rnd rnd = TestUtils.generateRandom(null);
+            for (int len = 1; len < 40; len++) {
+                try (
+                        DirectArray left = newArray(rnd, 1, len);
+                        DirectArray right = newArray(rnd, 1, len);
+                        DirectArray out = newArray(rnd, 1, len)
+                ) {
+                    DoubleArrayKernels.add(left.ptr(), right.ptr(), out.ptr(), len);
+                    for (int i = 0; i < len; i++) {
+                        Assert.assertEquals(left.getDouble(i) + right.getDouble(i), out.getDouble(i), 0);
+                    }
+                    DoubleArrayKernels.subtract(left.ptr(), right.ptr(), out.ptr(), len);
+                    for (int i = 0; i < len; i++) {
+                        Assert.assertEquals(left.getDouble(i) - right.getDouble(i), out.getDouble(i), 0);
+                    }
+                    DoubleArrayKernels.multiply(left.ptr(), right.ptr(), out.ptr(), len);
+                    for (int i = 0; i < len; i++) {
+                        Assert.assertEquals(left.getDouble(i) * right.getDouble(i), out.getDouble(i), 0);
+                    }
+                    DoubleArrayKernels.divide(left.ptr(), right.ptr(), out.ptr(), len);
+                    for (int i = 0; i < len; i++) {
+                        Assert.assertEquals(left.getDouble(i) / right.getDouble(i), out.getDouble(i), 0);
+                    }
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testMatmulMatchesNaiveLoop() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final Rnd rnd = TestUtils.generateRandom(null);
+            final int[][] shapes = {{1, 1, 1}, {3, 5, 2}, {7, 70, 9}, {2, 130, 300}, {65, 3, 257}};
+            for (int[] shape : shapes) {
+                final int rowCount = shape[0];
+                final int commonLen = shape[1];
+                final int colCount = shape[2];
+                try (
+                        DirectArray left = newArray(rnd, rowCount, commonLen);
+                        DirectArray right = newArray(rnd, commonLen, colCount);
+                        DirectArray out = newArray(rnd, rowCount, colCount)
+                ) {
+                    DoubleArrayKernels.matmul(left.ptr(), right.ptr(), out.ptr(), rowCount, commonLen, colCount);
+                    for (int row = 0; row < rowCount; row++) {
+                        for (int col = 0; col < colCount; col++) {
+                            double sum = 0;
+                            for (int k = 0; k < commonLen; k++) {
+                                sum += left.getDouble(row * commonLen + k) * right.getDouble(k * colCount + col);
+                            }
+                            // blocking keeps the accumulation order, so the results are bit-identical
+                            Assert.assertEquals(
+                                    Double.doubleToLongBits(sum),
+                                    Double.doubleToLongBits(out.getDouble(row * colCount + col))
+                            );
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private static DirectArray newArray(Rnd rnd, int rowCount, int colCount) {
+        final DirectArray array = new DirectArray();
+        array.setType(ColumnType.encodeArrayType(ColumnType.DOUBLE, 2));
+        array.setDimLen(0, rowCount);
+        array.setDimLen(1, colCount);
+        array.applyShape();
+        final MemoryA mem = array.startMemoryA();
+        for (int i = 0, n = rowCount * colCount; i < n; i++) {
+            mem.putDouble(rnd.nextInt(20) == 0 ? Double.NaN : rnd.nextDouble() * 100 - 50);
+        }
+        return array;
+    }
+}
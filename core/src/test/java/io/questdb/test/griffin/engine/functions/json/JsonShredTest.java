@@ -0,0 +1,267 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.engine.functions.json;
+
+import io.questdb.PropertyKey;
+import io.questdb.griffin.engine.functions.json.JsonShredCache;
+import io.questdb.std.Numbers;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class JsonShredTest extends AbstractCairoTest {
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        setProperty(PropertyKey.CAIRO_JSON_SHRED_MEMORY_SIZE, Numbers.SIZE_1MB);
+        setProperty(PropertyKey.CAIRO_JSON_SHRED_MIN_QUERIES, 2);
+        setProperty(PropertyKey.CAIRO_JSON_SHRED_PATHS, "$.listed, .other");
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Test
+    public void testAppendedRowsAreParsed() throws Exception {
+        assertMemoryLeak(() -> {
+            final JsonShredCache cache = engine.getJsonShredCache();
+            try {
+                execute("create table x (j varchar, ts timestamp) timestamp(ts) partition by day");
+                execute("insert into x values ('{\"listed\": 1}', '2024-01-01T00:00:00'), ('{\"listed\": 2}', '2024-01-01T01:00:00')");
+                assertQuery("select json_extract(j, '$.listed')::long v from x")
+                        .noLeakCheck()
+                        .returnsOnce("""
+                                v
+                                1
+                                2
+                                """);
+                Assert.assertEquals(1, cache.getEntryCount());
+
+                execute("insert into x values ('{\"listed\": 3}', '2024-01-01T02:00:00')");
+                assertQuery("select json_extract(j, '$.listed')::long v from x")
+                        .noLeakCheck()
+                        .returnsOnce("""
+                                v
+                                1
+                                2
+                                3
+                                """);
+                Assert.assertEquals(1, cache.getEntryCount());
+
+                // appended rows outnumber the shredded ones, the partition is shredded again
+                execute("insert into x values ('{\"listed\": 4}', '2024-01-01T03:00:00'), ('{\"listed\": 5}', '2024-01-01T04:00:00')");
+                assertQuery("select json_extract(j, '$.listed')::long v from x")
+                        .noLeakCheck()
+                        .returnsOnce("""
+                                v
+                                1
+                                2
+                                3
+                                4
+                                5
+                                """);
+                Assert.assertEquals(1, cache.getEntryCount());
+                Assert.assertEquals(5 * Long.BYTES, cache.getCachedBytes());
+            } finally {
+                cache.clear();
+            }
+        });
+    }
+
+    @Test
+    public void testCacheReplacesEntryWithMoreRows() {
+        try (JsonShredCache cache = new JsonShredCache(1024, 1, "")) {
+            final JsonShredCache.Entry small = cache.allocate(1, 0, "$.a", 0, 0, 0, 0, 0, 0, 4);
+            Assert.assertNotNull(small);
+            Assert.assertSame(small, cache.put(small));
+
+            final JsonShredCache.Entry large = cache.allocate(1, 0, "$.a", 0, 0, 0, 0, 0, 0, 8);
+            Assert.assertNotNull(large);
+            Assert.assertSame(large, cache.put(large));
+            Assert.assertEquals(1, cache.getEntryCount());
+            Assert.assertEquals(8 * Long.BYTES, cache.getCachedBytes());
+
+            // a concurrent build of fewer rows keeps the cached entry
+            final JsonShredCache.Entry stale = cache.allocate(1, 0, "$.a", 0, 0, 0, 0, 0, 0, 2);
+            Assert.assertNotNull(stale);
+            Assert.assertSame(large, cache.put(stale));
+
+            cache.release(small);
+            cache.release(large);
+            cache.release(large);
+
+            Assert.assertSame(large, cache.acquire(1, 0, "$.a", 0, 0, 0, 0, 0, 0));
+            cache.release(large);
+            // another partition version
+            Assert.assertNull(cache.acquire(1, 0, "$.a", 0, 0, 1, 0, 0, 0));
+            Assert.assertNull(cache.acquire(1, 0, "$.b", 0, 0, 0, 0, 0, 0));
+        }
+    }
+
+    @Test
+    public void testMemoryIsBounded() {
+        try (JsonShredCache cache = new JsonShredCache(1024, 1, "")) {
+            Assert.assertNull(cache.allocate(1, 0, "$.a", 0, 0, 0, 0, 0, 0, 129));
+            for (int i = 0; i < 10; i++) {
+                final JsonShredCache.Entry entry = cache.allocate(1, 0, "$.a", 0, i, 0, 0, 0, 0, 64);
+                Assert.assertNotNull(entry);
+                Assert.assertSame(entry, cache.put(entry));
+                cache.release(entry);
+                Assert.assertTrue(cache.getCachedBytes() <= 1024);
+            }
+            Assert.assertEquals(2, cache.getEntryCount());
+            final JsonShredCache.Entry pinned = cache.acquire(1, 0, "$.a", 0, 9, 0, 0, 0, 0);
+            Assert.assertNotNull(pinned);
+
+            // pinned entries are not evicted
+            final JsonShredCache.Entry entry = cache.allocate(1, 0, "$.a", 0, 10, 0, 0, 0, 0, 128);
+            Assert.assertNotNull(entry);
+            Assert.assertNull(cache.put(entry));
+            Assert.assertEquals(1, cache.getEntryCount());
+            Assert.assertSame(pinned, cache.acquire(1, 0, "$.a", 0, 9, 0, 0, 0, 0));
+            cache.release(pinned);
+            cache.release(pinned);
+        }
+    }
+
+    @Test
+    public void testOnlyScannedBlocksAreParsed() throws Exception {
+        assertMemoryLeak(() -> {
+            final JsonShredCache cache = engine.getJsonShredCache();
+            try {
+                // 3 blocks of rows in a single partition
+                execute("create table x (j varchar, ts timestamp) timestamp(ts) partition by day");
+                execute("insert into x select '{\"listed\": ' || x || '}', '2024-01-01'::timestamp + x * 1_000_000L from long_sequence(10000)");
+
+                assertQuery("select json_extract(j, '$.listed')::long v from x limit 3")
+                        .noLeakCheck()
+                        .returnsOnce("""
+                                v
+                                1
+                                2
+                                3
+                                """);
+                Assert.assertEquals(1, cache.getEntryCount());
+                Assert.assertEquals(1, cache.getFilledBlockCount());
+
+                assertQuery("select json_extract(j, '$.listed')::long v from x where ts >= '2024-01-01T02:46:38'")
+                        .noLeakCheck()
+                        .returnsOnce("""
+                                v
+                                9998
+                                9999
+                                10000
+                                """);
+                Assert.assertEquals(2, cache.getFilledBlockCount());
+
+                assertQuery("select json_extract(j, '$.listed')::long v from x where ts in '2024-01-01T01:23:20'")
+                        .noLeakCheck()
+                        .returnsOnce("""
+                                v
+                                5000
+                                """);
+                Assert.assertEquals(3, cache.getFilledBlockCount());
+                Assert.assertEquals(1, cache.getEntryCount());
+            } finally {
+                cache.clear();
+            }
+        });
+    }
+
+    @Test
+    public void testPathsAreLearnedFromQueries() {
+        try (JsonShredCache cache = new JsonShredCache(1024, 3, "$.listed, .other")) {
+            Assert.assertTrue(cache.onQuery(1, 0, "$.listed"));
+            Assert.assertTrue(cache.onQuery(2, 5, ".other"));
+            Assert.assertFalse(cache.onQuery(1, 0, "$.a"));
+            Assert.assertFalse(cache.onQuery(1, 0, "$.a"));
+            Assert.assertFalse(cache.onQuery(1, 1, "$.a"));
+            Assert.assertFalse(cache.onQuery(2, 0, "$.a"));
+            Assert.assertTrue(cache.onQuery(1, 0, "$.a"));
+            cache.clear();
+            Assert.assertFalse(cache.onQuery(1, 0, "$.a"));
+        }
+    }
+
+    @Test
+    public void testShreddedValuesMatchParsedValues() throws Exception {
+        assertMemoryLeak(() -> {
+            final JsonShredCache cache = engine.getJsonShredCache();
+            try {
+                execute("create table x (j varchar, ts timestamp) timestamp(ts) partition by day");
+                execute(
+                        """
+                                insert into x values
+                                ('{"a": 1.5, "b": 10, "c": true, "d": "2024-01-02T03:04:05.000000Z", "e": "1.2.3.4"}', '2024-01-01T00:00:00'),
+                                ('{"a": "x", "b": 11, "c": false}', '2024-01-01T01:00:00'),
+                                (null, '2024-01-01T02:00:00'),
+                                ('{"b": 12}', '2024-01-02T00:00:00'),
+                                ('not json', '2024-01-02T01:00:00'),
+                                ('{"a": -2, "b": -13, "c": 1, "e": 5}', '2024-01-02T02:00:00')
+                                """
+                );
+                execute("alter table x add column k varchar");
+                execute("insert into x values ('{\"a\": 3}', '2024-01-02T03:00:00', '{\"a\": 4}')");
+
+                final String query = """
+                        select
+                            json_extract(j, '$.a')::double a,
+                            json_extract(j, '$.b')::long b,
+                            json_extract(j, '$.b')::int i,
+                            json_extract(j, '$.b')::short s,
+                            json_extract(j, '$.c')::boolean c,
+                            json_extract(j, '$.d')::date d,
+                            json_extract(j, '$.d')::timestamp t,
+                            json_extract(j, '$.e')::ipv4 e,
+                            json_extract(k, '$.a')::float ka
+                        from x
+                        """;
+                // the first query parses, the second shreds, the third reads the cache
+                printSql(query);
+                Assert.assertEquals(0, cache.getEntryCount());
+                final String expected = sink.toString();
+                for (int i = 0; i < 2; i++) {
+                    assertQuery(query)
+                            .noLeakCheck()
+                            .returnsOnce(expected);
+                }
+                // 9 paths over 2 partitions
+                Assert.assertEquals(18, cache.getEntryCount());
+
+                final String filtered = "select ts from x where json_extract(j, '$.b')::long > 10";
+                printSql(filtered);
+                Assert.assertEquals(
+                        """
+                                ts
+                                2024-01-01T01:00:00.000000Z
+                                2024-01-02T00:00:00.000000Z
+                                """,
+                        sink.toString()
+                );
+            } finally {
+                cache.clear();
+            }
+        });
+    }
+}
@@ -56,6 +56,25 @@ public class NotMatchVarcharFunctionFactoryTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testNonAsciiPattern() throws Exception {
+        assertMemoryLeak(() -> {
+            execute("create table x (name varchar)");
+            execute("insert into x values ('café'), ('日本'), ('über'), ('abc'), (null)");
+            assertQuery("select name, name ~ 'caf.$|^.本' m, name !~ 'caf.$|^.本' nm from x")
+                    .noLeakCheck()
+                    .expectSize()
+                    .returns("""
+                            name\tm\tnm
+                            café\ttrue\tfalse
+                            日本\ttrue\tfalse
+                            über\tfalse\ttrue
+                            abc\tfalse\ttrue
+                            \tfalse\ttrue
+                            """);
+        });
+    }
+
     @Test
     public void testSimple() throws Exception {
         assertMemoryLeak(() -> {
@@ -63,6 +63,25 @@ public class RegexpReplaceVarcharFunctionFactoryTest extends AbstractCairoTest {
         );
     }
 
+    @Test
+    public void testNonMatchingRowsAreReturnedAsIs() throws Exception {
+        assertMemoryLeak(() -> {
+            execute("create table x (s varchar)");
+            execute("insert into x values ('naïve café'), ('日本 1'), ('no digits'), (null), ('a1b22')");
+            assertQuery("select regexp_replace(s, '[0-9]+', '#') from x")
+                    .noLeakCheck()
+                    .expectSize()
+                    .returns("""
+                            regexp_replace
+                            naïve café
+                            日本 #
+                            no digits
+                            
+                            a#b#
+                            """);
+        });
+    }
+
     @Test
     public void testNullRegex() throws Exception {
         assertQuery("select regexp_replace('abc'::varchar, null, 'def')")
@@ -0,0 +1,148 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.engine.functions.regex;
+
+import io.questdb.griffin.engine.functions.regex.Utf8Regex;
+import io.questdb.std.Rnd;
+import io.questdb.std.str.Utf8String;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+public class Utf8RegexTest extends AbstractCairoTest {
+    private static final String[] ATOMS = {
+            "a", "b", "c", "é", "日", "😀", ".", "[a-c]", "[^a]", "[^\\d]", "\\w", "\\s", "\\d", "^", "$", "\\n", "\\.", "x"
+    };
+    private static final String[] INPUT_PARTS = {
+            "a", "b", "c", "x", "é", "日", "😀", "1", " ", "\n", "\r", "\r\n", "\u0085", "\u2028", "."
+    };
+
+    @Test
+    public void testAgreesWithJavaRegex() {
+        final Rnd rnd = TestUtils.generateRandom(LOG);
+        final StringBuilder pattern = new StringBuilder();
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            pattern.setLength(0);
+            generatePattern(rnd, pattern, 2);
+            final Utf8Regex regex = Utf8Regex.compile(pattern);
+            if (regex == null) {
+                continue;
+            }
+            final Pattern javaPattern = Pattern.compile(pattern.toString());
+            for (int j = 0; j < 20; j++) {
+                input.setLength(0);
+                for (int k = 0, n = rnd.nextInt(8); k < n; k++) {
+                    input.append(INPUT_PARTS[rnd.nextInt(INPUT_PARTS.length)]);
+                }
+                final String str = input.toString();
+                Assert.assertEquals(
+                        "pattern: " + pattern + ", input: " + str,
+                        javaPattern.matcher(str).find(),
+                        regex.find(new Utf8String(str))
+                );
+            }
+        }
+    }
+
+    @Test
+    public void testDotMatchesCodePoint() {
+        final Utf8Regex regex = Utf8Regex.compile("^.$");
+        Assert.assertNotNull(regex);
+        Assert.assertTrue(regex.find(new Utf8String("é")));
+        Assert.assertTrue(regex.find(new Utf8String("日")));
+        Assert.assertTrue(regex.find(new Utf8String("😀")));
+        Assert.assertFalse(regex.find(new Utf8String("ab")));
+        Assert.assertFalse(regex.find(new Utf8String("\u2028")));
+    }
+
+    @Test
+    public void testEndBeforeFinalLineTerminator() {
+        final Utf8Regex regex = Utf8Regex.compile("abc$");
+        Assert.assertNotNull(regex);
+        Assert.assertTrue(regex.find(new Utf8String("abc")));
+        Assert.assertTrue(regex.find(new Utf8String("abc\n")));
+        Assert.assertTrue(regex.find(new Utf8String("abc\r\n")));
+        Assert.assertTrue(regex.find(new Utf8String("abc\u2028")));
+        Assert.assertFalse(regex.find(new Utf8String("abc\n\n")));
+        Assert.assertFalse(regex.find(new Utf8String("abcd")));
+    }
+
+    @Test
+    public void testLiteralAlternation() {
+        final Utf8Regex regex = Utf8Regex.compile("foo|bär|baz");
+        Assert.assertNotNull(regex);
+        Assert.assertEquals("foo|bär|baz", regex.toString());
+        Assert.assertTrue(regex.find(new Utf8String("xx bär")));
+        Assert.assertTrue(regex.find(new Utf8String("bazooka")));
+        Assert.assertFalse(regex.find(new Utf8String("bar")));
+        Assert.assertFalse(regex.find(new Utf8String("")));
+    }
+
+    @Test
+    public void testUnsupportedPatterns() {
+        Assert.assertNull(Utf8Regex.compile("\\bfoo"));
+        Assert.assertNull(Utf8Regex.compile("(a)\\1"));
+        Assert.assertNull(Utf8Regex.compile("(?i)foo"));
+        Assert.assertNull(Utf8Regex.compile("foo(?=bar)"));
+        Assert.assertNull(Utf8Regex.compile("[é]"));
+        Assert.assertNull(Utf8Regex.compile("a++"));
+        Assert.assertNull(Utf8Regex.compile("\\p{Lu}"));
+    }
+
+    private static void generatePattern(Rnd rnd, StringBuilder sink, int depth) {
+        for (int i = 0, n = 1 + rnd.nextInt(4); i < n; i++) {
+            final int kind = rnd.nextInt(10);
+            if (kind == 0 && depth > 0) {
+                sink.append('(');
+                generatePattern(rnd, sink, depth - 1);
+                sink.append('|');
+                generatePattern(rnd, sink, depth - 1);
+                sink.append(')');
+            } else {
+                sink.append(ATOMS[rnd.nextInt(ATOMS.length)]);
+            }
+            switch (rnd.nextInt(8)) {
+                case 0:
+                    sink.append('*');
+                    break;
+                case 1:
+                    sink.append('+');
+                    break;
+                case 2:
+                    sink.append('?');
+                    break;
+                case 3:
+                    sink.append("{1,2}");
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
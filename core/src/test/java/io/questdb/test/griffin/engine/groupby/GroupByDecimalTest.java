@@ -25,6 +25,7 @@
 package io.questdb.test.griffin.engine.groupby;
 
 import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
 import org.junit.Test;
 
 /**
@@ -326,4 +327,44 @@ public class GroupByDecimalTest extends AbstractCairoTest {
                         "20.5\t100.00\t2\n" +
                         "20.5\t200.00\t2\n");
     }
+
+    @Test
+    public void testVectorizedDecimal64Aggregates() throws Exception {
+        execute("create table vecdectest (sym symbol, d decimal(18, 0), ts timestamp) timestamp(ts) partition by day");
+        // the sum of "a" does not fit into a long
+        execute("insert into vecdectest select 'a', 999999999999999999m, x::timestamp from long_sequence(10)");
+        execute("insert into vecdectest values " +
+                "('a', -1m, '1970-01-02'), ('b', null, '1970-01-02'), ('c', 5m, '1970-01-03')");
+
+        assertQuery("select sym, sum(d), min(d), max(d), count(d) from vecdectest order by sym")
+                .withPlanContaining("GroupBy vectorized: true")
+                .expectSize()
+                .returns("sym\tsum\tmin\tmax\tcount\n" +
+                        "a\t9999999999999999989\t-1\t999999999999999999\t11\n" +
+                        "b\t\t\t\t0\n" +
+                        "c\t5\t5\t5\t1\n");
+    }
+
+    @Test
+    public void testVectorizedDecimal64KeyColumnTop() throws Exception {
+        assertMemoryLeak(() -> {
+            execute("create table coltop as (" +
+                    "select rnd_decimal(15, 2, 2) d, timestamp_sequence(0, 60000000) ts from long_sequence(5000)" +
+                    ") timestamp(ts) partition by hour");
+            // rows written before the key column existed aggregate under the null key
+            execute("alter table coltop add column sym symbol");
+            execute("insert into coltop " +
+                    "select rnd_decimal(15, 2, 2), timestamp_sequence(300000000000, 60000000), rnd_symbol('a', 'b', 'c', null) " +
+                    "from long_sequence(5000)");
+
+            TestUtils.assertSqlCursors(
+                    engine,
+                    sqlExecutionContext,
+                    "select sym::string sym, sum(d), min(d), max(d), count(d) from coltop order by sym",
+                    "select sym, sum(d), min(d), max(d), count(d) from coltop order by sym",
+                    LOG,
+                    true
+            );
+        });
+    }
 }
@@ -24,6 +24,7 @@
 
 package io.questdb.test.griffin.engine.table;
 
+import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
 import io.questdb.griffin.engine.functions.constants.BooleanConstant;
@@ -52,6 +53,39 @@ public class AsyncFilterAtomTest extends AbstractCairoTest {
         Assert.assertTrue(atom.shouldUseLateMaterialization(0, true, false));
     }
 
+    @Test
+    public void testPreTouchSkipsFilterAndUnusedColumns() {
+        final IntHashSet filterColumns = new IntHashSet();
+        filterColumns.add(0);
+        final IntList columnTypes = new IntList();
+        columnTypes.add(ColumnType.LONG);
+        columnTypes.add(ColumnType.VARCHAR);
+        columnTypes.add(ColumnType.DOUBLE);
+        columnTypes.add(ColumnType.STRING);
+        final AsyncFilterAtom atom = new AsyncFilterAtom(
+                configuration,
+                BooleanConstant.TRUE,
+                filterColumns,
+                null,
+                columnTypes,
+                true
+        );
+
+        // filter columns are already paged in by the filter
+        Assert.assertEquals("[1,2,3]", atom.getPreTouchColumnIndexes().toString());
+
+        // the parent reads the filter column and a single other one
+        final IntHashSet parentColumns = new IntHashSet();
+        parentColumns.add(0);
+        parentColumns.add(2);
+        atom.setParentUsedColumns(parentColumns);
+        Assert.assertEquals("[2]", atom.getPreTouchColumnIndexes().toString());
+        Assert.assertEquals(3, atom.getLateMaterializationSkipColumnIndexes().size());
+
+        atom.clear();
+        Assert.assertEquals("[1,2,3]", atom.getPreTouchColumnIndexes().toString());
+    }
+
     @Test
     public void testThreadSafeFilterSharesOneSelectivityEma() {
         final AsyncFilterAtom atom = newAtom();
@@ -1298,6 +1298,11 @@ public class AsyncFilteredRecordCursorFactoryTest extends AbstractCairoTest {
             return sqlExecutionContext.isCacheHit();
         }
 
+        @Override
+        public boolean isParallelAsOfJoinEnabled() {
+            return sqlExecutionContext.isParallelAsOfJoinEnabled();
+        }
+
         @Override
         public boolean isParallelFilterEnabled() {
             return sqlExecutionContext.isParallelFilterEnabled();
@@ -1429,6 +1434,11 @@ public class AsyncFilteredRecordCursorFactoryTest extends AbstractCairoTest {
             sqlExecutionContext.setNowAndFixClock(now, nowTimestampType);
         }
 
+        @Override
+        public void setParallelAsOfJoinEnabled(boolean parallelAsOfJoinEnabled) {
+            sqlExecutionContext.setParallelAsOfJoinEnabled(parallelAsOfJoinEnabled);
+        }
+
         @Override
         public void setParallelFilterEnabled(boolean parallelFilterEnabled) {
             sqlExecutionContext.setParallelFilterEnabled(parallelFilterEnabled);
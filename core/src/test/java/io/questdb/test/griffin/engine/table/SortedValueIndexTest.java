@@ -0,0 +1,177 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.engine.table;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.idx.QueryIndexMemoryBudget;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SortedValueIndexTest extends AbstractCairoTest {
+
+    @Before
+    public void setUp() {
+        // several frames per partition
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MIN_ROWS, 100);
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, 100);
+        super.setUp();
+    }
+
+    @Test
+    public void testAppendAndO3Merge() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            bindVariableService.setLong(0, 7);
+            try (RecordCursorFactory factory = select("select /*+ value_index */ * from x where id = $1")) {
+                assertFactory(factory, "select /*+ no_index */ * from x where id = 7");
+
+                // plain append to the last partition, the index covers only the old rows
+                execute("insert into x select x % 50, (x % 13)::int, '1970-01-04'::timestamp + x * 60_000_000L from long_sequence(500)");
+                assertFactory(factory, "select /*+ no_index */ * from x where id = 7");
+
+                // O3 rewrites the partitions, the indexes have to be rebuilt
+                execute("insert into x select x % 50, (x % 13)::int, '1970-01-01T12:00:00'::timestamp + x * 1_000_000L from long_sequence(300)");
+                assertFactory(factory, "select /*+ no_index */ * from x where id = 7");
+
+                bindVariableService.setLong(0, 49);
+                assertFactory(factory, "select /*+ no_index */ * from x where id = 49");
+
+                execute("truncate table x");
+                execute("insert into x select x % 3, 1, '1970-01-01'::timestamp + x * 60_000_000L from long_sequence(100)");
+                assertFactory(factory, "select /*+ no_index */ * from x where id = 49");
+            }
+        });
+    }
+
+    @Test
+    public void testColumnTop() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            execute("alter table x add column v long");
+            execute("insert into x select x % 50, (x % 13)::int, '1970-01-03T23:00:00'::timestamp + x * 1_000_000L, x % 5 from long_sequence(3000)");
+            assertLookup("v = 3");
+            assertLookup("v < 2");
+            assertLookup("v = null");
+        });
+    }
+
+    @Test
+    public void testDisabledByConfig() throws Exception {
+        setProperty(PropertyKey.CAIRO_SQL_VALUE_INDEX_ENABLED, "false");
+        assertMemoryLeak(() -> {
+            createTable();
+            printSql("explain select /*+ value_index */ * from x where id = 5");
+            TestUtils.assertNotContains(sink, "Sorted value index scan");
+        });
+    }
+
+    @Test
+    public void testEngineWideMemoryBudget() throws Exception {
+        // room for the index of a single 1440-row partition, 16 bytes per row
+        setProperty(PropertyKey.CAIRO_SQL_VALUE_INDEX_MEMORY_LIMIT, 1440 * 16);
+        assertMemoryLeak(() -> {
+            createTable();
+            final QueryIndexMemoryBudget budget = engine.getValueIndexMemoryBudget();
+            final String query = "select /*+ value_index */ * from x where id = 5 and ts in '1970-01-02'";
+            try (
+                    RecordCursorFactory factoryA = select(query);
+                    RecordCursorFactory factoryB = select(query)
+            ) {
+                assertFactory(factoryA, "select * from x where id = 5 and ts in '1970-01-02'");
+                Assert.assertEquals(1440 * 16, budget.getUsed());
+                // the budget is taken by the first factory, the second one scans the partition
+                assertFactory(factoryB, "select * from x where id = 5 and ts in '1970-01-02'");
+                Assert.assertEquals(1440 * 16, budget.getUsed());
+            }
+            Assert.assertEquals(0, budget.getUsed());
+        });
+    }
+
+    @Test
+    public void testRequiresHint() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            assertPlanContains("select /*+ value_index */ * from x where id = 5", "Sorted value index scan");
+            printSql("explain select * from x where id = 5");
+            TestUtils.assertNotContains(sink, "Sorted value index scan");
+            printSql("explain select /*+ value_index no_index */ * from x where id = 5");
+            TestUtils.assertNotContains(sink, "Sorted value index scan");
+            printSql("explain select /*+ value_index */ * from x where id::double = 5");
+            TestUtils.assertNotContains(sink, "Sorted value index scan");
+        });
+    }
+
+    @Test
+    public void testLookups() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            assertLookup("id = 5");
+            assertLookup("id = 5 and qty > 3");
+            assertLookup("id in (1, 3, 3, 500)");
+            assertLookup("id = 5 or id = 6");
+            assertLookup("id between 10 and 12");
+            assertLookup("id between 12 and 10");
+            assertLookup("id > 45");
+            assertLookup("45 < id");
+            assertLookup("id >= 45");
+            assertLookup("id < 2");
+            assertLookup("id <= 2");
+            assertLookup("qty = 12");
+            assertLookup("qty in (1, 2) and id > 40");
+            assertLookup("qty = 10000000000");
+            assertLookup("id = 5 and ts in '1970-01-02'");
+            assertPlanContains("select /*+ value_index */ * from x where qty in (1, 2)", "Sorted value index scan");
+        });
+    }
+
+    private static void assertFactory(RecordCursorFactory factory, String expectedSql) throws SqlException {
+        printSql(expectedSql);
+        final String expected = sink.toString();
+        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+            println(factory, cursor);
+        }
+        TestUtils.assertEquals(expected, sink);
+    }
+
+    private static void assertLookup(String filter) throws SqlException {
+        assertSqlCursors("select * from x where " + filter, "select /*+ value_index */ * from x where " + filter);
+    }
+
+    private static void assertPlanContains(String query, String term) throws SqlException {
+        printSql("explain " + query);
+        TestUtils.assertContains(sink, term);
+    }
+
+    private static void createTable() throws SqlException {
+        execute("create table x (id long, qty int, ts timestamp) timestamp(ts) partition by day bypass wal");
+        execute("insert into x select rnd_long(0, 50, 2), rnd_int(0, 20, 2), '1970-01-01'::timestamp + x * 60_000_000L from long_sequence(4000)");
+    }
+}
@@ -0,0 +1,219 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.engine.table;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.idx.QueryIndexMemoryBudget;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.table.TrigramIndexRowCursorFactory;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TrigramIndexTest extends AbstractCairoTest {
+
+    @Before
+    public void setUp() {
+        // several frames per partition
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MIN_ROWS, 100);
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, 100);
+        super.setUp();
+    }
+
+    @Test
+    public void testAppendAndO3Merge() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            try (RecordCursorFactory factory = select("select /*+ trigram_index */ * from x where msg like '%connection reset%'")) {
+                final String expectedSql = "select * from x where msg like '%connection reset%'";
+                assertFactory(factory, expectedSql);
+
+                // plain append to the last partition, the index covers only the old rows
+                execute("insert into x select 'peer connection reset by ' || x, '1970-01-03T12:00:00'::timestamp + x * 60_000_000L from long_sequence(300)");
+                assertFactory(factory, expectedSql);
+
+                // O3 rewrites the partitions, the indexes have to be rebuilt
+                execute("insert into x select 'Connection Reset ' || x, '1970-01-01T12:00:00'::timestamp + x * 1_000_000L from long_sequence(300)");
+                assertFactory(factory, expectedSql);
+
+                execute("truncate table x");
+                execute("insert into x select 'connection reset', '1970-01-01'::timestamp + x * 60_000_000L from long_sequence(10)");
+                assertFactory(factory, expectedSql);
+            }
+        });
+    }
+
+    @Test
+    public void testColumnTop() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            execute("alter table x add column v varchar");
+            execute("insert into x select 'a', '1970-01-02T23:00:00'::timestamp + x * 1_000_000L, rnd_varchar('timeout', 'connection reset', null) from long_sequence(3000)");
+            assertLookup("v like '%reset%'");
+            assertLookup("v ilike '%RESET'");
+            assertLookup("v ~ 'time(out|d)'");
+        });
+    }
+
+    @Test
+    public void testDisabledByConfig() throws Exception {
+        setProperty(PropertyKey.CAIRO_SQL_TRIGRAM_INDEX_ENABLED, "false");
+        assertMemoryLeak(() -> {
+            createTable();
+            printSql("explain select /*+ trigram_index */ * from x where msg like '%timeout%'");
+            TestUtils.assertNotContains(sink, "Trigram index scan");
+        });
+    }
+
+    @Test
+    public void testEngineWideMemoryBudget() throws Exception {
+        // each 'abcd' value has two trigrams; the 1440 rows of a partition are sorted in 16 bytes
+        // per row and then compacted to 4-byte row ids plus a directory of two trigrams
+        final int sortSize = 1440 * 2 * 8;
+        final int indexSize = 1440 * 2 * 4 + 2 * 8 + 8 + 2 * 4;
+        setProperty(PropertyKey.CAIRO_SQL_TRIGRAM_INDEX_MEMORY_LIMIT, sortSize + 2 * 8 + 8 + 2 * 4);
+        assertMemoryLeak(() -> {
+            execute("create table y (msg varchar, ts timestamp) timestamp(ts) partition by day bypass wal");
+            execute("insert into y select 'abcd', '1970-01-01'::timestamp + x * 60_000_000L from long_sequence(4000)");
+            final QueryIndexMemoryBudget budget = engine.getTrigramIndexMemoryBudget();
+            final String query = "select /*+ trigram_index */ * from y where msg like '%abc%' and ts in '1970-01-02'";
+            try (
+                    RecordCursorFactory factoryA = select(query);
+                    RecordCursorFactory factoryB = select(query)
+            ) {
+                assertFactory(factoryA, "select * from y where msg like '%abc%' and ts in '1970-01-02'");
+                Assert.assertEquals(indexSize, budget.getUsed());
+                // the rest of the budget is too small to sort the entries, the second factory scans the partition
+                assertFactory(factoryB, "select * from y where msg like '%abc%' and ts in '1970-01-02'");
+                Assert.assertEquals(indexSize, budget.getUsed());
+            }
+            Assert.assertEquals(0, budget.getUsed());
+        });
+    }
+
+    @Test
+    public void testLookups() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            assertLookup("msg like '%connection reset%'");
+            assertLookup("msg like 'disk%'");
+            assertLookup("msg like '%time_ut%'");
+            assertLookup("msg like '%100\\%%'");
+            assertLookup("msg like '%Connection%'");
+            assertLookup("msg ilike '%CONNECTION RESET%'");
+            assertLookup("msg ilike '%über%'");
+            assertLookup("msg like '%über%'");
+            assertLookup("msg like '%日本語%'");
+            assertLookup("msg ~ 'reset|timeout'");
+            assertLookup("msg ~ '^disk [0-9]+% full$'");
+            assertLookup("msg ~ 'reset' and ts in '1970-01-02'");
+            assertLookup("msg like '%reset%' and msg like '%peer%'");
+            assertLookup("msg like '%no such message%'");
+            assertPlanContains("select /*+ trigram_index */ * from x where msg ~ 'reset|timeout'", "Trigram index scan");
+        });
+    }
+
+    @Test
+    public void testPatternTrigrams() {
+        Assert.assertNull(TrigramIndexRowCursorFactory.likeTrigrams("%ab%", false));
+        Assert.assertNull(TrigramIndexRowCursorFactory.likeTrigrams("%a_c%", false));
+        Assert.assertNull(TrigramIndexRowCursorFactory.likeTrigrams("%über%", true));
+        Assert.assertEquals(1, TrigramIndexRowCursorFactory.likeTrigrams("%über%", false).size());
+        Assert.assertEquals(3, TrigramIndexRowCursorFactory.likeTrigrams("abcd%xyz", false).getQuick(0).size());
+        Assert.assertEquals(1, TrigramIndexRowCursorFactory.likeTrigrams("%aaaA%", false).getQuick(0).size());
+        Assert.assertEquals(2, TrigramIndexRowCursorFactory.regexTrigrams("abc|def").size());
+        Assert.assertNull(TrigramIndexRowCursorFactory.regexTrigrams("ab|def"));
+        Assert.assertNull(TrigramIndexRowCursorFactory.regexTrigrams("\\bfoo"));
+    }
+
+    @Test
+    public void testRequiresHint() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            assertPlanContains("select /*+ trigram_index */ * from x where msg like '%timeout%'", "Trigram index scan");
+            // queries without the hint keep the parallel filter
+            printSql("explain select * from x where msg like '%timeout%'");
+            TestUtils.assertNotContains(sink, "Trigram index scan");
+            printSql("explain select /*+ trigram_index no_index */ * from x where msg like '%timeout%'");
+            TestUtils.assertNotContains(sink, "Trigram index scan");
+            // no literal of 3 bytes or more
+            printSql("explain select /*+ trigram_index */ * from x where msg like '%to%'");
+            TestUtils.assertNotContains(sink, "Trigram index scan");
+        });
+    }
+
+    @Test
+    public void testStringColumn() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            execute("alter table x add column s string");
+            execute(
+                    "insert into x select 'a', '1970-01-02T23:00:00'::timestamp + x * 1_000_000L, " +
+                            "rnd_str('connection reset by peer', 'timeout', 'über alles', '日本語のログ', 'ok', null) from long_sequence(3000)"
+            );
+            assertLookup("s like '%connection reset%'");
+            assertLookup("s like '%über%'");
+            assertLookup("s like '%日本語%'");
+            assertLookup("s ~ 'reset|timeout'");
+            assertPlanContains("select /*+ trigram_index */ * from x where s like '%reset%'", "Trigram index scan");
+            // ILIKE on STRING folds non-ASCII chars too, so it is left to the filter
+            assertLookup("s ilike '%RESET%'");
+            printSql("explain select /*+ trigram_index */ * from x where s ilike '%reset%'");
+            TestUtils.assertNotContains(sink, "Trigram index scan");
+        });
+    }
+
+    private static void assertFactory(RecordCursorFactory factory, String expectedSql) throws SqlException {
+        printSql(expectedSql);
+        final String expected = sink.toString();
+        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+            println(factory, cursor);
+        }
+        TestUtils.assertEquals(expected, sink);
+    }
+
+    private static void assertLookup(String filter) throws SqlException {
+        assertSqlCursors("select * from x where " + filter, "select /*+ trigram_index */ * from x where " + filter);
+    }
+
+    private static void assertPlanContains(String query, String term) throws SqlException {
+        printSql("explain " + query);
+        TestUtils.assertContains(sink, term);
+    }
+
+    private static void createTable() throws SqlException {
+        execute("create table x (msg varchar, ts timestamp) timestamp(ts) partition by day bypass wal");
+        execute(
+                "insert into x select rnd_varchar(" +
+                        "'connection reset by peer', 'Connection RESET', 'timeout', 'disk 100% full', 'über alles', " +
+                        "'日本語のログ', 'ok', null, 'peer reset the connection'" +
+                        "), '1970-01-01'::timestamp + x * 60_000_000L from long_sequence(4000)"
+        );
+    }
+}
@@ -0,0 +1,133 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.engine.table.parquet;
+
+import io.questdb.PropertyKey;
+import io.questdb.griffin.engine.table.parquet.ParquetRowGroupCache;
+import io.questdb.griffin.engine.table.parquet.ParquetRowGroupCacheMetrics;
+import io.questdb.std.Numbers;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParquetRowGroupCacheTest extends AbstractCairoTest {
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        setProperty(PropertyKey.CAIRO_SQL_PARQUET_SHARED_CACHE_MEMORY_SIZE, 16 * Numbers.SIZE_1MB);
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Test
+    public void testPartitionRewriteIsNotServedFromCache() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            final String query = "select id, d, i from x where id % 3 = 0";
+            execute("alter table x convert partition to parquet where ts >= 0");
+            final ParquetRowGroupCache cache = engine.getParquetRowGroupCache();
+            try {
+                printSql(query);
+                Assert.assertTrue(cache.getEntryCount() > 0);
+
+                execute("alter table x convert partition to native where ts >= 0");
+                execute("update x set i = 42 where id % 2 = 0");
+                printSql(query);
+                final String expected = sink.toString();
+
+                // The new Parquet files have new name txns, so stale chunks must not be hit.
+                execute("alter table x convert partition to parquet where ts >= 0");
+                assertQuery(query)
+                        .noLeakCheck()
+                        .returnsOnce(expected);
+                assertQuery(query)
+                        .noLeakCheck()
+                        .returnsOnce(expected);
+            } finally {
+                cache.clear();
+            }
+        });
+    }
+
+    @Test
+    public void testRepeatedQueriesShareDecodedRowGroups() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            final String query = "select id, d, i, v from x where id % 7 = 0";
+            printSql(query);
+            final String expected = sink.toString();
+            final String fixedQuery = "select id, d, i from x where id % 7 = 0";
+            printSql(fixedQuery);
+            final String fixedExpected = sink.toString();
+
+            execute("alter table x convert partition to parquet where ts >= 0");
+            final ParquetRowGroupCache cache = engine.getParquetRowGroupCache();
+            final ParquetRowGroupCacheMetrics metrics = engine.getMetrics().parquetRowGroupCacheMetrics();
+            try {
+                Assert.assertTrue(cache.isEnabled());
+                Assert.assertEquals(0, cache.getEntryCount());
+
+                // VARCHAR chunks are not cached, so this query decodes every row group.
+                assertQuery(query)
+                        .noLeakCheck()
+                        .returnsOnce(expected);
+                final int entryCount = cache.getEntryCount();
+                Assert.assertTrue(entryCount > 0);
+                Assert.assertTrue(cache.getCachedBytes() > 0);
+                assertQuery(query)
+                        .noLeakCheck()
+                        .returnsOnce(expected);
+                Assert.assertEquals(entryCount, cache.getEntryCount());
+
+                // Fixed-size columns only: served from the cache.
+                final long hits = metrics.getHitCount();
+                assertQuery(fixedQuery)
+                        .noLeakCheck()
+                        .returnsOnce(fixedExpected);
+                Assert.assertTrue(metrics.getHitCount() > hits);
+                Assert.assertEquals(entryCount, cache.getEntryCount());
+                Assert.assertTrue(metrics.getHitRatio() > 0);
+            } finally {
+                cache.clear();
+            }
+            Assert.assertEquals(0, cache.getEntryCount());
+            Assert.assertEquals(0, cache.getCachedBytes());
+        });
+    }
+
+    private static void createTable() throws Exception {
+        execute(
+                "create table x as (" +
+                        "select" +
+                        " x id," +
+                        " rnd_double() d," +
+                        " rnd_int() i," +
+                        " rnd_varchar(1, 10, 1) v," +
+                        " timestamp_sequence('2024-01-01', 60_000_000) ts" +
+                        " from long_sequence(5000)" +
+                        ") timestamp(ts) partition by day"
+        );
+    }
+}
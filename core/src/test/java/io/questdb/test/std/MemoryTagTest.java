@@ -0,0 +1,43 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.std;
+
+import io.questdb.std.MemoryTag;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MemoryTagTest {
+
+    @Test
+    public void testTagOf() {
+        for (int tag = 0; tag < MemoryTag.SIZE; tag++) {
+            Assert.assertEquals(tag, MemoryTag.tagOf(MemoryTag.nameOf(tag)));
+        }
+        Assert.assertEquals(MemoryTag.NATIVE_FAST_MAP, MemoryTag.tagOf("native_fast_map"));
+        Assert.assertEquals(MemoryTag.MMAP_TABLE_READER, MemoryTag.tagOf("Mmap_Table_Reader"));
+        Assert.assertEquals(-1, MemoryTag.tagOf("NATIVE_FAST"));
+        Assert.assertEquals(-1, MemoryTag.tagOf(""));
+    }
+}
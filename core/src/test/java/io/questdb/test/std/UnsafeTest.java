@@ -0,0 +1,93 @@
+/*+*****************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2026 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.std;
+
+import io.questdb.std.Files;
+import io.questdb.std.IntList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Unsafe;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UnsafeTest {
+    private static final long MIN_SIZE = 2 * 1024 * 1024;
+
+    @After
+    public void tearDown() {
+        Unsafe.setHugePages(new IntList(), 0);
+    }
+
+    @Test
+    public void testHugePageCandidate() {
+        Assert.assertFalse(Unsafe.isHugePageCandidate(Long.MAX_VALUE, MemoryTag.NATIVE_FAST_MAP));
+
+        enableHugePages(MemoryTag.NATIVE_FAST_MAP);
+        final boolean supported = Files.POSIX_MADV_HUGEPAGE != -1;
+        Assert.assertEquals(supported, Unsafe.isHugePageCandidate(MIN_SIZE, MemoryTag.NATIVE_FAST_MAP));
+        Assert.assertFalse(Unsafe.isHugePageCandidate(MIN_SIZE - 1, MemoryTag.NATIVE_FAST_MAP));
+        Assert.assertFalse(Unsafe.isHugePageCandidate(MIN_SIZE, MemoryTag.NATIVE_ROSTI));
+
+        // an empty list turns the advice off
+        Unsafe.setHugePages(new IntList(), MIN_SIZE);
+        Assert.assertFalse(Unsafe.isHugePageCandidate(Long.MAX_VALUE, MemoryTag.NATIVE_FAST_MAP));
+    }
+
+    @Test
+    public void testHugePagesAllocation() {
+        enableHugePages(MemoryTag.NATIVE_FAST_MAP);
+        final long memUsed = Unsafe.getMemUsedByTag(MemoryTag.NATIVE_FAST_MAP);
+        final long size = 2 * MIN_SIZE + 3;
+        long ptr = Unsafe.malloc(size, MemoryTag.NATIVE_FAST_MAP);
+        try {
+            for (long i = 0; i + Long.BYTES <= size; i += Long.BYTES) {
+                Unsafe.putLong(ptr + i, i);
+            }
+            ptr = Unsafe.realloc(ptr, size, 2 * size, MemoryTag.NATIVE_FAST_MAP);
+            Assert.assertEquals(memUsed + 2 * size, Unsafe.getMemUsedByTag(MemoryTag.NATIVE_FAST_MAP));
+            for (long i = 0; i + Long.BYTES <= size; i += Long.BYTES) {
+                Assert.assertEquals(i, Unsafe.getLong(ptr + i));
+            }
+            Unsafe.setMemory(ptr + size, size, (byte) 1);
+            Assert.assertEquals(1, Unsafe.getByte(ptr + 2 * size - 1));
+
+            // unaligned and sub-page ranges are a no-op
+            Unsafe.adviseHugePages(ptr + 1, Files.PAGE_SIZE, MemoryTag.NATIVE_FAST_MAP);
+        } finally {
+            Unsafe.free(ptr, 2 * size, MemoryTag.NATIVE_FAST_MAP);
+        }
+        Assert.assertEquals(memUsed, Unsafe.getMemUsedByTag(MemoryTag.NATIVE_FAST_MAP));
+
+        final long small = Unsafe.calloc(MIN_SIZE / 2, MemoryTag.NATIVE_FAST_MAP);
+        Assert.assertEquals(0, Unsafe.getLong(small));
+        Unsafe.free(small, MIN_SIZE / 2, MemoryTag.NATIVE_FAST_MAP);
+    }
+
+    private static void enableHugePages(int memoryTag) {
+        final IntList tags = new IntList();
+        tags.add(memoryTag);
+        Unsafe.setHugePages(tags, MIN_SIZE);
+    }
+}
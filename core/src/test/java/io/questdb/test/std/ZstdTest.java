@@ -28,6 +28,7 @@ import io.questdb.std.MemoryTag;
 import io.questdb.std.Os;
 import io.questdb.std.Rnd;
 import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
 import io.questdb.std.Zstd;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
@@ -231,6 +232,70 @@ public class ZstdTest {
         });
     }
 
+    @Test
+    public void testStreamingRoundTripInSmallChunks() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            // HTTP bodies travel in chunks: feed both directions through small
+            // buffers and reuse the contexts for a second stream after a reset.
+            final int len = 200 * 1024;
+            final int chunk = 1000;
+            final int compCap = len + 1024;
+            long src = Unsafe.malloc(len, MemoryTag.NATIVE_DEFAULT);
+            long comp = Unsafe.malloc(compCap, MemoryTag.NATIVE_DEFAULT);
+            long decomp = Unsafe.malloc(len, MemoryTag.NATIVE_DEFAULT);
+            long progress = Unsafe.malloc(Zstd.PROGRESS_BLOCK_SIZE, MemoryTag.NATIVE_DEFAULT);
+            long cctx = Zstd.createCCtx(1);
+            long dctx = Zstd.createDCtx();
+            try {
+                Rnd rnd = new Rnd();
+                for (int i = 0; i < len; i++) {
+                    Unsafe.putByte(src + i, (byte) ('a' + rnd.nextInt(4)));
+                }
+                for (int iteration = 0; iteration < 2; iteration++) {
+                    Assert.assertEquals(0, Zstd.resetCCtx(cctx));
+                    Assert.assertEquals(0, Zstd.resetDCtx(dctx));
+
+                    // compress: input in chunks, output in chunks
+                    long compLen = 0;
+                    long srcPos = 0;
+                    long ret;
+                    do {
+                        final long inLen = Math.min(chunk, len - srcPos);
+                        final int endOp = srcPos + inLen == len ? Zstd.END_FRAME : Zstd.END_CONTINUE;
+                        final long outCap = Math.min(chunk, compCap - compLen);
+                        ret = Zstd.compressStream(cctx, src + srcPos, inLen, comp + compLen, outCap, endOp, progress);
+                        Assert.assertTrue(ret >= 0);
+                        srcPos += Zstd.getConsumed(progress);
+                        compLen += Zstd.getProduced(progress);
+                    } while (srcPos < len || ret > 0);
+                    Assert.assertTrue(compLen < len);
+
+                    // decompress: input in chunks, output in chunks
+                    long decompLen = 0;
+                    long compPos = 0;
+                    do {
+                        final long inLen = Math.min(chunk, compLen - compPos);
+                        final long outCap = Math.min(chunk, len - decompLen);
+                        ret = Zstd.decompressStream(dctx, comp + compPos, inLen, decomp + decompLen, outCap, progress);
+                        Assert.assertTrue(ret >= 0);
+                        compPos += Zstd.getConsumed(progress);
+                        decompLen += Zstd.getProduced(progress);
+                    } while (ret != 0);
+                    Assert.assertEquals(compLen, compPos);
+                    Assert.assertEquals(len, decompLen);
+                    Assert.assertTrue(Vect.memeq(src, decomp, len));
+                }
+            } finally {
+                Zstd.freeCCtx(cctx);
+                Zstd.freeDCtx(dctx);
+                Unsafe.free(src, len, MemoryTag.NATIVE_DEFAULT);
+                Unsafe.free(comp, compCap, MemoryTag.NATIVE_DEFAULT);
+                Unsafe.free(decomp, len, MemoryTag.NATIVE_DEFAULT);
+                Unsafe.free(progress, Zstd.PROGRESS_BLOCK_SIZE, MemoryTag.NATIVE_DEFAULT);
+            }
+        });
+    }
+
     private void roundTrip(long srcAddr, int srcLen) {
         long cctx = Zstd.createCCtx(3);
         long dctx = Zstd.createDCtx();